@@ -0,0 +1,95 @@
+package org.osm2world.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.osm2world.core.map_data.data.MapData;
+import org.osm2world.core.map_elevation.creation.EleConstraintEnforcer;
+import org.osm2world.core.map_elevation.creation.NoneEleConstraintEnforcer;
+import org.osm2world.core.map_elevation.creation.SimpleEleConstraintEnforcer;
+import org.osm2world.core.map_elevation.data.EleConnector;
+import org.osm2world.core.math.VectorXYZ;
+import org.osm2world.core.world.data.WorldObject;
+
+import de.topobyte.osm4j.core.resolve.EntityNotFoundException;
+
+/**
+ * benchmarks the {@link EleConstraintEnforcer} implementations,
+ * including the definition of the constraints by the world objects of the converted input.
+ * The connectors are reset to their initial elevations before each invocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class EleConstraintEnforcerBenchmark {
+
+	@Param({"NoneEleConstraintEnforcer", "SimpleEleConstraintEnforcer"})
+	public String enforcer;
+
+	private MapData mapData;
+	private List<EleConnector> connectors;
+	private List<VectorXYZ> initialPositions;
+
+	@Setup(Level.Trial)
+	public void prepare(InputState input) throws IOException, EntityNotFoundException {
+
+		mapData = input.convert().getMapData();
+
+		connectors = new ArrayList<>();
+		initialPositions = new ArrayList<>();
+
+		for (WorldObject object : mapData.getWorldObjects()) {
+			for (EleConnector connector : object.getEleConnectors()) {
+				connectors.add(connector);
+				initialPositions.add(connector.getPosXYZ());
+			}
+		}
+
+	}
+
+	@Setup(Level.Invocation)
+	public void resetConnectors() {
+		for (int i = 0; i < connectors.size(); i++) {
+			connectors.get(i).setPosXYZ(initialPositions.get(i));
+		}
+	}
+
+	@Benchmark
+	public EleConstraintEnforcer enforceConstraints() {
+
+		EleConstraintEnforcer result = switch (enforcer) {
+			case "NoneEleConstraintEnforcer" -> new NoneEleConstraintEnforcer();
+			case "SimpleEleConstraintEnforcer" -> new SimpleEleConstraintEnforcer();
+			default -> throw new IllegalArgumentException("unknown enforcer: " + enforcer);
+		};
+
+		result.addConnectors(connectors);
+
+		for (WorldObject object : mapData.getWorldObjects()) {
+			object.defineEleConstraints(result);
+		}
+
+		result.enforceConstraints();
+
+		return result;
+
+	}
+
+}
@@ -0,0 +1,82 @@
+package org.osm2world.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.List;
+
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.commons.configuration.Configuration;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.osm2world.core.ConversionFacade;
+import org.osm2world.core.ConversionFacade.Results;
+import org.osm2world.core.map_data.creation.MapProjection;
+import org.osm2world.core.map_data.creation.MetricMapProjection;
+import org.osm2world.core.map_data.creation.OSMToMapDataConverter;
+import org.osm2world.core.map_data.data.MapData;
+import org.osm2world.core.osm.creation.OSMFileReader;
+import org.osm2world.core.osm.data.OSMData;
+import org.osm2world.core.world.creation.WorldModule;
+
+import de.topobyte.osm4j.core.resolve.EntityNotFoundException;
+
+/**
+ * the OSM input shared by all benchmarks.
+ * Each input is either one of the synthetic {@link SyntheticOSMData} scales
+ * or the file name of a fixture from the test resources.
+ */
+@State(Scope.Benchmark)
+public class InputState {
+
+	private static final long SEED = 42;
+
+	@Param({"small", "medium", "large", "simpleTest01.osm", "coastline_islands_and_coast.osm"})
+	public String input;
+
+	public OSMData osmData;
+	public MapProjection mapProjection;
+	public final Configuration config = new BaseConfiguration();
+
+	@Setup(Level.Trial)
+	public void loadInput() throws IOException, URISyntaxException {
+
+		osmData = switch (input) {
+			case "small" -> SyntheticOSMData.create(4, SEED);
+			case "medium" -> SyntheticOSMData.create(16, SEED);
+			case "large" -> SyntheticOSMData.create(40, SEED);
+			default -> loadFixture(input);
+		};
+
+		mapProjection = new MetricMapProjection(osmData.getCenter());
+
+	}
+
+	/** converts the input to a new {@link MapData} instance, without any world objects */
+	public MapData createMapData() throws IOException, EntityNotFoundException {
+		return new OSMToMapDataConverter(mapProjection, config).createMapData(osmData);
+	}
+
+	/** runs a complete conversion of the input with the default modules */
+	public Results convert() throws IOException, EntityNotFoundException {
+		return convert(ConversionFacade.createDefaultModuleList());
+	}
+
+	/** runs a complete conversion of the input with the given modules */
+	public Results convert(List<? extends WorldModule> modules) throws IOException, EntityNotFoundException {
+		return new ConversionFacade().createRepresentations(mapProjection, createMapData(), modules, config, null);
+	}
+
+	private static OSMData loadFixture(String fileName) throws IOException, URISyntaxException {
+		URL resource = InputState.class.getClassLoader().getResource(fileName);
+		if (resource == null) {
+			throw new IllegalArgumentException("unknown benchmark input: " + fileName);
+		}
+		return new OSMFileReader(new File(resource.toURI())).getData();
+	}
+
+}
@@ -0,0 +1,34 @@
+package org.osm2world.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.osm2world.core.map_data.creation.OSMToMapDataConverter;
+import org.osm2world.core.map_data.data.MapData;
+
+import de.topobyte.osm4j.core.resolve.EntityNotFoundException;
+
+/**
+ * benchmarks {@link OSMToMapDataConverter#createMapData(org.osm2world.core.osm.data.OSMData)},
+ * which includes multipolygon assembly and the calculation of overlaps between map elements
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MapDataBenchmark {
+
+	@Benchmark
+	public MapData createMapData(InputState input) throws IOException, EntityNotFoundException {
+		return input.createMapData();
+	}
+
+}
@@ -0,0 +1,85 @@
+package org.osm2world.benchmark;
+
+import static java.util.Collections.singletonList;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.osm2world.core.ConversionFacade.Results;
+import org.osm2world.core.math.AxisAlignedRectangleXZ;
+import org.osm2world.core.target.common.MeshStore;
+import org.osm2world.core.target.common.MeshStore.MeshProcessingStep;
+import org.osm2world.core.target.common.MeshTarget.ClipToBounds;
+import org.osm2world.core.target.common.MeshTarget.EmulateTextureLayers;
+import org.osm2world.core.target.common.MeshTarget.FilterLod;
+import org.osm2world.core.target.common.MeshTarget.MergeMeshes;
+import org.osm2world.core.target.common.MeshTarget.MergeMeshes.MergeOption;
+import org.osm2world.core.target.common.MeshTarget.MoveColorsToVertices;
+import org.osm2world.core.target.common.MeshTarget.ReplaceTexturesWithAtlas;
+import org.osm2world.core.target.common.mesh.LevelOfDetail;
+
+import de.topobyte.osm4j.core.resolve.EntityNotFoundException;
+
+/**
+ * benchmarks the individual {@link MeshProcessingStep}s applied by {@link MeshStore#process(java.util.List)},
+ * each on the meshes of the converted input
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class MeshStoreBenchmark {
+
+	@Param({"FilterLod", "MergeMeshes", "MergeMeshesAcrossElements", "EmulateTextureLayers",
+		"MoveColorsToVertices", "ReplaceTexturesWithAtlas", "ClipToBounds"})
+	public String step;
+
+	private MeshStore meshStore;
+	private MeshProcessingStep processingStep;
+
+	@Setup(Level.Trial)
+	public void prepare(InputState input) throws IOException, EntityNotFoundException {
+
+		Results results = input.convert();
+		meshStore = results.getMeshCache().getMeshStore();
+
+		/* clip away a quarter of the data on each side */
+		AxisAlignedRectangleXZ dataBounds = results.getMapData().getDataBoundary();
+		AxisAlignedRectangleXZ clipBounds = new AxisAlignedRectangleXZ(
+				dataBounds.minX + dataBounds.sizeX() / 4, dataBounds.minZ + dataBounds.sizeZ() / 4,
+				dataBounds.maxX - dataBounds.sizeX() / 4, dataBounds.maxZ - dataBounds.sizeZ() / 4);
+
+		processingStep = switch (step) {
+			case "FilterLod" -> new FilterLod(LevelOfDetail.LOD2);
+			case "MergeMeshes" -> new MergeMeshes(EnumSet.noneOf(MergeOption.class));
+			case "MergeMeshesAcrossElements" -> new MergeMeshes(EnumSet.of(MergeOption.MERGE_ELEMENTS));
+			case "EmulateTextureLayers" -> new EmulateTextureLayers();
+			case "MoveColorsToVertices" -> new MoveColorsToVertices();
+			case "ReplaceTexturesWithAtlas" -> new ReplaceTexturesWithAtlas();
+			case "ClipToBounds" -> new ClipToBounds(clipBounds);
+			default -> throw new IllegalArgumentException("unknown processing step: " + step);
+		};
+
+	}
+
+	@Benchmark
+	public MeshStore process() {
+		return meshStore.process(singletonList(processingStep));
+	}
+
+}
@@ -0,0 +1,55 @@
+package org.osm2world.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.osm2world.core.ConversionFacade;
+import org.osm2world.core.map_data.data.MapData;
+import org.osm2world.core.world.creation.WorldModule;
+import org.osm2world.core.world.network.NetworkCalculator;
+
+import de.topobyte.osm4j.core.resolve.EntityNotFoundException;
+
+/**
+ * benchmarks {@link NetworkCalculator} on {@link MapData} which the default modules have been applied to
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class NetworkCalculatorBenchmark {
+
+	private MapData mapData;
+
+	@Setup(Level.Invocation)
+	public void prepare(InputState input) throws IOException, EntityNotFoundException {
+
+		mapData = input.createMapData();
+
+		for (WorldModule module : ConversionFacade.createDefaultModuleList()) {
+			module.setConfiguration(input.config);
+			module.applyTo(mapData);
+		}
+
+	}
+
+	@Benchmark
+	public MapData calculateNetworkInformation() {
+		NetworkCalculator.calculateNetworkInformationInMapData(mapData);
+		return mapData;
+	}
+
+}
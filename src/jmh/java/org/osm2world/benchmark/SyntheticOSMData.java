@@ -0,0 +1,205 @@
+package org.osm2world.benchmark;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.osm2world.core.osm.data.OSMData;
+
+import com.slimjars.dist.gnu.trove.list.array.TLongArrayList;
+
+import de.topobyte.osm4j.core.model.iface.EntityType;
+import de.topobyte.osm4j.core.model.iface.OsmRelationMember;
+import de.topobyte.osm4j.core.model.impl.Node;
+import de.topobyte.osm4j.core.model.impl.Relation;
+import de.topobyte.osm4j.core.model.impl.RelationMember;
+import de.topobyte.osm4j.core.model.impl.Tag;
+import de.topobyte.osm4j.core.model.impl.Way;
+
+/**
+ * generates a synthetic town for benchmarking: a square grid of streets with buildings, parks, parking lots,
+ * fenced meadows and ponds in between.
+ *
+ * The result only depends on the number of blocks and the seed,
+ * so benchmark results remain comparable across commits.
+ */
+public final class SyntheticOSMData {
+
+	/** size of a block, including the street space around it, in meters */
+	private static final double BLOCK_SIZE = 120;
+
+	/** distance between the street centerlines and the features inside a block, in meters */
+	private static final double STREET_SPACE = 15;
+
+	private static final double METERS_PER_DEGREE = 111320;
+
+	private static final String[] ROOF_SHAPES = { "flat", "gabled", "hipped", "pyramidal", "skillion" };
+	private static final String[] BUILDING_TYPES = { "yes", "residential", "commercial", "apartments", "house" };
+
+	private final Random random;
+
+	private final List<Node> nodes = new ArrayList<>();
+	private final List<Way> ways = new ArrayList<>();
+	private final List<Relation> relations = new ArrayList<>();
+
+	private long nextId = 1;
+
+	private SyntheticOSMData(long seed) {
+		this.random = new Random(seed);
+	}
+
+	/**
+	 * creates a town with blocksPerSide × blocksPerSide blocks
+	 *
+	 * @param seed  seed for all random choices; the same seed always leads to the same data
+	 */
+	public static OSMData create(int blocksPerSide, long seed) {
+		SyntheticOSMData generator = new SyntheticOSMData(seed);
+		generator.addStreets(blocksPerSide);
+		for (int row = 0; row < blocksPerSide; row++) {
+			for (int col = 0; col < blocksPerSide; col++) {
+				generator.addBlockContent(col * BLOCK_SIZE + STREET_SPACE, row * BLOCK_SIZE + STREET_SPACE,
+						BLOCK_SIZE - 2 * STREET_SPACE);
+			}
+		}
+		return new OSMData(emptyList(), generator.nodes, generator.ways, generator.relations);
+	}
+
+	private void addStreets(int blocksPerSide) {
+
+		/* create the junction nodes first, so crossing streets share them */
+
+		long[][] junctionIds = new long[blocksPerSide + 1][blocksPerSide + 1];
+
+		for (int row = 0; row <= blocksPerSide; row++) {
+			for (int col = 0; col <= blocksPerSide; col++) {
+				junctionIds[row][col] = addNode(col * BLOCK_SIZE, row * BLOCK_SIZE).getId();
+			}
+		}
+
+		/* create east-west and north-south streets */
+
+		for (int i = 0; i <= blocksPerSide; i++) {
+
+			TLongArrayList eastWest = new TLongArrayList();
+			TLongArrayList northSouth = new TLongArrayList();
+
+			for (int j = 0; j <= blocksPerSide; j++) {
+				eastWest.add(junctionIds[i][j]);
+				northSouth.add(junctionIds[j][i]);
+			}
+
+			addWay(eastWest, streetTags(i));
+			addWay(northSouth, streetTags(i));
+
+		}
+
+	}
+
+	private List<Tag> streetTags(int index) {
+		if (index % 4 == 0) {
+			return asList(new Tag("highway", "secondary"), new Tag("lanes", "2"),
+					new Tag("sidewalk", "both"), new Tag("surface", "asphalt"));
+		} else {
+			return asList(new Tag("highway", "residential"),
+					new Tag("sidewalk", random.nextBoolean() ? "both" : "no"));
+		}
+	}
+
+	/** fills the square interior of a block, given its minimum coordinates and side length */
+	private void addBlockContent(double minX, double minY, double size) {
+
+		double choice = random.nextDouble();
+
+		if (choice < 0.6) {
+
+			/* a row of buildings */
+
+			int numBuildings = 1 + random.nextInt(4);
+			double width = size / numBuildings;
+
+			for (int i = 0; i < numBuildings; i++) {
+				double x = minX + i * width;
+				addClosedWay(x + 1, minY + 1, x + width - 1, minY + size - 1,
+						new Tag("building", BUILDING_TYPES[random.nextInt(BUILDING_TYPES.length)]),
+						new Tag("building:levels", Integer.toString(1 + random.nextInt(8))),
+						new Tag("roof:shape", ROOF_SHAPES[random.nextInt(ROOF_SHAPES.length)]));
+			}
+
+		} else if (choice < 0.75) {
+
+			/* a park with trees and benches */
+
+			addClosedWay(minX, minY, minX + size, minY + size, new Tag("leisure", "park"));
+
+			int numTrees = 5 + random.nextInt(20);
+
+			for (int i = 0; i < numTrees; i++) {
+				addNode(minX + random.nextDouble() * size, minY + random.nextDouble() * size,
+						new Tag("natural", "tree"));
+			}
+
+			addNode(minX + size / 2, minY + size / 2, new Tag("amenity", "bench"));
+
+		} else if (choice < 0.85) {
+
+			addClosedWay(minX, minY, minX + size, minY + size,
+					new Tag("amenity", "parking"), new Tag("surface", "asphalt"));
+
+		} else if (choice < 0.95) {
+
+			/* a meadow surrounded by a fence */
+
+			addClosedWay(minX, minY, minX + size, minY + size, new Tag("landuse", "meadow"));
+			addClosedWay(minX + 2, minY + 2, minX + size - 2, minY + size - 2, new Tag("barrier", "fence"));
+
+		} else {
+
+			/* a pond with an island, as a multipolygon */
+
+			Way outer = addClosedWay(minX, minY, minX + size, minY + size);
+			Way inner = addClosedWay(minX + size / 3, minY + size / 3,
+					minX + 2 * size / 3, minY + 2 * size / 3);
+
+			List<OsmRelationMember> members = asList(
+					new RelationMember(outer.getId(), EntityType.Way, "outer"),
+					new RelationMember(inner.getId(), EntityType.Way, "inner"));
+
+			Relation relation = new Relation(nextId++, members);
+			relation.setTags(asList(new Tag("type", "multipolygon"), new Tag("natural", "water")));
+			relations.add(relation);
+
+		}
+
+	}
+
+	private Node addNode(double x, double y, Tag... tags) {
+		Node node = new Node(nextId++, x / METERS_PER_DEGREE, y / METERS_PER_DEGREE);
+		node.setTags(asList(tags));
+		nodes.add(node);
+		return node;
+	}
+
+	private Way addWay(TLongArrayList nodeIds, List<Tag> tags) {
+		Way way = new Way(nextId++, nodeIds);
+		way.setTags(tags);
+		ways.add(way);
+		return way;
+	}
+
+	/** adds a closed, counterclockwise rectangular way */
+	private Way addClosedWay(double minX, double minY, double maxX, double maxY, Tag... tags) {
+		long firstId = addNode(minX, minY).getId();
+		TLongArrayList nodeIds = new TLongArrayList(new long[] {
+				firstId,
+				addNode(maxX, minY).getId(),
+				addNode(maxX, maxY).getId(),
+				addNode(minX, maxY).getId(),
+				firstId});
+		return addWay(nodeIds, asList(tags));
+	}
+
+}
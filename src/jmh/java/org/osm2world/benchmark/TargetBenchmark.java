@@ -0,0 +1,109 @@
+package org.osm2world.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.osm2world.core.ConversionFacade.Results;
+import org.osm2world.core.target.Target;
+import org.osm2world.core.target.frontend_pbf.FrontendPbfTarget;
+import org.osm2world.core.target.gltf.GltfTarget;
+import org.osm2world.core.target.obj.ObjTarget;
+import org.osm2world.core.target.povray.POVRayTarget;
+import org.osm2world.core.target.statistics.StatisticsTarget;
+
+import de.topobyte.osm4j.core.resolve.EntityNotFoundException;
+
+/**
+ * benchmarks {@link Target#finish()} for each output format.
+ * The meshes are sent to a new target before each invocation, which is not part of the measured time.
+ * Some targets (such as {@link ObjTarget}) write their output while receiving geometry,
+ * which is therefore also benchmarked separately.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class TargetBenchmark {
+
+	@Param({"GltfTarget", "FrontendPbfTarget", "ObjTarget", "POVRayTarget", "StatisticsTarget"})
+	public String target;
+
+	private Results results;
+	private File outputDir;
+
+	/** a target which has already received all meshes */
+	private Target renderedTarget;
+
+	@Setup(Level.Trial)
+	public void prepare(InputState input) throws IOException, EntityNotFoundException {
+		results = input.convert();
+		outputDir = Files.createTempDirectory("o2w-benchmark-").toFile();
+	}
+
+	@Setup(Level.Invocation)
+	public void renderTarget() {
+		renderedTarget = createTarget();
+		results.getMeshCache().renderTo(renderedTarget, true);
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteOutput() throws IOException {
+		try (Stream<Path> paths = Files.walk(outputDir.toPath())) {
+			paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+		}
+	}
+
+	@Benchmark
+	public Target finish() {
+		renderedTarget.finish();
+		return renderedTarget;
+	}
+
+	@Benchmark
+	public Target renderAndFinish() {
+		Target result = createTarget();
+		results.getMeshCache().renderTo(result, true);
+		result.finish();
+		return result;
+	}
+
+	private Target createTarget() {
+
+		PrintStream nullStream = new PrintStream(OutputStream.nullOutputStream());
+
+		return switch (target) {
+			case "GltfTarget" -> new GltfTarget(new File(outputDir, "benchmark.gltf"),
+					results.getMapData().getBoundary());
+			case "FrontendPbfTarget" -> new FrontendPbfTarget(OutputStream.nullOutputStream(),
+					results.getMapData().getBoundary(), results.getMapProjection(), results.getMaterialRegistry());
+			case "ObjTarget" -> new ObjTarget(nullStream, nullStream, outputDir, "benchmark");
+			case "POVRayTarget" -> new POVRayTarget(nullStream, results.getMaterialRegistry());
+			case "StatisticsTarget" -> new StatisticsTarget();
+			default -> throw new IllegalArgumentException("unknown target: " + target);
+		};
+
+	}
+
+}
@@ -0,0 +1,124 @@
+package org.osm2world.benchmark;
+
+import static java.lang.Math.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.osm2world.core.map_data.data.MapData;
+import org.osm2world.core.map_elevation.creation.InverseDistanceWeightingInterpolator;
+import org.osm2world.core.map_elevation.creation.LeastSquaresInterpolator;
+import org.osm2world.core.map_elevation.creation.LinearInterpolator;
+import org.osm2world.core.map_elevation.creation.NaturalNeighborInterpolator;
+import org.osm2world.core.map_elevation.creation.TerrainInterpolator;
+import org.osm2world.core.map_elevation.data.EleConnector;
+import org.osm2world.core.math.AxisAlignedRectangleXZ;
+import org.osm2world.core.math.VectorXYZ;
+import org.osm2world.core.world.data.WorldObject;
+
+import de.topobyte.osm4j.core.resolve.EntityNotFoundException;
+
+/**
+ * benchmarks the {@link TerrainInterpolator} implementations.
+ * The known sites are a synthetic elevation grid with the spacing of SRTM data,
+ * the interpolated positions are those of the {@link EleConnector}s of the converted input.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class TerrainInterpolatorBenchmark {
+
+	private static final double SITE_SPACING = 90;
+
+	@Param({"LinearInterpolator", "NaturalNeighborInterpolator", "LeastSquaresInterpolator",
+		"InverseDistanceWeightingInterpolator"})
+	public String interpolator;
+
+	private List<VectorXYZ> sites;
+	private double[] connectorXZ;
+	private double[] connectorEle;
+
+	private TerrainInterpolator preparedInterpolator;
+
+	@Setup(Level.Trial)
+	public void prepare(InputState input) throws IOException, EntityNotFoundException {
+
+		MapData mapData = input.convert().getMapData();
+
+		/* create a deterministic, hilly elevation grid */
+
+		AxisAlignedRectangleXZ bounds = mapData.getDataBoundary().pad(2 * SITE_SPACING);
+		Random random = new Random(42);
+
+		sites = new ArrayList<>();
+
+		for (double x = bounds.minX; x <= bounds.maxX; x += SITE_SPACING) {
+			for (double z = bounds.minZ; z <= bounds.maxZ; z += SITE_SPACING) {
+				double ele = 20 * sin(x / 500) + 15 * cos(z / 350) + random.nextDouble() * 3;
+				sites.add(new VectorXYZ(x, ele, z));
+			}
+		}
+
+		/* collect the connector positions */
+
+		List<EleConnector> connectors = new ArrayList<>();
+
+		for (WorldObject object : mapData.getWorldObjects()) {
+			object.getEleConnectors().forEach(connectors::add);
+		}
+
+		connectorXZ = new double[2 * connectors.size()];
+		connectorEle = new double[connectors.size()];
+
+		for (int i = 0; i < connectors.size(); i++) {
+			connectorXZ[2 * i] = connectors.get(i).pos.x;
+			connectorXZ[2 * i + 1] = connectors.get(i).pos.z;
+		}
+
+		preparedInterpolator = createInterpolator();
+		preparedInterpolator.setKnownSites(sites);
+
+	}
+
+	@Benchmark
+	public TerrainInterpolator setKnownSites() {
+		TerrainInterpolator result = createInterpolator();
+		result.setKnownSites(sites);
+		return result;
+	}
+
+	@Benchmark
+	public double[] interpolateConnectors() {
+		preparedInterpolator.interpolateEle(connectorXZ, connectorEle);
+		return connectorEle;
+	}
+
+	private TerrainInterpolator createInterpolator() {
+		return switch (interpolator) {
+			case "LinearInterpolator" -> new LinearInterpolator();
+			case "NaturalNeighborInterpolator" -> new NaturalNeighborInterpolator();
+			case "LeastSquaresInterpolator" -> new LeastSquaresInterpolator();
+			case "InverseDistanceWeightingInterpolator" -> new InverseDistanceWeightingInterpolator();
+			default -> throw new IllegalArgumentException("unknown interpolator: " + interpolator);
+		};
+	}
+
+}
@@ -0,0 +1,84 @@
+package org.osm2world.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.osm2world.core.ConversionFacade;
+import org.osm2world.core.map_data.data.MapData;
+import org.osm2world.core.world.creation.WorldModule;
+
+import de.topobyte.osm4j.core.resolve.EntityNotFoundException;
+
+/**
+ * benchmarks {@link WorldModule#applyTo(MapData)} for each module from
+ * {@link ConversionFacade#createDefaultModuleList()}.
+ * Each invocation applies the module to a freshly created {@link MapData}.
+ * The modules preceding it in the default list are applied during setup,
+ * so modules which depend on other modules' results (e.g. bridges and tunnels on roads and railways)
+ * find the same representations as during a normal conversion.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class WorldModuleBenchmark {
+
+	@Param({"RoadModule", "RailwayModule", "AerowayModule", "BuildingModule", "ParkingModule", "TreeModule",
+		"StreetFurnitureModule", "TrafficSignModule", "BicycleParkingModule", "WaterModule", "PoolModule",
+		"GolfModule", "SportsModule", "CliffModule", "BarrierModule", "PowerModule", "MastModule",
+		"BridgeModule", "TunnelModule", "SurfaceAreaModule", "InvisibleModule", "IndoorModule"})
+	public String module;
+
+	private WorldModule worldModule;
+	private MapData mapData;
+
+	@Setup(Level.Invocation)
+	public void prepare(InputState input) throws IOException, EntityNotFoundException {
+
+		List<WorldModule> modules = ConversionFacade.createDefaultModuleList();
+
+		int index = -1;
+		for (int i = 0; i < modules.size(); i++) {
+			if (modules.get(i).getClass().getSimpleName().equals(module)) {
+				index = i;
+			}
+		}
+
+		if (index < 0) {
+			throw new IllegalArgumentException("not a default module: " + module);
+		}
+
+		mapData = input.createMapData();
+
+		for (WorldModule prerequisite : modules.subList(0, index)) {
+			prerequisite.setConfiguration(input.config);
+			prerequisite.applyTo(mapData);
+		}
+
+		worldModule = modules.get(index);
+		worldModule.setConfiguration(input.config);
+
+	}
+
+	@Benchmark
+	public MapData applyModule() {
+		worldModule.applyTo(mapData);
+		return mapData;
+	}
+
+}
@@ -40,7 +40,8 @@ public interface CLIArguments {
 	InputMode getInputMode();
 	boolean isInputMode();
 
-	@Option(description="lat,lon pairs defining an input bounding box (does not work with files)",
+	@Option(description="lat,lon pairs defining an input bounding box"
+			+ " (for .osm and .osm.pbf files, only the data within the bounding box is loaded)",
 			longName="input_bbox", pattern=LatLon.PATTERN)
 	List<LatLon> getInputBoundingBox();
 	boolean isInputBoundingBox();
@@ -50,6 +51,12 @@ public interface CLIArguments {
 	TileNumber getTile();
 	boolean isTile();
 
+	@Option(description="zoom level of the tiles which the input bounding box is split into;"
+			+ " each tile is converted and written separately, with {z}, {x} and {y} in output file names"
+			+ " replaced by the tile number", longName="region_zoom")
+	int getRegionZoom();
+	boolean isRegionZoom();
+
 	@Option(description="overpass query string", longName="input_query")
 	String getInputQuery();
 	boolean isInputQuery();
@@ -109,6 +116,10 @@ public interface CLIArguments {
 	File getPerformanceTable();
 	boolean isPerformanceTable();
 
+	@Option(description="writes detailed performance metrics to a .json or .csv file")
+	File getMetrics();
+	boolean isMetrics();
+
 	/* other parameters */
 
 	@Option(description="start the graphical user interface")
@@ -126,7 +137,8 @@ public interface CLIArguments {
 	File getParameterFile();
 	boolean isParameterFile();
 
-	@Option(description="a directory containing parameter files; new files may be added while OSM2World is running")
+	@Option(description="a directory containing parameter files; it is watched for new files until OSM2World is"
+			+ " stopped or the directory becomes inaccessible, so OSM2World no longer exits once it is empty")
 	File getParameterFileDir();
 	boolean isParameterFileDir();
 
@@ -83,6 +83,10 @@ public class CLIArgumentsGroup {
 					? args2.isTile() && args1.getTile().equals(args2.getTile())
 					: !args2.isTile())
 
+			&& (args1.isRegionZoom()
+					? args2.isRegionZoom() && args1.getRegionZoom() == args2.getRegionZoom()
+					: !args2.isRegionZoom())
+
 			&& (args1.isOverpassURL()
 				? args2.isOverpassURL() && args1.getOverpassURL().equals(args2.getOverpassURL())
 				: !args2.isOverpassURL())
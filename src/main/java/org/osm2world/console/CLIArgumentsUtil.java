@@ -34,7 +34,7 @@ public final class CLIArgumentsUtil {
 			case FILE:
 				if (!args.isInput()) {
 					return "input file parameter is required (or choose a different input mode)";
-				} else if (getInputFileType(args) != InputFileType.SIMPLE_FILE && !args.isTile()) {
+				} else if (getInputFileType(args) != InputFileType.SIMPLE_FILE && !args.isTile() && !args.isRegionZoom()) {
 					return "the --tile parameter is required for database input files";
 				}
 				break;
@@ -51,6 +51,21 @@ public final class CLIArgumentsUtil {
 				return "output file parameter is missing";
 			}
 
+			if (args.isRegionZoom()) {
+				if (!args.isInputBoundingBox() || args.getInputBoundingBox().size() < 2) {
+					return "region mode requires an input bounding box";
+				} else if (args.getInputMode() == InputMode.FILE
+						&& getInputFileType(args) == InputFileType.MBTILES) {
+					return "region mode does not support mbtiles input";
+				}
+				for (File outputFile : args.getOutput()) {
+					OutputMode outputMode = getOutputMode(outputFile);
+					if (outputMode != OutputMode.GLTF && outputMode != OutputMode.WEB_PBF) {
+						return "region mode only supports .gltf and .o2w.pbf output";
+					}
+				}
+			}
+
 			if (args.isOviewTiles() && args.getOviewTiles().isEmpty()) {
 				return "at least one tile required";
 			}
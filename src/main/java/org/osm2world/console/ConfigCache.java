@@ -0,0 +1,59 @@
+package org.osm2world.console;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.ConfigurationException;
+import org.osm2world.core.target.common.material.MaterialRegistry;
+
+/**
+ * keeps loaded config files along with the {@link MaterialRegistry} for each of them.
+ * Used when many conversions run in the same process, see {@link ParamFileDirMode}.
+ * Because the material registry is reused, textures are only decoded once as well.
+ *
+ * A config file is loaded again if it has been modified since it was cached.
+ * The cached {@link Configuration}s are shared by all conversions using them and must not be modified.
+ */
+class ConfigCache {
+
+	static class CachedConfig {
+
+		final Configuration config;
+		final MaterialRegistry materialRegistry;
+
+		private final long lastModified;
+
+		private CachedConfig(Configuration config, MaterialRegistry materialRegistry, long lastModified) {
+			this.config = config;
+			this.materialRegistry = materialRegistry;
+			this.lastModified = lastModified;
+		}
+
+	}
+
+	private final Map<File, CachedConfig> cache = new HashMap<>();
+
+	/**
+	 * returns the config loaded from a file, loading it if necessary.
+	 * Equivalent to {@link OSM2World#loadConfigFile(File)}, except for the caching.
+	 */
+	synchronized CachedConfig get(File configFile) throws ConfigurationException {
+
+		File key = configFile.getAbsoluteFile();
+		long lastModified = key.lastModified();
+
+		CachedConfig result = cache.get(key);
+
+		if (result == null || result.lastModified != lastModified) {
+			Configuration config = OSM2World.loadConfigFile(configFile);
+			result = new CachedConfig(config, MaterialRegistry.fromConfiguration(config), lastModified);
+			cache.put(key, result);
+		}
+
+		return result;
+
+	}
+
+}
@@ -21,7 +21,6 @@ import java.nio.charset.Charset;
 import org.apache.commons.configuration.Configuration;
 import org.osm2world.console.CLIArgumentsUtil.OutputMode;
 import org.osm2world.core.ConversionFacade.Results;
-import org.osm2world.core.target.TargetUtil;
 import org.osm2world.core.target.common.lighting.GlobalLightingParameters;
 import org.osm2world.core.target.common.rendering.Camera;
 import org.osm2world.core.target.common.rendering.Projection;
@@ -340,7 +339,7 @@ public class ImageExporter {
 		boolean underground = config.getBoolean("renderUnderground", true);
 
 		target.setXZBoundary(results.getMapData().getBoundary());
-		TargetUtil.renderWorldObjects(target, results.getMapData(), underground);
+		results.getMeshCache().renderTo(target, underground);
 
 		target.finish();
 
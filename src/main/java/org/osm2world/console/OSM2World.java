@@ -11,6 +11,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import javax.annotation.Nullable;
 import javax.swing.UIManager;
 
 import org.apache.commons.configuration.BaseConfiguration;
@@ -19,6 +20,7 @@ import org.apache.commons.configuration.ConfigurationException;
 import org.apache.commons.configuration.PropertiesConfiguration;
 import org.osm2world.console.CLIArgumentsUtil.ProgramMode;
 import org.osm2world.core.GlobalValues;
+import org.osm2world.core.target.common.material.MaterialRegistry;
 import org.osm2world.core.util.ConfigUtil;
 import org.osm2world.viewer.view.ViewerFrame;
 
@@ -65,8 +67,35 @@ public class OSM2World {
 
 		if (args.isParameterFileDir()) {
 			ParamFileDirMode.run(args.getParameterFileDir());
+			return;
 		}
 
+		try {
+			executeArguments(args, null);
+		} catch (IOException e) {
+			System.err.println(e.getMessage());
+			System.exit(1);
+		}
+
+	}
+
+	/**
+	 * runs the conversions defined by a parameter file, see {@link CLIArguments#getParameterFile()}.
+	 * Used by {@link ParamFileDirMode}, where many parameter files are processed by the same process.
+	 *
+	 * @param configCache  cache providing configurations and related resources which are shared between runs
+	 */
+	static void executeParameterFile(File parameterFile, ConfigCache configCache) throws Exception {
+		CLIArguments args = parseArguments(new String[] {"--parameterFile", parameterFile.toString()});
+		executeArguments(args, configCache);
+	}
+
+	/**
+	 * executes the conversions for a set of command line arguments.
+	 * This includes the parameter lines from a parameter file if the arguments contain one.
+	 */
+	private static void executeArguments(CLIArguments args, @Nullable ConfigCache configCache) throws IOException {
+
 		/* parse lines from parameter file (if one exists) */
 
 		List<CLIArguments> argumentsList = Collections.singletonList(args);
@@ -75,27 +104,20 @@ public class OSM2World {
 
 			argumentsList = new ArrayList<CLIArguments>();
 
-			try {
-
-				List<String[]> unparsedArgsLines = CLIArgumentsUtil
-					.getUnparsedParameterGroups(args.getParameterFile());
+			List<String[]> unparsedArgsLines = CLIArgumentsUtil
+				.getUnparsedParameterGroups(args.getParameterFile());
 
-				for (String[] unparsedArgsLine : unparsedArgsLines) {
-
-					try {
-						argumentsList.add(parseArguments(unparsedArgsLine));
-					} catch (Exception e) {
-						System.err.println("Could not parse parameters from file:");
-						System.err.println(Arrays.toString(unparsedArgsLine));
-						System.err.println("Ignoring it. Reason:");
-						System.err.println(e.getMessage());
-					}
+			for (String[] unparsedArgsLine : unparsedArgsLines) {
 
+				try {
+					argumentsList.add(parseArguments(unparsedArgsLine));
+				} catch (Exception e) {
+					System.err.println("Could not parse parameters from file:");
+					System.err.println(Arrays.toString(unparsedArgsLine));
+					System.err.println("Ignoring it. Reason:");
+					System.err.println(e.getMessage());
 				}
 
-			} catch (IOException e) {
-				System.err.println(e.getMessage());
-				System.exit(1);
 			}
 
 		}
@@ -141,7 +163,7 @@ public class OSM2World {
 				System.out.print("\n");
 			}
 
-			executeArgumentsGroup(argumentsGroup);
+			executeArgumentsGroup(argumentsGroup, configCache);
 
 		}
 
@@ -159,11 +181,12 @@ public class OSM2World {
 
 	}
 
-	private static void executeArgumentsGroup(CLIArgumentsGroup argumentsGroup) {
+	private static void executeArgumentsGroup(CLIArgumentsGroup argumentsGroup, @Nullable ConfigCache configCache) {
 
 		/* load configuration file */
 
 		Configuration config = new BaseConfiguration();
+		MaterialRegistry materialRegistry = null;
 		File configFile = null;
 
 		CLIArguments representativeArgs = argumentsGroup.getRepresentative();
@@ -171,7 +194,13 @@ public class OSM2World {
 		if (representativeArgs.isConfig()) {
 			configFile = representativeArgs.getConfig();
 			try {
-				config = loadConfigFile(configFile);
+				if (configCache != null) {
+					ConfigCache.CachedConfig cachedConfig = configCache.get(configFile);
+					config = cachedConfig.config;
+					materialRegistry = cachedConfig.materialRegistry;
+				} else {
+					config = loadConfigFile(configFile);
+				}
 			} catch (ConfigurationException e) {
 				System.err.println("could not read config, ignoring it: ");
 				System.err.println(e);
@@ -207,7 +236,7 @@ public class OSM2World {
 
 		case CONVERT:
 			try {
-				Output.output(config, argumentsGroup);
+				Output.output(config, argumentsGroup, materialRegistry);
 			} catch (IOException e) {
 				e.printStackTrace();
 			}
@@ -6,13 +6,14 @@ import org.osm2world.core.ConversionFacade;
 import org.osm2world.core.ConversionFacade.Phase;
 import org.osm2world.core.ConversionFacade.ProgressListener;
 import org.osm2world.core.ConversionFacade.Results;
+import org.osm2world.core.ConversionMetrics;
 import org.osm2world.core.map_data.creation.LatLonBounds;
 import org.osm2world.core.map_data.creation.MapProjection;
 import org.osm2world.core.map_elevation.creation.*;
 import org.osm2world.core.math.AxisAlignedRectangleXZ;
 import org.osm2world.core.math.VectorXYZ;
 import org.osm2world.core.osm.creation.*;
-import org.osm2world.core.target.TargetUtil;
+import org.osm2world.core.target.common.material.MaterialRegistry;
 import org.osm2world.core.target.common.rendering.Camera;
 import org.osm2world.core.target.common.rendering.OrthoTilesUtil;
 import org.osm2world.core.target.common.rendering.OrthoTilesUtil.CardinalDirection;
@@ -26,9 +27,12 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.Writer;
 import java.util.HashMap;
 import java.util.Map;
 
+import javax.annotation.Nullable;
+
 import static java.util.Collections.singletonList;
 import static java.util.stream.Collectors.toList;
 import static org.osm2world.core.math.AxisAlignedRectangleXZ.bbox;
@@ -40,6 +44,22 @@ public final class Output {
 	public static void output(Configuration config,
 			CLIArgumentsGroup argumentsGroup)
 		throws IOException {
+		output(config, argumentsGroup, null);
+	}
+
+	/**
+	 * variant of {@link #output(Configuration, CLIArgumentsGroup)} which can use a previously created registry
+	 *
+	 * @param materialRegistry  material settings matching the config, null to create them from the config
+	 */
+	public static void output(Configuration config,
+			CLIArgumentsGroup argumentsGroup, @Nullable MaterialRegistry materialRegistry)
+		throws IOException {
+
+		if (argumentsGroup.getRepresentative().isRegionZoom()) {
+			RegionMode.run(config, argumentsGroup, materialRegistry);
+			return;
+		}
 
 		long start = System.currentTimeMillis();
 
@@ -50,7 +70,11 @@ public final class Output {
 		case FILE:
 			File inputFile = argumentsGroup.getRepresentative().getInput();
 			dataReader = switch (CLIArgumentsUtil.getInputFileType(argumentsGroup.getRepresentative())) {
-				case SIMPLE_FILE -> new OSMFileReader(inputFile);
+				case SIMPLE_FILE -> argumentsGroup.getRepresentative().isInputBoundingBox()
+						&& BoundedOSMFileReader.supports(inputFile)
+						? new BoundedOSMFileReader(inputFile,
+								LatLonBounds.ofPoints(argumentsGroup.getRepresentative().getInputBoundingBox()), 0)
+						: new OSMFileReader(inputFile);
 				case MBTILES -> new MbtilesReader(inputFile, argumentsGroup.getRepresentative().getTile());
 				case GEODESK -> new GeodeskReader(inputFile, argumentsGroup.getRepresentative().getTile().bounds());
 			};
@@ -59,14 +83,17 @@ public final class Output {
 		case OVERPASS:
 			if (argumentsGroup.getRepresentative().isInputBoundingBox()) {
 				LatLonBounds bounds = LatLonBounds.ofPoints(argumentsGroup.getRepresentative().getInputBoundingBox());
-				dataReader = new OverpassReader(argumentsGroup.getRepresentative().getOverpassURL(), bounds);
+				dataReader = new OverpassReader(argumentsGroup.getRepresentative().getOverpassURL(), bounds)
+						.withCache(OverpassCache.fromConfiguration(config));
 			} else if (argumentsGroup.getRepresentative().isTile()) {
 				LatLonBounds bounds = argumentsGroup.getRepresentative().getTile().bounds();
-				dataReader = new OverpassReader(argumentsGroup.getRepresentative().getOverpassURL(), bounds);
+				dataReader = new OverpassReader(argumentsGroup.getRepresentative().getOverpassURL(), bounds)
+						.withCache(OverpassCache.fromConfiguration(config));
 			} else {
 				assert argumentsGroup.getRepresentative().isInputQuery(); // can be assumed due to input validation
 				String query = argumentsGroup.getRepresentative().getInputQuery();
-				dataReader = new OverpassReader(argumentsGroup.getRepresentative().getOverpassURL(), query);
+				dataReader = new OverpassReader(argumentsGroup.getRepresentative().getOverpassURL(), query)
+						.withCache(OverpassCache.fromConfiguration(config));
 			}
 			break;
 
@@ -77,22 +104,8 @@ public final class Output {
 		PerformanceListener perfListener =
 			new PerformanceListener(argumentsGroup.getRepresentative());
 		cf.addProgressListener(perfListener);
-
-		String interpolatorType = config.getString("terrainInterpolator");
-		if ("ZeroInterpolator".equals(interpolatorType)) {
-			cf.setTerrainEleInterpolatorFactory(ZeroInterpolator::new);
-		} else if ("LeastSquaresInterpolator".equals(interpolatorType)) {
-			cf.setTerrainEleInterpolatorFactory(LeastSquaresInterpolator::new);
-		} else if ("NaturalNeighborInterpolator".equals(interpolatorType)) {
-			cf.setTerrainEleInterpolatorFactory(NaturalNeighborInterpolator::new);
-		}
-
-		String enforcerType = config.getString("eleConstraintEnforcer");
-		if ("NoneEleConstraintEnforcer".equals(enforcerType)) {
-			cf.setEleConstraintEnforcerFactory(NoneEleConstraintEnforcer::new);
-		} else if ("SimpleEleConstraintEnforcer".equals(enforcerType)) {
-			cf.setEleConstraintEnforcerFactory(SimpleEleConstraintEnforcer::new);
-		}
+		cf.setMaterialRegistry(materialRegistry);
+		configureElevation(cf, config);
 
 		Results results = cf.createRepresentations(dataReader.getData(), null, config, null);
 
@@ -169,11 +182,11 @@ public final class Output {
 						boolean underground = config.getBoolean("renderUnderground", true);
 
 						ObjWriter.writeObjFile(outputFile,
-								results.getMapData(), results.getMapProjection(),
+								results.getMapData(), results.getMeshCache(), results.getMapProjection(),
 								camera, projection, underground);
 					} else {
 						ObjWriter.writeObjFiles(outputFile,
-								results.getMapData(), results.getMapProjection(),
+								results.getMapData(), results.getMeshCache(), results.getMapProjection(),
 								camera, projection, primitiveThresholdOBJ);
 					}
 					break;
@@ -187,13 +200,13 @@ public final class Output {
 					}
 					GltfTarget gltfTarget = new GltfTarget(outputFile, bounds);
 					boolean underground = config.getBoolean("renderUnderground", true);
-					TargetUtil.renderWorldObjects(gltfTarget, results.getMapData(), underground);
+					results.getMeshCache().renderTo(gltfTarget, underground);
 					gltfTarget.finish();
 					break;
 
 				case POV:
-					POVRayWriter.writePOVInstructionFile(outputFile,
-							results.getMapData(), camera, projection);
+					POVRayWriter.writePOVInstructionFile(outputFile, results.getMapData(),
+							results.getMaterialRegistry(), results.getMeshCache(), camera, projection);
 					break;
 
 				case WEB_PBF:
@@ -201,8 +214,8 @@ public final class Output {
 					if (args.isTile()) {
 						bbox = OrthoTilesUtil.boundsForTiles(results.getMapProjection(), singletonList(args.getTile()));
 					}
-					FrontendPbfTarget.writePbfFile(
-							outputFile, results.getMapData(), bbox, results.getMapProjection());
+					FrontendPbfTarget.writePbfFile(outputFile, results.getMapData(), results.getMaterialRegistry(),
+							results.getMeshCache(), bbox, results.getMapProjection());
 					break;
 
 				case PNG:
@@ -231,6 +244,10 @@ public final class Output {
 			exporter = null;
 		}
 
+		if (argumentsGroup.getRepresentative().isMetrics()) {
+			writeMetrics(results.getMetrics(), argumentsGroup.getRepresentative().getMetrics());
+		}
+
 		if (argumentsGroup.getRepresentative().getPerformancePrint()) {
 			long timeSec = (System.currentTimeMillis() - start) / 1000;
 			System.out.println("finished after " + timeSec + " s");
@@ -251,6 +268,37 @@ public final class Output {
 
 	}
 
+	/** sets up a {@link ConversionFacade} to use the elevation calculation algorithms chosen in the config */
+	static void configureElevation(ConversionFacade cf, Configuration config) {
+
+		String interpolatorType = config.getString("terrainInterpolator");
+		if ("ZeroInterpolator".equals(interpolatorType)) {
+			cf.setTerrainEleInterpolatorFactory(ZeroInterpolator::new);
+		} else if ("LeastSquaresInterpolator".equals(interpolatorType)) {
+			cf.setTerrainEleInterpolatorFactory(LeastSquaresInterpolator::new);
+		} else if ("NaturalNeighborInterpolator".equals(interpolatorType)) {
+			cf.setTerrainEleInterpolatorFactory(NaturalNeighborInterpolator::new);
+		}
+
+		String enforcerType = config.getString("eleConstraintEnforcer");
+		if ("NoneEleConstraintEnforcer".equals(enforcerType)) {
+			cf.setEleConstraintEnforcerFactory(NoneEleConstraintEnforcer::new);
+		} else if ("SimpleEleConstraintEnforcer".equals(enforcerType)) {
+			cf.setEleConstraintEnforcerFactory(SimpleEleConstraintEnforcer::new);
+		}
+
+	}
+
+	private static void writeMetrics(ConversionMetrics metrics, File metricsFile) throws IOException {
+		try (Writer writer = new FileWriter(metricsFile)) {
+			if (metricsFile.getName().toLowerCase().endsWith(".csv")) {
+				metrics.writeCsv(writer);
+			} else {
+				metrics.writeJson(writer);
+			}
+		}
+	}
+
 	private static class PerformanceListener implements ProgressListener {
 
 		private final CLIArguments args;
@@ -1,88 +1,198 @@
 package org.osm2world.console;
 
-import static java.util.Arrays.sort;
+import static java.nio.file.StandardWatchEventKinds.*;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.TreeSet;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
 
 /**
  * implementation of the mode triggered by {@link CLIArguments#isParameterFileDir()}.
  * OSM2World will read, process and delete parameter files from a directory.
  * Each of these files contains a set of command line parameters which define a conversion run.
+ *
+ * The directory is watched for new files until it is no longer accessible, so this mode keeps running.
+ * All conversion runs share a {@link ConfigCache}, and resources such as SRTM tiles and MBTiles connections
+ * are kept by the respective classes, so they only need to be loaded once.
  */
 public class ParamFileDirMode {
 
-	/** maximum number of enqueued parameter files. Making it larger means waiting longer for new, high-prio files. */
-	private static final int MAX_QUEUE_LENGTH = 2;
-
-	public static void run(File paramFileDir) {
+	/**
+	 * the parameter files which are waiting in the directory, ordered by file name.
+	 * Files with lower names have a higher priority.
+	 *
+	 * Files remain in the directory until a worker is ready to process them.
+	 * That way, new high-priority files can still overtake them,
+	 * and other processes watching the same directory can take them instead.
+	 * The number of files which have been taken, but not processed yet, is therefore limited to the number of workers.
+	 */
+	private static class ParamFileQueue {
+
+		private final TreeSet<Path> files = new TreeSet<>();
+		private boolean closed = false;
+
+		synchronized void add(Path file) {
+			if (files.add(file)) {
+				notifyAll();
+			}
+		}
 
-		if (!paramFileDir.isDirectory()) {
-			System.err.println("parameterFileDir must be a directory!");
-			return;
+		synchronized void remove(Path file) {
+			files.remove(file);
 		}
 
-		int numCores = Runtime.getRuntime().availableProcessors();
-		ExecutorService executor = Executors.newFixedThreadPool(numCores);
-		AtomicInteger queueLength = new AtomicInteger();
+		/** replaces the known files with the current directory contents, e.g. after events have been lost */
+		void rescan(Path dir) throws IOException {
 
-		boolean containsFiles = false;
+			TreeSet<Path> currentFiles = new TreeSet<>();
 
-		do {
+			try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+				stream.forEach(currentFiles::add);
+			}
 
-			File[] files = paramFileDir.listFiles();
-			sort(files);
+			synchronized (this) {
+				files.clear();
+				files.addAll(currentFiles);
+				notifyAll();
+			}
 
-			containsFiles = files.length > 0;
+		}
 
-			if (containsFiles) {
+		/** wakes up all waiting workers and makes {@link #take()} return null from now on */
+		synchronized void close() {
+			closed = true;
+			notifyAll();
+		}
 
-				while (queueLength.get() - numCores > MAX_QUEUE_LENGTH) {
-					try {
-						Thread.sleep(500);
-					} catch (InterruptedException e) {}
-				}
+		/**
+		 * waits for the parameter file with the highest priority and takes it out of the directory.
+		 * Only the choice of the file happens while holding the lock, the file system operations don't
+		 * block other threads using the queue.
+		 *
+		 * @return  the new location of the parameter file, null if the queue has been closed
+		 */
+		@Nullable Path take() throws InterruptedException {
+
+			while (true) {
+
+				Path file = poll();
+
+				if (file == null) return null;
 
 				try {
 
 					// create an temporary file (only to get unique names, it's immediately overwritten)
-					Path tempFilePath = File.createTempFile("osm2world-", "-" + files[0].getName()).toPath();
+					Path tempFilePath = File.createTempFile("osm2world-", "-" + file.getFileName()).toPath();
 
 					// move the parameter file to the temporary location
-					Files.move(files[0].toPath(), tempFilePath, StandardCopyOption.REPLACE_EXISTING);
+					try {
+						Files.move(file, tempFilePath, StandardCopyOption.REPLACE_EXISTING);
+					} catch (NoSuchFileException e) {
+						// the file has been taken by someone else
+						Files.deleteIfExists(tempFilePath);
+						continue;
+					}
 
-					queueLength.incrementAndGet();
+					return tempFilePath;
 
-					executor.submit(() -> {
+				} catch (IOException e) {
+					System.err.println("IO issue encountered in parameter file directory mode, skipping "
+							+ file + ":\n" + e);
+				}
 
-						System.out.println(tempFilePath);
-						OSM2World.main(new String[] {"--parameterFile", tempFilePath.toString()});
+			}
 
-						try {
-							Files.delete(tempFilePath);
-						} catch (IOException e) {
-							System.err.println("Warning: Could not delete temporary file " + tempFilePath);
-						}
+		}
 
-						queueLength.decrementAndGet();
+		/**
+		 * waits for a file and removes it from the queue
+		 *
+		 * @return  the file with the highest priority, null if the queue has been closed
+		 */
+		private synchronized @Nullable Path poll() throws InterruptedException {
 
-					});
+			while (files.isEmpty() && !closed) {
+				wait();
+			}
 
-				} catch (IOException e) {
-					System.err.println("IO issue encountered in parameter file directory mode, exiting.\n" + e);
+			return closed ? null : files.pollFirst();
+
+		}
+
+	}
+
+	public static void run(File paramFileDir) {
+
+		if (!paramFileDir.isDirectory()) {
+			System.err.println("parameterFileDir must be a directory!");
+			return;
+		}
+
+		Path dir = paramFileDir.toPath();
+
+		int numCores = Runtime.getRuntime().availableProcessors();
+		ExecutorService executor = Executors.newFixedThreadPool(numCores);
+
+		ParamFileQueue queue = new ParamFileQueue();
+		ConfigCache configCache = new ConfigCache();
+
+		try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+
+			/* register for events before the initial scan, so no file can be missed */
+
+			dir.register(watchService, ENTRY_CREATE, ENTRY_DELETE);
+			queue.rescan(dir);
+
+			/* start the workers */
+
+			for (int i = 0; i < numCores; i++) {
+				executor.submit(() -> processParamFiles(queue, configCache));
+			}
+
+			/* update the queue based on changes to the directory */
+
+			while (true) {
+
+				WatchKey key = watchService.take();
+
+				for (WatchEvent<?> event : key.pollEvents()) {
+					if (event.kind() == OVERFLOW) {
+						queue.rescan(dir);
+					} else if (event.kind() == ENTRY_CREATE) {
+						queue.add(dir.resolve((Path) event.context()));
+					} else if (event.kind() == ENTRY_DELETE) {
+						queue.remove(dir.resolve((Path) event.context()));
+					}
+				}
+
+				if (!key.reset()) {
+					System.err.println("parameterFileDir is no longer accessible, exiting.");
+					break;
 				}
 
 			}
 
-		} while (containsFiles);
+		} catch (IOException e) {
+			System.err.println("IO issue encountered in parameter file directory mode, exiting.\n" + e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
 
+		queue.close();
 		executor.shutdown();
 
 		try {
@@ -91,4 +201,36 @@ public class ParamFileDirMode {
 
 	}
 
+	/** worker loop: runs one parameter file after the other until the queue is closed */
+	private static void processParamFiles(ParamFileQueue queue, ConfigCache configCache) {
+
+		try {
+
+			Path paramFile;
+
+			while ((paramFile = queue.take()) != null) {
+
+				System.out.println(paramFile);
+
+				try {
+					OSM2World.executeParameterFile(paramFile.toFile(), configCache);
+				} catch (Exception e) {
+					System.err.println("Could not execute parameter file " + paramFile + ":");
+					e.printStackTrace();
+				}
+
+				try {
+					Files.delete(paramFile);
+				} catch (IOException e) {
+					System.err.println("Warning: Could not delete temporary file " + paramFile);
+				}
+
+			}
+
+		} catch (InterruptedException e) {
+			// stop processing files
+		}
+
+	}
+
 }
@@ -0,0 +1,187 @@
+package org.osm2world.console;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.commons.configuration.CompositeConfiguration;
+import org.apache.commons.configuration.Configuration;
+import org.osm2world.console.CLIArgumentsUtil.InputFileType;
+import org.osm2world.console.CLIArgumentsUtil.OutputMode;
+import org.osm2world.core.ConversionFacade;
+import org.osm2world.core.ConversionFacade.Results;
+import org.osm2world.core.TiledConversion;
+import org.osm2world.core.TiledConversion.TileInput;
+import org.osm2world.core.map_data.creation.LatLonBounds;
+import org.osm2world.core.math.AxisAlignedRectangleXZ;
+import org.osm2world.core.osm.creation.BoundedOSMFileReader;
+import org.osm2world.core.osm.creation.GeodeskReader;
+import org.osm2world.core.osm.creation.OverpassCache;
+import org.osm2world.core.osm.creation.OverpassReader;
+import org.osm2world.core.osm.data.CompactOSMDataBuilder;
+import org.osm2world.core.osm.data.OSMData;
+import org.osm2world.core.osm.data.SpatialOSMDataIndex;
+import org.osm2world.core.target.common.material.MaterialRegistry;
+import org.osm2world.core.target.common.rendering.TileNumber;
+import org.osm2world.core.target.frontend_pbf.FrontendPbfTarget;
+import org.osm2world.core.target.gltf.GltfTarget;
+
+/**
+ * implementation of the mode triggered by {@link CLIArguments#isRegionZoom()}.
+ * The input bounding box is split into tiles which are converted using {@link TiledConversion},
+ * and each tile is written to its own set of output files.
+ */
+final class RegionMode {
+
+	private RegionMode() {}
+
+	static void run(Configuration config, CLIArgumentsGroup argumentsGroup,
+			@Nullable MaterialRegistry materialRegistry) {
+
+		CLIArguments representative = argumentsGroup.getRepresentative();
+
+		LatLonBounds bounds = LatLonBounds.ofPoints(representative.getInputBoundingBox());
+
+		OverpassCache overpassCache = OverpassCache.fromConfiguration(config);
+
+		TileInput input = switch (representative.getInputMode()) {
+			case FILE -> CLIArgumentsUtil.getInputFileType(representative) == InputFileType.GEODESK
+					? (tile, tileBounds) -> new GeodeskReader(representative.getInput(), tileBounds).getData()
+					: new FileTileInput(representative.getInput(), representative.getRegionZoom());
+			case OVERPASS -> (tile, tileBounds) ->
+					new OverpassReader(representative.getOverpassURL(), tileBounds).withCache(overpassCache).getData();
+		};
+
+		/* the tiles' outputs are clipped to the tile bounds, so seams line up */
+
+		BaseConfiguration regionConfig = new BaseConfiguration();
+		regionConfig.setProperty("clipToBounds", true);
+
+		CompositeConfiguration outputConfig = new CompositeConfiguration();
+		outputConfig.addConfiguration(regionConfig);
+		outputConfig.addConfiguration(config);
+
+		TiledConversion tiledConversion = new TiledConversion(config, () -> {
+			ConversionFacade cf = new ConversionFacade();
+			Output.configureElevation(cf, config);
+			return cf;
+		}, materialRegistry);
+
+		List<TileNumber> failedTiles = tiledConversion.convert(bounds, representative.getRegionZoom(), input,
+				(tile, tileBounds, results) -> writeTile(tile, tileBounds, results, argumentsGroup, outputConfig));
+
+		if (!failedTiles.isEmpty()) {
+			System.err.println(failedTiles.size() + " tiles could not be converted: " + failedTiles);
+		}
+
+	}
+
+	private static void writeTile(TileNumber tile, AxisAlignedRectangleXZ tileBounds, Results results,
+			CLIArgumentsGroup argumentsGroup, Configuration outputConfig) throws IOException {
+
+		for (CLIArguments args : argumentsGroup.getCLIArgumentsList()) {
+			for (File outputFile : args.getOutput()) {
+
+				File tileFile = outputFileForTile(outputFile, tile);
+				tileFile.getAbsoluteFile().getParentFile().mkdirs();
+
+				OutputMode outputMode = CLIArgumentsUtil.getOutputMode(outputFile);
+
+				switch (outputMode) {
+
+				case GLTF:
+					GltfTarget gltfTarget = new GltfTarget(tileFile, tileBounds);
+					gltfTarget.setConfiguration(outputConfig);
+					results.getMeshCache().renderTo(gltfTarget, outputConfig.getBoolean("renderUnderground", true));
+					gltfTarget.finish();
+					break;
+
+				case WEB_PBF:
+					FrontendPbfTarget.writePbfFile(tileFile, results.getMapData(), results.getMaterialRegistry(),
+							results.getMeshCache(), tileBounds, results.getMapProjection());
+					break;
+
+				default:
+					throw new IllegalArgumentException("unsupported output for region mode: " + outputFile);
+
+				}
+
+			}
+		}
+
+	}
+
+	/**
+	 * {@link TileInput} for an OSM file. The data for all tiles is extracted from the file at once,
+	 * kept in a compact in-memory representation and indexed, so the file only needs to be read once.
+	 * Extracting a tile's data from the index only takes time proportional to the amount of data within the tile.
+	 */
+	private static class FileTileInput implements TileInput {
+
+		private final File file;
+		private final int zoom;
+
+		private @Nullable SpatialOSMDataIndex index = null;
+
+		FileTileInput(File file, int zoom) {
+			this.file = file;
+			this.zoom = zoom;
+		}
+
+		@Override
+		public void prepare(LatLonBounds bounds) throws IOException {
+
+			OSMData regionData = new BoundedOSMFileReader(file, bounds, 0).getData();
+
+			CompactOSMDataBuilder builder = new CompactOSMDataBuilder();
+			regionData.getNodes().forEach(builder::add);
+			regionData.getWays().forEach(builder::add);
+			regionData.getRelations().forEach(builder::add);
+			regionData = null;
+
+			/* grid cells have roughly the size of a tile */
+			index = new SpatialOSMDataIndex(builder.build(), 360.0 / (1 << zoom));
+
+		}
+
+		@Override
+		public OSMData getData(TileNumber tile, LatLonBounds bounds) {
+			if (index == null) {
+				throw new IllegalStateException("input has not been prepared");
+			}
+			return index.extract(bounds);
+		}
+
+	}
+
+	/**
+	 * returns the name of a tile's output file.
+	 * Replaces the placeholders {z}, {x} and {y} if the file name contains any of them,
+	 * otherwise the tile number is appended to the file name (before the extension).
+	 */
+	static File outputFileForTile(File outputFile, TileNumber tile) {
+
+		String path = outputFile.getPath();
+
+		if (path.contains("{z}") || path.contains("{x}") || path.contains("{y}")) {
+			return new File(path
+					.replace("{z}", Integer.toString(tile.zoom))
+					.replace("{x}", Integer.toString(tile.x))
+					.replace("{y}", Integer.toString(tile.y)));
+		} else {
+			String name = outputFile.getName();
+			int extensionStart = name.toLowerCase().endsWith(".o2w.pbf")
+					? name.length() - ".o2w.pbf".length()
+					: name.lastIndexOf('.');
+			String tileName = name.substring(0, extensionStart)
+					+ "_" + tile.zoom + "_" + tile.x + "_" + tile.y
+					+ name.substring(extensionStart);
+			return new File(outputFile.getParentFile(), tileName);
+		}
+
+	}
+
+}
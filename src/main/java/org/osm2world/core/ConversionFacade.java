@@ -5,25 +5,35 @@ import static java.util.Arrays.asList;
 import static java.util.Collections.*;
 import static java.util.Comparator.comparingDouble;
 import static org.osm2world.core.math.AxisAlignedRectangleXZ.bbox;
+import static org.osm2world.core.math.AxisAlignedRectangleXZ.bboxUnion;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
+import javax.annotation.Nullable;
+
 import org.apache.commons.configuration.BaseConfiguration;
 import org.apache.commons.configuration.Configuration;
-import org.apache.commons.lang.time.StopWatch;
+import org.osm2world.core.ConversionMetrics.Count;
 import org.osm2world.core.map_data.creation.LatLon;
+import org.osm2world.core.map_data.creation.MapDataSnapshot;
+import org.osm2world.core.map_data.creation.MapDataUpdater;
 import org.osm2world.core.map_data.creation.MapProjection;
 import org.osm2world.core.map_data.creation.MetricMapProjection;
 import org.osm2world.core.map_data.creation.OSMToMapDataConverter;
 import org.osm2world.core.map_data.data.MapData;
+import org.osm2world.core.map_data.data.MapElement;
+import org.osm2world.core.map_data.data.overlaps.MapOverlap;
 import org.osm2world.core.map_elevation.creation.EleConstraintEnforcer;
 import org.osm2world.core.map_elevation.creation.EleConstraintValidator;
 import org.osm2world.core.map_elevation.creation.NoneEleConstraintEnforcer;
@@ -32,16 +42,19 @@ import org.osm2world.core.map_elevation.creation.TerrainElevationData;
 import org.osm2world.core.map_elevation.creation.TerrainInterpolator;
 import org.osm2world.core.map_elevation.creation.ZeroInterpolator;
 import org.osm2world.core.map_elevation.data.EleConnector;
+import org.osm2world.core.math.AxisAlignedRectangleXZ;
 import org.osm2world.core.math.FaceXYZ;
 import org.osm2world.core.math.VectorXYZ;
 import org.osm2world.core.math.datastructures.IndexGrid;
+import org.osm2world.core.math.datastructures.STRTree;
 import org.osm2world.core.math.datastructures.SpatialIndex;
 import org.osm2world.core.osm.creation.OSMDataReader;
 import org.osm2world.core.osm.creation.OSMFileReader;
+import org.osm2world.core.osm.data.OSMChange;
 import org.osm2world.core.osm.data.OSMData;
 import org.osm2world.core.target.Target;
-import org.osm2world.core.target.TargetUtil;
-import org.osm2world.core.target.common.material.Materials;
+import org.osm2world.core.target.common.MeshCache;
+import org.osm2world.core.target.common.material.MaterialRegistry;
 import org.osm2world.core.util.FaultTolerantIterationUtil;
 import org.osm2world.core.util.functions.Factory;
 import org.osm2world.core.world.attachment.AttachmentConnector;
@@ -90,11 +103,21 @@ public class ConversionFacade {
 		private final MapProjection mapProjection;
 		private final MapData mapData;
 		private final TerrainElevationData eleData;
-
-		private Results(MapProjection mapProjection, MapData mapData, TerrainElevationData eleData) {
+		private final MaterialRegistry materialRegistry;
+		private final ConversionMetrics metrics;
+		private final MeshCache meshCache;
+		private final @Nullable OSMData osmData;
+
+		private Results(MapProjection mapProjection, MapData mapData, TerrainElevationData eleData,
+				MaterialRegistry materialRegistry, ConversionMetrics metrics, @Nullable OSMData osmData,
+				boolean parallelMeshes, boolean countTriangles) {
 			this.mapProjection = mapProjection;
 			this.mapData = mapData;
 			this.eleData = eleData;
+			this.materialRegistry = materialRegistry;
+			this.metrics = metrics;
+			this.osmData = osmData;
+			this.meshCache = new MeshCache(mapData, parallelMeshes, metrics, countTriangles);
 		}
 
 		public MapProjection getMapProjection() {
@@ -109,12 +132,47 @@ public class ConversionFacade {
 			return eleData;
 		}
 
+		/**
+		 * returns the material settings used for this conversion.
+		 * The world objects already use these materials, but targets which look up materials themselves
+		 * (such as {@link org.osm2world.core.target.povray.POVRayTarget}) need to be created with the same registry.
+		 */
+		public MaterialRegistry getMaterialRegistry() {
+			return materialRegistry;
+		}
+
+		/**
+		 * returns performance metrics for this conversion.
+		 * Building meshes through {@link #getMeshCache()} adds to the metrics.
+		 */
+		public ConversionMetrics getMetrics() {
+			return metrics;
+		}
+
+		/**
+		 * returns a cache of the meshes built by the {@link WorldObject}s.
+		 * Use this to send the results to multiple {@link Target}s without building the meshes repeatedly.
+		 */
+		public MeshCache getMeshCache() {
+			return meshCache;
+		}
+
+		/**
+		 * returns the OSM data the map data has been created from.
+		 * Null if the conversion did not start with OSM data, e.g. when using a {@link MapDataSnapshot}.
+		 * Required for {@link ConversionFacade#updateRepresentations(Results, OSMChange, List, Configuration, List)}.
+		 */
+		public @Nullable OSMData getOSMData() {
+			return osmData;
+		}
+
 	}
 
 	/**
-	 * generates a default list of modules for the conversion
+	 * generates a default list of modules for the conversion.
+	 * Returns new module instances on each call.
 	 */
-	static final List<WorldModule> createDefaultModuleList() {
+	public static final List<WorldModule> createDefaultModuleList() {
 
 		return Arrays.asList((WorldModule)
 				new RoadModule(),
@@ -149,6 +207,8 @@ public class ConversionFacade {
 
 	private Factory<? extends EleConstraintEnforcer> eleConstraintEnforcerFactory = NoneEleConstraintEnforcer::new;
 
+	private @Nullable MaterialRegistry materialRegistry = null;
+
 	/**
 	 * sets the factory that will make {@link MapProjection}
 	 * instances during subsequent calls to
@@ -178,6 +238,17 @@ public class ConversionFacade {
 		this.terrainEleInterpolatorFactory = enforcerFactory;
 	}
 
+	/**
+	 * sets the material settings which will be used during subsequent calls to
+	 * {@link #createRepresentations(OSMData, List, Configuration, List)}.
+	 * This avoids creating them from the configuration (and loading textures) again for each call.
+	 *
+	 * @param materialRegistry  registry matching the configuration; null to create it from the configuration
+	 */
+	public void setMaterialRegistry(@Nullable MaterialRegistry materialRegistry) {
+		this.materialRegistry = materialRegistry;
+	}
+
 
 	/**
 	 * performs all necessary steps to go from
@@ -247,11 +318,22 @@ public class ConversionFacade {
 			throw new BoundingBoxSizeException();
 		}
 
-		/* create map data from OSM data */
-		updatePhase(Phase.MAP_DATA);
+		ConversionMetrics metrics = new ConversionMetrics();
 
 		MapProjection mapProjection = mapProjectionFactory.apply(osmData.getCenter());
 
+		return createRepresentations(osmData, mapProjection, worldModules, config, targets, metrics);
+
+	}
+
+	private Results createRepresentations(OSMData osmData, MapProjection mapProjection,
+			List<? extends WorldModule> worldModules, Configuration config,
+			List<? extends Target> targets, ConversionMetrics metrics)
+			throws IOException {
+
+		/* create map data from OSM data */
+		updatePhase(Phase.MAP_DATA, metrics);
+
 		OSMToMapDataConverter converter = new OSMToMapDataConverter(mapProjection, config);
 		MapData mapData = null;
 		try {
@@ -260,9 +342,36 @@ public class ConversionFacade {
 			// TODO: what to do here?
 		}
 
+		String snapshotFile = config.getString("mapDataSnapshotFile", null);
+		if (snapshotFile != null && mapData != null) {
+			new MapDataSnapshot(mapProjection, mapData).write(new File(snapshotFile));
+		}
+
 		/* perform the rest of the conversion */
 
-		return createRepresentations(mapProjection, mapData, worldModules, config, targets);
+		return createRepresentations(mapProjection, mapData, osmData, worldModules, config, targets, metrics);
+
+	}
+
+	/**
+	 * variant of {@link #createRepresentations(OSMData, List, Configuration, List)}
+	 * that uses previously converted map data, skipping the {@link Phase#MAP_DATA} phase.
+	 * Snapshots are written during conversion if the mapDataSnapshotFile config key is set.
+	 *
+	 * @param snapshotFile  file written by {@link MapDataSnapshot#write(File)}; != null
+	 */
+	public Results createRepresentationsFromSnapshot(File snapshotFile,
+			List<? extends WorldModule> worldModules, Configuration config,
+			List<? extends Target> targets)
+			throws IOException {
+
+		ConversionMetrics metrics = new ConversionMetrics();
+		updatePhase(Phase.MAP_DATA, metrics);
+
+		MapDataSnapshot snapshot = MapDataSnapshot.read(snapshotFile, mapProjectionFactory);
+
+		return createRepresentations(snapshot.getMapProjection(), snapshot.getMapData(), null,
+				worldModules, config, targets, metrics);
 
 	}
 
@@ -274,6 +383,14 @@ public class ConversionFacade {
 			List<? extends WorldModule> worldModules, Configuration config,
 			List<? extends Target> targets)
 			throws IOException {
+		return createRepresentations(mapProjection, mapData, null, worldModules, config, targets,
+				new ConversionMetrics());
+	}
+
+	private Results createRepresentations(MapProjection mapProjection, MapData mapData, @Nullable OSMData osmData,
+			List<? extends WorldModule> worldModules, Configuration config,
+			List<? extends Target> targets, ConversionMetrics metrics)
+			throws IOException {
 
 		/* check the inputs */
 
@@ -285,23 +402,25 @@ public class ConversionFacade {
 			config = new BaseConfiguration();
 		}
 
+		countMapData(mapData, metrics);
+
 		/* apply world modules */
-		updatePhase(Phase.REPRESENTATION);
+		updatePhase(Phase.REPRESENTATION, metrics);
 
 		if (worldModules == null) {
 			worldModules = createDefaultModuleList();
 		}
 
-		Materials.configureMaterials(config);
-			//this will cause problems if multiple conversions are run
-			//at the same time, because global variables are being modified
+		MaterialRegistry materialRegistry = this.materialRegistry != null
+				? this.materialRegistry
+				: MaterialRegistry.fromConfiguration(config);
 
 		WorldCreator moduleManager =
-			new WorldCreator(config, worldModules);
-		moduleManager.addRepresentationsTo(mapData);
+			new WorldCreator(config, materialRegistry, worldModules);
+		moduleManager.addRepresentationsTo(mapData, metrics);
 
 		/* determine elevations */
-		updatePhase(Phase.ELEVATION);
+		updatePhase(Phase.ELEVATION, metrics);
 
 		String srtmDir = config.getString("srtmDir", null);
 		TerrainElevationData eleData = null;
@@ -311,47 +430,226 @@ public class ConversionFacade {
 		}
 
 		/* create terrain and attach connectors */
-		updatePhase(Phase.TERRAIN);
+		updatePhase(Phase.TERRAIN, metrics);
+
+		calculateElevations(mapData, mapData.getWorldObjects(), eleData, config, metrics);
+		attachConnectors(mapData.getWorldObjects(), new IndexGrid<>(mapData.getDataBoundary().pad(50), 100, 100));
+
+		/* supply results to targets and caller */
+		updatePhase(Phase.FINISHED, metrics);
+
+		Results results = new Results(mapProjection, mapData, eleData, materialRegistry, metrics, osmData,
+				config.getBoolean("parallelMeshes", false), config.getBoolean("metricsCountTriangles", false));
+
+		renderToTargets(results, config, targets);
+
+		metrics.endPhase();
+
+		return results;
+
+	}
+
+	/**
+	 * updates the results of a previous conversion after a change of the OSM data.
+	 * Only the map elements affected by the change and the elements near them are converted again
+	 * (see {@link MapDataUpdater}). All other elements keep their representations,
+	 * and their meshes are taken from the previous results' {@link MeshCache} if it has already built them.
+	 * If the change cannot be applied incrementally, a full conversion of the changed data is performed instead,
+	 * using the previous results' {@link MapProjection}.
+	 *
+	 * The map data of the previous results is modified and re-used, so those results should not be used afterwards.
+	 * This is also true if this method throws an exception, as the map data may have been partially modified.
+	 * Callers which keep showing the previous results while the update is running
+	 * must prevent concurrent access to their map data.
+	 *
+	 * @param previous  results of an earlier conversion starting with {@link OSMData},
+	 *                  using the same modules and configuration; != null
+	 * @param change    the changes made to the previous results' OSM data; != null
+	 */
+	public Results updateRepresentations(Results previous, OSMChange change,
+			List<? extends WorldModule> worldModules, Configuration config,
+			List<? extends Target> targets)
+			throws IOException {
+
+		/* check the inputs */
+
+		if (previous.getOSMData() == null) {
+			throw new IllegalArgumentException("the previous results need to include OSM data");
+		}
+
+		if (config == null) {
+			config = new BaseConfiguration();
+		}
+
+		ConversionMetrics metrics = new ConversionMetrics();
+
+		/* update the map data */
+		updatePhase(Phase.MAP_DATA, metrics);
+
+		MapProjection mapProjection = previous.getMapProjection();
+
+		if (worldModules == null) {
+			worldModules = createDefaultModuleList();
+		}
+
+		MapDataUpdater.Update update = null;
+
+		try {
+			update = new MapDataUpdater(mapProjection, config).update(
+					previous.getMapData(), previous.getOSMData(), change);
+		} catch (EntityNotFoundException e) {
+			// handled like other changes which cannot be applied incrementally
+		}
+
+		if (update == null) {
+			return createRepresentations(previous.getOSMData().applyChange(change), mapProjection,
+					worldModules, config, targets, metrics);
+		}
+
+		Results results = updateRepresentations(previous, update, worldModules, config, metrics);
+
+		renderToTargets(results, config, targets);
+
+		metrics.endPhase();
+
+		return results;
+
+	}
+
+	/**
+	 * creates representations for the changed map data of an update and updates the previous results' elevations,
+	 * attachments and meshes accordingly
+	 */
+	private Results updateRepresentations(Results previous, MapDataUpdater.Update update,
+			List<? extends WorldModule> worldModules, Configuration config, ConversionMetrics metrics) {
+
+		MapProjection mapProjection = previous.getMapProjection();
+
+		MapData changedMapData = update.getChangedMapData();
+
+		countMapData(changedMapData, metrics);
+
+		/* apply world modules to the changed map data */
+		updatePhase(Phase.REPRESENTATION, metrics);
+
+		MaterialRegistry materialRegistry = previous.getMaterialRegistry();
+
+		WorldCreator moduleManager =
+			new WorldCreator(config, materialRegistry, worldModules);
+		moduleManager.addRepresentationsTo(changedMapData, metrics);
+
+		/* determine elevations for new objects and those connected to or overlapping them */
+		updatePhase(Phase.ELEVATION, metrics);
+
+		Set<WorldObject> affectedObjects = newSetFromMap(new IdentityHashMap<>());
+		changedMapData.getWorldObjects().forEach(affectedObjects::add);
+		for (MapElement element : update.getConnectedElements()) {
+			affectedObjects.addAll(element.getRepresentations());
+		}
+
+		updatePhase(Phase.TERRAIN, metrics);
 
-		calculateElevations(mapData, eleData, config);
-		attachConnectors(mapData);
+		// known elevations are requested for all map data, as they would be during a full conversion
+		calculateElevations(update.getMapData(), affectedObjects, previous.getEleData(), config, metrics);
+
+		/* attach connectors, also to surfaces of unchanged objects within their reach */
+
+		Set<WorldObject> nearbyObjects = findObjectsNearConnectors(affectedObjects, update.getMapData());
+
+		List<WorldObject> surfaceObjects = new ArrayList<>(affectedObjects);
+		surfaceObjects.addAll(nearbyObjects);
+
+		attachConnectors(affectedObjects, surfaceObjects, new STRTree<>());
+
+		// objects with newly attached connectors need new meshes (e.g. roofs and floors with attached objects)
+		Set<WorldObject> modifiedObjects = newSetFromMap(new IdentityHashMap<>());
+		modifiedObjects.addAll(affectedObjects);
+		for (WorldObject object : nearbyObjects) {
+			for (AttachmentSurface surface : object.getAttachmentSurfaces()) {
+				if (surface.getAttachedConnectors().stream().anyMatch(c -> affectedObjects.contains(c.object))) {
+					modifiedObjects.add(object);
+				}
+			}
+		}
 
 		/* supply results to targets and caller */
-		updatePhase(Phase.FINISHED);
+		updatePhase(Phase.FINISHED, metrics);
+
+		Results results = new Results(mapProjection, update.getMapData(), previous.getEleData(),
+				materialRegistry, metrics, update.getOSMData(),
+				config.getBoolean("parallelMeshes", false), config.getBoolean("metricsCountTriangles", false));
+
+		results.getMeshCache().reuseMeshes(previous.getMeshCache(), o -> !modifiedObjects.contains(o));
+
+		return results;
+
+	}
+
+	private static void renderToTargets(Results results, Configuration config,
+			@Nullable List<? extends Target> targets) {
 
 		boolean underground = config.getBoolean("renderUnderground", true);
 
 		if (targets != null) {
 			for (Target target : targets) {
-				TargetUtil.renderWorldObjects(target, mapData, underground);
+				results.getMeshCache().renderTo(target, underground);
 				target.finish();
 			}
 		}
 
-		return new Results(mapProjection, mapData, eleData);
+	}
+
+	private static void countMapData(MapData mapData, ConversionMetrics metrics) {
+
+		for (MapElement element : mapData.getMapElements()) {
+			metrics.add(Count.MAP_ELEMENTS, 1);
+			for (MapOverlap<?, ?> overlap : element.getOverlaps()) {
+				if (overlap.e1 == element) {
+					metrics.add(Count.OVERLAPS, 1);
+				}
+			}
+		}
 
 	}
 
-	private void attachConnectors(MapData mapData) {
+	/**
+	 * attaches the connectors of world objects to the attachment surfaces of the same objects
+	 *
+	 * @param attachmentSurfaceIndex  empty spatial index which will be filled with the surfaces
+	 */
+	private void attachConnectors(Iterable<WorldObject> objects,
+			SpatialIndex<AttachmentSurface> attachmentSurfaceIndex) {
+		attachConnectors(objects, objects, attachmentSurfaceIndex);
+	}
 
-		/* collect the surfaces */
+	/**
+	 * attaches the connectors of world objects to the attachment surfaces of a (possibly larger) set of objects.
+	 * Connectors which are already attached are skipped.
+	 *
+	 * @param connectorObjects  the objects whose connectors should be attached
+	 * @param surfaceObjects  the objects whose surfaces the connectors can be attached to
+	 * @param attachmentSurfaceIndex  empty spatial index which will be filled with the surfaces
+	 */
+	private void attachConnectors(Iterable<WorldObject> connectorObjects, Iterable<WorldObject> surfaceObjects,
+			SpatialIndex<AttachmentSurface> attachmentSurfaceIndex) {
 
-		SpatialIndex<AttachmentSurface> attachmentSurfaceIndex =
-				new IndexGrid<>(mapData.getDataBoundary().pad(50), 100, 100);
+		/* collect the surfaces */
 
-		for (WorldObject object : mapData.getWorldObjects()) {
+		for (WorldObject object : surfaceObjects) {
 			if (object.getParent() != null) continue;
 			object.getAttachmentSurfaces().forEach(attachmentSurfaceIndex::insert);
 		}
 
 		/* attach connectors to the surfaces */
 
-		for (WorldObject object : mapData.getWorldObjects()) {
+		for (WorldObject object : connectorObjects) {
 
 			if (object.getParent() != null) continue;
 
 			for (AttachmentConnector connector : object.getAttachmentConnectors()) {
 
+				if (connector.isAttached()) continue;
+
 				for (String surfaceType : connector.compatibleSurfaceTypes) {
 
 					Iterable<AttachmentSurface> nearbySurfaces = attachmentSurfaceIndex.probe(
@@ -374,6 +672,50 @@ public class ConversionFacade {
 
 	}
 
+	/**
+	 * returns the top-level objects which are not among the affected objects,
+	 * but belong to elements within reach of the affected objects' unattached connectors.
+	 * Used during incremental updates to find unchanged surfaces the connectors could be attached to.
+	 */
+	private static Set<WorldObject> findObjectsNearConnectors(Set<WorldObject> affectedObjects, MapData mapData) {
+
+		List<AxisAlignedRectangleXZ> connectorBoxes = new ArrayList<>();
+
+		for (WorldObject object : affectedObjects) {
+			if (object.getParent() != null) continue;
+			for (AttachmentConnector connector : object.getAttachmentConnectors()) {
+				if (!connector.isAttached()) {
+					connectorBoxes.add(bbox(singleton(connector.originalPos)).pad(connector.maxDistanceXZ()));
+				}
+			}
+		}
+
+		Set<WorldObject> result = newSetFromMap(new IdentityHashMap<>());
+
+		if (connectorBoxes.isEmpty()) return result;
+
+		SpatialIndex<AxisAlignedRectangleXZ> connectorIndex = new STRTree<>(connectorBoxes);
+		AxisAlignedRectangleXZ connectorBounds = bboxUnion(connectorBoxes);
+
+		for (MapElement element : mapData.getMapElements()) {
+
+			AxisAlignedRectangleXZ elementBox = element.boundingBox();
+
+			if (connectorBounds.overlaps(elementBox)
+					&& Streams.stream(connectorIndex.probe(elementBox)).anyMatch(b -> b.overlaps(elementBox))) {
+				for (WorldObject object : element.getRepresentations()) {
+					if (object.getParent() == null && !affectedObjects.contains(object)) {
+						result.add(object);
+					}
+				}
+			}
+
+		}
+
+		return result;
+
+	}
+
 	protected static void attachConnectorIfValid(AttachmentConnector connector, AttachmentSurface surface) {
 
 		double ele = surface.getBaseEleAt(connector.originalPos.xz()) + connector.preferredHeight;
@@ -423,9 +765,12 @@ public class ConversionFacade {
 	 * uses OSM data and an terrain elevation data (usually from an external
 	 * source) to calculate elevations for all {@link EleConnector}s of the
 	 * {@link WorldObject}s
+	 *
+	 * @param siteData  the map data for which known elevations are requested from eleData
+	 * @param objects   the world objects whose connectors' elevations should be calculated
 	 */
-	private void calculateElevations(MapData mapData,
-			TerrainElevationData eleData, Configuration config) {
+	private void calculateElevations(MapData siteData, Iterable<WorldObject> objects,
+			TerrainElevationData eleData, Configuration config, ConversionMetrics metrics) {
 
 		final TerrainInterpolator interpolator =
 				(eleData != null)
@@ -434,20 +779,13 @@ public class ConversionFacade {
 
 		/* provide known elevations from eleData to the interpolator */
 
-		StopWatch stopWatch = new StopWatch();
-		stopWatch.start();
+		Collection<VectorXYZ> sites = emptyList();
 
 		if (!(interpolator instanceof ZeroInterpolator)) {
 
-			Collection<VectorXYZ> sites = emptyList();
-
 			try {
 
-				sites = eleData.getSites(mapData);
-
-				System.out.println("time getSites: " + stopWatch);
-				stopWatch.reset();
-				stopWatch.start();
+				sites = eleData.getSites(siteData);
 
 			} catch (IOException e) {
 				e.printStackTrace();
@@ -455,35 +793,80 @@ public class ConversionFacade {
 
 			interpolator.setKnownSites(sites);
 
-			System.out.println("time setKnownSites: " + stopWatch);
-			stopWatch.reset();
-			stopWatch.start();
-
 		}
 
 		/* interpolate connectors' elevations */
 
-		final List<EleConnector> connectors = new ArrayList<EleConnector>();
+		final List<WorldObject> connectorObjects = new ArrayList<>();
+		final Map<WorldObject, List<EleConnector>> connectorsByObject = new IdentityHashMap<>();
 
-		FaultTolerantIterationUtil.forEach(mapData.getWorldObjects(), (WorldObject worldObject) -> {
+		FaultTolerantIterationUtil.forEach(objects, (WorldObject worldObject) -> {
+			List<EleConnector> objectConnectors = new ArrayList<>();
+			worldObject.getEleConnectors().forEach(objectConnectors::add);
+			connectorObjects.add(worldObject);
+			connectorsByObject.put(worldObject, objectConnectors);
+		});
+
+		final List<EleConnector> connectors = new ArrayList<>();
+		connectorObjects.forEach(o -> connectors.addAll(connectorsByObject.get(o)));
+
+		metrics.add(Count.CONNECTORS, connectors.size());
+
+		try {
+
+			double[] connectorXZ = new double[2 * connectors.size()];
 
-			for (EleConnector conn : worldObject.getEleConnectors()) {
-				conn.setPosXYZ(interpolator.interpolateEle(conn.pos));
-				connectors.add(conn);
+			for (int i = 0; i < connectors.size(); i++) {
+				connectorXZ[2 * i] = connectors.get(i).pos.x;
+				connectorXZ[2 * i + 1] = connectors.get(i).pos.z;
 			}
 
-		});
+			double[] connectorEle = new double[connectors.size()];
+
+			interpolator.interpolateEle(connectorXZ, connectorEle);
+
+			for (int i = 0; i < connectors.size(); i++) {
+				EleConnector conn = connectors.get(i);
+				conn.setPosXYZ(conn.pos.xyz(connectorEle[i]));
+			}
+
+		} catch (Exception | AssertionError batchException) {
+
+			/* fall back to interpolating each object's connectors on its own,
+			 * so that a single problematic object does not prevent the others from getting elevations.
+			 * The failed batch may have left the interpolator in an inconsistent state
+			 * (e.g. with probe points remaining in a triangulation), so a new one is used. */
 
-		System.out.println("time terrain interpolation: " + stopWatch);
-		stopWatch.reset();
-		stopWatch.start();
+			System.err.println("batch elevation interpolation failed, interpolating objects individually");
+			batchException.printStackTrace();
+
+			final TerrainInterpolator fallbackInterpolator;
+
+			if (interpolator instanceof ZeroInterpolator) {
+				fallbackInterpolator = interpolator;
+			} else {
+				fallbackInterpolator = terrainEleInterpolatorFactory.get();
+				fallbackInterpolator.setKnownSites(sites);
+			}
+
+			connectors.clear();
+
+			FaultTolerantIterationUtil.forEach(connectorObjects, (WorldObject worldObject) -> {
+				List<EleConnector> objectConnectors = connectorsByObject.get(worldObject);
+				for (EleConnector conn : objectConnectors) {
+					conn.setPosXYZ(fallbackInterpolator.interpolateEle(conn.pos));
+				}
+				connectors.addAll(objectConnectors);
+			});
+
+		}
 
 		/* enforce constraints defined by WorldObjects */
 
 		boolean debugConstraints = config.getBoolean("debugConstraints", false);
 
 		final EleConstraintEnforcer enforcer = debugConstraints
-				? new EleConstraintValidator(mapData,
+				? new EleConstraintValidator(siteData,
 						eleConstraintEnforcerFactory.get())
 				: eleConstraintEnforcerFactory.get();
 
@@ -491,21 +874,13 @@ public class ConversionFacade {
 
 		if (!(enforcer instanceof NoneEleConstraintEnforcer)) {
 
-			FaultTolerantIterationUtil.forEach(mapData.getWorldObjects(),
+			FaultTolerantIterationUtil.forEach(objects,
 					(WorldObject o) -> o.defineEleConstraints(enforcer));
 
 		}
 
-		System.out.println("time add constraints: " + stopWatch);
-		stopWatch.reset();
-		stopWatch.start();
-
 		enforcer.enforceConstraints();
 
-		System.out.println("time enforce constraints: " + stopWatch);
-		stopWatch.reset();
-		stopWatch.start();
-
 	}
 
 	public static enum Phase {
@@ -536,7 +911,8 @@ public class ConversionFacade {
 		listeners.add(listener);
 	}
 
-	private void updatePhase(Phase newPhase) {
+	private void updatePhase(Phase newPhase, ConversionMetrics metrics) {
+		metrics.startPhase(newPhase);
 		for (ProgressListener listener : listeners) {
 			listener.updatePhase(newPhase);
 		}
@@ -0,0 +1,234 @@
+package org.osm2world.core;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nullable;
+
+import org.osm2world.core.ConversionFacade.Phase;
+import org.osm2world.core.ConversionFacade.Results;
+import org.osm2world.core.map_data.data.MapData;
+import org.osm2world.core.map_elevation.data.EleConnector;
+import org.osm2world.core.world.creation.WorldModule;
+import org.osm2world.core.world.data.WorldObject;
+
+import com.google.gson.GsonBuilder;
+
+/**
+ * performance metrics of a single conversion run, available through {@link Results#getMetrics()}.
+ * Can be exported as JSON or CSV, e.g. to compare many conversion runs.
+ *
+ * All times are measured in nanoseconds, but exported in milliseconds.
+ * CPU times only include the thread which runs the conversion, not any threads it hands work to.
+ * The metrics can be updated from multiple threads.
+ */
+public class ConversionMetrics {
+
+	/** quantities which are counted during a conversion run */
+	public static enum Count {
+		/** nodes, way segments and areas in the {@link MapData} */
+		MAP_ELEMENTS,
+		/** overlaps between map elements */
+		OVERLAPS,
+		/** {@link WorldObject}s created by the {@link WorldModule}s */
+		WORLD_OBJECTS,
+		/** {@link EleConnector}s which received an elevation */
+		CONNECTORS,
+		/** triangles in the meshes of all world objects. Only counted if the "metricsCountTriangles" option is set. */
+		TRIANGLES
+	}
+
+	private static final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+	private final Map<Phase, Long> phaseWallTimes = new EnumMap<>(Phase.class);
+	private final Map<Phase, Long> phaseCpuTimes = new EnumMap<>(Phase.class);
+
+	private @Nullable Phase currentPhase = null;
+	private long currentPhaseWallStart;
+	private long currentPhaseCpuStart;
+
+	private final Map<String, Long> moduleTimes = new LinkedHashMap<>();
+
+	private final Map<String, LongAdder> worldObjectTimes = new ConcurrentHashMap<>();
+	private final Map<String, LongAdder> worldObjectCounts = new ConcurrentHashMap<>();
+
+	private final Map<Count, LongAdder> counts = new EnumMap<>(Count.class);
+
+	public ConversionMetrics() {
+		for (Count count : Count.values()) {
+			counts.put(count, new LongAdder());
+		}
+	}
+
+	/**
+	 * starts measuring a phase. Ends the previous phase, if any.
+	 * Needs to be called from the thread running the conversion.
+	 */
+	public synchronized void startPhase(Phase phase) {
+		endPhase();
+		currentPhase = phase;
+		currentPhaseWallStart = System.nanoTime();
+		currentPhaseCpuStart = currentThreadCpuTime();
+	}
+
+	/** ends the current phase, if any */
+	public synchronized void endPhase() {
+		if (currentPhase != null) {
+			phaseWallTimes.merge(currentPhase, System.nanoTime() - currentPhaseWallStart, Long::sum);
+			phaseCpuTimes.merge(currentPhase, currentThreadCpuTime() - currentPhaseCpuStart, Long::sum);
+			currentPhase = null;
+		}
+	}
+
+	public synchronized void addModuleTime(WorldModule module, long nanos) {
+		moduleTimes.merge(getName(module.getClass()), nanos, Long::sum);
+	}
+
+	/** records the time spent on a {@link WorldObject}, e.g. for building its meshes */
+	public void addWorldObjectTime(WorldObject object, long nanos) {
+		String name = getName(object.getClass());
+		worldObjectTimes.computeIfAbsent(name, n -> new LongAdder()).add(nanos);
+		worldObjectCounts.computeIfAbsent(name, n -> new LongAdder()).increment();
+	}
+
+	public void add(Count count, long value) {
+		counts.get(count).add(value);
+	}
+
+	/** returns the wall time of a phase, 0 if the phase has not been completed */
+	public synchronized long getWallTimeNanos(Phase phase) {
+		return phaseWallTimes.getOrDefault(phase, 0L);
+	}
+
+	/** returns the CPU time of a phase, 0 if the phase has not been completed or CPU time is not available */
+	public synchronized long getCpuTimeNanos(Phase phase) {
+		return phaseCpuTimes.getOrDefault(phase, 0L);
+	}
+
+	/** returns the time spent applying each {@link WorldModule}, in the order the modules have been applied */
+	public synchronized Map<String, Long> getModuleTimesNanos() {
+		return new LinkedHashMap<>(moduleTimes);
+	}
+
+	/** returns the time recorded for each {@link WorldObject} class, sorted by class name */
+	public Map<String, Long> getWorldObjectTimesNanos() {
+		return toSortedMap(worldObjectTimes);
+	}
+
+	/** returns the number of objects of each {@link WorldObject} class for which a time has been recorded */
+	public Map<String, Long> getWorldObjectCounts() {
+		return toSortedMap(worldObjectCounts);
+	}
+
+	public long getCount(Count count) {
+		return counts.get(count).sum();
+	}
+
+	/** writes the metrics as a JSON object */
+	public void writeJson(Writer writer) throws IOException {
+
+		Map<String, Object> phases = new LinkedHashMap<>();
+		for (Phase phase : Phase.values()) {
+			Map<String, Object> phaseJson = new LinkedHashMap<>();
+			phaseJson.put("wallTimeMs", toMillis(getWallTimeNanos(phase)));
+			phaseJson.put("cpuTimeMs", toMillis(getCpuTimeNanos(phase)));
+			phases.put(phase.name(), phaseJson);
+		}
+
+		Map<String, Object> modules = new LinkedHashMap<>();
+		getModuleTimesNanos().forEach((name, nanos) -> modules.put(name, toMillis(nanos)));
+
+		Map<String, Long> objectCounts = getWorldObjectCounts();
+		Map<String, Object> worldObjects = new LinkedHashMap<>();
+		getWorldObjectTimesNanos().forEach((name, nanos) -> {
+			Map<String, Object> objectJson = new LinkedHashMap<>();
+			objectJson.put("timeMs", toMillis(nanos));
+			objectJson.put("count", objectCounts.get(name));
+			worldObjects.put(name, objectJson);
+		});
+
+		Map<String, Object> countsJson = new LinkedHashMap<>();
+		for (Count count : Count.values()) {
+			countsJson.put(count.name(), getCount(count));
+		}
+
+		Map<String, Object> json = new LinkedHashMap<>();
+		json.put("phases", phases);
+		json.put("moduleTimesMs", modules);
+		json.put("worldObjects", worldObjects);
+		json.put("counts", countsJson);
+
+		new GsonBuilder().setPrettyPrinting().create().toJson(json, writer);
+		writer.flush();
+
+	}
+
+	/**
+	 * writes the metrics as CSV, with one value per line.
+	 * The columns are category, name, metric and value.
+	 */
+	public void writeCsv(Writer writer) throws IOException {
+
+		writer.write("category,name,metric,value\n");
+
+		for (Phase phase : Phase.values()) {
+			writeCsvLine(writer, "phase", phase.name(), "wallTimeMs", toMillisString(getWallTimeNanos(phase)));
+			writeCsvLine(writer, "phase", phase.name(), "cpuTimeMs", toMillisString(getCpuTimeNanos(phase)));
+		}
+
+		for (Map.Entry<String, Long> e : getModuleTimesNanos().entrySet()) {
+			writeCsvLine(writer, "module", e.getKey(), "timeMs", toMillisString(e.getValue()));
+		}
+
+		Map<String, Long> objectCounts = getWorldObjectCounts();
+		for (Map.Entry<String, Long> e : getWorldObjectTimesNanos().entrySet()) {
+			writeCsvLine(writer, "worldObject", e.getKey(), "timeMs", toMillisString(e.getValue()));
+			writeCsvLine(writer, "worldObject", e.getKey(), "count", Long.toString(objectCounts.get(e.getKey())));
+		}
+
+		for (Count count : Count.values()) {
+			writeCsvLine(writer, "count", count.name(), "count", Long.toString(getCount(count)));
+		}
+
+		writer.flush();
+
+	}
+
+	private static void writeCsvLine(Writer writer, String category, String name, String metric, String value)
+			throws IOException {
+		writer.write(category + "," + name + "," + metric + "," + value + "\n");
+	}
+
+	/** returns a class name without the package, but with the enclosing class for nested classes */
+	private static String getName(Class<?> c) {
+		return c.getName().substring(c.getName().lastIndexOf('.') + 1);
+	}
+
+	private static Map<String, Long> toSortedMap(Map<String, LongAdder> map) {
+		Map<String, Long> result = new TreeMap<>();
+		map.forEach((name, value) -> result.put(name, value.sum()));
+		return result;
+	}
+
+	private static long currentThreadCpuTime() {
+		return threadMXBean.isCurrentThreadCpuTimeSupported() ? threadMXBean.getCurrentThreadCpuTime() : 0;
+	}
+
+	private static double toMillis(long nanos) {
+		return nanos / 1e6;
+	}
+
+	private static String toMillisString(long nanos) {
+		return String.format(Locale.ROOT, "%.3f", toMillis(nanos));
+	}
+
+}
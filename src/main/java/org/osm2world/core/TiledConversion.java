@@ -0,0 +1,208 @@
+package org.osm2world.core;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+
+import org.apache.commons.configuration.Configuration;
+import org.osm2world.core.ConversionFacade.Results;
+import org.osm2world.core.map_data.creation.LatLonBounds;
+import org.osm2world.core.map_data.creation.MapProjection;
+import org.osm2world.core.map_data.creation.MetricMapProjection;
+import org.osm2world.core.math.AxisAlignedRectangleXZ;
+import org.osm2world.core.math.VectorXZ;
+import org.osm2world.core.osm.data.OSMData;
+import org.osm2world.core.target.common.material.MaterialRegistry;
+import org.osm2world.core.target.common.rendering.OrthoTilesUtil;
+import org.osm2world.core.target.common.rendering.TileNumber;
+
+/**
+ * converts a large region as a grid of tiles, so that memory use depends on the tile size
+ * rather than the size of the region.
+ *
+ * Each tile is converted independently with its own {@link ConversionFacade}, and its results are discarded
+ * as soon as they have been written. The number of tiles converted at the same time is limited by the
+ * "regionTileMemory" config option, which is the expected peak heap use per tile in megabytes.
+ * Inputs may keep the data of the entire region in memory, though (see {@link TileInput#prepare(LatLonBounds)}).
+ *
+ * To reduce differences at tile seams, all tiles use the same {@link MapProjection}, and each tile receives the
+ * input data for its bounds plus a margin ("regionTileMargin", in meters). Elements crossing a seam, such as
+ * long roads, therefore have the same tags and geometry in each of the tiles they touch.
+ * Outputs are expected to clip the results to the exact tile bounds.
+ *
+ * The results are not guaranteed to match exactly at the seams, though. Elevations are calculated separately
+ * for each tile, so terrain sites and elevation constraints outside the tile's input bounds are not considered.
+ * Empty terrain is also created per tile. Larger margins make mismatches less likely, but cannot rule them out.
+ */
+public class TiledConversion {
+
+	/** provides the input data for a tile */
+	@FunctionalInterface
+	public static interface TileInput {
+
+		/**
+		 * called once before any tiles are converted.
+		 * Inputs can use this to load the data for all tiles at once,
+		 * e.g. to avoid reading an entire file again for each tile.
+		 *
+		 * @param bounds  the union of all tiles' bounds, including the margins around them
+		 */
+		default void prepare(LatLonBounds bounds) throws IOException {}
+
+		/**
+		 * @param bounds  the tile's bounds, including the margin around it
+		 */
+		OSMData getData(TileNumber tile, LatLonBounds bounds) throws IOException;
+
+	}
+
+	/** writes the results of converting a tile */
+	@FunctionalInterface
+	public static interface TileOutput {
+
+		/**
+		 * @param tileBounds  the exact bounds of the tile, without the margin.
+		 *                    Results outside these bounds are also present in neighboring tiles.
+		 */
+		void write(TileNumber tile, AxisAlignedRectangleXZ tileBounds, Results results) throws IOException;
+
+	}
+
+	private final Configuration config;
+	private final Supplier<ConversionFacade> conversionFacadeFactory;
+	private final MaterialRegistry materialRegistry;
+
+	private final double margin;
+	private final int parallelTiles;
+
+	/**
+	 * @param conversionFacadeFactory  creates a new, configured {@link ConversionFacade} for each tile
+	 * @param materialRegistry  material settings matching the config; null to create them from the config
+	 */
+	public TiledConversion(Configuration config, Supplier<ConversionFacade> conversionFacadeFactory,
+			@Nullable MaterialRegistry materialRegistry) {
+
+		this.config = config;
+		this.conversionFacadeFactory = conversionFacadeFactory;
+		this.materialRegistry = materialRegistry != null
+				? materialRegistry
+				: MaterialRegistry.fromConfiguration(config);
+
+		this.margin = config.getDouble("regionTileMargin", 100);
+
+		long memoryPerTile = config.getLong("regionTileMemory", 1024) * 1024 * 1024;
+		this.parallelTiles = parallelTilesForBudget(Runtime.getRuntime().maxMemory(), memoryPerTile,
+				Runtime.getRuntime().availableProcessors());
+
+	}
+
+	/** returns how many tiles can be converted at the same time without exceeding the memory budget */
+	static int parallelTilesForBudget(long memoryBudget, long memoryPerTile, int numCores) {
+		return (int) max(1, min(numCores, memoryBudget / max(1, memoryPerTile)));
+	}
+
+	/**
+	 * converts all tiles at a zoom level which overlap the bounds.
+	 * Failures of individual tiles are reported, but do not prevent the remaining tiles from being converted.
+	 *
+	 * @return  the tiles which could not be converted
+	 */
+	public List<TileNumber> convert(LatLonBounds bounds, int zoom, TileInput input, TileOutput output) {
+
+		MapProjection mapProjection = new MetricMapProjection(bounds.getCenter());
+
+		List<TileNumber> tiles = TileNumber.tilesForBounds(zoom, bounds);
+
+		try {
+			input.prepare(LatLonBounds.union(tiles.stream()
+					.map(tile -> inputBounds(tile, mapProjection))
+					.collect(toList())));
+		} catch (IOException e) {
+			System.err.println("Could not prepare the input for the tiles:");
+			e.printStackTrace();
+			return tiles;
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(max(1, min(parallelTiles, tiles.size())));
+
+		try {
+
+			Map<TileNumber, Future<?>> futures = new LinkedHashMap<>();
+
+			for (TileNumber tile : tiles) {
+				futures.put(tile, executor.submit(() -> {
+					convertTile(tile, mapProjection, input, output);
+					return null;
+				}));
+			}
+
+			List<TileNumber> failedTiles = new ArrayList<>();
+
+			for (Map.Entry<TileNumber, Future<?>> entry : futures.entrySet()) {
+				try {
+					entry.getValue().get();
+				} catch (ExecutionException e) {
+					System.err.println("Could not convert tile " + entry.getKey() + ":");
+					e.getCause().printStackTrace();
+					failedTiles.add(entry.getKey());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					failedTiles.add(entry.getKey());
+				}
+			}
+
+			return failedTiles;
+
+		} finally {
+			executor.shutdownNow();
+		}
+
+	}
+
+	private void convertTile(TileNumber tile, MapProjection mapProjection, TileInput input, TileOutput output)
+			throws IOException {
+
+		AxisAlignedRectangleXZ tileBounds = OrthoTilesUtil.boundsForTiles(mapProjection, singletonList(tile));
+
+		OSMData osmData = input.getData(tile, inputBounds(tile, mapProjection));
+
+		if (osmData.getNodes().isEmpty()) return;
+
+		ConversionFacade cf = conversionFacadeFactory.get();
+		cf.setMapProjectionFactory(origin -> mapProjection);
+		cf.setMaterialRegistry(materialRegistry);
+
+		Results results = cf.createRepresentations(osmData, null, config, null);
+
+		output.write(tile, tileBounds, results);
+
+	}
+
+	/** returns the bounds of the input data for a tile, i.e. the tile's bounds plus the margin */
+	private LatLonBounds inputBounds(TileNumber tile, MapProjection mapProjection) {
+
+		AxisAlignedRectangleXZ tileBounds = OrthoTilesUtil.boundsForTiles(mapProjection, singletonList(tile));
+		AxisAlignedRectangleXZ inputBoundsXZ = tileBounds.pad(margin);
+
+		return LatLonBounds.ofPoints(asList(
+				mapProjection.toLatLon(new VectorXZ(inputBoundsXZ.minX, inputBoundsXZ.minZ)),
+				mapProjection.toLatLon(new VectorXZ(inputBoundsXZ.maxX, inputBoundsXZ.maxZ))));
+
+	}
+
+}
@@ -1,6 +1,7 @@
 package org.osm2world.core.map_data.creation;
 
 import static java.lang.Math.min;
+import static java.util.Arrays.asList;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -11,6 +12,8 @@ import org.osm2world.core.map_data.data.TagSet;
 import org.osm2world.core.math.AxisAlignedRectangleXZ;
 import org.osm2world.core.math.VectorGridXZ;
 import org.osm2world.core.math.VectorXZ;
+import org.osm2world.core.math.datastructures.STRTree;
+import org.osm2world.core.math.shapes.SimplePolygonShapeXZ;
 
 /**
  * utility class for building geometry representing empty terrain.
@@ -27,6 +30,34 @@ public class EmptyTerrainBuilder {
 	public static final double POINT_GRID_DIST = 30;
 	public static final int PATCH_SIZE_POINTS = 10;
 
+	/** size of patches in areas without any other areas */
+	static final int MAX_PATCH_SIZE_POINTS = 2 * PATCH_SIZE_POINTS;
+
+	/** size of patches in areas with a high density of other areas */
+	static final int MIN_PATCH_SIZE_POINTS = PATCH_SIZE_POINTS / 2;
+
+	/** number of intersecting areas above which a patch of the regular size is split */
+	static final int DENSE_PATCH_AREA_COUNT = 50;
+
+	/**
+	 * tags of areas which are represented by ground-level geometry replacing the terrain.
+	 * Areas with a surface or building tag are covered as well, see {@link #coversTerrain(TagSet)}.
+	 */
+	private static final TagSet COVERING_TAGS = TagSet.of(
+			"natural", "water",
+			"waterway", "riverbank",
+			"landuse", "grass",
+			"landuse", "meadow",
+			"natural", "grassland",
+			"natural", "sand",
+			"natural", "beach",
+			"natural", "bare_rock",
+			"natural", "scrub");
+
+	/** keys which indicate that an area is not at ground level */
+	private static final List<String> NON_GROUND_KEYS = asList(
+			"location", "bridge", "tunnel", "indoor", "min_height", "building:min_level");
+
 	/**
 	 * creates a grid of square {@link MapArea}s to represent empty terrain.
 	 * The areas are connected with each other, but do not overlap,
@@ -37,19 +68,63 @@ public class EmptyTerrainBuilder {
 	 */
 	static void createAreasForEmptyTerrain(List<MapNode> mapNodes,
 			List<MapArea> mapAreas, AxisAlignedRectangleXZ dataBounds) {
+		createAreasForEmptyTerrain(mapNodes, mapAreas, dataBounds, false, false);
+	}
+
+	/**
+	 * variant of {@link #createAreasForEmptyTerrain(List, List, AxisAlignedRectangleXZ)}
+	 * which optionally takes the areas already in mapAreas into account.
+	 *
+	 * @param adaptive  whether the size of patches adapts to the density of the existing areas:
+	 *                  Patches without any areas are merged into patches of {@link #MAX_PATCH_SIZE_POINTS},
+	 *                  patches intersecting many areas are split into patches of {@link #MIN_PATCH_SIZE_POINTS}.
+	 *                  The patches still cover the entire data bounds.
+	 * @param omitCovered  whether patches which are entirely within a single area that replaces the terrain
+	 *                     (such as a building or water, see {@link #coversTerrain(TagSet)}) are left out.
+	 *                     The areas then only cover the parts of the data bounds where terrain may be visible.
+	 *                     Only has an effect if adaptive is true.
+	 */
+	static void createAreasForEmptyTerrain(List<MapNode> mapNodes, List<MapArea> mapAreas,
+			AxisAlignedRectangleXZ dataBounds, boolean adaptive, boolean omitCovered) {
 
 		VectorGridXZ posGrid = new VectorGridXZ(
 				dataBounds.pad(POINT_GRID_DIST), POINT_GRID_DIST);
 
-		/* create a grid of nodes (leaving points within the future patches blank) */
+		/* decide on the layout of patches */
+
+		STRTree<MapArea> areaIndex = adaptive ? new STRTree<>(mapAreas) : null;
+
+		int rootSize = adaptive ? MAX_PATCH_SIZE_POINTS : PATCH_SIZE_POINTS;
+
+		List<Patch> patches = new ArrayList<>();
+
+		for (int x = 0; x < posGrid.sizeX() - 1; x += rootSize) {
+			for (int z = 0; z < posGrid.sizeZ() - 1; z += rootSize) {
+				definePatches(posGrid, areaIndex, omitCovered, x, z, rootSize, patches);
+			}
+		}
+
+		/* create a grid of nodes on the patch outlines (leaving points within the patches blank) */
+
+		boolean[][] onOutline = new boolean[posGrid.sizeX()][posGrid.sizeZ()];
+
+		for (Patch patch : patches) {
+			for (int x = patch.startX; x <= patch.endX; x++) {
+				onOutline[x][patch.startZ] = true;
+				onOutline[x][patch.endZ] = true;
+			}
+			for (int z = patch.startZ; z <= patch.endZ; z++) {
+				onOutline[patch.startX][z] = true;
+				onOutline[patch.endX][z] = true;
+			}
+		}
 
 		MapNode[][] nodeGrid = new MapNode[posGrid.sizeX()][posGrid.sizeZ()];
 
 		for (int x = 0; x < posGrid.sizeX(); x++) {
 			for (int z = 0; z < posGrid.sizeZ(); z++) {
 
-				if (x % PATCH_SIZE_POINTS == 0 || x == posGrid.sizeX() - 1
-						|| z % PATCH_SIZE_POINTS == 0 || z == posGrid.sizeZ() - 1) {
+				if (onOutline[x][z]) {
 
 					VectorXZ pos = posGrid.get(x, z);
 
@@ -63,54 +138,162 @@ public class EmptyTerrainBuilder {
 			}
 		}
 
-		/* create a grid of areas based on the nodes */
+		/* create an area for each patch based on the nodes */
+
+		for (Patch patch : patches) {
+			mapAreas.add(createAreaForPatch(nodeGrid, patch));
+		}
+
+	}
+
+	/**
+	 * adds the patches for a square of grid points to the result, splitting it into smaller patches if necessary.
+	 *
+	 * @param areaIndex  index of other areas, null if the patches should not adapt to them
+	 * @param omitCovered  whether patches covered by an area which replaces the terrain are left out
+	 * @param size  the intended number of grid intervals along each side,
+	 *              the patch will be smaller if it reaches the end of the grid
+	 */
+	private static void definePatches(VectorGridXZ posGrid, STRTree<MapArea> areaIndex, boolean omitCovered,
+			int startX, int startZ, int size, List<Patch> result) {
+
+		Patch patch = new Patch(startX, startZ,
+				min(startX + size, posGrid.sizeX() - 1),
+				min(startZ + size, posGrid.sizeZ() - 1));
+
+		if (areaIndex == null) {
+			result.add(patch);
+			return;
+		}
+
+		AxisAlignedRectangleXZ box = new AxisAlignedRectangleXZ(
+				posGrid.get(patch.startX, patch.startZ).x, posGrid.get(patch.startX, patch.startZ).z,
+				posGrid.get(patch.endX, patch.endZ).x, posGrid.get(patch.endX, patch.endZ).z);
 
-		// calculate the number of patches, but always round up
-		int numPatchesX = (nodeGrid.length + PATCH_SIZE_POINTS - 2) / PATCH_SIZE_POINTS;
-		int numPatchesZ = (nodeGrid[0].length + PATCH_SIZE_POINTS - 2) / PATCH_SIZE_POINTS;
+		List<MapArea> intersectingAreas = areaIndex.probe(box);
 
-		for (int patchX = 0; patchX < numPatchesX; patchX++) {
-			for (int z = 0; z < numPatchesZ; z++) {
+		int maxAreaCount = size > PATCH_SIZE_POINTS ? 0 : DENSE_PATCH_AREA_COUNT;
 
-				mapAreas.add(createAreaForPatch(nodeGrid,
-						patchX * PATCH_SIZE_POINTS,
-						z * PATCH_SIZE_POINTS));
+		if (intersectingAreas.size() > maxAreaCount && size >= 2 * MIN_PATCH_SIZE_POINTS) {
 
+			int childSize = size / 2;
+
+			for (int x = startX; x < patch.endX; x += childSize) {
+				for (int z = startZ; z < patch.endZ; z += childSize) {
+					definePatches(posGrid, areaIndex, omitCovered, x, z, childSize, result);
+				}
 			}
+
+		} else if (!omitCovered
+				|| !intersectingAreas.stream().anyMatch(a -> coversTerrain(a.getTags()) && covers(a, box))) {
+			result.add(patch);
+		}
+
+	}
+
+	/**
+	 * checks whether an area will be represented by geometry which replaces the terrain below it.
+	 * This is conservative, i.e. it only returns true for common features which are known to be at ground level.
+	 * It is still only based on tags, and world modules may not create the expected geometry for an area
+	 * (e.g. because of unsupported tag combinations or errors). This is why leaving out patches is opt-in,
+	 * using the omitCoveredTerrain configuration key.
+	 */
+	static boolean coversTerrain(TagSet tags) {
+
+		if ((tags.containsKey("layer") && !tags.contains("layer", "0"))
+				|| NON_GROUND_KEYS.stream().anyMatch(tags::containsKey)
+				|| tags.contains("surface", EMPTY_SURFACE_VALUE)) {
+			return false;
 		}
 
+		return tags.containsKey("surface")
+				|| (tags.containsKey("building") && !tags.contains("building", "no")
+						&& !tags.contains("building", "roof"))
+				|| tags.containsAny(COVERING_TAGS);
+
 	}
 
-	private static MapArea createAreaForPatch(MapNode[][] nodeGrid,
-			int startX, int startZ) {
+	/**
+	 * checks whether an area's polygon fully contains a box.
+	 * Returns false in borderline cases, e.g. if any of the area's vertices are on the box' outline.
+	 */
+	static boolean covers(MapArea area, AxisAlignedRectangleXZ box) {
 
-		int endX = min(startX + PATCH_SIZE_POINTS + 1, nodeGrid.length);
-		int endZ = min(startZ + PATCH_SIZE_POINTS + 1, nodeGrid[0].length);
+		if (!area.boundingBox().contains(box)
+				|| !area.getPolygon().contains(box.center())) {
+			return false;
+		}
+
+		for (SimplePolygonShapeXZ ring : area.getPolygon().getRings()) {
+			for (VectorXZ v : ring.vertices()) {
+				if (box.contains(v)) {
+					return false;
+				}
+			}
+		}
+
+		/* no vertices are within the box, so the area's outline can only enter the box by crossing its sides */
+
+		List<VectorXZ> corners = box.vertices();
+
+		for (int i = 0; i + 1 < corners.size(); i++) {
+			if (!area.getPolygon().contains(corners.get(i))) {
+				return false;
+			}
+			for (SimplePolygonShapeXZ ring : area.getPolygon().getRings()) {
+				if (ring.intersects(corners.get(i), corners.get(i + 1))) {
+					return false;
+				}
+			}
+		}
+
+		return true;
+
+	}
+
+	private static MapArea createAreaForPatch(MapNode[][] nodeGrid, Patch patch) {
 
 		List<MapNode> nodes = new ArrayList<MapNode>();
 
 		// first row
-		for (int x = startX; x < endX; x++) {
-			nodes.add(nodeGrid[x][startZ]);
+		for (int x = patch.startX; x <= patch.endX; x++) {
+			nodes.add(nodeGrid[x][patch.startZ]);
 		}
 
 		// last column
-		for (int z = startZ + 1; z < endZ - 1; z++) {
-			nodes.add(nodeGrid[endX - 1][z]);
+		for (int z = patch.startZ + 1; z < patch.endZ; z++) {
+			nodes.add(nodeGrid[patch.endX][z]);
 		}
 
 		// last row
-		for (int x = endX - 1; x >= startX; x--) {
-			nodes.add(nodeGrid[x][endZ - 1]);
+		for (int x = patch.endX; x >= patch.startX; x--) {
+			nodes.add(nodeGrid[x][patch.endZ]);
 		}
 
 		// first column
-		for (int z = endZ - 2; z >= startZ /* start will be added again */; z--) {
-			nodes.add(nodeGrid[startX][z]);
+		for (int z = patch.endZ - 1; z >= patch.startZ /* start will be added again */; z--) {
+			nodes.add(nodeGrid[patch.startX][z]);
 		}
 
 		return new MapArea(-1, false, EMPTY_SURFACE_TAGS, nodes);
 
 	}
 
+	/** a rectangular range of grid points, the first and last points are included */
+	private static class Patch {
+
+		final int startX;
+		final int startZ;
+		final int endX;
+		final int endZ;
+
+		Patch(int startX, int startZ, int endX, int endZ) {
+			this.startX = startX;
+			this.startZ = startZ;
+			this.endX = endX;
+			this.endZ = endZ;
+		}
+
+	}
+
 }
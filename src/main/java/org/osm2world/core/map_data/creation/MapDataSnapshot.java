@@ -0,0 +1,544 @@
+package org.osm2world.core.map_data.creation;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.osm2world.core.map_data.data.MapArea;
+import org.osm2world.core.map_data.data.MapAreaSegment;
+import org.osm2world.core.map_data.data.MapData;
+import org.osm2world.core.map_data.data.MapElement;
+import org.osm2world.core.map_data.data.MapNode;
+import org.osm2world.core.map_data.data.MapRelation;
+import org.osm2world.core.map_data.data.MapWay;
+import org.osm2world.core.map_data.data.MapWaySegment;
+import org.osm2world.core.map_data.data.Tag;
+import org.osm2world.core.map_data.data.TagDictionary;
+import org.osm2world.core.map_data.data.TagSet;
+import org.osm2world.core.map_data.data.overlaps.MapIntersectionWW;
+import org.osm2world.core.map_data.data.overlaps.MapOverlap;
+import org.osm2world.core.map_data.data.overlaps.MapOverlapAA;
+import org.osm2world.core.map_data.data.overlaps.MapOverlapNA;
+import org.osm2world.core.map_data.data.overlaps.MapOverlapType;
+import org.osm2world.core.map_data.data.overlaps.MapOverlapWA;
+import org.osm2world.core.math.AxisAlignedRectangleXZ;
+import org.osm2world.core.math.PolygonWithHolesXZ;
+import org.osm2world.core.math.SimplePolygonXZ;
+import org.osm2world.core.math.VectorXZ;
+
+/**
+ * binary snapshot of a {@link MapData} instance as created by {@link OSMToMapDataConverter},
+ * along with the origin of the {@link MapProjection} it was created with.
+ *
+ * Loading a snapshot is much faster than repeating the conversion from OSM data, because
+ * multipolygon assembly, terrain creation and overlap calculation don't need to be repeated.
+ * The snapshot must be written before any representations have been added to the map data
+ * (representations are not part of the snapshot).
+ *
+ * Elements refer to each other using their position in the snapshot. The snapshot is read
+ * from a memory-mapped file, which limits its size to 2 GB.
+ */
+public class MapDataSnapshot {
+
+	private static final int MAGIC = 0x4F32574D; // "O2WM"
+	private static final int FORMAT_VERSION = 1;
+
+	private static final byte NODE = 0, WAY = 1, AREA = 2;
+	private static final byte OVERLAP_WW = 0, OVERLAP_WA = 1, OVERLAP_AA = 2, OVERLAP_NA = 3;
+
+	private final MapProjection mapProjection;
+	private final MapData mapData;
+
+	public MapDataSnapshot(MapProjection mapProjection, MapData mapData) {
+		this.mapProjection = mapProjection;
+		this.mapData = mapData;
+	}
+
+	public MapProjection getMapProjection() {
+		return mapProjection;
+	}
+
+	public MapData getMapData() {
+		return mapData;
+	}
+
+	/** writes this snapshot to a file */
+	public void write(File file) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+				Files.newOutputStream(file.toPath()), 1 << 16))) {
+			new Writer(out).write();
+		}
+	}
+
+	/**
+	 * reads a snapshot from a file
+	 *
+	 * @param mapProjectionFactory  creates a projection for the stored origin.
+	 *     Must create the same type of projection as the one used when writing the snapshot.
+	 */
+	public static MapDataSnapshot read(File file, Function<LatLon, ? extends MapProjection> mapProjectionFactory)
+			throws IOException {
+
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("snapshot file is too large: " + file);
+			}
+
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+			try {
+				return new Reader(buffer).read(mapProjectionFactory);
+			} catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+				throw new IOException("corrupt snapshot file: " + file, e);
+			}
+
+		}
+
+	}
+
+	private class Writer {
+
+		private final DataOutputStream out;
+
+		private final Map<String, Integer> stringIndices = new HashMap<>();
+		private final Map<Object, Integer> elementIndices = new IdentityHashMap<>();
+		private final Map<MapOverlap<?, ?>, Integer> overlapIndices = new IdentityHashMap<>();
+
+		Writer(DataOutputStream out) {
+			this.out = out;
+		}
+
+		void write() throws IOException {
+
+			List<MapNode> nodes = new ArrayList<>(mapData.getMapNodes());
+			List<MapWay> ways = new ArrayList<>(mapData.getMapWays());
+			List<MapWaySegment> segments = new ArrayList<>(mapData.getMapWaySegments());
+			List<MapArea> areas = new ArrayList<>(mapData.getMapAreas());
+			List<MapRelation> relations = mapData.getMapRelations();
+
+			for (List<?> list : List.of(nodes, ways, segments, areas)) {
+				for (int i = 0; i < list.size(); i++) {
+					elementIndices.put(list.get(i), i);
+				}
+			}
+
+			List<MapOverlap<?, ?>> overlaps = new ArrayList<>();
+			for (List<? extends MapElement> list : List.of(segments, areas)) {
+				for (MapElement element : list) {
+					for (MapOverlap<?, ?> overlap : element.getOverlaps()) {
+						if (!overlapIndices.containsKey(overlap)) {
+							overlapIndices.put(overlap, overlaps.size());
+							overlaps.add(overlap);
+						}
+					}
+				}
+			}
+
+			/* header */
+
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.writeUTF(mapProjection.getClass().getName());
+			out.writeDouble(mapProjection.getOrigin().lat);
+			out.writeDouble(mapProjection.getOrigin().lon);
+
+			AxisAlignedRectangleXZ fileBoundary = mapData.getFileBoundary();
+			out.writeBoolean(fileBoundary != null);
+			if (fileBoundary != null) {
+				out.writeDouble(fileBoundary.minX);
+				out.writeDouble(fileBoundary.minZ);
+				out.writeDouble(fileBoundary.maxX);
+				out.writeDouble(fileBoundary.maxZ);
+			}
+
+			/* string table */
+
+			List<String> strings = new ArrayList<>();
+			List<TagSet> tagSets = new ArrayList<>();
+			nodes.forEach(n -> tagSets.add(n.getTags()));
+			areas.forEach(a -> tagSets.add(a.getTags()));
+			ways.forEach(w -> tagSets.add(w.getTags()));
+			relations.forEach(r -> tagSets.add(r.getTags()));
+			for (TagSet tags : tagSets) {
+				for (Tag tag : tags) {
+					addString(tag.key, strings);
+					addString(tag.value, strings);
+				}
+			}
+			for (MapRelation relation : relations) {
+				relation.getMemberships().forEach(m -> addString(m.getRole(), strings));
+			}
+
+			out.writeInt(strings.size());
+			for (String string : strings) {
+				byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+				out.writeInt(bytes.length);
+				out.write(bytes);
+			}
+
+			/* elements */
+
+			out.writeInt(nodes.size());
+			for (MapNode node : nodes) {
+				out.writeLong(node.getId());
+				writeVector(node.getPos());
+				writeTags(node.getTags());
+			}
+
+			out.writeInt(areas.size());
+			for (MapArea area : areas) {
+				out.writeLong(area.getId());
+				out.writeBoolean(area.isBasedOnRelation());
+				writeTags(area.getTags());
+				writeNodeList(area.getBoundaryNodes());
+				out.writeInt(area.getHoles().size());
+				for (List<MapNode> hole : area.getHoles()) {
+					writeNodeList(hole);
+				}
+				PolygonWithHolesXZ polygon = area.getPolygon();
+				writeVectorList(polygon.getOuter().getVertexCollection());
+				out.writeInt(polygon.getHoles().size());
+				for (SimplePolygonXZ hole : polygon.getHoles()) {
+					writeVectorList(hole.getVertexCollection());
+				}
+			}
+
+			out.writeInt(ways.size());
+			for (MapWay way : ways) {
+				out.writeLong(way.getId());
+				writeTags(way.getTags());
+				writeNodeList(way.getNodes());
+			}
+
+			out.writeInt(relations.size());
+			for (MapRelation relation : relations) {
+				out.writeLong(relation.getId());
+				writeTags(relation.getTags());
+				out.writeInt(relation.getMemberships().size());
+				for (MapRelation.Membership membership : relation.getMemberships()) {
+					out.writeInt(stringIndices.get(membership.getRole()));
+					MapRelation.Element element = membership.getElement();
+					out.writeByte(element instanceof MapNode ? NODE : element instanceof MapWay ? WAY : AREA);
+					out.writeInt(elementIndices.get(element));
+				}
+			}
+
+			/* overlaps */
+
+			Map<MapArea, Map<MapAreaSegment, Integer>> areaSegmentIndices = new IdentityHashMap<>();
+
+			out.writeInt(overlaps.size());
+			for (MapOverlap<?, ?> overlap : overlaps) {
+				if (overlap instanceof MapIntersectionWW) {
+					out.writeByte(OVERLAP_WW);
+					writeVector(((MapIntersectionWW) overlap).pos);
+				} else if (overlap instanceof MapOverlapWA) {
+					out.writeByte(OVERLAP_WA);
+					MapOverlapWA overlapWA = (MapOverlapWA) overlap;
+					writeVectorList(overlapWA.getIntersectionPositions());
+					Map<MapAreaSegment, Integer> indices = areaSegmentIndices.computeIfAbsent(
+							overlapWA.e2, MapDataSnapshot::indexAreaSegments);
+					out.writeInt(overlapWA.getIntersectingAreaSegments().size());
+					for (MapAreaSegment segment : overlapWA.getIntersectingAreaSegments()) {
+						out.writeInt(indices.get(segment));
+					}
+				} else if (overlap instanceof MapOverlapAA) {
+					out.writeByte(OVERLAP_AA);
+				} else if (overlap instanceof MapOverlapNA) {
+					out.writeByte(OVERLAP_NA);
+				} else {
+					throw new IllegalArgumentException("unsupported overlap type: " + overlap.getClass());
+				}
+				out.writeByte(overlap.type.ordinal());
+				out.writeInt(elementIndices.get(overlap.e1));
+				out.writeInt(elementIndices.get(overlap.e2));
+			}
+
+			/* the order of each element's overlaps */
+
+			for (MapWaySegment segment : segments) {
+				writeOverlapList(segment.getOverlaps());
+			}
+			for (MapArea area : areas) {
+				writeOverlapList(area.getOverlaps());
+			}
+
+		}
+
+		private void addString(String string, List<String> strings) {
+			if (!stringIndices.containsKey(string)) {
+				stringIndices.put(string, strings.size());
+				strings.add(string);
+			}
+		}
+
+		private void writeTags(TagSet tags) throws IOException {
+			out.writeInt(tags.size());
+			for (Tag tag : tags) {
+				out.writeInt(stringIndices.get(tag.key));
+				out.writeInt(stringIndices.get(tag.value));
+			}
+		}
+
+		private void writeVector(VectorXZ v) throws IOException {
+			out.writeDouble(v.x);
+			out.writeDouble(v.z);
+		}
+
+		private void writeVectorList(List<VectorXZ> vs) throws IOException {
+			out.writeInt(vs.size());
+			for (VectorXZ v : vs) {
+				writeVector(v);
+			}
+		}
+
+		private void writeNodeList(List<MapNode> nodes) throws IOException {
+			out.writeInt(nodes.size());
+			for (MapNode node : nodes) {
+				out.writeInt(elementIndices.get(node));
+			}
+		}
+
+		private void writeOverlapList(Iterable<MapOverlap<?, ?>> overlaps) throws IOException {
+			List<MapOverlap<?, ?>> list = new ArrayList<>();
+			overlaps.forEach(list::add);
+			out.writeInt(list.size());
+			for (MapOverlap<?, ?> overlap : list) {
+				out.writeInt(overlapIndices.get(overlap));
+			}
+		}
+
+	}
+
+	private static class Reader {
+
+		private final MappedByteBuffer buffer;
+
+		private String[] strings;
+		private MapNode[] nodes;
+
+		/** shared by the tags of all elements read from the snapshot */
+		private final TagDictionary tagDictionary = new TagDictionary();
+
+		Reader(MappedByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		MapDataSnapshot read(Function<LatLon, ? extends MapProjection> mapProjectionFactory) throws IOException {
+
+			/* header */
+
+			if (buffer.getInt() != MAGIC) {
+				throw new IOException("not a map data snapshot");
+			} else if (buffer.getInt() != FORMAT_VERSION) {
+				throw new IOException("unsupported map data snapshot version");
+			}
+
+			String projectionClassName = readModifiedUTF();
+			LatLon origin = new LatLon(buffer.getDouble(), buffer.getDouble());
+
+			MapProjection mapProjection = mapProjectionFactory.apply(origin);
+			if (!mapProjection.getClass().getName().equals(projectionClassName)) {
+				throw new IOException("snapshot was created with " + projectionClassName
+						+ ", not " + mapProjection.getClass().getName());
+			}
+
+			AxisAlignedRectangleXZ fileBoundary = null;
+			if (buffer.get() != 0) {
+				fileBoundary = new AxisAlignedRectangleXZ(
+						buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+			}
+
+			/* string table */
+
+			strings = new String[buffer.getInt()];
+			for (int i = 0; i < strings.length; i++) {
+				byte[] bytes = new byte[buffer.getInt()];
+				buffer.get(bytes);
+				strings[i] = new String(bytes, StandardCharsets.UTF_8);
+			}
+
+			/* elements, created in the same order as by OSMToMapDataConverter */
+
+			nodes = new MapNode[buffer.getInt()];
+			for (int i = 0; i < nodes.length; i++) {
+				long id = buffer.getLong();
+				VectorXZ pos = readVector();
+				nodes[i] = new MapNode(id, readTags(), pos);
+			}
+
+			List<MapArea> areas = new ArrayList<>();
+			int areaCount = buffer.getInt();
+			for (int i = 0; i < areaCount; i++) {
+				long id = buffer.getLong();
+				boolean basedOnRelation = buffer.get() != 0;
+				TagSet tags = readTags();
+				List<MapNode> outerNodes = readNodeList();
+				List<List<MapNode>> holes = new ArrayList<>();
+				int holeCount = buffer.getInt();
+				for (int h = 0; h < holeCount; h++) {
+					holes.add(readNodeList());
+				}
+				SimplePolygonXZ outer = new SimplePolygonXZ(readVectorList());
+				List<SimplePolygonXZ> holePolygons = new ArrayList<>();
+				int holePolygonCount = buffer.getInt();
+				for (int h = 0; h < holePolygonCount; h++) {
+					holePolygons.add(new SimplePolygonXZ(readVectorList()));
+				}
+				areas.add(new MapArea(id, basedOnRelation, tags, outerNodes, holes,
+						new PolygonWithHolesXZ(outer, holePolygons)));
+			}
+
+			for (MapNode node : nodes) {
+				node.calculateAdjacentAreaSegments();
+			}
+
+			List<MapWay> ways = new ArrayList<>();
+			int wayCount = buffer.getInt();
+			for (int i = 0; i < wayCount; i++) {
+				long id = buffer.getLong();
+				TagSet tags = readTags();
+				ways.add(new MapWay(id, tags, readNodeList()));
+			}
+
+			List<MapRelation> relations = new ArrayList<>();
+			int relationCount = buffer.getInt();
+			for (int i = 0; i < relationCount; i++) {
+				MapRelation relation = new MapRelation(buffer.getLong(), readTags());
+				int membershipCount = buffer.getInt();
+				for (int m = 0; m < membershipCount; m++) {
+					String role = strings[buffer.getInt()];
+					byte elementType = buffer.get();
+					int index = buffer.getInt();
+					relation.addMembership(role, switch (elementType) {
+						case NODE -> nodes[index];
+						case WAY -> ways.get(index);
+						case AREA -> areas.get(index);
+						default -> throw new IOException("invalid relation member type " + elementType);
+					});
+				}
+				relations.add(relation);
+			}
+
+			MapData mapData = new MapData(List.of(nodes), ways, areas, relations, fileBoundary);
+
+			/* overlaps */
+
+			List<MapWaySegment> segments = new ArrayList<>(mapData.getMapWaySegments());
+
+			MapOverlap<?, ?>[] overlaps = new MapOverlap<?, ?>[buffer.getInt()];
+			for (int i = 0; i < overlaps.length; i++) {
+				byte overlapClass = buffer.get();
+				VectorXZ pos = null;
+				List<VectorXZ> positions = null;
+				int[] areaSegmentIndices = null;
+				if (overlapClass == OVERLAP_WW) {
+					pos = readVector();
+				} else if (overlapClass == OVERLAP_WA) {
+					positions = readVectorList();
+					areaSegmentIndices = new int[buffer.getInt()];
+					for (int s = 0; s < areaSegmentIndices.length; s++) {
+						areaSegmentIndices[s] = buffer.getInt();
+					}
+				}
+				MapOverlapType type = MapOverlapType.values()[buffer.get()];
+				int e1 = buffer.getInt();
+				int e2 = buffer.getInt();
+				overlaps[i] = switch (overlapClass) {
+					case OVERLAP_WW -> new MapIntersectionWW(segments.get(e1), segments.get(e2), pos);
+					case OVERLAP_WA -> {
+						List<MapAreaSegment> areaSegments = new ArrayList<>(areas.get(e2).getAreaSegments());
+						List<MapAreaSegment> intersectingSegments = new ArrayList<>(areaSegmentIndices.length);
+						for (int s : areaSegmentIndices) {
+							intersectingSegments.add(areaSegments.get(s));
+						}
+						yield new MapOverlapWA(segments.get(e1), areas.get(e2), type, positions, intersectingSegments);
+					}
+					case OVERLAP_AA -> new MapOverlapAA(areas.get(e1), areas.get(e2), type);
+					case OVERLAP_NA -> new MapOverlapNA(nodes[e1], areas.get(e2), type);
+					default -> throw new IOException("invalid overlap type " + overlapClass);
+				};
+			}
+
+			for (MapWaySegment segment : segments) {
+				int count = buffer.getInt();
+				for (int i = 0; i < count; i++) {
+					segment.addOverlap(overlaps[buffer.getInt()]);
+				}
+			}
+
+			for (MapArea area : areas) {
+				int count = buffer.getInt();
+				for (int i = 0; i < count; i++) {
+					area.addOverlap(overlaps[buffer.getInt()]);
+				}
+			}
+
+			return new MapDataSnapshot(mapProjection, mapData);
+
+		}
+
+		/** reads a string written by {@link DataOutputStream#writeUTF(String)} */
+		private String readModifiedUTF() throws IOException {
+			byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+			buffer.get(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+
+		private TagSet readTags() {
+			int count = buffer.getInt();
+			if (count == 0) return TagSet.of();
+			String[] keyValuePairs = new String[2 * count];
+			for (int i = 0; i < keyValuePairs.length; i++) {
+				keyValuePairs[i] = strings[buffer.getInt()];
+			}
+			return TagSet.of(tagDictionary, keyValuePairs);
+		}
+
+		private VectorXZ readVector() {
+			return new VectorXZ(buffer.getDouble(), buffer.getDouble());
+		}
+
+		private List<VectorXZ> readVectorList() {
+			int count = buffer.getInt();
+			List<VectorXZ> result = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				result.add(readVector());
+			}
+			return result;
+		}
+
+		private List<MapNode> readNodeList() {
+			int count = buffer.getInt();
+			List<MapNode> result = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				result.add(nodes[buffer.getInt()]);
+			}
+			return result;
+		}
+
+	}
+
+	private static Map<MapAreaSegment, Integer> indexAreaSegments(MapArea area) {
+		Map<MapAreaSegment, Integer> result = new IdentityHashMap<>();
+		for (MapAreaSegment segment : area.getAreaSegments()) {
+			result.put(segment, result.size());
+		}
+		return result;
+	}
+
+}
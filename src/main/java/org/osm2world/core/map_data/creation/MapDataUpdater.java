@@ -0,0 +1,670 @@
+package org.osm2world.core.map_data.creation;
+
+import static de.topobyte.osm4j.core.model.util.OsmModelUtil.*;
+import static java.util.Collections.newSetFromMap;
+import static org.osm2world.core.map_data.creation.EmptyTerrainBuilder.*;
+import static org.osm2world.core.math.AxisAlignedRectangleXZ.bboxUnion;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import org.apache.commons.configuration.Configuration;
+import org.osm2world.core.map_data.creation.OSMToMapDataConverter.IndexedElement;
+import org.osm2world.core.map_data.data.MapArea;
+import org.osm2world.core.map_data.data.MapData;
+import org.osm2world.core.map_data.data.MapElement;
+import org.osm2world.core.map_data.data.MapNode;
+import org.osm2world.core.map_data.data.MapRelation;
+import org.osm2world.core.map_data.data.MapRelation.Element;
+import org.osm2world.core.map_data.data.MapWay;
+import org.osm2world.core.map_data.data.MapWaySegment;
+import org.osm2world.core.map_data.data.overlaps.MapOverlap;
+import org.osm2world.core.math.AxisAlignedRectangleXZ;
+import org.osm2world.core.math.datastructures.STRTree;
+import org.osm2world.core.math.datastructures.SpatialIndex;
+import org.osm2world.core.osm.data.OSMChange;
+import org.osm2world.core.osm.data.OSMData;
+
+import de.topobyte.osm4j.core.model.iface.EntityType;
+import de.topobyte.osm4j.core.model.iface.OsmEntity;
+import de.topobyte.osm4j.core.model.iface.OsmNode;
+import de.topobyte.osm4j.core.model.iface.OsmRelation;
+import de.topobyte.osm4j.core.model.iface.OsmRelationMember;
+import de.topobyte.osm4j.core.model.iface.OsmWay;
+import de.topobyte.osm4j.core.resolve.EntityNotFoundException;
+import gnu.trove.list.TLongList;
+import gnu.trove.list.array.TLongArrayList;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+
+/**
+ * applies an {@link OSMChange} to {@link MapData} which has previously been created from {@link OSMData}.
+ *
+ * Only the elements based on changed OSM entities (including ways using changed nodes
+ * and relations with changed members) are created again. Their overlaps are calculated
+ * with the help of a spatial index containing only the elements near the changes.
+ * Existing elements near the changes are part of the {@link Update#getChangedMapData()} as well
+ * because their representations often depend on their neighbours, e.g. at junctions of roads.
+ * All other elements keep their overlaps and representations.
+ *
+ * Relations affected by a change are found using an index from members to their parent relations.
+ * Looking up the existing elements by id and finding the elements near the changes still requires
+ * a pass over the entire map data, but it is cheap compared to converting those elements again.
+ */
+public class MapDataUpdater {
+
+	private final MapProjection mapProjection;
+	private final Configuration config;
+	private final OSMToMapDataConverter converter;
+
+	public MapDataUpdater(MapProjection mapProjection, Configuration config) {
+		this.mapProjection = mapProjection;
+		this.config = config;
+		this.converter = new OSMToMapDataConverter(mapProjection, config);
+	}
+
+	/**
+	 * updates map data to reflect a change of the OSM data it has been created from.
+	 * The existing elements are modified and re-used for the result.
+	 *
+	 * @param mapData  map data created from osmData using the same projection and configuration as this updater
+	 * @return  the updated data, or null if the change cannot be applied incrementally
+	 *          (e.g. because it affects coastlines). The map data remains unmodified in that case.
+	 */
+	public @Nullable Update update(MapData mapData, OSMData osmData, OSMChange change)
+			throws EntityNotFoundException {
+
+		OSMData newOsmData = osmData.applyChange(change);
+
+		/* look up the existing elements by the id of the OSM entity they are based on */
+
+		TLongObjectMap<MapNode> nodeMap = new TLongObjectHashMap<>();
+		TLongObjectMap<MapWay> wayMap = new TLongObjectHashMap<>();
+		TLongObjectMap<MapArea> wayAreaMap = new TLongObjectHashMap<>();
+		TLongObjectMap<List<MapArea>> relationAreaMap = new TLongObjectHashMap<>();
+		TLongObjectMap<MapRelation> relationMap = new TLongObjectHashMap<>();
+
+		for (MapNode node : mapData.getMapNodes()) {
+			// synthetic nodes (e.g. for empty terrain) can have the same ids as nodes from the OSM data
+			MapNode existingNode = nodeMap.putIfAbsent(node.getId(), node);
+			if (existingNode != null && !isBasedOn(existingNode, osmData) && isBasedOn(node, osmData)) {
+				nodeMap.put(node.getId(), node);
+			}
+		}
+
+		for (MapWay way : mapData.getMapWays()) {
+			wayMap.put(way.getId(), way);
+		}
+
+		for (MapArea area : mapData.getMapAreas()) {
+			if (!area.isBasedOnRelation()) {
+				if (!area.getTags().contains("surface", EMPTY_SURFACE_VALUE)) {
+					wayAreaMap.put(area.getId(), area);
+				}
+			} else if (getOrNull(osmData::getRelation, area.getId()) != null) {
+				if (!relationAreaMap.containsKey(area.getId())) {
+					relationAreaMap.put(area.getId(), new ArrayList<>());
+				}
+				relationAreaMap.get(area.getId()).add(area);
+			}
+		}
+
+		for (MapRelation relation : mapData.getMapRelations()) {
+			relationMap.put(relation.getId(), relation);
+		}
+
+		/* determine which entities need to be converted again */
+
+		TLongSet changedNodeIds = new TLongHashSet();
+		TLongSet changedWayIds = new TLongHashSet();
+		TLongSet changedRelationIds = new TLongHashSet();
+
+		change.getNodes().forEach(n -> changedNodeIds.add(n.getId()));
+		change.getWays().forEach(w -> changedWayIds.add(w.getId()));
+		change.getRelations().forEach(r -> changedRelationIds.add(r.getId()));
+		changedNodeIds.addAll(change.getDeletedNodeIds());
+		changedWayIds.addAll(change.getDeletedWayIds());
+		changedRelationIds.addAll(change.getDeletedRelationIds());
+
+		for (long nodeId : changedNodeIds.toArray()) {
+
+			MapNode oldNode = getOldNode(nodeMap, osmData, nodeId);
+
+			if (oldNode != null) {
+
+				for (MapWaySegment segment : oldNode.getConnectedWaySegments()) {
+					changedWayIds.add(segment.getWay().getId());
+				}
+
+				for (MapArea area : oldNode.getAdjacentAreas()) {
+					if (!area.isBasedOnRelation() && wayAreaMap.get(area.getId()) == area) {
+						changedWayIds.add(area.getId());
+					} else if (area.isBasedOnRelation() && relationAreaMap.containsKey(area.getId())) {
+						changedRelationIds.add(area.getId());
+					} else {
+						return null; // synthetic area such as a coastline polygon
+					}
+				}
+
+			}
+
+		}
+
+		List<OsmRelation> relations = new ArrayList<>(newOsmData.getRelations());
+		for (long relationId : changedRelationIds.toArray()) {
+			OsmRelation oldRelation = getOrNull(osmData::getRelation, relationId);
+			if (oldRelation != null) {
+				relations.add(oldRelation);
+			}
+		}
+
+		/* propagate the changes to the relations containing changed entities */
+
+		TLongObjectMap<List<OsmRelation>> relationsById = new TLongObjectHashMap<>();
+		TLongObjectMap<List<OsmRelation>> nodeParents = new TLongObjectHashMap<>();
+		TLongObjectMap<List<OsmRelation>> wayParents = new TLongObjectHashMap<>();
+		TLongObjectMap<List<OsmRelation>> relationParents = new TLongObjectHashMap<>();
+
+		for (OsmRelation relation : relations) {
+			addToListMap(relationsById, relation.getId(), relation);
+			for (OsmRelationMember member : membersAsList(relation)) {
+				switch (member.getType()) {
+				case Node: addToListMap(nodeParents, member.getId(), relation); break;
+				case Way: addToListMap(wayParents, member.getId(), relation); break;
+				case Relation: addToListMap(relationParents, member.getId(), relation); break;
+				}
+			}
+		}
+
+		TLongList wayQueue = new TLongArrayList(changedWayIds.toArray());
+		TLongList relationQueue = new TLongArrayList(changedRelationIds.toArray());
+
+		for (long nodeId : changedNodeIds.toArray()) {
+			markParentsChanged(nodeParents.get(nodeId), changedRelationIds, relationQueue);
+		}
+
+		while (!wayQueue.isEmpty() || !relationQueue.isEmpty()) {
+
+			if (!wayQueue.isEmpty()) {
+
+				long wayId = wayQueue.removeAt(wayQueue.size() - 1);
+				markParentsChanged(wayParents.get(wayId), changedRelationIds, relationQueue);
+
+			} else {
+
+				long relationId = relationQueue.removeAt(relationQueue.size() - 1);
+				markParentsChanged(relationParents.get(relationId), changedRelationIds, relationQueue);
+
+				// the areas of a multipolygon can be based on the ids of its member ways
+				List<OsmRelation> versions = relationsById.get(relationId);
+				if (versions != null) {
+					for (OsmRelation relation : versions) {
+						if ("multipolygon".equals(getTagsAsMap(relation).get("type"))) {
+							for (OsmRelationMember member : membersAsList(relation)) {
+								if (member.getType() == EntityType.Way && changedWayIds.add(member.getId())) {
+									wayQueue.add(member.getId());
+								}
+							}
+						}
+					}
+				}
+
+			}
+
+		}
+
+		/* check for changes which cannot be handled incrementally */
+
+		for (long wayId : changedWayIds.toArray()) {
+			if (isCoastline(getOrNull(osmData::getWay, wayId))
+					|| isCoastline(getOrNull(newOsmData::getWay, wayId))) {
+				return null;
+			}
+		}
+
+		List<MapNode> removedNodes = new ArrayList<>();
+		List<MapWay> removedWays = new ArrayList<>();
+		List<MapArea> removedAreas = new ArrayList<>();
+		List<MapRelation> removedRelations = new ArrayList<>();
+
+		for (long nodeId : changedNodeIds.toArray()) {
+			MapNode oldNode = getOldNode(nodeMap, osmData, nodeId);
+			if (oldNode != null) {
+				removedNodes.add(oldNode);
+			}
+		}
+
+		for (long wayId : changedWayIds.toArray()) {
+			if (wayMap.containsKey(wayId)) {
+				removedWays.add(wayMap.get(wayId));
+			}
+			if (wayAreaMap.containsKey(wayId)) {
+				removedAreas.add(wayAreaMap.get(wayId));
+			}
+		}
+
+		for (long relationId : changedRelationIds.toArray()) {
+			if (relationAreaMap.containsKey(relationId)) {
+				removedAreas.addAll(relationAreaMap.get(relationId));
+			}
+			if (relationMap.containsKey(relationId)) {
+				removedRelations.add(relationMap.get(relationId));
+			}
+		}
+
+		if (mapData.getFileBoundary() != null && config.getBoolean("createTerrain", true)
+				&& config.getBoolean("adaptiveTerrainPatches", true)
+				&& config.getBoolean("omitCoveredTerrain", false)) {
+			// empty terrain has been omitted below large covering areas.
+			// The adaptive layout of patches alone is not a problem, as the patches still cover everything.
+			double minPatchSize = MIN_PATCH_SIZE_POINTS * POINT_GRID_DIST;
+			for (MapArea area : removedAreas) {
+				AxisAlignedRectangleXZ bbox = area.boundingBox();
+				if (coversTerrain(area.getTags()) && bbox.sizeX() >= minPatchSize && bbox.sizeZ() >= minPatchSize) {
+					return null;
+				}
+			}
+		}
+
+		/* detach the removed elements from the remaining ones */
+
+		Set<MapElement> removedElements = newSetFromMap(new IdentityHashMap<>());
+		removedElements.addAll(removedNodes);
+		removedElements.addAll(removedAreas);
+
+		for (MapWay way : removedWays) {
+			for (MapWaySegment segment : way.getWaySegments()) {
+				segment.getStartNode().removeLine(segment);
+				segment.getEndNode().removeLine(segment);
+				removedElements.add(segment);
+			}
+		}
+
+		for (MapArea area : removedAreas) {
+			for (List<MapNode> ring : area.getRings()) {
+				for (MapNode node : ring) {
+					node.removeAdjacentArea(area);
+				}
+			}
+		}
+
+		removedRelations.forEach(MapRelation::removeFromMembers);
+
+		Set<MapRelation> removedRelationSet = newSetFromMap(new IdentityHashMap<>());
+		removedRelationSet.addAll(removedRelations);
+
+		/* convert the changed entities, using the remaining elements for unchanged ids */
+
+		List<OsmNode> subsetNodes = new ArrayList<>();
+		List<OsmWay> subsetWays = new ArrayList<>();
+		List<OsmRelation> subsetRelations = new ArrayList<>();
+
+		for (long nodeId : changedNodeIds.toArray()) {
+			OsmNode node = getOrNull(newOsmData::getNode, nodeId);
+			if (node != null) {
+				subsetNodes.add(node);
+			}
+		}
+
+		for (long wayId : changedWayIds.toArray()) {
+			OsmWay way = getOrNull(newOsmData::getWay, wayId);
+			if (way != null) {
+				subsetWays.add(way);
+			}
+		}
+
+		for (long relationId : changedRelationIds.toArray()) {
+			OsmRelation relation = getOrNull(newOsmData::getRelation, relationId);
+			if (relation != null) {
+				subsetRelations.add(relation);
+			}
+		}
+
+		TLongObjectMap<MapNode> nodeIdMap = new TLongObjectHashMap<>();
+		TLongObjectMap<Element> existingWayElements = new TLongObjectHashMap<>();
+		TLongObjectMap<List<MapArea>> existingRelationAreas = new TLongObjectHashMap<>();
+
+		nodeMap.forEachEntry((id, node) -> {
+			if (!changedNodeIds.contains(id)) {
+				nodeIdMap.put(id, node);
+			}
+			return true;
+		});
+
+		wayMap.forEachEntry((id, way) -> {
+			if (!changedWayIds.contains(id)) {
+				existingWayElements.put(id, way);
+			}
+			return true;
+		});
+
+		wayAreaMap.forEachEntry((id, area) -> {
+			if (!changedWayIds.contains(id)) {
+				existingWayElements.put(id, area);
+			}
+			return true;
+		});
+
+		relationAreaMap.forEachEntry((id, areas) -> {
+			if (!changedRelationIds.contains(id)) {
+				existingRelationAreas.put(id, areas);
+			}
+			return true;
+		});
+
+		List<MapNode> newNodes = new ArrayList<>();
+		List<MapWay> newWays = new ArrayList<>();
+		List<MapArea> newAreas = new ArrayList<>();
+		List<MapRelation> newRelations = new ArrayList<>();
+
+		converter.createMapElements(newOsmData.subset(subsetNodes, subsetWays, subsetRelations),
+				nodeIdMap, existingWayElements, existingRelationAreas, false,
+				newNodes, newWays, newAreas, newRelations);
+
+		for (MapArea area : newAreas) {
+			for (List<MapNode> ring : area.getRings()) {
+				ring.forEach(MapNode::calculateAdjacentAreaSegments);
+			}
+		}
+
+		/* find the remaining elements near the changes */
+
+		List<AxisAlignedRectangleXZ> changedRegion = new ArrayList<>();
+
+		double padding = config.getDouble("incrementalUpdatePadding", 10);
+
+		removedNodes.forEach(e -> changedRegion.add(e.boundingBox().pad(padding)));
+		removedWays.forEach(e -> changedRegion.add(e.boundingBox().pad(padding)));
+		removedAreas.forEach(e -> changedRegion.add(e.boundingBox().pad(padding)));
+		newNodes.forEach(e -> changedRegion.add(e.boundingBox().pad(padding)));
+		newWays.forEach(e -> changedRegion.add(e.boundingBox().pad(padding)));
+		newAreas.forEach(e -> changedRegion.add(e.boundingBox().pad(padding)));
+
+		SpatialIndex<AxisAlignedRectangleXZ> regionIndex = new STRTree<>(changedRegion);
+		AxisAlignedRectangleXZ regionBounds = changedRegion.isEmpty() ? null : bboxUnion(changedRegion);
+
+		Set<MapNode> changedNodes = new LinkedHashSet<>(newNodes);
+		Set<MapWay> changedWays = new LinkedHashSet<>();
+		Set<MapArea> changedAreas = new LinkedHashSet<>();
+
+		for (MapNode node : mapData.getMapNodes()) {
+			if (!removedElements.contains(node) && isInRegion(node, regionIndex, regionBounds)) {
+				changedNodes.add(node);
+			}
+		}
+
+		for (MapWaySegment segment : mapData.getMapWaySegments()) {
+			if (!removedElements.contains(segment) && isInRegion(segment, regionIndex, regionBounds)) {
+				changedWays.add(segment.getWay());
+			}
+		}
+
+		for (MapArea area : mapData.getMapAreas()) {
+			if (!removedElements.contains(area) && isInRegion(area, regionIndex, regionBounds)) {
+				changedAreas.add(area);
+			}
+		}
+
+		for (MapWay way : changedWays) {
+			changedNodes.addAll(way.getNodes());
+		}
+
+		for (MapWay way : newWays) {
+			changedNodes.addAll(way.getNodes());
+		}
+
+		/* reset the remaining elements which will be part of the changed map data */
+
+		Set<MapElement> newElements = newSetFromMap(new IdentityHashMap<>());
+		newElements.addAll(newNodes);
+		newElements.addAll(newAreas);
+		newWays.forEach(w -> newElements.addAll(w.getWaySegments()));
+
+		List<MapWay> changedWayList = new ArrayList<>(changedWays);
+		changedWayList.addAll(newWays);
+
+		List<MapArea> changedAreaList = new ArrayList<>(changedAreas);
+		changedAreaList.addAll(newAreas);
+
+		MapData changedMapData = new MapData(new ArrayList<>(changedNodes), changedWayList, changedAreaList,
+				newRelations, null);
+
+		for (MapElement element : changedMapData.getMapElements()) {
+			if (!newElements.contains(element)) {
+				element.clearRepresentations();
+				element.getOverlaps().removeIf(o -> removedElements.contains(o.getOther(element)));
+			}
+		}
+
+		/* calculate the overlaps of new elements */
+
+		List<IndexedElement> indexedElements = new ArrayList<>();
+		for (MapElement element : changedMapData.getMapElements()) {
+			indexedElements.add(new IndexedElement(indexedElements.size(), element));
+		}
+
+		if (!indexedElements.isEmpty()) {
+
+			SpatialIndex<IndexedElement> index = OSMToMapDataConverter.createSpatialIndex(
+					indexedElements, bboxUnion(indexedElements));
+
+			List<MapOverlap<?, ?>> overlaps = new ArrayList<>();
+
+			for (IndexedElement e1 : indexedElements) {
+				if (newElements.contains(e1.element)) {
+					for (IndexedElement e2 : index.probe(e1)) {
+						// pairs of new elements are only tested once
+						if (e2 != e1 && (!newElements.contains(e2.element) || e2.index < e1.index)) {
+							MapOverlap<?, ?> overlap = OSMToMapDataConverter.findOverlap(e1.element, e2.element);
+							if (overlap != null) {
+								overlaps.add(overlap);
+							}
+						}
+					}
+				}
+			}
+
+			overlaps.forEach(OSMToMapDataConverter::addOverlapToElements);
+
+		}
+
+		/* collect remaining elements connected to or overlapping the changed map data */
+
+		Set<MapElement> changedElements = newSetFromMap(new IdentityHashMap<>());
+		changedMapData.getMapElements().forEach(changedElements::add);
+
+		Set<MapElement> connectedElements = new LinkedHashSet<>();
+
+		for (MapNode node : changedMapData.getMapNodes()) {
+			for (MapWaySegment segment : node.getConnectedWaySegments()) {
+				if (!changedElements.contains(segment)) {
+					connectedElements.add(segment);
+				}
+			}
+			for (MapArea area : node.getAdjacentAreas()) {
+				if (!changedElements.contains(area)) {
+					connectedElements.add(area);
+				}
+			}
+		}
+
+		for (MapElement element : changedMapData.getMapElements()) {
+			for (MapOverlap<?, ?> overlap : element.getOverlaps()) {
+				MapElement other = overlap.getOther(element);
+				if (!changedElements.contains(other)) {
+					connectedElements.add(other);
+				}
+			}
+		}
+
+		/* assemble the updated map data */
+
+		List<MapNode> nodes = new ArrayList<>(mapData.getMapNodes().size() + newNodes.size());
+		List<MapWay> ways = new ArrayList<>(mapData.getMapWays().size() + newWays.size());
+		List<MapArea> areas = new ArrayList<>(mapData.getMapAreas().size() + newAreas.size());
+		List<MapRelation> mapRelations = new ArrayList<>(mapData.getMapRelations().size() + newRelations.size());
+
+		for (MapNode node : mapData.getMapNodes()) {
+			if (!removedElements.contains(node)) {
+				nodes.add(node);
+			}
+		}
+
+		Set<MapWay> removedWaySet = newSetFromMap(new IdentityHashMap<>());
+		removedWaySet.addAll(removedWays);
+
+		for (MapWay way : mapData.getMapWays()) {
+			if (!removedWaySet.contains(way)) {
+				ways.add(way);
+			}
+		}
+
+		for (MapArea area : mapData.getMapAreas()) {
+			if (!removedElements.contains(area)) {
+				areas.add(area);
+			}
+		}
+
+		for (MapRelation relation : mapData.getMapRelations()) {
+			if (!removedRelationSet.contains(relation)) {
+				mapRelations.add(relation);
+			}
+		}
+
+		nodes.addAll(newNodes);
+		ways.addAll(newWays);
+		areas.addAll(newAreas);
+		mapRelations.addAll(newRelations);
+
+		MapData updatedMapData = new MapData(nodes, ways, areas, mapRelations, mapData.getFileBoundary());
+
+		return new Update(newOsmData, updatedMapData, changedMapData, new ArrayList<>(connectedElements));
+
+	}
+
+	/** returns the existing node for an id if it is based on the node with that id in the OSM data */
+	private @Nullable MapNode getOldNode(TLongObjectMap<MapNode> nodeMap, OSMData osmData, long id) {
+		MapNode node = nodeMap.get(id);
+		return node != null && isBasedOn(node, osmData) ? node : null;
+	}
+
+	private boolean isBasedOn(MapNode node, OSMData osmData) {
+		OsmNode osmNode = getOrNull(osmData::getNode, node.getId());
+		return osmNode != null
+				&& node.getPos().equals(mapProjection.toXZ(osmNode.getLatitude(), osmNode.getLongitude()));
+	}
+
+	private static void addToListMap(TLongObjectMap<List<OsmRelation>> map, long id, OsmRelation relation) {
+		List<OsmRelation> list = map.get(id);
+		if (list == null) {
+			list = new ArrayList<>(1);
+			map.put(id, list);
+		}
+		list.add(relation);
+	}
+
+	/** adds the ids of parent relations which have not been marked as changed yet to the set and the queue */
+	private static void markParentsChanged(@Nullable List<OsmRelation> parents,
+			TLongSet changedRelationIds, TLongList relationQueue) {
+		if (parents != null) {
+			for (OsmRelation parent : parents) {
+				if (changedRelationIds.add(parent.getId())) {
+					relationQueue.add(parent.getId());
+				}
+			}
+		}
+	}
+
+	private static boolean isCoastline(@Nullable OsmWay way) {
+		return way != null && "coastline".equals(getTagsAsMap(way).get("natural"));
+	}
+
+	private static boolean isInRegion(MapElement element, SpatialIndex<AxisAlignedRectangleXZ> regionIndex,
+			@Nullable AxisAlignedRectangleXZ regionBounds) {
+
+		if (regionBounds == null) return false;
+
+		AxisAlignedRectangleXZ bbox = element.boundingBox();
+
+		if (!regionBounds.overlaps(bbox)) return false;
+
+		for (AxisAlignedRectangleXZ box : regionIndex.probe(bbox)) {
+			if (box.overlaps(bbox)) {
+				return true;
+			}
+		}
+
+		return false;
+
+	}
+
+	private static @Nullable <T extends OsmEntity> T getOrNull(EntityLookup<T> lookup, long id) {
+		try {
+			return lookup.get(id);
+		} catch (EntityNotFoundException e) {
+			return null;
+		}
+	}
+
+	@FunctionalInterface
+	private static interface EntityLookup<T> {
+		T get(long id) throws EntityNotFoundException;
+	}
+
+	/**
+	 * the result of {@link MapDataUpdater#update(MapData, OSMData, OSMChange)}
+	 */
+	public static final class Update {
+
+		private final OSMData osmData;
+		private final MapData mapData;
+		private final MapData changedMapData;
+		private final List<MapElement> connectedElements;
+
+		private Update(OSMData osmData, MapData mapData, MapData changedMapData,
+				List<MapElement> connectedElements) {
+			this.osmData = osmData;
+			this.mapData = mapData;
+			this.changedMapData = changedMapData;
+			this.connectedElements = connectedElements;
+		}
+
+		/** returns the OSM data with the change applied */
+		public OSMData getOSMData() {
+			return osmData;
+		}
+
+		/** returns all map data after the update, including unchanged elements */
+		public MapData getMapData() {
+			return mapData;
+		}
+
+		/**
+		 * returns the new elements and those existing elements which are close to the changes.
+		 * None of these elements have representations, so modules need to be applied to this map data.
+		 * It doesn't have a boundary and only contains new relations.
+		 */
+		public MapData getChangedMapData() {
+			return changedMapData;
+		}
+
+		/**
+		 * returns elements outside the {@link #getChangedMapData()} which are connected to or overlap elements
+		 * within it. Their representations have been kept, but may need to be connected to the new
+		 * representations again, and their elevation constraints interact with those of the new representations.
+		 */
+		public Collection<MapElement> getConnectedElements() {
+			return connectedElements;
+		}
+
+	}
+
+}
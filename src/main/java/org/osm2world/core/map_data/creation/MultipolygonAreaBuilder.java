@@ -12,11 +12,19 @@ import static org.osm2world.core.math.GeometryUtil.*;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
 
 import org.osm2world.core.map_data.data.MapArea;
 import org.osm2world.core.map_data.data.MapAreaSegment;
 import org.osm2world.core.map_data.data.MapNode;
+import org.osm2world.core.map_data.data.TagDictionary;
 import org.osm2world.core.map_data.data.TagSet;
 import org.osm2world.core.math.AxisAlignedRectangleXZ;
 import org.osm2world.core.math.BoundedObject;
@@ -25,6 +33,7 @@ import org.osm2world.core.math.LineSegmentXZ;
 import org.osm2world.core.math.PolygonWithHolesXZ;
 import org.osm2world.core.math.SimplePolygonXZ;
 import org.osm2world.core.math.VectorXZ;
+import org.osm2world.core.math.datastructures.STRTree;
 import org.osm2world.core.osm.data.OSMData;
 import org.osm2world.core.osm.ruleset.HardcodedRuleset;
 import org.osm2world.core.osm.ruleset.Ruleset;
@@ -65,22 +74,76 @@ final class MultipolygonAreaBuilder {
 	 *
 	 * @param relation  the multipolygon relation
 	 * @param nodeIdMap   map from node ids to {@link MapNode}s
+	 * @param tagDictionary  dictionary for the areas' tags
 	 *
 	 * @return  constructed area(s), multiple areas will be created if there
 	 *          is more than one outer ring. Empty for invalid multipolygons.
 	 * @throws EntityNotFoundException
 	 */
 	public static final Collection<MapArea> createAreasForMultipolygon(OsmRelation relation,
-			TLongObjectMap<MapNode> nodeIdMap, OsmEntityProvider db) throws EntityNotFoundException {
+			TLongObjectMap<MapNode> nodeIdMap, OsmEntityProvider db, TagDictionary tagDictionary)
+			throws EntityNotFoundException {
+		return createAreas(defineAreasForMultipolygon(relation, nodeIdMap, db, tagDictionary));
+	}
+
+	/**
+	 * variant of {@link #createAreasForMultipolygon(OsmRelation, TLongObjectMap, OsmEntityProvider, TagDictionary)}
+	 * which only determines the areas' geometry, without creating them.
+	 * Because this does not modify any {@link MapNode}s, it can be called for several relations in parallel.
+	 */
+	public static final List<AreaDefinition> defineAreasForMultipolygon(OsmRelation relation,
+			TLongObjectMap<MapNode> nodeIdMap, OsmEntityProvider db, TagDictionary tagDictionary)
+			throws EntityNotFoundException {
 
 		if (isSimpleMultipolygon(relation, db)) {
-			return createAreasForSimpleMultipolygon(relation, nodeIdMap, db);
+			return createAreasForSimpleMultipolygon(relation, nodeIdMap, db, tagDictionary);
 		} else {
-			return createAreasForAdvancedMultipolygon(relation, nodeIdMap, db);
+			return createAreasForAdvancedMultipolygon(relation, nodeIdMap, db, tagDictionary);
+		}
+
+	}
+
+	/**
+	 * the data needed to create a {@link MapArea}.
+	 * Creating the area adds it to its nodes, so {@link #createArea()} must not be called from multiple threads.
+	 */
+	public static final class AreaDefinition {
+
+		private final long id;
+		private final boolean basedOnRelation;
+		private final TagSet tags;
+		private final List<MapNode> nodes;
+		private final List<List<MapNode>> holes;
+		private final @Nullable PolygonWithHolesXZ polygon;
+
+		private AreaDefinition(long id, boolean basedOnRelation, TagSet tags, List<MapNode> nodes,
+				List<List<MapNode>> holes, @Nullable PolygonWithHolesXZ polygon) {
+			this.id = id;
+			this.basedOnRelation = basedOnRelation;
+			this.tags = tags;
+			this.nodes = nodes;
+			this.holes = holes;
+			this.polygon = polygon;
+		}
+
+		public MapArea createArea() {
+			if (polygon == null) {
+				return new MapArea(id, basedOnRelation, tags, nodes, holes);
+			} else {
+				return new MapArea(id, basedOnRelation, tags, nodes, holes, polygon);
+			}
 		}
 
 	}
 
+	private static final List<MapArea> createAreas(List<AreaDefinition> definitions) {
+		List<MapArea> result = new ArrayList<>(definitions.size());
+		for (AreaDefinition definition : definitions) {
+			result.add(definition.createArea());
+		}
+		return result;
+	}
+
 	private static final boolean isSimpleMultipolygon(OsmRelation relation, OsmEntityProvider db) throws EntityNotFoundException {
 
 		int numberOuters = 0;
@@ -113,13 +176,14 @@ final class MultipolygonAreaBuilder {
 	/**
 	 * handles the common simple case with only one outer way.
 	 * Expected to be faster than the more general method
-	 * {@link #createAreasForAdvancedMultipolygon(OsmRelation, TLongObjectMap, OsmEntityProvider)}
+	 * {@link #createAreasForAdvancedMultipolygon(OsmRelation, TLongObjectMap, OsmEntityProvider, TagDictionary)}
 	 *
 	 * @param relation  has to be a simple multipolygon relation
 	 * @throws EntityNotFoundException
 	 */
-	private static final Collection<MapArea> createAreasForSimpleMultipolygon(OsmRelation relation,
-			TLongObjectMap<MapNode> nodeIdMap, OsmEntityProvider db) throws EntityNotFoundException {
+	private static final List<AreaDefinition> createAreasForSimpleMultipolygon(OsmRelation relation,
+			TLongObjectMap<MapNode> nodeIdMap, OsmEntityProvider db, TagDictionary tagDictionary)
+			throws EntityNotFoundException {
 
 		assert isSimpleMultipolygon(relation, db);
 
@@ -156,13 +220,14 @@ final class MultipolygonAreaBuilder {
 			}
 		}
 
-		return singleton(new MapArea(tagSource.getId(), tagSource instanceof OsmRelation,
-				OSMToMapDataConverter.tagsOfEntity(tagSource), outerNodes, holes));
+		return singletonList(new AreaDefinition(tagSource.getId(), tagSource instanceof OsmRelation,
+				OSMToMapDataConverter.tagsOfEntity(tagSource, tagDictionary), outerNodes, holes, null));
 
 	}
 
-	private static final Collection<MapArea> createAreasForAdvancedMultipolygon(OsmRelation relation,
-			TLongObjectMap<MapNode> nodeIdMap, OsmEntityProvider db) throws EntityNotFoundException {
+	private static final List<AreaDefinition> createAreasForAdvancedMultipolygon(OsmRelation relation,
+			TLongObjectMap<MapNode> nodeIdMap, OsmEntityProvider db, TagDictionary tagDictionary)
+			throws EntityNotFoundException {
 
 		List<NodeSequence> innersAndOuters = new ArrayList<NodeSequence>();
 
@@ -185,7 +250,7 @@ final class MultipolygonAreaBuilder {
 
 		if (rings != null) {
 
-			return buildPolygonsFromRings(relation, rings);
+			return buildPolygonsFromRings(relation, rings, tagDictionary);
 
 		} else {
 
@@ -196,7 +261,9 @@ final class MultipolygonAreaBuilder {
 	}
 
 	/**
-	 * builds closed rings from any mixture of closed and unclosed segments
+	 * builds closed rings from any mixture of closed and unclosed segments.
+	 * Unclosed sequences are joined with other sequences sharing an end node,
+	 * which are looked up using a map from end nodes to sequences.
 	 *
 	 * @return  null if building closed rings isn't possible
 	 */
@@ -205,140 +272,149 @@ final class MultipolygonAreaBuilder {
 
 		List<Ring> closedRings = new ArrayList<Ring>();
 
-		NodeSequence currentRing = null;
+		Map<MapNode, List<NodeSequence>> sequencesByEndNode = new HashMap<>();
 
-		while (sequences.size() > 0) {
+		for (NodeSequence sequence : sequences) {
+			if (!sequence.isClosed()) {
+				sequencesByEndNode.computeIfAbsent(sequence.getFirstNode(), n -> new ArrayList<>(2)).add(sequence);
+				sequencesByEndNode.computeIfAbsent(sequence.getLastNode(), n -> new ArrayList<>(2)).add(sequence);
+			}
+		}
 
-			if (currentRing == null) {
+		Set<NodeSequence> usedSequences = newSetFromMap(new IdentityHashMap<>());
 
-				// start a new ring with any remaining node sequence
+		for (int i = sequences.size() - 1; i >= 0; i--) {
 
-				currentRing = sequences.remove(sequences.size() - 1);
+			// start a new ring with any remaining node sequence
 
-			} else {
+			NodeSequence currentRing = sequences.get(i);
 
-				// try to continue the ring by appending a node sequence
+			if (!usedSequences.add(currentRing)) continue;
 
-				NodeSequence assignedSequence = null;
+			// continue the ring by appending node sequences until it is closed
 
-				for (NodeSequence sequence : sequences) {
+			while (!currentRing.isClosed()) {
 
-					if (currentRing.tryAdd(sequence)) {
-						assignedSequence = sequence;
-						break;
-					}
+				NodeSequence assignedSequence = findUnusedSequence(
+						sequencesByEndNode.get(currentRing.getLastNode()), usedSequences);
 
+				if (assignedSequence == null) {
+					assignedSequence = findUnusedSequence(
+							sequencesByEndNode.get(currentRing.getFirstNode()), usedSequences);
 				}
 
-				if (assignedSequence != null) {
-					sequences.remove(assignedSequence);
-				} else {
+				if (assignedSequence == null) {
 					return null;
 				}
 
-			}
-
-			// check whether the ring under construction is closed
+				usedSequences.add(assignedSequence);
+				boolean added = currentRing.tryAdd(assignedSequence);
+				assert added;
 
-			if (currentRing != null && currentRing.isClosed()) {
-				try {
-					closedRings.add(new Ring(currentRing));
-					currentRing = null;
-				} catch (InvalidGeometryException e) {
-					throw new InvalidGeometryException(String.format(
-							"self-intersecting ring (with %d nodes)",
-							currentRing.size() - 1), e);
-				}
 			}
 
-		}
+			try {
+				closedRings.add(new Ring(currentRing));
+			} catch (InvalidGeometryException e) {
+				throw new InvalidGeometryException(String.format(
+						"self-intersecting ring (with %d nodes)",
+						currentRing.size() - 1), e);
+			}
 
-		if (currentRing != null) {
-			// the last ring could not be closed
-			return null;
 		}
 
 		return closedRings;
 
 	}
 
+	private static final @Nullable NodeSequence findUnusedSequence(@Nullable List<NodeSequence> candidates,
+			Set<NodeSequence> usedSequences) {
+		if (candidates != null) {
+			for (NodeSequence candidate : candidates) {
+				if (!usedSequences.contains(candidate)) {
+					return candidate;
+				}
+			}
+		}
+		return null;
+	}
+
 	/**
-	 * @param rings  rings to build polygons from; will be empty afterwards
+	 * groups rings into polygons. Rings which are contained in an even number of other rings are outer rings,
+	 * the others become holes of the innermost outer ring containing them.
+	 * Candidates for containing a ring are found using an {@link STRTree} of the rings' bounding boxes.
+	 *
+	 * @param rings  rings to build polygons from
+	 * @param tagDictionary  dictionary for the areas' tags
 	 */
-	private static final Collection<MapArea> buildPolygonsFromRings(
-			OsmRelation relation, List<Ring> rings) {
+	private static final List<AreaDefinition> buildPolygonsFromRings(
+			OsmRelation relation, List<Ring> rings, TagDictionary tagDictionary) {
 
-		Collection<MapArea> finishedPolygons =
-				new ArrayList<MapArea>(rings.size() / 2);
+		/* find the rings containing each ring */
 
-		/* build polygon */
+		STRTree<Ring> ringIndex = new STRTree<>(rings);
 
-		while (!rings.isEmpty()) {
+		int[] depths = new int[rings.size()];
+		Ring[] parents = new Ring[rings.size()];
 
-			/* find an outer ring */
+		Map<Ring, Integer> ringIndices = new IdentityHashMap<>();
+		for (int i = 0; i < rings.size(); i++) {
+			ringIndices.put(rings.get(i), i);
+		}
 
-			Ring outerRing = null;
+		List<List<Ring>> containingRings = new ArrayList<>(rings.size());
 
-			for (Ring candidate : rings) {
+		for (int i = 0; i < rings.size(); i++) {
+			Ring ring = rings.get(i);
+			List<Ring> containers = new ArrayList<>();
+			for (Ring candidate : ringIndex.probe(ring)) {
+				if (candidate != ring && candidate.containsRing(ring)) {
+					containers.add(candidate);
+				}
+			}
+			containingRings.add(containers);
+			depths[i] = containers.size();
+		}
 
-				boolean containedInOtherRings = false;
+		/* the parent of each inner ring is the container which is nested one level less deep */
 
-				for (Ring otherRing : rings) {
-					if (otherRing != candidate
-							&& otherRing.containsRing(candidate)) {
-						containedInOtherRings = true;
+		for (int i = 0; i < rings.size(); i++) {
+			if (depths[i] % 2 == 1) {
+				for (Ring container : containingRings.get(i)) {
+					if (depths[ringIndices.get(container)] == depths[i] - 1) {
+						parents[i] = container;
 						break;
 					}
 				}
-
-				if (!containedInOtherRings) {
-					outerRing = candidate;
-					break;
+				if (parents[i] == null) {
+					throw new InvalidGeometryException("invalid nesting of multipolygon rings");
 				}
-
 			}
+		}
 
-			/* find inner rings of that ring */
+		/* create one area for each outer ring */
 
-			Collection<Ring> innerRings = new ArrayList<Ring>();
+		List<AreaDefinition> finishedPolygons = new ArrayList<>(rings.size() / 2);
 
-			for (Ring ring : rings) {
-				if (ring != outerRing && outerRing.containsRing(ring)) {
+		for (int i = 0; i < rings.size(); i++) {
 
-					boolean containedInOtherRings = false;
+			if (depths[i] % 2 != 0) continue;
 
-					for (Ring otherRing : rings) {
-						if (otherRing != ring && otherRing != outerRing
-								&& otherRing.containsRing(ring)) {
-							containedInOtherRings = true;
-							break;
-						}
-					}
+			Ring outerRing = rings.get(i);
 
-					if (!containedInOtherRings) {
-						innerRings.add(ring);
-					}
+			List<List<MapNode>> holes = new ArrayList<List<MapNode>>();
+			List<SimplePolygonXZ> holesXZ = new ArrayList<SimplePolygonXZ>();
 
+			for (int j = 0; j < rings.size(); j++) {
+				if (parents[j] == outerRing) {
+					holes.add(rings.get(j).closedNodeSequence);
+					holesXZ.add(rings.get(j).getPolygon());
 				}
 			}
 
-			/* create a new area and remove the used rings */
-
-			List<List<MapNode>> holes = new ArrayList<List<MapNode>>(innerRings.size());
-			List<SimplePolygonXZ> holesXZ = new ArrayList<SimplePolygonXZ>(innerRings.size());
-
-			for (Ring innerRing : innerRings) {
-				holes.add(innerRing.closedNodeSequence);
-				holesXZ.add(innerRing.getPolygon());
-			}
-
-			MapArea area = new MapArea(relation.getId(), true, OSMToMapDataConverter.tagsOfEntity(relation),
-					outerRing.getNodeLoop(), holes, new PolygonWithHolesXZ(outerRing.getPolygon(), holesXZ));
-
-			finishedPolygons.add(area);
-
-			rings.remove(outerRing);
-			rings.removeAll(innerRings);
+			finishedPolygons.add(new AreaDefinition(relation.getId(), true,
+					OSMToMapDataConverter.tagsOfEntity(relation, tagDictionary), outerRing.getNodeLoop(), holes,
+					new PolygonWithHolesXZ(outerRing.getPolygon(), holesXZ)));
 
 		}
 
@@ -365,7 +441,8 @@ final class MultipolygonAreaBuilder {
 	 */
 	public static final Collection<MapArea> createAreasForCoastlines(
 			OSMData osmData, TLongObjectMap<MapNode> nodeIdMap,
-			Collection<MapNode> mapNodes, AxisAlignedRectangleXZ fileBoundary) throws EntityNotFoundException {
+			Collection<MapNode> mapNodes, AxisAlignedRectangleXZ fileBoundary, TagDictionary tagDictionary)
+			throws EntityNotFoundException {
 
 		long highestRelationId = 0;
 		long highestNodeId = 0;
@@ -616,7 +693,7 @@ final class MultipolygonAreaBuilder {
 				List<? extends OsmRelationMember> members = new ArrayList<>();
 				OsmRelation relation = new Relation(highestRelationId + 1, members, tags);
 
-				return buildPolygonsFromRings(relation, closedRings);
+				return createAreas(buildPolygonsFromRings(relation, closedRings, tagDictionary));
 
 			}
 
@@ -762,6 +839,10 @@ final class MultipolygonAreaBuilder {
 
 		private final NodeSequence closedNodeSequence;
 		private final SimplePolygonXZ polygon;
+		private final AxisAlignedRectangleXZ boundingBox;
+
+		/** the polygon's vertices, only calculated when needed by {@link #containsRing(Ring)} */
+		private Set<VectorXZ> vertexSet = null;
 
 		public Ring(NodeSequence closedNodeSequence) {
 
@@ -771,11 +852,6 @@ final class MultipolygonAreaBuilder {
 
 			polygon = MapArea.polygonFromMapNodeLoop(closedNodeSequence);
 
-		}
-
-		@Override
-		public AxisAlignedRectangleXZ boundingBox() {
-
 			double minX = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
 			double maxX = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
 
@@ -784,10 +860,15 @@ final class MultipolygonAreaBuilder {
 				maxX = max(maxX, n.getPos().x); maxZ = max(maxZ, n.getPos().z);
 			}
 
-			return new AxisAlignedRectangleXZ(minX, minZ, maxX, maxZ);
+			boundingBox = new AxisAlignedRectangleXZ(minX, minZ, maxX, maxZ);
 
 		}
 
+		@Override
+		public AxisAlignedRectangleXZ boundingBox() {
+			return boundingBox;
+		}
+
 		private List<MapNode> getNodeLoop() {
 			return closedNodeSequence;
 		}
@@ -796,8 +877,55 @@ final class MultipolygonAreaBuilder {
 			return polygon;
 		}
 
+		/**
+		 * checks whether this ring contains another ring.
+		 * Rings of a valid multipolygon may touch, but not cross each other. So if the first vertex of
+		 * the other ring which is not also a vertex of this ring is outside, the other ring isn't contained.
+		 * Only if it is inside, the edges are checked for crossings. If there are any (for invalid input data),
+		 * all vertices which aren't shared must be inside this ring.
+		 */
 		public boolean containsRing(Ring other) {
-			return this.getPolygon().contains(other.getPolygon());
+
+			if (!boundingBox.contains(other.boundingBox)) {
+				return false;
+			}
+
+			if (vertexSet == null) {
+				vertexSet = new HashSet<>(polygon.getVertexCollection());
+			}
+
+			List<VectorXZ> otherVertices = other.getPolygon().vertices();
+
+			int firstUnsharedIndex = -1;
+
+			for (int i = 0; i < otherVertices.size(); i++) {
+				if (!vertexSet.contains(otherVertices.get(i))) {
+					firstUnsharedIndex = i;
+					break;
+				}
+			}
+
+			if (firstUnsharedIndex < 0) {
+				return true;
+			} else if (!polygon.contains(otherVertices.get(firstUnsharedIndex))) {
+				return false;
+			}
+
+			for (int i = 0; i + 1 < otherVertices.size(); i++) {
+				if (polygon.intersects(otherVertices.get(i), otherVertices.get(i + 1))) {
+					// the rings cross, so one vertex isn't enough to decide
+					for (int j = firstUnsharedIndex + 1; j < otherVertices.size(); j++) {
+						VectorXZ v = otherVertices.get(j);
+						if (!vertexSet.contains(v) && !polygon.contains(v)) {
+							return false;
+						}
+					}
+					return true;
+				}
+			}
+
+			return true;
+
 		}
 
 	}
@@ -1,11 +1,13 @@
 package org.osm2world.core.map_data.creation;
 
 import static de.topobyte.osm4j.core.model.util.OsmModelUtil.*;
+import static java.lang.Math.*;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
+import static java.util.Comparator.comparingInt;
 import static org.osm2world.core.math.AxisAlignedRectangleXZ.bbox;
 import static org.osm2world.core.math.VectorXZ.distance;
-import static org.osm2world.core.util.FaultTolerantIterationUtil.forEach;
+import static org.osm2world.core.util.FaultTolerantIterationUtil.DEFAULT_EXCEPTION_HANDLER;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -15,10 +17,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.StringJoiner;
+import java.util.stream.IntStream;
 
 import javax.annotation.Nullable;
 
 import org.apache.commons.configuration.Configuration;
+import org.osm2world.core.map_data.creation.MultipolygonAreaBuilder.AreaDefinition;
 import org.osm2world.core.map_data.data.MapArea;
 import org.osm2world.core.map_data.data.MapAreaSegment;
 import org.osm2world.core.map_data.data.MapData;
@@ -28,19 +32,23 @@ import org.osm2world.core.map_data.data.MapRelation;
 import org.osm2world.core.map_data.data.MapRelation.Element;
 import org.osm2world.core.map_data.data.MapWay;
 import org.osm2world.core.map_data.data.MapWaySegment;
+import org.osm2world.core.map_data.data.TagDictionary;
 import org.osm2world.core.map_data.data.TagSet;
 import org.osm2world.core.map_data.data.overlaps.MapIntersectionWW;
+import org.osm2world.core.map_data.data.overlaps.MapOverlap;
 import org.osm2world.core.map_data.data.overlaps.MapOverlapAA;
 import org.osm2world.core.map_data.data.overlaps.MapOverlapNA;
 import org.osm2world.core.map_data.data.overlaps.MapOverlapType;
 import org.osm2world.core.map_data.data.overlaps.MapOverlapWA;
 import org.osm2world.core.math.AxisAlignedRectangleXZ;
+import org.osm2world.core.math.BoundedObject;
 import org.osm2world.core.math.GeometryUtil;
 import org.osm2world.core.math.InvalidGeometryException;
 import org.osm2world.core.math.LineSegmentXZ;
 import org.osm2world.core.math.PolygonWithHolesXZ;
 import org.osm2world.core.math.VectorXZ;
 import org.osm2world.core.math.datastructures.IndexGrid;
+import org.osm2world.core.math.datastructures.STRTree;
 import org.osm2world.core.math.datastructures.SpatialIndex;
 import org.osm2world.core.osm.data.OSMData;
 import org.osm2world.core.osm.ruleset.HardcodedRuleset;
@@ -66,6 +74,9 @@ public class OSMToMapDataConverter {
 	private final MapProjection mapProjection;
 	private final Configuration config;
 
+	/** shared by the tags of all elements created by this converter */
+	private final TagDictionary tagDictionary = new TagDictionary();
+
 	private static final Tag MULTIPOLYON_TAG = new Tag("type", "multipolygon");
 
 
@@ -86,7 +97,7 @@ public class OSMToMapDataConverter {
 		MapData mapData = new MapData(mapNodes, mapWays, mapAreas, mapRelations,
 				calculateFileBoundary(osmData.getUnionOfExplicitBounds()));
 
-		calculateIntersectionsInMapData(mapData);
+		calculateIntersectionsInMapData(mapData, config.getBoolean("parallelOverlaps", true));
 
 		return mapData;
 
@@ -102,14 +113,32 @@ public class OSMToMapDataConverter {
 	private void createMapElements(final OSMData osmData,
 			final List<MapNode> mapNodes, final List<MapWay> mapWays,
 			final List<MapArea> mapAreas, List<MapRelation> mapRelations) throws EntityNotFoundException {
+		createMapElements(osmData, new TLongObjectHashMap<>(), new TLongObjectHashMap<>(), new TLongObjectHashMap<>(),
+				true, mapNodes, mapWays, mapAreas, mapRelations);
+	}
 
-		/* create MapNode for each OSM node */
+	/**
+	 * variant of {@link #createMapElements(OSMData, List, List, List, List)} which converts
+	 * part of a dataset and connects the results with existing elements. Used by {@link MapDataUpdater}.
+	 *
+	 * @param nodeIdMap  existing nodes by id, which are used instead of creating new nodes for these ids.
+	 *                   Newly created nodes are added to the map, but only those are added to mapNodes.
+	 * @param existingWayElements  existing ways and areas based on ways, which can be members of new relations
+	 * @param existingRelationAreas  existing areas based on relations, which can be members of new relations.
+	 *                               A multipolygon relation can be the basis for several areas.
+	 * @param createSyntheticAreas  whether areas should be created for coastlines and empty terrain
+	 */
+	void createMapElements(final OSMData osmData, final TLongObjectMap<MapNode> nodeIdMap,
+			TLongObjectMap<Element> existingWayElements, TLongObjectMap<List<MapArea>> existingRelationAreas,
+			boolean createSyntheticAreas, final List<MapNode> mapNodes, final List<MapWay> mapWays,
+			final List<MapArea> mapAreas, List<MapRelation> mapRelations) throws EntityNotFoundException {
 
-		final TLongObjectMap<MapNode> nodeIdMap = new TLongObjectHashMap<MapNode>();
+		/* create MapNode for each OSM node */
 
 		for (OsmNode node : osmData.getNodes()) {
+			if (nodeIdMap.containsKey(node.getId())) continue;
 			VectorXZ nodePos = mapProjection.toXZ(node.getLatitude(), node.getLongitude());
-			MapNode mapNode = new MapNode(node.getId(), tagsOfEntity(node), nodePos);
+			MapNode mapNode = new MapNode(node.getId(), tagsOfEntity(node, tagDictionary), nodePos);
 			mapNodes.add(mapNode);
 			nodeIdMap.put(node.getId(), mapNode);
 		}
@@ -120,45 +149,80 @@ public class OSMToMapDataConverter {
 
 		/* ... based on multipolygons */
 
-		forEach(osmData.getRelations(), (OsmRelation relation ) -> {
+		List<OsmRelation> multipolygons = new ArrayList<>();
 
-			Map<String, String> tags = getTagsAsMap(relation);
-
-			String value = tags.get(MULTIPOLYON_TAG.getKey());
-			if (!MULTIPOLYON_TAG.getValue().equals(value)) {
-				return;
+		for (OsmRelation relation : osmData.getRelations()) {
+			String value = getTagsAsMap(relation).get(MULTIPOLYON_TAG.getKey());
+			if (MULTIPOLYON_TAG.getValue().equals(value)) {
+				multipolygons.add(relation);
 			}
+		}
+
+		// the geometry of independent relations can be calculated in parallel ...
+
+		@SuppressWarnings("unchecked")
+		List<AreaDefinition>[] areaDefinitions = new List[multipolygons.size()];
+		Throwable[] exceptions = new Throwable[multipolygons.size()];
+
+		IntStream indices = IntStream.range(0, multipolygons.size());
+		if (config.getBoolean("parallelMultipolygons", true)) {
+			indices = indices.parallel();
+		}
 
+		indices.forEach(i -> {
 			try {
+				areaDefinitions[i] = MultipolygonAreaBuilder.defineAreasForMultipolygon(
+						multipolygons.get(i), nodeIdMap, osmData, tagDictionary);
+			} catch (EntityNotFoundException e) {
+				// TODO: what to do here?
+			} catch (Exception | AssertionError e) {
+				exceptions[i] = e;
+			}
+		});
+
+		// ... but creating the areas modifies the nodes, so it happens on a single thread
+
+		for (int i = 0; i < multipolygons.size(); i++) {
 
-				for (MapArea area : MultipolygonAreaBuilder
-						.createAreasForMultipolygon(relation, nodeIdMap, osmData)) {
+			if (exceptions[i] != null) {
+				DEFAULT_EXCEPTION_HANDLER.accept(exceptions[i], multipolygons.get(i));
+			} else if (areaDefinitions[i] != null) {
 
-					mapAreas.add(area);
+				try {
+
+					for (AreaDefinition areaDefinition : areaDefinitions[i]) {
+
+						MapArea area = areaDefinition.createArea();
+
+						mapAreas.add(area);
+
+						if (!area.isBasedOnRelation()) {
+							areaMap.put(area.getId(), area);
+						}
 
-					if (!area.isBasedOnRelation()) {
-						areaMap.put(area.getId(), area);
 					}
 
+				} catch (Exception | AssertionError e) {
+					DEFAULT_EXCEPTION_HANDLER.accept(e, multipolygons.get(i));
 				}
 
-			} catch (EntityNotFoundException e) {
-				// TODO: what to do here?
 			}
 
-		});
+		}
 
 		/* ... based on coastline ways */
 
-		mapAreas.addAll(MultipolygonAreaBuilder.createAreasForCoastlines(
-				osmData, nodeIdMap, mapNodes,
-				calculateFileBoundary(osmData.getUnionOfExplicitBounds())));
+		if (createSyntheticAreas) {
+			mapAreas.addAll(MultipolygonAreaBuilder.createAreasForCoastlines(
+					osmData, nodeIdMap, mapNodes,
+					calculateFileBoundary(osmData.getUnionOfExplicitBounds()), tagDictionary));
+		}
 
 		/* ... based on closed ways with certain tags */
 
 		for (OsmWay way : osmData.getWays()) {
 			if (isClosed(way) && !areaMap.containsKey(way.getId())) {
-				TagSet tags = tagsOfEntity(way);
+				TagSet tags = tagsOfEntity(way, tagDictionary);
 				if (!tags.contains("area", "no")
 						&& tags.stream().anyMatch(ruleset::isAreaTag)) {
 
@@ -186,11 +250,12 @@ public class OSMToMapDataConverter {
 
 		AxisAlignedRectangleXZ terrainBoundary = calculateFileBoundary(osmData.getUnionOfExplicitBounds());
 
-		if (terrainBoundary != null
+		if (terrainBoundary != null && createSyntheticAreas
 				&& config.getBoolean("createTerrain", true)) {
 
-			EmptyTerrainBuilder.createAreasForEmptyTerrain(
-					mapNodes, mapAreas, terrainBoundary);
+			EmptyTerrainBuilder.createAreasForEmptyTerrain(mapNodes, mapAreas, terrainBoundary,
+					config.getBoolean("adaptiveTerrainPatches", true),
+					config.getBoolean("omitCoveredTerrain", false));
 
 		} else {
 
@@ -222,7 +287,7 @@ public class OSMToMapDataConverter {
 					}
 				}
 
-				MapWay way = new MapWay(osmWay.getId(), tagsOfEntity(osmWay), nodes);
+				MapWay way = new MapWay(osmWay.getId(), tagsOfEntity(osmWay, tagDictionary), nodes);
 				mapWays.add(way);
 
 			}
@@ -230,8 +295,8 @@ public class OSMToMapDataConverter {
 
 		/* crate relations from remaining OSM relations */
 
-		TLongObjectMap<MapRelation.Element> wayIdMap = new TLongObjectHashMap<>();
-		TLongObjectMap<MapRelation.Element> relationIdMap = new TLongObjectHashMap<>();
+		TLongObjectMap<MapRelation.Element> wayIdMap = new TLongObjectHashMap<>(existingWayElements);
+		TLongObjectMap<List<MapArea>> relationIdMap = new TLongObjectHashMap<>(existingRelationAreas);
 
 		for (MapWay way : mapWays) {
 			wayIdMap.put(way.getId(), way);
@@ -241,7 +306,10 @@ public class OSMToMapDataConverter {
 			if (!area.isBasedOnRelation()) {
 				wayIdMap.put(area.getId(), area);
 			} else {
-				relationIdMap.put(area.getId(), area);
+				if (!relationIdMap.containsKey(area.getId())) {
+					relationIdMap.put(area.getId(), new ArrayList<>());
+				}
+				relationIdMap.get(area.getId()).add(area);
 			}
 		}
 
@@ -249,7 +317,7 @@ public class OSMToMapDataConverter {
 			boolean hasTags = osmRelation.getNumberOfTags() != 0;
 			if (hasTags && !relationIdMap.containsKey(osmRelation.getId())) {
 
-				MapRelation relation = new MapRelation(osmRelation.getId(), tagsOfEntity(osmRelation));
+				MapRelation relation = new MapRelation(osmRelation.getId(), tagsOfEntity(osmRelation, tagDictionary));
 
 				List<OsmRelationMember> incompleteMembers = null;
 
@@ -265,9 +333,12 @@ public class OSMToMapDataConverter {
 						element = wayIdMap.get(osmMember.getId());
 						break;
 					case Relation:
-						if (relationIdMap.get(osmMember.getId()) instanceof MapArea) {
-							element = relationIdMap.get(osmMember.getId());
-							break;
+						if (relationIdMap.containsKey(osmMember.getId())) {
+							// a multipolygon can consist of several areas, all of them become members
+							for (MapArea area : relationIdMap.get(osmMember.getId())) {
+								relation.addMembership(osmMember.getRole(), area);
+							}
+							continue;
 						} else {
 							//TODO: support relations containing other (non-multipolygon) relations as members
 							continue;
@@ -306,95 +377,208 @@ public class OSMToMapDataConverter {
 
 	}
 
-	static TagSet tagsOfEntity(OsmEntity entity) {
+	static TagSet tagsOfEntity(OsmEntity entity, TagDictionary dictionary) {
 
 		if (entity.getNumberOfTags() == 0) return TagSet.of();
 
-		org.osm2world.core.map_data.data.Tag[] tags =
-				new org.osm2world.core.map_data.data.Tag[entity.getNumberOfTags()];
+		String[] keyValuePairs = new String[entity.getNumberOfTags() * 2];
 		for (int i = 0; i < entity.getNumberOfTags(); i++) {
-			tags[i] = new org.osm2world.core.map_data.data.Tag(entity.getTag(i).getKey(), entity.getTag(i).getValue());
+			keyValuePairs[i * 2] = entity.getTag(i).getKey();
+			keyValuePairs[i * 2 + 1] = entity.getTag(i).getValue();
 		}
-		return TagSet.of(tags);
+		return TagSet.of(dictionary, keyValuePairs);
 
 	}
 
 	/**
 	 * calculates intersections and adds the information to the
-	 * {@link MapElement}s
+	 * {@link MapElement}s.
+	 *
+	 * All elements are inserted into a spatial index first. Then the candidate pairs for each element
+	 * are tested, optionally in parallel. Each pair is tested once, for the element which comes later in
+	 * {@link MapData#getMapElements()}. The overlaps are added to the elements afterwards,
+	 * ordered by that element's position and then by the position of the other element.
 	 */
-	private static void calculateIntersectionsInMapData(MapData mapData) {
+	private static void calculateIntersectionsInMapData(MapData mapData, boolean parallel) {
 
-		AxisAlignedRectangleXZ bounds = mapData.getDataBoundary().pad(10);
-		SpatialIndex<MapElement> index = new IndexGrid<>(bounds, bounds.sizeX() / 1000, bounds.sizeZ() / 1000);
+		List<IndexedElement> elements = new ArrayList<>();
+		for (MapElement element : mapData.getMapElements()) {
+			elements.add(new IndexedElement(elements.size(), element));
+		}
 
-		for (MapElement e1 : mapData.getMapElements()) {
+		SpatialIndex<IndexedElement> index = createSpatialIndex(elements, mapData.getDataBoundary());
 
-			/* collect all nearby elements */
+		/* test candidate pairs, each element's results go into a separate list */
 
-			Iterable<MapElement> nearbyElements = index.insertAndProbe(e1);
+		@SuppressWarnings("unchecked")
+		List<MapOverlap<?, ?>>[] results = new List[elements.size()];
 
-			for (MapElement e2 : nearbyElements) {
+		IntStream indices = IntStream.range(0, elements.size());
+		if (parallel) {
+			indices = indices.parallel();
+		}
+
+		indices.forEach(i -> {
 
-				if (e1 == e2) { continue; }
+			IndexedElement e1 = elements.get(i);
 
-				addOverlapBetween(e1, e2);
+			List<IndexedElement> candidates = new ArrayList<>();
+			for (IndexedElement e2 : index.probe(e1)) {
+				if (e2.index < e1.index) {
+					candidates.add(e2);
+				}
+			}
+			candidates.sort(comparingInt(e -> e.index));
 
+			for (IndexedElement e2 : candidates) {
+				MapOverlap<?, ?> overlap = findOverlap(e1.element, e2.element);
+				if (overlap != null) {
+					if (results[i] == null) {
+						results[i] = new ArrayList<>();
+					}
+					results[i].add(overlap);
+				}
 			}
 
+		});
+
+		/* add the overlaps to the elements */
+
+		for (List<MapOverlap<?, ?>> overlaps : results) {
+			if (overlaps != null) {
+				overlaps.forEach(OSMToMapDataConverter::addOverlapToElements);
+			}
+		}
+
+	}
+
+	/**
+	 * creates a spatial index containing all the elements.
+	 *
+	 * An {@link IndexGrid} with a cell size based on the density of the data is used if most elements
+	 * fit into a single cell. If the elements vary a lot in size, large elements (such as forests)
+	 * would be added to a lot of cells, so an {@link STRTree} is used instead.
+	 */
+	static SpatialIndex<IndexedElement> createSpatialIndex(List<IndexedElement> elements,
+			AxisAlignedRectangleXZ dataBoundary) {
+
+		AxisAlignedRectangleXZ bounds = dataBoundary.pad(10);
+
+		int elementCount = max(1, elements.size());
+		double cellSize = sqrt(bounds.area() * GRID_ELEMENTS_PER_CELL / elementCount);
+
+		double totalCellCount = 0;
+		for (IndexedElement element : elements) {
+			AxisAlignedRectangleXZ box = element.boundingBox();
+			totalCellCount += (floor(box.sizeX() / cellSize) + 1) * (floor(box.sizeZ() / cellSize) + 1);
+		}
+
+		if (totalCellCount / elementCount <= GRID_MAX_CELLS_PER_ELEMENT) {
+			SpatialIndex<IndexedElement> index = new IndexGrid<>(bounds, cellSize, cellSize);
+			elements.forEach(index::insert);
+			return index;
+		} else {
+			return new STRTree<>(elements);
 		}
 
 	}
 
+	/** target average number of elements per cell when using an {@link IndexGrid} */
+	private static final double GRID_ELEMENTS_PER_CELL = 4;
+
+	/** average number of cells per element above which an {@link STRTree} is used instead of an {@link IndexGrid} */
+	private static final double GRID_MAX_CELLS_PER_ELEMENT = 1.5;
+
 	/**
-	 * adds the overlap between two {@link MapElement}s
-	 * to both, if it exists. It calls the appropriate
-	 * subtype-specific addOverlapBetween method
+	 * a {@link MapElement} along with its position in {@link MapData#getMapElements()}.
+	 * The bounding box is calculated only once because it is needed repeatedly by the spatial index.
 	 */
-	private static void addOverlapBetween(MapElement e1, MapElement e2) {
+	static class IndexedElement implements BoundedObject {
+
+		final int index;
+		final MapElement element;
+		private final AxisAlignedRectangleXZ boundingBox;
+
+		IndexedElement(int index, MapElement element) {
+			this.index = index;
+			this.element = element;
+			this.boundingBox = element.boundingBox();
+		}
+
+		@Override
+		public AxisAlignedRectangleXZ boundingBox() {
+			return boundingBox;
+		}
+
+	}
+
+	/**
+	 * adds an overlap to the elements involved in it.
+	 * Overlaps between nodes and areas are only added to the area.
+	 */
+	static void addOverlapToElements(MapOverlap<?, ?> overlap) {
+		if (overlap instanceof MapIntersectionWW) {
+			((MapIntersectionWW) overlap).e1.addOverlap(overlap);
+			((MapIntersectionWW) overlap).e2.addOverlap(overlap);
+		} else if (overlap instanceof MapOverlapWA) {
+			((MapOverlapWA) overlap).e1.addOverlap(overlap);
+			((MapOverlapWA) overlap).e2.addOverlap(overlap);
+		} else if (overlap instanceof MapOverlapAA) {
+			((MapOverlapAA) overlap).e1.addOverlap(overlap);
+			((MapOverlapAA) overlap).e2.addOverlap(overlap);
+		} else if (overlap instanceof MapOverlapNA) {
+			((MapOverlapNA) overlap).e2.addOverlap(overlap);
+		}
+	}
+
+	/**
+	 * determines the overlap between two {@link MapElement}s, if it exists.
+	 * Does not modify the elements. It calls the appropriate
+	 * subtype-specific findOverlap method.
+	 */
+	static @Nullable MapOverlap<?, ?> findOverlap(MapElement e1, MapElement e2) {
 
 		if (e1 instanceof MapWaySegment
 				&& e2 instanceof MapWaySegment) {
 
-			addOverlapBetween((MapWaySegment) e1, (MapWaySegment) e2);
+			return findOverlap((MapWaySegment) e1, (MapWaySegment) e2);
 
 		} else if (e1 instanceof MapWaySegment
 				&& e2 instanceof MapArea) {
 
-			addOverlapBetween((MapWaySegment) e1, (MapArea) e2);
+			return findOverlap((MapWaySegment) e1, (MapArea) e2);
 
 		} else if (e1 instanceof MapArea
 				&& e2 instanceof MapWaySegment) {
 
-			addOverlapBetween((MapWaySegment) e2, (MapArea) e1);
+			return findOverlap((MapWaySegment) e2, (MapArea) e1);
 
 		} else if (e1 instanceof MapArea
 				&& e2 instanceof MapArea) {
 
-			addOverlapBetween((MapArea) e1, (MapArea) e2);
+			return findOverlap((MapArea) e1, (MapArea) e2);
 
 		} else if (e1 instanceof MapNode
 				&& e2 instanceof MapArea) {
 
-			addOverlapBetween((MapNode) e1, (MapArea) e2);
+			return findOverlap((MapNode) e1, (MapArea) e2);
 
 		} else if (e1 instanceof MapArea
 				&& e2 instanceof MapNode) {
 
-			addOverlapBetween((MapNode) e2, (MapArea) e1);
+			return findOverlap((MapNode) e2, (MapArea) e1);
 
+		} else {
+			return null;
 		}
 
 	}
 
-	/**
-	 * adds the overlap between two {@link MapWaySegment}s
-	 * to both, if it exists
-	 */
-	private static void addOverlapBetween(
+	/** determines the overlap between two {@link MapWaySegment}s, if it exists */
+	private static @Nullable MapIntersectionWW findOverlap(
 			MapWaySegment line1, MapWaySegment line2) {
 
-		if (line1.isConnectedTo(line2)) { return; }
+		if (line1.isConnectedTo(line2)) { return null; }
 
 		VectorXZ intersection = GeometryUtil.getLineSegmentIntersection(
 				line1.getStartNode().getPos(),
@@ -403,24 +587,18 @@ public class OSMToMapDataConverter {
 				line2.getEndNode().getPos());
 
 		if (intersection != null) {
-
-			/* add the intersection */
-
-			MapIntersectionWW newIntersection =
-				new MapIntersectionWW(line1, line2, intersection);
-
-			line1.addOverlap(newIntersection);
-			line2.addOverlap(newIntersection);
-
+			return new MapIntersectionWW(line1, line2, intersection);
+		} else {
+			return null;
 		}
 
 	}
 
 	/**
-	 * adds the overlap between a {@link MapWaySegment}
-	 * and a {@link MapArea} to both, if it exists
+	 * determines the overlap between a {@link MapWaySegment}
+	 * and a {@link MapArea}, if it exists
 	 */
-	private static void addOverlapBetween(
+	private static @Nullable MapOverlapWA findOverlap(
 			MapWaySegment line, MapArea area) {
 
 		final LineSegmentXZ segmentXZ = line.getLineSegment();
@@ -430,15 +608,9 @@ public class OSMToMapDataConverter {
 		for (MapAreaSegment areaSegment : area.getAreaSegments()) {
 			if (areaSegment.sharesBothNodes(line)) {
 
-				MapOverlapWA newOverlap =
-					new MapOverlapWA(line, area, MapOverlapType.SHARE_SEGMENT,
-							Collections.<VectorXZ>emptyList(),
-							Collections.<MapAreaSegment>emptyList());
-
-				line.addOverlap(newOverlap);
-				area.addOverlap(newOverlap);
-
-				return;
+				return new MapOverlapWA(line, area, MapOverlapType.SHARE_SEGMENT,
+						Collections.<VectorXZ>emptyList(),
+						Collections.<MapAreaSegment>emptyList());
 
 			}
 		}
@@ -485,7 +657,7 @@ public class OSMToMapDataConverter {
 
 		}
 
-		/* add an overlap if detected */
+		/* create an overlap if detected */
 
 		if (contains || intersects) {
 
@@ -514,21 +686,18 @@ public class OSMToMapDataConverter {
 
 			}
 
-			/* add the overlap */
-
-			MapOverlapWA newOverlap = new MapOverlapWA(line, area,
-						intersects ? MapOverlapType.INTERSECT : MapOverlapType.CONTAIN,
-						intersectionPositions, intersectingSegments);
-
-			line.addOverlap(newOverlap);
-			area.addOverlap(newOverlap);
+			return new MapOverlapWA(line, area,
+					intersects ? MapOverlapType.INTERSECT : MapOverlapType.CONTAIN,
+					intersectionPositions, intersectingSegments);
 
+		} else {
+			return null;
 		}
 
 	}
 
-	/** adds the overlap between two {@link MapArea}s to both, if it exists */
-	private static void addOverlapBetween(MapArea area1, MapArea area2) {
+	/** determines the overlap between two {@link MapArea}s, if it exists */
+	private static @Nullable MapOverlapAA findOverlap(MapArea area1, MapArea area2) {
 
 		/* check whether the areas have a shared segment */
 
@@ -538,14 +707,7 @@ public class OSMToMapDataConverter {
 		for (MapAreaSegment area1Segment : area1Segments) {
 			for (MapAreaSegment area2Segment : area2Segments) {
 				if (area1Segment.sharesBothNodes(area2Segment)) {
-
-					MapOverlapAA newOverlap =
-						new MapOverlapAA(area1, area2, MapOverlapType.SHARE_SEGMENT);
-					area1.addOverlap(newOverlap);
-					area2.addOverlap(newOverlap);
-
-					return;
-
+					return new MapOverlapAA(area1, area2, MapOverlapType.SHARE_SEGMENT);
 				}
 			}
 		}
@@ -602,40 +764,26 @@ public class OSMToMapDataConverter {
 
 		}
 
-		/* add an overlap if detected */
-
-		if (contains1 || contains2 || intersects) {
-
-			/* add the overlap */
-
-			MapOverlapAA newOverlap = null;
-
-			if (contains1) {
-				newOverlap = new MapOverlapAA(area2, area1, MapOverlapType.CONTAIN);
-			} else if (contains2) {
-				newOverlap = new MapOverlapAA(area1, area2, MapOverlapType.CONTAIN);
-			} else {
-				newOverlap = new MapOverlapAA(area1, area2, MapOverlapType.INTERSECT);
-			}
-
-			area1.addOverlap(newOverlap);
-			area2.addOverlap(newOverlap);
+		/* create an overlap if detected */
 
+		if (contains1) {
+			return new MapOverlapAA(area2, area1, MapOverlapType.CONTAIN);
+		} else if (contains2) {
+			return new MapOverlapAA(area1, area2, MapOverlapType.CONTAIN);
+		} else if (intersects) {
+			return new MapOverlapAA(area1, area2, MapOverlapType.INTERSECT);
+		} else {
+			return null;
 		}
 
 	}
 
-	private static void addOverlapBetween(MapNode node, MapArea area) {
+	private static @Nullable MapOverlapNA findOverlap(MapNode node, MapArea area) {
 
 		if (area.getPolygon().contains(node.getPos())) {
-
-			/* add the overlap */
-
-			MapOverlapNA newOverlap =
-					new MapOverlapNA(node, area, MapOverlapType.CONTAIN);
-
-			area.addOverlap(newOverlap);
-
+			return new MapOverlapNA(node, area, MapOverlapType.CONTAIN);
+		} else {
+			return null;
 		}
 
 	}
@@ -206,12 +206,18 @@ public class MapArea extends MapRelation.Element implements MapElement {
 	}
 
 	/**
-	 * adds a visual representation for this area
+	 * adds a visual representation for this area.
+	 * Can be called from multiple threads, e.g. by modules applied in parallel.
 	 */
-	public void addRepresentation(AreaWorldObject representation) {
+	public synchronized void addRepresentation(AreaWorldObject representation) {
 		this.representations.add(representation);
 	}
 
+	@Override
+	public synchronized void clearRepresentations() {
+		this.representations.clear();
+	}
+
 	public void addOverlap(MapOverlap<?, ?> overlap) {
 		assert overlap.e1 == this || overlap.e2 == this;
 		if (overlaps == Collections.EMPTY_LIST) {
@@ -5,6 +5,8 @@ import static java.util.stream.Collectors.toList;
 import java.util.Collection;
 import java.util.List;
 
+import javax.annotation.Nullable;
+
 import org.osm2world.core.math.AxisAlignedRectangleXZ;
 import org.osm2world.core.math.VectorXZ;
 import org.osm2world.core.osm.data.OSMData;
@@ -112,6 +114,11 @@ public class MapData {
 		return dataBoundary;
 	}
 
+	/** returns the boundary based on the bounds in the input file, or null if the file didn't have bounds */
+	public @Nullable AxisAlignedRectangleXZ getFileBoundary() {
+		return fileBoundary;
+	}
+
 	/**
 	 * returns a boundary based on the bounds in the input file if available,
 	 * otherwise returns the same as {@link #getDataBoundary()}
@@ -32,6 +32,12 @@ public interface MapElement extends BoundedObject {
 	 */
 	public WorldObject getPrimaryRepresentation();
 
+	/**
+	 * removes all representations of this element.
+	 * Used if the representations need to be created again, e.g. because nearby elements have changed.
+	 */
+	public void clearRepresentations();
+
 	/**
 	 * returns all overlaps between this {@link MapElement}
 	 * and other {@link MapElement}s.
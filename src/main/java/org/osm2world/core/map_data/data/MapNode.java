@@ -112,6 +112,23 @@ public class MapNode extends MapRelation.Element implements MapElement {
 
 	}
 
+	/**
+	 * removes a way segment which has been added with {@link #addInboundLine(MapWaySegment)}
+	 * or {@link #addOutboundLine(MapWaySegment)}, e.g. because its way has been deleted
+	 */
+	public void removeLine(MapWaySegment line) {
+		connectedWaySegments.remove(line);
+		connectedSegments.remove(line);
+		inboundLines.remove(line);
+		outboundLines.remove(line);
+	}
+
+	/** removes an area and all of its segments which have been added with {@link #addAdjacentArea(MapArea, MapAreaSegment)} */
+	public void removeAdjacentArea(MapArea adjacentArea) {
+		adjacentAreas.remove(adjacentArea);
+		connectedSegments.removeIf(s -> s instanceof MapAreaSegment && ((MapAreaSegment) s).getArea() == adjacentArea);
+	}
+
 	//TODO: with all that "needs to be called before x" etc. stuff (also in MapArea), switch to BUILDER?
 	/** needs to be called after adding and completing all adjacent areas */
 	public void calculateAdjacentAreaSegments() {
@@ -185,12 +202,18 @@ public class MapNode extends MapRelation.Element implements MapElement {
 	}
 
 	/**
-	 * adds a visual representation for this node
+	 * adds a visual representation for this node.
+	 * Can be called from multiple threads, e.g. by modules applied in parallel.
 	 */
-	public void addRepresentation(NodeWorldObject representation) {
+	public synchronized void addRepresentation(NodeWorldObject representation) {
 		this.representations.add(representation);
 	}
 
+	@Override
+	public synchronized void clearRepresentations() {
+		this.representations.clear();
+	}
+
 	@Override
 	public Element getElementWithId() {
 		return this;
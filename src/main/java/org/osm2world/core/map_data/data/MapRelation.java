@@ -87,6 +87,10 @@ public class MapRelation {
 
 	private final List<Membership> memberships = new ArrayList<MapRelation.Membership>();
 
+	public long getId() {
+		return id;
+	}
+
 	public List<Membership> getMemberships() {
 		return memberships;
 	}
@@ -98,6 +102,16 @@ public class MapRelation {
 		element.addMembership(membership);
 	}
 
+	/**
+	 * removes this relation's memberships from the member elements.
+	 * The relation is no longer returned by their {@link Element#getMemberships()}, e.g. because it has been deleted.
+	 */
+	public void removeFromMembers() {
+		for (Membership membership : memberships) {
+			membership.element.memberships.remove(membership);
+		}
+	}
+
 	public TagSet getTags() {
 		return tags;
 	}
@@ -89,10 +89,16 @@ public class MapWaySegment extends MapSegment implements MapElement {
 	}
 
 	/**
-	 * adds a visual representation for this way segment
+	 * adds a visual representation for this way segment.
+	 * Can be called from multiple threads, e.g. by modules applied in parallel.
 	 */
-	public void addRepresentation(WaySegmentWorldObject representation) {
+	public synchronized void addRepresentation(WaySegmentWorldObject representation) {
 		this.representations.add(representation);
 	}
 
+	@Override
+	public synchronized void clearRepresentations() {
+		this.representations.clear();
+	}
+
 }
@@ -0,0 +1,104 @@
+package org.osm2world.core.map_data.data;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nullable;
+
+/**
+ * assigns int ids to the keys and values of {@link TagSet}s.
+ * Tag sets sharing a dictionary store each distinct string only once and compare their keys and values as ints.
+ *
+ * A dictionary is meant to be used for a single conversion, e.g. by OSMToMapDataConverter,
+ * so its strings can be garbage collected together with the conversion's results.
+ * Strings can be added from several threads at the same time.
+ */
+public final class TagDictionary {
+
+	/**
+	 * ids of all strings in {@link #strings}.
+	 * Null for the small dictionaries of individual tag sets, which are searched linearly instead.
+	 */
+	private final @Nullable Map<String, Integer> ids;
+
+	/** the strings, with their ids as indices. Replaced with a larger copy when full. */
+	private volatile String[] strings;
+
+	/** number of strings in the dictionary */
+	private int size = 0;
+
+	public TagDictionary() {
+		this(new ConcurrentHashMap<>(), 64);
+	}
+
+	private TagDictionary(@Nullable Map<String, Integer> ids, int initialCapacity) {
+		this.ids = ids;
+		this.strings = new String[initialCapacity];
+	}
+
+	/** creates a dictionary for the keys and values of a single {@link TagSet} */
+	static TagDictionary forSingleTagSet(int numTags) {
+		return new TagDictionary(null, numTags * 2);
+	}
+
+	/**
+	 * returns the id of a string, adding it to this dictionary if necessary
+	 * @param string  the string; != null
+	 */
+	int getOrAdd(String string) {
+
+		int id = idOf(string);
+		if (id >= 0) return id;
+
+		synchronized (this) {
+
+			id = idOf(string);
+
+			if (id < 0) {
+
+				if (size == strings.length) {
+					strings = Arrays.copyOf(strings, Math.max(4, size * 2));
+				}
+
+				id = size;
+				strings[id] = string;
+				size++;
+
+				if (ids != null) {
+					ids.put(string, id);
+				}
+
+			}
+
+			return id;
+
+		}
+
+	}
+
+	/**
+	 * returns the id of a string, or -1 if the string is not part of this dictionary
+	 * @param string  the string; != null
+	 */
+	int idOf(String string) {
+		if (ids != null) {
+			Integer id = ids.get(string);
+			return id == null ? -1 : id;
+		} else {
+			String[] strings = this.strings;
+			for (int i = 0; i < strings.length && strings[i] != null; i++) {
+				if (strings[i].equals(string)) {
+					return i;
+				}
+			}
+			return -1;
+		}
+	}
+
+	/** returns the string with an id */
+	String get(int id) {
+		return strings[id];
+	}
+
+}
@@ -1,17 +1,13 @@
 package org.osm2world.core.map_data.data;
 
-import static java.util.Arrays.sort;
-
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Comparator;
 import java.util.Iterator;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
 
-import com.google.common.collect.Iterators;
-
 /**
  * represents a group of OSM tags (e.g. all tags of a way).
  * TagSets are immutable, so modifying the tags means creation of a new set.
@@ -20,20 +16,45 @@ import com.google.common.collect.Iterators;
  */
 public final class TagSet implements Iterable<Tag> {
 
-	private static final TagSet EMPTY_SET = new TagSet(new Tag[0]);
-
-	/** the backing array. Will not be modified after construction. Sorted alphabetically (for equality behavior). */
-	private final Tag[] tags;
+	private static final TagSet EMPTY_SET = new TagSet(TagDictionary.forSingleTagSet(0), new int[0], new int[0]);
 
-	private TagSet(Tag[] tags) {
+	/** the dictionary containing the strings for the ids in {@link #keyIds} and {@link #valueIds} */
+	private final TagDictionary dictionary;
 
-		this.tags = tags;
-		sort(tags, Comparator.comparing((Tag t) -> t.key).thenComparing(t -> t.value));
+	/**
+	 * ids of the keys. Will not be modified after construction.
+	 * Sorted alphabetically by key (for equality behavior).
+	 */
+	private final int[] keyIds;
+
+	/** ids of the values, in the same order as {@link #keyIds}. Will not be modified after construction. */
+	private final int[] valueIds;
+
+	private TagSet(TagDictionary dictionary, int[] keyIds, int[] valueIds) {
+
+		this.dictionary = dictionary;
+		this.keyIds = keyIds;
+		this.valueIds = valueIds;
+
+		// insertion sort, tag sets are usually small
+		for (int i = 1; i < keyIds.length; i++) {
+			int keyId = keyIds[i];
+			int valueId = valueIds[i];
+			String key = dictionary.get(keyId);
+			int j = i - 1;
+			while (j >= 0 && dictionary.get(keyIds[j]).compareTo(key) > 0) {
+				keyIds[j + 1] = keyIds[j];
+				valueIds[j + 1] = valueIds[j];
+				j--;
+			}
+			keyIds[j + 1] = keyId;
+			valueIds[j + 1] = valueId;
+		}
 
-		// validate uniqueness of keys (relies on sort order)
-		for (int i = 0; i + 1 < tags.length; i++) {
-			if (tags[i].key.equals(tags[i + 1].key)) {
-				throw new IllegalArgumentException("duplicate key '" + tags[i].key + "' in: " + Arrays.toString(tags));
+		// validate uniqueness of keys (relies on sort order and on the dictionary containing each string once)
+		for (int i = 0; i + 1 < keyIds.length; i++) {
+			if (keyIds[i] == keyIds[i + 1]) {
+				throw new IllegalArgumentException("duplicate key '" + dictionary.get(keyIds[i]) + "' in: " + this);
 			}
 		}
 
@@ -48,10 +69,7 @@ public final class TagSet implements Iterable<Tag> {
 	 * @throws IllegalArgumentException  if keys are not unique
 	 */
 	public static final TagSet of(Collection<Tag> tags) {
-		switch (tags.size()) {
-		case 0: return EMPTY_SET;
-		default: return new TagSet(tags.toArray(new Tag[0]));
-		}
+		return of(tags.toArray(new Tag[0]));
 	}
 
 	/**
@@ -59,10 +77,12 @@ public final class TagSet implements Iterable<Tag> {
 	 * @throws IllegalArgumentException  if keys are not unique
 	 */
 	public static final TagSet of(Tag... tags) {
-		switch (tags.length) {
-		case 0: return EMPTY_SET;
-		default: return new TagSet(tags.clone());
+		String[] keyValuePairs = new String[tags.length * 2];
+		for (int i = 0; i < tags.length; i++) {
+			keyValuePairs[i * 2] = tags[i].key;
+			keyValuePairs[i * 2 + 1] = tags[i].value;
 		}
+		return of(keyValuePairs);
 	}
 
 	/**
@@ -71,6 +91,16 @@ public final class TagSet implements Iterable<Tag> {
 	 * @throws IllegalArgumentException  if keys are not unique, the tags would invalid, or for odd numbers of strings
 	 */
 	public static final TagSet of(String... keyValuePairs) {
+		if (keyValuePairs.length == 0) return EMPTY_SET;
+		return of(TagDictionary.forSingleTagSet(keyValuePairs.length / 2), keyValuePairs);
+	}
+
+	/**
+	 * variant of {@link #of(String...)} which stores the keys and values in a shared {@link TagDictionary}.
+	 * Meant for the tags of input data, where the same few keys and values occur over and over again.
+	 * Tag sets with the same dictionary can be compared without comparing strings.
+	 */
+	public static final TagSet of(TagDictionary dictionary, String... keyValuePairs) {
 
 		if (keyValuePairs.length % 2 != 0) {
 			throw new IllegalArgumentException("there must be one value for each key, an even number of strings");
@@ -78,22 +108,45 @@ public final class TagSet implements Iterable<Tag> {
 
 		if (keyValuePairs.length == 0) return EMPTY_SET;
 
-		Tag[] tags = new Tag[keyValuePairs.length / 2];
-		for (int i = 0; i < tags.length; i++) {
-			tags[i] = new Tag(keyValuePairs[i * 2], keyValuePairs[i * 2 + 1]);
+		int[] keyIds = new int[keyValuePairs.length / 2];
+		int[] valueIds = new int[keyValuePairs.length / 2];
+
+		for (int i = 0; i < keyIds.length; i++) {
+			String key = keyValuePairs[i * 2];
+			String value = keyValuePairs[i * 2 + 1];
+			if (key == null || value == null) {
+				throw new IllegalArgumentException("keys and values must not be null");
+			}
+			keyIds[i] = dictionary.getOrAdd(key);
+			valueIds[i] = dictionary.getOrAdd(value);
 		}
-		return new TagSet(tags);
 
+		return new TagSet(dictionary, keyIds, valueIds);
+
+	}
+
+	private int indexOfKeyId(int keyId) {
+		for (int i = 0; i < keyIds.length; i++) {
+			if (keyIds[i] == keyId) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private int indexOfKey(String key) {
+		int keyId = dictionary.idOf(key);
+		return keyId < 0 ? -1 : indexOfKeyId(keyId);
 	}
 
 	/** returns true if this set contains any tags */
 	public boolean isEmpty() {
-		return tags.length == 0;
+		return keyIds.length == 0;
 	}
 
 	/** returns the number of tags in this set */
 	public int size() {
-		return tags.length;
+		return keyIds.length;
 	}
 
 	/**
@@ -102,12 +155,8 @@ public final class TagSet implements Iterable<Tag> {
 	 */
 	public String getValue(String key) {
 		assert key != null;
-		for (Tag tag : tags) {
-			if (tag.key.equals(key)) {
-				return tag.value;
-			}
-		}
-		return null;
+		int i = indexOfKey(key);
+		return i < 0 ? null : dictionary.get(valueIds[i]);
 	}
 
 	/**
@@ -116,12 +165,7 @@ public final class TagSet implements Iterable<Tag> {
 	 */
 	public boolean contains(Tag tag) {
 		assert tag != null;
-		for (Tag t : tags) {
-			if (t.equals(tag)) {
-				return true;
-			}
-		}
-		return false;
+		return contains(tag.key, tag.value);
 	}
 
 	/**
@@ -130,7 +174,8 @@ public final class TagSet implements Iterable<Tag> {
 	 * @param value  value of the tag to check for; != null
 	 */
 	public boolean contains(String key, String value) {
-		return contains(new Tag(key, value));
+		int i = indexOfKey(key);
+		return i >= 0 && valueIds[i] == dictionary.idOf(value);
 	}
 
 	/**
@@ -138,12 +183,7 @@ public final class TagSet implements Iterable<Tag> {
 	 * @param key  key to check for; != null
 	 */
 	public boolean containsKey(String key) {
-		for (Tag tag : tags) {
-			if (tag.key.equals(key)) {
-				return true;
-			}
-		}
-		return false;
+		return indexOfKey(key) >= 0;
 	}
 
 	/**
@@ -151,8 +191,10 @@ public final class TagSet implements Iterable<Tag> {
 	 * @param value  value to check for; != null
 	 */
 	public boolean containsValue(String value) {
-		for (Tag tag : tags) {
-			if (tag.value.equals(value)) {
+		int valueId = dictionary.idOf(value);
+		if (valueId < 0) return false;
+		for (int id : valueIds) {
+			if (id == valueId) {
 				return true;
 			}
 		}
@@ -197,7 +239,7 @@ public final class TagSet implements Iterable<Tag> {
 
 	/** returns a stream of all tags in this set */
 	public Stream<Tag> stream() {
-		return Arrays.stream(tags);
+		return IntStream.range(0, keyIds.length).mapToObj(this::getTag);
 	}
 
 	/**
@@ -206,14 +248,31 @@ public final class TagSet implements Iterable<Tag> {
 	 */
 	@Override
 	public Iterator<Tag> iterator() {
-		return Iterators.forArray(tags);
+		return stream().iterator();
+	}
+
+	private Tag getTag(int i) {
+		return new Tag(dictionary.get(keyIds[i]), dictionary.get(valueIds[i]));
 	}
 
 	/** two {@link TagSet}s are equal iff they contain the same tags */
 	@Override
 	public boolean equals(Object obj) {
 		if (obj instanceof TagSet) {
-			return Arrays.equals(this.tags, ((TagSet) obj).tags);
+			TagSet other = (TagSet) obj;
+			if (keyIds.length != other.keyIds.length) {
+				return false;
+			} else if (dictionary == other.dictionary) {
+				return Arrays.equals(keyIds, other.keyIds) && Arrays.equals(valueIds, other.valueIds);
+			} else {
+				for (int i = 0; i < keyIds.length; i++) {
+					if (!dictionary.get(keyIds[i]).equals(other.dictionary.get(other.keyIds[i]))
+							|| !dictionary.get(valueIds[i]).equals(other.dictionary.get(other.valueIds[i]))) {
+						return false;
+					}
+				}
+				return true;
+			}
 		} else {
 			return false;
 		}
@@ -221,12 +280,16 @@ public final class TagSet implements Iterable<Tag> {
 
 	@Override
 	public int hashCode() {
-		return tags.hashCode();
+		int result = 1;
+		for (int i = 0; i < keyIds.length; i++) {
+			result = 31 * result + dictionary.get(keyIds[i]).hashCode() + dictionary.get(valueIds[i]).hashCode();
+		}
+		return result;
 	}
 
 	@Override
 	public String toString() {
-		return Arrays.toString(tags);
+		return Arrays.toString(stream().toArray());
 	}
 
-}
\ No newline at end of file
+}
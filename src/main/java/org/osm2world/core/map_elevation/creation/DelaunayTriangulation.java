@@ -394,7 +394,16 @@ public class DelaunayTriangulation {
 		public final VectorXYZ[] neighbors;
 		public final double[] relativeWeights;
 
-		NaturalNeighbors(Collection<VectorXYZ> neighbors) {
+		/**
+		 * the triangle which contained the probed point.
+		 * Remains part of the triangulation after the probe and can be used as a starting point
+		 * for probing nearby points with {@link DelaunayTriangulation#probe(VectorXZ, DelaunayTriangle)}.
+		 */
+		public final DelaunayTriangle enclosingTriangle;
+
+		NaturalNeighbors(Collection<VectorXYZ> neighbors, DelaunayTriangle enclosingTriangle) {
+
+			this.enclosingTriangle = enclosingTriangle;
 
 			this.neighbors = new VectorXYZ[neighbors.size()];
 			neighbors.toArray(this.neighbors);
@@ -520,8 +529,10 @@ public class DelaunayTriangulation {
 	}
 
 	public Stack<Flip> insert(VectorXYZ point) { //TODO: should use <T extends Has(Immutable)Position>
+		return insert(point, getEnlosingTriangle(point.xz()));
+	}
 
-		DelaunayTriangle triangleEnclosingPoint = getEnlosingTriangle(point.xz());
+	private Stack<Flip> insert(VectorXYZ point, DelaunayTriangle triangleEnclosingPoint) {
 
 		if (triangleEnclosingPoint == null) {
 			System.out.println("null");
@@ -572,12 +583,25 @@ public class DelaunayTriangulation {
 	 * then undoes the insertion
 	 */
 	public NaturalNeighbors probe(VectorXZ point) {
+		return probe(point, handleTriangle);
+	}
+
+	/**
+	 * variant of {@link #probe(VectorXZ)} which starts the search for the point's enclosing triangle
+	 * at a triangle known to be close to the point.
+	 * This is much faster if points are probed in a spatially coherent order.
+	 *
+	 * @param startTriangle  a triangle of this triangulation, usually the
+	 *                       {@link NaturalNeighbors#enclosingTriangle} of a previous probe; != null
+	 */
+	public NaturalNeighbors probe(VectorXZ point, DelaunayTriangle startTriangle) {
 
 		VectorXYZ probePoint = point.xyz(0);
 
 		/* insert the point */
 
-		Stack<Flip> flipStack = insert(probePoint);
+		DelaunayTriangle enclosingTriangle = getEnlosingTriangle(point, startTriangle);
+		Stack<Flip> flipStack = insert(probePoint, enclosingTriangle);
 
 		/* identify neighbors and modified triangles */
 
@@ -622,7 +646,7 @@ public class DelaunayTriangulation {
 
 		neighbors.remove(probePoint);
 
-		NaturalNeighbors result = new NaturalNeighbors(neighbors);
+		NaturalNeighbors result = new NaturalNeighbors(neighbors, enclosingTriangle);
 
 		/* calculate size of voronoi cells with the point */
 
@@ -803,11 +827,15 @@ public class DelaunayTriangulation {
 	 * @param point  must lie within the triangulation; != null
 	 */
 	public DelaunayTriangle getEnlosingTriangle(VectorXZ point) {
+		return getEnlosingTriangle(point, handleTriangle);
+	}
+
+	private DelaunayTriangle getEnlosingTriangle(VectorXZ point, DelaunayTriangle startTriangle) {
 
 		/* use a 'visibility walk' through the triangulation,
-		 * starting at the handleTriangle */
+		 * starting at the startTriangle */
 
-		DelaunayTriangle currentTriangle = handleTriangle;
+		DelaunayTriangle currentTriangle = startTriangle;
 
 		boolean triangleContainsPoint = false;
 
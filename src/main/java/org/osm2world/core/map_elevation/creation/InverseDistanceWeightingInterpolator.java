@@ -43,13 +43,22 @@ public class InverseDistanceWeightingInterpolator implements TerrainInterpolator
 
 	@Override
 	public VectorXYZ interpolateEle(VectorXZ pos) {
+		return pos.xyz(interpolateEle(pos.x, pos.z));
+	}
+
+	@Override
+	public void interpolateEle(double[] xz, double[] outY) {
+		TerrainInterpolator.interpolateEleInParallel(this, xz, outY);
+	}
+
+	private double interpolateEle(double x, double z) {
 
 		double weightSum = 0;
 		double eleSum = 0;
 
 		Collection<VectorXYZ>[][] cellArray = siteGrid.getCellArray();
-		int cellX = siteGrid.cellXForCoord(pos.x);
-		int cellZ = siteGrid.cellZForCoord(pos.z);
+		int cellX = siteGrid.cellXForCoord(x);
+		int cellZ = siteGrid.cellZForCoord(z);
 
 		for (int i = max(cellX-1, 0); i < min(cellX+2, cellArray.length); i++) {
 			for (int j = max(cellZ-1, 0); j < min(cellZ+2, cellArray[i].length); j++) {
@@ -60,7 +69,9 @@ public class InverseDistanceWeightingInterpolator implements TerrainInterpolator
 
 				for (VectorXYZ site : sitesInCell) {
 
-					double distance = site.distanceToXZ(pos);
+					double dx = site.x - x;
+					double dz = site.z - z;
+					double distance = sqrt(dx * dx + dz * dz);
 
 					if (distance < CUTOFF) {
 						double weight = pow(distance, negExp);
@@ -73,9 +84,7 @@ public class InverseDistanceWeightingInterpolator implements TerrainInterpolator
 			}
 		}
 
-		//System.out.println(pos + ": " + eleSum + ", " + weightSum + ", " + eleSum / weightSum);
-
-		return pos.xyz(eleSum / weightSum);
+		return eleSum / weightSum;
 
 	}
 
@@ -13,7 +13,6 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.PriorityQueue;
 
-import org.apache.commons.lang.time.StopWatch;
 import org.apache.commons.math3.linear.Array2DRowRealMatrix;
 import org.apache.commons.math3.linear.ArrayRealVector;
 import org.apache.commons.math3.linear.QRDecomposition;
@@ -41,9 +40,6 @@ public class LeastSquaresInterpolator implements TerrainInterpolator {
 	@Override
 	public void setKnownSites(Collection<VectorXYZ> siteVectors) {
 
-		StopWatch stopWatch = new StopWatch();
-		stopWatch.start();
-
 		sites = new ArrayList<SiteWithPolynomial>(siteVectors.size());
 
 		siteGrid = new IndexGrid<SiteWithPolynomial>(
@@ -56,10 +52,6 @@ public class LeastSquaresInterpolator implements TerrainInterpolator {
 			siteGrid.insert(s);
 		}
 
-		System.out.println("  time grid: " + stopWatch);
-		stopWatch.reset();
-		stopWatch.start();
-
 		/* approximate a polynomial at each site */
 
 		Map<SiteWithPolynomial, List<SiteWithPolynomial>> nearestSiteMap
@@ -74,10 +66,6 @@ public class LeastSquaresInterpolator implements TerrainInterpolator {
 
 		}
 
-		System.out.println("  time nearest sites: " + stopWatch);
-		stopWatch.reset();
-		stopWatch.start();
-
 		calculatePolynomials:
 		for (SiteWithPolynomial site : sites) {
 
@@ -109,10 +97,6 @@ public class LeastSquaresInterpolator implements TerrainInterpolator {
 
 		}
 
-		System.out.println("  time polyonmials: " + stopWatch);
-		stopWatch.reset();
-		stopWatch.start();
-
 	}
 
 	@Override
@@ -142,6 +126,11 @@ public class LeastSquaresInterpolator implements TerrainInterpolator {
 
 	}
 
+	@Override
+	public void interpolateEle(double[] xz, double[] outY) {
+		TerrainInterpolator.interpolateEleInParallel(this, xz, outY);
+	}
+
 	/**
 	 * provides access to the polynomials approximated internally.
 	 * This is usually only interesting for debugging or similar tasks.
@@ -1,9 +1,13 @@
 package org.osm2world.core.map_elevation.creation;
 
+import static java.lang.Math.floor;
 import static org.osm2world.core.math.AxisAlignedRectangleXZ.bbox;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 
+import org.osm2world.core.map_elevation.creation.DelaunayTriangulation.DelaunayTriangle;
 import org.osm2world.core.map_elevation.creation.DelaunayTriangulation.NaturalNeighbors;
 import org.osm2world.core.math.AxisAlignedRectangleXZ;
 import org.osm2world.core.math.VectorXYZ;
@@ -14,6 +18,9 @@ import org.osm2world.core.math.VectorXZ;
  */
 public class NaturalNeighborInterpolator implements TerrainInterpolator {
 
+	/** width of the strips used to sort positions for batch interpolation, should only affect performance */
+	private static final double ORDERING_STRIP_WIDTH = 50;
+
 	private DelaunayTriangulation triangulation;
 
 	@Override
@@ -24,23 +31,52 @@ public class NaturalNeighborInterpolator implements TerrainInterpolator {
 
 		triangulation = new DelaunayTriangulation(boundingBox);
 
-		int i = 0; //TODO remove
-		int total = sites.size();
-		long startTime = System.currentTimeMillis();
-
 		for (VectorXYZ site : sites) {
-			if (++i % 1000 == 0) System.out.println("KS: " + i + "/" + total
-					+ " after " + ((System.currentTimeMillis() - startTime) / 1e3));
 			triangulation.insert(site);
-
 		}
 
 	}
 
 	@Override
 	public VectorXYZ interpolateEle(VectorXZ pos) {
-
 		NaturalNeighbors nn = triangulation.probe(pos);
+		return pos.xyz(weightedEle(nn));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Probing temporarily modifies the triangulation, so this cannot run in parallel.
+	 * Instead, the positions are processed in a spatially coherent order,
+	 * and each probe starts walking the triangulation at the triangle found by the previous one.
+	 */
+	@Override
+	public void interpolateEle(double[] xz, double[] outY) {
+
+		if (xz.length != 2 * outY.length) {
+			throw new IllegalArgumentException("xz must contain two values for each element of outY");
+		}
+
+		Integer[] order = new Integer[outY.length];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+
+		Arrays.sort(order, Comparator
+				.comparingLong((Integer i) -> (long) floor(xz[2 * i + 1] / ORDERING_STRIP_WIDTH))
+				.thenComparingDouble(i -> xz[2 * i]));
+
+		DelaunayTriangle startTriangle = triangulation.handleTriangle;
+
+		for (int i : order) {
+			NaturalNeighbors nn = triangulation.probe(new VectorXZ(xz[2 * i], xz[2 * i + 1]), startTriangle);
+			outY[i] = weightedEle(nn);
+			startTriangle = nn.enclosingTriangle;
+		}
+
+	}
+
+	private static double weightedEle(NaturalNeighbors nn) {
 
 		double ele = 0;
 
@@ -48,7 +84,7 @@ public class NaturalNeighborInterpolator implements TerrainInterpolator {
 			ele += nn.neighbors[i].y * nn.relativeWeights[i];
 		}
 
-		return pos.xyz(ele);
+		return ele;
 
 	}
 
@@ -7,6 +7,8 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.osm2world.core.map_data.creation.MapProjection;
 import org.osm2world.core.map_data.data.MapData;
@@ -19,6 +21,20 @@ import org.osm2world.core.math.VectorXZ;
  */
 public class SRTMData implements TerrainElevationData {
 
+	/** maximum number of tiles in {@link #sharedTiles}. Each tile takes up about 3 MB. */
+	private static final int MAX_SHARED_TILES = 32;
+
+	/**
+	 * recently loaded tiles, shared between all instances.
+	 * Avoids reading the same files again when many conversions for the same region run in one process.
+	 */
+	private static final Map<File, SRTMTile> sharedTiles = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<File, SRTMTile> eldest) {
+			return size() > MAX_SHARED_TILES;
+		}
+	};
+
 	private final File tileDirectory;
 	private final MapProjection projection;
 	private final SRTMTile[][] tiles;
@@ -125,7 +141,7 @@ public class SRTMData implements TerrainElevationData {
 			File file = new File(fileName);
 
 			if (file.exists()) {
-				setTile(lon, lat, new SRTMTile(file));
+				setTile(lon, lat, loadSharedTile(file));
 			} else {
 				System.err.println("warning: missing SRTM tile " + file.getName());
 			}
@@ -134,6 +150,17 @@ public class SRTMData implements TerrainElevationData {
 
 	}
 
+	private static SRTMTile loadSharedTile(File file) throws IOException {
+		synchronized (sharedTiles) {
+			SRTMTile tile = sharedTiles.get(file);
+			if (tile == null) {
+				tile = new SRTMTile(file);
+				sharedTiles.put(file, tile);
+			}
+			return tile;
+		}
+	}
+
 	private void addTileSites(Collection<VectorXYZ> result,
 			int tileLon, int tileLat,
 			double minLon, double minLat, double maxLon, double maxLat) {
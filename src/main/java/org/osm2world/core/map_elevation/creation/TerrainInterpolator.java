@@ -1,6 +1,9 @@
 package org.osm2world.core.map_elevation.creation;
 
+import static java.lang.Math.min;
+
 import java.util.Collection;
+import java.util.stream.IntStream;
 
 import org.osm2world.core.math.VectorXYZ;
 import org.osm2world.core.math.VectorXZ;
@@ -14,4 +17,48 @@ public interface TerrainInterpolator {
 
 	VectorXYZ interpolateEle(VectorXZ pos);
 
+	/**
+	 * interpolates elevations for many positions at once.
+	 * The default implementation calls {@link #interpolateEle(VectorXZ)} for each position in order.
+	 *
+	 * @param xz    the x and z coordinates of all positions, interleaved: x0, z0, x1, z1, ...
+	 * @param outY  array which will receive the elevation for each position, length must be half that of xz
+	 */
+	default void interpolateEle(double[] xz, double[] outY) {
+
+		checkBatchLengths(xz, outY);
+
+		for (int i = 0; i < outY.length; i++) {
+			outY[i] = interpolateEle(new VectorXZ(xz[2 * i], xz[2 * i + 1])).y;
+		}
+
+	}
+
+	/**
+	 * implementation of {@link #interpolateEle(double[], double[])} which splits the positions into chunks
+	 * and processes them on the common fork-join pool.
+	 * Only suitable for interpolators where {@link #interpolateEle(VectorXZ)} does not modify any state.
+	 */
+	static void interpolateEleInParallel(TerrainInterpolator interpolator, double[] xz, double[] outY) {
+
+		checkBatchLengths(xz, outY);
+
+		final int chunkSize = 1024;
+		int numChunks = (outY.length + chunkSize - 1) / chunkSize;
+
+		IntStream.range(0, numChunks).parallel().forEach(chunk -> {
+			int end = min(outY.length, (chunk + 1) * chunkSize);
+			for (int i = chunk * chunkSize; i < end; i++) {
+				outY[i] = interpolator.interpolateEle(new VectorXZ(xz[2 * i], xz[2 * i + 1])).y;
+			}
+		});
+
+	}
+
+	private static void checkBatchLengths(double[] xz, double[] outY) {
+		if (xz.length != 2 * outY.length) {
+			throw new IllegalArgumentException("xz must contain two values for each element of outY");
+		}
+	}
+
 }
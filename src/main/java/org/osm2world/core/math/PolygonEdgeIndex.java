@@ -0,0 +1,240 @@
+package org.osm2world.core.math;
+
+import static java.lang.Math.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * an index of the edges of a polygon's vertex loop, used by {@link SimplePolygonXZ}
+ * to speed up point-in-polygon and intersection tests for polygons with many vertices.
+ * Similar in purpose to JTS' IndexedPointInAreaLocator.
+ *
+ * The polygon's z range is divided into rows of equal height, and each row stores the edges overlapping it.
+ * The results are the same as those of a test against each edge because the same tests are performed,
+ * just for fewer edges. Instances are immutable and therefore thread-safe.
+ */
+final class PolygonEdgeIndex {
+
+	/** intended average number of edges per row */
+	private static final int EDGES_PER_ROW = 4;
+
+	/**
+	 * amount by which the range of segment queries is extended,
+	 * so that rounding in intersection calculations can't cause edges to be missed
+	 */
+	private static final double TOLERANCE = 1e-6;
+
+	/** polygon vertices; first and last vertex are equal. Edge i connects vertex i and vertex i+1. */
+	private final List<VectorXZ> vertexLoop;
+
+	private final double minZ;
+	private final double maxZ;
+	private final double rowHeight;
+	private final int rowCount;
+
+	/** start of each row's edges in {@link #rowEdges}, has one additional entry for the end of the last row */
+	private final int[] rowStarts;
+
+	/** edge indices, grouped by row and sorted within each row */
+	private final int[] rowEdges;
+
+	PolygonEdgeIndex(List<VectorXZ> vertexLoop) {
+
+		this.vertexLoop = vertexLoop;
+
+		int edgeCount = vertexLoop.size() - 1;
+
+		double minZ = Double.POSITIVE_INFINITY;
+		double maxZ = Double.NEGATIVE_INFINITY;
+		for (VectorXZ v : vertexLoop) {
+			minZ = min(minZ, v.z);
+			maxZ = max(maxZ, v.z);
+		}
+		this.minZ = minZ;
+		this.maxZ = maxZ;
+
+		if (maxZ > minZ) {
+			rowCount = max(1, edgeCount / EDGES_PER_ROW);
+			rowHeight = (maxZ - minZ) / rowCount;
+		} else {
+			rowCount = 1;
+			rowHeight = 1;
+		}
+
+		/* count the edges in each row, then fill the rows */
+
+		rowStarts = new int[rowCount + 1];
+
+		for (int i = 0; i < edgeCount; i++) {
+			for (int row = firstRow(i); row <= lastRow(i); row++) {
+				rowStarts[row + 1] ++;
+			}
+		}
+
+		for (int row = 0; row < rowCount; row++) {
+			rowStarts[row + 1] += rowStarts[row];
+		}
+
+		rowEdges = new int[rowStarts[rowCount]];
+		int[] rowFill = Arrays.copyOf(rowStarts, rowCount);
+
+		for (int i = 0; i < edgeCount; i++) {
+			for (int row = firstRow(i); row <= lastRow(i); row++) {
+				rowEdges[rowFill[row] ++] = i;
+			}
+		}
+
+	}
+
+	/**
+	 * returns true if the polygon contains a given position.
+	 * Equivalent to {@link org.osm2world.core.math.shapes.SimplePolygonShapeXZ#contains(VectorXZ)}.
+	 */
+	boolean contains(VectorXZ v) {
+
+		/* only edges with min z <= v.z < max z affect the result, and all of them are in v's row */
+
+		if (!(v.z >= minZ && v.z <= maxZ)) {
+			return false;
+		}
+
+		int row = row(v.z);
+
+		boolean c = false;
+
+		for (int k = rowStarts[row]; k < rowStarts[row + 1]; k++) {
+			VectorXZ vi = vertexLoop.get(rowEdges[k] + 1);
+			VectorXZ vj = vertexLoop.get(rowEdges[k]);
+			if (((vi.z > v.z) != (vj.z > v.z))
+					&& (v.x < (vj.x - vi.x) * (v.z - vi.z) / (vj.z - vi.z) + vi.x)) {
+				c = !c;
+			}
+		}
+
+		return c;
+
+	}
+
+	/**
+	 * checks whether the polygon's outline intersects a line segment.
+	 * Equivalent to {@link org.osm2world.core.math.shapes.PolygonShapeXZ#intersects(VectorXZ, VectorXZ)}.
+	 */
+	boolean intersects(VectorXZ segmentP1, VectorXZ segmentP2) {
+
+		for (int i : candidateEdges(segmentP1, segmentP2)) {
+			if (GeometryUtil.getTrueLineSegmentIntersection(segmentP1, segmentP2,
+					vertexLoop.get(i), vertexLoop.get(i + 1)) != null) {
+				return true;
+			}
+		}
+
+		return false;
+
+	}
+
+	/**
+	 * returns the intersections of the polygon's outline with a line segment, ordered by edge.
+	 * Equivalent to {@link org.osm2world.core.math.shapes.SimplePolygonShapeXZ#intersectionPositions(LineSegmentXZ)}.
+	 */
+	List<VectorXZ> intersectionPositions(LineSegmentXZ lineSegment) {
+
+		List<VectorXZ> result = new ArrayList<>();
+
+		for (int i : candidateEdges(lineSegment.p1, lineSegment.p2)) {
+			VectorXZ intersection = GeometryUtil.getTrueLineSegmentIntersection(lineSegment.p1, lineSegment.p2,
+					vertexLoop.get(i), vertexLoop.get(i + 1));
+			if (intersection != null) {
+				result.add(intersection);
+			}
+		}
+
+		return result;
+
+	}
+
+	/**
+	 * returns the indices of all edges which might intersect a line segment, in ascending order and without duplicates.
+	 */
+	private int[] candidateEdges(VectorXZ segmentP1, VectorXZ segmentP2) {
+
+		double segmentMinX = min(segmentP1.x, segmentP2.x) - TOLERANCE;
+		double segmentMaxX = max(segmentP1.x, segmentP2.x) + TOLERANCE;
+		double segmentMinZ = min(segmentP1.z, segmentP2.z) - TOLERANCE;
+		double segmentMaxZ = max(segmentP1.z, segmentP2.z) + TOLERANCE;
+
+		if (segmentMaxZ < minZ || segmentMinZ > maxZ) {
+			return new int[0];
+		}
+
+		int firstRow = row(segmentMinZ);
+		int lastRow = row(segmentMaxZ);
+
+		int[] result;
+		int count = 0;
+
+		if (rowStarts[lastRow + 1] - rowStarts[firstRow] > vertexLoop.size() / 2) {
+
+			/* the segment spans a large part of the polygon, checking each edge once is cheaper */
+
+			result = new int[vertexLoop.size() - 1];
+			for (int i = 0; i < result.length; i++) {
+				if (edgeOverlaps(i, segmentMinX, segmentMaxX, segmentMinZ, segmentMaxZ)) {
+					result[count++] = i;
+				}
+			}
+
+		} else {
+
+			result = new int[rowStarts[lastRow + 1] - rowStarts[firstRow]];
+			for (int k = rowStarts[firstRow]; k < rowStarts[lastRow + 1]; k++) {
+				if (edgeOverlaps(rowEdges[k], segmentMinX, segmentMaxX, segmentMinZ, segmentMaxZ)) {
+					result[count++] = rowEdges[k];
+				}
+			}
+
+			/* edges spanning several rows have been found more than once */
+
+			if (firstRow != lastRow) {
+				Arrays.sort(result, 0, count);
+				int uniqueCount = 0;
+				for (int k = 0; k < count; k++) {
+					if (uniqueCount == 0 || result[uniqueCount - 1] != result[k]) {
+						result[uniqueCount++] = result[k];
+					}
+				}
+				count = uniqueCount;
+			}
+
+		}
+
+		return Arrays.copyOf(result, count);
+
+	}
+
+	private boolean edgeOverlaps(int i, double minX, double maxX, double minZ, double maxZ) {
+		VectorXZ v1 = vertexLoop.get(i);
+		VectorXZ v2 = vertexLoop.get(i + 1);
+		return min(v1.x, v2.x) <= maxX && max(v1.x, v2.x) >= minX
+				&& min(v1.z, v2.z) <= maxZ && max(v1.z, v2.z) >= minZ;
+	}
+
+	private int firstRow(int edge) {
+		return row(min(vertexLoop.get(edge).z, vertexLoop.get(edge + 1).z));
+	}
+
+	private int lastRow(int edge) {
+		return row(max(vertexLoop.get(edge).z, vertexLoop.get(edge + 1).z));
+	}
+
+	/**
+	 * returns the row containing a z coordinate, values outside the polygon's z range are clamped to the first/last row.
+	 * Monotonic in z, which ensures that the rows of a point are always among those of an edge covering its z value.
+	 */
+	private int row(double z) {
+		int row = (int) floor((z - minZ) / rowHeight);
+		return max(0, min(rowCount - 1, row));
+	}
+
+}
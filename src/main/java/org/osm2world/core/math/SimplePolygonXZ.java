@@ -28,14 +28,20 @@ public class SimplePolygonXZ implements SimplePolygonShapeXZ {
 	/** polygon vertices; first and last vertex are equal */
 	protected final List<VectorXZ> vertexLoop;
 
-	/** stores the signed area */
-	private Double signedArea;
+	/**
+	 * the signed area, negative if the polygon is clockwise.
+	 * Calculated in the constructor, so it can be read safely from multiple threads.
+	 */
+	private final double signedArea;
 
-	/** stores the result for {@link #getArea()} */
-	private Double area;
+	/** minimum number of vertices for which a {@link PolygonEdgeIndex} is used */
+	static final int EDGE_INDEX_THRESHOLD = 64;
 
-	/** stores the result for {@link #isClockwise()} */
-	private Boolean clockwise;
+	/** index used for queries on large polygons, created after the first query. See {@link #getEdgeIndex()} */
+	private volatile PolygonEdgeIndex edgeIndex;
+
+	/** whether the polygon has been queried before, used to avoid creating an index for a single query */
+	private boolean queried = false;
 
 	/**
 	 * @param vertexLoop  vertices defining the polygon; first and last vertex must be equal.
@@ -50,6 +56,8 @@ public class SimplePolygonXZ implements SimplePolygonShapeXZ {
 		assertNotSelfIntersecting(vertexLoop);
 		assertNoDuplicates(vertexLoop);
 
+		signedArea = calculateSignedArea(vertexLoop);
+
 	}
 
 	public static final SimplePolygonXZ asSimplePolygon(SimpleClosedShapeXZ shape) {
@@ -130,20 +138,61 @@ public class SimplePolygonXZ implements SimplePolygonShapeXZ {
 		}
 	}
 
-	private void calculateArea() {
-		this.signedArea = calculateSignedArea(vertexLoop);
-		this.area = Math.abs(signedArea);
-		this.clockwise = signedArea < 0;
+	@Override
+	public boolean contains(VectorXZ v) {
+		PolygonEdgeIndex index = getEdgeIndex();
+		if (index != null) {
+			return index.contains(v);
+		} else {
+			return SimplePolygonShapeXZ.super.contains(v);
+		}
+	}
 
-		assertNonzeroArea();
+	@Override
+	public boolean intersects(VectorXZ segmentP1, VectorXZ segmentP2) {
+		PolygonEdgeIndex index = getEdgeIndex();
+		if (index != null) {
+			return index.intersects(segmentP1, segmentP2);
+		} else {
+			return SimplePolygonShapeXZ.super.intersects(segmentP1, segmentP2);
+		}
 	}
 
 	@Override
-	public double getArea() {
-		if (area == null) {
-			calculateArea();
+	public List<VectorXZ> intersectionPositions(LineSegmentXZ lineSegment) {
+		PolygonEdgeIndex index = getEdgeIndex();
+		if (index != null) {
+			return index.intersectionPositions(lineSegment);
+		} else {
+			return SimplePolygonShapeXZ.super.intersectionPositions(lineSegment);
 		}
-		return area;
+	}
+
+	/**
+	 * returns the edge index for this polygon.
+	 * Small polygons don't use an index, and neither do polygons which are only queried once,
+	 * as building the index takes longer than a single query without it.
+	 *
+	 * @return  the index, or null if no index should be used for this query
+	 */
+	private @Nullable PolygonEdgeIndex getEdgeIndex() {
+		PolygonEdgeIndex result = edgeIndex;
+		if (result == null && size() >= EDGE_INDEX_THRESHOLD) {
+			if (!queried) {
+				queried = true;
+			} else {
+				/* the index is immutable, so a race only means that it may be built more than once */
+				result = new PolygonEdgeIndex(vertexLoop);
+				edgeIndex = result;
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public double getArea() {
+		assertNonzeroArea();
+		return Math.abs(signedArea);
 	}
 
 	/**
@@ -201,7 +250,7 @@ public class SimplePolygonXZ implements SimplePolygonShapeXZ {
 	@Override
 	public VectorXZ getCentroid() {
 
-		if (signedArea == null) { calculateArea(); }
+		assertNonzeroArea();
 
 		double xSum = 0, zSum = 0;
 
@@ -224,10 +273,8 @@ public class SimplePolygonXZ implements SimplePolygonShapeXZ {
 	/** returns true if the polygon has clockwise orientation */
 	@Override
 	public boolean isClockwise() {
-		if (area == null) {
-			calculateArea();
-		}
-		return clockwise;
+		assertNonzeroArea();
+		return signedArea < 0;
 	}
 
 
@@ -702,10 +749,10 @@ public class SimplePolygonXZ implements SimplePolygonShapeXZ {
 	 * @throws InvalidGeometryException  if area is 0
 	 */
 	private void assertNonzeroArea() {
-		if (area == 0) {
+		if (signedArea == 0) {
 			throw new InvalidGeometryException(
 					"a polygon's area must be positive, but it's "
-					+ area + " for this polygon.\nThis problem can be caused "
+					+ Math.abs(signedArea) + " for this polygon.\nThis problem can be caused "
 					+ "by broken polygon data or imprecise calculations"
 					+ "\nPolygon vertices: " + vertexLoop);
 		}
@@ -0,0 +1,308 @@
+package org.osm2world.core.math.datastructures;
+
+import static java.lang.Math.*;
+import static java.util.Comparator.comparingDouble;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+import org.osm2world.core.math.AxisAlignedRectangleXZ;
+import org.osm2world.core.math.BoundedObject;
+
+/**
+ * an R-tree which is bulk loaded using the Sort-Tile-Recursive (STR) algorithm.
+ *
+ * Unlike an {@link IndexGrid}, each element is stored exactly once regardless of its size,
+ * and the tree adapts to the density of the data.
+ * Elements can be inserted at any time, but the tree is only (re-)built when it is probed after an insertion.
+ * Probing is thread-safe as long as there are no concurrent insertions.
+ */
+public class STRTree<T extends BoundedObject> implements SpatialIndex<T> {
+
+	static final int DEFAULT_NODE_CAPACITY = 16;
+
+	private final int nodeCapacity;
+
+	private final List<T> elements = new ArrayList<>();
+
+	/** the root of the tree, null if the tree needs to be (re-)built */
+	private volatile Node root = null;
+
+	public STRTree() {
+		this(DEFAULT_NODE_CAPACITY);
+	}
+
+	/** @param nodeCapacity  maximum number of children of each node (and of elements in each leaf); >= 2 */
+	public STRTree(int nodeCapacity) {
+		if (nodeCapacity < 2) {
+			throw new IllegalArgumentException("node capacity must be at least 2");
+		}
+		this.nodeCapacity = nodeCapacity;
+	}
+
+	public STRTree(Collection<? extends T> elements) {
+		this();
+		this.elements.addAll(elements);
+	}
+
+	@Override
+	public void insert(T e) {
+		elements.add(e);
+		root = null;
+	}
+
+	/**
+	 * returns the leaves whose bounding boxes intersect the object's bounding box.
+	 * Because each element is only contained in a single leaf, the result never contains duplicates.
+	 */
+	@Override
+	public List<Leaf> probeLeaves(BoundedObject e) {
+
+		AxisAlignedRectangleXZ box = e.boundingBox();
+
+		List<Leaf> result = new ArrayList<>();
+
+		Deque<Node> stack = new ArrayDeque<>();
+		stack.push(getRoot());
+
+		while (!stack.isEmpty()) {
+			Node node = stack.pop();
+			if (intersects(node.bounds, box)) {
+				if (node instanceof STRTree.Leaf) {
+					result.add((Leaf) node);
+				} else {
+					for (Node child : ((InnerNode) node).children) {
+						stack.push(child);
+					}
+				}
+			}
+		}
+
+		return result;
+
+	}
+
+	/**
+	 * returns the elements whose bounding boxes intersect the object's bounding box.
+	 * More precise than the elements of {@link #probeLeaves(BoundedObject)}.
+	 */
+	@Override
+	public List<T> probe(BoundedObject e) {
+
+		AxisAlignedRectangleXZ box = e.boundingBox();
+
+		List<T> result = new ArrayList<>();
+
+		for (Leaf leaf : probeLeaves(e)) {
+			for (int i = 0; i < leaf.elements.size(); i++) {
+				if (intersects(leaf.boxes[i], box)) {
+					result.add(leaf.elements.get(i));
+				}
+			}
+		}
+
+		return result;
+
+	}
+
+	@Override
+	public List<Leaf> getLeaves() {
+
+		List<Leaf> result = new ArrayList<>();
+
+		Deque<Node> stack = new ArrayDeque<>();
+		stack.push(getRoot());
+
+		while (!stack.isEmpty()) {
+			Node node = stack.pop();
+			if (node instanceof STRTree.Leaf) {
+				if (!((Leaf) node).elements.isEmpty()) {
+					result.add((Leaf) node);
+				}
+			} else {
+				for (Node child : ((InnerNode) node).children) {
+					stack.push(child);
+				}
+			}
+		}
+
+		return result;
+
+	}
+
+	/** returns the height of the tree, 1 if the root is a leaf */
+	int getHeight() {
+		int height = 1;
+		for (Node node = getRoot(); node instanceof STRTree.InnerNode; node = ((InnerNode) node).children.get(0)) {
+			height++;
+		}
+		return height;
+	}
+
+	private Node getRoot() {
+		Node result = root;
+		if (result == null) {
+			synchronized (this) {
+				result = root;
+				if (result == null) {
+					result = build();
+					root = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	private Node build() {
+
+		if (elements.isEmpty()) {
+			return new Leaf(new AxisAlignedRectangleXZ(0, 0, 0, 0), List.of(), new AxisAlignedRectangleXZ[0]);
+		}
+
+		/* build the leaves */
+
+		List<BoxedElement> boxedElements = new ArrayList<>(elements.size());
+		for (T element : elements) {
+			boxedElements.add(new BoxedElement(element, element.boundingBox()));
+		}
+
+		List<Node> nodes = new ArrayList<>();
+
+		for (List<BoxedElement> group : pack(boxedElements, it -> it.box)) {
+			List<T> leafElements = new ArrayList<>(group.size());
+			AxisAlignedRectangleXZ[] boxes = new AxisAlignedRectangleXZ[group.size()];
+			for (int i = 0; i < group.size(); i++) {
+				leafElements.add(group.get(i).element);
+				boxes[i] = group.get(i).box;
+			}
+			nodes.add(new Leaf(union(List.of(boxes)), leafElements, boxes));
+		}
+
+		/* build the inner nodes level by level */
+
+		while (nodes.size() > 1) {
+			List<Node> parents = new ArrayList<>();
+			for (List<Node> group : pack(nodes, it -> it.bounds)) {
+				List<AxisAlignedRectangleXZ> boxes = new ArrayList<>(group.size());
+				group.forEach(it -> boxes.add(it.bounds));
+				parents.add(new InnerNode(union(boxes), group));
+			}
+			nodes = parents;
+		}
+
+		return nodes.get(0);
+
+	}
+
+	/**
+	 * groups entries into runs of at most {@link #nodeCapacity} entries which are close to each other.
+	 * The entries are sorted into vertical slices by x coordinate, then each slice is sorted by z coordinate.
+	 */
+	private <E> List<List<E>> pack(List<E> entries, Function<E, AxisAlignedRectangleXZ> getBox) {
+
+		int groupCount = (entries.size() + nodeCapacity - 1) / nodeCapacity;
+		int sliceCount = (int) ceil(sqrt(groupCount));
+		int sliceSize = sliceCount * nodeCapacity;
+
+		List<E> sortedEntries = new ArrayList<>(entries);
+		sortedEntries.sort(comparingDouble(e -> getBox.apply(e).minX + getBox.apply(e).maxX));
+
+		List<List<E>> result = new ArrayList<>(groupCount);
+
+		for (int sliceStart = 0; sliceStart < sortedEntries.size(); sliceStart += sliceSize) {
+
+			List<E> slice = new ArrayList<>(sortedEntries.subList(sliceStart,
+					min(sortedEntries.size(), sliceStart + sliceSize)));
+			slice.sort(comparingDouble(e -> getBox.apply(e).minZ + getBox.apply(e).maxZ));
+
+			for (int groupStart = 0; groupStart < slice.size(); groupStart += nodeCapacity) {
+				result.add(slice.subList(groupStart, min(slice.size(), groupStart + nodeCapacity)));
+			}
+
+		}
+
+		return result;
+
+	}
+
+	private static AxisAlignedRectangleXZ union(List<AxisAlignedRectangleXZ> boxes) {
+		double minX = Double.POSITIVE_INFINITY;
+		double minZ = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		double maxZ = Double.NEGATIVE_INFINITY;
+		for (AxisAlignedRectangleXZ box : boxes) {
+			minX = min(minX, box.minX);
+			minZ = min(minZ, box.minZ);
+			maxX = max(maxX, box.maxX);
+			maxZ = max(maxZ, box.maxZ);
+		}
+		return new AxisAlignedRectangleXZ(minX, minZ, maxX, maxZ);
+	}
+
+	/**
+	 * checks whether two boxes intersect. Unlike {@link AxisAlignedRectangleXZ#overlaps(AxisAlignedRectangleXZ)},
+	 * this includes boxes which merely touch, and degenerate boxes (such as those of points).
+	 */
+	private static boolean intersects(AxisAlignedRectangleXZ a, AxisAlignedRectangleXZ b) {
+		return a.minX <= b.maxX && b.minX <= a.maxX
+				&& a.minZ <= b.maxZ && b.minZ <= a.maxZ;
+	}
+
+	private class BoxedElement {
+
+		final T element;
+		final AxisAlignedRectangleXZ box;
+
+		BoxedElement(T element, AxisAlignedRectangleXZ box) {
+			this.element = element;
+			this.box = box;
+		}
+
+	}
+
+	private abstract class Node {
+
+		final AxisAlignedRectangleXZ bounds;
+
+		Node(AxisAlignedRectangleXZ bounds) {
+			this.bounds = bounds;
+		}
+
+	}
+
+	private class InnerNode extends Node {
+
+		final List<Node> children;
+
+		InnerNode(AxisAlignedRectangleXZ bounds, List<Node> children) {
+			super(bounds);
+			this.children = children;
+		}
+
+	}
+
+	/** a leaf of the tree, contains elements along with their bounding boxes */
+	public class Leaf extends Node implements Iterable<T> {
+
+		private final List<T> elements;
+		private final AxisAlignedRectangleXZ[] boxes;
+
+		private Leaf(AxisAlignedRectangleXZ bounds, List<T> elements, AxisAlignedRectangleXZ[] boxes) {
+			super(bounds);
+			this.elements = elements;
+			this.boxes = boxes;
+		}
+
+		@Override
+		public Iterator<T> iterator() {
+			return elements.iterator();
+		}
+
+	}
+
+}
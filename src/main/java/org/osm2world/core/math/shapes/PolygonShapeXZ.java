@@ -5,6 +5,7 @@ import static java.util.stream.Collectors.toList;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.function.Function;
 
@@ -88,7 +89,10 @@ public interface PolygonShapeXZ extends ClosedShapeXZ {
 	/** returns true if this polygon contains the parameter polygon */
 	public default boolean contains(PolygonShapeXZ p) {
 		//FIXME: it is possible that a polygon contains all vertices of another polygon, but still not the entire polygon
-		List<VectorXZ> vertexLoop = vertices();
+		Collection<VectorXZ> vertexLoop = vertices();
+		if (vertexLoop.size() > 16 && p.vertices().size() > 16) {
+			vertexLoop = new HashSet<>(vertexLoop);
+		}
 		for (VectorXZ v : p.vertices()) {
 			if (!vertexLoop.contains(v) && !this.contains(v)) {
 				return false;
@@ -0,0 +1,302 @@
+package org.osm2world.core.osm.creation;
+
+import static java.lang.Math.*;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Predicate;
+
+import org.osm2world.core.map_data.creation.LatLonBounds;
+import org.osm2world.core.osm.creation.OSMStreamReader.CompressionMethod;
+import org.osm2world.core.osm.data.OSMData;
+
+import com.slimjars.dist.gnu.trove.map.TLongObjectMap;
+import com.slimjars.dist.gnu.trove.map.hash.TLongObjectHashMap;
+import com.slimjars.dist.gnu.trove.set.TLongSet;
+import com.slimjars.dist.gnu.trove.set.hash.TLongHashSet;
+
+import de.topobyte.osm4j.core.access.OsmIterator;
+import de.topobyte.osm4j.core.dataset.InMemoryMapDataSet;
+import de.topobyte.osm4j.core.model.iface.EntityContainer;
+import de.topobyte.osm4j.core.model.iface.EntityType;
+import de.topobyte.osm4j.core.model.iface.OsmNode;
+import de.topobyte.osm4j.core.model.iface.OsmRelation;
+import de.topobyte.osm4j.core.model.iface.OsmRelationMember;
+import de.topobyte.osm4j.core.model.iface.OsmTag;
+import de.topobyte.osm4j.core.model.iface.OsmWay;
+import de.topobyte.osm4j.core.model.impl.Bounds;
+
+/**
+ * {@link OSMDataReader} extracting the data within a bounding box from a (potentially very large) .osm or .osm.pbf
+ * file. Unlike {@link OSMFileReader}, only the extracted data is kept in memory.
+ *
+ * The file is streamed up to three times: The first pass collects the nodes within the bounds,
+ * the ways using any of these nodes and the relations with any of these nodes or ways as members.
+ * The second pass adds the remaining member ways of multipolygon relations,
+ * and the third pass adds the nodes of all ways which are outside the bounds. This matches the result of
+ * a bounding box query with the Overpass API, so ways crossing the edge of the bounds are complete.
+ *
+ * Only uncompressed .osm files and .osm.pbf files sorted in the usual order (nodes, then ways, then relations)
+ * can be streamed, see {@link #supports(File)}. Other files, such as those created by JOSM, and files which
+ * turn out not to be sorted are read completely using {@link OSMFileReader}, and the same data is extracted.
+ */
+public class BoundedOSMFileReader implements OSMDataReader {
+
+	private static final double METERS_PER_DEGREE_LAT = 111_320;
+
+	private final File file;
+	private final LatLonBounds bounds;
+
+	/**
+	 * @param margin  distance in meters by which the bounds are extended in all directions
+	 */
+	public BoundedOSMFileReader(File file, LatLonBounds bounds, double margin) throws FileNotFoundException {
+		this.file = file;
+		this.bounds = pad(bounds, margin);
+		if (!file.exists()) {
+			throw new FileNotFoundException(file.toString());
+		}
+	}
+
+	/**
+	 * checks whether a file can be streamed by this reader.
+	 * This is the case for uncompressed .osm files and for .osm.pbf files, unless they have been created by JOSM.
+	 * Other files are read completely using {@link OSMFileReader} before the data within the bounds is extracted.
+	 */
+	public static boolean supports(File file) {
+		CompressionMethod compressionMethod = CompressionMethod.fromFileName(file.getName());
+		return (compressionMethod == CompressionMethod.None || compressionMethod == CompressionMethod.PBF)
+				&& !OSMFileReader.isJOSMGenerated(file);
+	}
+
+	@Override
+	public OSMData getData() throws IOException {
+
+		if (supports(file)) {
+			try {
+				return extractData(this::streamFile);
+			} catch (UnsortedInputException e) {
+				System.out.println("elements in " + file + " are not sorted, reading the entire file");
+			}
+		}
+
+		OSMData completeData = new OSMFileReader(file).getData();
+
+		return extractData(visitor -> {
+			for (OsmNode node : completeData.getNodes()) {
+				if (!visitor.test(new EntityContainer(EntityType.Node, node))) return;
+			}
+			for (OsmWay way : completeData.getWays()) {
+				if (!visitor.test(new EntityContainer(EntityType.Way, way))) return;
+			}
+			for (OsmRelation relation : completeData.getRelations()) {
+				if (!visitor.test(new EntityContainer(EntityType.Relation, relation))) return;
+			}
+		});
+
+	}
+
+	/**
+	 * a sequence of entities, sorted in the usual order, which can be iterated over several times
+	 */
+	@FunctionalInterface
+	private static interface EntitySource {
+
+		/** passes the entities to a visitor until it returns false */
+		void forEach(Predicate<EntityContainer> visitor) throws IOException;
+
+	}
+
+	/** thrown if the input turns out not to be sorted in the usual order */
+	private static class UnsortedInputException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+	}
+
+	private OSMData extractData(EntitySource source) throws IOException {
+
+		TLongObjectMap<OsmNode> nodes = new TLongObjectHashMap<>();
+		TLongObjectMap<OsmWay> ways = new TLongObjectHashMap<>();
+		TLongObjectMap<OsmRelation> relations = new TLongObjectHashMap<>();
+
+		TLongSet missingNodeIds = new TLongHashSet();
+		TLongSet missingWayIds = new TLongHashSet();
+
+		/* first pass: nodes within the bounds, ways and relations referencing them */
+
+		EntityType[] previousType = { EntityType.Node };
+
+		source.forEach(container -> {
+
+			if (rank(container.getType()) < rank(previousType[0])) {
+				throw new UnsortedInputException();
+			}
+
+			previousType[0] = container.getType();
+
+			switch (container.getType()) {
+
+			case Node:
+				OsmNode node = (OsmNode) container.getEntity();
+				if (contains(bounds, node)) {
+					nodes.put(node.getId(), node);
+				}
+				break;
+
+			case Way:
+				OsmWay way = (OsmWay) container.getEntity();
+				if (hasNodeIn(way, nodes)) {
+					addWay(way, ways, nodes, missingNodeIds);
+				}
+				break;
+
+			case Relation:
+				OsmRelation relation = (OsmRelation) container.getEntity();
+				if (hasMemberIn(relation, nodes, ways, relations)) {
+					relations.put(relation.getId(), relation);
+					if (isMultipolygon(relation)) {
+						for (int i = 0; i < relation.getNumberOfMembers(); i++) {
+							OsmRelationMember member = relation.getMember(i);
+							if (member.getType() == EntityType.Way && !ways.containsKey(member.getId())) {
+								missingWayIds.add(member.getId());
+							}
+						}
+					}
+				}
+				break;
+
+			}
+
+			return true;
+
+		});
+
+		/* second pass: remaining member ways of multipolygons */
+
+		if (!missingWayIds.isEmpty()) {
+			source.forEach(container -> {
+				if (container.getType() == EntityType.Relation) {
+					return false;
+				} else if (container.getType() == EntityType.Way
+						&& missingWayIds.contains(container.getEntity().getId())) {
+					addWay((OsmWay) container.getEntity(), ways, nodes, missingNodeIds);
+				}
+				return true;
+			});
+		}
+
+		/* third pass: nodes of the ways which are outside the bounds */
+
+		if (!missingNodeIds.isEmpty()) {
+			source.forEach(container -> {
+				if (container.getType() != EntityType.Node) {
+					return false;
+				} else if (missingNodeIds.contains(container.getEntity().getId())) {
+					nodes.put(container.getEntity().getId(), (OsmNode) container.getEntity());
+				}
+				return true;
+			});
+		}
+
+		InMemoryMapDataSet data = new InMemoryMapDataSet();
+		data.setNodes(nodes);
+		data.setWays(ways);
+		data.setRelations(relations);
+		data.setBounds(new Bounds(bounds.minlon, bounds.maxlon, bounds.maxlat, bounds.minlat));
+		return new OSMData(data);
+
+	}
+
+	/** streams the file, see {@link EntitySource} */
+	private void streamFile(Predicate<EntityContainer> visitor) throws IOException {
+		try (InputStream is = openFile()) {
+			for (EntityContainer container : createIterator(is)) {
+				if (!visitor.test(container)) break;
+			}
+		}
+	}
+
+	/** position of an entity type in the usual order of OSM files */
+	private static int rank(EntityType type) {
+		return switch (type) {
+			case Node -> 0;
+			case Way -> 1;
+			case Relation -> 2;
+		};
+	}
+
+	private InputStream openFile() throws IOException {
+		return new BufferedInputStream(new FileInputStream(file));
+	}
+
+	private OsmIterator createIterator(InputStream inputStream) throws IOException {
+		return OSMStreamReader.createIterator(inputStream, CompressionMethod.fromFileName(file.getName()));
+	}
+
+	private static void addWay(OsmWay way, TLongObjectMap<OsmWay> ways,
+			TLongObjectMap<OsmNode> nodes, TLongSet missingNodeIds) {
+		ways.put(way.getId(), way);
+		for (int i = 0; i < way.getNumberOfNodes(); i++) {
+			if (!nodes.containsKey(way.getNodeId(i))) {
+				missingNodeIds.add(way.getNodeId(i));
+			}
+		}
+	}
+
+	private static boolean hasNodeIn(OsmWay way, TLongObjectMap<OsmNode> nodes) {
+		for (int i = 0; i < way.getNumberOfNodes(); i++) {
+			if (nodes.containsKey(way.getNodeId(i))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean hasMemberIn(OsmRelation relation, TLongObjectMap<OsmNode> nodes,
+			TLongObjectMap<OsmWay> ways, TLongObjectMap<OsmRelation> relations) {
+		for (int i = 0; i < relation.getNumberOfMembers(); i++) {
+			OsmRelationMember member = relation.getMember(i);
+			boolean contained = switch (member.getType()) {
+				case Node -> nodes.containsKey(member.getId());
+				case Way -> ways.containsKey(member.getId());
+				case Relation -> relations.containsKey(member.getId());
+			};
+			if (contained) return true;
+		}
+		return false;
+	}
+
+	private static boolean isMultipolygon(OsmRelation relation) {
+		for (int i = 0; i < relation.getNumberOfTags(); i++) {
+			OsmTag tag = relation.getTag(i);
+			if ("type".equals(tag.getKey()) && "multipolygon".equals(tag.getValue())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean contains(LatLonBounds bounds, OsmNode node) {
+		return node.getLatitude() >= bounds.minlat && node.getLatitude() <= bounds.maxlat
+				&& node.getLongitude() >= bounds.minlon && node.getLongitude() <= bounds.maxlon;
+	}
+
+	/** extends bounds by a distance in meters, using a spherical approximation of the earth */
+	static LatLonBounds pad(LatLonBounds bounds, double margin) {
+
+		double maxAbsLat = min(89, max(abs(bounds.minlat), abs(bounds.maxlat)));
+		double metersPerDegreeLon = METERS_PER_DEGREE_LAT * cos(toRadians(maxAbsLat));
+
+		double marginLat = margin / METERS_PER_DEGREE_LAT;
+		double marginLon = margin / metersPerDegreeLon;
+
+		return new LatLonBounds(
+				max(-90, bounds.minlat - marginLat), max(-180, bounds.minlon - marginLon),
+				min(90, bounds.maxlat + marginLat), min(180, bounds.maxlon + marginLon));
+
+	}
+
+}
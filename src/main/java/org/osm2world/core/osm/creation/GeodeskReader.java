@@ -3,40 +3,34 @@ package org.osm2world.core.osm.creation;
 import com.clarisma.common.store.StoreException;
 import com.geodesk.core.Box;
 import com.geodesk.feature.*;
-import com.slimjars.dist.gnu.trove.list.array.TLongArrayList;
-import com.slimjars.dist.gnu.trove.map.TLongObjectMap;
-import com.slimjars.dist.gnu.trove.map.hash.TLongObjectHashMap;
-import de.topobyte.osm4j.core.dataset.InMemoryMapDataSet;
-import de.topobyte.osm4j.core.model.iface.*;
+import de.topobyte.osm4j.core.model.iface.EntityType;
 import de.topobyte.osm4j.core.model.impl.Bounds;
-import de.topobyte.osm4j.core.model.impl.RelationMember;
-import de.topobyte.osm4j.core.model.impl.Tag;
-import gnu.trove.map.TObjectLongMap;
-import gnu.trove.map.hash.TObjectLongHashMap;
-import org.osm2world.core.map_data.creation.LatLon;
+import gnu.trove.list.array.TLongArrayList;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
 import org.osm2world.core.map_data.creation.LatLonBounds;
+import org.osm2world.core.osm.data.CompactOSMDataBuilder;
 import org.osm2world.core.osm.data.OSMData;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
-import static java.util.Arrays.stream;
+import static java.lang.Math.round;
 import static java.util.stream.Collectors.toList;
 
 /**
- * {@link OSMDataReader} fetching data from a GeoDesk database (.gol file)
+ * {@link OSMDataReader} fetching data from a GeoDesk database (.gol file).
+ * The features are converted directly into a compact {@link OSMData} representation.
  */
 public class GeodeskReader implements OSMDataReader {
 
-	private static final long ANONYMOUS_NODE_ID_OFFSET = 100_000_000_000L;
-
 	private final File golFile;
 	private final LatLonBounds bounds;
 
-	private final TObjectLongMap<LatLon> anonymousNodeIdMap = new TObjectLongHashMap<>();
-
 	public GeodeskReader(File golFile, LatLonBounds bounds) {
 		this.golFile = golFile;
 		this.bounds = bounds;
@@ -54,9 +48,7 @@ public class GeodeskReader implements OSMDataReader {
 			Box bbox = Box.ofWSEN(bounds.minlon, bounds.minlat, bounds.maxlon, bounds.maxlat);
 			Features<Feature> features = library.in(bbox);
 
-			InMemoryMapDataSet data = geodeskToOsm4j(features);
-
-			return new OSMData(data);
+			return convertFeatures(features);
 
 		} catch (StoreException e) {
 			throw new IOException(e);
@@ -64,8 +56,8 @@ public class GeodeskReader implements OSMDataReader {
 
 	}
 
-	/** converts OSM data in GeoDesk's representation to osm4j's */
-	private InMemoryMapDataSet geodeskToOsm4j(Features<Feature> features) {
+	/** converts OSM data in GeoDesk's representation to {@link OSMData} */
+	private OSMData convertFeatures(Features<Feature> features) {
 
 		/* collect all features to convert (including way nodes and relation members) */
 
@@ -104,83 +96,99 @@ public class GeodeskReader implements OSMDataReader {
 			}
 		}
 
-		/* perform the actual conversion */
+		/* perform the actual conversion. Reading the features' content is the expensive part
+		 * and happens in parallel, only the final insertion into the builder is sequential. */
 
-		TLongObjectMap<OsmNode> osm4jNodeMap = new TLongObjectHashMap<>();
-		TLongObjectMap<OsmWay> osm4jWayMap = new TLongObjectHashMap<>();
-		TLongObjectMap<OsmRelation> osm4jRelationMap = new TLongObjectHashMap<>();
+		CompactOSMDataBuilder builder = new CompactOSMDataBuilder();
 
-		for (long nodeId : golNodeMap.keys()) {
-			Node node = golNodeMap.get(nodeId);
-			var golNode = new de.topobyte.osm4j.core.model.impl.Node(nodeId, node.lon(), node.lat());
-			golNode.setTags(geodeskToOsm4j(node.tags()));
-			osm4jNodeMap.put(nodeId, golNode);
-		}
+		builder.addBounds(new Bounds(bounds.minlon, bounds.maxlon, bounds.maxlat, bounds.minlat));
 
-		for (Way way : golWayMap.valueCollection()) {
+		convertInParallel(golNodeMap.valueCollection(), node -> {
+			long id = nodeId(node);
+			double lat = node.lat();
+			double lon = node.lon();
+			String[] tags = tagArray(node.tags());
+			return b -> b.addNode(id, lat, lon, tags);
+		}).forEach(it -> it.accept(builder));
+
+		convertInParallel(golWayMap.valueCollection(), way -> {
+			long id = way.id();
 			TLongArrayList nodeIds = new TLongArrayList();
 			way.nodes().forEach(n -> nodeIds.add(nodeId(n)));
-			assert(stream(nodeIds.toArray()).allMatch(osm4jNodeMap::containsKey));
-			var golWay = new de.topobyte.osm4j.core.model.impl.Way(way.id(), nodeIds);
-			golWay.setTags(geodeskToOsm4j(way.tags()));
-			osm4jWayMap.put(way.id(), golWay);
-		}
-
-		for (Relation relation : golRelationMap.valueCollection()) {
-			List<OsmRelationMember> members = new ArrayList<>();
-			for (Feature m : relation.members()) {
-				EntityType mType;
+			String[] tags = tagArray(way.tags());
+			return b -> b.addWay(id, nodeIds.toArray(), tags);
+		}).forEach(it -> it.accept(builder));
+
+		convertInParallel(golRelationMap.valueCollection(), relation -> {
+			long id = relation.id();
+			List<Feature> members = new ArrayList<>();
+			relation.members().forEach(members::add);
+			long[] memberIds = new long[members.size()];
+			EntityType[] memberTypes = new EntityType[members.size()];
+			String[] memberRoles = new String[members.size()];
+			for (int i = 0; i < members.size(); i++) {
+				Feature m = members.get(i);
+				memberIds[i] = m.id();
 				if (m instanceof Node) {
-					mType = EntityType.Node;
+					memberTypes[i] = EntityType.Node;
 				} else if (m instanceof Way) {
-					mType = EntityType.Way;
+					memberTypes[i] = EntityType.Way;
 				} else {
-					mType = EntityType.Relation;
+					memberTypes[i] = EntityType.Relation;
 				}
-				members.add(new RelationMember(m.id(), mType, m.role()));
+				memberRoles[i] = m.role();
 			}
-			var golRelation = new de.topobyte.osm4j.core.model.impl.Relation(relation.id(), members);
-			golRelation.setTags(geodeskToOsm4j(relation.tags()));
-			osm4jRelationMap.put(relation.id(), golRelation);
-		}
+			String[] tags = tagArray(relation.tags());
+			return b -> b.addRelation(id, memberIds, memberTypes, memberRoles, tags);
+		}).forEach(it -> it.accept(builder));
 
-		InMemoryMapDataSet data = new InMemoryMapDataSet();
-		data.setNodes(osm4jNodeMap);
-		data.setWays(osm4jWayMap);
-		data.setRelations(osm4jRelationMap);
-		data.setBounds(new Bounds(bounds.minlon, bounds.maxlon, bounds.maxlat, bounds.minlat));
-		return data;
+		return builder.build();
+
+	}
 
+	/**
+	 * converts features using multiple threads (GeoDesk allows concurrent access to features).
+	 * The results are operations adding the converted feature to a {@link CompactOSMDataBuilder}.
+	 */
+	private static <F extends Feature> List<Consumer<CompactOSMDataBuilder>> convertInParallel(
+			Collection<F> features, Function<F, Consumer<CompactOSMDataBuilder>> conversion) {
+		return new ArrayList<>(features).parallelStream().map(conversion).collect(toList());
 	}
 
-	private List<? extends OsmTag> geodeskToOsm4j(Tags geodeskTags) {
+	/** returns GeoDesk tags as alternating keys and values */
+	private static String[] tagArray(Tags geodeskTags) {
 		Map<String, Object> tagMap = geodeskTags.toMap();
-		if (tagMap.isEmpty()) {
-			return List.of();
-		} else {
-			return tagMap.entrySet().stream()
-					.map(t -> new Tag(t.getKey(), t.getValue().toString()))
-					.collect(toList());
+		String[] result = new String[2 * tagMap.size()];
+		int i = 0;
+		for (Map.Entry<String, Object> tag : tagMap.entrySet()) {
+			result[i++] = tag.getKey();
+			result[i++] = tag.getValue().toString();
 		}
+		return result;
 	}
 
 	private boolean membersShouldBeIncluded(Relation relation) {
 		return relation.hasTag("type", "multipolygon");
 	}
 
-	/** returns the id non-anonymous nodes, or else a fake id based on the coords */
-	private long nodeId(Node node) {
-		if (node.id() >= ANONYMOUS_NODE_ID_OFFSET) {
-			throw new Error("Node id too large: " + node.id());
-		} else if (node.id() != 0) {
+	/** returns the id of non-anonymous nodes, or else a fake id based on the coords */
+	static long nodeId(Node node) {
+		if (node.id() != 0) {
 			return node.id();
 		} else {
-			LatLon pos = new LatLon(node.lat(), node.lon());
-			if (!anonymousNodeIdMap.containsKey(pos)) {
-				anonymousNodeIdMap.put(pos, ANONYMOUS_NODE_ID_OFFSET + anonymousNodeIdMap.size());
-			}
-			return anonymousNodeIdMap.get(pos);
+			return anonymousNodeId(node.lat(), node.lon());
 		}
 	}
 
+	/**
+	 * returns a negative id for an anonymous node at the given coordinates.
+	 * The coordinates (rounded to 10<sup>-7</sup> degrees) are packed into the id, so all anonymous nodes
+	 * at the same location get the same id without needing any shared state.
+	 */
+	static long anonymousNodeId(double lat, double lon) {
+		long latBits = round(lat * 1e7) + 900_000_000L;
+		long lonBits = round(lon * 1e7) + 1_800_000_000L;
+		return -1 - ((latBits << 32) | lonBits);
+	}
+
 }
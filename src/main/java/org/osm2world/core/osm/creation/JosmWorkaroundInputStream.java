@@ -0,0 +1,268 @@
+package org.osm2world.core.osm.creation;
+
+import static java.lang.Double.parseDouble;
+import static java.lang.Math.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import javax.annotation.Nullable;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import de.topobyte.osm4j.core.model.iface.OsmBounds;
+import de.topobyte.osm4j.core.model.impl.Bounds;
+
+/**
+ * OSM XML input stream which applies the workarounds described at
+ * {@link OSMStreamReader#applyJosmWorkarounds(InputStream)} to another stream of OSM XML data.
+ *
+ * The original data is processed with StAX while this stream is being read, so only a small part
+ * of the document is kept in memory at any time. Multiple bounds at the start of the document,
+ * which is where JOSM writes them, are merged into a single bounds element.
+ * Bounds after other elements can no longer be written to the output. They are collected instead,
+ * and the union of all bounds is available from {@link #getMergedBounds()} once the stream has been read.
+ */
+class JosmWorkaroundInputStream extends InputStream {
+
+	private static final String FAKE_VERSION = "424242";
+
+	/** amount of output which is produced at once */
+	private static final int CHUNK_SIZE = 1 << 16;
+
+	private final InputStream originalStream;
+	private final XMLStreamReader reader;
+
+	private final StringWriter outputBuffer = new StringWriter();
+	private final XMLStreamWriter writer;
+
+	private byte[] currentChunk = new byte[0];
+	private int currentChunkPos = 0;
+	private boolean finished = false;
+
+	private int depth = 0;
+	/** depth of the element which is currently being removed, or -1 */
+	private int skipDepth = -1;
+
+	/* union of the bounds which have been found so far */
+	private int boundsCount = 0;
+	private boolean boundsWritten = false;
+	private boolean lateBounds = false;
+	private double minLat = Double.POSITIVE_INFINITY;
+	private double minLon = Double.POSITIVE_INFINITY;
+	private double maxLat = Double.NEGATIVE_INFINITY;
+	private double maxLon = Double.NEGATIVE_INFINITY;
+
+	JosmWorkaroundInputStream(InputStream josmDataInputStream) throws IOException {
+
+		this.originalStream = josmDataInputStream;
+
+		try {
+
+			XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+			inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+			inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+			reader = inputFactory.createXMLStreamReader(josmDataInputStream);
+
+			writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outputBuffer);
+			writer.writeStartDocument("UTF-8", "1.0");
+
+		} catch (XMLStreamException e) {
+			throw new IOException(e);
+		}
+
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!ensureData()) return -1;
+		return currentChunk[currentChunkPos++] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) return 0;
+		if (!ensureData()) return -1;
+		int count = min(len, currentChunk.length - currentChunkPos);
+		System.arraycopy(currentChunk, currentChunkPos, b, off, count);
+		currentChunkPos += count;
+		return count;
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			reader.close();
+		} catch (XMLStreamException e) {
+			throw new IOException(e);
+		} finally {
+			originalStream.close();
+		}
+	}
+
+	/** makes sure that {@link #currentChunk} has unread bytes, returns false at the end of the document */
+	private boolean ensureData() throws IOException {
+
+		while (currentChunkPos >= currentChunk.length) {
+
+			if (finished) return false;
+
+			try {
+				while (outputBuffer.getBuffer().length() < CHUNK_SIZE && !finished) {
+					processNextEvent();
+				}
+				writer.flush();
+			} catch (XMLStreamException e) {
+				throw new IOException(e);
+			}
+
+			/* the buffer only contains complete events, so surrogate pairs are never split */
+			currentChunk = outputBuffer.toString().getBytes(StandardCharsets.UTF_8);
+			currentChunkPos = 0;
+			outputBuffer.getBuffer().setLength(0);
+
+		}
+
+		return true;
+
+	}
+
+	private void processNextEvent() throws XMLStreamException {
+
+		if (!reader.hasNext()) {
+			writer.writeEndDocument();
+			finished = true;
+			return;
+		}
+
+		switch (reader.next()) {
+
+		case XMLStreamConstants.START_ELEMENT:
+
+			depth += 1;
+
+			if (skipDepth >= 0) break;
+
+			String name = reader.getLocalName();
+
+			if (depth == 2 && "bounds".equals(name)) {
+				addBounds();
+				skipDepth = depth;
+				break;
+			}
+
+			if (depth == 2) {
+				writeMergedBounds();
+			}
+
+			boolean isEntity = depth == 2
+					&& ("node".equals(name) || "way".equals(name) || "relation".equals(name));
+
+			if (isEntity && "delete".equals(reader.getAttributeValue(null, "action"))) {
+				skipDepth = depth;
+				break;
+			}
+
+			writer.writeStartElement(name);
+
+			for (int i = 0; i < reader.getAttributeCount(); i++) {
+				writer.writeAttribute(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+			}
+
+			if (isEntity && reader.getAttributeValue(null, "version") == null) {
+				writer.writeAttribute("version", FAKE_VERSION);
+			}
+
+			break;
+
+		case XMLStreamConstants.END_ELEMENT:
+
+			if (skipDepth >= 0) {
+				if (depth == skipDepth) {
+					skipDepth = -1;
+				}
+			} else {
+				if (depth == 1) {
+					writeMergedBounds();
+				}
+				writer.writeEndElement();
+			}
+
+			depth -= 1;
+
+			break;
+
+		default:
+			/* OSM XML does not contain text, so whitespace, comments etc. can be dropped */
+			break;
+
+		}
+
+	}
+
+	/**
+	 * returns true if bounds have been found after other elements,
+	 * which means that the bounds in the output don't include them
+	 */
+	boolean hasLateBounds() {
+		return lateBounds;
+	}
+
+	/**
+	 * returns the union of all bounds in the document which have been read so far, or null if there are none.
+	 * This includes bounds after other elements, see {@link #hasLateBounds()}.
+	 */
+	@Nullable OsmBounds getMergedBounds() {
+		if (boundsCount == 0) {
+			return null;
+		} else {
+			return new Bounds(minLon, maxLon, maxLat, minLat);
+		}
+	}
+
+	private void addBounds() {
+
+		if (boundsWritten && !lateBounds) {
+			lateBounds = true;
+			System.err.println("WARNING: input file contains <bounds> after other elements." +
+					" They are merged with the other bounds after reading the file.");
+		}
+
+		boundsCount += 1;
+		minLat = min(minLat, parseDouble(reader.getAttributeValue(null, "minlat")));
+		minLon = min(minLon, parseDouble(reader.getAttributeValue(null, "minlon")));
+		maxLat = max(maxLat, parseDouble(reader.getAttributeValue(null, "maxlat")));
+		maxLon = max(maxLon, parseDouble(reader.getAttributeValue(null, "maxlon")));
+
+	}
+
+	/** writes the union of all bounds found so far, unless this has already happened */
+	private void writeMergedBounds() throws XMLStreamException {
+
+		if (boundsWritten) return;
+
+		boundsWritten = true;
+
+		if (boundsCount == 0) return;
+
+		if (boundsCount > 1) {
+			System.err.println("WARNING: input file contains multiple <bounds>." +
+					" This can lead to wrong coastlines and other issues.");
+		}
+
+		writer.writeStartElement("bounds");
+		writer.writeAttribute("minlat", Double.toString(minLat));
+		writer.writeAttribute("minlon", Double.toString(minLon));
+		writer.writeAttribute("maxlat", Double.toString(maxLat));
+		writer.writeAttribute("maxlon", Double.toString(maxLon));
+		writer.writeEndElement();
+
+	}
+
+}
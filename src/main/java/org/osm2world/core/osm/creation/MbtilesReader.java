@@ -1,50 +1,46 @@
 package org.osm2world.core.osm.creation;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.imintel.mbtiles4j.MBTilesReadException;
-import org.imintel.mbtiles4j.MBTilesReader;
 import org.imintel.mbtiles4j.Tile;
+import org.osm2world.core.osm.data.CompactOSMDataBuilder;
 import org.osm2world.core.osm.data.OSMData;
 import org.osm2world.core.target.common.rendering.TileNumber;
 
 import de.topobyte.osm4j.core.access.OsmIterator;
-import de.topobyte.osm4j.core.dataset.InMemoryMapDataSet;
-import de.topobyte.osm4j.core.dataset.MapDataSetLoader;
 import de.topobyte.osm4j.pbf.seq.PbfIterator;
 
 /**
  * {@link OSMDataReader} fetching a single tile from a MBTiles sqlite database which contains .osm.pbf data.
+ * Connections to the database are shared using a {@link MbtilesReaderPool},
+ * and recently decoded tiles are kept in memory.
  */
 public class MbtilesReader implements OSMDataReader {
 
-	/**
-	 * map of existing readers.
-	 * Necessary to avoid more than one reader (and thus connection) to be created by separate threads.
-	 * Access through {@link #getReader(File)}!
-	 * //TODO move into a separate MbtilesReaderPool class so I can enforce access restrictions?
-	 */
-	private static Map<File, MBTilesReader> readerMap = new HashMap<>();
-	//TODO reference counter, closing it
+	/** maximum number of tiles in {@link #tileCache} */
+	private static final int MAX_CACHED_TILES = 64;
 
-	private static synchronized MBTilesReader getReader(File mbtilesFile)
-			throws MBTilesReadException, FileNotFoundException {
+	private static final MbtilesReaderPool readerPool = new MbtilesReaderPool();
 
-		if (!readerMap.containsKey(mbtilesFile)) {
-			if (!mbtilesFile.exists()) {
-				throw new FileNotFoundException("MBTiles file does not exist: " + mbtilesFile);
-			}
-			readerMap.put(mbtilesFile, new MBTilesReader(mbtilesFile));
+	/**
+	 * recently decoded tiles, shared between all instances.
+	 * Contains futures so that threads requesting a tile which is currently being decoded will wait for the result
+	 * instead of decoding the tile again.
+	 */
+	private static final Map<TileKey, CompletableFuture<OSMData>> tileCache = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<TileKey, CompletableFuture<OSMData>> eldest) {
+			return size() > MAX_CACHED_TILES;
 		}
-
-		return readerMap.get(mbtilesFile);
-
-	}
+	};
 
 	private final File mbtilesFile;
 	private final TileNumber tile;
@@ -54,24 +50,64 @@ public class MbtilesReader implements OSMDataReader {
 		this.tile = tile;
 	}
 
+	/**
+	 * returns the tile's data. The result may be shared with other callers requesting the same tile,
+	 * so it must not be modified.
+	 */
 	@Override
 	public OSMData getData() throws IOException {
 
-		MBTilesReader r = null;
+		TileKey key = new TileKey(mbtilesFile, mbtilesFile.lastModified(), tile);
+
+		CompletableFuture<OSMData> future;
+		boolean isNewFuture = false;
+
+		synchronized (tileCache) {
+			future = tileCache.get(key);
+			if (future == null) {
+				future = new CompletableFuture<>();
+				tileCache.put(key, future);
+				isNewFuture = true;
+			}
+		}
+
+		if (isNewFuture) {
+			try {
+				future.complete(readTile());
+			} catch (IOException | RuntimeException e) {
+				synchronized (tileCache) {
+					tileCache.remove(key, future);
+				}
+				future.completeExceptionally(e);
+			}
+		}
 
 		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			} else {
+				throw e;
+			}
+		}
+
+	}
+
+	private OSMData readTile() throws IOException {
 
-			r = getReader(mbtilesFile);
+		try (MbtilesReaderPool.Lease lease = readerPool.acquire(mbtilesFile)) {
 
 			// get the tile; note that mbtiles is using TMS tile coords, which have a flipped y axis
-			Tile t = r.getTile(tile.zoom, tile.x, tile.flippedY());
+			Tile t = lease.getReader().getTile(tile.zoom, tile.x, tile.flippedY());
 
 			try (InputStream is = t.getData()) {
 
-				OsmIterator iterator = new PbfIterator(is, true);
+				OsmIterator iterator = new PbfIterator(is, false);
 
-				InMemoryMapDataSet data = MapDataSetLoader.read(iterator, true, true, true);
-				return new OSMData(data);
+				CompactOSMDataBuilder builder = new CompactOSMDataBuilder();
+				builder.addAll(iterator);
+				return builder.build();
 
 			}
 
@@ -81,4 +117,33 @@ public class MbtilesReader implements OSMDataReader {
 
 	}
 
+	/** identifies a tile in a specific version of an MBTiles file */
+	private static class TileKey {
+
+		private final File file;
+		private final long lastModified;
+		private final TileNumber tile;
+
+		TileKey(File file, long lastModified, TileNumber tile) {
+			this.file = file;
+			this.lastModified = lastModified;
+			this.tile = tile;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(file, lastModified, tile);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof TileKey)) return false;
+			TileKey other = (TileKey) obj;
+			return file.equals(other.file)
+					&& lastModified == other.lastModified
+					&& tile.equals(other.tile);
+		}
+
+	}
+
 }
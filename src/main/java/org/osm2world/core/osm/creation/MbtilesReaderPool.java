@@ -0,0 +1,238 @@
+package org.osm2world.core.osm.creation;
+
+import static java.lang.Math.max;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.imintel.mbtiles4j.MBTilesReadException;
+import org.imintel.mbtiles4j.MBTilesReader;
+
+/**
+ * shares connections to MBTiles files between {@link MbtilesReader} instances, including ones on different threads.
+ *
+ * Each connection is only used by one thread at a time, but several connections to the same file can be open
+ * to allow concurrent reading. Connections are handed out as {@link Lease}s. Released connections are kept
+ * for re-use, even if no other leases for the same file are active, so reading many tiles one after another
+ * doesn't open a new connection for each tile. Connections which have been idle for longer than the idle timeout
+ * are closed in the background. {@link #close()} closes all idle connections immediately.
+ */
+class MbtilesReaderPool implements AutoCloseable {
+
+	/** default for the time after which idle connections are closed */
+	static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 60_000;
+
+	/** closes idle connections of all pools, does not prevent the JVM from exiting */
+	private static final ScheduledExecutorService cleanupExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "mbtiles-connection-cleanup");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private static class IdleReader {
+
+		final MBTilesReader reader;
+		final long idleSince;
+
+		IdleReader(MBTilesReader reader, long idleSince) {
+			this.reader = reader;
+			this.idleSince = idleSince;
+		}
+
+	}
+
+	private static class Entry {
+		int leaseCount = 0;
+		/** idle connections, most recently released first */
+		final Deque<IdleReader> idleReaders = new ArrayDeque<>();
+	}
+
+	private final long idleTimeoutNanos;
+
+	/* access only while synchronized on the pool */
+	private final Map<File, Entry> entries = new HashMap<>();
+	private boolean cleanupScheduled = false;
+	private boolean closed = false;
+
+	MbtilesReaderPool() {
+		this(DEFAULT_IDLE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+	MbtilesReaderPool(long idleTimeout, TimeUnit unit) {
+		this.idleTimeoutNanos = unit.toNanos(idleTimeout);
+	}
+
+	/** exclusive access to a connection. Must be closed after use. */
+	class Lease implements AutoCloseable {
+
+		private final File file;
+		private final MBTilesReader reader;
+
+		private Lease(File file, MBTilesReader reader) {
+			this.file = file;
+			this.reader = reader;
+		}
+
+		public MBTilesReader getReader() {
+			return reader;
+		}
+
+		@Override
+		public void close() {
+			release(file, reader);
+		}
+
+	}
+
+	/**
+	 * provides a connection to an MBTiles file,
+	 * either by re-using an idle one or by opening a new one
+	 */
+	Lease acquire(File mbtilesFile) throws MBTilesReadException, FileNotFoundException {
+
+		if (!mbtilesFile.exists()) {
+			throw new FileNotFoundException("MBTiles file does not exist: " + mbtilesFile);
+		}
+
+		MBTilesReader reader = null;
+
+		synchronized (this) {
+			Entry entry = entries.computeIfAbsent(mbtilesFile, f -> new Entry());
+			entry.leaseCount += 1;
+			IdleReader idleReader = entry.idleReaders.poll();
+			if (idleReader != null) {
+				reader = idleReader.reader;
+			}
+		}
+
+		if (reader == null) {
+			try {
+				reader = new MBTilesReader(mbtilesFile);
+			} catch (MBTilesReadException | RuntimeException e) {
+				release(mbtilesFile, null);
+				throw e;
+			}
+		}
+
+		return new Lease(mbtilesFile, reader);
+
+	}
+
+	/** number of connections which are currently open for a file, including idle ones */
+	synchronized int getOpenConnectionCount(File mbtilesFile) {
+		Entry entry = entries.get(mbtilesFile);
+		return entry == null ? 0 : entry.leaseCount + entry.idleReaders.size();
+	}
+
+	private void release(File mbtilesFile, MBTilesReader reader) {
+
+		boolean closeReader = false;
+
+		synchronized (this) {
+
+			Entry entry = entries.get(mbtilesFile);
+
+			entry.leaseCount -= 1;
+
+			if (reader != null) {
+				if (closed) {
+					closeReader = true;
+				} else {
+					entry.idleReaders.push(new IdleReader(reader, System.nanoTime()));
+					scheduleCleanup(idleTimeoutNanos);
+				}
+			}
+
+			if (entry.leaseCount == 0 && entry.idleReaders.isEmpty()) {
+				entries.remove(mbtilesFile);
+			}
+
+		}
+
+		if (closeReader) {
+			reader.close();
+		}
+
+	}
+
+	/**
+	 * closes all connections which have been idle for at least a minimum duration
+	 *
+	 * @param now  the current value of {@link System#nanoTime()}
+	 */
+	void closeIdleConnections(long minIdleNanos, long now) {
+
+		List<MBTilesReader> readersToClose = new ArrayList<>();
+
+		synchronized (this) {
+
+			for (Iterator<Entry> it = entries.values().iterator(); it.hasNext(); ) {
+
+				Entry entry = it.next();
+
+				while (!entry.idleReaders.isEmpty() && now - entry.idleReaders.peekLast().idleSince >= minIdleNanos) {
+					readersToClose.add(entry.idleReaders.pollLast().reader);
+				}
+
+				if (entry.leaseCount == 0 && entry.idleReaders.isEmpty()) {
+					it.remove();
+				}
+
+			}
+
+		}
+
+		readersToClose.forEach(MBTilesReader::close);
+
+	}
+
+	/** closes all idle connections. Connections which are currently leased are closed when they are released. */
+	@Override
+	public void close() {
+		synchronized (this) {
+			closed = true;
+		}
+		closeIdleConnections(0, System.nanoTime());
+	}
+
+	/** makes sure that connections will be checked for expired idle timeouts after a delay */
+	private synchronized void scheduleCleanup(long delayNanos) {
+
+		if (cleanupScheduled) return;
+
+		cleanupScheduled = true;
+
+		cleanupExecutor.schedule(() -> {
+
+			closeIdleConnections(idleTimeoutNanos, System.nanoTime());
+
+			synchronized (this) {
+				cleanupScheduled = false;
+				long now = System.nanoTime();
+				long maxIdleNanos = -1;
+				for (Entry entry : entries.values()) {
+					if (!entry.idleReaders.isEmpty()) {
+						maxIdleNanos = max(maxIdleNanos, now - entry.idleReaders.peekLast().idleSince);
+					}
+				}
+				if (maxIdleNanos >= 0) {
+					scheduleCleanup(max(0, idleTimeoutNanos - maxIdleNanos));
+				}
+			}
+
+		}, delayNanos, NANOSECONDS);
+
+	}
+
+}
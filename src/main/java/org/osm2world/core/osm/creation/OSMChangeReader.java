@@ -0,0 +1,188 @@
+package org.osm2world.core.osm.creation;
+
+import static javax.xml.stream.XMLStreamConstants.*;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.osm2world.core.osm.creation.OSMStreamReader.CompressionMethod;
+import org.osm2world.core.osm.data.OSMChange;
+
+import com.slimjars.dist.gnu.trove.list.array.TLongArrayList;
+
+import de.topobyte.osm4j.core.model.iface.EntityType;
+import de.topobyte.osm4j.core.model.iface.OsmRelationMember;
+import de.topobyte.osm4j.core.model.iface.OsmTag;
+import de.topobyte.osm4j.core.model.impl.Node;
+import de.topobyte.osm4j.core.model.impl.Relation;
+import de.topobyte.osm4j.core.model.impl.RelationMember;
+import de.topobyte.osm4j.core.model.impl.Tag;
+import de.topobyte.osm4j.core.model.impl.Way;
+
+/**
+ * reads an {@link OSMChange} from a stream of osmChange XML data,
+ * the format of .osc files and OpenStreetMap's replication diffs.
+ * The data can be compressed with any method supported by {@link OSMStreamReader} except PBF.
+ */
+public class OSMChangeReader {
+
+	private final InputStream inputStream;
+	private final CompressionMethod compressionMethod;
+
+	public OSMChangeReader(InputStream inputStream, CompressionMethod compressionMethod) {
+		this.inputStream = inputStream;
+		this.compressionMethod = compressionMethod;
+	}
+
+	/** reads a .osc file, which may be compressed (e.g. .osc.gz) */
+	public static OSMChange readFile(File file) throws IOException {
+		try (InputStream is = new BufferedInputStream(new FileInputStream(file))) {
+			return new OSMChangeReader(is, CompressionMethod.fromFileName(file.getName())).getChange();
+		}
+	}
+
+	public OSMChange getChange() throws IOException {
+
+		if (compressionMethod == CompressionMethod.PBF) {
+			throw new IllegalArgumentException("osmChange data cannot be read from PBF");
+		}
+
+		OSMChange result = new OSMChange();
+
+		try {
+
+			XMLInputFactory factory = XMLInputFactory.newInstance();
+			factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+
+			XMLStreamReader reader = factory.createXMLStreamReader(
+					OSMStreamReader.decompress(inputStream, compressionMethod));
+
+			/* state of the current action block and entity */
+
+			boolean delete = false;
+
+			long id = 0;
+			double lat = 0;
+			double lon = 0;
+			List<OsmTag> tags = new ArrayList<>();
+			TLongArrayList nodeIds = new TLongArrayList();
+			List<OsmRelationMember> members = new ArrayList<>();
+
+			while (reader.hasNext()) {
+
+				int event = reader.next();
+
+				if (event == START_ELEMENT) {
+
+					switch (reader.getLocalName()) {
+
+					case "create":
+					case "modify":
+						delete = false;
+						break;
+
+					case "delete":
+						delete = true;
+						break;
+
+					case "node":
+					case "way":
+					case "relation":
+						id = Long.parseLong(requiredAttribute(reader, "id"));
+						if (!delete && "node".equals(reader.getLocalName())) {
+							lat = Double.parseDouble(requiredAttribute(reader, "lat"));
+							lon = Double.parseDouble(requiredAttribute(reader, "lon"));
+						}
+						tags = new ArrayList<>();
+						nodeIds = new TLongArrayList();
+						members = new ArrayList<>();
+						break;
+
+					case "tag":
+						tags.add(new Tag(reader.getAttributeValue(null, "k"), reader.getAttributeValue(null, "v")));
+						break;
+
+					case "nd":
+						nodeIds.add(Long.parseLong(requiredAttribute(reader, "ref")));
+						break;
+
+					case "member":
+						members.add(new RelationMember(
+								Long.parseLong(requiredAttribute(reader, "ref")),
+								parseEntityType(requiredAttribute(reader, "type")),
+								reader.getAttributeValue(null, "role")));
+						break;
+
+					}
+
+				} else if (event == END_ELEMENT) {
+
+					switch (reader.getLocalName()) {
+
+					case "node":
+						if (delete) {
+							result.deleteNode(id);
+						} else {
+							result.addNode(new Node(id, lon, lat, tags));
+						}
+						break;
+
+					case "way":
+						if (delete) {
+							result.deleteWay(id);
+						} else {
+							result.addWay(new Way(id, nodeIds, tags));
+						}
+						break;
+
+					case "relation":
+						if (delete) {
+							result.deleteRelation(id);
+						} else {
+							result.addRelation(new Relation(id, members, tags));
+						}
+						break;
+
+					}
+
+				}
+
+			}
+
+			reader.close();
+
+		} catch (XMLStreamException | IllegalArgumentException e) {
+			throw new IOException("could not read osmChange data", e);
+		}
+
+		return result;
+
+	}
+
+	private static String requiredAttribute(XMLStreamReader reader, String name) {
+		String value = reader.getAttributeValue(null, name);
+		if (value == null) {
+			throw new IllegalArgumentException("missing attribute '" + name + "' of " + reader.getLocalName());
+		}
+		return value;
+	}
+
+	private static EntityType parseEntityType(String type) {
+		switch (type) {
+		case "node": return EntityType.Node;
+		case "way": return EntityType.Way;
+		case "relation": return EntityType.Relation;
+		default: throw new IllegalArgumentException("unknown member type: " + type);
+		}
+	}
+
+}
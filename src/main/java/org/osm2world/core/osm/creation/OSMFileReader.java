@@ -1,11 +1,12 @@
 package org.osm2world.core.osm.creation;
 
-import java.io.BufferedReader;
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 
 import org.osm2world.core.osm.creation.OSMStreamReader.CompressionMethod;
 import org.osm2world.core.osm.data.OSMData;
@@ -18,6 +19,9 @@ import org.osm2world.core.osm.data.OSMData;
  */
 public class OSMFileReader implements OSMDataReader {
 
+	/** number of bytes at the start of a file which are searched for JOSM's generator attribute */
+	private static final int JOSM_GENERATOR_PEEK_SIZE = 8192;
+
 	private final File file;
 
 	public OSMFileReader(File file) throws FileNotFoundException {
@@ -34,52 +38,77 @@ public class OSMFileReader implements OSMDataReader {
 	@Override
 	public OSMData getData() throws IOException {
 
-		if (!isJOSMGenerated(file)) {
+		CompressionMethod compressionMethod = CompressionMethod.fromFileName(file.getName());
+
+		try (InputStream is = openFile()) {
+
+			if (!isJOSMGenerated(is)) {
 
-			/* try to read file using osm4j */
+				/* try to read file using osm4j */
+
+				try {
+					return new OSMStreamReader(is, compressionMethod, false).getData();
+				} catch (IOException e) {
+					System.out.println("could not read file, trying workaround for files created by JOSM");
+				}
 
-			try (FileInputStream is = new FileInputStream(file)) {
-				return new OSMStreamReader(is, CompressionMethod.fromFileName(file.getName()), false).getData();
-			} catch (IOException e) {
-				System.out.println("could not read file, trying workaround for files created by JOSM");
+			} else {
+				return readWithJosmWorkaround(is, compressionMethod);
 			}
 
 		}
 
-		/* try reading the file while taking into account JOSM-specific extensions */
+		/* the file could not be read without the workaround, even though it was not created by JOSM */
 
-		try (FileInputStream is = new FileInputStream(file)) {
-			return new OSMStreamReader(is, CompressionMethod.fromFileName(file.getName()), true).getData();
-		} catch (Exception e2) {
-			throw new IOException("could not read OSM file (not even with workaround for JOSM files)", e2);
+		try (InputStream is = openFile()) {
+			return readWithJosmWorkaround(is, compressionMethod);
 		}
 
 	}
 
+	private InputStream openFile() throws IOException {
+		return new BufferedInputStream(new FileInputStream(file), JOSM_GENERATOR_PEEK_SIZE);
+	}
+
+	/** reads the file while taking into account JOSM-specific extensions */
+	private static OSMData readWithJosmWorkaround(InputStream is, CompressionMethod compressionMethod)
+			throws IOException {
+		try {
+			return new OSMStreamReader(is, compressionMethod, true).getData();
+		} catch (Exception e) {
+			throw new IOException("could not read OSM file (not even with workaround for JOSM files)", e);
+		}
+	}
+
 	/**
 	 * Returns true if the file was identified as being generated by JOSM.
-	 * This method peeks into the first lines of the file,
+	 * This method peeks into the start of the file,
 	 * trying to find the generator tag.
 	 */
 	public static final boolean isJOSMGenerated(File file) {
+		try (InputStream is = new BufferedInputStream(new FileInputStream(file), JOSM_GENERATOR_PEEK_SIZE)) {
+			return isJOSMGenerated(is);
+		} catch (IOException e) {
+			return false;
+		}
+	}
 
-		try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+	/**
+	 * version of {@link #isJOSMGenerated(File)} for a stream which supports {@link InputStream#mark(int)}.
+	 * The stream is reset to its original position afterwards.
+	 */
+	static boolean isJOSMGenerated(InputStream is) throws IOException {
 
-			for (int i=0; i<100; i++) {
-				String line = reader.readLine();
-				if (line != null) {
-					if (line.contains("generator='JOSM'")) {
-						return true;
-					}
-				}
-			}
+		is.mark(JOSM_GENERATOR_PEEK_SIZE);
 
-		} catch (IOException e) {
-			// ignore
+		try {
+			byte[] start = is.readNBytes(JOSM_GENERATOR_PEEK_SIZE);
+			String text = new String(start, StandardCharsets.ISO_8859_1);
+			return text.contains("generator='JOSM'") || text.contains("generator=\"JOSM\"");
+		} finally {
+			is.reset();
 		}
 
-		return false;
-
 	}
 
 }
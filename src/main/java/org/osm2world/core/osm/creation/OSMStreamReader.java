@@ -3,37 +3,14 @@ package org.osm2world.core.osm.creation;
 import de.topobyte.osm4j.core.access.OsmIterator;
 import de.topobyte.osm4j.core.dataset.InMemoryMapDataSet;
 import de.topobyte.osm4j.core.dataset.MapDataSetLoader;
-import de.topobyte.osm4j.pbf.seq.PbfIterator;
 import de.topobyte.osm4j.xml.dynsax.OsmXmlIterator;
-import org.apache.commons.io.IOUtils;
-import org.apache.commons.lang.NotImplementedException;
+import org.osm2world.core.osm.data.CompactOSMDataBuilder;
 import org.osm2world.core.osm.data.OSMData;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.StringWriter;
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.List;
-
-import static java.lang.Double.parseDouble;
-import static java.lang.Math.max;
-import static java.lang.Math.min;
+import java.util.zip.GZIPInputStream;
 
 /**
  * {@link OSMDataReader} providing information from a stream of OSM data (such as a {@link FileInputStream}).
@@ -77,30 +54,65 @@ public class OSMStreamReader implements OSMDataReader {
 		if (!useJosmWorkaround) {
 			return getDataFromStream(inputStream, compressionMethod);
 		} else {
-			return getDataFromStream(applyJosmWorkarounds(inputStream), CompressionMethod.None);
+			InputStream xmlStream = decompress(inputStream, compressionMethod);
+			JosmWorkaroundInputStream josmStream = new JosmWorkaroundInputStream(xmlStream);
+			OSMData data = getDataFromStream(josmStream, CompressionMethod.None);
+			if (josmStream.hasLateBounds()) {
+				/* bounds after other elements could not be merged while streaming */
+				InMemoryMapDataSet dataSet = data.getData();
+				dataSet.setBounds(josmStream.getMergedBounds());
+				data = new OSMData(dataSet);
+			}
+			return data;
 		}
 	}
 
 	protected static OSMData getDataFromStream(InputStream inputStream, CompressionMethod compressionMethod)
 			throws IOException {
 
-		OsmIterator iterator;
+		OsmIterator iterator = createIterator(inputStream, compressionMethod);
+
+		if (compressionMethod == CompressionMethod.PBF) {
+			/* PBF coordinates fit the compact store's fixed-point representation without loss */
+			CompactOSMDataBuilder builder = new CompactOSMDataBuilder();
+			builder.addAll(iterator);
+			return builder.build();
+		} else {
+			InMemoryMapDataSet data = MapDataSetLoader.read(iterator, true, true, true);
+			return new OSMData(data);
+		}
+
+	}
+
+	/**
+	 * returns an osm4j iterator over the entities in a stream.
+	 * PBF data is decoded using multiple threads, see {@link ParallelPbfIterator}.
+	 */
+	static OsmIterator createIterator(InputStream inputStream, CompressionMethod compressionMethod)
+			throws IOException {
+		if (compressionMethod == CompressionMethod.PBF) {
+			return new ParallelPbfIterator(inputStream);
+		} else {
+			return new OsmXmlIterator(decompress(inputStream, compressionMethod), true);
+		}
+	}
 
+	/**
+	 * wraps a stream of OSM XML data, which may be compressed, with a stream providing the decompressed XML.
+	 * The decompression happens while the stream is being read.
+	 */
+	static InputStream decompress(InputStream inputStream, CompressionMethod compressionMethod)
+			throws IOException {
 		switch (compressionMethod) {
-		case PBF:
-			iterator = new PbfIterator(inputStream, true);
-			break;
+		case GZip:
+			return new GZIPInputStream(inputStream, 1 << 16);
+		case BZip2:
+			return new ParallelBZip2InputStream(inputStream);
 		case None:
-			iterator = new OsmXmlIterator(inputStream, true);
-			break;
+			return inputStream;
 		default:
-			// TODO: handle compression with GZip or BZip2!
-			throw new NotImplementedException();
+			throw new IllegalArgumentException("not a compressed XML format: " + compressionMethod);
 		}
-
-		InMemoryMapDataSet data = MapDataSetLoader.read(iterator, true, true, true);
-		return new OSMData(data);
-
 	}
 
 	/**
@@ -108,90 +120,11 @@ public class OSMStreamReader implements OSMDataReader {
 	 * and merges multiple bound elements.
 	 *
 	 * The result is provided as an input stream of OSM XML data, which is returned.
+	 * The original data is processed while the result is being read, see {@link JosmWorkaroundInputStream}.
 	 * The generated data should <em>not</em> be used for anything except feeding it to OSM2World.
 	 */
 	protected static InputStream applyJosmWorkarounds(InputStream josmDataInputStream) throws IOException {
-
-		try {
-
-			/* parse original file */
-
-			DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-			DocumentBuilder db = dbf.newDocumentBuilder();
-			Document doc = db.parse(josmDataInputStream);
-
-			/* modify DOM */
-
-			NodeList nodes = doc.getDocumentElement().getChildNodes();
-			List<Node> nodesToDelete = new ArrayList<>();
-			List<Element> boundsElements = new ArrayList<>();
-
-			for (int i = 0; i < nodes.getLength(); i++) {
-				if (nodes.item(i) instanceof Element) {
-					Element element = (Element) nodes.item(i);
-					if ("node".equals(element.getNodeName())
-							|| "way".equals(element.getNodeName())
-							|| "relation".equals(element.getNodeName())) {
-						if ("delete".equals(element.getAttribute("action"))) {
-							nodesToDelete.add(element);
-						} else if (!element.hasAttribute("version")) {
-							element.setAttribute("version", "424242");
-						}
-					} else if ("bounds".equals(element.getNodeName())) {
-						boundsElements.add(element);
-					}
-				}
-			}
-
-			if (boundsElements.size() > 1) {
-
-				double minLat = Double.POSITIVE_INFINITY;
-				double minLon = Double.POSITIVE_INFINITY;
-				double maxLat = Double.NEGATIVE_INFINITY;
-				double maxLon = Double.NEGATIVE_INFINITY;
-
-				for (Element bounds : boundsElements) {
-					minLat = min(minLat, parseDouble(bounds.getAttribute("minlat")));
-					minLon = min(minLon, parseDouble(bounds.getAttribute("minlon")));
-					maxLat = max(maxLat, parseDouble(bounds.getAttribute("maxlat")));
-					maxLon = max(maxLon, parseDouble(bounds.getAttribute("maxlon")));
-				}
-
-				Element firstBounds = boundsElements.remove(0);
-				firstBounds.setAttribute("minlat", Double.toString(minLat));
-				firstBounds.setAttribute("minlon", Double.toString(minLon));
-				firstBounds.setAttribute("maxlat", Double.toString(maxLat));
-				firstBounds.setAttribute("maxlon", Double.toString(maxLon));
-
-				nodesToDelete.addAll(boundsElements);
-
-				System.out.println("WARNING: input file contains multiple <bounds>." +
-						" This can lead to wrong coastlines and other issues."); //TODO proper logging
-
-			}
-
-			for (Node node : nodesToDelete) {
-				doc.getDocumentElement().removeChild(node);
-			}
-
-			/* write result */
-
-			// temporary UTF-16 string representation, avoids incorrectly encoded emojis
-			StringWriter stringWriter = new StringWriter();
-			stringWriter.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
-
-			Transformer transformer = TransformerFactory.newInstance().newTransformer();
-			transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-16");
-			transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
-
-			transformer.transform(new DOMSource(doc), new StreamResult(stringWriter));
-
-			return IOUtils.toInputStream(stringWriter.toString(), StandardCharsets.UTF_8);
-
-		} catch (ParserConfigurationException | TransformerException | SAXException e) {
-			throw new IOException(e);
-		}
-
+		return new JosmWorkaroundInputStream(josmDataInputStream);
 	}
 
 }
@@ -0,0 +1,312 @@
+package org.osm2world.core.osm.creation;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Comparator.comparing;
+
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.Nullable;
+
+import org.apache.commons.configuration.Configuration;
+
+/**
+ * local cache for responses from Overpass API, stored as gzip-compressed files in a directory.
+ *
+ * Entries are identified by a hash of the API URL and the query, with insignificant whitespace removed
+ * from the query. Only complete responses are stored: A response must end with the closing osm element
+ * and must not contain a remark, which Overpass API uses to report runtime errors and timeouts.
+ * Entries which have been downloaded longer ago than the time to live are ignored.
+ * When the total size of the cache exceeds the limit, the least recently used entries are deleted.
+ */
+public class OverpassCache {
+
+	private static final String FILE_SUFFIX = ".osm.gz";
+
+	private final File directory;
+	private final Duration timeToLive;
+	private final long maxSizeBytes;
+
+	public OverpassCache(File directory, Duration timeToLive, long maxSizeBytes) {
+		this.directory = directory;
+		this.timeToLive = timeToLive;
+		this.maxSizeBytes = maxSizeBytes;
+	}
+
+	/**
+	 * creates a cache based on the configuration keys overpassCacheDir, overpassCacheTtlHours (default 24)
+	 * and overpassCacheMaxMB (default 1024).
+	 *
+	 * @return  the cache, or null if no cache directory is configured
+	 */
+	public static @Nullable OverpassCache fromConfiguration(Configuration config) {
+		String dir = config.getString("overpassCacheDir", null);
+		if (dir == null) {
+			return null;
+		} else {
+			return new OverpassCache(new File(dir),
+					Duration.ofHours(config.getLong("overpassCacheTtlHours", 24)),
+					config.getLong("overpassCacheMaxMB", 1024) * 1024 * 1024);
+		}
+	}
+
+	/**
+	 * opens the cached response for a query
+	 *
+	 * @return  stream of the uncompressed response, or null if there is no valid cache entry
+	 */
+	public synchronized @Nullable InputStream open(String apiURL, String query) throws IOException {
+
+		File file = cacheFile(apiURL, query);
+
+		if (!file.isFile()) {
+			return null;
+		} else if (System.currentTimeMillis() - file.lastModified() > timeToLive.toMillis()) {
+			file.delete();
+			return null;
+		}
+
+		/* the modification time stays the download time, the access time is used for eviction */
+		Files.getFileAttributeView(file.toPath(), BasicFileAttributeView.class)
+				.setTimes(null, FileTime.fromMillis(System.currentTimeMillis()), null);
+
+		return openEntry(file);
+
+	}
+
+	/**
+	 * stores the response for a query. The response is read until its end, but not closed.
+	 * If reading the response fails, or the response is incomplete, no entry will be added.
+	 *
+	 * @return  stream of the uncompressed response, read from the new cache entry
+	 * or from a temporary file which is deleted when the stream is closed
+	 */
+	public InputStream store(String apiURL, String query, InputStream response) throws IOException {
+
+		Files.createDirectories(directory.toPath());
+
+		File file = cacheFile(apiURL, query);
+		File tempFile = File.createTempFile("download-", ".tmp", directory);
+		boolean keepTempFile = false;
+
+		try {
+
+			ResponseCheckingOutputStream checkingStream;
+
+			try (OutputStream os = checkingStream = new ResponseCheckingOutputStream(
+					new GZIPOutputStream(Files.newOutputStream(tempFile.toPath()), 1 << 16))) {
+				response.transferTo(os);
+			}
+
+			if (!checkingStream.isComplete()) {
+				System.err.println("Not caching incomplete response from Overpass API for query: " + query);
+				keepTempFile = true;
+				return new FilterInputStream(openEntry(tempFile)) {
+					@Override
+					public void close() throws IOException {
+						try {
+							super.close();
+						} finally {
+							tempFile.delete();
+						}
+					}
+				};
+			}
+
+			synchronized (this) {
+				Files.move(tempFile.toPath(), file.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+				InputStream result = openEntry(file);
+				evict();
+				return result;
+			}
+
+		} finally {
+			if (!keepTempFile) {
+				tempFile.delete();
+			}
+		}
+
+	}
+
+	private static InputStream openEntry(File file) throws IOException {
+		return new GZIPInputStream(Files.newInputStream(file.toPath()), 1 << 16);
+	}
+
+	/** deletes the least recently used entries until the total size is within the limit */
+	private void evict() throws IOException {
+
+		File[] files = directory.listFiles((dir, name) -> name.endsWith(FILE_SUFFIX));
+		if (files == null) return;
+
+		List<CacheEntry> entries = new ArrayList<>(files.length);
+		for (File file : files) {
+			try {
+				entries.add(new CacheEntry(file.toPath(),
+						Files.readAttributes(file.toPath(), BasicFileAttributes.class)));
+			} catch (IOException e) {
+				// the entry has been deleted in the meantime
+			}
+		}
+
+		entries.sort(comparing(e -> e.attributes.lastAccessTime()));
+
+		long totalSize = entries.stream().mapToLong(e -> e.attributes.size()).sum();
+
+		for (CacheEntry entry : entries) {
+			if (totalSize <= maxSizeBytes) break;
+			totalSize -= entry.attributes.size();
+			Files.deleteIfExists(entry.path);
+		}
+
+	}
+
+	private static class CacheEntry {
+
+		final Path path;
+		final BasicFileAttributes attributes;
+
+		CacheEntry(Path path, BasicFileAttributes attributes) {
+			this.path = path;
+			this.attributes = attributes;
+		}
+
+	}
+
+	/**
+	 * passes an uncompressed response through and checks whether it is complete,
+	 * i.e. whether it ends with the closing osm element and contains no remark.
+	 */
+	static class ResponseCheckingOutputStream extends FilterOutputStream {
+
+		private static final byte[] REMARK = "<remark".getBytes(StandardCharsets.US_ASCII);
+		private static final byte[] END = "</osm>".getBytes(StandardCharsets.US_ASCII);
+
+		/** number of bytes of {@link #REMARK} matched so far */
+		private int remarkMatch = 0;
+		private boolean remarkFound = false;
+
+		/** the most recent non-whitespace bytes, used as a ring buffer */
+		private final byte[] tail = new byte[END.length];
+		private long nonWhitespaceCount = 0;
+
+		ResponseCheckingOutputStream(OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			check((byte) b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			for (int i = off; i < off + len; i++) {
+				check(b[i]);
+			}
+		}
+
+		private void check(byte b) {
+
+			if (b == REMARK[remarkMatch]) {
+				remarkMatch++;
+				if (remarkMatch == REMARK.length) {
+					remarkFound = true;
+					remarkMatch = 0;
+				}
+			} else {
+				remarkMatch = (b == REMARK[0]) ? 1 : 0;
+			}
+
+			if (!Character.isWhitespace(b)) {
+				tail[(int) (nonWhitespaceCount % tail.length)] = b;
+				nonWhitespaceCount++;
+			}
+
+		}
+
+		boolean isComplete() {
+			if (remarkFound || nonWhitespaceCount < END.length) return false;
+			for (int i = 0; i < END.length; i++) {
+				if (tail[(int) ((nonWhitespaceCount + i) % tail.length)] != END[i]) return false;
+			}
+			return true;
+		}
+
+	}
+
+	File cacheFile(String apiURL, String query) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(apiURL.getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+			digest.update(normalizeQuery(query).getBytes(StandardCharsets.UTF_8));
+			return new File(directory, HexFormat.of().formatHex(digest.digest()) + FILE_SUFFIX);
+		} catch (NoSuchAlgorithmException e) {
+			throw new AssertionError("SHA-256 is always supported", e);
+		}
+	}
+
+	/**
+	 * removes whitespace which does not affect the meaning of an Overpass QL query:
+	 * Leading and trailing whitespace is removed and other sequences of whitespace are reduced to a single space,
+	 * except within string literals.
+	 */
+	static String normalizeQuery(String query) {
+
+		StringBuilder result = new StringBuilder(query.length());
+
+		char quote = 0;
+		boolean pendingSpace = false;
+
+		for (int i = 0; i < query.length(); i++) {
+
+			char c = query.charAt(i);
+
+			if (quote != 0) {
+				result.append(c);
+				if (c == '\\' && i + 1 < query.length()) {
+					result.append(query.charAt(++i));
+				} else if (c == quote) {
+					quote = 0;
+				}
+			} else if (Character.isWhitespace(c)) {
+				pendingSpace = result.length() > 0;
+			} else {
+				if (pendingSpace) {
+					result.append(' ');
+					pendingSpace = false;
+				}
+				result.append(c);
+				if (c == '"' || c == '\'') {
+					quote = c;
+				}
+			}
+
+		}
+
+		return result.toString();
+
+	}
+
+}
@@ -7,6 +7,8 @@ import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLEncoder;
 
+import javax.annotation.Nullable;
+
 import org.osm2world.core.map_data.creation.LatLonBounds;
 import org.osm2world.core.osm.data.OSMData;
 
@@ -16,12 +18,14 @@ import de.topobyte.osm4j.xml.dynsax.OsmXmlIterator;
 
 /**
  * {@link OSMDataReader} fetching information from Overpass API.
+ * Responses can optionally be stored in an {@link OverpassCache}.
  */
 public class OverpassReader implements OSMDataReader {
 
 	public static final String DEFAULT_API_URL = "http://www.overpass-api.de/api/interpreter";
 	private String apiURL;
 	private String queryString;
+	private @Nullable OverpassCache cache = null;
 
 	/** fetches data within a bounding box from Overpass API */
 	public OverpassReader(LatLonBounds bounds) {
@@ -45,25 +49,31 @@ public class OverpassReader implements OSMDataReader {
 		this.queryString = queryString;
 	}
 
+	/**
+	 * sets a cache for the response. If it contains a response for the query, no request will be sent.
+	 * @return  this reader
+	 */
+	public OverpassReader withCache(@Nullable OverpassCache cache) {
+		this.cache = cache;
+		return this;
+	}
+
 	public OSMData getData() throws IOException {
 
 		try {
 
-			URL url = new URL(apiURL);
-
-			HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-			connection.setDoInput(true);
-			connection.setDoOutput(true);
-			connection.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
-
-			try (DataOutputStream printout = new DataOutputStream(connection.getOutputStream())) {
-
-				printout.writeBytes("data=" + URLEncoder.encode(queryString, "utf-8"));
-				printout.flush();
+			InputStream cachedResponse = null;
 
+			if (cache != null) {
+				cachedResponse = cache.open(apiURL, queryString);
+				if (cachedResponse == null) {
+					try (InputStream response = sendQuery()) {
+						cachedResponse = cache.store(apiURL, queryString, response);
+					}
+				}
 			}
 
-			try (InputStream inputStream = connection.getInputStream()) {
+			try (InputStream inputStream = cachedResponse != null ? cachedResponse : sendQuery()) {
 
 				OsmXmlIterator iterator = new OsmXmlIterator(inputStream, false);
 
@@ -87,4 +97,29 @@ public class OverpassReader implements OSMDataReader {
 
 	}
 
+	/** sends the query to the API and returns the response */
+	private InputStream sendQuery() throws IOException {
+
+		URL url = new URL(apiURL);
+
+		HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+		connection.setDoInput(true);
+		connection.setDoOutput(true);
+		connection.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
+
+		try (DataOutputStream printout = new DataOutputStream(connection.getOutputStream())) {
+
+			printout.writeBytes("data=" + URLEncoder.encode(queryString, "utf-8"));
+			printout.flush();
+
+		}
+
+		if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+			throw new IOException("Overpass API responded with HTTP status " + connection.getResponseCode());
+		}
+
+		return connection.getInputStream();
+
+	}
+
 }
\ No newline at end of file
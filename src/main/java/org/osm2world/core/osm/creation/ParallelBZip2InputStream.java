@@ -0,0 +1,467 @@
+package org.osm2world.core.osm.creation;
+
+import static java.lang.Math.min;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.annotation.Nullable;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+
+/**
+ * decompresses bzip2 data, including files with multiple concatenated streams, using multiple threads.
+ *
+ * The blocks of a bzip2 stream can be decompressed independently, but they are not byte-aligned.
+ * This class finds the block boundaries by searching for the block header's bit pattern
+ * (on the thread reading from the stream), turns each block into a complete single-block bzip2 stream,
+ * and decompresses these on the {@link ForkJoinPool#commonPool()}. The results are returned in order,
+ * with only a limited number of blocks being decompressed in advance.
+ *
+ * The bit pattern can also occur by chance within a block's data. The decompression of each candidate block
+ * verifies the block's CRC, so such a false match causes the decompression to fail. In that case,
+ * the failed candidate is combined with the following candidates of the same stream, and the combined data is
+ * decompressed on the reading thread until it succeeds. Matches of the end-of-stream pattern are only accepted
+ * if they are followed by the padding and the start of another stream, or by the end of the input.
+ * The combined CRC of each stream is checked against the CRCs of the blocks which have been returned.
+ */
+public class ParallelBZip2InputStream extends InputStream {
+
+	private static final long BLOCK_MAGIC = 0x314159265359L;
+	private static final long END_OF_STREAM_MAGIC = 0x177245385090L;
+	private static final long MAGIC_MASK = 0xFFFFFFFFFFFFL;
+
+	/** length of the stream header ("BZh" and the block size digit) in bits */
+	private static final int HEADER_BITS = 32;
+
+	/**
+	 * upper limit for the compressed size of a block in bits.
+	 * Blocks contain at most 900k bytes of data, and compression does not increase their size much.
+	 */
+	private static final long MAX_BLOCK_BITS = 8L * 2_000_000;
+
+	/** a candidate block, along with its decompressed data (which may still be in progress) */
+	private static class PendingBlock {
+
+		/** the block as a single-block stream without the end of stream marker, see {@link #toStream(BitWriter)} */
+		final BitWriter bits;
+
+		/** whether the block has been followed by the end of a stream */
+		final boolean lastInStream;
+
+		/** the combined CRC stored at the end of the stream, only relevant if {@link #lastInStream} is true */
+		final int streamCrc;
+
+		final CompletableFuture<byte[]> result;
+
+		PendingBlock(BitWriter bits, boolean lastInStream, int streamCrc, CompletableFuture<byte[]> result) {
+			this.bits = bits;
+			this.lastInStream = lastInStream;
+			this.streamCrc = streamCrc;
+			this.result = result;
+		}
+
+		/** returns the block CRC, which follows the block magic */
+		int blockCrc() {
+			return (int) bits.readBits(HEADER_BITS + 48, 32);
+		}
+
+	}
+
+	private final InputStream input;
+	private final int maxPendingBlocks;
+
+	private final Deque<PendingBlock> pendingBlocks = new ArrayDeque<>();
+	private byte[] currentBlock = new byte[0];
+	private int currentBlockPos = 0;
+
+	/** combined CRC of the blocks of the current stream which have been returned so far */
+	private int combinedCrc = 0;
+
+	/* state of the bitwise scanning of the compressed input */
+
+	private boolean endOfInput = false;
+	private int currentByte = 0;
+	private int bitsLeftInByte = 0;
+
+	private @Nullable BitWriter currentBlockWriter = null;
+	private byte blockSizeDigit;
+	private long lastBits = 0;
+	private long bitsInCurrentBlock = 0;
+
+	public ParallelBZip2InputStream(InputStream inputStream) throws IOException {
+		this.input = new BufferedInputStream(inputStream, 1 << 16);
+		this.maxPendingBlocks = 2 * ForkJoinPool.commonPool().getParallelism() + 1;
+		if (!startStream()) {
+			throw new IOException("not a bzip2 stream");
+		}
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!ensureData()) return -1;
+		return currentBlock[currentBlockPos++] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) return 0;
+		if (!ensureData()) return -1;
+		int count = min(len, currentBlock.length - currentBlockPos);
+		System.arraycopy(currentBlock, currentBlockPos, b, off, count);
+		currentBlockPos += count;
+		return count;
+	}
+
+	@Override
+	public void close() throws IOException {
+		pendingBlocks.forEach(b -> b.result.cancel(false));
+		pendingBlocks.clear();
+		input.close();
+	}
+
+	/** makes sure that {@link #currentBlock} has unread bytes, returns false at the end of the data */
+	private boolean ensureData() throws IOException {
+		while (currentBlockPos >= currentBlock.length) {
+			while (!endOfInput && pendingBlocks.size() < maxPendingBlocks) {
+				scanNextBlock();
+			}
+			if (pendingBlocks.isEmpty()) return false;
+			PendingBlock block = pendingBlocks.removeFirst();
+			try {
+				currentBlock = block.result.join();
+			} catch (CompletionException e) {
+				IOException failure = (e.getCause() instanceof UncheckedIOException)
+						? ((UncheckedIOException) e.getCause()).getCause()
+						: new IOException("could not decompress bzip2 block", e.getCause());
+				block = decompressCombined(block, failure);
+				currentBlock = block.result.join();
+			}
+			currentBlockPos = 0;
+			updateCombinedCrc(block);
+		}
+		return true;
+	}
+
+	/**
+	 * adds the CRC of a block which has been decompressed to the combined CRC,
+	 * and compares the result with the stored value at the end of a stream
+	 */
+	private void updateCombinedCrc(PendingBlock block) throws IOException {
+
+		combinedCrc = ((combinedCrc << 1) | (combinedCrc >>> 31)) ^ block.blockCrc();
+
+		if (block.lastInStream) {
+			if (combinedCrc != block.streamCrc) {
+				throw new IOException("bzip2 stream CRC mismatch");
+			}
+			combinedCrc = 0;
+		}
+
+	}
+
+	/**
+	 * handles a candidate block which could not be decompressed, assuming that it is only the first part
+	 * of a block which has been split at a false match of the block header's bit pattern.
+	 * Appends the following candidates of the same stream one by one and tries to decompress the result.
+	 *
+	 * @param failure  the exception from decompressing the block, rethrown if combining the blocks doesn't help
+	 * @return  the combined block, with its decompressed data
+	 */
+	private PendingBlock decompressCombined(PendingBlock block, IOException failure) throws IOException {
+
+		BitWriter combinedBits = block.bits.copy();
+		boolean lastInStream = block.lastInStream;
+
+		while (!lastInStream && combinedBits.length() < MAX_BLOCK_BITS) {
+
+			while (!endOfInput && pendingBlocks.isEmpty()) {
+				scanNextBlock();
+			}
+
+			if (pendingBlocks.isEmpty()) break;
+
+			PendingBlock nextBlock = pendingBlocks.removeFirst();
+			nextBlock.result.cancel(false);
+
+			combinedBits.append(nextBlock.bits, HEADER_BITS);
+			lastInStream = nextBlock.lastInStream;
+
+			try {
+				byte[] data = decompress(toStream(combinedBits));
+				return new PendingBlock(combinedBits, lastInStream, nextBlock.streamCrc,
+						CompletableFuture.completedFuture(data));
+			} catch (IOException | RuntimeException e) {
+				// the combined block is still incomplete or invalid, try again with the next candidate
+			}
+
+		}
+
+		throw failure;
+
+	}
+
+	/**
+	 * reads the header of a stream and starts collecting the bits of its first block.
+	 * @return  false if the end of the input has been reached instead
+	 */
+	private boolean startStream() throws IOException {
+
+		int b = input.read();
+
+		if (b < 0) {
+			endOfInput = true;
+			return false;
+		} else if (b != 'B' || input.read() != 'Z' || input.read() != 'h') {
+			throw new IOException("invalid bzip2 stream header");
+		}
+
+		int digit = input.read();
+
+		if (digit < '1' || digit > '9') {
+			throw new IOException("invalid bzip2 block size");
+		}
+
+		blockSizeDigit = (byte) digit;
+		startBlock(0, 0);
+
+		return true;
+
+	}
+
+	/**
+	 * starts collecting the bits of a new block
+	 * @param initialBits  bits which have already been read for the block
+	 */
+	private void startBlock(long initialBits, int initialBitCount) {
+		currentBlockWriter = new BitWriter();
+		for (byte b : new byte[] {'B', 'Z', 'h', blockSizeDigit}) {
+			currentBlockWriter.writeBits(b, 8);
+		}
+		currentBlockWriter.writeBits(initialBits, initialBitCount);
+		bitsInCurrentBlock = initialBitCount;
+	}
+
+	/**
+	 * scans the input until the end of the current block has been found,
+	 * then starts decompressing that block
+	 */
+	private void scanNextBlock() throws IOException {
+
+		while (true) {
+
+			int bit = readBit();
+
+			if (bit < 0) {
+				throw new IOException("unexpected end of bzip2 data");
+			}
+
+			currentBlockWriter.writeBit(bit);
+			lastBits = ((lastBits << 1) | bit) & MAGIC_MASK;
+			bitsInCurrentBlock += 1;
+
+			if (lastBits == BLOCK_MAGIC && bitsInCurrentBlock > 48) {
+
+				currentBlockWriter.truncate(currentBlockWriter.length() - 48);
+				submitCurrentBlock(false, 0);
+				startBlock(BLOCK_MAGIC, 48);
+				return;
+
+			} else if (lastBits == END_OF_STREAM_MAGIC && isFollowedByEndOfStream()) {
+
+				currentBlockWriter.truncate(currentBlockWriter.length() - 48);
+				boolean hasBlock = bitsInCurrentBlock > 48;
+
+				/* read the combined CRC and skip the padding */
+
+				int streamCrc = 0;
+				for (int i = 0; i < 32; i++) {
+					int crcBit = readBit();
+					if (crcBit < 0) throw new IOException("unexpected end of bzip2 data");
+					streamCrc = (streamCrc << 1) | crcBit;
+				}
+				bitsLeftInByte = 0;
+
+				if (hasBlock) {
+					submitCurrentBlock(true, streamCrc);
+				} else if (streamCrc != 0) {
+					throw new IOException("bzip2 stream CRC mismatch");
+				}
+
+				/* continue with the next stream, if any */
+
+				lastBits = 0;
+
+				if (!startStream()) {
+					currentBlockWriter = null;
+				}
+
+				if (hasBlock || endOfInput) return;
+
+			}
+
+		}
+
+	}
+
+	/**
+	 * checks whether the end-of-stream bit pattern which has just been read is followed by
+	 * the combined CRC, zero padding, and either the end of the input or the header of another stream.
+	 * Does not change the position in the input.
+	 */
+	private boolean isFollowedByEndOfStream() throws IOException {
+
+		int savedByte = currentByte;
+		int savedBitsLeftInByte = bitsLeftInByte;
+
+		input.mark(16);
+
+		try {
+
+			for (int i = 0; i < 32; i++) {
+				if (readBit() < 0) return false;
+			}
+
+			while (bitsLeftInByte > 0) {
+				if (readBit() != 0) return false;
+			}
+
+			int b = input.read();
+			return b < 0 || (b == 'B' && input.read() == 'Z' && input.read() == 'h');
+
+		} finally {
+			input.reset();
+			currentByte = savedByte;
+			bitsLeftInByte = savedBitsLeftInByte;
+		}
+
+	}
+
+	/**
+	 * starts decompressing the current block
+	 * @param lastInStream  whether the block is followed by the end of its stream
+	 * @param streamCrc  the stream's combined CRC if lastInStream is true
+	 */
+	private void submitCurrentBlock(boolean lastInStream, int streamCrc) {
+
+		BitWriter bits = currentBlockWriter;
+
+		pendingBlocks.add(new PendingBlock(bits, lastInStream, streamCrc, CompletableFuture.supplyAsync(() -> {
+			try {
+				return decompress(toStream(bits));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}, ForkJoinPool.commonPool())));
+
+	}
+
+	/**
+	 * turns the bits of a block, preceded by the stream header, into a complete single-block stream
+	 */
+	private static byte[] toStream(BitWriter blockBits) {
+
+		BitWriter writer = blockBits.copy();
+
+		/* a single-block stream's combined CRC is the block CRC, which follows the block magic */
+
+		long blockCrc = writer.readBits(HEADER_BITS + 48, 32);
+		writer.writeBits(END_OF_STREAM_MAGIC, 48);
+		writer.writeBits(blockCrc, 32);
+
+		return writer.toByteArray();
+
+	}
+
+	/** decompresses a stream, which also verifies the CRC of its blocks */
+	private static byte[] decompress(byte[] streamData) throws IOException {
+		try (InputStream is = new BZip2CompressorInputStream(new ByteArrayInputStream(streamData))) {
+			return is.readAllBytes();
+		}
+	}
+
+	/** returns the next bit of the input, or -1 at the end of the input */
+	private int readBit() throws IOException {
+		if (bitsLeftInByte == 0) {
+			currentByte = input.read();
+			if (currentByte < 0) return -1;
+			bitsLeftInByte = 8;
+		}
+		bitsLeftInByte -= 1;
+		return (currentByte >>> bitsLeftInByte) & 1;
+	}
+
+	/** collects individual bits, most significant bit first */
+	private static class BitWriter {
+
+		private byte[] data = new byte[1 << 16];
+		private long length = 0;
+
+		long length() {
+			return length;
+		}
+
+		void writeBit(int bit) {
+			int index = (int) (length >>> 3);
+			if (index >= data.length) {
+				data = Arrays.copyOf(data, data.length * 2);
+			}
+			if (bit != 0) {
+				data[index] |= (byte) (0x80 >>> (length & 7));
+			}
+			length += 1;
+		}
+
+		/** writes the lowest bitCount bits of a value */
+		void writeBits(long value, int bitCount) {
+			for (int i = bitCount - 1; i >= 0; i--) {
+				writeBit((int) ((value >>> i) & 1));
+			}
+		}
+
+		/** appends the bits of another writer, starting at a bit index */
+		void append(BitWriter other, long start) {
+			for (long i = start; i < other.length; i++) {
+				writeBit((int) other.readBits(i, 1));
+			}
+		}
+
+		BitWriter copy() {
+			BitWriter result = new BitWriter();
+			result.data = Arrays.copyOf(data, data.length);
+			result.length = length;
+			return result;
+		}
+
+		long readBits(long start, int bitCount) {
+			long result = 0;
+			for (long i = start; i < start + bitCount; i++) {
+				result = (result << 1) | ((data[(int) (i >>> 3)] >>> (7 - (i & 7))) & 1);
+			}
+			return result;
+		}
+
+		/** removes all bits after the first newLength bits */
+		void truncate(long newLength) {
+			for (long i = newLength; i < length; i++) {
+				data[(int) (i >>> 3)] &= (byte) ~(0x80 >>> (i & 7));
+			}
+			length = newLength;
+		}
+
+		byte[] toByteArray() {
+			return Arrays.copyOf(data, (int) ((length + 7) >>> 3));
+		}
+
+	}
+
+}
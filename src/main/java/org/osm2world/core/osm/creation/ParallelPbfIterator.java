@@ -0,0 +1,570 @@
+package org.osm2world.core.osm.creation;
+
+import static java.util.Collections.emptyIterator;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import javax.annotation.Nullable;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
+import com.slimjars.dist.gnu.trove.list.array.TLongArrayList;
+
+import de.topobyte.osm4j.core.access.OsmIterator;
+import de.topobyte.osm4j.core.model.iface.EntityContainer;
+import de.topobyte.osm4j.core.model.iface.EntityType;
+import de.topobyte.osm4j.core.model.iface.OsmBounds;
+import de.topobyte.osm4j.core.model.iface.OsmRelationMember;
+import de.topobyte.osm4j.core.model.iface.OsmTag;
+import de.topobyte.osm4j.core.model.impl.Bounds;
+import de.topobyte.osm4j.core.model.impl.Node;
+import de.topobyte.osm4j.core.model.impl.Relation;
+import de.topobyte.osm4j.core.model.impl.RelationMember;
+import de.topobyte.osm4j.core.model.impl.Tag;
+import de.topobyte.osm4j.core.model.impl.Way;
+import gnu.trove.list.array.TIntArrayList;
+
+/**
+ * {@link OsmIterator} for .osm.pbf data which decodes the file's blocks on multiple threads.
+ *
+ * The blobs are read from the stream on the calling thread, then inflated and parsed on the
+ * {@link ForkJoinPool#commonPool()}. Entities are still returned in the order of the file.
+ * Only a limited number of blocks is decoded in advance, so memory use does not depend on the size of the file.
+ * Metadata such as versions and timestamps is not read.
+ */
+public class ParallelPbfIterator implements OsmIterator {
+
+	private static final int MAX_HEADER_SIZE = 64 * 1024;
+	private static final int MAX_BLOB_SIZE = 32 * 1024 * 1024;
+
+	private static final Set<String> SUPPORTED_FEATURES = Set.of("OsmSchema-V0.6", "DenseNodes",
+			"HistoricalInformation");
+
+	private final DataInputStream input;
+	private final int maxPendingBlocks;
+
+	private @Nullable OsmBounds bounds = null;
+
+	private final Deque<CompletableFuture<List<EntityContainer>>> pendingBlocks = new ArrayDeque<>();
+	private Iterator<EntityContainer> currentBlock = emptyIterator();
+	private boolean endOfInput = false;
+
+	public ParallelPbfIterator(InputStream inputStream) throws IOException {
+
+		this.input = new DataInputStream(inputStream);
+		this.maxPendingBlocks = 2 * ForkJoinPool.commonPool().getParallelism() + 1;
+
+		/* the header block is decoded right away because it contains the bounds */
+
+		RawBlob blob = readBlob();
+
+		if (blob == null) {
+			endOfInput = true;
+		} else if ("OSMHeader".equals(blob.type)) {
+			parseHeaderBlock(blob.decompress());
+		} else if ("OSMData".equals(blob.type)) {
+			pendingBlocks.add(decodeAsync(blob));
+		}
+
+	}
+
+	@Override
+	public boolean hasBounds() {
+		return bounds != null;
+	}
+
+	@Override
+	public OsmBounds getBounds() {
+		return bounds;
+	}
+
+	@Override
+	public Iterator<EntityContainer> iterator() {
+		return this;
+	}
+
+	@Override
+	public boolean hasNext() {
+		try {
+			while (!currentBlock.hasNext()) {
+				fillPendingBlocks();
+				if (pendingBlocks.isEmpty()) return false;
+				currentBlock = pendingBlocks.removeFirst().join().iterator();
+			}
+			return true;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			} else {
+				throw e;
+			}
+		}
+	}
+
+	@Override
+	public EntityContainer next() {
+		if (!hasNext()) throw new NoSuchElementException();
+		return currentBlock.next();
+	}
+
+	/** reads blobs and starts decoding them until enough blocks are being decoded in advance */
+	private void fillPendingBlocks() throws IOException {
+		while (!endOfInput && pendingBlocks.size() < maxPendingBlocks) {
+			RawBlob blob = readBlob();
+			if (blob == null) {
+				endOfInput = true;
+			} else if ("OSMData".equals(blob.type)) {
+				pendingBlocks.add(decodeAsync(blob));
+			}
+		}
+	}
+
+	private static CompletableFuture<List<EntityContainer>> decodeAsync(RawBlob blob) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return parsePrimitiveBlock(blob.decompress());
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * reads the next blob header and blob from the stream, without decompressing it.
+	 * @return  the blob, or null at the end of the stream
+	 */
+	private @Nullable RawBlob readBlob() throws IOException {
+
+		int headerSize;
+
+		try {
+			headerSize = input.readInt();
+		} catch (EOFException e) {
+			return null;
+		}
+
+		if (headerSize < 0 || headerSize > MAX_HEADER_SIZE) {
+			throw new IOException("invalid PBF blob header size: " + headerSize);
+		}
+
+		byte[] headerBytes = new byte[headerSize];
+		input.readFully(headerBytes);
+
+		String type = null;
+		int dataSize = -1;
+
+		CodedInputStream header = CodedInputStream.newInstance(headerBytes);
+		while (!header.isAtEnd()) {
+			int tag = header.readTag();
+			switch (WireFormat.getTagFieldNumber(tag)) {
+				case 1 -> type = header.readString();
+				case 3 -> dataSize = header.readInt32();
+				default -> header.skipField(tag);
+			}
+		}
+
+		if (type == null || dataSize < 0 || dataSize > MAX_BLOB_SIZE) {
+			throw new IOException("invalid PBF blob header");
+		}
+
+		byte[] data = new byte[dataSize];
+		input.readFully(data);
+
+		return new RawBlob(type, data);
+
+	}
+
+	/** a blob which has been read from the file, but not yet decompressed */
+	private static class RawBlob {
+
+		final String type;
+		final byte[] data;
+
+		RawBlob(String type, byte[] data) {
+			this.type = type;
+			this.data = data;
+		}
+
+		byte[] decompress() throws IOException {
+
+			ByteString raw = null;
+			ByteString zlibData = null;
+			int rawSize = -1;
+
+			CodedInputStream blob = CodedInputStream.newInstance(data);
+			while (!blob.isAtEnd()) {
+				int tag = blob.readTag();
+				switch (WireFormat.getTagFieldNumber(tag)) {
+					case 1 -> raw = blob.readBytes();
+					case 2 -> rawSize = blob.readInt32();
+					case 3 -> zlibData = blob.readBytes();
+					case 4, 5, 6, 7 -> throw new IOException("unsupported PBF blob compression");
+					default -> blob.skipField(tag);
+				}
+			}
+
+			if (raw != null) {
+				return raw.toByteArray();
+			} else if (zlibData != null && rawSize >= 0) {
+				return inflate(zlibData.toByteArray(), rawSize);
+			} else {
+				throw new IOException("PBF blob without data");
+			}
+
+		}
+
+		private static byte[] inflate(byte[] compressed, int rawSize) throws IOException {
+
+			Inflater inflater = new Inflater();
+
+			try {
+
+				inflater.setInput(compressed);
+
+				byte[] result = new byte[rawSize];
+				int length = 0;
+
+				while (length < rawSize && !inflater.finished()) {
+					int inflated = inflater.inflate(result, length, rawSize - length);
+					if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+					length += inflated;
+				}
+
+				if (length != rawSize) {
+					throw new IOException("PBF blob has wrong size after decompression");
+				}
+
+				return result;
+
+			} catch (DataFormatException e) {
+				throw new IOException(e);
+			} finally {
+				inflater.end();
+			}
+
+		}
+
+	}
+
+	private void parseHeaderBlock(byte[] data) throws IOException {
+
+		CodedInputStream in = CodedInputStream.newInstance(data);
+
+		while (!in.isAtEnd()) {
+			int tag = in.readTag();
+			switch (WireFormat.getTagFieldNumber(tag)) {
+				case 1 -> bounds = parseHeaderBBox(in.readBytes().newCodedInput());
+				case 4 -> {
+					String feature = in.readString();
+					if (!SUPPORTED_FEATURES.contains(feature)) {
+						throw new IOException("unsupported PBF feature: " + feature);
+					}
+				}
+				default -> in.skipField(tag);
+			}
+		}
+
+	}
+
+	private static OsmBounds parseHeaderBBox(CodedInputStream in) throws IOException {
+
+		long left = 0, right = 0, top = 0, bottom = 0;
+
+		while (!in.isAtEnd()) {
+			int tag = in.readTag();
+			switch (WireFormat.getTagFieldNumber(tag)) {
+				case 1 -> left = in.readSInt64();
+				case 2 -> right = in.readSInt64();
+				case 3 -> top = in.readSInt64();
+				case 4 -> bottom = in.readSInt64();
+				default -> in.skipField(tag);
+			}
+		}
+
+		return new Bounds(left * 1e-9, right * 1e-9, top * 1e-9, bottom * 1e-9);
+
+	}
+
+	/** the string table and coordinate encoding of a primitive block */
+	private static class BlockContext {
+
+		final List<String> strings = new ArrayList<>();
+
+		long granularity = 100;
+		long latOffset = 0;
+		long lonOffset = 0;
+
+		double lat(long lat) {
+			return 1e-9 * (latOffset + granularity * lat);
+		}
+
+		double lon(long lon) {
+			return 1e-9 * (lonOffset + granularity * lon);
+		}
+
+		List<OsmTag> tags(TIntArrayList keys, TIntArrayList values) {
+			List<OsmTag> tags = new ArrayList<>(keys.size());
+			for (int i = 0; i < keys.size(); i++) {
+				tags.add(new Tag(strings.get(keys.get(i)), strings.get(values.get(i))));
+			}
+			return tags;
+		}
+
+	}
+
+	static List<EntityContainer> parsePrimitiveBlock(byte[] data) throws IOException {
+
+		/* the groups can only be parsed after the string table and the granularity, which may come later */
+
+		BlockContext context = new BlockContext();
+		List<ByteString> groups = new ArrayList<>();
+
+		CodedInputStream in = CodedInputStream.newInstance(data);
+
+		while (!in.isAtEnd()) {
+			int tag = in.readTag();
+			switch (WireFormat.getTagFieldNumber(tag)) {
+				case 1 -> parseStringTable(in.readBytes().newCodedInput(), context.strings);
+				case 2 -> groups.add(in.readBytes());
+				case 17 -> context.granularity = in.readInt32();
+				case 19 -> context.latOffset = in.readInt64();
+				case 20 -> context.lonOffset = in.readInt64();
+				default -> in.skipField(tag);
+			}
+		}
+
+		List<EntityContainer> result = new ArrayList<>();
+
+		for (ByteString group : groups) {
+			parsePrimitiveGroup(group.newCodedInput(), context, result);
+		}
+
+		return result;
+
+	}
+
+	private static void parseStringTable(CodedInputStream in, List<String> strings) throws IOException {
+		while (!in.isAtEnd()) {
+			int tag = in.readTag();
+			if (WireFormat.getTagFieldNumber(tag) == 1) {
+				strings.add(in.readBytes().toString(StandardCharsets.UTF_8));
+			} else {
+				in.skipField(tag);
+			}
+		}
+	}
+
+	private static void parsePrimitiveGroup(CodedInputStream in, BlockContext context,
+			List<EntityContainer> result) throws IOException {
+		while (!in.isAtEnd()) {
+			int tag = in.readTag();
+			switch (WireFormat.getTagFieldNumber(tag)) {
+				case 1 -> result.add(new EntityContainer(EntityType.Node,
+						parseNode(in.readBytes().newCodedInput(), context)));
+				case 2 -> parseDenseNodes(in.readBytes().newCodedInput(), context, result);
+				case 3 -> result.add(new EntityContainer(EntityType.Way,
+						parseWay(in.readBytes().newCodedInput(), context)));
+				case 4 -> result.add(new EntityContainer(EntityType.Relation,
+						parseRelation(in.readBytes().newCodedInput(), context)));
+				default -> in.skipField(tag);
+			}
+		}
+	}
+
+	private static Node parseNode(CodedInputStream in, BlockContext context) throws IOException {
+
+		long id = 0, lat = 0, lon = 0;
+		TIntArrayList keys = new TIntArrayList();
+		TIntArrayList values = new TIntArrayList();
+
+		while (!in.isAtEnd()) {
+			int tag = in.readTag();
+			switch (WireFormat.getTagFieldNumber(tag)) {
+				case 1 -> id = in.readSInt64();
+				case 2 -> readUInt32s(in, tag, keys);
+				case 3 -> readUInt32s(in, tag, values);
+				case 8 -> lat = in.readSInt64();
+				case 9 -> lon = in.readSInt64();
+				default -> in.skipField(tag);
+			}
+		}
+
+		Node node = new Node(id, context.lon(lon), context.lat(lat));
+		node.setTags(context.tags(keys, values));
+		return node;
+
+	}
+
+	private static void parseDenseNodes(CodedInputStream in, BlockContext context,
+			List<EntityContainer> result) throws IOException {
+
+		TLongArrayList ids = new TLongArrayList();
+		TLongArrayList lats = new TLongArrayList();
+		TLongArrayList lons = new TLongArrayList();
+		TIntArrayList keysVals = new TIntArrayList();
+
+		while (!in.isAtEnd()) {
+			int tag = in.readTag();
+			switch (WireFormat.getTagFieldNumber(tag)) {
+				case 1 -> readSInt64s(in, tag, ids);
+				case 8 -> readSInt64s(in, tag, lats);
+				case 9 -> readSInt64s(in, tag, lons);
+				case 10 -> readUInt32s(in, tag, keysVals);
+				default -> in.skipField(tag);
+			}
+		}
+
+		if (ids.size() != lats.size() || ids.size() != lons.size()) {
+			throw new IOException("inconsistent dense nodes in PBF block");
+		}
+
+		/* ids and coordinates are delta coded, tags are a sequence of key/value pairs ended by 0 for each node */
+
+		long id = 0, lat = 0, lon = 0;
+		int keyValIndex = 0;
+
+		for (int i = 0; i < ids.size(); i++) {
+
+			id += ids.get(i);
+			lat += lats.get(i);
+			lon += lons.get(i);
+
+			List<OsmTag> tags = new ArrayList<>();
+
+			if (!keysVals.isEmpty()) {
+				while (keysVals.get(keyValIndex) != 0) {
+					tags.add(new Tag(context.strings.get(keysVals.get(keyValIndex)),
+							context.strings.get(keysVals.get(keyValIndex + 1))));
+					keyValIndex += 2;
+				}
+				keyValIndex += 1;
+			}
+
+			Node node = new Node(id, context.lon(lon), context.lat(lat));
+			node.setTags(tags);
+			result.add(new EntityContainer(EntityType.Node, node));
+
+		}
+
+	}
+
+	private static Way parseWay(CodedInputStream in, BlockContext context) throws IOException {
+
+		long id = 0;
+		TIntArrayList keys = new TIntArrayList();
+		TIntArrayList values = new TIntArrayList();
+		TLongArrayList refs = new TLongArrayList();
+
+		while (!in.isAtEnd()) {
+			int tag = in.readTag();
+			switch (WireFormat.getTagFieldNumber(tag)) {
+				case 1 -> id = in.readInt64();
+				case 2 -> readUInt32s(in, tag, keys);
+				case 3 -> readUInt32s(in, tag, values);
+				case 8 -> readSInt64s(in, tag, refs);
+				default -> in.skipField(tag);
+			}
+		}
+
+		TLongArrayList nodeIds = new TLongArrayList(refs.size());
+		long nodeId = 0;
+		for (int i = 0; i < refs.size(); i++) {
+			nodeId += refs.get(i);
+			nodeIds.add(nodeId);
+		}
+
+		Way way = new Way(id, nodeIds);
+		way.setTags(context.tags(keys, values));
+		return way;
+
+	}
+
+	private static Relation parseRelation(CodedInputStream in, BlockContext context) throws IOException {
+
+		long id = 0;
+		TIntArrayList keys = new TIntArrayList();
+		TIntArrayList values = new TIntArrayList();
+		TIntArrayList roles = new TIntArrayList();
+		TLongArrayList memberIds = new TLongArrayList();
+		TIntArrayList memberTypes = new TIntArrayList();
+
+		while (!in.isAtEnd()) {
+			int tag = in.readTag();
+			switch (WireFormat.getTagFieldNumber(tag)) {
+				case 1 -> id = in.readInt64();
+				case 2 -> readUInt32s(in, tag, keys);
+				case 3 -> readUInt32s(in, tag, values);
+				case 8 -> readUInt32s(in, tag, roles);
+				case 9 -> readSInt64s(in, tag, memberIds);
+				case 10 -> readUInt32s(in, tag, memberTypes);
+				default -> in.skipField(tag);
+			}
+		}
+
+		List<OsmRelationMember> members = new ArrayList<>(memberIds.size());
+		long memberId = 0;
+
+		for (int i = 0; i < memberIds.size(); i++) {
+			memberId += memberIds.get(i);
+			EntityType type = switch (memberTypes.get(i)) {
+				case 0 -> EntityType.Node;
+				case 1 -> EntityType.Way;
+				case 2 -> EntityType.Relation;
+				default -> throw new IOException("unknown relation member type: " + memberTypes.get(i));
+			};
+			members.add(new RelationMember(memberId, type, context.strings.get(roles.get(i))));
+		}
+
+		Relation relation = new Relation(id, members);
+		relation.setTags(context.tags(keys, values));
+		return relation;
+
+	}
+
+	/** reads a packed or non-packed repeated sint64 field */
+	private static void readSInt64s(CodedInputStream in, int tag, TLongArrayList result) throws IOException {
+		if (WireFormat.getTagWireType(tag) == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+			int oldLimit = in.pushLimit(in.readRawVarint32());
+			while (in.getBytesUntilLimit() > 0) {
+				result.add(in.readSInt64());
+			}
+			in.popLimit(oldLimit);
+		} else {
+			result.add(in.readSInt64());
+		}
+	}
+
+	/** reads a packed or non-packed repeated uint32, int32 or enum field */
+	private static void readUInt32s(CodedInputStream in, int tag, TIntArrayList result) throws IOException {
+		if (WireFormat.getTagWireType(tag) == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+			int oldLimit = in.pushLimit(in.readRawVarint32());
+			while (in.getBytesUntilLimit() > 0) {
+				result.add(in.readUInt32());
+			}
+			in.popLimit(oldLimit);
+		} else {
+			result.add(in.readUInt32());
+		}
+	}
+
+}
@@ -0,0 +1,121 @@
+package org.osm2world.core.osm.data;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+
+import javax.annotation.Nullable;
+
+import de.topobyte.osm4j.core.model.iface.OsmEntity;
+import de.topobyte.osm4j.core.model.iface.OsmNode;
+import de.topobyte.osm4j.core.model.iface.OsmRelation;
+import de.topobyte.osm4j.core.model.iface.OsmWay;
+import de.topobyte.osm4j.core.resolve.EntityNotFoundException;
+
+/**
+ * {@link OSMDataStore} presenting the entities of another store with an {@link OSMChange} applied.
+ * Lookups by id are answered without copying the unchanged entities, which keeps applying small changes cheap.
+ * The collections of all entities are only assembled when they are first requested.
+ */
+class ChangedOSMDataStore implements OSMDataStore {
+
+	private final OSMDataStore base;
+	private final OSMChange change;
+
+	private volatile @Nullable List<OsmNode> nodes = null;
+	private volatile @Nullable List<OsmWay> ways = null;
+	private volatile @Nullable List<OsmRelation> relations = null;
+
+	ChangedOSMDataStore(OSMDataStore base, OSMChange change) {
+		if (base instanceof ChangedOSMDataStore) {
+			// merge the changes rather than stacking stores on top of each other for repeated updates
+			this.base = ((ChangedOSMDataStore) base).base;
+			this.change = ((ChangedOSMDataStore) base).change.followedBy(change);
+		} else {
+			this.base = base;
+			this.change = change;
+		}
+	}
+
+	@Override
+	public Collection<OsmNode> getNodes() {
+		if (nodes == null) {
+			nodes = merge(base.getNodes(), change.getNodes(),
+					n -> change.getNode(n.getId()) != null || change.isNodeDeleted(n.getId()));
+		}
+		return nodes;
+	}
+
+	@Override
+	public OsmNode getNode(long id) throws EntityNotFoundException {
+		OsmNode node = change.getNode(id);
+		if (node != null) {
+			return node;
+		} else if (change.isNodeDeleted(id)) {
+			throw new EntityNotFoundException("node has been deleted: " + id);
+		} else {
+			return base.getNode(id);
+		}
+	}
+
+	@Override
+	public Collection<OsmWay> getWays() {
+		if (ways == null) {
+			ways = merge(base.getWays(), change.getWays(),
+					w -> change.getWay(w.getId()) != null || change.isWayDeleted(w.getId()));
+		}
+		return ways;
+	}
+
+	@Override
+	public OsmWay getWay(long id) throws EntityNotFoundException {
+		OsmWay way = change.getWay(id);
+		if (way != null) {
+			return way;
+		} else if (change.isWayDeleted(id)) {
+			throw new EntityNotFoundException("way has been deleted: " + id);
+		} else {
+			return base.getWay(id);
+		}
+	}
+
+	@Override
+	public Collection<OsmRelation> getRelations() {
+		if (relations == null) {
+			relations = merge(base.getRelations(), change.getRelations(),
+					r -> change.getRelation(r.getId()) != null || change.isRelationDeleted(r.getId()));
+		}
+		return relations;
+	}
+
+	@Override
+	public OsmRelation getRelation(long id) throws EntityNotFoundException {
+		OsmRelation relation = change.getRelation(id);
+		if (relation != null) {
+			return relation;
+		} else if (change.isRelationDeleted(id)) {
+			throw new EntityNotFoundException("relation has been deleted: " + id);
+		} else {
+			return base.getRelation(id);
+		}
+	}
+
+	/**
+	 * returns the base entities which are not affected by the change, followed by the changed entities
+	 *
+	 * @param isChanged  returns true for base entities which have been modified or deleted
+	 */
+	private static <T extends OsmEntity> List<T> merge(Collection<T> baseEntities, Collection<T> changedEntities,
+			Predicate<T> isChanged) {
+		List<T> result = new ArrayList<>(baseEntities.size() + changedEntities.size());
+		for (T entity : baseEntities) {
+			if (!isChanged.test(entity)) {
+				result.add(entity);
+			}
+		}
+		result.addAll(changedEntities);
+		return result;
+	}
+
+}
@@ -0,0 +1,318 @@
+package org.osm2world.core.osm.data;
+
+import static java.lang.Math.round;
+import static org.osm2world.core.osm.data.CompactOSMDataStore.COORDINATE_UNITS_PER_DEGREE;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import javax.annotation.Nullable;
+
+import de.topobyte.osm4j.core.access.OsmIterator;
+import de.topobyte.osm4j.core.model.iface.EntityContainer;
+import de.topobyte.osm4j.core.model.iface.EntityType;
+import de.topobyte.osm4j.core.model.iface.OsmBounds;
+import de.topobyte.osm4j.core.model.iface.OsmEntity;
+import de.topobyte.osm4j.core.model.iface.OsmNode;
+import de.topobyte.osm4j.core.model.iface.OsmRelation;
+import de.topobyte.osm4j.core.model.iface.OsmRelationMember;
+import de.topobyte.osm4j.core.model.iface.OsmTag;
+import de.topobyte.osm4j.core.model.iface.OsmWay;
+import gnu.trove.list.array.TByteArrayList;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.list.array.TLongArrayList;
+
+/**
+ * creates {@link OSMData} with a compact columnar representation of the entities.
+ * Compared to osm4j's entity objects in hash maps, this needs only a fraction of the memory.
+ *
+ * Coordinates are rounded to 10<sup>-7</sup> degrees and metadata is not retained.
+ * Entities can be added in any order, but the build is cheaper if they are already sorted by id
+ * (as is usual for OSM files). If several entities of the same type share an id, the one added last is kept.
+ */
+public class CompactOSMDataBuilder {
+
+	private final List<OsmBounds> bounds = new ArrayList<>();
+
+	private final Map<String, Integer> stringIndices = new HashMap<>();
+	private final List<String> strings = new ArrayList<>();
+
+	private final TLongArrayList nodeIds = new TLongArrayList();
+	private final TIntArrayList nodeLats = new TIntArrayList();
+	private final TIntArrayList nodeLons = new TIntArrayList();
+	private final TIntArrayList nodeTagOffsets = new TIntArrayList(new int[] {0});
+	private final TIntArrayList nodeTags = new TIntArrayList();
+
+	private final TLongArrayList wayIds = new TLongArrayList();
+	private final TIntArrayList wayNodeOffsets = new TIntArrayList(new int[] {0});
+	private final TLongArrayList wayNodeIds = new TLongArrayList();
+	private final TIntArrayList wayTagOffsets = new TIntArrayList(new int[] {0});
+	private final TIntArrayList wayTags = new TIntArrayList();
+
+	private final TLongArrayList relationIds = new TLongArrayList();
+	private final TIntArrayList memberOffsets = new TIntArrayList(new int[] {0});
+	private final TLongArrayList memberIds = new TLongArrayList();
+	private final TByteArrayList memberTypes = new TByteArrayList();
+	private final TIntArrayList memberRoles = new TIntArrayList();
+	private final TIntArrayList relationTagOffsets = new TIntArrayList(new int[] {0});
+	private final TIntArrayList relationTags = new TIntArrayList();
+
+	/** adds all bounds and entities provided by an iterator */
+	public void addAll(OsmIterator iterator) {
+		if (iterator.hasBounds()) {
+			addBounds(iterator.getBounds());
+		}
+		while (iterator.hasNext()) {
+			add(iterator.next());
+		}
+	}
+
+	public void addBounds(OsmBounds bounds) {
+		this.bounds.add(bounds);
+	}
+
+	public void add(EntityContainer container) {
+		switch (container.getType()) {
+		case Node: add((OsmNode) container.getEntity()); break;
+		case Way: add((OsmWay) container.getEntity()); break;
+		case Relation: add((OsmRelation) container.getEntity()); break;
+		}
+	}
+
+	public void add(OsmNode node) {
+		nodeIds.add(node.getId());
+		nodeLats.add(toFixedPoint(node.getLatitude()));
+		nodeLons.add(toFixedPoint(node.getLongitude()));
+		addTags(node, nodeTagOffsets, nodeTags);
+	}
+
+	public void add(OsmWay way) {
+		wayIds.add(way.getId());
+		for (int i = 0; i < way.getNumberOfNodes(); i++) {
+			wayNodeIds.add(way.getNodeId(i));
+		}
+		wayNodeOffsets.add(wayNodeIds.size());
+		addTags(way, wayTagOffsets, wayTags);
+	}
+
+	public void add(OsmRelation relation) {
+		relationIds.add(relation.getId());
+		for (int i = 0; i < relation.getNumberOfMembers(); i++) {
+			OsmRelationMember member = relation.getMember(i);
+			addMember(member.getId(), member.getType(), member.getRole());
+		}
+		memberOffsets.add(memberIds.size());
+		addTags(relation, relationTagOffsets, relationTags);
+	}
+
+	/**
+	 * adds a node without the need for an {@link OsmNode} object
+	 * @param tags  alternating keys and values
+	 */
+	public void addNode(long id, double lat, double lon, String[] tags) {
+		nodeIds.add(id);
+		nodeLats.add(toFixedPoint(lat));
+		nodeLons.add(toFixedPoint(lon));
+		addTags(tags, nodeTagOffsets, nodeTags);
+	}
+
+	/**
+	 * adds a way without the need for an {@link OsmWay} object
+	 * @param tags  alternating keys and values
+	 */
+	public void addWay(long id, long[] nodeIds, String[] tags) {
+		wayIds.add(id);
+		wayNodeIds.add(nodeIds);
+		wayNodeOffsets.add(wayNodeIds.size());
+		addTags(tags, wayTagOffsets, wayTags);
+	}
+
+	/**
+	 * adds a relation without the need for an {@link OsmRelation} object
+	 * @param memberIds  ids of the members; memberTypes and memberRoles have the same length
+	 * @param tags  alternating keys and values
+	 */
+	public void addRelation(long id, long[] memberIds, EntityType[] memberTypes, String[] memberRoles,
+			String[] tags) {
+		relationIds.add(id);
+		for (int i = 0; i < memberIds.length; i++) {
+			addMember(memberIds[i], memberTypes[i], memberRoles[i]);
+		}
+		memberOffsets.add(this.memberIds.size());
+		addTags(tags, relationTagOffsets, relationTags);
+	}
+
+	private void addMember(long id, EntityType type, String role) {
+		memberIds.add(id);
+		memberTypes.add((byte) type.ordinal());
+		memberRoles.add(stringIndex(role));
+	}
+
+	/** creates the {@link OSMData} from the bounds and entities added so far */
+	public OSMData build() {
+
+		int[] nodeOrder = sortedOrder(nodeIds.toArray());
+		int[] wayOrder = sortedOrder(wayIds.toArray());
+		int[] relationOrder = sortedOrder(relationIds.toArray());
+
+		int[][] nodeTagColumns = reorderRows(nodeOrder, nodeTagOffsets.toArray(), 2, nodeTags.toArray());
+		int[][] wayNodeColumns = reorderRows(wayOrder, wayNodeOffsets.toArray(), 1, null);
+		int[][] wayTagColumns = reorderRows(wayOrder, wayTagOffsets.toArray(), 2, wayTags.toArray());
+		int[][] memberColumns = reorderRows(relationOrder, memberOffsets.toArray(), 1, memberRoles.toArray());
+		int[][] relationTagColumns = reorderRows(relationOrder, relationTagOffsets.toArray(), 2,
+				relationTags.toArray());
+
+		long[] oldWayNodeIds = wayNodeIds.toArray();
+		long[] oldMemberIds = memberIds.toArray();
+		byte[] oldMemberTypes = memberTypes.toArray();
+
+		CompactOSMDataStore store = new CompactOSMDataStore(strings.toArray(new String[0]),
+				reorder(nodeOrder, nodeIds.toArray()),
+				reorder(nodeOrder, nodeLats.toArray()),
+				reorder(nodeOrder, nodeLons.toArray()),
+				nodeTagColumns[0], nodeTagColumns[1],
+				reorder(wayOrder, wayIds.toArray()),
+				wayNodeColumns[0], select(wayNodeColumns[2], oldWayNodeIds),
+				wayTagColumns[0], wayTagColumns[1],
+				reorder(relationOrder, relationIds.toArray()),
+				memberColumns[0], select(memberColumns[2], oldMemberIds),
+				select(memberColumns[2], oldMemberTypes), memberColumns[1],
+				relationTagColumns[0], relationTagColumns[1]);
+
+		return new OSMData(new ArrayList<>(bounds), store);
+
+	}
+
+	private void addTags(OsmEntity entity, TIntArrayList tagOffsets, TIntArrayList tags) {
+		for (int i = 0; i < entity.getNumberOfTags(); i++) {
+			OsmTag tag = entity.getTag(i);
+			tags.add(stringIndex(tag.getKey()));
+			tags.add(stringIndex(tag.getValue()));
+		}
+		tagOffsets.add(tags.size() / 2);
+	}
+
+	private void addTags(String[] keysAndValues, TIntArrayList tagOffsets, TIntArrayList tags) {
+		for (String string : keysAndValues) {
+			tags.add(stringIndex(string));
+		}
+		tagOffsets.add(tags.size() / 2);
+	}
+
+	private int stringIndex(String string) {
+		return stringIndices.computeIfAbsent(string, s -> {
+			strings.add(s);
+			return strings.size() - 1;
+		});
+	}
+
+	static int toFixedPoint(double degrees) {
+		return (int) round(degrees * COORDINATE_UNITS_PER_DEGREE);
+	}
+
+	/**
+	 * returns the indices of the ids in ascending order of the ids, omitting all but the last occurrence
+	 * of duplicate ids. Returns null if the ids are already strictly ascending.
+	 */
+	static @Nullable int[] sortedOrder(long[] ids) {
+
+		boolean sorted = true;
+		for (int i = 1; i < ids.length && sorted; i++) {
+			sorted = ids[i - 1] < ids[i];
+		}
+		if (sorted) return null;
+
+		/* stable sort, so later duplicates come after earlier ones */
+		int[] order = IntStream.range(0, ids.length).boxed()
+				.sorted(Comparator.comparingLong(i -> ids[i]))
+				.mapToInt(i -> i)
+				.toArray();
+
+		int size = 0;
+		for (int i = 0; i < order.length; i++) {
+			if (i + 1 < order.length && ids[order[i + 1]] == ids[order[i]]) continue;
+			order[size++] = order[i];
+		}
+
+		return Arrays.copyOf(order, size);
+
+	}
+
+	private static long[] reorder(@Nullable int[] order, long[] values) {
+		if (order == null) return values;
+		long[] result = new long[order.length];
+		for (int i = 0; i < order.length; i++) {
+			result[i] = values[order[i]];
+		}
+		return result;
+	}
+
+	private static int[] reorder(@Nullable int[] order, int[] values) {
+		if (order == null) return values;
+		int[] result = new int[order.length];
+		for (int i = 0; i < order.length; i++) {
+			result[i] = values[order[i]];
+		}
+		return result;
+	}
+
+	private static long[] select(@Nullable int[] positions, long[] values) {
+		return positions == null ? values : reorder(positions, values);
+	}
+
+	private static byte[] select(@Nullable int[] positions, byte[] values) {
+		if (positions == null) return values;
+		byte[] result = new byte[positions.length];
+		for (int i = 0; i < positions.length; i++) {
+			result[i] = values[positions[i]];
+		}
+		return result;
+	}
+
+	/**
+	 * reorders the rows of a compressed sparse row structure.
+	 *
+	 * @param order  new order of the rows as returned by {@link #sortedOrder(long[])}, may be null
+	 * @param offsets  offsets of the rows, counting groups of groupSize values
+	 * @param groupSize  number of values per group, e.g. 2 for key/value pairs
+	 * @param values  the values, may be null if only the positions are needed
+	 * @return  the new offsets, the reordered values, and the old position of each new group
+	 *          (or null instead of the positions if the order is unchanged)
+	 */
+	private static int[][] reorderRows(@Nullable int[] order, int[] offsets, int groupSize,
+			@Nullable int[] values) {
+
+		if (order == null) {
+			return new int[][] {offsets, values, null};
+		}
+
+		int[] newOffsets = new int[order.length + 1];
+		for (int i = 0; i < order.length; i++) {
+			newOffsets[i + 1] = newOffsets[i] + offsets[order[i] + 1] - offsets[order[i]];
+		}
+
+		int[] newValues = values == null ? null : new int[newOffsets[order.length] * groupSize];
+		int[] positions = new int[newOffsets[order.length]];
+
+		for (int i = 0; i < order.length; i++) {
+			int oldStart = offsets[order[i]];
+			int length = newOffsets[i + 1] - newOffsets[i];
+			for (int j = 0; j < length; j++) {
+				positions[newOffsets[i] + j] = oldStart + j;
+			}
+			if (newValues != null) {
+				System.arraycopy(values, oldStart * groupSize, newValues, newOffsets[i] * groupSize,
+						length * groupSize);
+			}
+		}
+
+		return new int[][] {newOffsets, newValues, positions};
+
+	}
+
+}
@@ -0,0 +1,277 @@
+package org.osm2world.core.osm.data;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+
+import de.topobyte.osm4j.core.model.iface.EntityType;
+import de.topobyte.osm4j.core.model.iface.OsmEntity;
+import de.topobyte.osm4j.core.model.iface.OsmMetadata;
+import de.topobyte.osm4j.core.model.iface.OsmNode;
+import de.topobyte.osm4j.core.model.iface.OsmRelation;
+import de.topobyte.osm4j.core.model.iface.OsmRelationMember;
+import de.topobyte.osm4j.core.model.iface.OsmTag;
+import de.topobyte.osm4j.core.model.iface.OsmWay;
+import de.topobyte.osm4j.core.model.impl.RelationMember;
+import de.topobyte.osm4j.core.model.impl.Tag;
+import de.topobyte.osm4j.core.resolve.EntityNotFoundException;
+
+/**
+ * {@link OSMDataStore} with columnar storage in primitive arrays, created using {@link CompactOSMDataBuilder}.
+ *
+ * Entities of each type are sorted by id. Coordinates are stored as fixed-point values in units of
+ * 10<sup>-7</sup> degrees, which is the precision of OSM's database and of .osm.pbf files with the default
+ * granularity. Way nodes, relation members and tags are stored in compressed sparse row layout:
+ * The values for all entities are concatenated, and an offsets array (with one more element than there are
+ * entities) marks where each entity's values start. Strings are stored as indices into a dictionary.
+ *
+ * Entities are returned as lightweight views which are created on each access.
+ * Views of the same entity are equal to each other.
+ */
+class CompactOSMDataStore implements OSMDataStore {
+
+	static final double COORDINATE_UNITS_PER_DEGREE = 1e7;
+
+	final String[] strings;
+
+	final long[] nodeIds;
+	final int[] nodeLats;
+	final int[] nodeLons;
+	/** offsets into {@link #nodeTags}, counting key/value pairs */
+	final int[] nodeTagOffsets;
+	/** alternating keys and values */
+	final int[] nodeTags;
+
+	final long[] wayIds;
+	final int[] wayNodeOffsets;
+	final long[] wayNodeIds;
+	final int[] wayTagOffsets;
+	final int[] wayTags;
+
+	final long[] relationIds;
+	final int[] memberOffsets;
+	final long[] memberIds;
+	final byte[] memberTypes;
+	final int[] memberRoles;
+	final int[] relationTagOffsets;
+	final int[] relationTags;
+
+	CompactOSMDataStore(String[] strings,
+			long[] nodeIds, int[] nodeLats, int[] nodeLons, int[] nodeTagOffsets, int[] nodeTags,
+			long[] wayIds, int[] wayNodeOffsets, long[] wayNodeIds, int[] wayTagOffsets, int[] wayTags,
+			long[] relationIds, int[] memberOffsets, long[] memberIds, byte[] memberTypes, int[] memberRoles,
+			int[] relationTagOffsets, int[] relationTags) {
+		this.strings = strings;
+		this.nodeIds = nodeIds;
+		this.nodeLats = nodeLats;
+		this.nodeLons = nodeLons;
+		this.nodeTagOffsets = nodeTagOffsets;
+		this.nodeTags = nodeTags;
+		this.wayIds = wayIds;
+		this.wayNodeOffsets = wayNodeOffsets;
+		this.wayNodeIds = wayNodeIds;
+		this.wayTagOffsets = wayTagOffsets;
+		this.wayTags = wayTags;
+		this.relationIds = relationIds;
+		this.memberOffsets = memberOffsets;
+		this.memberIds = memberIds;
+		this.memberTypes = memberTypes;
+		this.memberRoles = memberRoles;
+		this.relationTagOffsets = relationTagOffsets;
+		this.relationTags = relationTags;
+	}
+
+	@Override
+	public Collection<OsmNode> getNodes() {
+		return new AbstractList<OsmNode>() {
+			@Override public OsmNode get(int index) { return new NodeView(index); }
+			@Override public int size() { return nodeIds.length; }
+		};
+	}
+
+	@Override
+	public OsmNode getNode(long id) throws EntityNotFoundException {
+		int index = Arrays.binarySearch(nodeIds, id);
+		if (index < 0) throw new EntityNotFoundException("unable to find node with id: " + id);
+		return new NodeView(index);
+	}
+
+	@Override
+	public Collection<OsmWay> getWays() {
+		return new AbstractList<OsmWay>() {
+			@Override public OsmWay get(int index) { return new WayView(index); }
+			@Override public int size() { return wayIds.length; }
+		};
+	}
+
+	@Override
+	public OsmWay getWay(long id) throws EntityNotFoundException {
+		int index = Arrays.binarySearch(wayIds, id);
+		if (index < 0) throw new EntityNotFoundException("unable to find way with id: " + id);
+		return new WayView(index);
+	}
+
+	@Override
+	public Collection<OsmRelation> getRelations() {
+		return new AbstractList<OsmRelation>() {
+			@Override public OsmRelation get(int index) { return new RelationView(index); }
+			@Override public int size() { return relationIds.length; }
+		};
+	}
+
+	@Override
+	public OsmRelation getRelation(long id) throws EntityNotFoundException {
+		int index = Arrays.binarySearch(relationIds, id);
+		if (index < 0) throw new EntityNotFoundException("unable to find relation with id: " + id);
+		return new RelationView(index);
+	}
+
+	/** common implementation of the views for each entity type */
+	private abstract class EntityView implements OsmEntity {
+
+		final int index;
+
+		EntityView(int index) {
+			this.index = index;
+		}
+
+		abstract long[] ids();
+		abstract int[] tagOffsets();
+		abstract int[] tags();
+
+		@Override
+		public long getId() {
+			return ids()[index];
+		}
+
+		@Override
+		public int getNumberOfTags() {
+			return tagOffsets()[index + 1] - tagOffsets()[index];
+		}
+
+		@Override
+		public OsmTag getTag(int n) {
+			int pos = 2 * (tagOffsets()[index] + n);
+			return new Tag(strings[tags()[pos]], strings[tags()[pos + 1]]);
+		}
+
+		/** metadata is not stored */
+		@Override
+		public OsmMetadata getMetadata() {
+			return null;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj != null && obj.getClass() == getClass()
+					&& ((EntityView) obj).index == index
+					&& ((EntityView) obj).store() == store();
+		}
+
+		@Override
+		public int hashCode() {
+			return Long.hashCode(getId());
+		}
+
+		private CompactOSMDataStore store() {
+			return CompactOSMDataStore.this;
+		}
+
+	}
+
+	private class NodeView extends EntityView implements OsmNode {
+
+		NodeView(int index) {
+			super(index);
+		}
+
+		@Override long[] ids() { return nodeIds; }
+		@Override int[] tagOffsets() { return nodeTagOffsets; }
+		@Override int[] tags() { return nodeTags; }
+
+		public EntityType getType() {
+			return EntityType.Node;
+		}
+
+		@Override
+		public double getLatitude() {
+			return nodeLats[index] / COORDINATE_UNITS_PER_DEGREE;
+		}
+
+		@Override
+		public double getLongitude() {
+			return nodeLons[index] / COORDINATE_UNITS_PER_DEGREE;
+		}
+
+		@Override
+		public String toString() {
+			return "n" + getId();
+		}
+
+	}
+
+	private class WayView extends EntityView implements OsmWay {
+
+		WayView(int index) {
+			super(index);
+		}
+
+		@Override long[] ids() { return wayIds; }
+		@Override int[] tagOffsets() { return wayTagOffsets; }
+		@Override int[] tags() { return wayTags; }
+
+		public EntityType getType() {
+			return EntityType.Way;
+		}
+
+		@Override
+		public int getNumberOfNodes() {
+			return wayNodeOffsets[index + 1] - wayNodeOffsets[index];
+		}
+
+		@Override
+		public long getNodeId(int n) {
+			return wayNodeIds[wayNodeOffsets[index] + n];
+		}
+
+		@Override
+		public String toString() {
+			return "w" + getId();
+		}
+
+	}
+
+	private class RelationView extends EntityView implements OsmRelation {
+
+		RelationView(int index) {
+			super(index);
+		}
+
+		@Override long[] ids() { return relationIds; }
+		@Override int[] tagOffsets() { return relationTagOffsets; }
+		@Override int[] tags() { return relationTags; }
+
+		public EntityType getType() {
+			return EntityType.Relation;
+		}
+
+		@Override
+		public int getNumberOfMembers() {
+			return memberOffsets[index + 1] - memberOffsets[index];
+		}
+
+		@Override
+		public OsmRelationMember getMember(int n) {
+			int pos = memberOffsets[index] + n;
+			return new RelationMember(memberIds[pos], EntityType.values()[memberTypes[pos]],
+					strings[memberRoles[pos]]);
+		}
+
+		@Override
+		public String toString() {
+			return "r" + getId();
+		}
+
+	}
+
+}
@@ -0,0 +1,52 @@
+package org.osm2world.core.osm.data;
+
+import java.util.Collection;
+
+import de.topobyte.osm4j.core.dataset.InMemoryMapDataSet;
+import de.topobyte.osm4j.core.model.iface.OsmNode;
+import de.topobyte.osm4j.core.model.iface.OsmRelation;
+import de.topobyte.osm4j.core.model.iface.OsmWay;
+import de.topobyte.osm4j.core.resolve.EntityNotFoundException;
+
+/**
+ * {@link OSMDataStore} keeping osm4j's entity objects in an {@link InMemoryMapDataSet}
+ */
+class InMemoryOSMDataStore implements OSMDataStore {
+
+	final InMemoryMapDataSet data;
+
+	InMemoryOSMDataStore(InMemoryMapDataSet data) {
+		this.data = data;
+	}
+
+	@Override
+	public Collection<OsmNode> getNodes() {
+		return data.getNodes().valueCollection();
+	}
+
+	@Override
+	public OsmNode getNode(long id) throws EntityNotFoundException {
+		return data.getNode(id);
+	}
+
+	@Override
+	public Collection<OsmWay> getWays() {
+		return data.getWays().valueCollection();
+	}
+
+	@Override
+	public OsmWay getWay(long id) throws EntityNotFoundException {
+		return data.getWay(id);
+	}
+
+	@Override
+	public Collection<OsmRelation> getRelations() {
+		return data.getRelations().valueCollection();
+	}
+
+	@Override
+	public OsmRelation getRelation(long id) throws EntityNotFoundException {
+		return data.getRelation(id);
+	}
+
+}
@@ -0,0 +1,236 @@
+package org.osm2world.core.osm.data;
+
+import static de.topobyte.osm4j.core.model.util.OsmModelUtil.getTagsAsMap;
+
+import java.util.Collection;
+
+import javax.annotation.Nullable;
+
+import de.topobyte.osm4j.core.model.iface.OsmEntity;
+import de.topobyte.osm4j.core.model.iface.OsmNode;
+import de.topobyte.osm4j.core.model.iface.OsmRelation;
+import de.topobyte.osm4j.core.model.iface.OsmRelationMember;
+import de.topobyte.osm4j.core.model.iface.OsmWay;
+import de.topobyte.osm4j.core.resolve.EntityNotFoundException;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+
+/**
+ * a set of changes to {@link OSMData}, such as the content of an osmChange (.osc) file.
+ *
+ * Created and modified entities are stored in their new version, deleted entities are only stored as ids.
+ * If the same entity is changed several times, only the last change is kept.
+ * Changes can be applied to a dataset with {@link OSMData#applyChange(OSMChange)}.
+ */
+public class OSMChange {
+
+	private final TLongObjectMap<OsmNode> nodes = new TLongObjectHashMap<>();
+	private final TLongObjectMap<OsmWay> ways = new TLongObjectHashMap<>();
+	private final TLongObjectMap<OsmRelation> relations = new TLongObjectHashMap<>();
+
+	private final TLongSet deletedNodeIds = new TLongHashSet();
+	private final TLongSet deletedWayIds = new TLongHashSet();
+	private final TLongSet deletedRelationIds = new TLongHashSet();
+
+	/** adds a created or modified node */
+	public void addNode(OsmNode node) {
+		nodes.put(node.getId(), node);
+		deletedNodeIds.remove(node.getId());
+	}
+
+	/** adds a created or modified way */
+	public void addWay(OsmWay way) {
+		ways.put(way.getId(), way);
+		deletedWayIds.remove(way.getId());
+	}
+
+	/** adds a created or modified relation */
+	public void addRelation(OsmRelation relation) {
+		relations.put(relation.getId(), relation);
+		deletedRelationIds.remove(relation.getId());
+	}
+
+	public void deleteNode(long id) {
+		nodes.remove(id);
+		deletedNodeIds.add(id);
+	}
+
+	public void deleteWay(long id) {
+		ways.remove(id);
+		deletedWayIds.add(id);
+	}
+
+	public void deleteRelation(long id) {
+		relations.remove(id);
+		deletedRelationIds.add(id);
+	}
+
+	/** returns the created and modified nodes */
+	public Collection<OsmNode> getNodes() {
+		return nodes.valueCollection();
+	}
+
+	/** returns the created and modified ways */
+	public Collection<OsmWay> getWays() {
+		return ways.valueCollection();
+	}
+
+	/** returns the created and modified relations */
+	public Collection<OsmRelation> getRelations() {
+		return relations.valueCollection();
+	}
+
+	/** returns the new version of a node, or null if the node has not been created or modified */
+	public @Nullable OsmNode getNode(long id) {
+		return nodes.get(id);
+	}
+
+	/** returns the new version of a way, or null if the way has not been created or modified */
+	public @Nullable OsmWay getWay(long id) {
+		return ways.get(id);
+	}
+
+	/** returns the new version of a relation, or null if the relation has not been created or modified */
+	public @Nullable OsmRelation getRelation(long id) {
+		return relations.get(id);
+	}
+
+	public long[] getDeletedNodeIds() {
+		return deletedNodeIds.toArray();
+	}
+
+	public long[] getDeletedWayIds() {
+		return deletedWayIds.toArray();
+	}
+
+	public long[] getDeletedRelationIds() {
+		return deletedRelationIds.toArray();
+	}
+
+	public boolean isNodeDeleted(long id) {
+		return deletedNodeIds.contains(id);
+	}
+
+	public boolean isWayDeleted(long id) {
+		return deletedWayIds.contains(id);
+	}
+
+	public boolean isRelationDeleted(long id) {
+		return deletedRelationIds.contains(id);
+	}
+
+	public boolean isEmpty() {
+		return nodes.isEmpty() && ways.isEmpty() && relations.isEmpty()
+				&& deletedNodeIds.isEmpty() && deletedWayIds.isEmpty() && deletedRelationIds.isEmpty();
+	}
+
+	/** returns a change with the same effect as applying this change first, then the other one */
+	public OSMChange followedBy(OSMChange other) {
+
+		OSMChange result = new OSMChange();
+
+		for (OSMChange change : new OSMChange[] {this, other}) {
+			change.nodes.valueCollection().forEach(result::addNode);
+			change.ways.valueCollection().forEach(result::addWay);
+			change.relations.valueCollection().forEach(result::addRelation);
+			change.deletedNodeIds.forEach(id -> { result.deleteNode(id); return true; });
+			change.deletedWayIds.forEach(id -> { result.deleteWay(id); return true; });
+			change.deletedRelationIds.forEach(id -> { result.deleteRelation(id); return true; });
+		}
+
+		return result;
+
+	}
+
+	/**
+	 * determines the changes between two versions of a dataset, e.g. a file before and after editing it.
+	 * This compares all entities, but is still much cheaper than converting the data.
+	 */
+	public static OSMChange between(OSMData before, OSMData after) {
+
+		OSMChange result = new OSMChange();
+
+		for (OsmNode node : after.getNodes()) {
+			OsmNode oldNode = getOrNull(before::getNode, node.getId());
+			if (oldNode == null || oldNode.getLatitude() != node.getLatitude()
+					|| oldNode.getLongitude() != node.getLongitude() || !equalTags(oldNode, node)) {
+				result.addNode(node);
+			}
+		}
+
+		for (OsmWay way : after.getWays()) {
+			OsmWay oldWay = getOrNull(before::getWay, way.getId());
+			if (oldWay == null || !equalNodes(oldWay, way) || !equalTags(oldWay, way)) {
+				result.addWay(way);
+			}
+		}
+
+		for (OsmRelation relation : after.getRelations()) {
+			OsmRelation oldRelation = getOrNull(before::getRelation, relation.getId());
+			if (oldRelation == null || !equalMembers(oldRelation, relation) || !equalTags(oldRelation, relation)) {
+				result.addRelation(relation);
+			}
+		}
+
+		for (OsmNode node : before.getNodes()) {
+			if (getOrNull(after::getNode, node.getId()) == null) {
+				result.deleteNode(node.getId());
+			}
+		}
+
+		for (OsmWay way : before.getWays()) {
+			if (getOrNull(after::getWay, way.getId()) == null) {
+				result.deleteWay(way.getId());
+			}
+		}
+
+		for (OsmRelation relation : before.getRelations()) {
+			if (getOrNull(after::getRelation, relation.getId()) == null) {
+				result.deleteRelation(relation.getId());
+			}
+		}
+
+		return result;
+
+	}
+
+	private static boolean equalTags(OsmEntity e1, OsmEntity e2) {
+		return getTagsAsMap(e1).equals(getTagsAsMap(e2));
+	}
+
+	private static boolean equalNodes(OsmWay w1, OsmWay w2) {
+		if (w1.getNumberOfNodes() != w2.getNumberOfNodes()) return false;
+		for (int i = 0; i < w1.getNumberOfNodes(); i++) {
+			if (w1.getNodeId(i) != w2.getNodeId(i)) return false;
+		}
+		return true;
+	}
+
+	private static boolean equalMembers(OsmRelation r1, OsmRelation r2) {
+		if (r1.getNumberOfMembers() != r2.getNumberOfMembers()) return false;
+		for (int i = 0; i < r1.getNumberOfMembers(); i++) {
+			OsmRelationMember m1 = r1.getMember(i);
+			OsmRelationMember m2 = r2.getMember(i);
+			if (m1.getId() != m2.getId() || m1.getType() != m2.getType() || !m1.getRole().equals(m2.getRole())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static @Nullable <T> T getOrNull(EntityLookup<T> lookup, long id) {
+		try {
+			return lookup.get(id);
+		} catch (EntityNotFoundException e) {
+			return null;
+		}
+	}
+
+	@FunctionalInterface
+	private interface EntityLookup<T> {
+		T get(long id) throws EntityNotFoundException;
+	}
+
+}
@@ -25,7 +25,7 @@ import de.topobyte.osm4j.core.resolve.OsmEntityProvider;
 public class OSMData implements OsmEntityProvider {
 
 	private final Collection<OsmBounds> bounds;
-	private final InMemoryMapDataSet data;
+	private final OSMDataStore store;
 
 	public OSMData(InMemoryMapDataSet data) {
 
@@ -35,7 +35,7 @@ public class OSMData implements OsmEntityProvider {
 			bounds = emptyList();
 		}
 
-		this.data = data;
+		this.store = new InMemoryOSMDataStore(data);
 
 	}
 
@@ -44,48 +44,53 @@ public class OSMData implements OsmEntityProvider {
 
 		this.bounds = bounds;
 
-		data = new InMemoryMapDataSet();
-		for (OsmNode node : nodes) {
-			data.getNodes().put(node.getId(), node);
-		}
-		for (OsmWay way : ways) {
-			data.getWays().put(way.getId(), way);
-		}
-		for (OsmRelation relation : relations) {
-			data.getRelations().put(relation.getId(), relation);
-		}
+		this.store = new InMemoryOSMDataStore(toDataSet(nodes, ways, relations));
 
 	}
 
+	OSMData(Collection<OsmBounds> bounds, OSMDataStore store) {
+		this.bounds = bounds;
+		this.store = store;
+	}
+
+	/**
+	 * returns the data as an {@link InMemoryMapDataSet}.
+	 * If the data is not held in that form (e.g. because it has been built with {@link CompactOSMDataBuilder}),
+	 * this creates a new data set, which is expensive for large amounts of data.
+	 */
 	public InMemoryMapDataSet getData() {
-		return data;
+		if (store instanceof InMemoryOSMDataStore) {
+			return ((InMemoryOSMDataStore) store).data;
+		} else {
+			return toDataSet(getNodes(), getWays(), getRelations());
+		}
 	}
 
 	public Collection<OsmNode> getNodes() {
-		return data.getNodes().valueCollection();
+		return store.getNodes();
 	}
 
 	@Override
 	public OsmNode getNode(long id) throws EntityNotFoundException {
-		return data.getNode(id);
+		return store.getNode(id);
 	}
 
 	public Collection<OsmWay> getWays() {
-		return data.getWays().valueCollection();
+		return store.getWays();
 	}
 
 	@Override
 	public OsmWay getWay(long id) throws EntityNotFoundException {
-		return data.getWay(id);
+		return store.getWay(id);
 	}
 
 	public Collection<OsmRelation> getRelations() {
-		return data.getRelations().valueCollection();
+		return store.getRelations();
 	}
 
 	@Override
 	public OsmRelation getRelation(long id) throws EntityNotFoundException {
-		return data.getRelation(id);
+		return store.getRelation(id);
 	}
 
 	public Collection<LatLonBounds> getExplicitBounds() {
@@ -121,4 +126,44 @@ public class OSMData implements OsmEntityProvider {
 		return getLatLonBounds().getCenter();
 	}
 
+	/**
+	 * returns a dataset with a change applied to it. This dataset is not modified.
+	 * The result shares the unchanged entities with this dataset rather than copying them.
+	 */
+	public OSMData applyChange(OSMChange change) {
+		return new OSMData(bounds, new ChangedOSMDataStore(store, change));
+	}
+
+	/**
+	 * returns a dataset which only contains some of this dataset's entities.
+	 * Looking up entities by id (e.g. the nodes of a way) is still possible for all of this dataset's entities.
+	 */
+	public OSMData subset(Collection<OsmNode> nodes, Collection<OsmWay> ways, Collection<OsmRelation> relations) {
+		return new OSMData(bounds, new SubsetOSMDataStore(store, nodes, ways, relations));
+	}
+
+	/**
+	 * variant of {@link #subset(Collection, Collection, Collection)}
+	 * which replaces this dataset's explicit bounds in the result
+	 */
+	public OSMData subset(Collection<OsmBounds> bounds, Collection<OsmNode> nodes,
+			Collection<OsmWay> ways, Collection<OsmRelation> relations) {
+		return new OSMData(bounds, new SubsetOSMDataStore(store, nodes, ways, relations));
+	}
+
+	private static InMemoryMapDataSet toDataSet(Collection<? extends OsmNode> nodes,
+			Collection<? extends OsmWay> ways, Collection<? extends OsmRelation> relations) {
+		InMemoryMapDataSet data = new InMemoryMapDataSet();
+		for (OsmNode node : nodes) {
+			data.getNodes().put(node.getId(), node);
+		}
+		for (OsmWay way : ways) {
+			data.getWays().put(way.getId(), way);
+		}
+		for (OsmRelation relation : relations) {
+			data.getRelations().put(relation.getId(), relation);
+		}
+		return data;
+	}
+
 }
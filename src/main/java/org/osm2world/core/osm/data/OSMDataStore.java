@@ -0,0 +1,21 @@
+package org.osm2world.core.osm.data;
+
+import java.util.Collection;
+
+import de.topobyte.osm4j.core.model.iface.OsmNode;
+import de.topobyte.osm4j.core.model.iface.OsmRelation;
+import de.topobyte.osm4j.core.model.iface.OsmWay;
+import de.topobyte.osm4j.core.resolve.OsmEntityProvider;
+
+/**
+ * storage backend for the entities of an {@link OSMData} instance
+ */
+interface OSMDataStore extends OsmEntityProvider {
+
+	Collection<OsmNode> getNodes();
+
+	Collection<OsmWay> getWays();
+
+	Collection<OsmRelation> getRelations();
+
+}
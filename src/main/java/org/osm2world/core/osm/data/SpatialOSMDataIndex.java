@@ -0,0 +1,249 @@
+package org.osm2world.core.osm.data;
+
+import static java.lang.Math.floor;
+import static java.util.Collections.singletonList;
+
+import java.util.ArrayList;
+import java.util.function.LongConsumer;
+
+import javax.annotation.Nullable;
+
+import org.osm2world.core.map_data.creation.LatLonBounds;
+
+import de.topobyte.osm4j.core.model.iface.EntityType;
+import de.topobyte.osm4j.core.model.iface.OsmNode;
+import de.topobyte.osm4j.core.model.iface.OsmRelation;
+import de.topobyte.osm4j.core.model.iface.OsmRelationMember;
+import de.topobyte.osm4j.core.model.iface.OsmTag;
+import de.topobyte.osm4j.core.model.iface.OsmWay;
+import de.topobyte.osm4j.core.model.impl.Bounds;
+import de.topobyte.osm4j.core.resolve.EntityNotFoundException;
+import gnu.trove.list.array.TLongArrayList;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+
+/**
+ * index for extracting the data within bounding boxes from an {@link OSMData} instance.
+ * Each extraction only looks at the entities near its bounds, rather than at all entities of the data,
+ * so a large region can be split into many small parts efficiently.
+ *
+ * The extracted data is the same as that of
+ * {@link org.osm2world.core.osm.creation.BoundedOSMFileReader} for the same bounds:
+ * It contains the nodes within the bounds, the ways using any of these nodes,
+ * the relations with any of these nodes, ways or relations as members, the remaining member ways of
+ * multipolygon relations, and the nodes of all these ways.
+ */
+public class SpatialOSMDataIndex {
+
+	private final OSMData data;
+
+	/** size of the grid cells in degrees */
+	private final double cellSize;
+
+	/** ids of the nodes within each grid cell, see {@link #cellKey(int, int)} */
+	private final TLongObjectMap<TLongArrayList> nodeIdsByCell = new TLongObjectHashMap<>();
+
+	private final TLongObjectMap<TLongArrayList> wayIdsByNode = new TLongObjectHashMap<>();
+	private final TLongObjectMap<TLongArrayList> relationIdsByNode = new TLongObjectHashMap<>();
+	private final TLongObjectMap<TLongArrayList> relationIdsByWay = new TLongObjectHashMap<>();
+	private final TLongObjectMap<TLongArrayList> relationIdsByRelation = new TLongObjectHashMap<>();
+
+	/**
+	 * @param cellSize  size of the index's grid cells in degrees.
+	 *                  Should be similar to the size of the bounds which will be extracted.
+	 */
+	public SpatialOSMDataIndex(OSMData data, double cellSize) {
+
+		this.data = data;
+		this.cellSize = cellSize;
+
+		for (OsmNode node : data.getNodes()) {
+			addToListMap(nodeIdsByCell, cellKey(cellX(node.getLongitude()), cellY(node.getLatitude())), node.getId());
+		}
+
+		for (OsmWay way : data.getWays()) {
+			for (int i = 0; i < way.getNumberOfNodes(); i++) {
+				addToListMap(wayIdsByNode, way.getNodeId(i), way.getId());
+			}
+		}
+
+		for (OsmRelation relation : data.getRelations()) {
+			for (int i = 0; i < relation.getNumberOfMembers(); i++) {
+				OsmRelationMember member = relation.getMember(i);
+				TLongObjectMap<TLongArrayList> relationIdsByMember = switch (member.getType()) {
+					case Node -> relationIdsByNode;
+					case Way -> relationIdsByWay;
+					case Relation -> relationIdsByRelation;
+				};
+				addToListMap(relationIdsByMember, member.getId(), relation.getId());
+			}
+		}
+
+	}
+
+	/**
+	 * returns the data within the bounds, see {@link SpatialOSMDataIndex}.
+	 * The result has the bounds as its explicit bounds.
+	 */
+	public OSMData extract(LatLonBounds bounds) {
+
+		TLongObjectMap<OsmNode> nodes = new TLongObjectHashMap<>();
+		TLongObjectMap<OsmWay> ways = new TLongObjectHashMap<>();
+		TLongObjectMap<OsmRelation> relations = new TLongObjectHashMap<>();
+
+		/* nodes within the bounds */
+
+		for (int x = cellX(bounds.minlon); x <= cellX(bounds.maxlon); x++) {
+			for (int y = cellY(bounds.minlat); y <= cellY(bounds.maxlat); y++) {
+				TLongArrayList nodeIds = nodeIdsByCell.get(cellKey(x, y));
+				if (nodeIds == null) continue;
+				for (int i = 0; i < nodeIds.size(); i++) {
+					OsmNode node = getNode(nodeIds.get(i));
+					if (node != null && contains(bounds, node)) {
+						nodes.put(node.getId(), node);
+					}
+				}
+			}
+		}
+
+		/* ways using these nodes */
+
+		for (long nodeId : nodes.keys()) {
+			forEachId(wayIdsByNode.get(nodeId), wayId -> {
+				if (!ways.containsKey(wayId)) {
+					OsmWay way = getWay(wayId);
+					if (way != null) {
+						ways.put(wayId, way);
+					}
+				}
+			});
+		}
+
+		/* relations with these nodes or ways as members, and their parent relations */
+
+		TLongArrayList relationQueue = new TLongArrayList();
+
+		for (long nodeId : nodes.keys()) {
+			forEachId(relationIdsByNode.get(nodeId), relationQueue::add);
+		}
+
+		for (long wayId : ways.keys()) {
+			forEachId(relationIdsByWay.get(wayId), relationQueue::add);
+		}
+
+		while (!relationQueue.isEmpty()) {
+			long relationId = relationQueue.removeAt(relationQueue.size() - 1);
+			if (!relations.containsKey(relationId)) {
+				OsmRelation relation = getRelation(relationId);
+				if (relation != null) {
+					relations.put(relationId, relation);
+					forEachId(relationIdsByRelation.get(relationId), relationQueue::add);
+				}
+			}
+		}
+
+		/* remaining member ways of multipolygons */
+
+		for (OsmRelation relation : relations.valueCollection()) {
+			if (isMultipolygon(relation)) {
+				for (int i = 0; i < relation.getNumberOfMembers(); i++) {
+					OsmRelationMember member = relation.getMember(i);
+					if (member.getType() == EntityType.Way && !ways.containsKey(member.getId())) {
+						OsmWay way = getWay(member.getId());
+						if (way != null) {
+							ways.put(way.getId(), way);
+						}
+					}
+				}
+			}
+		}
+
+		/* nodes of the ways which are outside the bounds */
+
+		for (OsmWay way : ways.valueCollection()) {
+			for (int i = 0; i < way.getNumberOfNodes(); i++) {
+				if (!nodes.containsKey(way.getNodeId(i))) {
+					OsmNode node = getNode(way.getNodeId(i));
+					if (node != null) {
+						nodes.put(node.getId(), node);
+					}
+				}
+			}
+		}
+
+		Bounds osmBounds = new Bounds(bounds.minlon, bounds.maxlon, bounds.maxlat, bounds.minlat);
+
+		return data.subset(singletonList(osmBounds), new ArrayList<>(nodes.valueCollection()),
+				new ArrayList<>(ways.valueCollection()), new ArrayList<>(relations.valueCollection()));
+
+	}
+
+	private int cellX(double lon) {
+		return (int) floor(lon / cellSize);
+	}
+
+	private int cellY(double lat) {
+		return (int) floor(lat / cellSize);
+	}
+
+	private static long cellKey(int cellX, int cellY) {
+		return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+	}
+
+	private @Nullable OsmNode getNode(long id) {
+		try {
+			return data.getNode(id);
+		} catch (EntityNotFoundException e) {
+			return null;
+		}
+	}
+
+	private @Nullable OsmWay getWay(long id) {
+		try {
+			return data.getWay(id);
+		} catch (EntityNotFoundException e) {
+			return null;
+		}
+	}
+
+	private @Nullable OsmRelation getRelation(long id) {
+		try {
+			return data.getRelation(id);
+		} catch (EntityNotFoundException e) {
+			return null;
+		}
+	}
+
+	private static void addToListMap(TLongObjectMap<TLongArrayList> map, long key, long value) {
+		TLongArrayList list = map.get(key);
+		if (list == null) {
+			list = new TLongArrayList(1);
+			map.put(key, list);
+		}
+		list.add(value);
+	}
+
+	private static void forEachId(@Nullable TLongArrayList ids, LongConsumer action) {
+		if (ids != null) {
+			for (int i = 0; i < ids.size(); i++) {
+				action.accept(ids.get(i));
+			}
+		}
+	}
+
+	private static boolean isMultipolygon(OsmRelation relation) {
+		for (int i = 0; i < relation.getNumberOfTags(); i++) {
+			OsmTag tag = relation.getTag(i);
+			if ("type".equals(tag.getKey()) && "multipolygon".equals(tag.getValue())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean contains(LatLonBounds bounds, OsmNode node) {
+		return node.getLatitude() >= bounds.minlat && node.getLatitude() <= bounds.maxlat
+				&& node.getLongitude() >= bounds.minlon && node.getLongitude() <= bounds.maxlon;
+	}
+
+}
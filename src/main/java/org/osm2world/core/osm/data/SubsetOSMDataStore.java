@@ -0,0 +1,60 @@
+package org.osm2world.core.osm.data;
+
+import java.util.Collection;
+
+import de.topobyte.osm4j.core.model.iface.OsmNode;
+import de.topobyte.osm4j.core.model.iface.OsmRelation;
+import de.topobyte.osm4j.core.model.iface.OsmWay;
+import de.topobyte.osm4j.core.resolve.EntityNotFoundException;
+
+/**
+ * {@link OSMDataStore} which only lists some of the entities of another store,
+ * but can look up all of the other store's entities by id
+ */
+class SubsetOSMDataStore implements OSMDataStore {
+
+	private final OSMDataStore base;
+
+	private final Collection<OsmNode> nodes;
+	private final Collection<OsmWay> ways;
+	private final Collection<OsmRelation> relations;
+
+	SubsetOSMDataStore(OSMDataStore base, Collection<OsmNode> nodes,
+			Collection<OsmWay> ways, Collection<OsmRelation> relations) {
+		this.base = base;
+		this.nodes = nodes;
+		this.ways = ways;
+		this.relations = relations;
+	}
+
+	@Override
+	public Collection<OsmNode> getNodes() {
+		return nodes;
+	}
+
+	@Override
+	public OsmNode getNode(long id) throws EntityNotFoundException {
+		return base.getNode(id);
+	}
+
+	@Override
+	public Collection<OsmWay> getWays() {
+		return ways;
+	}
+
+	@Override
+	public OsmWay getWay(long id) throws EntityNotFoundException {
+		return base.getWay(id);
+	}
+
+	@Override
+	public Collection<OsmRelation> getRelations() {
+		return relations;
+	}
+
+	@Override
+	public OsmRelation getRelation(long id) throws EntityNotFoundException {
+		return base.getRelation(id);
+	}
+
+}
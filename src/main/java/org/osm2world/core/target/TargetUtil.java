@@ -1,17 +1,27 @@
 package org.osm2world.core.target;
 
+import static java.lang.Math.min;
 import static java.util.stream.Collectors.toList;
 import static org.osm2world.core.target.statistics.StatisticsTarget.Stat.PRIMITIVE_COUNT;
 import static org.osm2world.core.util.FaultTolerantIterationUtil.*;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 
+import javax.annotation.Nullable;
+
+import org.osm2world.core.ConversionMetrics;
 import org.osm2world.core.map_data.data.MapData;
 import org.osm2world.core.map_data.data.MapElement;
 import org.osm2world.core.map_elevation.data.GroundState;
 import org.osm2world.core.math.VectorXZ;
+import org.osm2world.core.target.common.MeshTarget;
+import org.osm2world.core.target.common.ModelRecordingTarget;
+import org.osm2world.core.target.common.mesh.Mesh;
+import org.osm2world.core.target.common.model.ModelInstance;
 import org.osm2world.core.target.statistics.StatisticsTarget;
 import org.osm2world.core.world.data.LegacyWorldObject;
 import org.osm2world.core.world.data.WorldObject;
@@ -21,20 +31,111 @@ public final class TargetUtil {
 	private TargetUtil() {}
 
 	/**
-	 * render all world objects to a target instance
-	 * that are compatible with that target type
+	 * number of world objects whose meshes are built at the same time.
+	 * Limits the memory used by meshes which have been built, but not yet sent to a target.
 	 */
-	public static void renderWorldObjects(Target target, MapData mapData, boolean renderUnderground) {
+	private static final int MESH_BUILDING_BATCH_SIZE = 1024;
 
-		for (MapElement mapElement : mapData.getMapElements()) {
-			forEach(mapElement.getRepresentations(), (WorldObject r) -> {
-				if (r.getParent() == null) {
-					if (renderUnderground || r.getGroundState() != GroundState.BELOW) {
-						renderObject(target, r);
-					}
+	/**
+	 * a world object along with the meshes and models which have been built for it.
+	 * {@link LegacyWorldObject}s can produce different output depending on the target type,
+	 * so they are only built in advance if the target is a {@link MeshTarget}.
+	 */
+	private static class PreparedObject {
+
+		final WorldObject object;
+
+		private @Nullable List<Mesh> meshes = null;
+		private @Nullable List<ModelInstance> subModels = null;
+		private @Nullable Throwable buildFailure = null;
+
+		/** time spent in {@link #build(boolean)} */
+		private long buildNanos = 0;
+
+		PreparedObject(WorldObject object) {
+			this.object = object;
+		}
+
+		/**
+		 * builds the meshes and models. Can be called from any thread.
+		 *
+		 * @param forMeshTarget  whether the results will be sent to a {@link MeshTarget}
+		 */
+		void build(boolean forMeshTarget) {
+			long start = System.nanoTime();
+			try {
+				if (!(object instanceof LegacyWorldObject)) {
+					meshes = object.buildMeshes();
+					subModels = object.getSubModels();
+				} else if (forMeshTarget) {
+					ModelRecordingTarget recordingTarget = new ModelRecordingTarget();
+					recordingTarget.beginObject(object);
+					((LegacyWorldObject)object).renderTo(recordingTarget);
+					meshes = recordingTarget.getMeshes();
+					subModels = recordingTarget.getModelInstances();
 				}
-			}, (e, r) -> DEFAULT_EXCEPTION_HANDLER.accept(e, r.getPrimaryMapElement()));
+			} catch (Exception | AssertionError e) {
+				buildFailure = e;
+			}
+			buildNanos = System.nanoTime() - start;
 		}
+
+		/**
+		 * sends the object's geometry to a target, with the same result as
+		 * {@link TargetUtil#renderObject(Target, WorldObject)}.
+		 * Rethrows any exception which occurred while building the meshes.
+		 */
+		void renderTo(Target target) {
+			target.beginObject(object);
+			if (buildFailure instanceof RuntimeException) {
+				throw (RuntimeException) buildFailure;
+			} else if (buildFailure instanceof Error) {
+				throw (Error) buildFailure;
+			} else if (meshes == null) {
+				((LegacyWorldObject)object).renderTo(target);
+			} else {
+				meshes.forEach(target::drawMesh);
+				subModels.forEach(it -> target.drawModel(it.model, it.params.position, it.params.direction,
+						it.params.height, it.params.width, it.params.length));
+			}
+		}
+
+	}
+
+	/**
+	 * render all world objects to a target instance
+	 * that are compatible with that target type.
+	 */
+	public static void renderWorldObjects(Target target, MapData mapData, boolean renderUnderground) {
+		renderWorldObjects(target, mapData, renderUnderground, false);
+	}
+
+	/**
+	 * variant of {@link #renderWorldObjects(Target, MapData, boolean)}
+	 * which can build the meshes on multiple threads.
+	 * They are sent to the target on the calling thread and in a deterministic order either way.
+	 *
+	 * @param parallel  whether the meshes should be built on multiple threads,
+	 *                  usually based on the "parallelMeshes" config option
+	 */
+	public static void renderWorldObjects(Target target, MapData mapData, boolean renderUnderground,
+			boolean parallel) {
+		renderWorldObjects(target, mapData, renderUnderground, parallel, null);
+	}
+
+	/**
+	 * variant of {@link #renderWorldObjects(Target, MapData, boolean, boolean)}
+	 * which records the time taken by each world object
+	 *
+	 * @param metrics  receives the time spent building and rendering each object, can be null
+	 */
+	public static void renderWorldObjects(Target target, MapData mapData, boolean renderUnderground,
+			boolean parallel, @Nullable ConversionMetrics metrics) {
+
+		forEachPreparedObject(mapData, target instanceof MeshTarget, parallel, metrics,
+				r -> r.getParent() == null && (renderUnderground || r.getGroundState() != GroundState.BELOW),
+				o -> o.renderTo(target));
+
 	}
 
 	/**
@@ -49,29 +150,74 @@ public final class TargetUtil {
 
 		final StatisticsTarget primitiveCounter = new StatisticsTarget();
 
-		forEach(mapData.getMapElements(), new Consumer<MapElement>() {
+		forEachPreparedObject(mapData, false, false, null, r -> true, new Consumer<PreparedObject>() {
 
 			Target currentTarget = targetIterator.next();
 
-			@Override public void accept(MapElement e) {
-				for (WorldObject r : e.getRepresentations()) {
+			@Override public void accept(PreparedObject o) {
 
-					renderObject(primitiveCounter, r);
+				o.renderTo(primitiveCounter);
 
-					renderObject(currentTarget, r);
-
-					if (primitiveCounter.getGlobalCount(PRIMITIVE_COUNT) >= primitiveThresholdPerTarget) {
-						currentTarget = targetIterator.next();
-						primitiveCounter.clear();
-					}
+				o.renderTo(currentTarget);
 
+				if (primitiveCounter.getGlobalCount(PRIMITIVE_COUNT) >= primitiveThresholdPerTarget) {
+					currentTarget = targetIterator.next();
+					primitiveCounter.clear();
 				}
+
 			}
 
 		});
 
 	}
 
+	/**
+	 * builds the meshes for the selected representations of all map elements in batches,
+	 * then passes them to an action on the calling thread in the order of {@link MapData#getMapElements()}.
+	 * Exceptions are handled for each object individually.
+	 *
+	 * @param forMeshTarget  see {@link PreparedObject#build(boolean)}
+	 * @param parallel  whether the meshes of a batch should be built on multiple threads
+	 * @param metrics  receives the time spent building each object and passing it to the action, can be null
+	 */
+	private static void forEachPreparedObject(MapData mapData, boolean forMeshTarget, boolean parallel,
+			@Nullable ConversionMetrics metrics, Predicate<WorldObject> filter, Consumer<PreparedObject> action) {
+
+		List<PreparedObject> preparedObjects = new ArrayList<>();
+
+		for (MapElement mapElement : mapData.getMapElements()) {
+			for (WorldObject r : mapElement.getRepresentations()) {
+				if (filter.test(r)) {
+					preparedObjects.add(new PreparedObject(r));
+				}
+			}
+		}
+
+		for (int batchStart = 0; batchStart < preparedObjects.size(); batchStart += MESH_BUILDING_BATCH_SIZE) {
+
+			List<PreparedObject> batch = preparedObjects.subList(batchStart,
+					min(batchStart + MESH_BUILDING_BATCH_SIZE, preparedObjects.size()));
+
+			(parallel ? batch.parallelStream() : batch.stream()).forEach(o -> o.build(forMeshTarget));
+
+			forEach(batch, o -> {
+				long start = System.nanoTime();
+				try {
+					action.accept(o);
+				} finally {
+					if (metrics != null) {
+						metrics.addWorldObjectTime(o.object, o.buildNanos + System.nanoTime() - start);
+					}
+				}
+			}, (e, o) -> DEFAULT_EXCEPTION_HANDLER.accept(e, o.object.getPrimaryMapElement()));
+
+			/* allow the meshes of this batch to be garbage collected */
+			batch.replaceAll(o -> null);
+
+		}
+
+	}
+
 	/**
 	 * renders any object to a target instance.
 	 * Also sends {@link Target#beginObject(WorldObject)} calls.
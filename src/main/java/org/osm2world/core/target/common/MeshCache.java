@@ -0,0 +1,262 @@
+package org.osm2world.core.target.common;
+
+import static org.osm2world.core.target.statistics.StatisticsTarget.Stat.PRIMITIVE_COUNT;
+import static org.osm2world.core.util.FaultTolerantIterationUtil.DEFAULT_EXCEPTION_HANDLER;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import javax.annotation.Nullable;
+
+import org.osm2world.core.ConversionMetrics;
+import org.osm2world.core.ConversionMetrics.Count;
+import org.osm2world.core.map_data.data.MapData;
+import org.osm2world.core.map_data.data.MapElement;
+import org.osm2world.core.map_elevation.data.GroundState;
+import org.osm2world.core.target.Target;
+import org.osm2world.core.target.TargetUtil;
+import org.osm2world.core.target.common.MeshStore.MeshMetadata;
+import org.osm2world.core.target.common.mesh.Mesh;
+import org.osm2world.core.target.common.model.ModelInstance;
+import org.osm2world.core.target.povray.POVRayTarget;
+import org.osm2world.core.target.povray.RenderableToPOVRay;
+import org.osm2world.core.target.statistics.StatisticsTarget;
+import org.osm2world.core.world.data.LegacyWorldObject;
+import org.osm2world.core.world.data.WorldObject;
+
+/**
+ * keeps the meshes and model instances produced by the {@link WorldObject}s of a {@link MapData},
+ * so that they can be sent to several {@link Target}s while only being built once.
+ *
+ * The cache is filled when it is first used. The meshes are sent to all types of targets using
+ * {@link Target#drawMesh(Mesh)}. For {@link LegacyWorldObject}s, these are the meshes which
+ * the object produces for a {@link MeshTarget}. Targets which rely on primitives other than triangles
+ * therefore receive the same geometry as triangles. The only exception are objects with
+ * POV-Ray specific output ({@link RenderableToPOVRay}), which are rendered to a {@link POVRayTarget} directly.
+ */
+public class MeshCache {
+
+	/** the meshes and model instances of one root {@link WorldObject} */
+	private static class CachedObject {
+
+		final WorldObject object;
+		final MeshStore meshStore;
+		final List<ModelInstance> modelInstances;
+
+		CachedObject(WorldObject object, MeshStore meshStore, List<ModelInstance> modelInstances) {
+			this.object = object;
+			this.meshStore = meshStore;
+			this.modelInstances = modelInstances;
+		}
+
+	}
+
+	private final MapData mapData;
+	private final boolean parallel;
+	private final @Nullable ConversionMetrics metrics;
+	private final boolean countTriangles;
+
+	private @Nullable List<CachedObject> cachedObjects = null;
+
+	/** entries from another cache which can be used instead of building the meshes again */
+	private final Map<WorldObject, CachedObject> reusableObjects = new IdentityHashMap<>();
+
+	/**
+	 * @param parallel  whether the world objects' meshes should be built on multiple threads
+	 * @param metrics  receives the time spent building each object's meshes, can be null
+	 * @param countTriangles  whether the triangles of the meshes should be added to the metrics.
+	 *                        This requires triangulating some meshes an additional time.
+	 */
+	public MeshCache(MapData mapData, boolean parallel,
+			@Nullable ConversionMetrics metrics, boolean countTriangles) {
+		this.mapData = mapData;
+		this.parallel = parallel;
+		this.metrics = metrics;
+		this.countTriangles = countTriangles;
+	}
+
+	public MeshCache(MapData mapData, boolean parallel) {
+		this(mapData, parallel, null, false);
+	}
+
+	/**
+	 * renders all world objects to a target.
+	 * The result is equivalent to {@link TargetUtil#renderWorldObjects(Target, MapData, boolean)}.
+	 */
+	public void renderTo(Target target, boolean renderUnderground) {
+
+		for (CachedObject cachedObject : getCachedObjects()) {
+
+			if (!renderUnderground && cachedObject.object.getGroundState() == GroundState.BELOW) continue;
+
+			try {
+				replay(cachedObject, target);
+			} catch (Exception | AssertionError e) {
+				DEFAULT_EXCEPTION_HANDLER.accept(e, cachedObject.object.getPrimaryMapElement());
+			}
+
+		}
+
+	}
+
+	/**
+	 * renders all world objects to a sequence of targets.
+	 * The result is equivalent to {@link TargetUtil#renderWorldObjects(Iterator, MapData, int)}.
+	 */
+	public void renderTo(Iterator<? extends Target> targetIterator, int primitiveThresholdPerTarget) {
+
+		StatisticsTarget primitiveCounter = new StatisticsTarget();
+		Target currentTarget = targetIterator.next();
+
+		for (CachedObject cachedObject : getCachedObjects()) {
+
+			try {
+				replay(cachedObject, primitiveCounter);
+				replay(cachedObject, currentTarget);
+			} catch (Exception | AssertionError e) {
+				DEFAULT_EXCEPTION_HANDLER.accept(e, cachedObject.object.getPrimaryMapElement());
+			}
+
+			if (primitiveCounter.getGlobalCount(PRIMITIVE_COUNT) >= primitiveThresholdPerTarget) {
+				currentTarget = targetIterator.next();
+				primitiveCounter.clear();
+			}
+
+		}
+
+	}
+
+	private static void replay(CachedObject cachedObject, Target target) {
+		if (target instanceof POVRayTarget && cachedObject.object instanceof RenderableToPOVRay) {
+			TargetUtil.renderObject(target, cachedObject.object);
+		} else {
+			target.beginObject(cachedObject.object);
+			cachedObject.meshStore.meshes().forEach(target::drawMesh);
+			cachedObject.modelInstances.forEach(it -> target.drawModel(it.model, it.params.position,
+					it.params.direction, it.params.height, it.params.width, it.params.length));
+		}
+	}
+
+	/**
+	 * returns the meshes of all world objects, along with the {@link MeshMetadata} for the object they belong to.
+	 * Model instances are not included.
+	 */
+	public MeshStore getMeshStore() {
+		MeshStore result = new MeshStore();
+		for (CachedObject cachedObject : getCachedObjects()) {
+			cachedObject.meshStore.meshesWithMetadata().forEach(result::addMesh);
+		}
+		return result;
+	}
+
+	/**
+	 * lets this cache use meshes which another cache has already built for the same {@link WorldObject}s,
+	 * e.g. for objects not affected by an incremental update. Has no effect for objects which
+	 * the other cache hasn't built yet, or if this cache has already been filled.
+	 *
+	 * @param isUnchanged  returns true for objects whose meshes are still up to date
+	 */
+	public synchronized void reuseMeshes(MeshCache previous, Predicate<WorldObject> isUnchanged) {
+
+		List<CachedObject> previousObjects;
+
+		synchronized (previous) {
+			previousObjects = previous.cachedObjects;
+		}
+
+		if (previousObjects != null) {
+			for (CachedObject cachedObject : previousObjects) {
+				if (isUnchanged.test(cachedObject.object)) {
+					reusableObjects.put(cachedObject.object, cachedObject);
+				}
+			}
+		}
+
+	}
+
+	private synchronized List<CachedObject> getCachedObjects() {
+
+		if (cachedObjects == null) {
+
+			List<WorldObject> rootObjects = new ArrayList<>();
+
+			for (MapElement mapElement : mapData.getMapElements()) {
+				for (WorldObject object : mapElement.getRepresentations()) {
+					if (object.getParent() == null) {
+						rootObjects.add(object);
+					}
+				}
+			}
+
+			CachedObject[] results = new CachedObject[rootObjects.size()];
+
+			for (int i = 0; i < results.length; i++) {
+				results[i] = reusableObjects.get(rootObjects.get(i));
+			}
+
+			IntStream indices = IntStream.range(0, results.length).filter(i -> results[i] == null);
+			if (parallel) {
+				indices = indices.parallel();
+			}
+
+			indices.forEach(i -> {
+				WorldObject object = rootObjects.get(i);
+				try {
+					long start = System.nanoTime();
+					results[i] = buildCachedObject(object);
+					if (metrics != null) {
+						metrics.addWorldObjectTime(object, System.nanoTime() - start);
+						if (countTriangles) {
+							for (Mesh mesh : results[i].meshStore.meshes()) {
+								metrics.add(Count.TRIANGLES, mesh.geometry.asTriangles().triangles.size());
+							}
+						}
+					}
+				} catch (Exception | AssertionError e) {
+					DEFAULT_EXCEPTION_HANDLER.accept(e, object.getPrimaryMapElement());
+				}
+			});
+
+			reusableObjects.clear();
+
+			cachedObjects = new ArrayList<>(results.length);
+
+			for (CachedObject cachedObject : results) {
+				if (cachedObject != null) {
+					cachedObjects.add(cachedObject);
+				}
+			}
+
+		}
+
+		return cachedObjects;
+
+	}
+
+	private static CachedObject buildCachedObject(WorldObject object) {
+
+		if (object instanceof LegacyWorldObject) {
+
+			ModelRecordingTarget recordingTarget = new ModelRecordingTarget();
+			recordingTarget.beginObject(object);
+			((LegacyWorldObject) object).renderTo(recordingTarget);
+
+			return new CachedObject(object, recordingTarget.meshStore, recordingTarget.getModelInstances());
+
+		} else {
+
+			List<Mesh> meshes = object.buildMeshes();
+			MeshMetadata metadata = new MeshMetadata(object.getPrimaryMapElement().getElementWithId(), object.getClass());
+
+			return new CachedObject(object, new MeshStore(meshes, metadata), object.getSubModels());
+
+		}
+
+	}
+
+}
@@ -0,0 +1,29 @@
+package org.osm2world.core.target.common;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.osm2world.core.math.VectorXYZ;
+import org.osm2world.core.target.common.model.InstanceParameters;
+import org.osm2world.core.target.common.model.Model;
+import org.osm2world.core.target.common.model.ModelInstance;
+
+/**
+ * a {@link MeshTarget} which records model instances instead of turning them into meshes.
+ * This allows the recorded geometry to be sent to other targets later, which can still use instancing.
+ */
+public class ModelRecordingTarget extends MeshTarget {
+
+	private final List<ModelInstance> modelInstances = new ArrayList<>();
+
+	@Override
+	public void drawModel(Model model, VectorXYZ position,
+			double direction, Double height, Double width, Double length) {
+		modelInstances.add(new ModelInstance(model, new InstanceParameters(position, direction, height, width, length)));
+	}
+
+	public List<ModelInstance> getModelInstances() {
+		return modelInstances;
+	}
+
+}
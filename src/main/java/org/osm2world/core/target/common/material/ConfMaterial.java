@@ -6,54 +6,49 @@ import java.util.List;
 
 /**
  * a material whose attributes can be configured at runtime.
+ * The values passed to the public constructors are defaults.
+ * A {@link MaterialRegistry} provides variants of these materials with the configured attributes,
+ * see {@link MaterialRegistry#get(Material)}.
  */
 public class ConfMaterial extends Material {
 
+	/** the material this is a configured variant of, or this material itself */
+	private final ConfMaterial definition;
+
 	public ConfMaterial(Interpolation interpolation, Color color, boolean doubleSided,
 			Transparency transparency, Shadow shadow, AmbientOcclusion ambientOcclusion,
 			List<TextureLayer> textureLayers) {
 		super(interpolation, color, doubleSided,
 				transparency, shadow, ambientOcclusion, textureLayers);
+		this.definition = this;
 	}
 
 	public ConfMaterial(Interpolation interpolation, Color color,
 			Transparency transparency, List<TextureLayer> textureLayers) {
 		super(interpolation, color, transparency, textureLayers);
+		this.definition = this;
 	}
 
 	public ConfMaterial(Interpolation interpolation, Color color) {
 		super(interpolation, color);
+		this.definition = this;
 	}
 
-	public void setInterpolation(Interpolation interpolation) {
-		this.interpolation = interpolation;
-	}
-
-	public void setColor(Color color) {
-		this.color = color;
-	}
-
-	public void setDoubleSided(boolean doubleSided) {
-		this.doubleSided = doubleSided;
-	}
-
-	public void setTransparency(Transparency transparency) {
-		this.transparency = transparency;
-	}
-
-	public void setShadow(Shadow shadow) {
-		this.shadow = shadow;
-	}
-
-	public void setAmbientOcclusion(AmbientOcclusion ambientOcclusion) {
-		this.ambientOcclusion = ambientOcclusion;
+	/** creates a variant of another material with configured attributes */
+	ConfMaterial(ConfMaterial definition, Interpolation interpolation, Color color, boolean doubleSided,
+			Transparency transparency, Shadow shadow, AmbientOcclusion ambientOcclusion,
+			List<TextureLayer> textureLayers) {
+		super(interpolation, color, doubleSided,
+				transparency, shadow, ambientOcclusion, textureLayers);
+		this.definition = definition.definition;
 	}
 
-	public void setTextureLayers(List<TextureLayer> textureLayers) {
-		if (textureLayers.size() > MAX_TEXTURE_LAYERS) {
-			throw new IllegalArgumentException("too many texture layers: " + textureLayers.size());
-		}
-		this.textureLayers = textureLayers;
+	/**
+	 * returns the material with default attributes which this material is a configured variant of.
+	 * For materials which aren't variants of another one, this is the material itself.
+	 */
+	ConfMaterial getDefinition() {
+		return definition;
 	}
 
 	@Override
@@ -68,7 +63,7 @@ public class ConfMaterial extends Material {
 
 	/*
 	 * unlike ImmutableMaterial, this has no equals method.
-	 * It should not equal another material just because that one currently (!)
+	 * It should not equal another material just because that one
 	 * has the same visual parameters.
 	 */
 
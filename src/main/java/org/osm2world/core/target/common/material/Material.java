@@ -53,14 +53,14 @@ public abstract class Material {
 	/**
 	 * Interpolation of normals
 	 */
-	protected Interpolation interpolation;
-	protected Color color;
-	protected boolean doubleSided;
-	protected Transparency transparency;
-	protected Shadow shadow;
-	protected AmbientOcclusion ambientOcclusion;
+	protected final Interpolation interpolation;
+	protected final Color color;
+	protected final boolean doubleSided;
+	protected final Transparency transparency;
+	protected final Shadow shadow;
+	protected final AmbientOcclusion ambientOcclusion;
 
-	protected List<TextureLayer> textureLayers;
+	protected final List<TextureLayer> textureLayers;
 
 	public Material(Interpolation interpolation, Color color, boolean doubleSided,
 			Transparency transparency, Shadow shadow, AmbientOcclusion ambientOcclusion,
@@ -125,7 +125,7 @@ public abstract class Material {
 	 * except with a different list of {@link TextureLayer}s
 	 */
 	public Material withLayers(List<TextureLayer> textureLayers) {
-		if (textureLayers.equals(this.textureLayers)) {
+		if (textureLayers.equals(getTextureLayers())) {
 			return this;
 		} else {
 		    return new ImmutableMaterial(getInterpolation(), getColor(), isDoubleSided(),
@@ -296,30 +296,30 @@ public abstract class Material {
 	}
 
 	public int getNumTextureLayers() {
-		return textureLayers.size();
+		return getTextureLayers().size();
 	}
 
 	public List<TextureDataDimensions> getTextureDimensions() {
-		return textureLayers.stream().map(l -> l.baseColorTexture.dimensions()).collect(toList());
+		return getTextureLayers().stream().map(l -> l.baseColorTexture.dimensions()).collect(toList());
 	}
 
 	public boolean equals(@Nonnull Material other, boolean ignoreNormalMode, boolean ignoreColor) {
-		return (ignoreNormalMode || interpolation == other.interpolation)
-				&& (ignoreColor || Objects.equals(color, other.color))
-				&& doubleSided == other.doubleSided
-				&& transparency == other.transparency
-				&& shadow == other.shadow
-				&& ambientOcclusion == other.ambientOcclusion
-				&& Objects.equals(textureLayers, other.textureLayers);
+		return (ignoreNormalMode || getInterpolation() == other.getInterpolation())
+				&& (ignoreColor || Objects.equals(getColor(), other.getColor()))
+				&& isDoubleSided() == other.isDoubleSided()
+				&& getTransparency() == other.getTransparency()
+				&& getShadow() == other.getShadow()
+				&& getAmbientOcclusion() == other.getAmbientOcclusion()
+				&& Objects.equals(getTextureLayers(), other.getTextureLayers());
 	}
 
 	@Override
 	public String toString() {
-		String colorString = String.format(Locale.ROOT, "#%06x", color.getRGB() & 0x00ffffff);
-		if (textureLayers.isEmpty() || textureLayers.stream().anyMatch(it -> it.colorable)) {
-			return colorString + ", " + textureLayers;
+		String colorString = String.format(Locale.ROOT, "#%06x", getColor().getRGB() & 0x00ffffff);
+		if (getTextureLayers().isEmpty() || getTextureLayers().stream().anyMatch(it -> it.colorable)) {
+			return colorString + ", " + getTextureLayers();
 		} else {
-			return textureLayers.toString();
+			return getTextureLayers().toString();
 		}
 	}
 
@@ -0,0 +1,490 @@
+package org.osm2world.core.target.common.material;
+
+import static java.util.Collections.*;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import javax.annotation.Nullable;
+
+import org.apache.commons.configuration.Configuration;
+import org.osm2world.core.target.common.material.Material.AmbientOcclusion;
+import org.osm2world.core.target.common.material.Material.Interpolation;
+import org.osm2world.core.target.common.material.Material.Shadow;
+import org.osm2world.core.target.common.material.Material.Transparency;
+import org.osm2world.core.target.common.material.TextTexture.FontStyle;
+import org.osm2world.core.target.common.material.TextureData.Wrap;
+import org.osm2world.core.target.common.texcoord.NamedTexCoordFunction;
+import org.osm2world.core.target.common.texcoord.TexCoordFunction;
+import org.osm2world.core.util.ConfigUtil;
+
+import com.google.common.collect.Streams;
+
+/**
+ * the material settings of a single conversion, based on the material_* keys of its configuration.
+ * Registries are immutable, so several conversions can each use their own one at the same time.
+ *
+ * The {@link ConfMaterial}s defined in {@link Materials} always have their default attributes.
+ * Code which creates geometry for a conversion therefore uses {@link #get(Material)},
+ * {@link #getMaterial(String)} or {@link #getSurfaceMaterial(String)} with that conversion's registry
+ * to obtain the materials with their configured attributes.
+ */
+public final class MaterialRegistry {
+
+	/** registry which doesn't configure any materials, so all of them keep their default attributes */
+	public static final MaterialRegistry EMPTY = new MaterialRegistry(emptyMap(), emptyMap());
+
+	/** configured variants of materials from {@link Materials} */
+	private final Map<ConfMaterial, ConfMaterial> configuredMaterials;
+
+	/** materials which are not defined in {@link Materials}, but only exist in the configuration */
+	private final Map<String, ConfMaterial> externalMaterials;
+
+	private MaterialRegistry(Map<ConfMaterial, ConfMaterial> configuredMaterials,
+			Map<String, ConfMaterial> externalMaterials) {
+		this.configuredMaterials = configuredMaterials;
+		this.externalMaterials = externalMaterials;
+	}
+
+	/**
+	 * returns a material with the attributes configured in this registry.
+	 * For a material defined in {@link Materials}, this is a variant with the configured attributes,
+	 * or the material itself if the configuration doesn't change it.
+	 * All other materials are returned unchanged.
+	 */
+	public Material get(Material material) {
+		Material result = configuredMaterials.get(material);
+		return result != null ? result : material;
+	}
+
+	/**
+	 * returns a material based on its name, with the attributes configured in this registry.
+	 * This can be one of the materials defined in {@link Materials} or a material which only exists in the configuration.
+	 *
+	 * @param name  case-insensitive name of a material from {@link Materials}, or name of a configured material
+	 */
+	public @Nullable Material getMaterial(@Nullable String name) {
+
+		if (name == null) return null;
+
+		ConfMaterial definedMaterial = Materials.getDefinedMaterial(name);
+
+		if (definedMaterial != null) {
+			return get(definedMaterial);
+		} else {
+			return externalMaterials.get(name);
+		}
+
+	}
+
+	/** variant of {@link #getMaterial(String)} with a default value */
+	public Material getMaterial(@Nullable String name, Material defaultValue) {
+		Material result = getMaterial(name);
+		return result == null ? get(defaultValue) : result;
+	}
+
+	/** returns a material for a surface value, with the attributes configured in this registry; null if none is found */
+	public @Nullable Material getSurfaceMaterial(@Nullable String value) {
+		ConfMaterial definedMaterial = Materials.getDefinedSurfaceMaterial(value);
+		return definedMaterial == null ? null : get(definedMaterial);
+	}
+
+	/** same as {@link #getSurfaceMaterial(String)}, but with fallback value */
+	public Material getSurfaceMaterial(@Nullable String value, @Nullable Material fallback) {
+		Material result = getSurfaceMaterial(value);
+		if (result != null) {
+			return result;
+		} else {
+			return fallback == null ? null : get(fallback);
+		}
+	}
+
+	/** returns all materials which only exist in the configuration */
+	public Collection<ConfMaterial> getExternalMaterials() {
+		return externalMaterials.values();
+	}
+
+	private static final String CONF_KEY_REGEX =
+					"material_(.+)_(interpolation|color|doubleSided|shadow|ssao|transparency|texture\\d*_.+)";
+
+	/**
+	 * creates a registry for the materials configured using external configuration settings
+	 */
+	public static MaterialRegistry fromConfiguration(Configuration config) {
+
+		Map<ConfMaterial, MaterialAttributes> constantAttributes = new IdentityHashMap<>();
+		Map<String, MaterialAttributes> externalAttributes = new HashMap<>();
+
+		Map<String, MaterialAttributes> texturePrefixMap = new HashMap<>();
+
+		Iterator<String> keyIterator = config.getKeys();
+
+		while (keyIterator.hasNext()) {
+
+			String key = keyIterator.next();
+
+			Matcher matcher = Pattern.compile(CONF_KEY_REGEX).matcher(key);
+
+			if (matcher.matches()) {
+
+				String materialName = matcher.group(1);
+				ConfMaterial constant = Materials.getDefinedMaterial(materialName);
+
+				/* If material is not defined in Materials.java, start from default attributes
+				 * and add it to the external materials */
+				MaterialAttributes material;
+				if (constant != null) {
+					material = constantAttributes.computeIfAbsent(constant, MaterialAttributes::new);
+				} else {
+					material = externalAttributes.computeIfAbsent(materialName,
+							n -> new MaterialAttributes(new ImmutableMaterial(Interpolation.FLAT, Color.white)));
+				}
+
+				String attribute = matcher.group(2);
+
+				if ("interpolation".equals(attribute)) {
+
+					String value = config.getString(key).toUpperCase();
+					Interpolation interpolation = Interpolation.valueOf(value);
+
+					if (interpolation != null) {
+						material.interpolation = interpolation;
+					}
+
+				} else if ("color".equals(attribute)) {
+
+					Color color = ConfigUtil.parseColor(
+							config.getString(key));
+
+					if (color != null) {
+						material.color = color;
+					} else {
+						System.err.println("incorrect color value: "
+								+ config.getString(key));
+					}
+
+				} else if ("doubleSided".equals(attribute)) {
+
+					material.doubleSided = config.getBoolean(key);
+
+				} else if ("shadow".equals(attribute)) {
+
+					String value = config.getString(key).toUpperCase();
+					Shadow shadow = Shadow.valueOf(value);
+
+					if (shadow != null) {
+						material.shadow = shadow;
+					}
+
+				} else if ("ssao".equals(attribute)) {
+
+					String value = config.getString(key).toUpperCase();
+					AmbientOcclusion ao = AmbientOcclusion.valueOf(value);
+
+					if (ao != null) {
+						material.ambientOcclusion = ao;
+					}
+
+				} else if ("transparency".equals(attribute)) {
+
+					String value = config.getString(key).toUpperCase();
+					Transparency transparency = Transparency.valueOf(value);
+
+					if (transparency != null) {
+						material.transparency = transparency;
+					}
+
+				} else if (attribute.startsWith("texture")) {
+
+					texturePrefixMap.put("material_" + materialName + "_texture", material);
+
+				} else {
+					System.err.println("unknown material attribute: " + attribute);
+				}
+			}
+		}
+
+		/* configure texture layers */
+
+		for (String texturePrefix : texturePrefixMap.keySet()) {
+
+			List<TextureLayer> textureLayers = new ArrayList<>();
+
+			for (int i = 0; i < Material.MAX_TEXTURE_LAYERS; i++) {
+				String keyPrefix = texturePrefix + i;
+				Stream<String> keyStream = Streams.stream(config.getKeys());
+				if (keyStream.anyMatch(k -> k.startsWith(keyPrefix))) {
+					TextureLayer textureLayer = createTextureLayer(config, keyPrefix);
+					if (textureLayer != null) {
+						textureLayers.add(textureLayer);
+					}
+				} else {
+					break;
+				}
+			}
+
+			texturePrefixMap.get(texturePrefix).textureLayers = textureLayers;
+
+		}
+
+		/* create the configured materials */
+
+		Map<ConfMaterial, ConfMaterial> configuredMaterials = new IdentityHashMap<>();
+		constantAttributes.forEach((constant, a) -> configuredMaterials.put(constant, new ConfMaterial(constant,
+				a.interpolation, a.color, a.doubleSided, a.transparency, a.shadow, a.ambientOcclusion, a.textureLayers)));
+
+		Map<String, ConfMaterial> externalMaterials = new HashMap<>();
+		externalAttributes.forEach((name, a) -> externalMaterials.put(name, new ConfMaterial(
+				a.interpolation, a.color, a.doubleSided, a.transparency, a.shadow, a.ambientOcclusion, a.textureLayers)));
+
+		return new MaterialRegistry(unmodifiableMap(configuredMaterials), unmodifiableMap(externalMaterials));
+
+	}
+
+	/** the attributes of a material while the configuration is being read */
+	private static class MaterialAttributes {
+
+		Interpolation interpolation;
+		Color color;
+		boolean doubleSided;
+		Transparency transparency;
+		Shadow shadow;
+		AmbientOcclusion ambientOcclusion;
+		List<TextureLayer> textureLayers;
+
+		/** starts from the attributes of a material */
+		MaterialAttributes(Material defaults) {
+			this.interpolation = defaults.interpolation;
+			this.color = defaults.color;
+			this.doubleSided = defaults.doubleSided;
+			this.transparency = defaults.transparency;
+			this.shadow = defaults.shadow;
+			this.ambientOcclusion = defaults.ambientOcclusion;
+			this.textureLayers = defaults.textureLayers;
+		}
+
+	}
+
+	private static @Nullable TextureLayer createTextureLayer(Configuration config, String keyPrefix) {
+
+		File baseColorTexture = null;
+		File ormTexture = null;
+		File normalTexture = null;
+		File displacementTexture = null;
+
+		if (config.containsKey(keyPrefix + "_dir")) {
+			File textureDir = new File(config.getString(keyPrefix + "_dir"));
+			if (textureDir.exists() && textureDir.isDirectory()) {
+				for (File file : textureDir.listFiles()) {
+					if (file.getName().contains("_Color.")) {
+						baseColorTexture = file;
+					} else if (file.getName().contains("_ORM.")) {
+						ormTexture = file;
+					} else if (file.getName().contains("_Normal.")) {
+						normalTexture = file;
+					} else if (file.getName().contains("_Displacement.")) {
+						displacementTexture = file;
+					}
+				}
+			} else {
+				System.err.println("Not a directory: " + textureDir);
+			}
+		}
+
+		TextureData baseColorTextureData;
+
+		Stream<String> keyStream = Streams.stream(config.getKeys());
+		if (keyStream.anyMatch(k -> k.startsWith(keyPrefix + "_color_"))) {
+			baseColorTextureData = createTextureData(config, keyPrefix + "_color", baseColorTexture);
+		} else {
+			// allow omitting _color for backwards compatibility
+			baseColorTextureData = createTextureData(config, keyPrefix, baseColorTexture);
+		}
+
+		if (baseColorTextureData == null) {
+			System.err.println("Config is missing base color texture for " + keyPrefix);
+			return null;
+		} else {
+			return new TextureLayer(
+					baseColorTextureData,
+					createTextureData(config, keyPrefix + "_normal", normalTexture),
+					createTextureData(config, keyPrefix + "_orm", ormTexture),
+					createTextureData(config, keyPrefix + "_displacement", displacementTexture),
+					config.getBoolean(keyPrefix + "_colorable", false));
+		}
+
+	}
+
+	/**
+	 * @param defaultFile  texture file to use if there's no _file attribute
+	 * @return  valid {@link TextureData} extracted from the config file, or null
+	 */
+	private static @Nullable TextureData createTextureData(Configuration config, String keyPrefix,
+			@Nullable File defaultFile) {
+
+		Double widthPerEntity = config.getDouble(keyPrefix + "_widthPerEntity", null);
+		Double heightPerEntity = config.getDouble(keyPrefix + "_heightPerEntity", null);
+
+		String widthKey = keyPrefix + "_width";
+		String heightKey = keyPrefix + "_height";
+		String wrapKey = keyPrefix + "_wrap";
+		String coordFunctionKey = keyPrefix + "_coord_function";
+
+		//get texture layer type
+		String typeKey = keyPrefix + "_type";
+		String type = config.getString(typeKey, "image");
+
+		if ("text".equals(type)) {
+
+			double defaultWidth = 0.5;
+			double defaultHeight = 0.5;
+
+			String fontKey = keyPrefix + "_font";
+			String textKey = keyPrefix + "_text";
+			String topOffsetKey = keyPrefix + "_topOffset";
+			String leftOffsetKey = keyPrefix + "_leftOffset";
+			String relativeFontSizeKey = keyPrefix + "_relative_font_size";
+			String textColorKey = keyPrefix + "_textColor";
+
+			String text = "";
+
+			//get text configuration
+			if (config.getString(textKey) != null) {
+				text = config.getString(textKey);
+			}
+
+			//get font configuration
+			Font font = null;
+			if (config.getString(fontKey) == null) {
+
+				font = new Font("Dialog", Font.PLAIN, 100);
+
+			} else {
+
+				String[] values = config.getString(fontKey).split(",", 2);
+
+				if (values.length == 2) {
+					int fontStyle = FontStyle.getStyle(values[1].toUpperCase());
+					font = new Font(values[0], fontStyle, 100);
+				} else {
+					font = new Font("Dialog", Font.PLAIN, 100);
+				}
+			}
+
+			double width = config.getDouble(widthKey, defaultWidth);
+			double height = config.getDouble(heightKey, defaultHeight);
+			Wrap wrap = getWrap(config.getString(wrapKey));
+			@Nullable Function<TextureDataDimensions, TexCoordFunction> coordFunction =
+					getCoordFunction(config.getString(coordFunctionKey));
+
+			//get top/left offset configuration
+			String topOffset = config.getString(topOffsetKey);
+			if (topOffset != null) {
+				if (topOffset.endsWith("%")) {
+					topOffset = topOffset.substring(0, topOffset.length() - 1);
+				}
+			} else {
+				topOffset = Integer.toString(50);
+			}
+
+			String leftOffset = config.getString(leftOffsetKey);
+			if (leftOffset != null) {
+				if (leftOffset.endsWith("%")) {
+					leftOffset = leftOffset.substring(0, leftOffset.length() - 1);
+				}
+			} else {
+				leftOffset = Integer.toString(50);
+			}
+
+			//get text color configuration
+			Color color = Color.BLACK;
+			String colorString = config.getString(textColorKey);
+			if (colorString != null) {
+				color = ConfigUtil.parseColor(colorString);
+				if (color == null) {
+					System.err.println("Incorrect color value: "+colorString+". Defaulting to black.");
+					color = Color.BLACK;
+				}
+			}
+
+			//get relative font size
+			double relativeFontSize = config.getDouble(relativeFontSizeKey, 60);
+
+			return new TextTexture(text, font, width, height, widthPerEntity, heightPerEntity,
+					Double.parseDouble(topOffset), Double.parseDouble(leftOffset), color,
+					relativeFontSize, wrap, coordFunction);
+
+		} else if ("image".equals(type)) {
+
+			File file = null;
+
+			String fileName = config.getString(keyPrefix + "_file");
+			if (fileName != null) {
+				file = new File(fileName);
+				if (!file.exists() || file.isDirectory()) {
+					System.err.println("File referenced in config does not exist: " + file);
+					file = null;
+				}
+			}
+
+			if (file == null) { file = defaultFile; }
+			if (file == null) { return null; }
+
+			double width = config.getDouble(widthKey, 1);
+			double height = config.getDouble(heightKey, 1);
+			Wrap wrap = getWrap(config.getString(wrapKey));
+			@Nullable Function<TextureDataDimensions, TexCoordFunction> coordFunction =
+					getCoordFunction(config.getString(coordFunctionKey));
+
+			if (width <= 0) {
+				System.err.println("Error: illegal width for texture " + keyPrefix);
+				width = 1;
+			}
+
+			if (height <= 0) {
+				System.err.println("Error: illegal height for texture " + keyPrefix);
+				height = 1;
+			}
+
+			return ImageFileTexture.create(file, width, height, widthPerEntity, heightPerEntity, wrap, coordFunction);
+
+		} else {
+			System.err.println("unknown type value: " + type);
+			return null;
+		}
+
+	}
+
+	private static Wrap getWrap(String wrapString) {
+		if (wrapString != null && wrapString.toLowerCase().startsWith("clamp")) {
+			return Wrap.CLAMP;
+		} else {
+			return Wrap.REPEAT;
+		}
+	}
+
+	private static @Nullable Function<TextureDataDimensions, TexCoordFunction> getCoordFunction(
+			String coordFunctionString) {
+
+		Function<TextureDataDimensions, TexCoordFunction> result = null;
+
+		if (coordFunctionString != null) {
+			result = NamedTexCoordFunction.valueOf(coordFunctionString.toUpperCase());
+		}
+
+		return result;
+	}
+
+}
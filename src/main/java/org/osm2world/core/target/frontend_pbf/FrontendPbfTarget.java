@@ -3,6 +3,7 @@ package org.osm2world.core.target.frontend_pbf;
 import static java.lang.Math.round;
 import static java.util.Arrays.asList;
 import static java.util.Collections.*;
+import static java.util.stream.Collectors.toSet;
 import static org.osm2world.core.math.VectorXYZ.NULL_VECTOR;
 import static org.osm2world.core.target.common.ExtrudeOption.*;
 import static org.osm2world.core.target.common.MeshTarget.MergeMeshes.MergeOption.*;
@@ -46,6 +47,7 @@ import org.osm2world.core.math.shapes.PolygonShapeXZ;
 import org.osm2world.core.math.shapes.PolylineXZ;
 import org.osm2world.core.math.shapes.ShapeXZ;
 import org.osm2world.core.target.TargetUtil;
+import org.osm2world.core.target.common.MeshCache;
 import org.osm2world.core.target.common.MeshStore;
 import org.osm2world.core.target.common.MeshStore.MeshMetadata;
 import org.osm2world.core.target.common.MeshTarget;
@@ -53,6 +55,7 @@ import org.osm2world.core.target.common.MeshTarget.ReplaceTexturesWithAtlas.Text
 import org.osm2world.core.target.common.material.ImageFileTexture;
 import org.osm2world.core.target.common.material.Material;
 import org.osm2world.core.target.common.material.Material.Shadow;
+import org.osm2world.core.target.common.material.MaterialRegistry;
 import org.osm2world.core.target.common.material.TextureData;
 import org.osm2world.core.target.common.mesh.ExtrusionGeometry;
 import org.osm2world.core.target.common.mesh.LevelOfDetail;
@@ -83,7 +86,7 @@ import org.osm2world.core.util.color.LColor;
 import org.osm2world.core.world.data.WorldObject;
 import org.osm2world.core.world.modules.BarrierModule.BollardRow;
 import org.osm2world.core.world.modules.BarrierModule.HandRail;
-import org.osm2world.core.world.modules.PowerModule.WindTurbine;
+import org.osm2world.core.world.modules.PowerModule.Rotor;
 import org.osm2world.core.world.modules.StreetFurnitureModule.Bench;
 import org.osm2world.core.world.modules.StreetFurnitureModule.GritBin;
 import org.osm2world.core.world.modules.StreetFurnitureModule.PostBox;
@@ -233,6 +236,10 @@ public class FrontendPbfTarget extends MeshTarget {
 	private final OutputStream outputStream;
 	private final AxisAlignedRectangleXZ bbox;
 	private final MapProjection projection;
+	private final MaterialRegistry materialRegistry;
+
+	/** {@link #DEFAULT_SHADOWLESS_MATERIALS} with the attributes from {@link #materialRegistry} */
+	private final Set<Material> defaultShadowlessMaterials;
 
 	private final Block<VectorXYZ> vector3dBlock = new VectorBlock<>();
 	private final Block<VectorXZ> vector2dBlock = new VectorBlock<>();
@@ -249,12 +256,18 @@ public class FrontendPbfTarget extends MeshTarget {
 	 * @param outputStream  the stream to write protobuf data to
 	 * @param bbox  the desired bounding box for the output.
 	 *              Objects are part of the output if their center is inside this box.
+	 * @param materialRegistry  the materials the world objects were created with
 	 */
-	public FrontendPbfTarget(OutputStream outputStream, AxisAlignedRectangleXZ bbox, MapProjection projection) {
+	public FrontendPbfTarget(OutputStream outputStream, AxisAlignedRectangleXZ bbox, MapProjection projection,
+			MaterialRegistry materialRegistry) {
 
 		this.outputStream = outputStream;
 		this.bbox = bbox;
 		this.projection = projection;
+		this.materialRegistry = materialRegistry;
+
+		defaultShadowlessMaterials = DEFAULT_SHADOWLESS_MATERIALS.stream()
+				.map(materialRegistry::get).collect(toSet());
 
 		/* reserve index 0 for optional strings */
 
@@ -354,7 +367,7 @@ public class FrontendPbfTarget extends MeshTarget {
 			default: throw new Error("unsupported transparency: " + material.getTransparency());
 		}
 
-		if (material.getShadow() == Shadow.FALSE || DEFAULT_SHADOWLESS_MATERIALS.contains(material)) {
+		if (material.getShadow() == Shadow.FALSE || defaultShadowlessMaterials.contains(material)) {
 			materialBuilder.setCastShadow(false);
 		}
 
@@ -442,8 +455,10 @@ public class FrontendPbfTarget extends MeshTarget {
 			trianglesXYZ.add(triangle.xyz(FLOOR_PLATE_Y));
 		}
 
-		target.drawTriangles(TERRAIN_DEFAULT, trianglesXYZ,
-				triangleTexCoordLists(trianglesXYZ, TERRAIN_DEFAULT, GLOBAL_X_Z));
+		Material material = materialRegistry.get(TERRAIN_DEFAULT);
+
+		target.drawTriangles(material, trianglesXYZ,
+				triangleTexCoordLists(trianglesXYZ, material, GLOBAL_X_Z));
 
 		return buildWorldObject(null, target.getMeshes(), HashMultimap.create());
 
@@ -567,7 +582,7 @@ public class FrontendPbfTarget extends MeshTarget {
 				geometryBuilder.clearScale();
 			}
 
-			if (model == WindTurbine.ROTOR) {
+			if (model instanceof Rotor) {
 
 				// hard-coded animation of wind turbine rotors
 				Animation.Builder animationBuilder = Animation.newBuilder();
@@ -797,8 +812,19 @@ public class FrontendPbfTarget extends MeshTarget {
 
 	}
 
-	public static void writePbfFile(File outputFile, MapData mapData,
+	public static void writePbfFile(File outputFile, MapData mapData, MaterialRegistry materialRegistry,
 			AxisAlignedRectangleXZ bbox, MapProjection projection) throws IOException {
+		writePbfFile(outputFile, mapData, materialRegistry, null, bbox, projection);
+	}
+
+	/**
+	 * variant of {@link #writePbfFile(File, MapData, MaterialRegistry, AxisAlignedRectangleXZ, MapProjection)}
+	 * which takes the meshes from a {@link MeshCache} instead of building them again
+	 *
+	 * @param meshCache  cache for the world objects in mapData; can be null
+	 */
+	public static void writePbfFile(File outputFile, MapData mapData, MaterialRegistry materialRegistry,
+			@Nullable MeshCache meshCache, AxisAlignedRectangleXZ bbox, MapProjection projection) throws IOException {
 
 		FileOutputStream output = null;
 
@@ -806,7 +832,7 @@ public class FrontendPbfTarget extends MeshTarget {
 
 			output = new FileOutputStream(outputFile);
 
-			writePbfStream(output, mapData, bbox, projection);
+			writePbfStream(output, mapData, materialRegistry, meshCache, bbox, projection);
 
 		} finally {
 			if (output != null) {
@@ -816,16 +842,31 @@ public class FrontendPbfTarget extends MeshTarget {
 
 	}
 
-	public static void writePbfStream(OutputStream output, MapData mapData,
+	public static void writePbfStream(OutputStream output, MapData mapData, MaterialRegistry materialRegistry,
 			AxisAlignedRectangleXZ bbox, MapProjection projection) throws IOException {
+		writePbfStream(output, mapData, materialRegistry, null, bbox, projection);
+	}
+
+	/**
+	 * variant of {@link #writePbfStream(OutputStream, MapData, MaterialRegistry, AxisAlignedRectangleXZ, MapProjection)}
+	 * which takes the meshes from a {@link MeshCache} instead of building them again
+	 *
+	 * @param meshCache  cache for the world objects in mapData; can be null
+	 */
+	public static void writePbfStream(OutputStream output, MapData mapData, MaterialRegistry materialRegistry,
+			@Nullable MeshCache meshCache, AxisAlignedRectangleXZ bbox, MapProjection projection) throws IOException {
 
 		if (bbox == null) {
 			bbox = mapData.getBoundary();
 		}
 
-		FrontendPbfTarget target = new FrontendPbfTarget(output, bbox, projection);
+		FrontendPbfTarget target = new FrontendPbfTarget(output, bbox, projection, materialRegistry);
 
-		TargetUtil.renderWorldObjects(target, mapData, false);
+		if (meshCache != null) {
+			meshCache.renderTo(target, false);
+		} else {
+			TargetUtil.renderWorldObjects(target, mapData, false);
+		}
 
 		target.finish();
 
@@ -6,6 +6,7 @@ import org.osm2world.core.map_data.data.MapData;
 import org.osm2world.core.math.VectorXYZ;
 import org.osm2world.core.math.VectorXZ;
 import org.osm2world.core.target.TargetUtil;
+import org.osm2world.core.target.common.MeshCache;
 import org.osm2world.core.target.common.rendering.Camera;
 import org.osm2world.core.target.common.rendering.Projection;
 
@@ -15,6 +16,8 @@ import java.io.IOException;
 import java.io.PrintStream;
 import java.util.Iterator;
 
+import javax.annotation.Nullable;
+
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.lang.String.format;
 
@@ -31,6 +34,20 @@ public final class ObjWriter {
 			MapProjection mapProjection,
 			Camera camera, Projection projection, boolean underground)
 			throws IOException {
+		writeObjFile(objFile, mapData, null, mapProjection, camera, projection, underground);
+	}
+
+	/**
+	 * variant of {@link #writeObjFile(File, MapData, MapProjection, Camera, Projection, boolean)}
+	 * which takes the meshes from a {@link MeshCache} instead of building them again
+	 *
+	 * @param meshCache  cache for the world objects in mapData; can be null
+	 */
+	public static final void writeObjFile(
+			File objFile, MapData mapData, @Nullable MeshCache meshCache,
+			MapProjection mapProjection,
+			Camera camera, Projection projection, boolean underground)
+			throws IOException {
 
 		if (!objFile.exists()) {
 			objFile.createNewFile();
@@ -61,7 +78,11 @@ public final class ObjWriter {
 			ObjTarget target = new ObjTarget(objStream, mtlStream, objFile.getAbsoluteFile().getParentFile(),
 					objFile.getName());
 
-			TargetUtil.renderWorldObjects(target, mapData, underground);
+			if (meshCache != null) {
+				meshCache.renderTo(target, underground);
+			} else {
+				TargetUtil.renderWorldObjects(target, mapData, underground);
+			}
 
 		}
 
@@ -73,6 +94,21 @@ public final class ObjWriter {
 			Camera camera, Projection projection,
 			int primitiveThresholdPerFile)
 			throws IOException {
+		writeObjFiles(objDirectory, mapData, null, mapProjection, camera, projection, primitiveThresholdPerFile);
+	}
+
+	/**
+	 * variant of {@link #writeObjFiles(File, MapData, MapProjection, Camera, Projection, int)}
+	 * which takes the meshes from a {@link MeshCache} instead of building them again
+	 *
+	 * @param meshCache  cache for the world objects in mapData; can be null
+	 */
+	public static final void writeObjFiles(
+			final File objDirectory, MapData mapData, @Nullable MeshCache meshCache,
+			final MapProjection mapProjection,
+			Camera camera, Projection projection,
+			int primitiveThresholdPerFile)
+			throws IOException {
 
 		if (!objDirectory.exists()) {
 			objDirectory.mkdir();
@@ -144,7 +180,11 @@ public final class ObjWriter {
 
 		/* write file content */
 
-		TargetUtil.renderWorldObjects(objIterator, mapData, primitiveThresholdPerFile);
+		if (meshCache != null) {
+			meshCache.renderTo(objIterator, primitiveThresholdPerFile);
+		} else {
+			TargetUtil.renderWorldObjects(objIterator, mapData, primitiveThresholdPerFile);
+		}
 
 		mtlStream.close();
 
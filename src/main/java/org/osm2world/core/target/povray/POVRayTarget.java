@@ -18,6 +18,7 @@ import org.osm2world.core.math.VectorXYZ;
 import org.osm2world.core.math.VectorXZ;
 import org.osm2world.core.target.common.AbstractTarget;
 import org.osm2world.core.target.common.material.Material;
+import org.osm2world.core.target.common.material.MaterialRegistry;
 import org.osm2world.core.target.common.material.Materials;
 import org.osm2world.core.target.common.material.TextTexture;
 import org.osm2world.core.target.common.material.TextureData;
@@ -33,11 +34,17 @@ public class POVRayTarget extends AbstractTarget {
 	private static final double SMALL_OFFSET = 1e-3;
 
 	private final PrintStream output;
+	private final MaterialRegistry materialRegistry;
 
 	private Map<TextureData, String> textureNames = new HashMap<TextureData, String>();
 
-	public POVRayTarget(PrintStream output) {
+	/**
+	 * @param materialRegistry  the materials the world objects were created with,
+	 *                          used by {@link #appendMaterialDefinitions()}
+	 */
+	public POVRayTarget(PrintStream output, MaterialRegistry materialRegistry) {
 		this.output = output;
+		this.materialRegistry = materialRegistry;
 	}
 
 //	int openBrackets = 0;
@@ -114,7 +121,9 @@ public class POVRayTarget extends AbstractTarget {
 
 	public void appendMaterialDefinitions() {
 
-		for (Material material : Materials.getMaterials()) {
+		for (Material definedMaterial : Materials.getMaterials()) {
+
+			Material material = materialRegistry.get(definedMaterial);
 
 			String uniqueName = Materials.getUniqueName(material);
 			String name = "texture_" + uniqueName;
@@ -5,12 +5,16 @@ import java.io.IOException;
 import java.io.PrintStream;
 import java.util.Locale;
 
+import javax.annotation.Nullable;
+
 import org.osm2world.core.GlobalValues;
 import org.osm2world.core.map_data.data.MapData;
 import org.osm2world.core.map_data.data.MapElement;
 import org.osm2world.core.math.VectorXYZ;
 import org.osm2world.core.target.TargetUtil;
+import org.osm2world.core.target.common.MeshCache;
 import org.osm2world.core.target.common.lighting.GlobalLightingParameters;
+import org.osm2world.core.target.common.material.MaterialRegistry;
 import org.osm2world.core.target.common.rendering.Camera;
 import org.osm2world.core.target.common.rendering.Projection;
 import org.osm2world.core.world.data.WorldObject;
@@ -24,7 +28,19 @@ public final class POVRayWriter {
 	private POVRayWriter() { }
 
 	public static final void writePOVInstructionFile(File file, MapData mapData,
-			Camera camera, Projection projection)
+			MaterialRegistry materialRegistry, Camera camera, Projection projection)
+			throws IOException {
+		writePOVInstructionFile(file, mapData, materialRegistry, null, camera, projection);
+	}
+
+	/**
+	 * variant of {@link #writePOVInstructionFile(File, MapData, MaterialRegistry, Camera, Projection)}
+	 * which takes the meshes from a {@link MeshCache} instead of building them again
+	 *
+	 * @param meshCache  cache for the world objects in mapData; can be null
+	 */
+	public static final void writePOVInstructionFile(File file, MapData mapData,
+			MaterialRegistry materialRegistry, @Nullable MeshCache meshCache, Camera camera, Projection projection)
 			throws IOException {
 
 		if (!file.exists()) {
@@ -34,17 +50,17 @@ public final class POVRayWriter {
 		PrintStream printStream = new PrintStream(file);
 
 		writePOVInstructionStringToStream(printStream,
-				mapData, camera, projection);
+				mapData, materialRegistry, meshCache, camera, projection);
 
 		printStream.close();
 
 	}
 
 	private static final void writePOVInstructionStringToStream(
-			PrintStream stream, MapData mapData,
-			Camera camera, Projection projection) {
+			PrintStream stream, MapData mapData, MaterialRegistry materialRegistry,
+			@Nullable MeshCache meshCache, Camera camera, Projection projection) {
 
-		POVRayTarget target = new POVRayTarget(stream);
+		POVRayTarget target = new POVRayTarget(stream, materialRegistry);
 
 		addCommentHeader(target);
 
@@ -96,7 +112,11 @@ public final class POVRayWriter {
 
 		target.append("\n\n//\n//Map data\n//\n\n");
 
-		TargetUtil.renderWorldObjects(target, mapData, true);
+		if (meshCache != null) {
+			meshCache.renderTo(target, true);
+		} else {
+			TargetUtil.renderWorldObjects(target, mapData, true);
+		}
 
 	}
 
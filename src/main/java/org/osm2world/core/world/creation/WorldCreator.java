@@ -9,18 +9,28 @@ import javax.annotation.Nullable;
 
 import org.apache.commons.configuration.Configuration;
 import org.apache.commons.configuration.MapConfiguration;
+import org.osm2world.core.ConversionMetrics;
+import org.osm2world.core.ConversionMetrics.Count;
 import org.osm2world.core.map_data.data.MapData;
+import org.osm2world.core.target.common.material.MaterialRegistry;
+import org.osm2world.core.world.data.WorldObject;
+import org.osm2world.core.world.modules.common.AbstractModule;
 import org.osm2world.core.world.network.NetworkCalculator;
 
+import com.google.common.collect.Iterables;
+
 public class WorldCreator {
 
 	private List<? extends WorldModule> modules;
 
+	/** creates a world creator using the materials configured in the configuration */
 	public WorldCreator(@Nullable Configuration config, WorldModule... modules) {
-		this(config, Arrays.asList(modules));
+		this(config, config == null ? MaterialRegistry.EMPTY : MaterialRegistry.fromConfiguration(config),
+				Arrays.asList(modules));
 	}
 
-	public WorldCreator(@Nullable Configuration config, List<? extends WorldModule> modules) {
+	public WorldCreator(@Nullable Configuration config, MaterialRegistry materialRegistry,
+			List<? extends WorldModule> modules) {
 
 		this.modules = modules;
 
@@ -29,19 +39,41 @@ public class WorldCreator {
 		}
 
 		for (WorldModule module : modules) {
-			module.setConfiguration(config);
+			module.setConfiguration(config, materialRegistry);
 		}
 
 	}
 
+	/**
+	 * applies all modules to the map data.
+	 * Modules are applied one after another, in the order they were provided.
+	 * If the "parallelWorldModules" config option is set, modules which support it
+	 * (such as subclasses of {@link AbstractModule}) distribute their work across multiple threads.
+	 */
 	public void addRepresentationsTo(MapData mapData) {
+		addRepresentationsTo(mapData, null);
+	}
+
+	/**
+	 * variant of {@link #addRepresentationsTo(MapData)} which records the time taken by each module
+	 * and the number of created {@link WorldObject}s
+	 */
+	public void addRepresentationsTo(MapData mapData, @Nullable ConversionMetrics metrics) {
 
 		for (WorldModule module : modules) {
+			long start = System.nanoTime();
 			module.applyTo(mapData);
+			if (metrics != null) {
+				metrics.addModuleTime(module, System.nanoTime() - start);
+			}
 		}
 
 		NetworkCalculator.calculateNetworkInformationInMapData(mapData);
 
+		if (metrics != null) {
+			metrics.add(Count.WORLD_OBJECTS, Iterables.size(mapData.getWorldObjects()));
+		}
+
 	}
 
 }
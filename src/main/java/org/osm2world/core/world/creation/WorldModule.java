@@ -1,6 +1,7 @@
 package org.osm2world.core.world.creation;
 
 import org.apache.commons.configuration.Configuration;
+import org.osm2world.core.target.common.material.MaterialRegistry;
 import org.osm2world.core.map_data.data.MapData;
 import org.osm2world.core.map_data.data.MapElement;
 import org.osm2world.core.world.data.WorldObject;
@@ -14,8 +15,11 @@ public interface WorldModule {
 	 * This is guaranteed to be called before {@link #applyTo(MapData)},
 	 * but not all parameters might be explicitly set in the configuration,
 	 * so defaults need to be available.
+	 *
+	 * @param materialRegistry  the materials configured for this conversion.
+	 *                          The {@link WorldObject}s created by the module need to use these.
 	 */
-	public void setConfiguration(Configuration config);
+	public void setConfiguration(Configuration config, MaterialRegistry materialRegistry);
 
 	/**
 	 * adds {@link WorldObject}s to {@link MapElement}s
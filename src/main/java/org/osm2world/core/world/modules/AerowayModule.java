@@ -86,15 +86,15 @@ public class AerowayModule extends ConfigurableWorldModule {
 	/**
 	 * comparable to {@link RoadModule#getSurfaceForNode}
 	 */
-	private static Material getSurfaceForNode(MapNode node) {
+	private Material getSurfaceForNode(MapNode node) {
 		if (node.getTags().containsKey("surface")) {
-			return getSurfaceMaterial(node.getTags().getValue("surface"), null);
+			return materialRegistry.getSurfaceMaterial(node.getTags().getValue("surface"), null);
 		} else {
 			return getConnectedNetworkSegments(node, AerowaySegment.class, null).get(0).getSurface();
 		}
 	}
 
-	public static class Helipad extends AbstractAreaWorldObject implements TerrainBoundaryWorldObject {
+	public class Helipad extends AbstractAreaWorldObject implements TerrainBoundaryWorldObject {
 
 		protected Helipad(MapArea area) {
 			super(area);
@@ -115,12 +115,12 @@ public class AerowayModule extends ConfigurableWorldModule {
 
 			List<TriangleXYZ> triangles = getTriangulation();
 
-			Material baseMaterial = getSurfaceMaterial(area.getTags().getValue("surface"), ASPHALT);
+			Material baseMaterial = materialRegistry.getSurfaceMaterial(area.getTags().getValue("surface"), ASPHALT);
 			List<List<VectorXZ>> baseTexCoords = triangleTexCoordLists(triangles, baseMaterial, GLOBAL_X_Z);
 
-			Material fullMaterial = baseMaterial.withAddedLayers(HELIPAD_MARKING.getTextureLayers());
+			Material fullMaterial = baseMaterial.withAddedLayers(materialRegistry.get(HELIPAD_MARKING).getTextureLayers());
 			List<List<VectorXZ>> texCoords = new ArrayList<>(baseTexCoords);
-			texCoords.addAll(triangleTexCoordLists(triangles, HELIPAD_MARKING, localXZTexCoordFunction));
+			texCoords.addAll(triangleTexCoordLists(triangles, materialRegistry.get(HELIPAD_MARKING), localXZTexCoordFunction));
 
 			target.drawTriangles(fullMaterial, triangles, texCoords);
 
@@ -128,7 +128,7 @@ public class AerowayModule extends ConfigurableWorldModule {
 
 	}
 
-	public static class Apron extends NetworkAreaWorldObject implements TerrainBoundaryWorldObject {
+	public class Apron extends NetworkAreaWorldObject implements TerrainBoundaryWorldObject {
 
 		public Apron(MapArea area) {
 			super(area);
@@ -137,7 +137,7 @@ public class AerowayModule extends ConfigurableWorldModule {
 		@Override
 		public void renderTo(Target target) {
 
-			Material material = getSurfaceMaterial(area.getTags().getValue("surface"), ASPHALT);
+			Material material = materialRegistry.getSurfaceMaterial(area.getTags().getValue("surface"), ASPHALT);
 
 			List<TriangleXYZ> triangles = getTriangulation();
 			target.drawTriangles(material, triangles,
@@ -148,7 +148,7 @@ public class AerowayModule extends ConfigurableWorldModule {
 	}
 
 	/** some linear "road" on an airport, e.g. a runway or taxiway */
-	public static abstract class AerowaySegment extends AbstractNetworkWaySegmentWorldObject
+	public abstract class AerowaySegment extends AbstractNetworkWaySegmentWorldObject
 		implements TerrainBoundaryWorldObject, LegacyWorldObject {
 
 		final float centerlineWidthMeters;
@@ -186,14 +186,14 @@ public class AerowayModule extends ConfigurableWorldModule {
 		}
 
 		Material getSurface() {
-			return getSurfaceMaterial(segment.getTags().getValue("surface"), ASPHALT);
+			return materialRegistry.getSurfaceMaterial(segment.getTags().getValue("surface"), ASPHALT);
 		}
 
 		abstract Material getCenterlineSurface();
 
 	}
 
-	public static class Runway extends AerowaySegment {
+	public class Runway extends AerowaySegment {
 
 		protected Runway(MapWaySegment segment) {
 			super(segment, 0.9f);
@@ -206,8 +206,8 @@ public class AerowayModule extends ConfigurableWorldModule {
 
 		@Override
 		Material getCenterlineSurface() {
-			if (getSurface() == ASPHALT || getSurface() == CONCRETE) {
-				return getSurface().withAddedLayers(RUNWAY_CENTER_MARKING.getTextureLayers());
+			if (getSurface() == materialRegistry.get(ASPHALT) || getSurface() == materialRegistry.get(CONCRETE)) {
+				return getSurface().withAddedLayers(materialRegistry.get(RUNWAY_CENTER_MARKING).getTextureLayers());
 			} else {
 				return getSurface();
 			}
@@ -215,7 +215,7 @@ public class AerowayModule extends ConfigurableWorldModule {
 
 	}
 
-	public static class Taxiway extends AerowaySegment {
+	public class Taxiway extends AerowaySegment {
 
 		protected Taxiway(MapWaySegment segment) {
 			super(segment, 0.15f);
@@ -228,8 +228,8 @@ public class AerowayModule extends ConfigurableWorldModule {
 
 		@Override
 		Material getCenterlineSurface() {
-			if (getSurface() == ASPHALT || getSurface() == CONCRETE) {
-				return TAXIWAY_CENTER_MARKING;
+			if (getSurface() == materialRegistry.get(ASPHALT) || getSurface() == materialRegistry.get(CONCRETE)) {
+				return materialRegistry.get(TAXIWAY_CENTER_MARKING);
 			} else {
 				return getSurface();
 			}
@@ -237,7 +237,7 @@ public class AerowayModule extends ConfigurableWorldModule {
 
 	}
 
-	public static class AerowayJunction extends JunctionNodeWorldObject<AerowaySegment>
+	public class AerowayJunction extends JunctionNodeWorldObject<AerowaySegment>
 		implements TerrainBoundaryWorldObject {
 
 		public AerowayJunction(MapNode node) {
@@ -257,7 +257,7 @@ public class AerowayModule extends ConfigurableWorldModule {
 
 	}
 
-	public static class AerowayConnector extends VisibleConnectorNodeWorldObject<AerowaySegment>
+	public class AerowayConnector extends VisibleConnectorNodeWorldObject<AerowaySegment>
 		implements TerrainBoundaryWorldObject {
 
 		public AerowayConnector(MapNode node) {
@@ -43,6 +43,7 @@ import org.osm2world.core.math.shapes.SimpleClosedShapeXZ;
 import org.osm2world.core.target.Renderable;
 import org.osm2world.core.target.Target;
 import org.osm2world.core.target.common.material.Material;
+import org.osm2world.core.target.common.material.MaterialRegistry;
 import org.osm2world.core.target.common.material.Materials;
 import org.osm2world.core.target.common.mesh.ExtrusionGeometry;
 import org.osm2world.core.target.common.mesh.Mesh;
@@ -125,7 +126,7 @@ public class BarrierModule extends AbstractModule {
 		}
 	}
 
-	private static Model createBollardModel(TagSet tags) {
+	private Model createBollardModel(TagSet tags) {
 		double height = parseHeight(tags, 1.0);
 		double width = parseWidth(tags, 0.3);
 		// TODO: support and document other bollard shapes, or support bollard models from 3dmr
@@ -270,28 +271,26 @@ public class BarrierModule extends AbstractModule {
 
 	}
 
-	public static class Wall extends ColoredWall {
-
-		private final static Material DEFAULT_MATERIAL = Materials.STONE;
+	public class Wall extends ColoredWall {
 
 		public static boolean fits(TagSet tags) {
 			return tags.contains("barrier", "wall");
 		}
 
-		private static Material getMaterial(TagSet tags) {
+		private static Material getMaterial(TagSet tags, MaterialRegistry materialRegistry) {
 
 			Material material = null;
 
 			if ("gabion".equals(tags.getValue("wall"))) {
-				material = Materials.WALL_GABION;
+				material = materialRegistry.get(Materials.WALL_GABION);
 			} else if ("brick".equals(tags.getValue("wall"))) {
-				material = BRICK;
+				material = materialRegistry.get(BRICK);
 			} else if ( tags.containsKey("material") ) {
-				material = Materials.getMaterial(tags.getValue("material").toUpperCase());
+				material = materialRegistry.getMaterial(tags.getValue("material").toUpperCase());
 			}
 
 			if (material == null) {
-				material = DEFAULT_MATERIAL;
+				material = materialRegistry.get(Materials.STONE);
 			}
 
 			String colorString = tags.getValue("colour");
@@ -307,26 +306,26 @@ public class BarrierModule extends AbstractModule {
 		}
 
 		public Wall(MapWaySegment segment) {
-			super(getMaterial(segment.getTags()), segment, 1f, 0.25f);
+			super(getMaterial(segment.getTags(), materialRegistry), segment, 1f, 0.25f);
 		}
 
 	}
 
-	public static class CityWall extends ColoredWall {
+	public class CityWall extends ColoredWall {
 		public static boolean fits(TagSet tags) {
 			return tags.contains("barrier", "city_wall");
 		}
 		public CityWall(MapWaySegment segment) {
-			super(Wall.DEFAULT_MATERIAL, segment, 10, 2);
+			super(materialRegistry.get(Materials.STONE), segment, 10, 2);
 		}
 	}
 
-	public static class Hedge extends ColoredWall {
+	public class Hedge extends ColoredWall {
 		public static boolean fits(TagSet tags) {
 			return tags.contains("barrier", "hedge");
 		}
 		public Hedge(MapWaySegment segment) {
-			super(Materials.HEDGE, segment, 1f, 0.5f);
+			super(materialRegistry.get(Materials.HEDGE), segment, 1f, 0.5f);
 		}
 		@Override
 		public Collection<AttachmentSurface> getAttachmentSurfaces() {
@@ -334,7 +333,7 @@ public class BarrierModule extends AbstractModule {
 		}
 	}
 
-	public static class Railing extends LinearBarrier {
+	public class Railing extends LinearBarrier {
 
 		private static final SimpleClosedShapeXZ BAR_SHAPE =
 				new AxisAlignedRectangleXZ(-0.5, -0.3, 0.5, 0);
@@ -354,7 +353,7 @@ public class BarrierModule extends AbstractModule {
 		@Override
 		public void renderTo(Target target) {
 
-			Material material = METAL_FENCE;
+			Material material = materialRegistry.get(METAL_FENCE);
 
 			List<VectorXYZ> polePositions = equallyDistributePointsAlong(2.4, true, getCenterline());
 
@@ -405,7 +404,7 @@ public class BarrierModule extends AbstractModule {
 
 	}
 
-	public static class Balustrade extends LinearBarrier {
+	public class Balustrade extends LinearBarrier {
 
 		private static final SimpleClosedShapeXZ BAR_SHAPE =
 				new AxisAlignedRectangleXZ(-0.5, -0.3, 0.5, 0);
@@ -432,12 +431,12 @@ public class BarrierModule extends AbstractModule {
 			Material material = null;
 
 			if (segment.getTags().containsKey("material")) {
-				material = Materials.getMaterial(segment.getTags().getValue("material").toUpperCase());
+				material = materialRegistry.getMaterial(segment.getTags().getValue("material").toUpperCase());
 				//TODO also look at fence:material
 			}
 
 			if (material == null) {
-				material = CONCRETE;
+				material = materialRegistry.get(CONCRETE);
 			}
 
 			material = material.withColor(parseColor(segment.getTags().getValue("colour"), CSS_COLORS));
@@ -476,7 +475,7 @@ public class BarrierModule extends AbstractModule {
 
 	}
 
-	public static class ChainLinkFence extends LinearBarrier {
+	public class ChainLinkFence extends LinearBarrier {
 
 		public static boolean fits(TagSet tags) {
 			return tags.contains("barrier", "fence")
@@ -495,17 +494,17 @@ public class BarrierModule extends AbstractModule {
 			List<VectorXYZ> pointsWithEle = getCenterline();
 
 			List<VectorXYZ> vsFence = createVerticalTriangleStrip(pointsWithEle, 0, height);
-			target.drawTriangleStrip(CHAIN_LINK_FENCE, vsFence,
-					texCoordLists(vsFence, CHAIN_LINK_FENCE, STRIP_WALL));
+			target.drawTriangleStrip(materialRegistry.get(CHAIN_LINK_FENCE), vsFence,
+					texCoordLists(vsFence, materialRegistry.get(CHAIN_LINK_FENCE), STRIP_WALL));
 
-			if (!CHAIN_LINK_FENCE.isDoubleSided()) {
+			if (!materialRegistry.get(CHAIN_LINK_FENCE).isDoubleSided()) {
 
 				List<VectorXYZ> pointsWithEleBack = new ArrayList<>(pointsWithEle);
 				Collections.reverse(pointsWithEleBack);
 
 				List<VectorXYZ> vsFenceBack = createVerticalTriangleStrip(pointsWithEleBack, 0, height);
-				target.drawTriangleStrip(CHAIN_LINK_FENCE, vsFenceBack,
-						texCoordLists(vsFenceBack, CHAIN_LINK_FENCE, STRIP_WALL));
+				target.drawTriangleStrip(materialRegistry.get(CHAIN_LINK_FENCE), vsFenceBack,
+						texCoordLists(vsFenceBack, materialRegistry.get(CHAIN_LINK_FENCE), STRIP_WALL));
 
 			}
 
@@ -518,7 +517,7 @@ public class BarrierModule extends AbstractModule {
 
 			for (VectorXYZ base : polePositions) {
 
-				target.drawColumn(Materials.METAL_FENCE_POST, null, base,
+				target.drawColumn(materialRegistry.get(Materials.METAL_FENCE_POST), null, base,
 						height, width, width, false, true);
 
 			}
@@ -526,15 +525,15 @@ public class BarrierModule extends AbstractModule {
 		}
 	}
 
-	public static class PoleFence extends LinearBarrier {
+	public class PoleFence extends LinearBarrier {
 
 		private Material material;
 		protected float barWidth;
 		protected float barGap;
 		protected float barOffset;
 		protected int bars;
-		protected Material defaultFenceMaterial = Materials.WOOD;
-		protected Material defaultPoleMaterial = Materials.WOOD;
+		protected Material defaultFenceMaterial = materialRegistry.get(Materials.WOOD);
+		protected Material defaultPoleMaterial = materialRegistry.get(Materials.WOOD);
 		protected Material poleMaterial;
 
 		public static boolean fits(TagSet tags) {
@@ -544,7 +543,7 @@ public class BarrierModule extends AbstractModule {
 		public PoleFence(MapWaySegment segment) {
 			super(segment, 1f, 0.02f);
 			if (segment.getTags().containsKey("material")){
-				material = getMaterial(segment.getTags().getValue("material").toUpperCase());
+				material = materialRegistry.getMaterial(segment.getTags().getValue("material").toUpperCase());
 				poleMaterial = material;
 			}
 
@@ -604,7 +603,7 @@ public class BarrierModule extends AbstractModule {
 		}
 	}
 
-	public static class TrellisWorkFence extends LinearBarrier {
+	public class TrellisWorkFence extends LinearBarrier {
 
 		private static final SimpleClosedShapeXZ PLANK_SHAPE;
 
@@ -654,12 +653,12 @@ public class BarrierModule extends AbstractModule {
 				int leftIndex = i;
 				int rightIndex = i + 2 * numIntersections - 1;
 
-				target.drawExtrudedShape(WOOD, PLANK_SHAPE,
+				target.drawExtrudedShape(materialRegistry.get(WOOD), PLANK_SHAPE,
 						asList(positions.get(leftIndex).add(offsetBackPlank),
 								positions.get(rightIndex).addY(height).add(offsetBackPlank)),
 						nCopies(2, Y_UNIT), null, null, EnumSet.of(START_CAP, END_CAP));
 
-				target.drawExtrudedShape(WOOD, PLANK_SHAPE,
+				target.drawExtrudedShape(materialRegistry.get(WOOD), PLANK_SHAPE,
 						asList(positions.get(leftIndex).addY(height),
 								positions.get(rightIndex)),
 						nCopies(2, Y_UNIT), null, null, EnumSet.of(START_CAP, END_CAP));
@@ -670,7 +669,7 @@ public class BarrierModule extends AbstractModule {
 
 	}
 
-	public static class CableBarrier extends PoleFence {
+	public class CableBarrier extends PoleFence {
 
 		public static boolean fits(TagSet tags) {
 			return tags.contains("barrier", "cable_barrier");
@@ -684,12 +683,12 @@ public class BarrierModule extends AbstractModule {
 			this.bars = 4;
 			this.barOffset = barGap/2;
 
-			this.defaultFenceMaterial = Materials.METAL_FENCE;
-			this.defaultPoleMaterial = Materials.METAL_FENCE_POST;
+			this.defaultFenceMaterial = materialRegistry.get(Materials.METAL_FENCE);
+			this.defaultPoleMaterial = materialRegistry.get(Materials.METAL_FENCE_POST);
 		}
 	}
 
-	public static class HandRail extends PoleFence {
+	public class HandRail extends PoleFence {
 
 		public static boolean fits(TagSet tags) {
 			return tags.contains("barrier", "handrail");
@@ -703,13 +702,13 @@ public class BarrierModule extends AbstractModule {
 			this.bars = 1;
 			this.barOffset = 0;
 
-			this.defaultFenceMaterial = Materials.HANDRAIL_DEFAULT;
-			this.defaultPoleMaterial = Materials.HANDRAIL_DEFAULT;
+			this.defaultFenceMaterial = materialRegistry.get(Materials.HANDRAIL_DEFAULT);
+			this.defaultPoleMaterial = materialRegistry.get(Materials.HANDRAIL_DEFAULT);
 		}
 
 	}
 
-	public static class Guardrail extends LinearBarrier {
+	public class Guardrail extends LinearBarrier {
 
 		private static final float DEFAULT_HEIGHT = 0.75f;
 
@@ -760,7 +759,7 @@ public class BarrierModule extends AbstractModule {
 
 			List<VectorXYZ> centerline = getCenterline();
 
-			Material material = STEEL.makeSmooth();
+			Material material = materialRegistry.get(STEEL).makeSmooth();
 
 			/* draw the rail itself */
 
@@ -817,7 +816,7 @@ public class BarrierModule extends AbstractModule {
 
 	}
 
-	public static class JerseyBarrier extends LinearBarrier {
+	public class JerseyBarrier extends LinearBarrier {
 
 		private static final float DEFAULT_HEIGHT = 1.145f;
 		private static final float DEFAULT_WIDTH = 0.82f;
@@ -863,7 +862,7 @@ public class BarrierModule extends AbstractModule {
 						interpolateBetween(points.get(i), points.get(i+1), relativeOffset),
 						interpolateBetween(points.get(i), points.get(i+1), 1.0 - relativeOffset));
 
-				target.drawExtrudedShape(CONCRETE, DEFAULT_SHAPE, path,
+				target.drawExtrudedShape(materialRegistry.get(CONCRETE), DEFAULT_SHAPE, path,
 						nCopies(2, Y_UNIT), null, null, EnumSet.of(START_CAP, END_CAP));
 
 			}
@@ -872,7 +871,7 @@ public class BarrierModule extends AbstractModule {
 
 	}
 
-	public static class BollardRow extends AbstractNetworkWaySegmentWorldObject {
+	public class BollardRow extends AbstractNetworkWaySegmentWorldObject {
 
 		private final Model bollardModel;
 
@@ -913,7 +912,7 @@ public class BarrierModule extends AbstractModule {
 
 	}
 
-	public static class ChainRow extends PoleFence{
+	public class ChainRow extends PoleFence{
 
 		private static final Integer DEFAULT_NO_CHAIN_SEGMENTS = 8;
 
@@ -927,8 +926,8 @@ public class BarrierModule extends AbstractModule {
 			super(line);
 
 			this.barWidth = 0.05f;
-			this.defaultPoleMaterial = STEEL;
-			this.defaultFenceMaterial = STEEL;
+			this.defaultPoleMaterial = materialRegistry.get(STEEL);
+			this.defaultFenceMaterial = materialRegistry.get(STEEL);
 			this.barGap = 1.5f;
 		}
 
@@ -972,7 +971,7 @@ public class BarrierModule extends AbstractModule {
 		}
 	}
 
-	public static class CylinderBollard implements Model {
+	public class CylinderBollard implements Model {
 
 		private final double height;
 		private final double width;
@@ -984,8 +983,10 @@ public class BarrierModule extends AbstractModule {
 
 		@Override
 		public List<Mesh> buildMeshes(InstanceParameters params) {
+			Material material = materialRegistry.get(CONCRETE);
+
 			return singletonList(new Mesh(ExtrusionGeometry.createColumn(null, params.position, height,
-					width/2, width/2, false, true, null, CONCRETE.getTextureDimensions()), CONCRETE, LOD2, LOD4));
+					width/2, width/2, false, true, null, material.getTextureDimensions()), material, LOD2, LOD4));
 		}
 
 		@Override
@@ -1018,7 +1019,7 @@ public class BarrierModule extends AbstractModule {
 
 	}
 
-	public static class RoundtopBollard implements Model {
+	public class RoundtopBollard implements Model {
 
 		private final double height;
 		private final double width;
@@ -1063,8 +1064,10 @@ public class BarrierModule extends AbstractModule {
 			List<VectorXYZ> path = new ArrayList<>();
 			heights.forEach(it -> path.add(params.position.addY(it)));
 
+			Material material = materialRegistry.get(CONCRETE);
+
 			return singletonList(new Mesh(new ExtrusionGeometry(new CircleXZ(NULL_VECTOR, radius),
-					path, null, scaleFactors, null, null, CONCRETE.getTextureDimensions()), CONCRETE, LOD2, LOD4));
+					path, null, scaleFactors, null, null, material.getTextureDimensions()), material, LOD2, LOD4));
 
 		}
 
@@ -1098,7 +1101,7 @@ public class BarrierModule extends AbstractModule {
 
 	}
 
-	public static class Chain extends NoOutlineNodeWorldObject implements Renderable {
+	public class Chain extends NoOutlineNodeWorldObject implements Renderable {
 
 		private static final double DEFAULT_HEIGHT = 1;
 		private final double height;
@@ -1143,10 +1146,10 @@ public class BarrierModule extends AbstractModule {
 			VectorXYZ post2Pos = getBase().add(offset.rotateY(PI));
 			double distanceBetweenPosts = offset.length() * 2;
 
-			target.drawColumn(STEEL, null, post1Pos,
+			target.drawColumn(materialRegistry.get(STEEL), null, post1Pos,
 					height, DEFAULT_BAR_WIDTH, DEFAULT_BAR_WIDTH, false, true);
 
-			target.drawColumn(STEEL, null, post2Pos,
+			target.drawColumn(materialRegistry.get(STEEL), null, post2Pos,
 					height, DEFAULT_BAR_WIDTH, DEFAULT_BAR_WIDTH, false, true);
 
 
@@ -1162,14 +1165,14 @@ public class BarrierModule extends AbstractModule {
 				chainPath.add(post2Pos.add(offset.normalize().mult(i)).addY(pointDrop));
 			}
 
-			target.drawExtrudedShape(STEEL, BAR_SHAPE, chainPath, nCopies(DEFAULT_NO_CHAIN_SEGMENTS + 1,
+			target.drawExtrudedShape(materialRegistry.get(STEEL), BAR_SHAPE, chainPath, nCopies(DEFAULT_NO_CHAIN_SEGMENTS + 1,
 					Y_UNIT), null, null, EnumSet.of(START_CAP, END_CAP));
 
 		}
 
 	}
 
-	public static class DenseShrubbery extends AbstractAreaWorldObject {
+	public class DenseShrubbery extends AbstractAreaWorldObject {
 
 		/** the shrubbery:shape=* value. Only "box" is supported at the moment. */
 		private static enum ShrubberyShape { BOX }
@@ -1186,7 +1189,7 @@ public class BarrierModule extends AbstractModule {
 		public void renderTo(Target target) {
 			switch (shape) {
 			case BOX:
-				target.drawExtrudedShape(HEDGE, getOutlinePolygonXZ(),
+				target.drawExtrudedShape(materialRegistry.get(HEDGE), getOutlinePolygonXZ(),
 						asList(new VectorXYZ(0, 0, 0), new VectorXYZ(0, height, 0)),
 						null, null, null, EnumSet.of(END_CAP));
 				break;
@@ -38,7 +38,6 @@ import org.osm2world.core.math.shapes.PolylineShapeXZ;
 import org.osm2world.core.math.shapes.ShapeXZ;
 import org.osm2world.core.target.Target;
 import org.osm2world.core.target.common.material.Material;
-import org.osm2world.core.target.common.material.Materials;
 import org.osm2world.core.target.common.mesh.ExtrusionGeometry;
 import org.osm2world.core.target.common.mesh.Geometry;
 import org.osm2world.core.target.common.mesh.Mesh;
@@ -80,7 +79,7 @@ public class BicycleParkingModule extends AbstractModule {
 		}
 	}
 
-	public static abstract class BicycleStands implements LegacyWorldObject, TerrainBoundaryWorldObject {
+	public abstract class BicycleStands implements LegacyWorldObject, TerrainBoundaryWorldObject {
 
 		protected static final double DEFAULT_DISTANCE_BETWEEN_STANDS = 1.0;
 		private static final double STAND_DEFAULT_LENGTH = 1.0;
@@ -200,7 +199,7 @@ public class BicycleParkingModule extends AbstractModule {
 		}
 
 		private @Nullable Material getSurfaceMaterial() {
-			return Materials.getSurfaceMaterial(getPrimaryMapElement().getTags().getValue("surface"));
+			return materialRegistry.getSurfaceMaterial(getPrimaryMapElement().getTags().getValue("surface"));
 		}
 
 	}
@@ -293,7 +292,7 @@ public class BicycleParkingModule extends AbstractModule {
 
 	}
 
-	private static final class BicycleStandModel implements Model {
+	private final class BicycleStandModel implements Model {
 
 		private final ShapeXZ STAND_SHAPE = new CircleXZ(NULL_VECTOR, 0.02f);
 
@@ -326,10 +325,12 @@ public class BicycleParkingModule extends AbstractModule {
 					toFront.invert().normalize(),
 					toFront.invert().normalize());
 
+			Material material = materialRegistry.get(STEEL);
+
 			Geometry geom = new ExtrusionGeometry(STAND_SHAPE, path, upVectors, null, null, null,
-					STEEL.getTextureDimensions());
+					material.getTextureDimensions());
 
-			return asList(new Mesh(geom, STEEL, LOD2, LOD4));
+			return asList(new Mesh(geom, material, LOD2, LOD4));
 
 		}
 
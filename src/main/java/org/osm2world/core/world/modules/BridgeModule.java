@@ -80,7 +80,7 @@ public class BridgeModule extends AbstractModule {
 
 	public static final double BRIDGE_UNDERSIDE_HEIGHT = 0.2f;
 
-	private static class Bridge extends BridgeOrTunnel {
+	private class Bridge extends BridgeOrTunnel {
 
 		public Bridge(MapWaySegment segment,
 				AbstractNetworkWaySegmentWorldObject primaryWO) {
@@ -122,12 +122,12 @@ public class BridgeModule extends AbstractModule {
 			List<VectorXYZ> strip3 = createTriangleStripBetween(
 					rightOutline, belowRightOutline);
 
-			target.drawTriangleStrip(Materials.BRIDGE_DEFAULT, strip1,
-					texCoordLists(strip1, BRIDGE_DEFAULT, NamedTexCoordFunction.STRIP_WALL));
-			target.drawTriangleStrip(Materials.BRIDGE_DEFAULT, strip2,
-					texCoordLists(strip2, BRIDGE_DEFAULT, NamedTexCoordFunction.STRIP_WALL));
-			target.drawTriangleStrip(Materials.BRIDGE_DEFAULT, strip3,
-					texCoordLists(strip3, BRIDGE_DEFAULT, NamedTexCoordFunction.STRIP_WALL));
+			target.drawTriangleStrip(materialRegistry.get(Materials.BRIDGE_DEFAULT), strip1,
+					texCoordLists(strip1, materialRegistry.get(BRIDGE_DEFAULT), NamedTexCoordFunction.STRIP_WALL));
+			target.drawTriangleStrip(materialRegistry.get(Materials.BRIDGE_DEFAULT), strip2,
+					texCoordLists(strip2, materialRegistry.get(BRIDGE_DEFAULT), NamedTexCoordFunction.STRIP_WALL));
+			target.drawTriangleStrip(materialRegistry.get(Materials.BRIDGE_DEFAULT), strip3,
+					texCoordLists(strip3, materialRegistry.get(BRIDGE_DEFAULT), NamedTexCoordFunction.STRIP_WALL));
 
 		}
 
@@ -144,7 +144,7 @@ public class BridgeModule extends AbstractModule {
 			SimplePolygonShapeXZ defaultShape = new AxisAlignedRectangleXZ(NULL_VECTOR, defaultWidth, defaultLength);
 			defaultShape = defaultShape.rotatedCW(primaryRep.getPrimaryMapElement().getDirection().angle());
 
-			Material defaultMaterial = Materials.BRIDGE_PILLAR_DEFAULT;
+			Material defaultMaterial = materialRegistry.get(Materials.BRIDGE_PILLAR_DEFAULT);
 
 			/* look for explicitly mapped supports among the way's nodes and overlapping features */
 
@@ -183,10 +183,10 @@ public class BridgeModule extends AbstractModule {
 
 						Material material = null;
 						if (element.getTags().containsKey("material")) {
-							material = Materials.getMaterial(element.getTags().getValue("material").toUpperCase());
+							material = materialRegistry.getMaterial(element.getTags().getValue("material").toUpperCase());
 						}
 						if (material == null) {
-							material = Materials.BRIDGE_PILLAR_DEFAULT;
+							material = materialRegistry.get(Materials.BRIDGE_PILLAR_DEFAULT);
 						}
 						material = material.withColor(parseColor(element.getTags().getValue("colour"), CSS_COLORS));
 
@@ -120,7 +120,7 @@ public class CliffModule extends ConfigurableWorldModule {
 
 	}
 
-	public static class Cliff extends AbstractCliff {
+	public class Cliff extends AbstractCliff {
 
 		protected Cliff(MapWaySegment segment) {
 			super(segment);
@@ -133,12 +133,12 @@ public class CliffModule extends ConfigurableWorldModule {
 
 		@Override
 		protected Material getMaterial() {
-			return Materials.ROCK;
+			return materialRegistry.get(Materials.ROCK);
 		}
 
 	}
 
-	public static class RetainingWall extends AbstractCliff {
+	public class RetainingWall extends AbstractCliff {
 
 		protected RetainingWall(MapWaySegment segment) {
 			super(segment);
@@ -151,7 +151,7 @@ public class CliffModule extends ConfigurableWorldModule {
 
 		@Override
 		protected Material getMaterial() {
-			return Materials.CONCRETE;
+			return materialRegistry.get(Materials.CONCRETE);
 		}
 
 	}
@@ -12,6 +12,7 @@ import org.osm2world.core.map_elevation.creation.EleConstraintEnforcer;
 import org.osm2world.core.map_elevation.data.EleConnector;
 import org.osm2world.core.map_elevation.data.GroundState;
 import org.osm2world.core.target.Target;
+import org.osm2world.core.target.common.material.MaterialRegistry;
 import org.osm2world.core.world.creation.WorldModule;
 import org.osm2world.core.world.data.AreaWorldObject;
 import org.osm2world.core.world.data.LegacyWorldObject;
@@ -41,7 +42,7 @@ public class ExternalModelModule implements WorldModule {
 	}
 
 	@Override
-	public void setConfiguration(Configuration config) {}
+	public void setConfiguration(Configuration config, MaterialRegistry materialRegistry) {}
 
 	/** temporary placeholder, to be replaced with an actual 3dmr model by the Target */
 	private abstract static class ExternalModelPlaceholder<T extends MapElement> implements LegacyWorldObject {
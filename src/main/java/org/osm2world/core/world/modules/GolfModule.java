@@ -70,31 +70,33 @@ public class GolfModule extends AbstractModule {
 
 	}
 
-	private static class Tee extends SurfaceArea {
+	private class Tee extends SurfaceArea {
 
 		private Tee(MapArea area) {
 
 			super(area, area.getTags().containsKey("surface")
 					? area.getTags().getValue("surface")
-					: "grass");
+					: "grass",
+					materialRegistry);
 
 		}
 
 	}
 
-	private static class Fairway extends SurfaceArea {
+	private class Fairway extends SurfaceArea {
 
 		private Fairway(MapArea area) {
 
 			super(area, area.getTags().containsKey("surface")
 					? area.getTags().getValue("surface")
-					: "grass");
+					: "grass",
+					materialRegistry);
 
 		}
 
 	}
 
-	private static class Bunker extends AbstractAreaWorldObject implements TerrainBoundaryWorldObject {
+	private class Bunker extends AbstractAreaWorldObject implements TerrainBoundaryWorldObject {
 
 		public Bunker(MapArea area) {
 			super(area);
@@ -171,14 +173,14 @@ public class GolfModule extends AbstractModule {
 
 			/* render everything with a sand texture */
 
-			target.drawTriangles(SAND, resultingTriangulation,
-					triangleTexCoordLists(resultingTriangulation, SAND, GLOBAL_X_Z));
+			target.drawTriangles(materialRegistry.get(SAND), resultingTriangulation,
+					triangleTexCoordLists(resultingTriangulation, materialRegistry.get(SAND), GLOBAL_X_Z));
 
 		}
 
 	}
 
-	private static class Green extends AbstractAreaWorldObject implements TerrainBoundaryWorldObject {
+	private class Green extends AbstractAreaWorldObject implements TerrainBoundaryWorldObject {
 
 		private final VectorXZ pinPosition;
 		private final SimplePolygonXZ pinHoleLoop;
@@ -253,10 +255,10 @@ public class GolfModule extends AbstractModule {
 
 			String surfaceValue = area.getTags().getValue("surface");
 
-			Material material = Materials.GRASS;
+			Material material = materialRegistry.get(Materials.GRASS);
 
 			if (surfaceValue != null && !"grass".equals(surfaceValue)) {
-				material = Materials.getSurfaceMaterial(surfaceValue, material);
+				material = materialRegistry.getSurfaceMaterial(surfaceValue, material);
 			}
 
 			List<TriangleXZ> trianglesXZ = getGreenTriangulation();
@@ -279,7 +281,7 @@ public class GolfModule extends AbstractModule {
 			return TriangulationUtil.triangulate(area.getPolygon().getOuter(), holes, emptyList());
 		}
 
-		private static void drawPin(Target target, VectorXZ pos, List<VectorXYZ> upperHoleRing) {
+		private void drawPin(Target target, VectorXZ pos, List<VectorXYZ> upperHoleRing) {
 
 			double minHoleEle = min(upperHoleRing, comparingDouble(v -> v.y)).y;
 
@@ -291,7 +293,7 @@ public class GolfModule extends AbstractModule {
 
 			List<VectorXYZ> vs = createTriangleStripBetween(upperHoleRing, lowerHoleRing);
 
-			Material groundMaterial = Materials.EARTH.makeSmooth();
+			Material groundMaterial = materialRegistry.get(Materials.EARTH).makeSmooth();
 
 			target.drawTriangleStrip(groundMaterial, vs,
 					texCoordLists(vs, groundMaterial, STRIP_WALL));
@@ -301,11 +303,11 @@ public class GolfModule extends AbstractModule {
 
 			/* draw pole and flag */
 
-			Material flagPoleMaterial = PLASTIC.withColor(new Color(184, 184, 184));
+			Material flagPoleMaterial = materialRegistry.get(PLASTIC).withColor(new Color(184, 184, 184));
 			target.drawColumn(flagPoleMaterial, null,
 					pos.xyz(holeBottomEle), 1.5, 0.007, 0.007, false, true);
 
-			StripedFlag flag = new StripedFlag(3 / 4, asList(YELLOW), true);
+			StripedFlag flag = new StripedFlag(3 / 4, asList(YELLOW), true, materialRegistry.get(FLAGCLOTH));
 			flag.renderFlag(target, pos.xyz(holeBottomEle + 1.5), 0.3, 0.4);
 
 		}
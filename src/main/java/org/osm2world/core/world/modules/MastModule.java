@@ -36,7 +36,7 @@ public class MastModule extends AbstractModule {
 
 	}
 
-	public static class MobilePhoneMast extends NoOutlineNodeWorldObject {
+	public class MobilePhoneMast extends NoOutlineNodeWorldObject {
 
 		public MobilePhoneMast(MapNode node) {
 			super(node);
@@ -54,7 +54,7 @@ public class MastModule extends AbstractModule {
 			double radiusBottom = height / 40;
 			double radiusTop = radiusBottom * 0.8;
 
-			target.drawExtrudedShape(CONCRETE, new CircleXZ(NULL_VECTOR, 1), asList(getBase(), getBase().addY(height)),
+			target.drawExtrudedShape(materialRegistry.get(CONCRETE), new CircleXZ(NULL_VECTOR, 1), asList(getBase(), getBase().addY(height)),
 					null, asList(radiusBottom, radiusTop), null, EnumSet.of(END_CAP));
 
 			//TODO: proper ModelTarget/instancing support
@@ -62,14 +62,14 @@ public class MastModule extends AbstractModule {
 			for (double angleRad : asList(PI, 0.3 * PI, 1.5 * PI)) {
 				VectorXYZ pos = getBase().addY(height - 0.6);
 				pos = pos.add(VectorXZ.fromAngle(angleRad).mult(radiusTop));
-				MOBILE_PHONE_ANTENNA_MODEL.render(target, pos, angleRad, null, null, null);
+				mobilePhoneAntennaModel.render(target, pos, angleRad, null, null, null);
 			}
 
 		}
 
 	}
 
-	private static final Model MOBILE_PHONE_ANTENNA_MODEL = new LegacyModel() {
+	private final Model mobilePhoneAntennaModel = new LegacyModel() {
 
 		@Override
 		public void render(Target target, VectorXYZ position, double direction, Double height, Double width,
@@ -83,7 +83,7 @@ public class MastModule extends AbstractModule {
 			/* draw a connections between the antenna box and the pole */
 
 			for (double relativeHeight : asList(-0.7, +0.7)) {
-				target.drawExtrudedShape(STEEL, new CircleXZ(NULL_VECTOR, 0.025),
+				target.drawExtrudedShape(materialRegistry.get(STEEL), new CircleXZ(NULL_VECTOR, 0.025),
 						asList(position.addY(relativeHeight * antennaHeight / 2),
 								antennaCenter.addY(relativeHeight * antennaHeight / 2)),
 						nCopies(2, Y_UNIT), null, null, null);
@@ -92,7 +92,7 @@ public class MastModule extends AbstractModule {
 			/* draw the antenna box itself */
 
 			VectorXYZ antennaBottom = antennaCenter.addY(-antennaHeight / 2);
-			target.drawBox(PLASTIC, antennaBottom, faceDirection, antennaHeight, 0.2, 0.08);
+			target.drawBox(materialRegistry.get(PLASTIC), antennaBottom, faceDirection, antennaHeight, 0.2, 0.08);
 
 		}
 
@@ -40,7 +40,7 @@ public class ParkingModule extends AbstractModule {
 		}
 	}
 
-	private static class SurfaceParking extends AbstractAreaWorldObject implements TerrainBoundaryWorldObject {
+	private class SurfaceParking extends AbstractAreaWorldObject implements TerrainBoundaryWorldObject {
 
 		private final List<MapArea> parkingSpaces = new ArrayList<MapArea>();
 
@@ -67,7 +67,7 @@ public class ParkingModule extends AbstractModule {
 		public void renderTo(Target target) {
 
 			String surface = area.getTags().getValue("surface");
-			Material material = getSurfaceMaterial(surface, ASPHALT);
+			Material material = materialRegistry.getSurfaceMaterial(surface, ASPHALT);
 
 			List<TriangleXYZ> triangles = getTriangulation();
 
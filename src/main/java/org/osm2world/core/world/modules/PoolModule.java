@@ -68,7 +68,7 @@ public class PoolModule extends AbstractModule {
 
 	}
 
-	public static class Pool extends AbstractAreaWorldObject implements TerrainBoundaryWorldObject {
+	public class Pool extends AbstractAreaWorldObject implements TerrainBoundaryWorldObject {
 
 		public Pool(MapArea area) {
 			super(area);
@@ -81,8 +81,8 @@ public class PoolModule extends AbstractModule {
 
 			List<TriangleXYZ> triangles = getTriangulation();
 
-			target.drawTriangles(PURIFIED_WATER, triangles,
-					triangleTexCoordLists(triangles, PURIFIED_WATER, GLOBAL_X_Z));
+			target.drawTriangles(materialRegistry.get(PURIFIED_WATER), triangles,
+					triangleTexCoordLists(triangles, materialRegistry.get(PURIFIED_WATER), GLOBAL_X_Z));
 
 			/* draw a small area around the pool */
 
@@ -98,13 +98,13 @@ public class PoolModule extends AbstractModule {
 
 			List<VectorXYZ> path = getOutlinePolygon().vertices();
 
-			target.drawExtrudedShape(CONCRETE, wallShape, path,
+			target.drawExtrudedShape(materialRegistry.get(CONCRETE), wallShape, path,
 					nCopies(path.size(), Y_UNIT), null, null, null);
 
 		}
 	}
 
-	private static class WaterSlide implements WaySegmentWorldObject, LegacyWorldObject {
+	private class WaterSlide implements WaySegmentWorldObject, LegacyWorldObject {
 
 		private static final Color DEFAULT_COLOR = ORANGE;
 
@@ -236,7 +236,7 @@ public class PoolModule extends AbstractModule {
 			List<VectorXYZ> up = nCopies(path.size(), Y_UNIT);
 
 			target.drawExtrudedShape(material, CROSS_SECTION_PIPE, path, up, null, null, null);
-			target.drawExtrudedShape(WATER, CROSS_SECTION_WATER, path, up, null, null, null);
+			target.drawExtrudedShape(materialRegistry.get(WATER), CROSS_SECTION_WATER, path, up, null, null, null);
 
 			/* draw supporting pillars */
 
@@ -244,7 +244,7 @@ public class PoolModule extends AbstractModule {
 
 				double bottomHeight = -100;
 
-				target.drawColumn(STEEL, null, v.y(bottomHeight),
+				target.drawColumn(materialRegistry.get(STEEL), null, v.y(bottomHeight),
 						v.y - bottomHeight, 0.15, 0.15, false, false);
 
 			}
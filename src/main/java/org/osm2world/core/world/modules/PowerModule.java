@@ -159,7 +159,7 @@ public final class PowerModule extends AbstractModule {
 		}
 	}
 
-	private static final class PowerCabinet extends NoOutlineNodeWorldObject {
+	private final class PowerCabinet extends NoOutlineNodeWorldObject {
 
 		public PowerCabinet(MapNode node) {
 			super(node);
@@ -176,7 +176,7 @@ public final class PowerModule extends AbstractModule {
 			double directionAngle = parseDirection(node.getTags(), PI);
 			VectorXZ faceVector = VectorXZ.fromAngle(directionAngle);
 
-			Material material = PLASTIC.withColor(new Color(184, 184, 184));
+			Material material = materialRegistry.get(PLASTIC).withColor(new Color(184, 184, 184));
 			target.drawBox(material, getBase(), faceVector, 1.5, 0.8, 0.3);
 
 		}
@@ -202,7 +202,7 @@ public final class PowerModule extends AbstractModule {
 		}
 	}
 
-	private static final class Powerpole extends NoOutlineNodeWorldObject {
+	private final class Powerpole extends NoOutlineNodeWorldObject {
 
 		public Powerpole(MapNode node) {
 			super(node);
@@ -223,12 +223,12 @@ public final class PowerModule extends AbstractModule {
 			//TODO parse color
 
 			if (material == null) {
-				material = Materials.getSurfaceMaterial(
+				material = materialRegistry.getSurfaceMaterial(
 						node.getTags().getValue("material"));
 			}
 
 			if (material == null) {
-				material = Materials.getSurfaceMaterial(
+				material = materialRegistry.getSurfaceMaterial(
 						node.getTags().getValue("surface"), Materials.WOOD);
 			}
 
@@ -239,49 +239,51 @@ public final class PowerModule extends AbstractModule {
 
 	}
 
-	public static final class WindTurbine extends NoOutlineNodeWorldObject {
+	private final Model rotor = new Rotor();
 
-		/** model of a rotor with 1 m rotor diameter */
-		public static final Model ROTOR = new LegacyModel() {
+	/** model of a rotor with 1 m rotor diameter */
+	public final class Rotor implements LegacyModel {
 
-			@Override
-			public void render(Target target, VectorXYZ position,
-					double direction, Double height, Double width, Double length) {
-
-				double bladeLength = (height == null ? 1 : height) / 2;
-				double bladeWidth = 0.1 * bladeLength;
-
-				Material bladeMaterial = Materials.STEEL; // probably fibre, but color matches roughly :)
-
-				// define first blade
-				List<VectorXYZ> bladeFront = asList(
-						position.add(-bladeWidth/5, 0, +bladeWidth/2),
-						position.add(0, -bladeLength, 0),
-						position.add(+bladeWidth/5, 0, -bladeWidth/2)
-				);
-
-				List<VectorXYZ> bladeBack = asList(bladeFront.get(0), bladeFront.get(2), bladeFront.get(1));
-
-				// rotate and draw blades
-				double rotCenterY = position.y;
-				double rotCenterZ = position.z;
-
-				bladeFront = rotateShapeX(bladeFront, 60, rotCenterY, rotCenterZ);
-				bladeBack  = rotateShapeX(bladeBack, 60, rotCenterY, rotCenterZ);
-				target.drawTriangleStrip(bladeMaterial, bladeFront, null);
-				target.drawTriangleStrip(bladeMaterial, bladeBack, null);
-				bladeFront = rotateShapeX(bladeFront, 120, rotCenterY, rotCenterZ);
-				bladeBack  = rotateShapeX(bladeBack, 120, rotCenterY, rotCenterZ);
-				target.drawTriangleStrip(bladeMaterial, bladeFront, null);
-				target.drawTriangleStrip(bladeMaterial, bladeBack, null);
-				bladeFront = rotateShapeX(bladeFront, 120, rotCenterY, rotCenterZ);
-				bladeBack  = rotateShapeX(bladeBack, 120, rotCenterY, rotCenterZ);
-				target.drawTriangleStrip(bladeMaterial, bladeFront, null);
-				target.drawTriangleStrip(bladeMaterial, bladeBack, null);
+		@Override
+		public void render(Target target, VectorXYZ position,
+				double direction, Double height, Double width, Double length) {
 
-			}
+			double bladeLength = (height == null ? 1 : height) / 2;
+			double bladeWidth = 0.1 * bladeLength;
+
+			Material bladeMaterial = materialRegistry.get(Materials.STEEL); // probably fibre, but color matches roughly :)
+
+			// define first blade
+			List<VectorXYZ> bladeFront = asList(
+					position.add(-bladeWidth/5, 0, +bladeWidth/2),
+					position.add(0, -bladeLength, 0),
+					position.add(+bladeWidth/5, 0, -bladeWidth/2)
+			);
 
-		};
+			List<VectorXYZ> bladeBack = asList(bladeFront.get(0), bladeFront.get(2), bladeFront.get(1));
+
+			// rotate and draw blades
+			double rotCenterY = position.y;
+			double rotCenterZ = position.z;
+
+			bladeFront = rotateShapeX(bladeFront, 60, rotCenterY, rotCenterZ);
+			bladeBack  = rotateShapeX(bladeBack, 60, rotCenterY, rotCenterZ);
+			target.drawTriangleStrip(bladeMaterial, bladeFront, null);
+			target.drawTriangleStrip(bladeMaterial, bladeBack, null);
+			bladeFront = rotateShapeX(bladeFront, 120, rotCenterY, rotCenterZ);
+			bladeBack  = rotateShapeX(bladeBack, 120, rotCenterY, rotCenterZ);
+			target.drawTriangleStrip(bladeMaterial, bladeFront, null);
+			target.drawTriangleStrip(bladeMaterial, bladeBack, null);
+			bladeFront = rotateShapeX(bladeFront, 120, rotCenterY, rotCenterZ);
+			bladeBack  = rotateShapeX(bladeBack, 120, rotCenterY, rotCenterZ);
+			target.drawTriangleStrip(bladeMaterial, bladeFront, null);
+			target.drawTriangleStrip(bladeMaterial, bladeBack, null);
+
+		}
+
+	}
+
+	public final class WindTurbine extends NoOutlineNodeWorldObject {
 
 		private final AttachmentConnector connector;
 
@@ -317,17 +319,17 @@ public final class PowerModule extends AbstractModule {
 			/* determine material */
 
 			Material poleMaterial = null;
-			Material nacelleMaterial = Materials.STEEL;
+			Material nacelleMaterial = materialRegistry.get(Materials.STEEL);
 
 			//TODO parse color
 
 			if (poleMaterial == null) {
-				poleMaterial = Materials.getSurfaceMaterial(
+				poleMaterial = materialRegistry.getSurfaceMaterial(
 						node.getTags().getValue("material"));
 			}
 
 			if (poleMaterial == null) {
-				poleMaterial = Materials.getSurfaceMaterial(
+				poleMaterial = materialRegistry.getSurfaceMaterial(
 						node.getTags().getValue("surface"), Materials.STEEL);
 			}
 
@@ -350,7 +352,7 @@ public final class PowerModule extends AbstractModule {
 					nacelleVector, nacelleHeight, nacelleHeight, nacelleDepth);
 
 			/* draw rotor blades */
-			target.drawModel(ROTOR,
+			target.drawModel(rotor,
 					position.addY(poleHeight).add(-poleRadiusTop*2.5, nacelleHeight/2, 0),
 					0, rotorDiameter, rotorDiameter, rotorDiameter);
 
@@ -367,7 +369,7 @@ public final class PowerModule extends AbstractModule {
 
 	}
 
-	private static class PowerMinorLine extends NoOutlineWaySegmentWorldObject {
+	private class PowerMinorLine extends NoOutlineWaySegmentWorldObject {
 
 		private static final float DEFAULT_THICKN = 0.05f; // width and height
 		private static final float DEFAULT_CLEARING_BL = 7.5f; // power pole height is 8
@@ -393,17 +395,19 @@ public final class PowerModule extends AbstractModule {
 
 			List<VectorXYZ> path = getBaseline();
 
+			Material material = materialRegistry.get(PLASTIC);
+
 			return singletonList(new Mesh(new ExtrusionGeometry(powerlineShape, getBaseline(),
-					nCopies(path.size(), Y_UNIT), null, BLACK, null, PLASTIC.getTextureDimensions()), PLASTIC));
+					nCopies(path.size(), Y_UNIT), null, BLACK, null, material.getTextureDimensions()), material));
 
 		}
 
 	}
 
-	private final static class PowerLine extends NoOutlineWaySegmentWorldObject {
+	private final class PowerLine extends NoOutlineWaySegmentWorldObject {
 
 		private static final float CABLE_THICKNESS = 0.05f;
-		private static final Material CABLE_MATERIAL = PLASTIC;
+		private final Material cableMaterial = materialRegistry.get(PLASTIC);
 		private static final double SLACK_SPAN = 6;
 		private static final double INTERPOLATION_STEPS = 10;
 		private static final ShapeXZ powerlineShape = new CircleXZ(NULL_VECTOR, CABLE_THICKNESS/2);
@@ -566,7 +570,7 @@ public final class PowerModule extends AbstractModule {
 				}
 
 				result.add(new Mesh(new ExtrusionGeometry(powerlineShape, path, nCopies(path.size(), Y_UNIT),
-						null, BLACK, null, CABLE_MATERIAL.getTextureDimensions()), CABLE_MATERIAL));
+						null, BLACK, null, cableMaterial.getTextureDimensions()), cableMaterial));
 
 			}
 
@@ -577,7 +581,7 @@ public final class PowerModule extends AbstractModule {
 	}
 
 
-	private static final class PowerTower extends NoOutlineNodeWorldObject {
+	private final class PowerTower extends NoOutlineNodeWorldObject {
 
 		private TowerConfig config;
 
@@ -599,9 +603,9 @@ public final class PowerModule extends AbstractModule {
 			VectorXYZ base = getBase().addY(-0.5);
 			double height = parseHeight(node.getTags(), 14);
 
-			Material material = Materials.getSurfaceMaterial(node.getTags().getValue("material"));
+			Material material = materialRegistry.getSurfaceMaterial(node.getTags().getValue("material"));
 			if (material == null) {
-				material = Materials.getSurfaceMaterial(node.getTags().getValue("surface"), Materials.STEEL);
+				material = materialRegistry.getSurfaceMaterial(node.getTags().getValue("surface"), Materials.STEEL);
 			}
 
 			// draw base column
@@ -612,20 +616,20 @@ public final class PowerModule extends AbstractModule {
 
 			// draw pieces holding the power lines
 			base = base.add(0, height + 0.25, 0);
-			target.drawColumn(Materials.CONCRETE, null, base.add(config.direction.rightNormal().mult(2)), 0.5, 0.1, 0.1, true, true);
-			target.drawColumn(Materials.CONCRETE, null, base.add(config.direction.rightNormal().mult(-2)), 0.5, 0.1, 0.1, true, true);
+			target.drawColumn(materialRegistry.get(Materials.CONCRETE), null, base.add(config.direction.rightNormal().mult(2)), 0.5, 0.1, 0.1, true, true);
+			target.drawColumn(materialRegistry.get(Materials.CONCRETE), null, base.add(config.direction.rightNormal().mult(-2)), 0.5, 0.1, 0.1, true, true);
 			if (config.cables >= 3) {
-				target.drawColumn(Materials.CONCRETE, null, base, 0.5, 0.1, 0.1, true, true);
+				target.drawColumn(materialRegistry.get(Materials.CONCRETE), null, base, 0.5, 0.1, 0.1, true, true);
 			}
 			if (config.cables >= 5) {
-				target.drawColumn(Materials.CONCRETE, null, base.add(config.direction.rightNormal().mult(1.5)), -0.5, 0.1, 0.1, true, true);
-				target.drawColumn(Materials.CONCRETE, null, base.add(config.direction.rightNormal().mult(-1.5)), -0.5, 0.1, 0.1, true, true);
+				target.drawColumn(materialRegistry.get(Materials.CONCRETE), null, base.add(config.direction.rightNormal().mult(1.5)), -0.5, 0.1, 0.1, true, true);
+				target.drawColumn(materialRegistry.get(Materials.CONCRETE), null, base.add(config.direction.rightNormal().mult(-1.5)), -0.5, 0.1, 0.1, true, true);
 			}
 		}
 	}
 
 
-	private static final class HighVoltagePowerTower extends NoOutlineNodeWorldObject {
+	private final class HighVoltagePowerTower extends NoOutlineNodeWorldObject {
 
 		private TowerConfig config;
 		private VectorXZ direction;
@@ -675,7 +679,7 @@ public final class PowerModule extends AbstractModule {
 				List<VectorXYZ> vs = new ArrayList<VectorXYZ>();
 				List<VectorXZ> tex = new ArrayList<VectorXZ>();
 				List<List<VectorXZ>> texList =
-					nCopies(Materials.POWER_TOWER_VERTICAL.getNumTextureLayers(), tex);
+					nCopies(materialRegistry.get(Materials.POWER_TOWER_VERTICAL).getNumTextureLayers(), tex);
 
 				for (int i = 0; i < 2; i++) {
 					int idx = (a+i)%4;
@@ -685,7 +689,7 @@ public final class PowerModule extends AbstractModule {
 					tex.add(new VectorXZ(i, 0));
 				}
 
-				target.drawTriangleStrip(Materials.POWER_TOWER_VERTICAL, vs, texList);
+				target.drawTriangleStrip(materialRegistry.get(Materials.POWER_TOWER_VERTICAL), vs, texList);
 			}
 		}
 
@@ -696,7 +700,7 @@ public final class PowerModule extends AbstractModule {
 			List<VectorXYZ> vs = new ArrayList<VectorXYZ>();
 			List<VectorXZ> tex = new ArrayList<VectorXZ>();
 			List<List<VectorXZ>> texList =
-					nCopies(Materials.POWER_TOWER_HORIZONTAL.getNumTextureLayers(), tex);
+					nCopies(materialRegistry.get(Materials.POWER_TOWER_HORIZONTAL).getNumTextureLayers(), tex);
 
 			vs.add(right.xyz(base));
 			vs.add(left.xyz(base));
@@ -708,7 +712,7 @@ public final class PowerModule extends AbstractModule {
 			tex.add(new VectorXZ(1, 0));
 			tex.add(new VectorXZ(0, 0));
 
-			target.drawTriangleStrip(Materials.POWER_TOWER_HORIZONTAL, vs, texList);
+			target.drawTriangleStrip(materialRegistry.get(Materials.POWER_TOWER_HORIZONTAL), vs, texList);
 		}
 
 		private void drawHorizontalTop(Target target, VectorXZ[] frontPoints, VectorXZ[] backPoints,
@@ -722,7 +726,7 @@ public final class PowerModule extends AbstractModule {
 				List<VectorXYZ> vs = new ArrayList<VectorXYZ>();
 				List<VectorXZ> tex = new ArrayList<VectorXZ>();
 				List<List<VectorXZ>> texList =
-						nCopies(Materials.POWER_TOWER_VERTICAL.getNumTextureLayers(), tex);
+						nCopies(materialRegistry.get(Materials.POWER_TOWER_VERTICAL).getNumTextureLayers(), tex);
 
 				for (int i = 0; i < 2; i++) {
 					vs.add(frontPoints[a+i].xyz(base + height[a+i]));
@@ -730,7 +734,7 @@ public final class PowerModule extends AbstractModule {
 					tex.add(new VectorXZ(0, i));
 					tex.add(new VectorXZ(1, i));
 				}
-				target.drawTriangleStrip(Materials.POWER_TOWER_VERTICAL, vs, texList);
+				target.drawTriangleStrip(materialRegistry.get(Materials.POWER_TOWER_VERTICAL), vs, texList);
 			}
 		}
 
@@ -816,7 +820,7 @@ public final class PowerModule extends AbstractModule {
 		}
 	}
 
-	private static final class PhotovoltaicPlant extends AbstractAreaWorldObject {
+	private final class PhotovoltaicPlant extends AbstractAreaWorldObject {
 
 		/** compares vectors by x coordinate */
 		private static final Comparator<VectorXZ> X_COMPARATOR = comparingDouble(v -> v.x);
@@ -966,14 +970,14 @@ public final class PowerModule extends AbstractModule {
 					bottomRight.add(upVector),
 					bottomRight);
 
-			target.drawTriangleStrip(Materials.SOLAR_PANEL, vs,
-					texCoordLists(vs, Materials.SOLAR_PANEL, STRIP_FIT_HEIGHT));
+			target.drawTriangleStrip(materialRegistry.get(Materials.SOLAR_PANEL), vs,
+					texCoordLists(vs, materialRegistry.get(Materials.SOLAR_PANEL), STRIP_FIT_HEIGHT));
 
 			/* draw back */
 
 			vs = asList(vs.get(2), vs.get(3), vs.get(0), vs.get(1));
 
-			Material backMaterial = PLASTIC.withColor(new Color(184, 184, 184));
+			Material backMaterial = materialRegistry.get(PLASTIC).withColor(new Color(184, 184, 184));
 			target.drawTriangleStrip(backMaterial, vs,
 					texCoordLists(vs, backMaterial, STRIP_WALL));
 
@@ -981,7 +985,7 @@ public final class PowerModule extends AbstractModule {
 
 	}
 
-	static final class RooftopSolarPanels extends AbstractAreaWorldObject {
+	final class RooftopSolarPanels extends AbstractAreaWorldObject {
 
 		private static final double DISTANCE_FROM_ROOF = 0.05;
 
@@ -1027,8 +1031,8 @@ public final class PowerModule extends AbstractModule {
 				Function<TextureDataDimensions, PanelTexCoordFunction> texCoordFunctionGenerator =
 						placePanelTextures(area.getPolygon(), plane.getNormal());
 
-				target.drawTriangles(SOLAR_PANEL, triangles,
-						triangleTexCoordLists(triangles, SOLAR_PANEL, texCoordFunctionGenerator));
+				target.drawTriangles(materialRegistry.get(SOLAR_PANEL), triangles,
+						triangleTexCoordLists(triangles, materialRegistry.get(SOLAR_PANEL), texCoordFunctionGenerator));
 
 			}
 
@@ -98,7 +98,7 @@ public class RailwayModule extends ConfigurableWorldModule {
 
 	}
 
-	private static class SleeperModel implements Model {
+	private class SleeperModel implements Model {
 
 		private final double sleeperWidth;
 
@@ -121,8 +121,10 @@ public class RailwayModule extends ConfigurableWorldModule {
 			SimplePolygonShapeXZ box = new AxisAlignedRectangleXZ(NULL_VECTOR, width, length);
 			box = box.rotatedCW(params.direction);
 
+			Material material = materialRegistry.get(WOOD);
+
 			return singletonList(new Mesh(new ExtrusionGeometry(box, asList(position, position.addY(height)),
-					null, null, null, EnumSet.of(END_CAP), WOOD.getTextureDimensions()), WOOD, LOD4));
+					null, null, null, EnumSet.of(END_CAP), material.getTextureDimensions()), material, LOD4));
 
 		}
 	}
@@ -199,15 +201,15 @@ public class RailwayModule extends ConfigurableWorldModule {
 
 			// just the ballast (sleepers will be rendered as separate models at this LOD)
 			TriangleGeometry.Builder lod4GroundBuilder = new TriangleGeometry.Builder(
-					texCoordFunctions(RAIL_BALLAST, GLOBAL_X_Z), null, Interpolation.SMOOTH);
+					texCoordFunctions(materialRegistry.get(RAIL_BALLAST), GLOBAL_X_Z), null, Interpolation.SMOOTH);
 			lod4GroundBuilder.addTriangleStrip(groundVs);
-			result.add(new Mesh(lod4GroundBuilder.build(), RAIL_BALLAST, LOD4));
+			result.add(new Mesh(lod4GroundBuilder.build(), materialRegistry.get(RAIL_BALLAST), LOD4));
 
 			// repeating texture containing ballast, sleepers and rails
 			TriangleGeometry.Builder lod3GroundBuilder = new TriangleGeometry.Builder(
-					texCoordFunctions(RAIL_BALLAST, GLOBAL_X_Z), null, Interpolation.SMOOTH);
+					texCoordFunctions(materialRegistry.get(RAIL_BALLAST), GLOBAL_X_Z), null, Interpolation.SMOOTH);
 			lod3GroundBuilder.addTriangleStrip(groundVs);
-			result.add(new Mesh(lod3GroundBuilder.build(), RAILWAY, LOD1, LOD3));
+			result.add(new Mesh(lod3GroundBuilder.build(), materialRegistry.get(RAILWAY), LOD1, LOD3));
 
 			/* build rail meshes */
 
@@ -232,8 +234,8 @@ public class RailwayModule extends ConfigurableWorldModule {
 						createLineBetween(getOutline(false), getOutline(true), 1 - (groundWidth - railDist) / groundWidth / 2)
 				)) {
 					result.add(new Mesh(new ExtrusionGeometry(shape, addYList(railLine, yOffset),
-							nCopies(railLine.size(), Y_UNIT), null, null, extrudeOptions, STEEL.getTextureDimensions()),
-							STEEL, lod));
+							nCopies(railLine.size(), Y_UNIT), null, null, extrudeOptions, materialRegistry.get(STEEL).getTextureDimensions()),
+							materialRegistry.get(STEEL), lod));
 				}
 
 			}
@@ -271,7 +273,7 @@ public class RailwayModule extends ConfigurableWorldModule {
 
 	}
 
-	public static class RailJunction extends JunctionNodeWorldObject<Rail> implements TerrainBoundaryWorldObject {
+	public class RailJunction extends JunctionNodeWorldObject<Rail> implements TerrainBoundaryWorldObject {
 
 		public RailJunction(MapNode node) {
 			super(node, Rail.class);
@@ -286,7 +288,7 @@ public class RailwayModule extends ConfigurableWorldModule {
 
 			List<VectorXYZ> vectors = getOutlinePolygon().vertices();
 
-			Material material = Materials.RAIL_BALLAST;
+			Material material = materialRegistry.get(Materials.RAIL_BALLAST);
 
 			target.drawConvexPolygon(material, vectors,
 					texCoordLists(vectors, material, GLOBAL_X_Z));
@@ -45,6 +45,7 @@ import org.osm2world.core.math.shapes.ShapeXZ;
 import org.osm2world.core.target.Renderable;
 import org.osm2world.core.target.Target;
 import org.osm2world.core.target.common.material.Material;
+import org.osm2world.core.target.common.material.MaterialRegistry;
 import org.osm2world.core.target.common.material.Materials;
 import org.osm2world.core.target.common.material.TextureDataDimensions;
 import org.osm2world.core.target.common.texcoord.TexCoordFunction;
@@ -186,9 +187,9 @@ public class RoadModule extends ConfigurableWorldModule {
 	 * If the node has an explicit surface tag, this is evaluated.
 	 * Otherwise, the result depends on the surface values of adjacent roads.
 	 */
-	private static Material getSurfaceForNode(MapNode node) {
+	private Material getSurfaceForNode(MapNode node) {
 
-		Material surface = getSurfaceMaterial(
+		Material surface = materialRegistry.getSurfaceMaterial(
 				node.getTags().getValue("surface"), null);
 
 		if (surface != null) {
@@ -208,43 +209,43 @@ public class RoadModule extends ConfigurableWorldModule {
 	}
 
 	private static Material getSurfaceForRoad(TagSet tags,
-			Material defaultSurface) {
+			Material defaultSurface, MaterialRegistry materialRegistry) {
 
 		Material result;
 
 		if (tags.containsKey("tracktype")) {
 			if (tags.contains("tracktype", "grade1")) {
-				result = ASPHALT;
+				result = materialRegistry.get(ASPHALT);
 			} else if (tags.contains("tracktype", "grade2")) {
-				result = GRAVEL;
+				result = materialRegistry.get(GRAVEL);
 			} else {
-				result = EARTH;
+				result = materialRegistry.get(EARTH);
 			}
 		} else {
 			result = defaultSurface;
 		}
 
-		return getSurfaceMaterial(tags.getValue("surface"), result);
+		return materialRegistry.getSurfaceMaterial(tags.getValue("surface"), result);
 
 	}
 
 	private static Material getSurfaceMiddleForRoad(TagSet tags,
-			Material defaultSurface) {
+			Material defaultSurface, MaterialRegistry materialRegistry) {
 
 		Material result;
 
 		if ((tags.contains("tracktype", "grade4") || tags.contains("tracktype", "grade5"))
 				&& !tags.containsKey("surface")) {
-			result = TERRAIN_DEFAULT;
+			result = materialRegistry.get(TERRAIN_DEFAULT);
 			// ideally, this would be the terrain type surrounds the track...
 		} else {
 			result = defaultSurface;
 		}
 
-		result = getSurfaceMaterial(tags.getValue("surface:middle"), result);
+		result = materialRegistry.getSurfaceMaterial(tags.getValue("surface:middle"), result);
 
-		if (result == GRASS) {
-			result = TERRAIN_DEFAULT;
+		if (result == materialRegistry.get(GRASS)) {
+			result = materialRegistry.get(TERRAIN_DEFAULT);
 		}
 
 		return result;
@@ -352,7 +353,7 @@ public class RoadModule extends ConfigurableWorldModule {
 	/**
 	 * determines connected lanes at a junction, crossing or connector
 	 */
-	private static List<LaneConnection> buildLaneConnections(
+	private List<LaneConnection> buildLaneConnections(
 			MapNode node, boolean isJunction, boolean isCrossing) {
 
 		List<Road> roads = getConnectedRoads(node, true);
@@ -447,7 +448,7 @@ public class RoadModule extends ConfigurableWorldModule {
 	 * @param inboundOnewayRoadsLTR  inbound roads, left to right
 	 * @param outboundOnewayRoadsLTR  outbound roads, left to right
 	 */
-	private static List<LaneConnection> buildLaneConnections_allOneway(
+	private List<LaneConnection> buildLaneConnections_allOneway(
 			MapNode node, List<Road> inboundOnewayRoadsLTR,
 			List<Road> outboundOnewayRoadsLTR) {
 
@@ -489,7 +490,7 @@ public class RoadModule extends ConfigurableWorldModule {
 	 * Only connections between the left part of road1 with the right part of
 	 * road2 will be taken into account.
 	 */
-	private static void addLaneConnectionsForRoadPair(
+	private void addLaneConnectionsForRoadPair(
 			List<LaneConnection> result,
 			MapNode node, Road road1, Road road2,
 			boolean isJunction, boolean isCrossing) {
@@ -529,7 +530,7 @@ public class RoadModule extends ConfigurableWorldModule {
 
 	}
 
-	private static LaneConnection buildLaneConnection(
+	private LaneConnection buildLaneConnection(
 			Lane lane1, Lane lane2, RoadPart roadPart,
 			boolean atLane1Start, boolean atLane2Start) {
 
@@ -554,7 +555,7 @@ public class RoadModule extends ConfigurableWorldModule {
 	/**
 	 * representation for junctions between roads.
 	 */
-	public static class RoadJunction extends JunctionNodeWorldObject<Road> implements TerrainBoundaryWorldObject {
+	public class RoadJunction extends JunctionNodeWorldObject<Road> implements TerrainBoundaryWorldObject {
 
 		public RoadJunction(MapNode node) {
 			super(node, Road.class);
@@ -591,7 +592,7 @@ public class RoadModule extends ConfigurableWorldModule {
 	/**
 	 * visible connectors where a road changes width or lane layout
 	 */
-	public static class RoadConnector
+	public class RoadConnector
 		extends VisibleConnectorNodeWorldObject<Road>
 		implements TerrainBoundaryWorldObject {
 
@@ -645,7 +646,7 @@ public class RoadModule extends ConfigurableWorldModule {
 	/**
 	 * representation for crossings (zebra crossing etc.) on roads
 	 */
-	public static class RoadCrossingAtConnector
+	public class RoadCrossingAtConnector
 		extends VisibleConnectorNodeWorldObject<Road>
 		implements TerrainBoundaryWorldObject {
 
@@ -681,12 +682,12 @@ public class RoadModule extends ConfigurableWorldModule {
 					|| node.getTags().contains("crossing_ref", "zebra")) {
 
 				surface = surface.withAddedLayers(
-						ROAD_MARKING_ZEBRA.getTextureLayers());
+						materialRegistry.get(ROAD_MARKING_ZEBRA).getTextureLayers());
 
 			} else if (!node.getTags().contains("crossing", "unmarked")) {
 
 				surface = surface.withAddedLayers(
-						ROAD_MARKING_CROSSING.getTextureLayers());
+						materialRegistry.get(ROAD_MARKING_CROSSING).getTextureLayers());
 
 			}
 
@@ -711,7 +712,7 @@ public class RoadModule extends ConfigurableWorldModule {
 	}
 
 	/** representation of a road */
-	public static class Road extends AbstractNetworkWaySegmentWorldObject
+	public class Road extends AbstractNetworkWaySegmentWorldObject
 			implements TerrainBoundaryWorldObject, LegacyWorldObject {
 
 		protected static final double DEFAULT_LANE_WIDTH = 3.5f;
@@ -1251,7 +1252,7 @@ public class RoadModule extends ConfigurableWorldModule {
 		}
 
 		public Material getSurface() {
-			return getSurfaceForRoad(tags, ASPHALT);
+			return getSurfaceForRoad(tags, materialRegistry.get(ASPHALT), materialRegistry);
 		}
 
 		public LaneLayout getLaneLayout() {
@@ -1295,15 +1296,15 @@ public class RoadModule extends ConfigurableWorldModule {
 			Material material = null;
 
 			if (tags.containsKey("material")) {
-				material = Materials.getMaterial(tags.getValue("material"));
+				material = materialRegistry.getMaterial(tags.getValue("material"));
 			}
 
 			if (material == null && tags.containsKey("surface")) {
-				material = Materials.getSurfaceMaterial(tags.getValue("surface"));
+				material = materialRegistry.getSurfaceMaterial(tags.getValue("surface"));
 			}
 
 			if (material == null) {
-				material = CONCRETE;
+				material = materialRegistry.get(CONCRETE);
 			}
 
 			material = material.withColor(parseColor(tags.getValue("colour"), CSS_COLORS));
@@ -1313,16 +1314,16 @@ public class RoadModule extends ConfigurableWorldModule {
 			List<VectorXYZ> vs = createTriangleStripBetween(
 					leftOutline, rightOutline);
 
-			target.drawTriangleStrip(ASPHALT, vs,
-					texCoordLists(vs, ASPHALT, GLOBAL_X_Z));
+			target.drawTriangleStrip(materialRegistry.get(ASPHALT), vs,
+					texCoordLists(vs, materialRegistry.get(ASPHALT), GLOBAL_X_Z));
 
 			// render underside for indoor stairs
 
 			List<VectorXYZ> vsDown = createTriangleStripBetween(
 					rightOutline, leftOutline);
 
-			target.drawTriangleStrip(ASPHALT, vsDown,
-					texCoordLists(vsDown, ASPHALT, GLOBAL_X_Z));
+			target.drawTriangleStrip(materialRegistry.get(ASPHALT), vsDown,
+					texCoordLists(vsDown, materialRegistry.get(ASPHALT), GLOBAL_X_Z));
 
 			/* determine the length of each individual step */
 
@@ -1436,13 +1437,13 @@ public class RoadModule extends ConfigurableWorldModule {
 					handrailLine.add(v.y(v.y + 1));
 				}
 
-				target.drawExtrudedShape(HANDRAIL_DEFAULT, HANDRAIL_SHAPE, handrailLine,
+				target.drawExtrudedShape(materialRegistry.get(HANDRAIL_DEFAULT), HANDRAIL_SHAPE, handrailLine,
 						nCopies(handrailLine.size(), Y_UNIT), null, null, null);
 
-				target.drawColumn(HANDRAIL_DEFAULT, 4,
+				target.drawColumn(materialRegistry.get(HANDRAIL_DEFAULT), 4,
 						handrailFootprint.get(0),
 						1, 0.03, 0.03, false, true);
-				target.drawColumn(HANDRAIL_DEFAULT, 4,
+				target.drawColumn(materialRegistry.get(HANDRAIL_DEFAULT), 4,
 						handrailFootprint.get(handrailFootprint.size()-1),
 						1, 0.03, 0.03, false, true);
 
@@ -1504,7 +1505,7 @@ public class RoadModule extends ConfigurableWorldModule {
 
 	}
 
-	public static class RoadArea extends NetworkAreaWorldObject implements TerrainBoundaryWorldObject {
+	public class RoadArea extends NetworkAreaWorldObject implements TerrainBoundaryWorldObject {
 
 		public RoadArea(MapArea area) {
 			super(area);
@@ -1514,7 +1515,7 @@ public class RoadModule extends ConfigurableWorldModule {
 		public void renderTo(Target target) {
 
 			String surface = area.getTags().getValue("surface");
-			Material material = getSurfaceMaterial(surface, ASPHALT);
+			Material material = materialRegistry.getSurfaceMaterial(surface, ASPHALT);
 			List<TriangleXYZ> triangles = getTriangulation();
 
 			target.drawTriangles(material, triangles,
@@ -1666,7 +1667,7 @@ public class RoadModule extends ConfigurableWorldModule {
 	 * {@link #setCalculatedValues1(double, double)} and
 	 * {@link #setCalculatedValues2(double, double)}, respectively.
 	 */
-	static final class Lane implements Renderable {
+	final class Lane implements Renderable {
 
 		public final Road road;
 		public final LaneType type;
@@ -1772,7 +1773,7 @@ public class RoadModule extends ConfigurableWorldModule {
 					(float)relativePositionRight);
 			rightLaneBorder = addYList(rightLaneBorder, getHeightAboveRoad());
 
-			type.render(target, roadPart, road.rightHandTraffic,
+			type.render(target, materialRegistry, roadPart, road.rightHandTraffic,
 					road.tags, laneTags, leftLaneBorder, rightLaneBorder);
 
 		}
@@ -1787,7 +1788,7 @@ public class RoadModule extends ConfigurableWorldModule {
 	/**
 	 * a connection between two lanes (e.g. at a junction)
 	 */
-	static class LaneConnection implements Renderable {
+	class LaneConnection implements Renderable {
 
 		public final LaneType type;
 		public final RoadPart roadPart;
@@ -1829,7 +1830,7 @@ public class RoadModule extends ConfigurableWorldModule {
 		@Override
 		public void renderTo(Target target) {
 
-			type.render(target, roadPart, rightHandTraffic,
+			type.render(target, materialRegistry, roadPart, rightHandTraffic,
 					TagSet.of(), TagSet.of(), leftBorder, rightBorder);
 
 		}
@@ -1856,7 +1857,7 @@ public class RoadModule extends ConfigurableWorldModule {
 
 		}
 
-		public abstract void render(Target target, RoadPart roadPart,
+		public abstract void render(Target target, MaterialRegistry materialRegistry, RoadPart roadPart,
 				boolean rightHandTraffic,
 				TagSet roadTags, TagSet laneTags,
 				List<VectorXYZ> leftLaneBorder,
@@ -1886,14 +1887,14 @@ public class RoadModule extends ConfigurableWorldModule {
 		}
 
 		@Override
-		public void render(Target target, RoadPart roadPart,
+		public void render(Target target, MaterialRegistry materialRegistry, RoadPart roadPart,
 				boolean rightHandTraffic,
 				TagSet roadTags, TagSet laneTags,
 				List<VectorXYZ> leftLaneBorder,
 				List<VectorXYZ> rightLaneBorder) {
 
-			Material surface = getSurface(roadTags, laneTags);
-			Material surfaceMiddle = getSurfaceMiddle(roadTags, laneTags);
+			Material surface = getSurface(roadTags, laneTags, materialRegistry);
+			Material surfaceMiddle = getSurfaceMiddle(roadTags, laneTags, materialRegistry);
 
 			/* draw lane triangle strips */
 
@@ -1911,7 +1912,7 @@ public class RoadModule extends ConfigurableWorldModule {
 					// add turn arrows only if the lane section is long enough (rough rule of thumb)
 					double length = leftLaneBorder.get(0).distanceToXZ(leftLaneBorder.get(leftLaneBorder.size() - 1));
 					if (length > 4.0) {
-						surface = addTurnArrows(surface, laneTags);
+						surface = addTurnArrows(surface, laneTags, materialRegistry);
 					}
 
 				}
@@ -1950,17 +1951,17 @@ public class RoadModule extends ConfigurableWorldModule {
 			return 0;
 		}
 
-		protected Material getSurface(TagSet roadTags, TagSet laneTags) {
+		protected Material getSurface(TagSet roadTags, TagSet laneTags, MaterialRegistry materialRegistry) {
 
-			return getSurfaceMaterial(laneTags.getValue("surface"),
-					getSurfaceForRoad(roadTags, ASPHALT));
+			return materialRegistry.getSurfaceMaterial(laneTags.getValue("surface"),
+					getSurfaceForRoad(roadTags, materialRegistry.get(ASPHALT), materialRegistry));
 
 		}
 
-		protected Material getSurfaceMiddle(TagSet roadTags, TagSet laneTags) {
+		protected Material getSurfaceMiddle(TagSet roadTags, TagSet laneTags, MaterialRegistry materialRegistry) {
 
-			return getSurfaceMaterial(laneTags.getValue("surface:middle"),
-					getSurfaceMiddleForRoad(roadTags, null));
+			return materialRegistry.getSurfaceMaterial(laneTags.getValue("surface:middle"),
+					getSurfaceMiddleForRoad(roadTags, null, materialRegistry));
 
 		}
 
@@ -2011,9 +2012,9 @@ public class RoadModule extends ConfigurableWorldModule {
 		}
 
 		@Override
-		protected Material getSurface(TagSet roadTags, TagSet laneTags) {
-			Material material = super.getSurface(roadTags, laneTags);
-			if (material == ASPHALT) return RED_ROAD_MARKING;
+		protected Material getSurface(TagSet roadTags, TagSet laneTags, MaterialRegistry materialRegistry) {
+			Material material = super.getSurface(roadTags, laneTags, materialRegistry);
+			if (material == materialRegistry.get(ASPHALT)) return materialRegistry.get(RED_ROAD_MARKING);
 			else return material;
 		}
 
@@ -2038,8 +2039,8 @@ public class RoadModule extends ConfigurableWorldModule {
 		}
 
 		@Override
-		protected Material getSurface(TagSet roadTags, TagSet laneTags) {
-			return ROAD_MARKING;
+		protected Material getSurface(TagSet roadTags, TagSet laneTags, MaterialRegistry materialRegistry) {
+			return materialRegistry.get(ROAD_MARKING);
 		}
 
 	};
@@ -2053,8 +2054,8 @@ public class RoadModule extends ConfigurableWorldModule {
 		}
 
 		@Override
-		protected Material getSurface(TagSet roadTags, TagSet laneTags) {
-			return ROAD_MARKING_DASHED;
+		protected Material getSurface(TagSet roadTags, TagSet laneTags, MaterialRegistry materialRegistry) {
+			return materialRegistry.get(ROAD_MARKING_DASHED);
 		}
 
 	};
@@ -2063,7 +2064,7 @@ public class RoadModule extends ConfigurableWorldModule {
 			"KERB", true, true) {
 
 		@Override
-		public void render(Target target, RoadPart roadPart,
+		public void render(Target target, MaterialRegistry materialRegistry, RoadPart roadPart,
 				boolean rightHandTraffic, TagSet roadTags, TagSet laneTags,
 				List<VectorXYZ> leftLaneBorder,
 				List<VectorXYZ> rightLaneBorder) {
@@ -2087,14 +2088,14 @@ public class RoadModule extends ConfigurableWorldModule {
 
 			List<VectorXYZ> vsTop = createTriangleStripBetween(
 					borderTop0, borderTop1);
-			target.drawTriangleStrip(Materials.KERB, vsTop,
-					texCoordLists(vsTop, Materials.KERB, STRIP_FIT_HEIGHT));
+			target.drawTriangleStrip(materialRegistry.get(Materials.KERB), vsTop,
+					texCoordLists(vsTop, materialRegistry.get(Materials.KERB), STRIP_FIT_HEIGHT));
 
 			if (height > 0) {
 				List<VectorXYZ> vsFront = createTriangleStripBetween(
 						borderFront0, borderFront1);
-				target.drawTriangleStrip(Materials.KERB, vsFront,
-						texCoordLists(vsFront, Materials.KERB, STRIP_FIT_HEIGHT));
+				target.drawTriangleStrip(materialRegistry.get(Materials.KERB), vsFront,
+						texCoordLists(vsFront, materialRegistry.get(Materials.KERB), STRIP_FIT_HEIGHT));
 			}
 
 		}
@@ -2128,7 +2129,7 @@ public class RoadModule extends ConfigurableWorldModule {
 	 * @return  a material based on the input, possibly with added turn arrows
 	 */
 	private static Material addTurnArrows(Material material,
-			TagSet laneTags) {
+			TagSet laneTags, MaterialRegistry materialRegistry) {
 
 		Material arrowMaterial = null;
 
@@ -2140,27 +2141,27 @@ public class RoadModule extends ConfigurableWorldModule {
 
 			if (turn.contains("through") && turn.contains("right")) {
 
-				arrowMaterial = ROAD_MARKING_ARROW_THROUGH_RIGHT;
+				arrowMaterial = materialRegistry.get(ROAD_MARKING_ARROW_THROUGH_RIGHT);
 
 			} else if (turn.contains("through") && turn.contains("left")) {
 
-				arrowMaterial = ROAD_MARKING_ARROW_THROUGH_RIGHT;
+				arrowMaterial = materialRegistry.get(ROAD_MARKING_ARROW_THROUGH_RIGHT);
 
 			} else if (turn.contains("through")) {
 
-				arrowMaterial = ROAD_MARKING_ARROW_THROUGH;
+				arrowMaterial = materialRegistry.get(ROAD_MARKING_ARROW_THROUGH);
 
 			} else if (turn.contains("right") && turn.contains("left")) {
 
-				arrowMaterial = ROAD_MARKING_ARROW_RIGHT_LEFT;
+				arrowMaterial = materialRegistry.get(ROAD_MARKING_ARROW_RIGHT_LEFT);
 
 			} else if (turn.contains("right")) {
 
-				arrowMaterial = ROAD_MARKING_ARROW_RIGHT;
+				arrowMaterial = materialRegistry.get(ROAD_MARKING_ARROW_RIGHT);
 
 			} else if (turn.contains("left")) {
 
-				arrowMaterial = ROAD_MARKING_ARROW_RIGHT;
+				arrowMaterial = materialRegistry.get(ROAD_MARKING_ARROW_RIGHT);
 
 			}
 
@@ -263,12 +263,12 @@ public class SportsModule extends AbstractModule {
 
 		@Override
 		protected Material getPitchMaterial() {
-			return PITCH_SOCCER;
+			return materialRegistry.get(PITCH_SOCCER);
 		}
 
 		@Override
 		protected Material getFallbackPitchMaterial() {
-			return GRASS;
+			return materialRegistry.get(GRASS);
 		}
 
 	}
@@ -285,9 +285,11 @@ public class SportsModule extends AbstractModule {
 		private final Model tennisNetPost = new Model() {
 			@Override
 			public List<Mesh> buildMeshes(InstanceParameters params) {
+				Material material = materialRegistry.get(PLASTIC);
+
 				return singletonList(new Mesh(ExtrusionGeometry.createColumn(
 						null, NULL_VECTOR, netHeightAtPosts, postRadius, postRadius, false, true,
-						new Color(184, 184, 184), PLASTIC.getTextureDimensions()), PLASTIC));
+						new Color(184, 184, 184), material.getTextureDimensions()), material));
 			}
 		};
 
@@ -325,11 +327,11 @@ public class SportsModule extends AbstractModule {
 			String surface = area.getTags().getValue("surface");
 
 			if ("grass".equals(surface)) {
-				return singles ? PITCH_TENNIS_SINGLES_GRASS : PITCH_TENNIS_GRASS;
+				return singles ? materialRegistry.get(PITCH_TENNIS_SINGLES_GRASS) : materialRegistry.get(PITCH_TENNIS_GRASS);
 			} else if ("asphalt".equals(surface)) {
-				return singles ? PITCH_TENNIS_SINGLES_ASPHALT : PITCH_TENNIS_ASPHALT;
+				return singles ? materialRegistry.get(PITCH_TENNIS_SINGLES_ASPHALT) : materialRegistry.get(PITCH_TENNIS_ASPHALT);
 			} else {
-				return singles ? PITCH_TENNIS_SINGLES_CLAY : PITCH_TENNIS_CLAY;
+				return singles ? materialRegistry.get(PITCH_TENNIS_SINGLES_CLAY) : materialRegistry.get(PITCH_TENNIS_CLAY);
 			}
 
 		}
@@ -340,11 +342,11 @@ public class SportsModule extends AbstractModule {
 			String surface = area.getTags().getValue("surface");
 
 			if ("grass".equals(surface)) {
-				return GRASS;
+				return materialRegistry.get(GRASS);
 			} else if ("asphalt".equals(surface)) {
-				return ASPHALT;
+				return materialRegistry.get(ASPHALT);
 			} else {
-				return EARTH;
+				return materialRegistry.get(EARTH);
 			}
 
 		}
@@ -429,12 +431,12 @@ public class SportsModule extends AbstractModule {
 
 				}
 
-				target.drawTriangleStrip(TENNIS_NET, verticesNet,
-						texCoordLists(verticesNet, TENNIS_NET, STRIP_FIT_HEIGHT));
+				target.drawTriangleStrip(materialRegistry.get(TENNIS_NET), verticesNet,
+						texCoordLists(verticesNet, materialRegistry.get(TENNIS_NET), STRIP_FIT_HEIGHT));
 
-				if (!TENNIS_NET.isDoubleSided()) {
-					target.drawTriangleStrip(TENNIS_NET, verticesNetBack,
-							texCoordLists(verticesNetBack, TENNIS_NET, STRIP_FIT_HEIGHT));
+				if (!materialRegistry.get(TENNIS_NET).isDoubleSided()) {
+					target.drawTriangleStrip(materialRegistry.get(TENNIS_NET), verticesNetBack,
+							texCoordLists(verticesNetBack, materialRegistry.get(TENNIS_NET), STRIP_FIT_HEIGHT));
 				}
 
 			}
@@ -474,12 +476,12 @@ public class SportsModule extends AbstractModule {
 
 		@Override
 		protected Material getPitchMaterial() {
-			return PITCH_BEACHVOLLEYBALL;
+			return materialRegistry.get(PITCH_BEACHVOLLEYBALL);
 		}
 
 		@Override
 		protected Material getFallbackPitchMaterial() {
-			return SAND;
+			return materialRegistry.get(SAND);
 		}
 
 	}
@@ -32,6 +32,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.commons.configuration.Configuration;
 import org.osm2world.core.map_data.data.MapNode;
 import org.osm2world.core.map_data.data.MapWaySegment;
 import org.osm2world.core.map_data.data.TagSet;
@@ -49,10 +50,10 @@ import org.osm2world.core.math.shapes.ShapeXZ;
 import org.osm2world.core.target.Renderable;
 import org.osm2world.core.target.Target;
 import org.osm2world.core.target.common.ExtrudeOption;
-import org.osm2world.core.target.common.material.ConfMaterial;
 import org.osm2world.core.target.common.material.ImmutableMaterial;
 import org.osm2world.core.target.common.material.Material;
 import org.osm2world.core.target.common.material.Material.Interpolation;
+import org.osm2world.core.target.common.material.MaterialRegistry;
 import org.osm2world.core.target.common.material.Materials;
 import org.osm2world.core.target.common.mesh.ExtrusionGeometry;
 import org.osm2world.core.target.common.mesh.Mesh;
@@ -73,6 +74,15 @@ import org.osm2world.core.world.modules.common.AbstractModule;
  */
 public class StreetFurnitureModule extends AbstractModule {
 
+	/** national flags by country code, see {@link Flagpole} */
+	private Map<String, Flagpole.Flag> nationalFlags = emptyMap();
+
+	@Override
+	public void setConfiguration(Configuration config, MaterialRegistry materialRegistry) {
+		super.setConfiguration(config, materialRegistry);
+		nationalFlags = Flagpole.createNationalFlags(materialRegistry.get(FLAGCLOTH));
+	}
+
 	@Override
 	protected void applyToNode(MapNode node) {
 		if (node.getTags().contains("playground", "swing")) {
@@ -174,7 +184,7 @@ public class StreetFurnitureModule extends AbstractModule {
 		return false;
 	}
 
-	public static final class Pole extends NoOutlineNodeWorldObject {
+	public final class Pole extends NoOutlineNodeWorldObject {
 
 		public Pole(MapNode node) {
 			super(node);
@@ -186,7 +196,7 @@ public class StreetFurnitureModule extends AbstractModule {
 			double height = parseMeasure(node.getTags().getValue("height"), 5.0);
 			double radius = parseMeasure(node.getTags().getValue("width"), 0.2) / 2;
 
-			Material material = Materials.getMaterial(node.getTags().getValue("material"), STEEL);
+			Material material = materialRegistry.getMaterial(node.getTags().getValue("material"), STEEL);
 			Color color = parseColor(node.getTags().getValue("colour"));
 
 			ExtrusionGeometry geometry = ExtrusionGeometry.createColumn(null, this.getBase(),
@@ -209,7 +219,7 @@ public class StreetFurnitureModule extends AbstractModule {
 
 	}
 
-	public static final class Flagpole extends NoOutlineNodeWorldObject {
+	public final class Flagpole extends NoOutlineNodeWorldObject {
 
 		public Flagpole(MapNode node) {
 			super(node);
@@ -230,7 +240,7 @@ public class StreetFurnitureModule extends AbstractModule {
 
 			VectorXYZ poleBase = getBase();
 
-			target.drawColumn(STEEL, null, poleBase,
+			target.drawColumn(materialRegistry.get(STEEL), null, poleBase,
 					poleHeight, poleRadius, poleRadius, false, true);
 
 			/* draw the flag (if any) */
@@ -239,13 +249,13 @@ public class StreetFurnitureModule extends AbstractModule {
 
 			if (node.getTags().contains("flag:type", "national")
 					&& node.getTags().containsKey("country")) {
-				flag = NATIONAL_FLAGS.get(node.getTags().getValue("country"));
+				flag = nationalFlags.get(node.getTags().getValue("country"));
 			}
 
 			if (flag == null && node.getTags().containsKey("flag:colour")) {
 				Color color = parseColor(node.getTags().getValue("flag:colour"), CSS_COLORS);
 				if (color != null) {
-					flag = new TexturedFlag(2 / 3.0, FLAGCLOTH.withColor(color));
+					flag = new TexturedFlag(2 / 3.0, materialRegistry.get(FLAGCLOTH).withColor(color));
 				}
 			}
 
@@ -475,17 +485,18 @@ public class StreetFurnitureModule extends AbstractModule {
 
 		static class StripedFlag extends Flag {
 
-			public StripedFlag(double heightWidthRatio, List<Color> colors, boolean verticalStripes) {
+			public StripedFlag(double heightWidthRatio, List<Color> colors, boolean verticalStripes,
+					Material flagCloth) {
 
-				super(heightWidthRatio, createStripeMaterials(colors), verticalStripes);
+				super(heightWidthRatio, createStripeMaterials(colors, flagCloth), verticalStripes);
 
 			}
 
 			/**
 			 * creates a material for each colored stripe
 			 */
-			private static List<Material> createStripeMaterials(List<Color> colors) {
-				return colors.stream().map(FLAGCLOTH::withColor).collect(toList());
+			private static List<Material> createStripeMaterials(List<Color> colors, Material flagCloth) {
+				return colors.stream().map(flagCloth::withColor).collect(toList());
 			}
 
 		}
@@ -511,47 +522,52 @@ public class StreetFurnitureModule extends AbstractModule {
 
 		}
 
-		private static final Map<String, Flag> NATIONAL_FLAGS = new HashMap<String, Flag>();
-
-		static {
-
-			NATIONAL_FLAGS.put("AT", new StripedFlag(2 / 3.0, asList(new Color(240, 79, 93), WHITE, new Color(240, 79, 93)), false));
-			NATIONAL_FLAGS.put("AM", new StripedFlag(1 / 2.0, asList(new Color(218, 0, 10), new Color(0, 48, 160), new Color(242, 170, 0)), false));
-			NATIONAL_FLAGS.put("BE", new StripedFlag(13 / 15.0, asList(BLACK, new Color(245, 221, 63), new Color(231, 35, 53)), true));
-			NATIONAL_FLAGS.put("BG", new StripedFlag(3 / 5.0, asList(WHITE, new Color(0, 151, 110), new Color(215, 33, 10)), false));
-			NATIONAL_FLAGS.put("BO", new StripedFlag(2 / 3.0, asList(new Color(207, 38, 23), new Color(249, 228, 0), new Color(0, 122, 49)), false));
-			NATIONAL_FLAGS.put("CI", new StripedFlag(2 / 3.0, asList(decode("#F77F00"), WHITE, decode("#009E60")), true));
-			NATIONAL_FLAGS.put("CO", new StripedFlag(2 / 3.0, asList(decode("#FCD20E"), decode("#FCD20E"), decode("#003594"), decode("#CF0821")), false));
-			NATIONAL_FLAGS.put("DE", new StripedFlag(3 / 5.0, asList(BLACK, new Color(222, 0, 0), new Color(255, 207, 0)), false));
-			NATIONAL_FLAGS.put("EE", new StripedFlag(7 / 11.0, asList(decode("#0073CF"), BLACK, WHITE), false));
-			NATIONAL_FLAGS.put("FR", new StripedFlag(2 / 3.0, asList(decode("#001E96"), WHITE, decode("#EE2436")), true));
-			NATIONAL_FLAGS.put("GA", new StripedFlag(3 / 4.0, asList(decode("#009F60"), decode("#FCD20E"), decode("#3776C5")), false));
-			NATIONAL_FLAGS.put("GN", new StripedFlag(2 / 3.0, asList(decode("#CF0821"), decode("#FCD20E"), decode("#009560")), true));
-			NATIONAL_FLAGS.put("ID", new StripedFlag(2 / 3.0, asList(RED, WHITE), false));
-			NATIONAL_FLAGS.put("IE", new StripedFlag(1 / 2.0, asList(decode("#0E9C62"), WHITE, decode("#FF893C")), true));
-			NATIONAL_FLAGS.put("IT", new StripedFlag(2 / 3.0, asList(decode("#009344"), WHITE, decode("#CF2734")), true));
-			NATIONAL_FLAGS.put("LT", new StripedFlag(3 / 5.0, asList(decode("#FDBA0B"), decode("#006A42"), decode("#C22229")), false));
-			NATIONAL_FLAGS.put("LU", new StripedFlag(3 / 5.0, asList(decode("#EE2436"), WHITE, decode("#00A3DF")), false));
-			NATIONAL_FLAGS.put("MC", new StripedFlag(4 / 5.0, asList(decode("#CF0821"), WHITE), false));
-			NATIONAL_FLAGS.put("ML", new StripedFlag(2 / 3.0, asList(decode("#0CB637"), decode("#FCD20E"), decode("#CF0821")), true));
-			NATIONAL_FLAGS.put("MU", new StripedFlag(2 / 3.0, asList(decode("#EA2205"), decode("#282F58"), decode("#F6B711"), decode("#008757")), false));
-			NATIONAL_FLAGS.put("NG", new StripedFlag(1 / 2.0, asList(decode("#008850"), WHITE, decode("#008850")), true));
-			NATIONAL_FLAGS.put("NL", new StripedFlag(2 / 3.0, asList(decode("#AD1622"), decode("#F9F9F9"), decode("#183B7A")), false));
-			NATIONAL_FLAGS.put("PE", new StripedFlag(2 / 3.0, asList(decode("#DA081E"), WHITE, decode("#DA081E")), true));
-			NATIONAL_FLAGS.put("PL", new StripedFlag(5 / 8.0, asList(WHITE, decode("#DD0C39")), false));
-			NATIONAL_FLAGS.put("RO", new StripedFlag(2 / 3.0, asList(decode("#002780"), decode("#FAD00E"), decode("#C1071F")), true));
-			NATIONAL_FLAGS.put("RU", new StripedFlag(2 / 3.0, asList(WHITE, decode("#0036A8"), decode("#D62718")), false));
-			NATIONAL_FLAGS.put("SL", new StripedFlag(2 / 3.0, asList(decode("#17B637"), WHITE, decode("#0073C7")), false));
-			NATIONAL_FLAGS.put("TD", new StripedFlag(2 / 3.0, asList(decode("#002664"), decode("#FECB00"), decode("#C60C30")), true));
-			NATIONAL_FLAGS.put("UA", new StripedFlag(2 / 3.0, asList(decode("#005BBC"), decode("#FED500")), false));
-			NATIONAL_FLAGS.put("HU", new StripedFlag(1 / 2.0, asList(decode("#CE253C"), WHITE, decode("#41704C")), false));
-			NATIONAL_FLAGS.put("YE", new StripedFlag(2 / 3.0, asList(decode("#CF0821"), WHITE, BLACK), false));
+		/**
+		 * creates the national flags, with their keys being country codes
+		 */
+		private static Map<String, Flag> createNationalFlags(Material flagCloth) {
+
+			Map<String, Flag> flags = new HashMap<>();
+
+			flags.put("AT", new StripedFlag(2 / 3.0, asList(new Color(240, 79, 93), WHITE, new Color(240, 79, 93)), false, flagCloth));
+			flags.put("AM", new StripedFlag(1 / 2.0, asList(new Color(218, 0, 10), new Color(0, 48, 160), new Color(242, 170, 0)), false, flagCloth));
+			flags.put("BE", new StripedFlag(13 / 15.0, asList(BLACK, new Color(245, 221, 63), new Color(231, 35, 53)), true, flagCloth));
+			flags.put("BG", new StripedFlag(3 / 5.0, asList(WHITE, new Color(0, 151, 110), new Color(215, 33, 10)), false, flagCloth));
+			flags.put("BO", new StripedFlag(2 / 3.0, asList(new Color(207, 38, 23), new Color(249, 228, 0), new Color(0, 122, 49)), false, flagCloth));
+			flags.put("CI", new StripedFlag(2 / 3.0, asList(decode("#F77F00"), WHITE, decode("#009E60")), true, flagCloth));
+			flags.put("CO", new StripedFlag(2 / 3.0, asList(decode("#FCD20E"), decode("#FCD20E"), decode("#003594"), decode("#CF0821")), false, flagCloth));
+			flags.put("DE", new StripedFlag(3 / 5.0, asList(BLACK, new Color(222, 0, 0), new Color(255, 207, 0)), false, flagCloth));
+			flags.put("EE", new StripedFlag(7 / 11.0, asList(decode("#0073CF"), BLACK, WHITE), false, flagCloth));
+			flags.put("FR", new StripedFlag(2 / 3.0, asList(decode("#001E96"), WHITE, decode("#EE2436")), true, flagCloth));
+			flags.put("GA", new StripedFlag(3 / 4.0, asList(decode("#009F60"), decode("#FCD20E"), decode("#3776C5")), false, flagCloth));
+			flags.put("GN", new StripedFlag(2 / 3.0, asList(decode("#CF0821"), decode("#FCD20E"), decode("#009560")), true, flagCloth));
+			flags.put("ID", new StripedFlag(2 / 3.0, asList(RED, WHITE), false, flagCloth));
+			flags.put("IE", new StripedFlag(1 / 2.0, asList(decode("#0E9C62"), WHITE, decode("#FF893C")), true, flagCloth));
+			flags.put("IT", new StripedFlag(2 / 3.0, asList(decode("#009344"), WHITE, decode("#CF2734")), true, flagCloth));
+			flags.put("LT", new StripedFlag(3 / 5.0, asList(decode("#FDBA0B"), decode("#006A42"), decode("#C22229")), false, flagCloth));
+			flags.put("LU", new StripedFlag(3 / 5.0, asList(decode("#EE2436"), WHITE, decode("#00A3DF")), false, flagCloth));
+			flags.put("MC", new StripedFlag(4 / 5.0, asList(decode("#CF0821"), WHITE), false, flagCloth));
+			flags.put("ML", new StripedFlag(2 / 3.0, asList(decode("#0CB637"), decode("#FCD20E"), decode("#CF0821")), true, flagCloth));
+			flags.put("MU", new StripedFlag(2 / 3.0, asList(decode("#EA2205"), decode("#282F58"), decode("#F6B711"), decode("#008757")), false, flagCloth));
+			flags.put("NG", new StripedFlag(1 / 2.0, asList(decode("#008850"), WHITE, decode("#008850")), true, flagCloth));
+			flags.put("NL", new StripedFlag(2 / 3.0, asList(decode("#AD1622"), decode("#F9F9F9"), decode("#183B7A")), false, flagCloth));
+			flags.put("PE", new StripedFlag(2 / 3.0, asList(decode("#DA081E"), WHITE, decode("#DA081E")), true, flagCloth));
+			flags.put("PL", new StripedFlag(5 / 8.0, asList(WHITE, decode("#DD0C39")), false, flagCloth));
+			flags.put("RO", new StripedFlag(2 / 3.0, asList(decode("#002780"), decode("#FAD00E"), decode("#C1071F")), true, flagCloth));
+			flags.put("RU", new StripedFlag(2 / 3.0, asList(WHITE, decode("#0036A8"), decode("#D62718")), false, flagCloth));
+			flags.put("SL", new StripedFlag(2 / 3.0, asList(decode("#17B637"), WHITE, decode("#0073C7")), false, flagCloth));
+			flags.put("TD", new StripedFlag(2 / 3.0, asList(decode("#002664"), decode("#FECB00"), decode("#C60C30")), true, flagCloth));
+			flags.put("UA", new StripedFlag(2 / 3.0, asList(decode("#005BBC"), decode("#FED500")), false, flagCloth));
+			flags.put("HU", new StripedFlag(1 / 2.0, asList(decode("#CE253C"), WHITE, decode("#41704C")), false, flagCloth));
+			flags.put("YE", new StripedFlag(2 / 3.0, asList(decode("#CF0821"), WHITE, BLACK), false, flagCloth));
+
+			return flags;
 
 		}
 
 	}
 
-	public static final class AdvertisingColumn extends NoOutlineNodeWorldObject {
+	public final class AdvertisingColumn extends NoOutlineNodeWorldObject {
 
 		public AdvertisingColumn(MapNode node) {
 			super(node);
@@ -569,17 +585,17 @@ public class StreetFurnitureModule extends AbstractModule {
 
 			/* draw socket, poster and cap */
 
-			target.drawColumn(CONCRETE, null,
+			target.drawColumn(materialRegistry.get(CONCRETE), null,
 					getBase(),
 					0.15 * height,
 					0.5, 0.5, false, false);
 
-			target.drawColumn(ADVERTISING_POSTER, null,
+			target.drawColumn(materialRegistry.get(ADVERTISING_POSTER), null,
 					getBase(),
 					0.98 * height,
 					0.48, 0.48, false, false);
 
-			target.drawColumn(CONCRETE, null,
+			target.drawColumn(materialRegistry.get(CONCRETE), null,
 					getBase().add(0, 0.95 * height, 0),
 					0.05 * height,
 					0.5, 0.5, false, true);
@@ -588,7 +604,7 @@ public class StreetFurnitureModule extends AbstractModule {
 
 	}
 
-	public static final class Billboard extends NoOutlineNodeWorldObject {
+	public final class Billboard extends NoOutlineNodeWorldObject {
 
 		private final double width;
 		/** the height of the billboard itself, i.e. height minus minHeight */
@@ -660,8 +676,8 @@ public class StreetFurnitureModule extends AbstractModule {
 
 			List<VectorXYZ> vsListPoster = asList(vsPoster);
 
-			target.drawTriangleStrip(ADVERTISING_POSTER, vsListPoster,
-					texCoordLists(vsListPoster, ADVERTISING_POSTER, STRIP_FIT));
+			target.drawTriangleStrip(materialRegistry.get(ADVERTISING_POSTER), vsListPoster,
+					texCoordLists(vsListPoster, materialRegistry.get(ADVERTISING_POSTER), STRIP_FIT));
 
 			List<VectorXYZ> vsBoard = asList(
 					vsPoster[2],
@@ -672,13 +688,13 @@ public class StreetFurnitureModule extends AbstractModule {
 
 			if (node.getTags().contains("two_sided", "yes")) {
 
-				Material backMaterial = ADVERTISING_POSTER;
+				Material backMaterial = materialRegistry.get(ADVERTISING_POSTER);
 				target.drawTriangleStrip(backMaterial, vsBoard,
 						texCoordLists(vsBoard, backMaterial, STRIP_FIT));
 
 			} else {
 
-				Material backMaterial = CONCRETE;
+				Material backMaterial = materialRegistry.get(CONCRETE);
 				target.drawTriangleStrip(backMaterial, vsBoard,
 						texCoordLists(vsBoard, backMaterial, STRIP_WALL));
 
@@ -686,16 +702,16 @@ public class StreetFurnitureModule extends AbstractModule {
 
 			/* draw frame */
 
-			target.drawBox(CONCRETE, bottomCenter.addY(trueHeight - 0.1),
+			target.drawBox(materialRegistry.get(CONCRETE), bottomCenter.addY(trueHeight - 0.1),
 					faceVector, 0.1, width, 0.1);
 
-			target.drawBox(CONCRETE, bottomCenter,
+			target.drawBox(materialRegistry.get(CONCRETE), bottomCenter,
 					faceVector, 0.1, width, 0.1);
 
-			target.drawBox(CONCRETE, bottomCenter.add(boardVector.mult(width / 2)),
+			target.drawBox(materialRegistry.get(CONCRETE), bottomCenter.add(boardVector.mult(width / 2)),
 					faceVector, trueHeight, 0.1, 0.1);
 
-			target.drawBox(CONCRETE, bottomCenter.add(boardVector.mult(-width / 2)),
+			target.drawBox(materialRegistry.get(CONCRETE), bottomCenter.add(boardVector.mult(-width / 2)),
 					faceVector, trueHeight, 0.1, 0.1);
 
 			/* draw poles */
@@ -708,7 +724,7 @@ public class StreetFurnitureModule extends AbstractModule {
 				};
 
 				for (VectorXZ pole : poles) {
-					target.drawBox(CONCRETE, pole.xyz(getBase().y),
+					target.drawBox(materialRegistry.get(CONCRETE), pole.xyz(getBase().y),
 							faceVector, minHeight, 0.2, 0.1);
 				}
 
@@ -718,7 +734,7 @@ public class StreetFurnitureModule extends AbstractModule {
 
 	}
 
-	public static final class Swing extends NoOutlineNodeWorldObject {
+	public final class Swing extends NoOutlineNodeWorldObject {
 
 		public Swing(MapNode node) {
 			super(node);
@@ -754,11 +770,11 @@ public class StreetFurnitureModule extends AbstractModule {
 			Material material = null;
 
 			if (node.getTags().containsKey("material")) {
-				material = Materials.getMaterial(node.getTags().getValue("material").toUpperCase());
+				material = materialRegistry.getMaterial(node.getTags().getValue("material").toUpperCase());
 			}
 
 			if (material == null) {
-				material = WOOD;
+				material = materialRegistry.get(WOOD);
 			}
 
 			material = material.withColor(parseColor(node.getTags().getValue("colour"), CSS_COLORS));
@@ -825,13 +841,13 @@ public class StreetFurnitureModule extends AbstractModule {
 
 			//Draw 2 triangleStrips for each rope, to be visible from both front and back side
 			for(List<VectorXYZ> path : paths) {
-				target.drawExtrudedShape(STEEL, shape, path, nCopies(2,Z_UNIT.invert()), null, null, null);
-				target.drawExtrudedShape(STEEL, shape, path, nCopies(2,Z_UNIT), null, null, null);
+				target.drawExtrudedShape(materialRegistry.get(STEEL), shape, path, nCopies(2,Z_UNIT.invert()), null, null, null);
+				target.drawExtrudedShape(materialRegistry.get(STEEL), shape, path, nCopies(2,Z_UNIT), null, null, null);
 			}
 		}
 	}
 
-	public static final class Bench extends NoOutlineNodeWorldObject {
+	public final class Bench extends NoOutlineNodeWorldObject {
 
 		private final AttachmentConnector connector;
 
@@ -874,11 +890,11 @@ public class StreetFurnitureModule extends AbstractModule {
 			Material material = null;
 
 			if (node.getTags().containsKey("material")) {
-				material = Materials.getMaterial(node.getTags().getValue("material").toUpperCase());
+				material = materialRegistry.getMaterial(node.getTags().getValue("material").toUpperCase());
 			}
 
 			if (material == null) {
-				material = WOOD;
+				material = materialRegistry.get(WOOD);
 			}
 
 			material = material.withColor(parseColor(node.getTags().getValue("colour"), CSS_COLORS));
@@ -931,17 +947,17 @@ public class StreetFurnitureModule extends AbstractModule {
 	}
 
 
-	public static final class Table extends NoOutlineNodeWorldObject {
+	public final class Table extends NoOutlineNodeWorldObject {
 
-		private final ConfMaterial defaultMaterial;
+		private final Material defaultMaterial;
 
 		public Table(MapNode node) {
 			super(node);
 
 			if (node.getTags().contains("leisure", "picnic_table")) {
-				defaultMaterial = Materials.WOOD;
+				defaultMaterial = materialRegistry.get(Materials.WOOD);
 			} else {
-				defaultMaterial = Materials.STEEL;
+				defaultMaterial = materialRegistry.get(Materials.STEEL);
 			}
 		}
 
@@ -969,12 +985,12 @@ public class StreetFurnitureModule extends AbstractModule {
 			//TODO parse color
 
 			if (material == null) {
-				material = Materials.getSurfaceMaterial(
+				material = materialRegistry.getSurfaceMaterial(
 						node.getTags().getValue("material"));
 			}
 
 			if (material == null) {
-				material = Materials.getSurfaceMaterial(
+				material = materialRegistry.getSurfaceMaterial(
 						node.getTags().getValue("surface"), defaultMaterial);
 			}
 
@@ -1063,7 +1079,7 @@ public class StreetFurnitureModule extends AbstractModule {
 	/**
 	 * a summit cross or wayside cross
 	 */
-	public static final class Cross extends NoOutlineNodeWorldObject {
+	public final class Cross extends NoOutlineNodeWorldObject {
 
 		public Cross(MapNode node) {
 			super(node);
@@ -1092,12 +1108,12 @@ public class StreetFurnitureModule extends AbstractModule {
 			//TODO parse color
 
 			if (material == null) {
-				material = Materials.getSurfaceMaterial(
+				material = materialRegistry.getSurfaceMaterial(
 						node.getTags().getValue("material"));
 			}
 
 			if (material == null) {
-				material = Materials.getSurfaceMaterial(
+				material = materialRegistry.getSurfaceMaterial(
 						node.getTags().getValue("surface"), Materials.WOOD);
 			}
 
@@ -1119,7 +1135,7 @@ public class StreetFurnitureModule extends AbstractModule {
 	/**
 	 * a clock. Currently only clocks attached to walls are supported.
 	 */
-	public static final class Clock implements NodeWorldObject, Renderable {
+	public final class Clock implements NodeWorldObject, Renderable {
 
 		private static final LocalTime TIME = LocalTime.parse("12:25");
 
@@ -1170,7 +1186,7 @@ public class StreetFurnitureModule extends AbstractModule {
 
 		}
 
-		private static class ClockFace implements LegacyModel {
+		private class ClockFace implements LegacyModel {
 
 			private final LocalTime time;
 
@@ -1196,11 +1212,11 @@ public class StreetFurnitureModule extends AbstractModule {
 				PolygonWithHolesXZ ring = new PolygonWithHolesXZ(asSimplePolygon(outerCircle),
 						asList(asSimplePolygon(innerCircle).reverse()));
 
-				target.drawExtrudedShape(PLASTIC.withColor(BLACK), ring,
+				target.drawExtrudedShape(materialRegistry.get(PLASTIC).withColor(BLACK), ring,
 						asList(position, frontCenter),
 						nCopies(2, Y_UNIT), null, null, EnumSet.of(ExtrudeOption.END_CAP));
 
-				target.drawShape(PLASTIC, innerCircle, backCenter, faceNormal.xyz(0), Y_UNIT, 1);
+				target.drawShape(materialRegistry.get(PLASTIC), innerCircle, backCenter, faceNormal.xyz(0), Y_UNIT, 1);
 
 				drawHand(target, frontCenter, faceNormal, diameter / 20, diameter / 2.5, thickness / 5, angleMinuteHand(time));
 				drawHand(target, frontCenter, faceNormal, diameter / 15, diameter / 4, thickness / 5, angleHourHand(time));
@@ -1215,7 +1231,7 @@ public class StreetFurnitureModule extends AbstractModule {
 				ShapeXZ handShape = new AxisAlignedRectangleXZ(-width/2, -width/2, width/2, length - width/2);
 				handShape = handShape.rotatedCW(angleRad);
 
-				target.drawExtrudedShape(PLASTIC.withColor(BLACK), handShape,
+				target.drawExtrudedShape(materialRegistry.get(PLASTIC).withColor(BLACK), handShape,
 						asList(origin, origin.add(faceNormal.mult(thickness))),
 						nCopies(2, Y_UNIT), null, null, EnumSet.of(ExtrudeOption.END_CAP));
 
@@ -1235,7 +1251,7 @@ public class StreetFurnitureModule extends AbstractModule {
 
 	}
 
-	public static final class RecyclingContainer extends NoOutlineNodeWorldObject {
+	public final class RecyclingContainer extends NoOutlineNodeWorldObject {
 
 		double directionAngle = parseDirection(node.getTags(), PI);
 		VectorXZ faceVector = VectorXZ.fromAngle(directionAngle);
@@ -1309,7 +1325,7 @@ public class StreetFurnitureModule extends AbstractModule {
 					colourBack = new ImmutableMaterial(Interpolation.FLAT, new Color(0.39f, 0.15f, 0.11f));
 				}
 
-				target.drawBox(STEEL,
+				target.drawBox(materialRegistry.get(STEEL),
 						pos,
 						faceVector, height, width, width);
 				target.drawBox(colourFront,
@@ -1330,7 +1346,7 @@ public class StreetFurnitureModule extends AbstractModule {
 
 	}
 
-	public static final class WasteBasket extends NoOutlineNodeWorldObject {
+	public final class WasteBasket extends NoOutlineNodeWorldObject {
 
 		private final AttachmentConnector connector;
 
@@ -1374,11 +1390,11 @@ public class StreetFurnitureModule extends AbstractModule {
 			Material material = null;
 
 			if (node.getTags().containsKey("material")) {
-				material = Materials.getMaterial(node.getTags().getValue("material").toUpperCase());
+				material = materialRegistry.getMaterial(node.getTags().getValue("material").toUpperCase());
 			}
 
 			if (material == null) {
-				material = STEEL;
+				material = materialRegistry.get(STEEL);
 			}
 
 			material = material.withColor(parseColor(node.getTags().getValue("colour"), CSS_COLORS));
@@ -1434,7 +1450,7 @@ public class StreetFurnitureModule extends AbstractModule {
 
 	}
 
-	public static final class GritBin extends NoOutlineNodeWorldObject {
+	public final class GritBin extends NoOutlineNodeWorldObject {
 
 		public GritBin(MapNode node) {
 			super(node);
@@ -1459,12 +1475,12 @@ public class StreetFurnitureModule extends AbstractModule {
 			//TODO parse color
 
 			if (material == null) {
-				material = Materials.getSurfaceMaterial(
+				material = materialRegistry.getSurfaceMaterial(
 						node.getTags().getValue("material"));
 			}
 
 			if (material == null) {
-				material = Materials.getSurfaceMaterial(
+				material = materialRegistry.getSurfaceMaterial(
 						node.getTags().getValue("surface"), Materials.GRITBIN_DEFAULT);
 			}
 
@@ -1493,7 +1509,7 @@ public class StreetFurnitureModule extends AbstractModule {
 
 	}
 
-	public static final class Phone extends NoOutlineNodeWorldObject {
+	public final class Phone extends NoOutlineNodeWorldObject {
 
 		private static enum Type {WALL, PILLAR, CELL, HALFCELL}
 
@@ -1525,11 +1541,11 @@ public class StreetFurnitureModule extends AbstractModule {
 
 			// Phones differ widely in appearance, hence we draw them only for known operators or brands
 			if (node.getTags().containsAny(asList("operator", "brand"), asList("Deutsche Telekom AG", "Deutsche Telekom", "Telekom"))) {
-				roofMaterial = TELEKOM_MANGENTA;
-				poleMaterial = STEEL;
+				roofMaterial = materialRegistry.get(TELEKOM_MANGENTA);
+				poleMaterial = materialRegistry.get(STEEL);
 			} else if (node.getTags().containsAny(asList("operator", "brand"), asList("British Telecom"))) {
-				roofMaterial = POSTBOX_ROYALMAIL;
-				poleMaterial = POSTBOX_ROYALMAIL;
+				roofMaterial = materialRegistry.get(POSTBOX_ROYALMAIL);
+				poleMaterial = materialRegistry.get(POSTBOX_ROYALMAIL);
 			} else {
 				//no rendering, unknown operator or brand //TODO log info
 				return;
@@ -1548,7 +1564,7 @@ public class StreetFurnitureModule extends AbstractModule {
 					height = parseHeight(node.getTags(), 2.1f);
 					width = parseWidth(node.getTags(), 0.8f);
 
-					target.drawBox(GLASS,
+					target.drawBox(materialRegistry.get(GLASS),
 							getBase(),
 							faceVector, height - 0.2, width - 0.06, width - 0.06);
 					target.drawBox(roofMaterial,
@@ -1573,7 +1589,7 @@ public class StreetFurnitureModule extends AbstractModule {
 
 	}
 
-	public static final class VendingMachineVice extends NoOutlineNodeWorldObject {
+	public final class VendingMachineVice extends NoOutlineNodeWorldObject {
 
 		private static enum Type {WALL, PILLAR}
 
@@ -1593,7 +1609,7 @@ public class StreetFurnitureModule extends AbstractModule {
 			VectorXZ faceVector = VectorXZ.fromAngle(directionAngle);
 
 			Material machineMaterial = null;
-			Material poleMaterial = STEEL;
+			Material poleMaterial = materialRegistry.get(STEEL);
 			Type type = null;
 
 			if (node.getTags().contains("vending", "bicycle_tube")
@@ -1640,7 +1656,7 @@ public class StreetFurnitureModule extends AbstractModule {
 
 	}
 
-	public static final class PostBox extends NoOutlineNodeWorldObject {
+	public final class PostBox extends NoOutlineNodeWorldObject {
 
 		private static enum Type {WALL, PILLAR}
 
@@ -1666,11 +1682,11 @@ public class StreetFurnitureModule extends AbstractModule {
 
 			// post boxes differ widely in appearance, hence we draw them only for known operators or brands
 			if (node.getTags().containsAny(asList("operator", "brand"), asList("Deutsche Post AG", "Deutsche Post"))) {
-				boxMaterial = POSTBOX_DEUTSCHEPOST;
-				poleMaterial = STEEL;
+				boxMaterial = materialRegistry.get(POSTBOX_DEUTSCHEPOST);
+				poleMaterial = materialRegistry.get(STEEL);
 				type = Type.WALL;
 			} else if (node.getTags().contains("operator", "Royal Mail")) {
-				boxMaterial = POSTBOX_ROYALMAIL;
+				boxMaterial = materialRegistry.get(POSTBOX_ROYALMAIL);
 				type = Type.PILLAR;
 			} else {
 				//no rendering, unknown operator or brand for post box //TODO log info
@@ -1715,7 +1731,7 @@ public class StreetFurnitureModule extends AbstractModule {
 
 	}
 
-	public static final class BusStop extends NoOutlineNodeWorldObject {
+	public final class BusStop extends NoOutlineNodeWorldObject {
 
 		public BusStop(MapNode node) {
 			super(node);
@@ -1733,7 +1749,7 @@ public class StreetFurnitureModule extends AbstractModule {
 			double signHeight = 0.7;
 			double signWidth = 0.4;
 
-			Material poleMaterial = STEEL;
+			Material poleMaterial = materialRegistry.get(STEEL);
 
 			double directionAngle = parseDirection(node.getTags(), PI);
 
@@ -1746,7 +1762,7 @@ public class StreetFurnitureModule extends AbstractModule {
 			if (target instanceof AttachmentSurface.Builder) return;
 
 			/* draw sign */
-			target.drawBox(BUS_STOP_SIGN,
+			target.drawBox(materialRegistry.get(BUS_STOP_SIGN),
 					getBase().addY(height - signHeight),
 					faceVector, signHeight, signWidth, 0.02);
 			/*  draw timetable */
@@ -1765,7 +1781,7 @@ public class StreetFurnitureModule extends AbstractModule {
 
 	}
 
-	public static final class ParcelLocker implements Model {
+	public final class ParcelLocker implements Model {
 
 		private final TagSet tags;
 
@@ -1776,8 +1792,8 @@ public class StreetFurnitureModule extends AbstractModule {
 		@Override
 		public List<Mesh> buildMeshes(InstanceParameters params) {
 
-			Material boxMaterial = POSTBOX_DEUTSCHEPOST;
-			Material otherMaterial = STEEL;
+			Material boxMaterial = materialRegistry.get(POSTBOX_DEUTSCHEPOST);
+			Material otherMaterial = materialRegistry.get(STEEL);
 
 			VectorXZ faceVector = VectorXZ.fromAngle(params.direction);
 			VectorXZ rightVector = faceVector.rightNormal();
@@ -1839,7 +1855,7 @@ public class StreetFurnitureModule extends AbstractModule {
 
 	}
 
-	public static final class FireHydrant extends NoOutlineNodeWorldObject {
+	public final class FireHydrant extends NoOutlineNodeWorldObject {
 
 		public FireHydrant(MapNode node) {
 			super(node);
@@ -1856,7 +1872,7 @@ public class StreetFurnitureModule extends AbstractModule {
 			double height = parseHeight(node.getTags(), 1.0);
 
 			/* draw main pole */
-			target.drawColumn(FIREHYDRANT, null,
+			target.drawColumn(materialRegistry.get(FIREHYDRANT), null,
 					getBase(),
 					height,
 					0.15, 0.15, false, true);
@@ -1866,17 +1882,17 @@ public class StreetFurnitureModule extends AbstractModule {
 			VectorXZ smallValveVector = VectorXZ.X_UNIT;
 			VectorXZ largeValveVector = VectorXZ.Z_UNIT;
 
-			target.drawBox(FIREHYDRANT,
+			target.drawBox(materialRegistry.get(FIREHYDRANT),
 					valveBaseVector,
 					smallValveVector, 0.1f, 0.5f, 0.1f);
-			target.drawBox(FIREHYDRANT,
+			target.drawBox(materialRegistry.get(FIREHYDRANT),
 					valveBaseVector.add(0.2f, -0.1f, 0f),
 					largeValveVector, 0.15f, 0.15f, 0.15f);
 		}
 
 	}
 
-	public static final class StreetLamp extends NoOutlineNodeWorldObject {
+	public final class StreetLamp extends NoOutlineNodeWorldObject {
 
 		public StreetLamp(MapNode node) {
 			super(node);
@@ -1899,12 +1915,12 @@ public class StreetFurnitureModule extends AbstractModule {
 			Material material = null;
 
 			if (material == null) {
-				material = Materials.getSurfaceMaterial(
+				material = materialRegistry.getSurfaceMaterial(
 						node.getTags().getValue("material"));
 			}
 
 			if (material == null) {
-				material = Materials.getSurfaceMaterial(
+				material = materialRegistry.getSurfaceMaterial(
 						node.getTags().getValue("surface"), STEEL);
 			}
 
@@ -1950,7 +1966,7 @@ public class StreetFurnitureModule extends AbstractModule {
 
 	}
 
-	public static final class Board extends NoOutlineNodeWorldObject {
+	public final class Board extends NoOutlineNodeWorldObject {
 
 		public Board(MapNode node) {
 			super(node);
@@ -1966,10 +1982,10 @@ public class StreetFurnitureModule extends AbstractModule {
 
 			double directionAngle = parseDirection(node.getTags(), PI);
 			VectorXZ faceVector = VectorXZ.fromAngle(directionAngle);
-			target.drawColumn(WOOD, null,
+			target.drawColumn(materialRegistry.get(WOOD), null,
 					getBase(),
 					1.5, 0.05, 0.05, false, true);
-			target.drawBox(WOOD,
+			target.drawBox(materialRegistry.get(WOOD),
 					getBase().addY(1.2),
 					faceVector, 0.4, 0.4, 0.1);
 		}
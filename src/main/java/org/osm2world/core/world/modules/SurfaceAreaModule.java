@@ -34,6 +34,7 @@ import org.osm2world.core.math.algorithms.TriangulationUtil;
 import org.osm2world.core.math.shapes.PolygonShapeXZ;
 import org.osm2world.core.target.Target;
 import org.osm2world.core.target.common.material.Material;
+import org.osm2world.core.target.common.material.MaterialRegistry;
 import org.osm2world.core.target.common.material.Materials;
 import org.osm2world.core.world.data.AbstractAreaWorldObject;
 import org.osm2world.core.world.data.TerrainBoundaryWorldObject;
@@ -77,13 +78,13 @@ public class SurfaceAreaModule extends AbstractModule {
 		TagSet tags = area.getTags();
 
 		if (tags.containsKey("surface")) {
-			area.addRepresentation(new SurfaceArea(area, tags.getValue("surface")));
+			area.addRepresentation(new SurfaceArea(area, tags.getValue("surface"), materialRegistry));
 		} else {
 
 			for (Tag tagWithDefault : defaultSurfaceMap.keySet()) {
 				if (tags.contains(tagWithDefault)) {
 					area.addRepresentation(new SurfaceArea(
-							area, defaultSurfaceMap.get(tagWithDefault)));
+							area, defaultSurfaceMap.get(tagWithDefault), materialRegistry));
 				}
 			}
 
@@ -94,12 +95,14 @@ public class SurfaceAreaModule extends AbstractModule {
 	public static class SurfaceArea extends AbstractAreaWorldObject implements TerrainBoundaryWorldObject {
 
 		private final String surface;
+		private final MaterialRegistry materialRegistry;
 
 		private List<TriangleXZ> triangulationXZ;
 
-		public SurfaceArea(MapArea area, String surface) {
+		public SurfaceArea(MapArea area, String surface, MaterialRegistry materialRegistry) {
 			super(area);
 			this.surface = surface;
+			this.materialRegistry = materialRegistry;
 		}
 
 		@Override
@@ -108,9 +111,9 @@ public class SurfaceAreaModule extends AbstractModule {
 			Material material = null;
 
 			if (surface.equals(EMPTY_SURFACE_VALUE)) {
-				material = Materials.TERRAIN_DEFAULT;
+				material = materialRegistry.get(Materials.TERRAIN_DEFAULT);
 			} else {
-				material = Materials.getSurfaceMaterial(surface);
+				material = materialRegistry.getSurfaceMaterial(surface);
 			}
 
 			if (material != null) {
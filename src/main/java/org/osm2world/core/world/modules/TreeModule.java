@@ -26,6 +26,7 @@ import org.osm2world.core.math.VectorXZ;
 import org.osm2world.core.target.Target;
 import org.osm2world.core.target.common.FaceTarget;
 import org.osm2world.core.target.common.material.Material;
+import org.osm2world.core.target.common.material.MaterialRegistry;
 import org.osm2world.core.target.common.material.Materials;
 import org.osm2world.core.target.common.model.LegacyModel;
 import org.osm2world.core.target.povray.POVRayTarget;
@@ -134,8 +135,8 @@ public class TreeModule extends ConfigurableWorldModule {
 	private double defaultTreeHeightForest = 20;
 
 	@Override
-	public void setConfiguration(Configuration config) {
-		super.setConfiguration(config);
+	public void setConfiguration(Configuration config, MaterialRegistry materialRegistry) {
+		super.setConfiguration(config, materialRegistry);
 		useBillboards = config.getBoolean("useBillboards", false);
 		defaultTreeHeight = config.getDouble("defaultTreeHeight", 10);
 		defaultTreeHeightForest = config.getDouble("defaultTreeHeightForest", 20);
@@ -184,7 +185,7 @@ public class TreeModule extends ConfigurableWorldModule {
 
 	private static final float TREE_RADIUS_PER_HEIGHT = 0.2f;
 
-	private static void renderTreeGeometry(Target target,
+	private void renderTreeGeometry(Target target,
 			VectorXYZ posXYZ, LeafType leafType, double height) {
 
 		boolean coniferous = (leafType == LeafType.NEEDLELEAVED);
@@ -192,11 +193,11 @@ public class TreeModule extends ConfigurableWorldModule {
 		double stemRatio = coniferous?0.3:0.5;
 		double radius = height*TREE_RADIUS_PER_HEIGHT;
 
-		target.drawColumn(Materials.TREE_TRUNK,
+		target.drawColumn(materialRegistry.get(Materials.TREE_TRUNK),
 				null, posXYZ, height*stemRatio,
 				radius / 4, radius / 5, false, true);
 
-		target.drawColumn(Materials.TREE_CROWN,
+		target.drawColumn(materialRegistry.get(Materials.TREE_CROWN),
 				null, posXYZ.y(posXYZ.y+height*stemRatio),
 				height*(1-stemRatio),
 				radius,
@@ -332,10 +333,10 @@ public class TreeModule extends ConfigurableWorldModule {
 			if (useBillboards) {
 
 				Material material = species == TreeSpecies.APPLE_TREE
-						? Materials.TREE_BILLBOARD_BROAD_LEAVED_FRUIT
+						? materialRegistry.get(Materials.TREE_BILLBOARD_BROAD_LEAVED_FRUIT)
 						: leafType == LeafType.NEEDLELEAVED
-						? Materials.TREE_BILLBOARD_CONIFEROUS
-						: Materials.TREE_BILLBOARD_BROAD_LEAVED;
+						? materialRegistry.get(Materials.TREE_BILLBOARD_CONIFEROUS)
+						: materialRegistry.get(Materials.TREE_BILLBOARD_BROAD_LEAVED);
 
 				WorldModuleBillboardUtil.renderCrosstree(target, material, position,
 						(species != null ? 1.0 : 0.5 ) * height, height, mirrored);
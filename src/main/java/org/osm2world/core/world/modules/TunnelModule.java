@@ -122,7 +122,7 @@ public class TunnelModule extends AbstractModule {
 
 	}
 
-	public static class Tunnel extends BridgeOrTunnel {
+	public class Tunnel extends BridgeOrTunnel {
 
 		public Tunnel(MapWaySegment segment,
 				AbstractNetworkWaySegmentWorldObject primaryWO) {
@@ -163,9 +163,9 @@ public class TunnelModule extends AbstractModule {
 			List<VectorXYZ> strip3 = createTriangleStripBetween(
 					aboveLeftOutline, leftOutline);
 
-			target.drawTriangleStrip(Materials.TUNNEL_DEFAULT, strip1, null);
-			target.drawTriangleStrip(Materials.TUNNEL_DEFAULT, strip2, null);
-			target.drawTriangleStrip(Materials.TUNNEL_DEFAULT, strip3, null);
+			target.drawTriangleStrip(materialRegistry.get(Materials.TUNNEL_DEFAULT), strip1, null);
+			target.drawTriangleStrip(materialRegistry.get(Materials.TUNNEL_DEFAULT), strip2, null);
+			target.drawTriangleStrip(materialRegistry.get(Materials.TUNNEL_DEFAULT), strip3, null);
 
 		}
 
@@ -108,7 +108,7 @@ public class WaterModule extends ConfigurableWorldModule {
 
 	}
 
-	public static class Waterway extends AbstractNetworkWaySegmentWorldObject
+	public class Waterway extends AbstractNetworkWaySegmentWorldObject
 			implements TerrainBoundaryWorldObject, LegacyWorldObject {
 
 		public Waterway(MapWaySegment line) {
@@ -199,8 +199,8 @@ public class WaterModule extends ConfigurableWorldModule {
 				);
 
 				for (List<VectorXYZ> strip : strips) {
-					target.drawTriangleStrip(TERRAIN_DEFAULT, strip,
-						texCoordLists(strip, TERRAIN_DEFAULT, GLOBAL_X_Z));
+					target.drawTriangleStrip(materialRegistry.get(TERRAIN_DEFAULT), strip,
+						texCoordLists(strip, materialRegistry.get(TERRAIN_DEFAULT), GLOBAL_X_Z));
 				}
 
 				/* render water */
@@ -208,8 +208,8 @@ public class WaterModule extends ConfigurableWorldModule {
 				List<VectorXYZ> vs = createTriangleStripBetween(
 						leftWaterBorder, rightWaterBorder);
 
-				target.drawTriangleStrip(WATER, vs,
-						texCoordLists(vs, WATER, GLOBAL_X_Z));
+				target.drawTriangleStrip(materialRegistry.get(WATER), vs,
+						texCoordLists(vs, materialRegistry.get(WATER), GLOBAL_X_Z));
 
 			}
 
@@ -240,7 +240,7 @@ public class WaterModule extends ConfigurableWorldModule {
 
 	}
 
-	public static class RiverJunction extends JunctionNodeWorldObject<Waterway> implements TerrainBoundaryWorldObject {
+	public class RiverJunction extends JunctionNodeWorldObject<Waterway> implements TerrainBoundaryWorldObject {
 
 		public RiverJunction(MapNode node) {
 			super(node, Waterway.class);
@@ -253,8 +253,8 @@ public class WaterModule extends ConfigurableWorldModule {
 
 			List<VectorXYZ> vertices = getOutlinePolygon().verticesNoDup();
 
-			target.drawConvexPolygon(WATER, vertices,
-					texCoordLists(vertices, WATER, GLOBAL_X_Z));
+			target.drawConvexPolygon(materialRegistry.get(WATER), vertices,
+					texCoordLists(vertices, materialRegistry.get(WATER), GLOBAL_X_Z));
 
 			//TODO: only cover with water to 0.95 * distance to center; add land below
 
@@ -262,7 +262,7 @@ public class WaterModule extends ConfigurableWorldModule {
 
 	}
 
-	public static class Water extends NetworkAreaWorldObject implements TerrainBoundaryWorldObject {
+	public class Water extends NetworkAreaWorldObject implements TerrainBoundaryWorldObject {
 
 		//TODO: only cover with water to 0.95 * distance to center; add land below.
 		// possible algorithm: for each node of the outer polygon, check whether it
@@ -286,13 +286,13 @@ public class WaterModule extends ConfigurableWorldModule {
 		@Override
 		public void renderTo(Target target) {
 			List<TriangleXYZ> triangles = getTriangulation();
-			target.drawTriangles(WATER, triangles,
-					triangleTexCoordLists(triangles, WATER, GLOBAL_X_Z));
+			target.drawTriangles(materialRegistry.get(WATER), triangles,
+					triangleTexCoordLists(triangles, materialRegistry.get(WATER), GLOBAL_X_Z));
 		}
 
 	}
 
-	public static class AreaFountain extends AbstractAreaWorldObject implements TerrainBoundaryWorldObject {
+	public class AreaFountain extends AbstractAreaWorldObject implements TerrainBoundaryWorldObject {
 
 		public AreaFountain(MapArea area) {
 			super(area);
@@ -309,8 +309,8 @@ public class WaterModule extends ConfigurableWorldModule {
 			/* render water */
 
 			List<TriangleXYZ> triangles = getTriangulation();
-			target.drawTriangles(PURIFIED_WATER, triangles,
-					triangleTexCoordLists(triangles, PURIFIED_WATER, GLOBAL_X_Z));
+			target.drawTriangles(materialRegistry.get(PURIFIED_WATER), triangles,
+					triangleTexCoordLists(triangles, materialRegistry.get(PURIFIED_WATER), GLOBAL_X_Z));
 
 			/* render walls */
 
@@ -326,7 +326,7 @@ public class WaterModule extends ConfigurableWorldModule {
 
 			List<VectorXYZ> path = getOutlinePolygon().vertices();
 
-			target.drawExtrudedShape(CONCRETE, wallShape, path,
+			target.drawExtrudedShape(materialRegistry.get(CONCRETE), wallShape, path,
 					nCopies(path.size(), Y_UNIT), null, null, null);
 
 		}
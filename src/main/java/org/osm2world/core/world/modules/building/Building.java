@@ -27,6 +27,7 @@ import org.osm2world.core.math.LineSegmentXZ;
 import org.osm2world.core.math.SimplePolygonXZ;
 import org.osm2world.core.math.shapes.PolygonShapeXZ;
 import org.osm2world.core.target.Target;
+import org.osm2world.core.target.common.material.MaterialRegistry;
 import org.osm2world.core.util.FaultTolerantIterationUtil;
 import org.osm2world.core.world.attachment.AttachmentSurface;
 import org.osm2world.core.world.data.AreaWorldObject;
@@ -47,11 +48,14 @@ public class Building implements AreaWorldObject, TerrainBoundaryWorldObject {
 	private Map<NodeLevelPair, Boolean> windowNodes = new HashMap<>();
 	private Map<NodeLevelPair, List<LineSegmentXZ>> wallNodePolygonSegments = new HashMap<>();
 
+	private final MaterialRegistry materialRegistry;
+
 	private Collection<AttachmentSurface> attachmentSurfaces = null;
 
-	public Building(MapArea area, Configuration config) {
+	public Building(MapArea area, Configuration config, MaterialRegistry materialRegistry) {
 
 		this.area = area;
+		this.materialRegistry = materialRegistry;
 
 		Optional<MapRelation> buildingRelation = area.getMemberships().stream()
 				.filter(it -> "outline".equals(it.getRole()))
@@ -65,7 +69,7 @@ public class Building implements AreaWorldObject, TerrainBoundaryWorldObject {
 
 			for (Membership membership : buildingRelation.get().getMemberships()) {
 				if ("part".equals(membership.getRole()) && membership.getElement() instanceof MapArea) {
-					parts.add(new BuildingPart(this, (MapArea) membership.getElement(), config));
+					parts.add(new BuildingPart(this, (MapArea) membership.getElement(), config, materialRegistry));
 				}
 			}
 
@@ -86,7 +90,7 @@ public class Building implements AreaWorldObject, TerrainBoundaryWorldObject {
 					}
 
 					if (roughlyContains(area.getPolygon(), otherArea.getPolygon().getOuter())) {
-						parts.add(new BuildingPart(this, otherArea, config));
+						parts.add(new BuildingPart(this, otherArea, config, materialRegistry));
 					}
 
 				}
@@ -100,7 +104,7 @@ public class Building implements AreaWorldObject, TerrainBoundaryWorldObject {
 		String buildingPartValue = area.getTags().getValue("building:part");
 
 		if (parts.isEmpty() || buildingPartValue != null && !"no".equals(buildingPartValue)) {
-			parts.add(new BuildingPart(this, area, config));
+			parts.add(new BuildingPart(this, area, config, materialRegistry));
 		}
 
 		/* create connectors along the outline.
@@ -157,7 +161,7 @@ public class Building implements AreaWorldObject, TerrainBoundaryWorldObject {
 	@Override
 	public void renderTo(Target target) {
 		FaultTolerantIterationUtil.forEach(parts, part -> part.renderTo(target));
-		IndoorWall.renderNodePolygons(target, wallNodePolygonSegments);
+		IndoorWall.renderNodePolygons(target, wallNodePolygonSegments, materialRegistry);
 	}
 
 	@Override
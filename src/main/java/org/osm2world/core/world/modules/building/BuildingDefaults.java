@@ -10,6 +10,7 @@ public class BuildingDefaults {
 	public final int levels;
 	public final double heightPerLevel;
 	public final String roofShape;
+	/** default materials with their default attributes, resolved through a MaterialRegistry by the callers */
 	public final Material materialWall;
 	public final Material materialRoof;
 	public final boolean hasWindows;
@@ -22,7 +22,7 @@ public class BuildingModule extends ConfigurableWorldModule {
 
 			if (buildingValue != null && !buildingValue.equals("no")) {
 
-				Building building = new Building(area, config);
+				Building building = new Building(area, config, materialRegistry);
 				area.addRepresentation(building);
 
 			}
@@ -41,6 +41,7 @@ import org.osm2world.core.math.shapes.PolygonShapeXZ;
 import org.osm2world.core.math.shapes.SimplePolygonShapeXZ;
 import org.osm2world.core.target.Target;
 import org.osm2world.core.target.common.material.Material;
+import org.osm2world.core.target.common.material.MaterialRegistry;
 import org.osm2world.core.target.common.material.Materials;
 import org.osm2world.core.world.attachment.AttachmentSurface;
 import org.osm2world.core.world.data.AreaWorldObject;
@@ -67,6 +68,7 @@ public class BuildingPart implements AreaWorldObject {
 	private final PolygonWithHolesXZ polygon;
 
 	final Configuration config;
+	final MaterialRegistry materialRegistry;
 
 	/** the tags for this part, including tags inherited from the parent */
 	final TagSet tags;
@@ -80,7 +82,7 @@ public class BuildingPart implements AreaWorldObject {
 
 	private final @Nullable BuildingPartInterior buildingPartInterior;
 
-	public BuildingPart(Building building, MapArea area, Configuration config) {
+	public BuildingPart(Building building, MapArea area, Configuration config, MaterialRegistry materialRegistry) {
 
 		area.addRepresentation(this);
 
@@ -89,6 +91,7 @@ public class BuildingPart implements AreaWorldObject {
 		this.polygon = area.getPolygon();
 
 		this.config = config;
+		this.materialRegistry = materialRegistry;
 
 		this.tags = inheritTags(area.getTags(), building.getPrimaryMapElement().getTags());
 		BuildingDefaults defaults = BuildingDefaults.getDefaultsFor(tags);
@@ -124,11 +127,12 @@ public class BuildingPart implements AreaWorldObject {
 
 		/* build the roof */
 
-		Material materialRoof = createRoofMaterial(tags, config);
+		Material materialRoof = createRoofMaterial(tags, config, materialRegistry);
 		double roofHeight = levelStructure.height() - levelStructure.heightWithoutRoof();
 
 		try {
-			roof = Roof.createRoofForShape(roofShape, area, polygon, tags, roofHeight, materialRoof);
+			roof = Roof.createRoofForShape(roofShape, area, polygon, tags, roofHeight, materialRoof,
+					materialRegistry);
 		} catch (InvalidGeometryException e) {
 			throw new InvalidGeometryException("error constructing roof for " + area + ": " + e);
 		}
@@ -152,7 +156,7 @@ public class BuildingPart implements AreaWorldObject {
 	/** creates the walls, floors etc. making up this part */
 	private void createComponents() {
 
-		Material materialWall = createWallMaterial(tags, config);
+		Material materialWall = createWallMaterial(tags, config, materialRegistry);
 
 		List<Level> levels = levelStructure.levels(EnumSet.of(LevelType.ABOVEGROUND, LevelType.ROOF));
 		double floorHeight = levels.isEmpty() ? 0 : levels.get(0).relativeEle;
@@ -512,6 +516,8 @@ public class BuildingPart implements AreaWorldObject {
 
 	public Configuration getConfig() { return config; }
 
+	public MaterialRegistry getMaterialRegistry() { return materialRegistry; }
+
 	public TagSet getTags() { return tags; }
 
 	@Override
@@ -533,7 +539,7 @@ public class BuildingPart implements AreaWorldObject {
 		return buildingPartInterior;
 	}
 
-	static Material createWallMaterial(TagSet tags, Configuration config) {
+	static Material createWallMaterial(TagSet tags, Configuration config, MaterialRegistry materialRegistry) {
 
 		BuildingDefaults defaults = BuildingDefaults.getDefaultsFor(tags);
 
@@ -542,15 +548,15 @@ public class BuildingPart implements AreaWorldObject {
 			return buildMaterial(
 					tags.getValue("building:material"),
 					tags.getValue("building:colour"),
-					defaults.materialWall, false);
+					defaults.materialWall, false, materialRegistry);
 
 		} else {
-			return defaults.materialWall;
+			return materialRegistry.get(defaults.materialWall);
 		}
 
 	}
 
-	private static Material createRoofMaterial(TagSet tags, Configuration config) {
+	private static Material createRoofMaterial(TagSet tags, Configuration config, MaterialRegistry materialRegistry) {
 
 		BuildingDefaults defaults = BuildingDefaults.getDefaultsFor(tags);
 
@@ -559,32 +565,32 @@ public class BuildingPart implements AreaWorldObject {
 			return buildMaterial(
 					tags.getValue("roof:material"),
 					tags.getValue("roof:colour"),
-					defaults.materialRoof, true);
+					defaults.materialRoof, true, materialRegistry);
 		} else {
-			return defaults.materialRoof;
+			return materialRegistry.get(defaults.materialRoof);
 		}
 
 	}
 
 	public static Material buildMaterial(String materialString,
 										 String colorString, Material defaultMaterial,
-										 boolean roof) {
+										 boolean roof, MaterialRegistry materialRegistry) {
 
-		Material material = defaultMaterial;
+		Material material = materialRegistry.get(defaultMaterial);
 
 		if (materialString != null) {
 			if ("brick".equals(materialString)) {
-				material = Materials.BRICK;
+				material = materialRegistry.get(Materials.BRICK);
 			} else if ("glass".equals(materialString)
 					|| "mirror".equals(materialString)) {
-				material = roof ? Materials.GLASS_ROOF : Materials.GLASS_WALL;
+				material = materialRegistry.get(roof ? Materials.GLASS_ROOF : Materials.GLASS_WALL);
 			} else if ("wood".equals(materialString)
 					|| "bamboo".equals(materialString)) {
-				material = Materials.WOOD_WALL;
-			} else if (Materials.getSurfaceMaterial(materialString) != null) {
-				material = Materials.getSurfaceMaterial(materialString);
-			} else if (Materials.getMaterial(materialString) != null) {
-				material = Materials.getMaterial(materialString);
+				material = materialRegistry.get(Materials.WOOD_WALL);
+			} else if (materialRegistry.getSurfaceMaterial(materialString) != null) {
+				material = materialRegistry.getSurfaceMaterial(materialString);
+			} else if (materialRegistry.getMaterial(materialString) != null) {
+				material = materialRegistry.getMaterial(materialString);
 			}
 		}
 
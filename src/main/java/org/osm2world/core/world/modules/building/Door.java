@@ -14,6 +14,7 @@ import org.osm2world.core.math.VectorXYZ;
 import org.osm2world.core.math.VectorXZ;
 import org.osm2world.core.target.Target;
 import org.osm2world.core.target.common.material.Material;
+import org.osm2world.core.target.common.material.MaterialRegistry;
 
 public class Door implements WallElement {
 
@@ -22,9 +23,12 @@ public class Door implements WallElement {
 
 	private final DoorParameters parameters;
 
-	public Door(VectorXZ position, DoorParameters params) {
+	private final MaterialRegistry materialRegistry;
+
+	public Door(VectorXZ position, DoorParameters params, MaterialRegistry materialRegistry) {
 		this.position = position;
 		this.parameters = params;
+		this.materialRegistry = materialRegistry;
 	}
 
 	@Override
@@ -58,7 +62,7 @@ public class Door implements WallElement {
 			break;
 		}
 
-		doorMaterial = doorMaterial.withColor(parameters.color);
+		doorMaterial = materialRegistry.get(doorMaterial).withColor(parameters.color);
 
 		PolygonXYZ frontOutline = surface.convertTo3D(outline());
 
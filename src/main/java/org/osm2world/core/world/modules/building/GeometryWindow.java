@@ -44,6 +44,7 @@ import org.osm2world.core.math.shapes.SimplePolygonShapeXZ;
 import org.osm2world.core.target.Target;
 import org.osm2world.core.target.common.ExtrudeOption;
 import org.osm2world.core.target.common.material.Material;
+import org.osm2world.core.target.common.material.MaterialRegistry;
 import org.osm2world.core.util.enums.LeftRightBoth;
 import org.osm2world.core.world.modules.building.WindowParameters.RegionProperties;
 import org.osm2world.core.world.modules.building.WindowParameters.WindowRegion;
@@ -65,10 +66,14 @@ public class GeometryWindow implements Window {
 
 	private final boolean transparent;
 
-	public GeometryWindow(VectorXZ position, WindowParameters params, boolean transparent) {
+	private final MaterialRegistry materialRegistry;
+
+	public GeometryWindow(VectorXZ position, WindowParameters params, boolean transparent,
+			MaterialRegistry materialRegistry) {
 
 		this.params = params;
 		this.transparent = transparent;
+		this.materialRegistry = materialRegistry;
 
 		/* build the outline, either as a simple shape or as a combination of multiple window regions */
 
@@ -386,7 +391,7 @@ public class GeometryWindow implements Window {
 			for (VectorXZ hingeLocation : hingeLocations) {
 				double hingeHeight = 0.1;
 				VectorXYZ base = surface.convertTo3D(hingeLocation).addY(-hingeHeight / 2);
-				target.drawColumn(STEEL, null, base, hingeHeight, hingeSpace / 2, hingeSpace / 2, true, true);
+				target.drawColumn(materialRegistry.get(STEEL), null, base, hingeHeight, hingeSpace / 2, hingeSpace / 2, true, true);
 			}
 
 		}
@@ -12,6 +12,8 @@ import org.osm2world.core.math.SimplePolygonXZ;
 import org.osm2world.core.math.VectorXYZ;
 import org.osm2world.core.math.VectorXZ;
 import org.osm2world.core.target.Target;
+import org.osm2world.core.target.common.material.Material;
+import org.osm2world.core.target.common.material.MaterialRegistry;
 
 class TexturedWindow implements Window {
 
@@ -20,9 +22,12 @@ class TexturedWindow implements Window {
 
 	private final WindowParameters params;
 
-	public TexturedWindow(VectorXZ position, WindowParameters params) {
+	private final MaterialRegistry materialRegistry;
+
+	public TexturedWindow(VectorXZ position, WindowParameters params, MaterialRegistry materialRegistry) {
 		this.position = position;
 		this.params = params;
+		this.materialRegistry = materialRegistry;
 	}
 
 	@Override
@@ -60,8 +65,10 @@ class TexturedWindow implements Window {
 
 		List<VectorXYZ> vsWindow = asList(topLeft, bottomLeft, topRight, bottomRight);
 
-		target.drawTriangleStrip(SINGLE_WINDOW, vsWindow,
-				texCoordLists(vsWindow, SINGLE_WINDOW, STRIP_FIT));
+		Material windowMaterial = materialRegistry.get(SINGLE_WINDOW);
+
+		target.drawTriangleStrip(windowMaterial, vsWindow,
+				texCoordLists(vsWindow, windowMaterial, STRIP_FIT));
 
 	}
 
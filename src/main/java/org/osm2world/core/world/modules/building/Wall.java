@@ -96,7 +96,7 @@ public class Wall implements Renderable {
 		double floorEle = baseEle + floorHeight;
 		double heightWithoutRoof = buildingPart.levelStructure.heightWithoutRoof();
 
-		Material material = BuildingPart.createWallMaterial(tags, buildingPart.config);
+		Material material = BuildingPart.createWallMaterial(tags, buildingPart.config, buildingPart.materialRegistry);
 
 		/* determine if the wall has windows */
 
@@ -118,7 +118,7 @@ public class Wall implements Renderable {
 				hasWindows = false;
 			}
 
-			if (material == Materials.GLASS_WALL) {
+			if (material == buildingPart.materialRegistry.get(Materials.GLASS_WALL)) {
 				// avoid placing windows into a glass front
 				// TODO: the == currently only works if GLASS_WALL is not colorable
 				hasWindows = false;
@@ -210,7 +210,7 @@ public class Wall implements Renderable {
 			roofSurface = null;
 
 			try {
-				mainSurface = new WallSurface(material, bottomPoints, topPoints);
+				mainSurface = new WallSurface(material, bottomPoints, topPoints, buildingPart.materialRegistry);
 			} catch (InvalidGeometryException e) {
 				mainSurface = null;
 			}
@@ -224,13 +224,13 @@ public class Wall implements Renderable {
 					bottomPoints.get(bottomPoints.size() - 1).addY(heightWithoutRoof - floorHeight));
 
 			try {
-				mainSurface = new WallSurface(material, bottomPoints, middlePoints);
+				mainSurface = new WallSurface(material, bottomPoints, middlePoints, buildingPart.materialRegistry);
 			} catch (InvalidGeometryException e) {
 				mainSurface = null;
 			}
 
 			try {
-				roofSurface = new WallSurface(material, middlePoints, topPoints);
+				roofSurface = new WallSurface(material, middlePoints, topPoints, buildingPart.materialRegistry);
 			} catch (InvalidGeometryException e) {
 				roofSurface = null;
 			}
@@ -262,7 +262,7 @@ public class Wall implements Renderable {
 							|| node.getTags().containsKey("door"))) {
 
 						DoorParameters params = DoorParameters.fromTags(node.getTags(), this.tags);
-						mainSurface.addElementIfSpaceFree(new Door(pos, params));
+						mainSurface.addElementIfSpaceFree(new Door(pos, params, buildingPart.materialRegistry));
 
 					} else if (node.getTags().containsKey("window")
 							&& !node.getTags().contains("window", "no")) {
@@ -270,8 +270,10 @@ public class Wall implements Renderable {
 						boolean transparent = buildingPart.getBuilding().queryWindowSegments(node, level);
 
 						TagSet windowTags = inheritTags(node.getTags(), tags);
-						WindowParameters params = new WindowParameters(windowTags, buildingPart.levelStructure.level(level).height);
-						GeometryWindow window = new GeometryWindow(new VectorXZ(pos.x, pos.z + params.breast), params, transparent);
+						WindowParameters params = new WindowParameters(windowTags,
+								buildingPart.levelStructure.level(level).height, buildingPart.materialRegistry);
+						GeometryWindow window = new GeometryWindow(new VectorXZ(pos.x, pos.z + params.breast), params,
+								transparent, buildingPart.materialRegistry);
 						mainSurface.addElementIfSpaceFree(window);
 
 						individuallyMappedWindows = true;
@@ -361,7 +363,7 @@ public class Wall implements Renderable {
 
 		for (Level level : buildingPart.levelStructure.levels(EnumSet.of(LevelType.ABOVEGROUND))) {
 
-			WindowParameters windowParams = new WindowParameters(tags, level.height);
+			WindowParameters windowParams = new WindowParameters(tags, level.height, buildingPart.materialRegistry);
 
 			double levelEle = level.relativeEle - buildingPart.levelStructure.bottomHeight();
 
@@ -375,8 +377,8 @@ public class Wall implements Renderable {
 						levelEle + windowParams.breast);
 
 				Window window = implementation == WindowImplementation.FULL_GEOMETRY
-						? new GeometryWindow(pos, windowParams, false)
-						: new TexturedWindow(pos, windowParams);
+						? new GeometryWindow(pos, windowParams, false, buildingPart.materialRegistry)
+						: new TexturedWindow(pos, windowParams, buildingPart.materialRegistry);
 				surface.addElementIfSpaceFree(window);
 
 			}
@@ -395,7 +397,8 @@ public class Wall implements Renderable {
 
 		for (int i = 0; i < numDoors; i++) {
 			VectorXZ pos = new VectorXZ(surface.getLength() / numDoors * (i + 0.5), 0);
-			surface.addElementIfSpaceFree(new Door(pos, DoorParameters.fromTags(doorTags, TagSet.of())));
+			surface.addElementIfSpaceFree(new Door(pos, DoorParameters.fromTags(doorTags, TagSet.of()),
+					buildingPart.materialRegistry));
 		}
 
 	}
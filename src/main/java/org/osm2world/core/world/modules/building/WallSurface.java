@@ -36,6 +36,7 @@ import org.osm2world.core.math.shapes.PolylineXZ;
 import org.osm2world.core.math.shapes.ShapeXZ;
 import org.osm2world.core.target.Target;
 import org.osm2world.core.target.common.material.Material;
+import org.osm2world.core.target.common.material.MaterialRegistry;
 import org.osm2world.core.target.common.material.TextureDataDimensions;
 import org.osm2world.core.target.common.material.TextureLayer;
 import org.osm2world.core.target.common.texcoord.NamedTexCoordFunction;
@@ -53,6 +54,7 @@ import org.osm2world.core.target.common.texcoord.TexCoordFunction;
 public class WallSurface {
 
 	private final Material material;
+	private final MaterialRegistry materialRegistry;
 
 	private final List<VectorXZ> lowerBoundary;
 	private final SimplePolygonXZ wallOutline;
@@ -71,9 +73,10 @@ public class WallSurface {
 	 * This can happen, for example, because the wall has a zero or almost-zero height.
 	 */
 	public WallSurface(Material material, List<VectorXYZ> lowerBoundaryXYZ,
-			List<VectorXYZ> upperBoundaryXYZ) throws IllegalArgumentException {
+			List<VectorXYZ> upperBoundaryXYZ, MaterialRegistry materialRegistry) throws IllegalArgumentException {
 
 		this.material = material;
+		this.materialRegistry = materialRegistry;
 		this.lowerBoundaryXYZ = lowerBoundaryXYZ;
 
 		if (lowerBoundaryXYZ.size() < 2)
@@ -227,7 +230,7 @@ public class WallSurface {
 		/* determine the material depending on whether a window texture should be applied */
 
 		Material material = applyWindowTexture
-				? this.material.withAddedLayers(BUILDING_WINDOWS.getTextureLayers())
+				? this.material.withAddedLayers(materialRegistry.get(BUILDING_WINDOWS).getTextureLayers())
 				: this.material;
 
 		/* calculate texture coordinates */
@@ -250,7 +253,7 @@ public class WallSurface {
 
 			if (windowHeight != null
 					&& (texLayer >= this.material.getNumTextureLayers()
-						|| this.material == GLASS_WALL)) {
+						|| this.material == materialRegistry.get(GLASS_WALL))) {
 				// window texture layer
 				fixedHeight = windowHeight;
 			}
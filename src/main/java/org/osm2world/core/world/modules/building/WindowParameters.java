@@ -24,6 +24,7 @@ import org.osm2world.core.math.shapes.CircleXZ;
 import org.osm2world.core.math.shapes.CircularSectorXZ;
 import org.osm2world.core.math.shapes.SimpleClosedShapeXZ;
 import org.osm2world.core.target.common.material.Material;
+import org.osm2world.core.target.common.material.MaterialRegistry;
 import org.osm2world.core.target.common.material.Materials;
 import org.osm2world.core.util.enums.LeftRightBoth;
 
@@ -195,7 +196,7 @@ public class WindowParameters {
 	public final Material frameMaterial;
 	public final Material shutterMaterial;
 
-	public WindowParameters(TagSet tags, double levelHeight) {
+	public WindowParameters(TagSet tags, double levelHeight, MaterialRegistry materialRegistry) {
 
 		/* window */
 
@@ -210,12 +211,12 @@ public class WindowParameters {
 		opaqueWindowMaterial = BuildingPart.buildMaterial(
 				tags.getValue("window:material"),
 				tags.getValue("window:colour"),
-				Materials.GLASS, false);
+				Materials.GLASS, false, materialRegistry);
 
 		transparentWindowMaterial = BuildingPart.buildMaterial(
 				null,
 				tags.getValue("window:colour"),
-				Materials.GLASS_TRANSPARENT, false);
+				Materials.GLASS_TRANSPARENT, false, materialRegistry);
 
 		numberWindows = parseUInt(tags.getValue("window:count"));
 		groupSize = parseUInt(tags.getValue("window:group_size"), 1);
@@ -369,7 +370,7 @@ public class WindowParameters {
 		frameMaterial = BuildingPart.buildMaterial(
 				tags.getValue("window:frame:material"),
 				tags.getValue("window:frame:colour"),
-				Materials.PLASTIC, false);
+				Materials.PLASTIC, false, materialRegistry);
 
 		/* shutters */
 
@@ -378,7 +379,7 @@ public class WindowParameters {
 		shutterMaterial = BuildingPart.buildMaterial(
 				tags.getValue("window:shutter:material"),
 				tags.getValue("window:shutter:colour"),
-				Materials.WOOD, false);
+				Materials.WOOD, false, materialRegistry);
 
 	}
 
@@ -41,7 +41,7 @@ public class IndoorModule extends AbstractModule {
 		}
 	}
 
-	private static class Elevator extends AbstractAreaWorldObject {
+	private class Elevator extends AbstractAreaWorldObject {
 
 		private final double carHeight = 2.2;
 
@@ -198,7 +198,8 @@ public class IndoorModule extends AbstractModule {
 
 					List<VectorXYZ> topPoints = new ArrayList<>(bottomPoints).stream().map(v -> v.addY(carHeight)).collect(toList());
 
-					WallSurface frontSurface = new WallSurface(Materials.STEEL, bottomPoints, topPoints);
+					WallSurface frontSurface = new WallSurface(materialRegistry.get(Materials.STEEL), bottomPoints, topPoints,
+							materialRegistry);
 
 					List<VectorXYZ> bottomPointsReverse = new ArrayList<>(bottomPoints);
 					List<VectorXYZ> topPointsReverse = new ArrayList<>(topPoints);
@@ -206,7 +207,8 @@ public class IndoorModule extends AbstractModule {
 					Collections.reverse(bottomPointsReverse);
 					Collections.reverse(topPointsReverse);
 
-					WallSurface backSurface = new WallSurface(Materials.STEEL, bottomPointsReverse, topPointsReverse);
+					WallSurface backSurface = new WallSurface(materialRegistry.get(Materials.STEEL), bottomPointsReverse,
+							topPointsReverse, materialRegistry);
 
 					LineSegmentXZ carSegment = new LineSegmentXZ(carOuterPoints.get((i + 1) % carOuterPoints.size()), carOuterPoints.get(i));
 					MapNode doorNode = lineSegIndexToDoorNode.get(i);
@@ -217,7 +219,7 @@ public class IndoorModule extends AbstractModule {
 							DoorParameters params = DoorParameters.fromTags(doorNode.getTags(), TagSet.of());
 
 							VectorXZ v = new VectorXZ(carSegment.offsetOf(carSegment.closestPoint(doorNode.getPos())),0);
-							frontSurface.addElementIfSpaceFree(new Door(v, params));
+							frontSurface.addElementIfSpaceFree(new Door(v, params, materialRegistry));
 						}
 					}
 
@@ -237,8 +239,8 @@ public class IndoorModule extends AbstractModule {
 				List<TriangleXYZ> trianglesBottomUp = TriangulationUtil.triangulate(carPolygon, emptyList())
 						.stream().map(t -> t.makeCounterclockwise().xyz(carBaseEle - 0.0001)).collect(toList());
 
-				target.drawTriangles(Materials.STEEL, trianglesBottomDown, null);
-				target.drawTriangles(Materials.STEEL, trianglesBottomUp, null);
+				target.drawTriangles(materialRegistry.get(Materials.STEEL), trianglesBottomDown, null);
+				target.drawTriangles(materialRegistry.get(Materials.STEEL), trianglesBottomUp, null);
 
 
 				/* draw ceiling */
@@ -249,8 +251,8 @@ public class IndoorModule extends AbstractModule {
 				List<TriangleXYZ> trianglesTopUp = TriangulationUtil.triangulate(carPolygon, emptyList())
 						.stream().map(t -> t.makeCounterclockwise().xyz(carBaseEle + carHeight)).collect(toList());
 
-				target.drawTriangles(Materials.STEEL, trianglesTopDown, null);
-				target.drawTriangles(Materials.STEEL, trianglesTopUp, null);
+				target.drawTriangles(materialRegistry.get(Materials.STEEL), trianglesTopDown, null);
+				target.drawTriangles(materialRegistry.get(Materials.STEEL), trianglesTopUp, null);
 
 
 				/* draw cable */
@@ -259,10 +261,10 @@ public class IndoorModule extends AbstractModule {
 
 				VectorXZ sideDirection = carPolygon.getSegments().get(0).getDirection();
 
-				target.drawBox(Materials.STEEL, centroid.xyz(cableTopEle - 0.25), sideDirection.normalize(), 0.25, 0.25, 0.4);
+				target.drawBox(materialRegistry.get(Materials.STEEL), centroid.xyz(cableTopEle - 0.25), sideDirection.normalize(), 0.25, 0.25, 0.4);
 
 				for (int i = 1; i < 5; i++) {
-					target.drawBox(Materials.STEEL,
+					target.drawBox(materialRegistry.get(Materials.STEEL),
 							centroid.xyz(cableTopEle - 0.25).add(sideDirection.mult(-0.2)).add(sideDirection.mult(0.08 * i)),
 							sideDirection.normalize(),
 							- (cableTopEle - carBaseEle - carHeight - 0.25),
@@ -270,7 +272,7 @@ public class IndoorModule extends AbstractModule {
 							0.01);
 				}
 
-				target.drawBox(Materials.STEEL, centroid.xyz(carBaseEle + carHeight), sideDirection.normalize(), 0.25, 0.25, 0.4);
+				target.drawBox(materialRegistry.get(Materials.STEEL), centroid.xyz(carBaseEle + carHeight), sideDirection.normalize(), 0.25, 0.25, 0.4);
 
 			}
 		}
@@ -90,14 +90,16 @@ public final class IndoorObjectData {
     }
 
     public Material getMaterial(Material defaultMaterial) {
-        return  BuildingPart.buildMaterial(mapElement.getTags().getValue("material"), null, defaultMaterial, false);
+        return  BuildingPart.buildMaterial(mapElement.getTags().getValue("material"), null, defaultMaterial, false,
+                buildingPart.getMaterialRegistry());
     }
 
     public Material getSurface() {
         if (tags.containsKey("surface")) {
-            return BuildingPart.buildMaterial(tags.getValue("surface"), null, BuildingDefaults.getDefaultsFor(buildingPart.getTags()).materialWall, false);
+            return BuildingPart.buildMaterial(tags.getValue("surface"), null, BuildingDefaults.getDefaultsFor(buildingPart.getTags()).materialWall, false,
+                    buildingPart.getMaterialRegistry());
         } else {
-            return BuildingDefaults.getDefaultsFor(buildingPart.getTags()).materialWall;
+            return buildingPart.getMaterialRegistry().get(BuildingDefaults.getDefaultsFor(buildingPart.getTags()).materialWall);
         }
     }
 
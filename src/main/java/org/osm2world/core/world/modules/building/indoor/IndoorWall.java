@@ -39,6 +39,7 @@ import org.osm2world.core.math.algorithms.TriangulationUtil;
 import org.osm2world.core.target.Renderable;
 import org.osm2world.core.target.Target;
 import org.osm2world.core.target.common.material.Material;
+import org.osm2world.core.target.common.material.MaterialRegistry;
 import org.osm2world.core.target.common.material.Materials;
 import org.osm2world.core.world.attachment.AttachmentSurface;
 import org.osm2world.core.world.modules.building.Building.NodeLevelPair;
@@ -70,8 +71,6 @@ public class IndoorWall implements Renderable {
 
     private List<AttachmentSurface> attachmentSurfacesList;
 
-    private static final Material defaultInnerMaterial = Materials.CONCRETE;
-
     //TODO account for height of wall
     public IndoorWall(IndoorObjectData objectData){
 
@@ -721,7 +720,12 @@ public class IndoorWall implements Renderable {
     	return v1.subtract(v2).lengthSquared() < 0.00001;
 	}
 
-	public static void renderNodePolygons(Target target, Map<NodeLevelPair, List<LineSegmentXZ>> nodeToLineSegments){
+	public static void renderNodePolygons(Target target, Map<NodeLevelPair, List<LineSegmentXZ>> nodeToLineSegments,
+			MaterialRegistry materialRegistry){
+
+		Material innerMaterial = materialRegistry.get(Materials.CONCRETE);
+		Material brick = materialRegistry.get(Materials.BRICK);
+
 		for (Map.Entry<NodeLevelPair, List<LineSegmentXZ>> entry : nodeToLineSegments.entrySet()) {
 
 			NodeLevelPair nodeAndLevel = entry.getKey();
@@ -804,13 +808,13 @@ public class IndoorWall implements Renderable {
 					path.add(bottom);
 					path.add(top);
 
-					target.drawExtrudedShape(defaultInnerMaterial, polygon, path, null, null, null, null);
+					target.drawExtrudedShape(innerMaterial, polygon, path, null, null, null, null);
 
-					target.drawTriangles(defaultInnerMaterial, trianglesXYZBottom,
-							triangleTexCoordLists(trianglesXYZBottom, Materials.BRICK, GLOBAL_X_Z));
+					target.drawTriangles(innerMaterial, trianglesXYZBottom,
+							triangleTexCoordLists(trianglesXYZBottom, brick, GLOBAL_X_Z));
 
-					target.drawTriangles(defaultInnerMaterial, trianglesXYZTop,
-							triangleTexCoordLists(trianglesXYZTop, Materials.BRICK, GLOBAL_X_Z));
+					target.drawTriangles(innerMaterial, trianglesXYZTop,
+							triangleTexCoordLists(trianglesXYZTop, brick, GLOBAL_X_Z));
 
 
 				} catch (InvalidGeometryException e) {}
@@ -822,7 +826,11 @@ public class IndoorWall implements Renderable {
 
 		double baseEle = data.getBuildingPart().getBuilding().getGroundLevelEle();
 
-		Material material = BuildingPart.buildMaterial(data.getTags().getValue("material"), null, Materials.BRICK, false);
+		MaterialRegistry materialRegistry = data.getBuildingPart().getMaterialRegistry();
+
+		Material material = BuildingPart.buildMaterial(data.getTags().getValue("material"), null, Materials.BRICK, false,
+				materialRegistry);
+		Material innerMaterial = materialRegistry.get(Materials.CONCRETE);
 
 		for (Integer level : data.getRenderableLevels()) {
 
@@ -860,7 +868,7 @@ public class IndoorWall implements Renderable {
 
 						List<VectorXYZ> topPoints = generateTopPoints(bottomPoints, ceilingHeight - topOffset);
 
-						WallSurface mainSurface = new WallSurface(material, bottomPoints, topPoints);
+						WallSurface mainSurface = new WallSurface(material, bottomPoints, topPoints, materialRegistry);
 
 						/* back wall surface */
 
@@ -873,7 +881,7 @@ public class IndoorWall implements Renderable {
 
 						List<VectorXYZ> backTopPoints = generateTopPoints(backBottomPoints, ceilingHeight - topOffset);
 
-						WallSurface backSurface = new WallSurface(material, backBottomPoints, backTopPoints);
+						WallSurface backSurface = new WallSurface(material, backBottomPoints, backTopPoints, materialRegistry);
 
 
 						/* generate wall edges */
@@ -903,17 +911,19 @@ public class IndoorWall implements Renderable {
 										.map(t -> t.makeCounterclockwise().xyz(ceilingHeight - topOffset))
 										.collect(toList());
 
-								target.drawTriangles(defaultInnerMaterial, bottomTriangles, triangleTexCoordLists(bottomTriangles, material, GLOBAL_X_Z));
-								target.drawTriangles(defaultInnerMaterial, tempTopTriangles, triangleTexCoordLists(tempTopTriangles, material, GLOBAL_X_Z));
+								target.drawTriangles(innerMaterial, bottomTriangles, triangleTexCoordLists(bottomTriangles, material, GLOBAL_X_Z));
+								target.drawTriangles(innerMaterial, tempTopTriangles, triangleTexCoordLists(tempTopTriangles, material, GLOBAL_X_Z));
 
 
 								rightSurface = new WallSurface(material,
 										asList(bottomPoints.get(1), backBottomPoints.get(0)),
-										asList(topPoints.get(0), backTopPoints.get(backBottomPoints.size() - 1)));
+										asList(topPoints.get(0), backTopPoints.get(backBottomPoints.size() - 1)),
+										materialRegistry);
 
 								leftSurface = new WallSurface(material,
 										asList(backBottomPoints.get(1), bottomPoints.get(0)),
-										asList(backTopPoints.get(0), topPoints.get(topPoints.size() - 1)));
+										asList(backTopPoints.get(0), topPoints.get(topPoints.size() - 1)),
+										materialRegistry);
 
 							} catch (InvalidGeometryException e) {
 							}
@@ -942,10 +952,13 @@ public class IndoorWall implements Renderable {
 									boolean transparent = data.getBuildingPart().getBuilding().queryWindowSegments(node, level);
 
 									TagSet windowTags = inheritTags(node.getTags(), data.getTags());
-									WindowParameters params = new WindowParameters(windowTags, data.getBuildingPart().levelStructure.level(level).height);
+									WindowParameters params = new WindowParameters(windowTags,
+											data.getBuildingPart().levelStructure.level(level).height, materialRegistry);
 
-									GeometryWindow windowFront = new GeometryWindow(new VectorXZ(posFront.x, params.breast), params, transparent);
-									GeometryWindow windowBack = new GeometryWindow(new VectorXZ(posback.x, params.breast), params, transparent);
+									GeometryWindow windowFront = new GeometryWindow(new VectorXZ(posFront.x, params.breast), params,
+											transparent, materialRegistry);
+									GeometryWindow windowBack = new GeometryWindow(new VectorXZ(posback.x, params.breast), params,
+											transparent, materialRegistry);
 
 									mainSurface.addElementIfSpaceFree(windowFront);
 									backSurface.addElementIfSpaceFree(windowBack);
@@ -954,8 +967,8 @@ public class IndoorWall implements Renderable {
 
 									DoorParameters params = DoorParameters.fromTags(node.getTags(), data.getBuildingPart().getTags());
 
-									mainSurface.addElementIfSpaceFree(new Door(posFront, params));
-									backSurface.addElementIfSpaceFree(new Door(posback, params));
+									mainSurface.addElementIfSpaceFree(new Door(posFront, params, materialRegistry));
+									backSurface.addElementIfSpaceFree(new Door(posback, params, materialRegistry));
 
 								}
 							}
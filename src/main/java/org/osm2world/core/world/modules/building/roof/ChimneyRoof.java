@@ -4,7 +4,6 @@ import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.toList;
 import static org.osm2world.core.math.SimplePolygonXZ.asSimplePolygon;
-import static org.osm2world.core.target.common.material.Materials.VOID;
 import static org.osm2world.core.target.common.texcoord.TexCoordUtil.triangleTexCoordLists;
 
 import java.util.Collection;
@@ -27,8 +26,12 @@ import org.osm2world.core.target.common.texcoord.NamedTexCoordFunction;
 /** the top of a chimney, modeled as a special kind of "roof" */
 public class ChimneyRoof extends Roof {
 
-	public ChimneyRoof(PolygonWithHolesXZ originalPolygon, TagSet tags, Material material) {
+	/** material for the opening at the top of the chimney */
+	private final Material holeMaterial;
+
+	public ChimneyRoof(PolygonWithHolesXZ originalPolygon, TagSet tags, Material material, Material holeMaterial) {
 		super(originalPolygon, tags, 0, material);
+		this.holeMaterial = holeMaterial;
 	}
 
 	@Override
@@ -71,8 +74,8 @@ public class ChimneyRoof extends Roof {
 		List<TriangleXZ> holeTrianglesXZ = chimneyHole.getTriangulation();
 		List<TriangleXYZ> holeTriangles = holeTrianglesXZ.stream().map(t -> t.xyz(chimneyHoleEle)).collect(toList());
 
-		target.drawTriangles(VOID, holeTriangles,
-				triangleTexCoordLists(holeTriangles, VOID, NamedTexCoordFunction.GLOBAL_X_Z));
+		target.drawTriangles(holeMaterial, holeTriangles,
+				triangleTexCoordLists(holeTriangles, holeMaterial, NamedTexCoordFunction.GLOBAL_X_Z));
 
 		/* mark the location where a client might want to emit a smoke effect */
 
@@ -21,6 +21,8 @@ import org.osm2world.core.math.VectorXZ;
 import org.osm2world.core.target.Renderable;
 import org.osm2world.core.target.Target;
 import org.osm2world.core.target.common.material.Material;
+import org.osm2world.core.target.common.material.MaterialRegistry;
+import org.osm2world.core.target.common.material.Materials;
 import org.osm2world.core.world.attachment.AttachmentSurface;
 import org.osm2world.core.world.modules.building.BuildingPart;
 
@@ -80,7 +82,7 @@ abstract public class Roof {
 	 * creates the correct roof for the given roof:shape value
 	 */
 	public static final Roof createRoofForShape(String roofShape, MapArea area, PolygonWithHolesXZ originalPolygon,
-			TagSet tags, double height, Material material) {
+			TagSet tags, double height, Material material, MaterialRegistry materialRegistry) {
 
 		switch (roofShape) {
 		case "pyramidal": return new PyramidalRoof(originalPolygon, tags, height, material);
@@ -93,7 +95,7 @@ abstract public class Roof {
 		case "mansard": return new MansardRoof(originalPolygon, tags, height, material);
 		case "dome": return new DomeRoof(originalPolygon, tags, height, material);
 		case "round": return new RoundRoof(originalPolygon, tags, height, material);
-		case "chimney": return new ChimneyRoof(originalPolygon, tags, material);
+		case "chimney": return new ChimneyRoof(originalPolygon, tags, material, materialRegistry.get(Materials.VOID));
 		case "complex": return new ComplexRoof(area, originalPolygon, tags, height, material);
 		default: return new FlatRoof(originalPolygon, tags, material);
 		}
@@ -1,5 +1,8 @@
 package org.osm2world.core.world.modules.common;
 
+import java.util.Collection;
+import java.util.function.Consumer;
+
 import org.osm2world.core.map_data.data.MapArea;
 import org.osm2world.core.map_data.data.MapData;
 import org.osm2world.core.map_data.data.MapElement;
@@ -14,29 +17,36 @@ import org.osm2world.core.world.data.WorldObject;
  *
  * Subclasses need to be able to create {@link WorldObject}s
  * for each {@link MapElement} in isolation.
- * This can make parallel application of the module possible.
+ * This makes parallel application of the module possible,
+ * which can be enabled with the "parallelWorldModules" config option.
+ * Nodes, ways, way segments and areas are still processed one group after another.
  */
 public abstract class AbstractModule extends ConfigurableWorldModule {
 
 	@Override
 	public final void applyTo(MapData mapData) {
 
-		for (MapNode node : mapData.getMapNodes()) {
-			applyToNode(node);
-		}
+		boolean parallel = config != null && config.getBoolean("parallelWorldModules", false);
 
-		for (MapWay way : mapData.getMapWays()) {
-			applyToWay(way);
-		}
+		forEach(mapData.getMapNodes(), this::applyToNode, parallel);
+		forEach(mapData.getMapWays(), this::applyToWay, parallel);
+		forEach(mapData.getMapWaySegments(), this::applyToWaySegment, parallel);
+		forEach(mapData.getMapAreas(), this::applyToArea, parallel);
 
-		for (MapWaySegment waySegment : mapData.getMapWaySegments()) {
-			applyToWaySegment(waySegment);
-		}
+	}
 
-		for (MapArea area : mapData.getMapAreas()) {
-			applyToArea(area);
+	/**
+	 * applies an action to each element, either in order on the current thread
+	 * or distributed across the common fork-join pool.
+	 * Because each element only receives representations from its own invocation of the action,
+	 * the resulting representation lists are the same in both cases.
+	 */
+	private static <T> void forEach(Collection<T> elements, Consumer<? super T> action, boolean parallel) {
+		if (parallel) {
+			elements.parallelStream().forEach(action);
+		} else {
+			elements.forEach(action);
 		}
-
 	}
 
 	/**
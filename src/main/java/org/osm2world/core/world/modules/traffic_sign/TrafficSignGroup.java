@@ -20,6 +20,8 @@ import org.osm2world.core.map_elevation.data.GroundState;
 import org.osm2world.core.math.VectorXYZ;
 import org.osm2world.core.math.VectorXZ;
 import org.osm2world.core.target.Target;
+import org.osm2world.core.target.common.material.Material;
+import org.osm2world.core.target.common.material.MaterialRegistry;
 import org.osm2world.core.world.attachment.AttachmentConnector;
 import org.osm2world.core.world.data.NoOutlineNodeWorldObject;
 
@@ -40,20 +42,23 @@ public class TrafficSignGroup extends NoOutlineNodeWorldObject {
 	/** radius of the post. Will be ignored if the sign is attached to something else. */
 	public final double postRadius;
 
+	private final Material postMaterial;
+
 	private AttachmentConnector connector = null;
 
-	public TrafficSignGroup(MapNode node, Configuration config) {
+	public TrafficSignGroup(MapNode node, Configuration config, MaterialRegistry materialRegistry) {
 		// TODO remove this constructor and make the class immutable
-		this(node, null, null, null, config);
+		this(node, null, null, null, config, materialRegistry);
 	}
 
 	public TrafficSignGroup(MapNode node, List<TrafficSignModel> signs, VectorXZ position, @Nullable Double direction,
-			Configuration config) {
+			Configuration config, MaterialRegistry materialRegistry) {
 		super(node);
 		this.signs = signs;
 		this.position = position;
 		this.direction = direction;
 		this.postRadius = config.getDouble("standardPoleRadius", 0.05);
+		this.postMaterial = materialRegistry.get(STEEL);
 	}
 
 	@Override
@@ -126,7 +131,7 @@ public class TrafficSignGroup extends NoOutlineNodeWorldObject {
 					position = position.rotateVec(direction, basePositionXYZ, Y_UNIT);
 				}
 
-				target.drawColumn(STEEL, null, position,
+				target.drawColumn(postMaterial, null, position,
 						height, postRadius, postRadius,
 						false, true);
 
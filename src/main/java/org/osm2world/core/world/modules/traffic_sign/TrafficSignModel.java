@@ -22,6 +22,7 @@ import org.osm2world.core.target.common.material.ImmutableMaterial;
 import org.osm2world.core.target.common.material.Material;
 import org.osm2world.core.target.common.material.Material.Interpolation;
 import org.osm2world.core.target.common.material.Material.Transparency;
+import org.osm2world.core.target.common.material.MaterialRegistry;
 import org.osm2world.core.target.common.material.TextureData;
 import org.osm2world.core.target.common.material.TextureLayer;
 import org.osm2world.core.target.common.model.LegacyModel;
@@ -43,6 +44,8 @@ public class TrafficSignModel implements LegacyModel {
 	public final int numPosts;
 	public final double defaultHeight;
 
+	private final MaterialRegistry materialRegistry;
+
 	/**
 	 * the material of the back of a sign (uses the front material's alpha values to get the same shape)
 	 *
@@ -56,14 +59,17 @@ public class TrafficSignModel implements LegacyModel {
 	 */
 	private static final Map<Material, Material> frontMaterials = new HashMap<>();
 
-	public TrafficSignModel(Material material, TrafficSignType type, int numPosts, double height) {
+	public TrafficSignModel(Material material, TrafficSignType type, int numPosts, double height,
+			MaterialRegistry materialRegistry) {
 		this.material = material;
 		this.type = type;
 		this.numPosts = numPosts;
 		this.defaultHeight = height;
+		this.materialRegistry = materialRegistry;
 	}
 
-	public static TrafficSignModel create(TrafficSignIdentifier signId, TagSet tagsOfElement, Configuration config) {
+	public static TrafficSignModel create(TrafficSignIdentifier signId, TagSet tagsOfElement, Configuration config,
+			MaterialRegistry materialRegistry) {
 
 		/* prepare map with subtype and/or brackettext values */
 
@@ -78,14 +84,14 @@ public class TrafficSignModel implements LegacyModel {
 
 		/* load information about this type of sign from the configuration */
 
-		TrafficSignType type = TrafficSignType.fromConfig(signId, config);
+		TrafficSignType type = TrafficSignType.fromConfig(signId, config, materialRegistry);
 		if (type == null) { type = TrafficSignType.blankSign(); }
 
 		/* build the model */
 
 		return new TrafficSignModel(
 				type.material.withPlaceholdersFilledIn(map, tagsOfElement),
-				type, type.defaultNumPosts, type.defaultHeight);
+				type, type.defaultNumPosts, type.defaultHeight, materialRegistry);
 
 	}
 
@@ -146,21 +152,23 @@ public class TrafficSignModel implements LegacyModel {
 
 	}
 
-	private static Material getBackMaterial(TrafficSignType type) {
+	private Material getBackMaterial(TrafficSignType type) {
 
 		if (type.material.getNumTextureLayers() == 0) {
-			return STEEL;
+			return materialRegistry.get(STEEL);
 		}
 
 		if (!backMaterials.containsKey(type)) {
 
+			Material steel = materialRegistry.get(STEEL);
+
 			// use the transparency information from the front of the sign to cut out the correct shape for the back
 			return new ImmutableMaterial(
 					Interpolation.FLAT, WHITE, Transparency.BINARY, asList(new TextureLayer(
-						textureWithAlphaMask(type.material, STEEL.getTextureLayers().get(0).baseColorTexture),
-						textureWithAlphaMask(type.material, STEEL.getTextureLayers().get(0).normalTexture),
-						textureWithAlphaMask(type.material, STEEL.getTextureLayers().get(0).ormTexture),
-						textureWithAlphaMask(type.material, STEEL.getTextureLayers().get(0).displacementTexture),
+						textureWithAlphaMask(type.material, steel.getTextureLayers().get(0).baseColorTexture),
+						textureWithAlphaMask(type.material, steel.getTextureLayers().get(0).normalTexture),
+						textureWithAlphaMask(type.material, steel.getTextureLayers().get(0).ormTexture),
+						textureWithAlphaMask(type.material, steel.getTextureLayers().get(0).displacementTexture),
 						false)));
 		}
 
@@ -126,7 +126,7 @@ public class TrafficSignModule extends AbstractModule {
 
 							//place sign group at the beginning of the way
 							MapNode firstModelNode = topSegment.getStartNode();
-							firstModel = new TrafficSignGroup(firstModelNode, config);
+							firstModel = new TrafficSignGroup(firstModelNode, config, materialRegistry);
 
 							//get segment's driving side
 							side = RoadModule.getDrivingSide(topSegment, config);
@@ -200,7 +200,7 @@ public class TrafficSignModule extends AbstractModule {
 							MapWaySegment bottomSegment = way.getWaySegments().get(numOfSegments - 1);
 
 							MapNode secondModelNode = bottomSegment.getEndNode();
-							secondModel = new TrafficSignGroup(secondModelNode, config);
+							secondModel = new TrafficSignGroup(secondModelNode, config, materialRegistry);
 
 							//get segment's driving side
 							side = RoadModule.getDrivingSide(bottomSegment, config);
@@ -265,7 +265,7 @@ public class TrafficSignModule extends AbstractModule {
 						country = null;
 					}
 
-					models.add(TrafficSignModel.create(new TrafficSignIdentifier(country, sign), wayTags, config));
+					models.add(TrafficSignModel.create(new TrafficSignIdentifier(country, sign), wayTags, config, materialRegistry));
 
 				}
 
@@ -293,7 +293,7 @@ public class TrafficSignModule extends AbstractModule {
 					}
 
 					modelsForSecondSign.add(TrafficSignModel.create(
-							new TrafficSignIdentifier(country, sign), wayTags, config));
+							new TrafficSignIdentifier(country, sign), wayTags, config, materialRegistry));
 				}
 
 				if (models.size() > 0) {
@@ -327,11 +327,11 @@ public class TrafficSignModule extends AbstractModule {
 				TrafficSignIdentifier.parseTrafficSignValue(node.getTags().getValue("traffic_sign"));
 
 		List<TrafficSignModel> signs = new ArrayList<>(signIds.size());
-		signIds.forEach(sign -> signs.add(TrafficSignModel.create(sign, node.getTags(), config)));
+		signIds.forEach(sign -> signs.add(TrafficSignModel.create(sign, node.getTags(), config, materialRegistry)));
 
 		if (!signIds.isEmpty()) {
 			node.addRepresentation(new TrafficSignGroup(node, signs, node.getPos(),
-					parseDirection(node.getTags()), config));
+					parseDirection(node.getTags()), config, materialRegistry));
 		}
 
 	}
@@ -392,11 +392,11 @@ public class TrafficSignModule extends AbstractModule {
 		/* create a visual representation of the group of signs at each position */
 
 		List<TrafficSignModel> signs = new ArrayList<>(signIds.size());
-		signIds.forEach(sign -> signs.add(TrafficSignModel.create(sign, node.getTags(), config)));
+		signIds.forEach(sign -> signs.add(TrafficSignModel.create(sign, node.getTags(), config, materialRegistry)));
 
 		if (signs.size() > 0) {
 			for (VectorXZ position : positions) {
-				node.addRepresentation(new TrafficSignGroup(node, signs, position, direction, config));
+				node.addRepresentation(new TrafficSignGroup(node, signs, position, direction, config, materialRegistry));
 			}
 		}
 
@@ -604,7 +604,7 @@ public class TrafficSignModule extends AbstractModule {
 			TrafficSignIdentifier identifier = new TrafficSignIdentifier(null,
 					"DESTINATION_SIGN_" + arrowColour.toUpperCase() + "_" + pointingDirection.toUpperCase());
 
-			TrafficSignType type = TrafficSignType.fromConfig(identifier, config);
+			TrafficSignType type = TrafficSignType.fromConfig(identifier, config, materialRegistry);
 			if (type == null) { type = TrafficSignType.blankSign(); }
 
 			Material material = type.material.withPlaceholdersFilledIn(map, relation.getTags());
@@ -615,11 +615,11 @@ public class TrafficSignModule extends AbstractModule {
 			//set material text color
 			material = material.withTextColor(textColor, 1);
 
-			signs.add(new TrafficSignModel(material, type, type.defaultNumPosts, type.defaultHeight));
+			signs.add(new TrafficSignModel(material, type, type.defaultNumPosts, type.defaultHeight, materialRegistry));
 
 		}
 
-		node.addRepresentation(new TrafficSignGroup(node, signs, node.getPos(), direction, config));
+		node.addRepresentation(new TrafficSignGroup(node, signs, node.getPos(), direction, config, materialRegistry));
 
 	}
 
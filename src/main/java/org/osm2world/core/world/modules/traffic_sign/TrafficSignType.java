@@ -1,7 +1,6 @@
 package org.osm2world.core.world.modules.traffic_sign;
 
 import static java.awt.Color.WHITE;
-import static org.osm2world.core.target.common.material.Materials.getMaterial;
 
 import javax.annotation.Nullable;
 
@@ -9,6 +8,7 @@ import org.apache.commons.configuration.Configuration;
 import org.osm2world.core.target.common.material.ConfMaterial;
 import org.osm2world.core.target.common.material.Material;
 import org.osm2world.core.target.common.material.Material.Interpolation;
+import org.osm2world.core.target.common.material.MaterialRegistry;
 
 /**
  * a type of traffic sign, characterized by a name (country and id, by OSM convention) and information that might be
@@ -43,15 +43,17 @@ public class TrafficSignType {
 	 *
 	 * @return  a {@link TrafficSignType} with the the parsed values; null if the type does not exist or is invalid
 	 */
-	public static @Nullable TrafficSignType fromConfig(TrafficSignIdentifier sign, Configuration config) {
-		TrafficSignType result = fromConfig(sign.configKey(), config);
+	public static @Nullable TrafficSignType fromConfig(TrafficSignIdentifier sign, Configuration config,
+			MaterialRegistry materialRegistry) {
+		TrafficSignType result = fromConfig(sign.configKey(), config, materialRegistry);
 		if (result == null) {
-			result = fromConfig(sign.configKeyWithoutSubType(), config);
+			result = fromConfig(sign.configKeyWithoutSubType(), config, materialRegistry);
 		}
 		return result;
 	}
 
-	private static @Nullable TrafficSignType fromConfig(String configKey, Configuration config) {
+	private static @Nullable TrafficSignType fromConfig(String configKey, Configuration config,
+			MaterialRegistry materialRegistry) {
 
 		String keyPrefix = "trafficSign_" + configKey;
 
@@ -61,7 +63,7 @@ public class TrafficSignType {
 				config.getFloat("defaultTrafficSignHeight", 2));
 
 		String materialName = config.getString(keyPrefix + "_material", configKey).toUpperCase();
-		Material material = getMaterial(materialName);
+		Material material = materialRegistry.getMaterial(materialName);
 
 		if (material == null) {
 			return null;
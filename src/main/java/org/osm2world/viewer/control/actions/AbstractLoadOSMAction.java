@@ -41,8 +41,16 @@ public abstract class AbstractLoadOSMAction extends AbstractAction {
 	}
 
 	protected void loadOSMData(OSMDataReader dataReader, boolean resetCamera) {
+		loadOSMData(dataReader, resetCamera, false);
+	}
+
+	/**
+	 * @param incremental  whether the data replaces the current data as a modified version of it,
+	 *                     so that only the changes need to be converted
+	 */
+	protected void loadOSMData(OSMDataReader dataReader, boolean resetCamera, boolean incremental) {
 
-		LoadOSMThread thread = new LoadOSMThread(dataReader, resetCamera);
+		LoadOSMThread thread = new LoadOSMThread(dataReader, resetCamera, incremental);
 		thread.setUncaughtExceptionHandler(
 				new ConversionExceptionHandler(viewerFrame));
 		thread.start();
@@ -53,13 +61,15 @@ public abstract class AbstractLoadOSMAction extends AbstractAction {
 
 		private final OSMDataReader dataReader;
 		private final boolean resetCamera;
+		private final boolean incremental;
 
 		private ProgressDialog progressDialog;
 
-		public LoadOSMThread(OSMDataReader dataReader, boolean resetCamera) {
+		public LoadOSMThread(OSMDataReader dataReader, boolean resetCamera, boolean incremental) {
 			super("OpenOSMThread");
 			this.dataReader = dataReader;
 			this.resetCamera = resetCamera;
+			this.incremental = incremental;
 		}
 
 		@Override
@@ -81,12 +91,21 @@ public abstract class AbstractLoadOSMAction extends AbstractAction {
 
 				try {
 
-					data.loadOSMData(dataReader, failOnLargeBBox,
-							new DefaultFactory<TerrainInterpolator>(
-									renderOptions.getInterpolatorClass()),
-							new DefaultFactory<EleConstraintEnforcer>(
-									renderOptions.getEnforcerClass()),
-							this);
+					if (incremental) {
+						data.updateOSMData(dataReader,
+								new DefaultFactory<TerrainInterpolator>(
+										renderOptions.getInterpolatorClass()),
+								new DefaultFactory<EleConstraintEnforcer>(
+										renderOptions.getEnforcerClass()),
+								this);
+					} else {
+						data.loadOSMData(dataReader, failOnLargeBBox,
+								new DefaultFactory<TerrainInterpolator>(
+										renderOptions.getInterpolatorClass()),
+								new DefaultFactory<EleConstraintEnforcer>(
+										renderOptions.getEnforcerClass()),
+								this);
+					}
 
 					if (resetCamera) {
 						new ResetCameraAction(viewerFrame, data, renderOptions).actionPerformed(null);
@@ -6,6 +6,7 @@ import java.awt.event.KeyEvent;
 import javax.swing.JOptionPane;
 
 import org.osm2world.core.map_data.creation.LatLonBounds;
+import org.osm2world.core.osm.creation.OverpassCache;
 import org.osm2world.core.osm.creation.OverpassReader;
 import org.osm2world.viewer.model.Data;
 import org.osm2world.viewer.model.RenderOptions;
@@ -15,10 +16,6 @@ public class DownloadOverpassAction extends AbstractLoadOSMAction {
 
 	private static final long serialVersionUID = 1L;
 
-	ViewerFrame viewerFrame;
-	Data data;
-	RenderOptions renderOptions;
-
 	public DownloadOverpassAction(ViewerFrame viewerFrame, Data data, RenderOptions renderOptions) {
 
 		super("Download OSM data", viewerFrame, data, renderOptions);
@@ -33,7 +30,7 @@ public class DownloadOverpassAction extends AbstractLoadOSMAction {
 		LatLonBounds bounds = askLatLonBounds();
 
 		if (bounds != null) {
-			loadOSMData(new OverpassReader(bounds), true);
+			loadOSMData(new OverpassReader(bounds).withCache(OverpassCache.fromConfiguration(data.getConfig())), true);
 		}
 
 	}
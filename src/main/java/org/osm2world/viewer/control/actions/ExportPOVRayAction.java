@@ -62,6 +62,7 @@ public class ExportPOVRayAction extends AbstractExportAction {
 			POVRayWriter.writePOVInstructionFile(
 					file,
 					data.getConversionResults().getMapData(),
+					data.getConversionResults().getMaterialRegistry(),
 					povRayCamera, renderOptions.projection);
 
 			messageManager.addMessage("exported POVRay file " + file);
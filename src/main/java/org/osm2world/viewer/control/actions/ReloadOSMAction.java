@@ -3,44 +3,41 @@ package org.osm2world.viewer.control.actions;
 import java.awt.event.ActionEvent;
 import java.awt.event.KeyEvent;
 import java.io.File;
+import java.io.IOException;
 import java.util.Observable;
 import java.util.Observer;
 
-import javax.swing.AbstractAction;
 import javax.swing.JOptionPane;
 import javax.swing.KeyStroke;
 
+import org.apache.commons.configuration.ConfigurationConverter;
 import org.apache.commons.configuration.ConfigurationException;
 import org.apache.commons.configuration.PropertiesConfiguration;
+import org.osm2world.core.osm.creation.OSMFileReader;
 import org.osm2world.viewer.model.Data;
 import org.osm2world.viewer.model.RenderOptions;
 import org.osm2world.viewer.view.ViewerFrame;
 import org.osm2world.core.util.ConfigUtil;
 
 /**
- * reloads the previously opened OSM file
+ * reloads the previously opened OSM file.
+ * If the configuration is unchanged, only the parts of the file which have been modified are converted again.
  */
-public class ReloadOSMAction extends AbstractAction implements Observer {
+public class ReloadOSMAction extends AbstractLoadOSMAction implements Observer {
 
 	private static final long serialVersionUID = 1162049141590529184L; //generated serialVersionUID
-	private final ViewerFrame viewerFrame;
-	private final Data data;
-	private final RenderOptions renderOptions;
 	private final File configFile;
 
 	public ReloadOSMAction(ViewerFrame viewerFrame, Data data,
 			RenderOptions renderOptions, File configFile) {
 
-		super("Reload OSM file");
+		super("Reload OSM file", viewerFrame, data, renderOptions);
 		putValue(SHORT_DESCRIPTION, "Reloads the most recently opened OSM file" +
 				" and the configuration file");
 		putValue(MNEMONIC_KEY, KeyEvent.VK_R);
 		putValue(ACCELERATOR_KEY, KeyStroke.getKeyStroke(
 				KeyEvent.VK_R, ActionEvent.CTRL_MASK));
 
-		this.viewerFrame = viewerFrame;
-		this.data = data;
-		this.renderOptions = renderOptions;
 		this.configFile = configFile;
 
 		this.setEnabled(false);
@@ -55,6 +52,8 @@ public class ReloadOSMAction extends AbstractAction implements Observer {
 
 		/* reload config file */
 
+		boolean configChanged = false;
+
 		if (configFile != null) {
 
 			try {
@@ -62,6 +61,8 @@ public class ReloadOSMAction extends AbstractAction implements Observer {
 				PropertiesConfiguration fileConfig = new PropertiesConfiguration();
 				fileConfig.setListDelimiter(';');
 				fileConfig.load(configFile);
+				configChanged = !ConfigurationConverter.getProperties(fileConfig).equals(
+						ConfigurationConverter.getProperties(data.getConfig()));
 				data.setConfig(fileConfig);
 				ConfigUtil.parseFonts(fileConfig);
 
@@ -81,9 +82,24 @@ public class ReloadOSMAction extends AbstractAction implements Observer {
 
 		/* reload OSM file */
 
-		new OpenOSMAction(viewerFrame, data, renderOptions)
-				.openOSMFile(data.getOsmFile(), false);
-		
+		File osmFile = data.getOsmFile();
+		boolean tiledFile = osmFile.getName().endsWith(".mbtiles") || osmFile.getName().endsWith(".gol");
+
+		if (configChanged || tiledFile) {
+
+			new OpenOSMAction(viewerFrame, data, renderOptions).openOSMFile(osmFile, false);
+
+		} else {
+
+			try {
+				loadOSMData(new OSMFileReader(osmFile), false, true);
+			} catch (IOException e) {
+				JOptionPane.showMessageDialog(viewerFrame, "File not found:\n" + osmFile,
+						"Error", JOptionPane.ERROR_MESSAGE);
+			}
+
+		}
+
 	}
 
 	@Override
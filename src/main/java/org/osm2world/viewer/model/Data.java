@@ -3,6 +3,9 @@ package org.osm2world.viewer.model;
 import java.io.File;
 import java.io.IOException;
 import java.util.Observable;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.apache.commons.configuration.BaseConfiguration;
 import org.apache.commons.configuration.Configuration;
@@ -14,13 +17,17 @@ import org.osm2world.core.map_elevation.creation.EleConstraintEnforcer;
 import org.osm2world.core.map_elevation.creation.TerrainInterpolator;
 import org.osm2world.core.osm.creation.OSMDataReader;
 import org.osm2world.core.osm.creation.OSMFileReader;
+import org.osm2world.core.osm.data.OSMChange;
 import org.osm2world.core.util.functions.Factory;
 
 public class Data extends Observable {
 
 	private Configuration config = new BaseConfiguration();
-	private File osmFile = null;
-	private Results conversionResults = null;
+	private volatile File osmFile = null;
+	private volatile Results conversionResults = null;
+
+	/** guards the map data of the current results, which is modified by {@link #updateOSMData} */
+	private final ReadWriteLock mapDataLock = new ReentrantReadWriteLock();
 
 	public Configuration getConfig() {
 		return config;
@@ -49,11 +56,7 @@ public class Data extends Observable {
 				this.osmFile = null;
 			}
 
-			ConversionFacade converter = new ConversionFacade();
-			converter.setTerrainEleInterpolatorFactory(interpolatorFactory);
-			converter.setEleConstraintEnforcerFactory(enforcerFactory);
-
-			converter.addProgressListener(listener);
+			ConversionFacade converter = createConverter(interpolatorFactory, enforcerFactory, listener);
 
 			if (failOnLargeBBox) {
 				config.addProperty("maxBoundingBoxDegrees", 1);
@@ -87,6 +90,88 @@ public class Data extends Observable {
 
 	}
 
+	/**
+	 * replaces the OSM data with a modified version, e.g. after the file has been edited.
+	 * Only the parts of the data which have changed are converted again.
+	 * Behaves like {@link #loadOSMData(OSMDataReader, boolean, Factory, Factory, ProgressListener)}
+	 * if there are no previous results which could be updated.
+	 *
+	 * The map data of the previous results is modified during the update,
+	 * so other threads must hold the {@link #getMapDataReadLock()} while accessing it.
+	 * The new results replace the previous ones once the update has finished.
+	 * If reading the data fails, the previous results are kept.
+	 * If the update itself fails, the previous results are discarded as well.
+	 */
+	public void updateOSMData(OSMDataReader reader,
+			Factory<? extends TerrainInterpolator> interpolatorFactory,
+			Factory<? extends EleConstraintEnforcer> enforcerFactory,
+			ProgressListener listener)
+					throws IOException {
+
+		Results previousResults = conversionResults;
+
+		if (previousResults == null || previousResults.getOSMData() == null) {
+			loadOSMData(reader, false, interpolatorFactory, enforcerFactory, listener);
+			return;
+		}
+
+		OSMChange change = OSMChange.between(previousResults.getOSMData(), reader.getData());
+
+		ConversionFacade converter = createConverter(interpolatorFactory, enforcerFactory, listener);
+		converter.setMaterialRegistry(previousResults.getMaterialRegistry());
+
+		Results newResults;
+
+		mapDataLock.writeLock().lock();
+
+		try {
+
+			newResults = converter.updateRepresentations(previousResults, change, null, config, null);
+
+		} catch (IOException | RuntimeException e) {
+
+			// the previous results' map data may have been partially modified, so they can't be shown anymore
+
+			osmFile = null;
+			conversionResults = null;
+
+			this.setChanged();
+			this.notifyObservers();
+
+			throw e;
+
+		} finally {
+			mapDataLock.writeLock().unlock();
+		}
+
+		if (reader instanceof OSMFileReader) {
+			this.osmFile = ((OSMFileReader)reader).getFile();
+		} else {
+			this.osmFile = null;
+		}
+
+		conversionResults = newResults;
+
+		this.setChanged();
+		this.notifyObservers();
+
+	}
+
+	private static ConversionFacade createConverter(
+			Factory<? extends TerrainInterpolator> interpolatorFactory,
+			Factory<? extends EleConstraintEnforcer> enforcerFactory,
+			ProgressListener listener) {
+
+		ConversionFacade converter = new ConversionFacade();
+		converter.setTerrainEleInterpolatorFactory(interpolatorFactory);
+		converter.setEleConstraintEnforcerFactory(enforcerFactory);
+
+		converter.addProgressListener(listener);
+
+		return converter;
+
+	}
+
 	public File getOsmFile() {
 		return osmFile;
 	}
@@ -95,4 +180,12 @@ public class Data extends Observable {
 		return conversionResults;
 	}
 
+	/**
+	 * returns the lock which needs to be held while accessing the map data of the {@link #getConversionResults()}
+	 * from threads other than the one loading the data
+	 */
+	public Lock getMapDataReadLock() {
+		return mapDataLock.readLock();
+	}
+
 }
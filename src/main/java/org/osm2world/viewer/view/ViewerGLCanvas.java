@@ -1,6 +1,7 @@
 package org.osm2world.viewer.view;
 
 import java.awt.Color;
+import java.util.concurrent.locks.Lock;
 
 import org.osm2world.core.target.jogl.AbstractJOGLTarget;
 import org.osm2world.viewer.model.Data;
@@ -84,21 +85,34 @@ public class ViewerGLCanvas extends GLCanvas {
 //		        double height = tanAngle * dist;
 //		        renderOptions.projection = renderOptions.projection.withVolumeHeight(height);
 
-	        	/* draw debug views */
+	        	/* draw debug views, skipping those which would need map data that is currently being updated */
 
-	        	DebugView activeWorldObjectView = null;
+	        	Lock mapDataLock = data.getMapDataReadLock();
+	        	boolean mapDataAvailable = mapDataLock.tryLock();
 
-	        	for (DebugView debugView : renderOptions.activeDebugViews) {
-	        		if (debugView instanceof WorldObjectView) {
-	        			// needs to be rendered last because of transparency
-	        			activeWorldObjectView = debugView;
-	        			continue;
-	        		}
-	        		debugView.renderTo(gl, renderOptions.camera, renderOptions.projection);
-	        	}
+	        	try {
+
+		        	DebugView activeWorldObjectView = null;
 
-	        	if (activeWorldObjectView != null) {
-	        		activeWorldObjectView.renderTo(gl, renderOptions.camera, renderOptions.projection);
+		        	for (DebugView debugView : renderOptions.activeDebugViews) {
+		        		if (!mapDataAvailable && !debugView.isPrepared()) {
+		        			continue;
+		        		} else if (debugView instanceof WorldObjectView) {
+		        			// needs to be rendered last because of transparency
+		        			activeWorldObjectView = debugView;
+		        			continue;
+		        		}
+		        		debugView.renderTo(gl, renderOptions.camera, renderOptions.projection);
+		        	}
+
+		        	if (activeWorldObjectView != null) {
+		        		activeWorldObjectView.renderTo(gl, renderOptions.camera, renderOptions.projection);
+		        	}
+
+	        	} finally {
+	        		if (mapDataAvailable) {
+	        			mapDataLock.unlock();
+	        		}
 	        	}
 
 	        	/* write messages */
@@ -5,14 +5,18 @@ import static java.util.Collections.emptyList;
 
 import java.awt.Color;
 
+import javax.annotation.Nullable;
+
 import org.apache.commons.configuration.Configuration;
 import org.osm2world.core.ConversionFacade.Results;
 import org.osm2world.core.map_data.data.MapData;
 import org.osm2world.core.map_elevation.creation.TerrainElevationData;
 import org.osm2world.core.math.VectorXYZ;
 import org.osm2world.core.math.VectorXZ;
+import org.osm2world.core.target.common.MeshCache;
 import org.osm2world.core.target.common.material.ImmutableMaterial;
 import org.osm2world.core.target.common.material.Material.Interpolation;
+import org.osm2world.core.target.common.material.MaterialRegistry;
 import org.osm2world.core.target.common.rendering.Camera;
 import org.osm2world.core.target.common.rendering.Projection;
 import org.osm2world.core.target.jogl.JOGLRenderingParameters;
@@ -31,6 +35,8 @@ public abstract class DebugView {
 
 	protected MapData map;
 	protected TerrainElevationData eleData;
+	protected MeshCache meshCache;
+	protected MaterialRegistry materialRegistry;
 
 	protected Camera camera;
 	protected Projection projection;
@@ -61,10 +67,17 @@ public abstract class DebugView {
 		}
 	}
 
-	public void setConversionResults(Results conversionResults) {
+	/**
+	 * sets the results to be displayed
+	 *
+	 * @param conversionResults  the results, or null if there are no (valid) results
+	 */
+	public void setConversionResults(@Nullable Results conversionResults) {
 
-		this.map = conversionResults.getMapData();
-		this.eleData = conversionResults.getEleData();
+		this.map = conversionResults == null ? null : conversionResults.getMapData();
+		this.eleData = conversionResults == null ? null : conversionResults.getEleData();
+		this.meshCache = conversionResults == null ? null : conversionResults.getMeshCache();
+		this.materialRegistry = conversionResults == null ? null : conversionResults.getMaterialRegistry();
 
 		targetNeedsReset = true;
 	}
@@ -79,6 +92,14 @@ public abstract class DebugView {
 			&& eleData != null;
 	}
 
+	/**
+	 * returns true if the content has already been added to the target,
+	 * so {@link #renderTo(GL, Camera, Projection)} does not need to access the map data
+	 */
+	public boolean isPrepared() {
+		return target != null && target.isFinished() && !targetNeedsReset;
+	}
+
 	/**
 	 * returns a description of the debug view
 	 */
@@ -26,7 +26,7 @@ public class LatLonDebugView extends DebugView {
 	@Override
 	public void setConversionResults(Results conversionResults) {
 		super.setConversionResults(conversionResults);
-		mapProjection = conversionResults.getMapProjection();
+		mapProjection = conversionResults == null ? null : conversionResults.getMapProjection();
 	}
 
 	@Override
@@ -2,7 +2,6 @@ package org.osm2world.viewer.view.debug;
 
 import static org.osm2world.core.target.jogl.JOGLRenderingParameters.Winding.CCW;
 
-import org.osm2world.core.target.TargetUtil;
 import org.osm2world.core.target.common.lighting.GlobalLightingParameters;
 import org.osm2world.core.target.jogl.JOGLRenderingParameters;
 import org.osm2world.core.target.jogl.JOGLTarget;
@@ -36,7 +35,7 @@ public class ShadowView extends DebugView {
 
 			boolean underground = config.getBoolean("renderUnderground", true);
 
-			TargetUtil.renderWorldObjects(target, map, underground);
+			meshCache.renderTo(target, underground);
 		}
 	}
 
@@ -32,7 +32,7 @@ public class SkyboxView extends DebugView {
 		// draw the skybox close to the limits of the viewing distance
 		double skyboxSize = 1.95 * projection.getFarClippingDistance() / sqrt(3);
 
-		target.drawBox(Materials.SKYBOX,
+		target.drawBox(materialRegistry.get(Materials.SKYBOX),
 				camera.getPos().add(0, -skyboxSize / 2, 0),
 				VectorXZ.Z_UNIT, skyboxSize, skyboxSize, skyboxSize);
 
@@ -51,7 +51,7 @@ public abstract class TerrainInterpolatorDebugView extends DebugView {
 	@Override
 	public void setConversionResults(Results conversionResults) {
 		super.setConversionResults(conversionResults);
-		mapProjection = conversionResults.getMapProjection();
+		mapProjection = conversionResults == null ? null : conversionResults.getMapProjection();
 	}
 
 	@Override
@@ -11,6 +11,7 @@ import java.util.Random;
 import org.junit.Test;
 import org.osm2world.core.map_elevation.creation.DelaunayTriangulation;
 import org.osm2world.core.map_elevation.creation.DelaunayTriangulation.DelaunayTriangle;
+import org.osm2world.core.map_elevation.creation.DelaunayTriangulation.NaturalNeighbors;
 import org.osm2world.core.math.AxisAlignedRectangleXZ;
 import org.osm2world.core.math.VectorXYZ;
 import org.osm2world.core.math.VectorXZ;
@@ -66,6 +67,43 @@ public class DelaunayTriangulationTest {
 
 	}
 
+	@Test
+	public void testProbeWithStartTriangle() {
+
+		Random random = new Random(42);
+
+		AxisAlignedRectangleXZ bounds = new AxisAlignedRectangleXZ(
+				-SIZE, -SIZE, +SIZE, +SIZE);
+
+		DelaunayTriangulation triangulation = new DelaunayTriangulation(bounds);
+
+		for (int i = 0; i < 100; i++) {
+			double x = (random.nextDouble() * 1.8 * SIZE) - 0.9 * SIZE;
+			double z = (random.nextDouble() * 1.8 * SIZE) - 0.9 * SIZE;
+			triangulation.insert(new VectorXYZ(x, random.nextDouble() * 10, z));
+		}
+
+		DelaunayTriangle startTriangle = triangulation.handleTriangle;
+
+		for (int i = 0; i < 50; i++) {
+
+			VectorXZ point = new VectorXZ(
+					(random.nextDouble() * 1.6 * SIZE) - 0.8 * SIZE,
+					(random.nextDouble() * 1.6 * SIZE) - 0.8 * SIZE);
+
+			NaturalNeighbors expected = triangulation.probe(point);
+			NaturalNeighbors actual = triangulation.probe(point, startTriangle);
+
+			assertSame(expected.enclosingTriangle, actual.enclosingTriangle);
+			assertEquals(asList(expected.neighbors), asList(actual.neighbors));
+			assertArrayEquals(expected.relativeWeights, actual.relativeWeights, 1e-10);
+
+			startTriangle = actual.enclosingTriangle;
+
+		}
+
+	}
+
 	/**
 	 * asserts that two triangulations are equal
 	 */
@@ -0,0 +1,26 @@
+package org.osm2world.console;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+
+import org.junit.Test;
+import org.osm2world.core.target.common.rendering.TileNumber;
+
+public class RegionModeTest {
+
+	@Test
+	public void testOutputFileForTile() {
+
+		TileNumber tile = new TileNumber(13, 4402, 2828);
+
+		assertEquals(new File("tiles/13/4402/2828.o2w.pbf"),
+				RegionMode.outputFileForTile(new File("tiles/{z}/{x}/{y}.o2w.pbf"), tile));
+		assertEquals(new File("out/region_13_4402_2828.o2w.pbf"),
+				RegionMode.outputFileForTile(new File("out/region.o2w.pbf"), tile));
+		assertEquals(new File("out/region_13_4402_2828.gltf"),
+				RegionMode.outputFileForTile(new File("out/region.gltf"), tile));
+
+	}
+
+}
@@ -0,0 +1,74 @@
+package org.osm2world.core;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.configuration.MapConfiguration;
+import org.junit.Test;
+import org.osm2world.core.ConversionFacade.Phase;
+import org.osm2world.core.ConversionFacade.Results;
+import org.osm2world.core.ConversionMetrics.Count;
+import org.osm2world.core.map_data.creation.LatLon;
+import org.osm2world.core.map_data.creation.MetricMapProjection;
+import org.osm2world.core.map_data.data.MapData;
+import org.osm2world.core.test.TestMapDataGenerator;
+import org.osm2world.core.test.TestWorldModule;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+public class ConversionMetricsTest {
+
+	@Test
+	public void testConversionMetrics() throws IOException {
+
+		TestMapDataGenerator generator = new TestMapDataGenerator();
+		generator.createNode(0, 0);
+		generator.createNode(10, 0);
+		generator.createNode(0, 20);
+		MapData mapData = generator.createMapData();
+
+		Map<String, Object> configMap = new HashMap<>();
+		configMap.put("metricsCountTriangles", true);
+
+		Results results = new ConversionFacade().createRepresentations(new MetricMapProjection(new LatLon(0, 0)),
+				mapData, asList(new TestWorldModule()), new MapConfiguration(configMap), null);
+
+		results.getMeshCache().getMeshStore();
+
+		ConversionMetrics metrics = results.getMetrics();
+
+		assertEquals(3, metrics.getCount(Count.MAP_ELEMENTS));
+		assertEquals(0, metrics.getCount(Count.OVERLAPS));
+		assertEquals(3, metrics.getCount(Count.WORLD_OBJECTS));
+		assertEquals(3, metrics.getCount(Count.TRIANGLES));
+
+		assertTrue(metrics.getWallTimeNanos(Phase.REPRESENTATION) > 0);
+		assertEquals(0, metrics.getWallTimeNanos(Phase.MAP_DATA));
+
+		assertEquals(asList("TestWorldModule"), asList(metrics.getModuleTimesNanos().keySet().toArray()));
+		assertEquals(Long.valueOf(3),
+				metrics.getWorldObjectCounts().get("TestWorldModule$TestNodeWorldObject"));
+
+		/* check the exports */
+
+		StringWriter jsonWriter = new StringWriter();
+		metrics.writeJson(jsonWriter);
+		JsonObject json = JsonParser.parseString(jsonWriter.toString()).getAsJsonObject();
+		assertEquals(3, json.getAsJsonObject("counts").get("WORLD_OBJECTS").getAsInt());
+		assertTrue(json.getAsJsonObject("phases").has("TERRAIN"));
+
+		StringWriter csvWriter = new StringWriter();
+		metrics.writeCsv(csvWriter);
+		String[] csvLines = csvWriter.toString().split("\n");
+		assertEquals("category,name,metric,value", csvLines[0]);
+		assertTrue(asList(csvLines).contains("count,TRIANGLES,count,3"));
+
+	}
+
+}
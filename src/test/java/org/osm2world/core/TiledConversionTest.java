@@ -0,0 +1,84 @@
+package org.osm2world.core;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.configuration.BaseConfiguration;
+import org.junit.Test;
+import org.osm2world.core.map_data.creation.LatLon;
+import org.osm2world.core.map_data.creation.LatLonBounds;
+import org.osm2world.core.math.AxisAlignedRectangleXZ;
+import org.osm2world.core.osm.data.OSMData;
+import org.osm2world.core.target.common.rendering.TileNumber;
+
+import de.topobyte.osm4j.core.model.impl.Node;
+import de.topobyte.osm4j.core.model.impl.Tag;
+
+public class TiledConversionTest {
+
+	@Test
+	public void testParallelTilesForBudget() {
+		assertEquals(1, TiledConversion.parallelTilesForBudget(100, 1000, 8));
+		assertEquals(4, TiledConversion.parallelTilesForBudget(4000, 1000, 8));
+		assertEquals(8, TiledConversion.parallelTilesForBudget(100000, 1000, 8));
+	}
+
+	@Test
+	public void testConvert() {
+
+		LatLonBounds bounds = new LatLonBounds(new LatLon(50.0, 8.0), new LatLon(50.01, 8.01));
+		int zoom = 16;
+
+		BaseConfiguration config = new BaseConfiguration();
+		config.setProperty("regionTileMargin", 50);
+
+		Map<TileNumber, LatLonBounds> inputBounds = new ConcurrentHashMap<>();
+		Map<TileNumber, AxisAlignedRectangleXZ> outputBounds = new ConcurrentHashMap<>();
+		Set<LatLon> projectionOrigins = ConcurrentHashMap.newKeySet();
+
+		/* provide two trees near the center of each tile's input bounds */
+
+		TiledConversion tiledConversion = new TiledConversion(config, ConversionFacade::new, null);
+
+		var failedTiles = tiledConversion.convert(bounds, zoom, (tile, tileInputBounds) -> {
+			inputBounds.put(tile, tileInputBounds);
+			LatLon center = tileInputBounds.getCenter();
+			Node node1 = new Node(1, center.lon, center.lat);
+			Node node2 = new Node(2, center.lon + 0.0001, center.lat);
+			node1.setTags(asList(new Tag("natural", "tree")));
+			node2.setTags(asList(new Tag("natural", "tree")));
+			return new OSMData(emptyList(), asList(node1, node2), emptyList(), emptyList());
+		}, (tile, tileBounds, results) -> {
+			outputBounds.put(tile, tileBounds);
+			projectionOrigins.add(results.getMapProjection().getOrigin());
+			assertEquals(2, results.getMapData().getMapNodes().size());
+		});
+
+		assertEquals(emptyList(), failedTiles);
+
+		Set<TileNumber> expectedTiles = new HashSet<>(TileNumber.tilesForBounds(zoom, bounds));
+		assertEquals(expectedTiles, inputBounds.keySet());
+		assertEquals(expectedTiles, outputBounds.keySet());
+
+		/* all tiles share a projection, and the input includes the margin */
+
+		assertEquals(1, projectionOrigins.size());
+
+		for (TileNumber tile : expectedTiles) {
+			LatLonBounds tileBounds = tile.bounds();
+			LatLonBounds tileInputBounds = inputBounds.get(tile);
+			assertTrue(tileInputBounds.minlat < tileBounds.minlat);
+			assertTrue(tileInputBounds.minlon < tileBounds.minlon);
+			assertTrue(tileInputBounds.maxlat > tileBounds.maxlat);
+			assertTrue(tileInputBounds.maxlon > tileBounds.maxlon);
+		}
+
+	}
+
+}
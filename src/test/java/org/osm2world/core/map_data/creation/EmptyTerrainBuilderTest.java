@@ -0,0 +1,158 @@
+package org.osm2world.core.map_data.creation;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+import static org.osm2world.core.map_data.creation.EmptyTerrainBuilder.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+import org.osm2world.core.map_data.data.MapArea;
+import org.osm2world.core.map_data.data.MapNode;
+import org.osm2world.core.map_data.data.TagSet;
+import org.osm2world.core.math.AxisAlignedRectangleXZ;
+import org.osm2world.core.math.VectorXZ;
+
+public class EmptyTerrainBuilderTest {
+
+	/** the grid for these bounds has 35 points from 0 to 1020 along each axis */
+	private static final AxisAlignedRectangleXZ BOUNDS = new AxisAlignedRectangleXZ(0, 0, 1000, 1000);
+
+	private static final double GRID_AREA = 1020.0 * 1020.0;
+
+	private static MapArea createSquare(double min, double max, TagSet tags) {
+		MapNode n0 = new MapNode(1, TagSet.of(), new VectorXZ(min, min));
+		MapNode n1 = new MapNode(2, TagSet.of(), new VectorXZ(max, min));
+		MapNode n2 = new MapNode(3, TagSet.of(), new VectorXZ(max, max));
+		MapNode n3 = new MapNode(4, TagSet.of(), new VectorXZ(min, max));
+		return new MapArea(1, false, tags, asList(n0, n1, n2, n3, n0));
+	}
+
+	private static List<MapArea> emptyTerrainAreas(List<MapArea> mapAreas) {
+		List<MapArea> result = new ArrayList<>();
+		for (MapArea area : mapAreas) {
+			if (area.getTags().contains("surface", EMPTY_SURFACE_VALUE)) {
+				result.add(area);
+			}
+		}
+		return result;
+	}
+
+	private static double totalArea(List<MapArea> areas) {
+		return areas.stream().mapToDouble(a -> a.getPolygon().getArea()).sum();
+	}
+
+	/** checks that the patches' nodes are all in the list of nodes and are shared between neighboring patches */
+	private static void assertNodesConsistent(List<MapNode> mapNodes, List<MapArea> patches) {
+		for (MapArea patch : patches) {
+			assertTrue(new HashSet<>(mapNodes).containsAll(patch.getBoundaryNodes()));
+		}
+		assertEquals(mapNodes.size(), new HashSet<>(mapNodes).size());
+	}
+
+	@Test
+	public void testRegularPatches() {
+
+		List<MapNode> mapNodes = new ArrayList<>();
+		List<MapArea> mapAreas = new ArrayList<>();
+
+		createAreasForEmptyTerrain(mapNodes, mapAreas, BOUNDS, false, false);
+
+		assertEquals(16, mapAreas.size());
+		assertEquals(GRID_AREA, totalArea(mapAreas), 1e-6);
+		assertNodesConsistent(mapNodes, mapAreas);
+
+	}
+
+	@Test
+	public void testMergedPatches() {
+
+		List<MapNode> mapNodes = new ArrayList<>();
+		List<MapArea> mapAreas = new ArrayList<>();
+
+		createAreasForEmptyTerrain(mapNodes, mapAreas, BOUNDS, true, false);
+
+		assertEquals(4, mapAreas.size());
+		assertEquals(GRID_AREA, totalArea(mapAreas), 1e-6);
+		assertNodesConsistent(mapNodes, mapAreas);
+
+	}
+
+	@Test
+	public void testCoveredPatches() {
+
+		MapArea grass = createSquare(100, 910, TagSet.of("landuse", "grass"));
+
+		List<MapNode> mapNodes = new ArrayList<>();
+		List<MapArea> mapAreas = new ArrayList<>(List.of(grass));
+
+		createAreasForEmptyTerrain(mapNodes, mapAreas, BOUNDS, true, true);
+
+		/* the 2x2 patches from 300 to 900 are covered by the grass area */
+
+		List<MapArea> patches = emptyTerrainAreas(mapAreas);
+		assertEquals(12, patches.size());
+		assertEquals(GRID_AREA - 600.0 * 600.0, totalArea(patches), 1e-6);
+		assertNodesConsistent(mapNodes, patches);
+
+		/* areas which don't replace the terrain are ignored */
+
+		MapArea residential = createSquare(100, 910, TagSet.of("landuse", "residential"));
+
+		mapNodes = new ArrayList<>();
+		mapAreas = new ArrayList<>(List.of(residential));
+
+		createAreasForEmptyTerrain(mapNodes, mapAreas, BOUNDS, true, true);
+
+		assertEquals(16, emptyTerrainAreas(mapAreas).size());
+
+	}
+
+	@Test
+	public void testCoveredPatchesKeptByDefault() {
+
+		MapArea grass = createSquare(100, 910, TagSet.of("landuse", "grass"));
+
+		List<MapNode> mapNodes = new ArrayList<>();
+		List<MapArea> mapAreas = new ArrayList<>(List.of(grass));
+
+		createAreasForEmptyTerrain(mapNodes, mapAreas, BOUNDS, true, false);
+
+		List<MapArea> patches = emptyTerrainAreas(mapAreas);
+		assertEquals(16, patches.size());
+		assertEquals(GRID_AREA, totalArea(patches), 1e-6);
+		assertNodesConsistent(mapNodes, patches);
+
+	}
+
+	@Test
+	public void testCovers() {
+
+		MapArea area = createSquare(100, 910, TagSet.of("landuse", "grass"));
+
+		assertTrue(covers(area, new AxisAlignedRectangleXZ(300, 300, 600, 600)));
+		assertFalse(covers(area, new AxisAlignedRectangleXZ(0, 300, 300, 600)));
+		assertFalse(covers(area, new AxisAlignedRectangleXZ(600, 600, 910, 910)));
+		assertFalse(covers(area, new AxisAlignedRectangleXZ(1000, 1000, 1100, 1100)));
+
+	}
+
+	@Test
+	public void testCoversTerrain() {
+
+		assertTrue(coversTerrain(TagSet.of("building", "yes")));
+		assertTrue(coversTerrain(TagSet.of("surface", "asphalt")));
+		assertTrue(coversTerrain(TagSet.of("natural", "water")));
+		assertTrue(coversTerrain(TagSet.of("natural", "water", "layer", "0")));
+
+		assertFalse(coversTerrain(TagSet.of("building", "yes", "layer", "1")));
+		assertFalse(coversTerrain(TagSet.of("building", "roof")));
+		assertFalse(coversTerrain(TagSet.of("building", "yes", "location", "underground")));
+		assertFalse(coversTerrain(TagSet.of("landuse", "residential")));
+		assertFalse(coversTerrain(TagSet.of("surface", EMPTY_SURFACE_VALUE)));
+
+	}
+
+}
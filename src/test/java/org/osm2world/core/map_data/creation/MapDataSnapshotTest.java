@@ -0,0 +1,141 @@
+package org.osm2world.core.map_data.creation;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.configuration.BaseConfiguration;
+import org.junit.Test;
+import org.osm2world.core.map_data.data.MapArea;
+import org.osm2world.core.map_data.data.MapData;
+import org.osm2world.core.map_data.data.MapNode;
+import org.osm2world.core.map_data.data.MapRelation;
+import org.osm2world.core.map_data.data.MapWay;
+import org.osm2world.core.map_data.data.MapWaySegment;
+import org.osm2world.core.map_data.data.overlaps.MapOverlap;
+import org.osm2world.core.osm.creation.OSMFileReader;
+import org.osm2world.core.osm.data.OSMData;
+
+import de.topobyte.osm4j.core.resolve.EntityNotFoundException;
+
+public class MapDataSnapshotTest {
+
+	@Test
+	public void testRoundTrip() throws IOException, EntityNotFoundException {
+		for (String filename : List.of("simpleTest01.osm", "mp_two_holes.osm", "issue-203.osm")) {
+			testRoundTrip(filename);
+		}
+	}
+
+	private static void testRoundTrip(String filename) throws IOException, EntityNotFoundException {
+
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		File testFile = new File(classLoader.getResource(filename).getFile());
+
+		OSMData osmData = new OSMFileReader(testFile).getData();
+		MapProjection mapProjection = new MetricMapProjection(osmData.getCenter());
+		MapData expected = new OSMToMapDataConverter(mapProjection, new BaseConfiguration()).createMapData(osmData);
+
+		File snapshotFile = Files.createTempFile("o2w-test-", ".snapshot").toFile();
+
+		try {
+
+			new MapDataSnapshot(mapProjection, expected).write(snapshotFile);
+			MapDataSnapshot snapshot = MapDataSnapshot.read(snapshotFile, MetricMapProjection::new);
+
+			assertEquals(mapProjection.getOrigin().lat, snapshot.getMapProjection().getOrigin().lat, 0);
+			assertEquals(mapProjection.getOrigin().lon, snapshot.getMapProjection().getOrigin().lon, 0);
+
+			MapData actual = snapshot.getMapData();
+
+			assertEquals(expected.getBoundary().minX, actual.getBoundary().minX, 0);
+			assertEquals(expected.getBoundary().minZ, actual.getBoundary().minZ, 0);
+			assertEquals(expected.getBoundary().maxX, actual.getBoundary().maxX, 0);
+			assertEquals(expected.getBoundary().maxZ, actual.getBoundary().maxZ, 0);
+
+			List<MapNode> expectedNodes = new ArrayList<>(expected.getMapNodes());
+			List<MapNode> actualNodes = new ArrayList<>(actual.getMapNodes());
+			assertEquals(expectedNodes.size(), actualNodes.size());
+			for (int i = 0; i < expectedNodes.size(); i++) {
+				assertEquals(expectedNodes.get(i).getId(), actualNodes.get(i).getId());
+				assertEquals(expectedNodes.get(i).getPos(), actualNodes.get(i).getPos());
+				assertEquals(expectedNodes.get(i).getTags(), actualNodes.get(i).getTags());
+			}
+
+			List<MapWay> expectedWays = new ArrayList<>(expected.getMapWays());
+			List<MapWay> actualWays = new ArrayList<>(actual.getMapWays());
+			assertEquals(expectedWays.size(), actualWays.size());
+			for (int i = 0; i < expectedWays.size(); i++) {
+				assertEquals(expectedWays.get(i).getId(), actualWays.get(i).getId());
+				assertEquals(expectedWays.get(i).getTags(), actualWays.get(i).getTags());
+				assertEquals(expectedWays.get(i).getNodes().size(), actualWays.get(i).getNodes().size());
+			}
+
+			List<MapWaySegment> expectedSegments = new ArrayList<>(expected.getMapWaySegments());
+			List<MapWaySegment> actualSegments = new ArrayList<>(actual.getMapWaySegments());
+			assertEquals(expectedSegments.size(), actualSegments.size());
+			for (int i = 0; i < expectedSegments.size(); i++) {
+				assertOverlapsEqual(expectedSegments.get(i).getOverlaps(), actualSegments.get(i).getOverlaps());
+			}
+
+			List<MapArea> expectedAreas = new ArrayList<>(expected.getMapAreas());
+			List<MapArea> actualAreas = new ArrayList<>(actual.getMapAreas());
+			assertEquals(expectedAreas.size(), actualAreas.size());
+			for (int i = 0; i < expectedAreas.size(); i++) {
+				MapArea e = expectedAreas.get(i);
+				MapArea a = actualAreas.get(i);
+				assertEquals(e.getId(), a.getId());
+				assertEquals(e.isBasedOnRelation(), a.isBasedOnRelation());
+				assertEquals(e.getTags(), a.getTags());
+				assertEquals(e.getHoles().size(), a.getHoles().size());
+				assertEquals(e.getAreaSegments().size(), a.getAreaSegments().size());
+				assertEquals(e.getPolygon().getArea(), a.getPolygon().getArea(), 0);
+				assertOverlapsEqual(e.getOverlaps(), a.getOverlaps());
+			}
+
+			List<MapRelation> expectedRelations = expected.getMapRelations();
+			List<MapRelation> actualRelations = actual.getMapRelations();
+			assertEquals(expectedRelations.size(), actualRelations.size());
+			for (int i = 0; i < expectedRelations.size(); i++) {
+				assertEquals(expectedRelations.get(i).getId(), actualRelations.get(i).getId());
+				assertEquals(expectedRelations.get(i).getTags(), actualRelations.get(i).getTags());
+				assertEquals(expectedRelations.get(i).getMemberships().size(),
+						actualRelations.get(i).getMemberships().size());
+			}
+
+		} finally {
+			snapshotFile.delete();
+		}
+
+	}
+
+	private static void assertOverlapsEqual(Iterable<MapOverlap<?, ?>> expected, Iterable<MapOverlap<?, ?>> actual) {
+		List<MapOverlap<?, ?>> expectedList = new ArrayList<>();
+		List<MapOverlap<?, ?>> actualList = new ArrayList<>();
+		expected.forEach(expectedList::add);
+		actual.forEach(actualList::add);
+		assertEquals(expectedList.size(), actualList.size());
+		for (int i = 0; i < expectedList.size(); i++) {
+			assertSame(expectedList.get(i).getClass(), actualList.get(i).getClass());
+			assertSame(expectedList.get(i).type, actualList.get(i).type);
+			assertEquals(expectedList.get(i).e1.toString(), actualList.get(i).e1.toString());
+			assertEquals(expectedList.get(i).e2.toString(), actualList.get(i).e2.toString());
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testInvalidFile() throws IOException {
+		File file = Files.createTempFile("o2w-test-", ".snapshot").toFile();
+		try {
+			Files.writeString(file.toPath(), "<osm></osm>");
+			MapDataSnapshot.read(file, MetricMapProjection::new);
+		} finally {
+			file.delete();
+		}
+	}
+
+}
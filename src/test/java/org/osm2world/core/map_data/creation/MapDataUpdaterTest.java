@@ -0,0 +1,331 @@
+package org.osm2world.core.map_data.creation;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.commons.configuration.Configuration;
+import org.junit.Test;
+import org.osm2world.core.map_data.creation.MapDataUpdater.Update;
+import org.osm2world.core.map_data.data.MapArea;
+import org.osm2world.core.map_data.data.MapData;
+import org.osm2world.core.map_data.data.MapElement;
+import org.osm2world.core.map_data.data.MapNode;
+import org.osm2world.core.map_data.data.MapRelation;
+import org.osm2world.core.map_data.data.overlaps.MapOverlap;
+import org.osm2world.core.osm.data.OSMChange;
+import org.osm2world.core.osm.data.OSMData;
+
+import com.slimjars.dist.gnu.trove.list.array.TLongArrayList;
+
+import de.topobyte.osm4j.core.model.iface.EntityType;
+import de.topobyte.osm4j.core.model.iface.OsmNode;
+import de.topobyte.osm4j.core.model.iface.OsmRelation;
+import de.topobyte.osm4j.core.model.iface.OsmWay;
+import de.topobyte.osm4j.core.model.impl.Node;
+import de.topobyte.osm4j.core.model.impl.Relation;
+import de.topobyte.osm4j.core.model.impl.RelationMember;
+import de.topobyte.osm4j.core.model.impl.Tag;
+import de.topobyte.osm4j.core.model.impl.Way;
+import de.topobyte.osm4j.core.resolve.EntityNotFoundException;
+
+public class MapDataUpdaterTest {
+
+	private static final MapProjection PROJECTION = new MetricMapProjection(new LatLon(0, 0));
+	private static final Configuration CONFIG = new BaseConfiguration();
+
+	/** distance between neighbouring nodes in degrees, roughly 11 meters */
+	private static final double D = 0.0001;
+
+	/**
+	 * a small test dataset: two crossing roads (w1, w2) with a building (w3) on one of them,
+	 * a multipolygon (r1) with outer way w4, a distant building (w5), and a bridge relation (r2) containing w1
+	 */
+	private static OSMData createTestData() {
+
+		List<OsmNode> nodes = new ArrayList<>();
+		nodes.add(node(1, 0, 0));
+		nodes.add(node(2, 0, 2));
+		nodes.add(node(3, 0, 4));
+		nodes.add(node(4, -2, 2));
+		nodes.add(node(5, 2, 2));
+		nodes.add(node(11, 1, 3));
+		nodes.add(node(12, 1, 5));
+		nodes.add(node(13, -1, 5));
+		nodes.add(node(14, -1, 3));
+		nodes.add(node(21, 3, -3));
+		nodes.add(node(22, 3, -1));
+		nodes.add(node(23, 5, -1));
+		nodes.add(node(24, 5, -3));
+		nodes.add(node(31, 50, 50));
+		nodes.add(node(32, 50, 52));
+		nodes.add(node(33, 52, 52));
+		nodes.add(node(34, 52, 50));
+
+		List<OsmWay> ways = new ArrayList<>();
+		ways.add(way(1, asList(1L, 2L, 3L), new Tag("highway", "residential")));
+		ways.add(way(2, asList(4L, 2L, 5L), new Tag("highway", "service")));
+		ways.add(way(3, asList(11L, 12L, 13L, 14L, 11L), new Tag("building", "yes")));
+		ways.add(way(4, asList(21L, 22L, 23L, 24L, 21L)));
+		ways.add(way(5, asList(31L, 32L, 33L, 34L, 31L), new Tag("building", "yes")));
+
+		List<OsmRelation> relations = new ArrayList<>();
+		relations.add(new Relation(1, asList(new RelationMember(4, EntityType.Way, "outer")),
+				asList(new Tag("type", "multipolygon"), new Tag("landuse", "grass"))));
+		relations.add(new Relation(2, asList(new RelationMember(1, EntityType.Way, "across")),
+				asList(new Tag("type", "bridge"))));
+
+		return new OSMData(emptyList(), nodes, ways, relations);
+
+	}
+
+	@Test
+	public void testMoveNode() throws IOException, EntityNotFoundException {
+		OSMChange change = new OSMChange();
+		change.addNode(node(2, 0.5, 2.5));
+		assertUpdateMatchesFullConversion(createTestData(), change);
+	}
+
+	@Test
+	public void testDeleteWay() throws IOException, EntityNotFoundException {
+		OSMChange change = new OSMChange();
+		change.deleteWay(2);
+		change.deleteNode(4);
+		change.deleteNode(5);
+		assertUpdateMatchesFullConversion(createTestData(), change);
+	}
+
+	@Test
+	public void testAddWay() throws IOException, EntityNotFoundException {
+		OSMChange change = new OSMChange();
+		change.addNode(node(41, -3, 4));
+		change.addNode(node(42, 3, 4));
+		change.addWay(way(41, asList(41L, 42L), new Tag("highway", "footway")));
+		assertUpdateMatchesFullConversion(createTestData(), change);
+	}
+
+	@Test
+	public void testModifyTags() throws IOException, EntityNotFoundException {
+		OSMChange change = new OSMChange();
+		change.addWay(way(3, asList(11L, 12L, 13L, 14L, 11L), new Tag("amenity", "parking")));
+		assertUpdateMatchesFullConversion(createTestData(), change);
+	}
+
+	@Test
+	public void testMoveMultipolygonNode() throws IOException, EntityNotFoundException {
+		OSMChange change = new OSMChange();
+		change.addNode(node(22, 2, -1));
+		assertUpdateMatchesFullConversion(createTestData(), change);
+	}
+
+	@Test
+	public void testMoveNestedRelationNode() throws IOException, EntityNotFoundException {
+
+		// a relation containing the multipolygon and its outer way
+		OSMData testData = createTestData();
+		List<OsmRelation> relations = new ArrayList<>(testData.getRelations());
+		relations.add(new Relation(3, asList(
+				new RelationMember(1, EntityType.Relation, ""),
+				new RelationMember(4, EntityType.Way, "")),
+				asList(new Tag("type", "site"))));
+		OSMData osmData = new OSMData(emptyList(), testData.getNodes(), testData.getWays(), relations);
+
+		OSMChange change = new OSMChange();
+		change.addNode(node(22, 2, -1));
+		assertUpdateMatchesFullConversion(osmData, change);
+
+	}
+
+	@Test
+	public void testParentOfMultiAreaMultipolygon() throws IOException, EntityNotFoundException {
+
+		// a multipolygon with two separate outer rings and a relation containing it and the distant building
+		OSMData testData = createTestData();
+		List<OsmNode> nodes = new ArrayList<>(testData.getNodes());
+		nodes.add(node(25, 7, -3));
+		nodes.add(node(26, 7, -1));
+		nodes.add(node(27, 9, -1));
+		nodes.add(node(28, 9, -3));
+		List<OsmWay> ways = new ArrayList<>(testData.getWays());
+		ways.add(way(7, asList(25L, 26L, 27L, 28L, 25L)));
+		List<OsmRelation> relations = new ArrayList<>();
+		relations.add(new Relation(1, asList(
+				new RelationMember(4, EntityType.Way, "outer"),
+				new RelationMember(7, EntityType.Way, "outer")),
+				asList(new Tag("type", "multipolygon"), new Tag("landuse", "grass"))));
+		relations.add(new Relation(3, asList(
+				new RelationMember(1, EntityType.Relation, ""),
+				new RelationMember(5, EntityType.Way, "")),
+				asList(new Tag("type", "site"))));
+		OSMData osmData = new OSMData(emptyList(), nodes, ways, relations);
+
+		// only the building changes, the multipolygon's areas are re-used for the new parent relation
+		OSMChange change = new OSMChange();
+		change.addWay(way(5, asList(31L, 32L, 33L, 34L, 31L), new Tag("building", "house")));
+		assertUpdateMatchesFullConversion(osmData, change);
+
+	}
+
+	@Test
+	public void testDeleteRelation()throws IOException, EntityNotFoundException {
+		OSMChange change = new OSMChange();
+		change.deleteRelation(1);
+		assertUpdateMatchesFullConversion(createTestData(), change);
+	}
+
+	@Test
+	public void testUnaffectedElementsAreKept() throws IOException, EntityNotFoundException {
+
+		OSMData osmData = createTestData();
+		MapData mapData = new OSMToMapDataConverter(PROJECTION, CONFIG).createMapData(osmData);
+
+		MapArea distantBuilding = findArea(mapData, 5);
+		MapRelation bridge = mapData.getMapRelations().stream().filter(r -> r.getId() == 2).findAny().get();
+
+		OSMChange change = new OSMChange();
+		change.addNode(node(2, 0.5, 2.5));
+
+		Update update = new MapDataUpdater(PROJECTION, CONFIG).update(mapData, osmData, change);
+
+		assertNotNull(update);
+		assertSame(distantBuilding, findArea(update.getMapData(), 5));
+		assertFalse(update.getChangedMapData().getMapAreas().contains(distantBuilding));
+
+		// w1 has been converted again, so the bridge relation is replaced as well
+		assertFalse(update.getMapData().getMapRelations().contains(bridge));
+		assertEquals(1, update.getMapData().getMapRelations().stream().filter(r -> r.getId() == 2).count());
+
+	}
+
+	@Test
+	public void testConnectedElements() throws IOException, EntityNotFoundException {
+
+		// a track from the end of w1 to a corner of the distant building
+		OSMData testData = createTestData();
+		List<OsmWay> ways = new ArrayList<>(testData.getWays());
+		ways.add(way(6, asList(3L, 31L), new Tag("highway", "track")));
+		OSMData osmData = new OSMData(emptyList(), testData.getNodes(), ways, testData.getRelations());
+
+		MapData mapData = new OSMToMapDataConverter(PROJECTION, CONFIG).createMapData(osmData);
+
+		OSMChange change = new OSMChange();
+		change.addNode(node(2, 0.5, 2.5));
+
+		Update update = new MapDataUpdater(PROJECTION, CONFIG).update(mapData, osmData, change);
+
+		assertNotNull(update);
+
+		MapArea distantBuilding = findArea(update.getMapData(), 5);
+		assertFalse(update.getChangedMapData().getMapAreas().contains(distantBuilding));
+		assertTrue(update.getConnectedElements().contains(distantBuilding));
+
+	}
+
+	@Test
+	public void testRepeatedUpdates()throws IOException, EntityNotFoundException {
+
+		OSMData osmData = createTestData();
+		MapData mapData = new OSMToMapDataConverter(PROJECTION, CONFIG).createMapData(osmData);
+
+		MapDataUpdater updater = new MapDataUpdater(PROJECTION, CONFIG);
+
+		OSMChange change1 = new OSMChange();
+		change1.addNode(node(2, 0.5, 2.5));
+		Update update1 = updater.update(mapData, osmData, change1);
+
+		OSMChange change2 = new OSMChange();
+		change2.addNode(node(2, -0.5, 1.5));
+		change2.deleteWay(5);
+		Update update2 = updater.update(update1.getMapData(), update1.getOSMData(), change2);
+
+		MapData expected = new OSMToMapDataConverter(PROJECTION, CONFIG).createMapData(update2.getOSMData());
+
+		assertEquals(describe(expected), describe(update2.getMapData()));
+
+	}
+
+	@Test
+	public void testCoastlineFallback() throws IOException, EntityNotFoundException {
+
+		OSMData osmData = createTestData();
+		MapData mapData = new OSMToMapDataConverter(PROJECTION, CONFIG).createMapData(osmData);
+
+		OSMChange change = new OSMChange();
+		change.addWay(way(6, asList(31L, 32L), new Tag("natural", "coastline")));
+
+		assertNull(new MapDataUpdater(PROJECTION, CONFIG).update(mapData, osmData, change));
+
+	}
+
+	private static void assertUpdateMatchesFullConversion(OSMData osmData, OSMChange change)
+			throws IOException, EntityNotFoundException {
+
+		MapData mapData = new OSMToMapDataConverter(PROJECTION, CONFIG).createMapData(osmData);
+
+		Update update = new MapDataUpdater(PROJECTION, CONFIG).update(mapData, osmData, change);
+
+		assertNotNull(update);
+
+		MapData expected = new OSMToMapDataConverter(PROJECTION, CONFIG).createMapData(osmData.applyChange(change));
+
+		assertEquals(describe(expected), describe(update.getMapData()));
+
+	}
+
+	/**
+	 * returns a sorted description of the elements, their positions, overlaps and relation memberships,
+	 * which does not depend on the order of the elements
+	 */
+	private static List<String> describe(MapData mapData) {
+
+		List<String> result = new ArrayList<>();
+
+		for (MapNode node : mapData.getMapNodes()) {
+			result.add(node + " " + node.getPos() + " " + node.getTags()
+					+ " ways: " + node.getConnectedWaySegments().size()
+					+ " areas: " + node.getAdjacentAreas().size());
+		}
+
+		mapData.getMapWaySegments().forEach(s -> result.add(s.getWay() + " " + s + " " + s.getTags()));
+		mapData.getMapAreas().forEach(a -> result.add(a + " " + a.getBoundaryNodes() + " " + a.getTags()));
+
+		for (MapElement element : mapData.getMapElements()) {
+			for (MapOverlap<?, ?> overlap : element.getOverlaps()) {
+				result.add(element + " overlaps " + overlap.getOther(element) + ": " + overlap.type);
+			}
+		}
+
+		for (MapRelation relation : mapData.getMapRelations()) {
+			relation.getMemberships().forEach(m -> result.add("r" + relation.getId() + " " + relation.getTags()
+					+ " '" + m.getRole() + "': " + m.getElement()));
+		}
+
+		result.sort(null);
+
+		return result;
+
+	}
+
+	private static MapArea findArea(MapData mapData, long wayId) {
+		return mapData.getMapAreas().stream()
+				.filter(a -> !a.isBasedOnRelation() && a.getId() == wayId)
+				.findAny().get();
+	}
+
+	/** creates a node, with coordinates in multiples of {@link #D} */
+	private static Node node(long id, double lat, double lon) {
+		return new Node(id, lon * D, lat * D, emptyList());
+	}
+
+	private static Way way(long id, List<Long> nodeIds, Tag... tags) {
+		TLongArrayList nodes = new TLongArrayList();
+		nodeIds.forEach(nodes::add);
+		return new Way(id, nodes, asList(tags));
+	}
+
+}
@@ -2,6 +2,8 @@ package org.osm2world.core.map_data.creation;
 
 import static java.util.Arrays.asList;
 import static org.junit.Assert.*;
+import static org.osm2world.core.map_data.creation.OSMToMapDataConverter.createSpatialIndex;
+import static org.osm2world.core.math.AxisAlignedRectangleXZ.bboxUnion;
 
 import java.io.File;
 import java.io.IOException;
@@ -11,10 +13,15 @@ import java.util.List;
 import org.apache.commons.configuration.BaseConfiguration;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.osm2world.core.map_data.creation.OSMToMapDataConverter.IndexedElement;
 import org.osm2world.core.map_data.data.MapArea;
 import org.osm2world.core.map_data.data.MapData;
 import org.osm2world.core.map_data.data.MapNode;
+import org.osm2world.core.map_data.data.TagSet;
+import org.osm2world.core.math.AxisAlignedRectangleXZ;
 import org.osm2world.core.math.VectorXZ;
+import org.osm2world.core.math.datastructures.IndexGrid;
+import org.osm2world.core.math.datastructures.STRTree;
 import org.osm2world.core.osm.creation.OSMFileReader;
 import org.osm2world.core.osm.data.OSMData;
 
@@ -80,6 +87,51 @@ public class OSMToMapDataConverterTest {
 		genericMultipolygonTest("mp_two_holes_advanced2.osm");
 	}
 
+	/**
+	 * tests a multipolygon with an outer ring split into two ways
+	 * and an outer ring within an inner ring (an island with a pond in a lake)
+	 */
+	@Test
+	public void testMultipolygonNested() throws IOException, EntityNotFoundException {
+
+		MapData mapData = loadMapData("mp_nested.osm");
+
+		assertEquals(12, mapData.getMapNodes().size());
+		assertEquals(2, mapData.getMapAreas().size());
+
+		List<MapArea> areas = new ArrayList<>(mapData.getMapAreas());
+		areas.sort((a1, a2) -> Double.compare(a2.getPolygon().getArea(), a1.getPolygon().getArea()));
+
+		assertEquals(1, areas.get(0).getHoles().size());
+		assertEquals(4, areas.get(0).getOuterPolygon().size());
+		assertEquals(0, areas.get(1).getHoles().size());
+		assertTrue(areas.get(0).getHoles().iterator().next().stream().anyMatch(n -> n.getId() == 5));
+
+		for (MapArea area : areas) {
+			assertEquals(201, area.getId());
+			assertTrue(area.getTags().contains("natural", "water"));
+		}
+
+	}
+
+	/**
+	 * tests a multipolygon with a ring crossing a U-shaped ring (invalid data).
+	 * The first vertex of the crossing ring is inside the U-shaped ring, but the ring is not contained in it.
+	 */
+	@Test
+	public void testMultipolygonCrossingRings() throws IOException, EntityNotFoundException {
+
+		MapData mapData = loadMapData("mp_crossing_rings.osm");
+
+		assertEquals(2, mapData.getMapAreas().size());
+
+		for (MapArea area : mapData.getMapAreas()) {
+			assertEquals(201, area.getId());
+			assertEquals(0, area.getHoles().size());
+		}
+
+	}
+
 	@Ignore
 	@Test
 	public void testMultipolygonTouchingInners() throws IOException, EntityNotFoundException {
@@ -187,6 +239,69 @@ public class OSMToMapDataConverterTest {
 
 	}
 
+	/**
+	 * checks that overlaps calculated on multiple threads are identical to those from a single thread
+	 */
+	@Test
+	public void testParallelOverlaps() throws IOException, EntityNotFoundException {
+
+		for (String filename : asList("simpleTest01.osm", "coastline_islands_and_coast.osm", "issue-203.osm")) {
+
+			ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+			File testFile = new File(classLoader.getResource(filename).getFile());
+
+			OSMData osmData = new OSMFileReader(testFile).getData();
+			MapProjection mapProjection = new MetricMapProjection(osmData.getCenter());
+
+			BaseConfiguration serialConfig = new BaseConfiguration();
+			serialConfig.setProperty("parallelOverlaps", false);
+			BaseConfiguration parallelConfig = new BaseConfiguration();
+			parallelConfig.setProperty("parallelOverlaps", true);
+
+			MapData serial = new OSMToMapDataConverter(mapProjection, serialConfig).createMapData(osmData);
+			MapData parallel = new OSMToMapDataConverter(mapProjection, parallelConfig).createMapData(osmData);
+
+			List<String> serialOverlaps = new ArrayList<>();
+			serial.getMapElements().forEach(e -> e.getOverlaps().forEach(o -> serialOverlaps.add(e + ": " + o + " " + o.type)));
+			List<String> parallelOverlaps = new ArrayList<>();
+			parallel.getMapElements().forEach(e -> e.getOverlaps().forEach(o -> parallelOverlaps.add(e + ": " + o + " " + o.type)));
+
+			assertEquals(serialOverlaps, parallelOverlaps);
+
+		}
+
+	}
+
+	@Test
+	public void testCreateSpatialIndex() {
+
+		List<MapNode> nodes = new ArrayList<>();
+		for (int x = 0; x < 100; x++) {
+			for (int z = 0; z < 100; z++) {
+				nodes.add(new MapNode(nodes.size(), TagSet.of(), new VectorXZ(x * 10, z * 10)));
+			}
+		}
+
+		List<IndexedElement> elements = new ArrayList<>();
+		nodes.forEach(n -> elements.add(new IndexedElement(elements.size(), n)));
+
+		AxisAlignedRectangleXZ bounds = bboxUnion(nodes);
+
+		assertTrue(createSpatialIndex(elements, bounds) instanceof IndexGrid);
+
+		/* a few huge areas would need to be added to most cells of a grid */
+
+		for (int i = 0; i < 2000; i++) {
+			MapArea area = new MapArea(i, false, TagSet.of(), asList(
+					nodes.get(0), nodes.get(99), nodes.get(nodes.size() - 1), nodes.get(nodes.size() - 100),
+					nodes.get(0)));
+			elements.add(new IndexedElement(elements.size(), area));
+		}
+
+		assertTrue(createSpatialIndex(elements, bounds) instanceof STRTree);
+
+	}
+
 	/**
 	 * reads two nodes with the same coordinates
 	 * @throws EntityNotFoundException
@@ -2,6 +2,7 @@ package org.osm2world.core.map_data.data;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toList;
 import static org.junit.Assert.*;
 
 import org.junit.Test;
@@ -64,6 +65,47 @@ public class TagSetTest {
 
 	}
 
+	@Test
+	public void testHashCode() {
+		assertEquals(TagSet.of("keyA", "valueA", "keyB", "valueB").hashCode(),
+				TagSet.of("keyB", "valueB", "keyA", "valueA").hashCode());
+	}
+
+	@Test
+	public void testSharedDictionary() {
+
+		TagDictionary dictionary = new TagDictionary();
+
+		TagSet t1 = TagSet.of(dictionary, new String("highway"), new String("primary"), "lanes", "2");
+		TagSet t2 = TagSet.of(dictionary, new String("highway"), new String("primary"));
+		TagSet t3 = TagSet.of(dictionary, "lanes", "2", "highway", "primary");
+
+		assertEquals(TagSet.of("lanes", "2", "highway", "primary"), t1);
+		assertEquals(t3, t1);
+		assertNotEquals(t2, t1);
+		assertEquals(TagSet.of("lanes", "2", "highway", "primary").hashCode(), t1.hashCode());
+
+		assertEquals("primary", t1.getValue("highway"));
+		assertNull(t1.getValue("surface"));
+		assertTrue(t1.contains("lanes", "2"));
+		assertFalse(t1.contains("lanes", "3"));
+		assertTrue(t1.containsValue("2"));
+		assertFalse(t2.containsValue("2"));
+
+		/* the strings are only stored once */
+
+		assertSame(t1.getValue("highway"), t2.getValue("highway"));
+
+	}
+
+	@Test
+	public void testIterationOrder() {
+		TagSet set = TagSet.of("kerb", "lowered", "crossing", "uncontrolled", "highway", "crossing");
+		assertEquals(asList(new Tag("crossing", "uncontrolled"), new Tag("highway", "crossing"),
+				new Tag("kerb", "lowered")), set.stream().collect(toList()));
+		assertEquals("[crossing=uncontrolled, highway=crossing, kerb=lowered]", set.toString());
+	}
+
 	@Test(expected = IllegalArgumentException.class)
 	public void testUniqueness() {
 		TagSet.of("highway", "primary", "highway", "secondary");
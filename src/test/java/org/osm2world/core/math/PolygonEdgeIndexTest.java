@@ -0,0 +1,120 @@
+package org.osm2world.core.math;
+
+import static java.lang.Math.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class PolygonEdgeIndexTest {
+
+	/** creates a star-shaped polygon with random spikes, which is always simple */
+	private static List<VectorXZ> createStarPolygon(int vertexCount, Random random) {
+		List<VectorXZ> vertexLoop = new ArrayList<>(vertexCount + 1);
+		for (int i = 0; i < vertexCount; i++) {
+			double angle = 2 * PI * i / vertexCount;
+			double radius = 5 + 5 * random.nextDouble();
+			vertexLoop.add(new VectorXZ(radius * sin(angle), radius * cos(angle)));
+		}
+		vertexLoop.add(vertexLoop.get(0));
+		return vertexLoop;
+	}
+
+	private static boolean containsWithoutIndex(List<VectorXZ> vertexLoop, VectorXZ v) {
+		boolean c = false;
+		for (int i = 0; i + 1 < vertexLoop.size(); i++) {
+			VectorXZ a = vertexLoop.get(i);
+			VectorXZ b = vertexLoop.get(i + 1);
+			if (((b.z > v.z) != (a.z > v.z)) && (v.x < (a.x - b.x) * (v.z - b.z) / (a.z - b.z) + b.x)) {
+				c = !c;
+			}
+		}
+		return c;
+	}
+
+	private static List<VectorXZ> intersectionPositionsWithoutIndex(List<VectorXZ> vertexLoop, LineSegmentXZ s) {
+		List<VectorXZ> result = new ArrayList<>();
+		for (int i = 0; i + 1 < vertexLoop.size(); i++) {
+			VectorXZ intersection = GeometryUtil.getTrueLineSegmentIntersection(s.p1, s.p2,
+					vertexLoop.get(i), vertexLoop.get(i + 1));
+			if (intersection != null) {
+				result.add(intersection);
+			}
+		}
+		return result;
+	}
+
+	private static VectorXZ randomPoint(Random random) {
+		return new VectorXZ(24 * random.nextDouble() - 12, 24 * random.nextDouble() - 12);
+	}
+
+	@Test
+	public void testContains() {
+
+		Random random = new Random(42);
+		List<VectorXZ> vertexLoop = createStarPolygon(1000, random);
+		PolygonEdgeIndex index = new PolygonEdgeIndex(vertexLoop);
+
+		for (int i = 0; i < 10000; i++) {
+			VectorXZ v = randomPoint(random);
+			assertEquals(containsWithoutIndex(vertexLoop, v), index.contains(v));
+		}
+
+		for (VectorXZ v : vertexLoop) {
+			assertEquals(containsWithoutIndex(vertexLoop, v), index.contains(v));
+		}
+
+		assertTrue(index.contains(new VectorXZ(0, 0)));
+		assertFalse(index.contains(new VectorXZ(0, 11)));
+		assertFalse(index.contains(new VectorXZ(0, -11)));
+
+	}
+
+	@Test
+	public void testIntersections() {
+
+		Random random = new Random(42);
+		List<VectorXZ> vertexLoop = createStarPolygon(1000, random);
+		PolygonEdgeIndex index = new PolygonEdgeIndex(vertexLoop);
+
+		for (int i = 0; i < 2000; i++) {
+
+			VectorXZ p1 = randomPoint(random);
+			VectorXZ p2 = i % 2 == 0 ? randomPoint(random) : p1.add(random.nextDouble(), random.nextDouble());
+			LineSegmentXZ segment = new LineSegmentXZ(p1, p2);
+
+			List<VectorXZ> expected = intersectionPositionsWithoutIndex(vertexLoop, segment);
+
+			assertEquals(expected, index.intersectionPositions(segment));
+			assertEquals(!expected.isEmpty(), index.intersects(p1, p2));
+
+		}
+
+		/* segments from a vertex to the center only intersect edges which don't share the vertex */
+
+		LineSegmentXZ segment = new LineSegmentXZ(vertexLoop.get(10), new VectorXZ(0, 0));
+		assertEquals(intersectionPositionsWithoutIndex(vertexLoop, segment), index.intersectionPositions(segment));
+
+	}
+
+	@Test
+	public void testSimplePolygonXZ() {
+
+		Random random = new Random(42);
+		List<VectorXZ> vertexLoop = createStarPolygon(SimplePolygonXZ.EDGE_INDEX_THRESHOLD * 2, random);
+		SimplePolygonXZ polygon = new SimplePolygonXZ(vertexLoop);
+
+		for (int i = 0; i < 1000; i++) {
+			VectorXZ v = randomPoint(random);
+			assertEquals(containsWithoutIndex(vertexLoop, v), polygon.contains(v));
+			LineSegmentXZ segment = new LineSegmentXZ(v, randomPoint(random));
+			assertEquals(intersectionPositionsWithoutIndex(vertexLoop, segment),
+					polygon.intersectionPositions(segment));
+		}
+
+	}
+
+}
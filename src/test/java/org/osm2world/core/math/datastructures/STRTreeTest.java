@@ -0,0 +1,86 @@
+package org.osm2world.core.math.datastructures;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import org.osm2world.core.math.AxisAlignedRectangleXZ;
+
+public class STRTreeTest {
+
+	/** creates mostly small boxes, some large ones, and some boxes with zero height */
+	private static List<AxisAlignedRectangleXZ> createRandomBoxes(int count) {
+		Random random = new Random(42);
+		List<AxisAlignedRectangleXZ> boxes = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			double x = random.nextDouble() * 1000;
+			double z = random.nextDouble() * 1000;
+			double size = random.nextDouble() < 0.05 ? random.nextDouble() * 500 : random.nextDouble() * 5;
+			boxes.add(new AxisAlignedRectangleXZ(x, z, x + size, z + (i % 7 == 0 ? 0 : size)));
+		}
+		return boxes;
+	}
+
+	@Test
+	public void testProbe() {
+
+		List<AxisAlignedRectangleXZ> boxes = createRandomBoxes(5000);
+		STRTree<AxisAlignedRectangleXZ> tree = new STRTree<>(boxes);
+
+		for (AxisAlignedRectangleXZ query : boxes.subList(0, 500)) {
+
+			Set<AxisAlignedRectangleXZ> expected = new HashSet<>();
+			for (AxisAlignedRectangleXZ box : boxes) {
+				if (box.minX <= query.maxX && query.minX <= box.maxX
+						&& box.minZ <= query.maxZ && query.minZ <= box.maxZ) {
+					expected.add(box);
+				}
+			}
+
+			List<AxisAlignedRectangleXZ> result = tree.probe(query);
+			assertEquals(expected.size(), result.size());
+			assertEquals(expected, new HashSet<>(result));
+
+		}
+
+	}
+
+	@Test
+	public void testLeaves() {
+
+		List<AxisAlignedRectangleXZ> boxes = createRandomBoxes(1000);
+		STRTree<AxisAlignedRectangleXZ> tree = new STRTree<>(boxes);
+
+		List<AxisAlignedRectangleXZ> leafContent = new ArrayList<>();
+		for (STRTree<AxisAlignedRectangleXZ>.Leaf leaf : tree.getLeaves()) {
+			leaf.forEach(leafContent::add);
+		}
+
+		assertEquals(boxes.size(), leafContent.size());
+		assertEquals(new HashSet<>(boxes), new HashSet<>(leafContent));
+
+		assertEquals(3, tree.getHeight());
+
+	}
+
+	@Test
+	public void testInsert() {
+
+		STRTree<AxisAlignedRectangleXZ> tree = new STRTree<>();
+
+		AxisAlignedRectangleXZ box = new AxisAlignedRectangleXZ(0, 0, 1, 1);
+		assertTrue(tree.probe(box).isEmpty());
+		assertTrue(tree.getLeaves().isEmpty());
+
+		tree.insert(box);
+		assertEquals(List.of(box), tree.probe(new AxisAlignedRectangleXZ(1, 1, 2, 2)));
+		assertTrue(tree.probe(new AxisAlignedRectangleXZ(2, 2, 3, 3)).isEmpty());
+
+	}
+
+}
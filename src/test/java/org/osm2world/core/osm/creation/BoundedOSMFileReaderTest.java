@@ -0,0 +1,136 @@
+package org.osm2world.core.osm.creation;
+
+import static java.util.stream.Collectors.toSet;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.Set;
+
+import org.junit.Test;
+import org.osm2world.core.map_data.creation.LatLonBounds;
+import org.osm2world.core.osm.data.OSMData;
+
+import de.topobyte.osm4j.core.model.iface.OsmEntity;
+
+public class BoundedOSMFileReaderTest {
+
+	private static final String TEST_DATA = """
+			<?xml version='1.0' encoding='UTF-8'?>
+			<osm version='0.6'>
+			  <node id='1' version='1' lat='0.5' lon='0.5' />
+			  <node id='2' version='1' lat='0.5' lon='1.5' />
+			  <node id='3' version='1' lat='2.5' lon='2.5' />
+			  <node id='4' version='1' lat='2.5' lon='3.5' />
+			  <node id='5' version='1' lat='5' lon='5' />
+			  <node id='6' version='1' lat='5' lon='6' />
+			  <node id='7' version='1' lat='6' lon='6' />
+			  <way id='10' version='1'>
+			    <nd ref='1' />
+			    <nd ref='2' />
+			  </way>
+			  <way id='11' version='1'>
+			    <nd ref='3' />
+			    <nd ref='4' />
+			  </way>
+			  <way id='12' version='1'>
+			    <nd ref='5' />
+			    <nd ref='6' />
+			    <nd ref='7' />
+			    <nd ref='5' />
+			  </way>
+			  <relation id='20' version='1'>
+			    <member type='way' ref='10' role='outer' />
+			    <member type='way' ref='12' role='outer' />
+			    <tag k='type' v='multipolygon' />
+			  </relation>
+			  <relation id='21' version='1'>
+			    <member type='way' ref='11' role='' />
+			    <tag k='type' v='route' />
+			  </relation>
+			</osm>
+			""";
+
+	@Test
+	public void testGetData() throws IOException {
+
+		File testFile = Files.createTempFile("o2w-test-", ".osm").toFile();
+		testFile.deleteOnExit();
+		Files.writeString(testFile.toPath(), TEST_DATA, StandardCharsets.UTF_8);
+
+		OSMData osmData = new BoundedOSMFileReader(testFile, new LatLonBounds(0, 0, 1, 1), 0).getData();
+
+		assertEquals(Set.of(1L, 2L, 5L, 6L, 7L), ids(osmData.getNodes()));
+		assertEquals(Set.of(10L, 12L), ids(osmData.getWays()));
+		assertEquals(Set.of(20L), ids(osmData.getRelations()));
+
+		/* a margin of roughly 300 km also includes way 11 */
+
+		osmData = new BoundedOSMFileReader(testFile, new LatLonBounds(0, 0, 1, 1), 300_000).getData();
+
+		assertEquals(Set.of(1L, 2L, 3L, 4L, 5L, 6L, 7L), ids(osmData.getNodes()));
+		assertEquals(Set.of(10L, 11L, 12L), ids(osmData.getWays()));
+		assertEquals(Set.of(20L, 21L), ids(osmData.getRelations()));
+
+	}
+
+	@Test
+	public void testUnsortedFile() throws IOException {
+
+		/* move node 1 behind the relations */
+
+		String nodeLine = "  <node id='1' version='1' lat='0.5' lon='0.5' />\n";
+		String unsortedData = TEST_DATA.replace(nodeLine, "").replace("</osm>", nodeLine + "</osm>");
+
+		File testFile = Files.createTempFile("o2w-test-", ".osm").toFile();
+		testFile.deleteOnExit();
+		Files.writeString(testFile.toPath(), unsortedData, StandardCharsets.UTF_8);
+
+		OSMData osmData = new BoundedOSMFileReader(testFile, new LatLonBounds(0, 0, 1, 1), 0).getData();
+
+		assertEquals(Set.of(1L, 2L, 5L, 6L, 7L), ids(osmData.getNodes()));
+		assertEquals(Set.of(10L, 12L), ids(osmData.getWays()));
+		assertEquals(Set.of(20L), ids(osmData.getRelations()));
+
+	}
+
+	@Test
+	public void testSupports() throws IOException {
+
+		File testFile = Files.createTempFile("o2w-test-", ".osm").toFile();
+		testFile.deleteOnExit();
+		Files.writeString(testFile.toPath(), TEST_DATA, StandardCharsets.UTF_8);
+
+		assertTrue(BoundedOSMFileReader.supports(testFile));
+
+		File josmFile = Files.createTempFile("o2w-test-", ".osm").toFile();
+		josmFile.deleteOnExit();
+		Files.writeString(josmFile.toPath(), TEST_DATA.replace("<osm version='0.6'>",
+				"<osm version='0.6' generator='JOSM'>"), StandardCharsets.UTF_8);
+
+		assertFalse(BoundedOSMFileReader.supports(josmFile));
+		assertFalse(BoundedOSMFileReader.supports(new File("test.osm.gz")));
+		assertFalse(BoundedOSMFileReader.supports(new File("test.osm.bz2")));
+
+	}
+
+	@Test
+	public void testPad() {
+
+		LatLonBounds bounds = BoundedOSMFileReader.pad(new LatLonBounds(0, 0, 0, 0), 1000);
+
+		assertEquals(-0.009, bounds.minlat, 0.0001);
+		assertEquals(0.009, bounds.maxlat, 0.0001);
+		assertEquals(-0.009, bounds.minlon, 0.0001);
+		assertEquals(0.009, bounds.maxlon, 0.0001);
+
+	}
+
+	private static Set<Long> ids(Collection<? extends OsmEntity> entities) {
+		return entities.stream().map(OsmEntity::getId).collect(toSet());
+	}
+
+}
@@ -9,15 +9,17 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URL;
 
-import static org.junit.Assert.assertFalse;
-import static org.junit.Assert.assertNotNull;
+import de.topobyte.osm4j.core.model.iface.OsmWay;
+import de.topobyte.osm4j.core.resolve.EntityNotFoundException;
+
+import static org.junit.Assert.*;
 
 public class GeodeskReaderTest {
 
 	private static final LatLonBounds globalBounds = new LatLonBounds(-90, -180, 90, 180);
 
 	@Test
-	public void testSimpleFile() throws IOException {
+	public void testSimpleFile() throws IOException, EntityNotFoundException {
 
 		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
 		URL testFile = classLoader.getResource("simpleTest01.gol");
@@ -30,6 +32,12 @@ public class GeodeskReaderTest {
 		assertFalse(data.getWays().isEmpty());
 		assertFalse(data.getRelations().isEmpty());
 
+		for (OsmWay way : data.getWays()) {
+			for (int i = 0; i < way.getNumberOfNodes(); i++) {
+				data.getNode(way.getNodeId(i));
+			}
+		}
+
 	}
 
 	@Test
@@ -49,6 +57,21 @@ public class GeodeskReaderTest {
 
 	}
 
+	@Test
+	public void testAnonymousNodeId() {
+
+		long id = GeodeskReader.anonymousNodeId(48.1, 11.5);
+
+		assertTrue(id < 0);
+		assertEquals(id, GeodeskReader.anonymousNodeId(48.1, 11.5));
+		assertNotEquals(id, GeodeskReader.anonymousNodeId(48.1, 11.5000001));
+		assertNotEquals(id, GeodeskReader.anonymousNodeId(48.1000001, 11.5));
+
+		assertTrue(GeodeskReader.anonymousNodeId(-90, -180) < 0);
+		assertTrue(GeodeskReader.anonymousNodeId(90, 180) < 0);
+
+	}
+
 	@Test(expected = IOException.class)
 	public void testMissingFile() throws IOException {
 		GeodeskReader reader = new GeodeskReader(new File("noSuchFile.gol"), globalBounds);
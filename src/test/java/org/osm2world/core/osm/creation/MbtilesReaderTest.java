@@ -0,0 +1,130 @@
+package org.osm2world.core.osm.creation;
+
+import static java.util.concurrent.TimeUnit.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.imintel.mbtiles4j.MBTilesReadException;
+import org.junit.Test;
+import org.osm2world.core.osm.data.OSMData;
+import org.osm2world.core.target.common.rendering.TileNumber;
+
+public class MbtilesReaderTest {
+
+	private static final TileNumber TILE = new TileNumber(13, 4401, 2827);
+
+	@Test
+	public void testGetData() throws IOException, SQLException {
+
+		File mbtilesFile = createTestFile();
+
+		try {
+
+			OSMData expected = new OSMFileReader(getPbfTestFile()).getData();
+			OSMData data = new MbtilesReader(mbtilesFile, TILE).getData();
+
+			assertEquals(expected.getNodes().size(), data.getNodes().size());
+			assertEquals(expected.getWays().size(), data.getWays().size());
+			assertEquals(expected.getRelations().size(), data.getRelations().size());
+
+			/* repeated requests for the same tile are answered from the cache */
+			assertSame(data, new MbtilesReader(mbtilesFile, TILE).getData());
+
+		} finally {
+			mbtilesFile.delete();
+		}
+
+	}
+
+	@Test
+	public void testReaderPool() throws IOException, SQLException, MBTilesReadException {
+
+		File mbtilesFile = createTestFile();
+		MbtilesReaderPool pool = new MbtilesReaderPool(1, HOURS);
+
+		try {
+
+			MbtilesReaderPool.Lease lease1 = pool.acquire(mbtilesFile);
+			MbtilesReaderPool.Lease lease2 = pool.acquire(mbtilesFile);
+			assertNotSame(lease1.getReader(), lease2.getReader());
+			assertEquals(2, pool.getOpenConnectionCount(mbtilesFile));
+
+			lease1.close();
+			assertEquals(2, pool.getOpenConnectionCount(mbtilesFile));
+
+			try (MbtilesReaderPool.Lease lease3 = pool.acquire(mbtilesFile)) {
+				assertSame(lease1.getReader(), lease3.getReader());
+			}
+
+			/* idle connections are kept until they time out */
+
+			lease2.close();
+			assertEquals(2, pool.getOpenConnectionCount(mbtilesFile));
+
+			pool.closeIdleConnections(DAYS.toNanos(1), System.nanoTime());
+			assertEquals(2, pool.getOpenConnectionCount(mbtilesFile));
+
+			pool.closeIdleConnections(0, System.nanoTime());
+			assertEquals(0, pool.getOpenConnectionCount(mbtilesFile));
+
+			/* closing the pool closes idle connections immediately, and leased ones when they are released */
+
+			MbtilesReaderPool.Lease lease4 = pool.acquire(mbtilesFile);
+			pool.acquire(mbtilesFile).close();
+			assertEquals(2, pool.getOpenConnectionCount(mbtilesFile));
+
+			pool.close();
+			assertEquals(1, pool.getOpenConnectionCount(mbtilesFile));
+
+			lease4.close();
+			assertEquals(0, pool.getOpenConnectionCount(mbtilesFile));
+
+		} finally {
+			pool.close();
+			mbtilesFile.delete();
+		}
+
+	}
+
+	private static File getPbfTestFile() {
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		return new File(classLoader.getResource("simpleTest01.osm.pbf").getFile());
+	}
+
+	/** creates an MBTiles file with the content of simpleTest01.osm.pbf as its only tile */
+	private static File createTestFile() throws IOException, SQLException {
+
+		File mbtilesFile = Files.createTempFile("o2w-test-", ".mbtiles").toFile();
+
+		try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + mbtilesFile.getAbsolutePath())) {
+
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("CREATE TABLE metadata (name text, value text)");
+				statement.execute("CREATE TABLE tiles (zoom_level integer, tile_column integer, tile_row integer,"
+						+ " tile_data blob)");
+				statement.execute("INSERT INTO metadata VALUES ('format', 'pbf')");
+			}
+
+			try (PreparedStatement statement = connection.prepareStatement("INSERT INTO tiles VALUES (?, ?, ?, ?)")) {
+				statement.setInt(1, TILE.zoom);
+				statement.setInt(2, TILE.x);
+				statement.setInt(3, TILE.flippedY());
+				statement.setBytes(4, Files.readAllBytes(getPbfTestFile().toPath()));
+				statement.executeUpdate();
+			}
+
+		}
+
+		return mbtilesFile;
+
+	}
+
+}
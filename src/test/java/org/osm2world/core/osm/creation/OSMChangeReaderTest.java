@@ -0,0 +1,77 @@
+package org.osm2world.core.osm.creation;
+
+import static de.topobyte.osm4j.core.model.util.OsmModelUtil.*;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+import org.osm2world.core.osm.creation.OSMStreamReader.CompressionMethod;
+import org.osm2world.core.osm.data.OSMChange;
+
+import de.topobyte.osm4j.core.model.iface.EntityType;
+import de.topobyte.osm4j.core.model.iface.OsmRelation;
+
+public class OSMChangeReaderTest {
+
+	@Test
+	public void testReadChange() throws IOException {
+
+		String xml = """
+				<?xml version="1.0" encoding="UTF-8"?>
+				<osmChange version="0.6" generator="test">
+				  <create>
+				    <node id="-1" version="1" lat="50.1" lon="8.2">
+				      <tag k="amenity" v="bench"/>
+				    </node>
+				  </create>
+				  <modify>
+				    <way id="10" version="2">
+				      <nd ref="1"/>
+				      <nd ref="-1"/>
+				      <tag k="highway" v="footway"/>
+				    </way>
+				    <relation id="20" version="3">
+				      <member type="way" ref="10" role="outer"/>
+				      <tag k="type" v="multipolygon"/>
+				    </relation>
+				  </modify>
+				  <delete>
+				    <node id="5" version="4"/>
+				    <way id="11" version="2"/>
+				  </delete>
+				</osmChange>
+				""";
+
+		OSMChange change = new OSMChangeReader(
+				new ByteArrayInputStream(xml.getBytes(UTF_8)), CompressionMethod.None).getChange();
+
+		assertEquals(1, change.getNodes().size());
+		assertEquals(50.1, change.getNode(-1).getLatitude(), 1e-9);
+		assertEquals(8.2, change.getNode(-1).getLongitude(), 1e-9);
+		assertEquals("bench", getTagsAsMap(change.getNode(-1)).get("amenity"));
+
+		assertEquals(1, change.getWays().size());
+		assertArrayEquals(new long[] {1, -1}, nodesAsList(change.getWay(10)).toArray());
+
+		OsmRelation relation = change.getRelation(20);
+		assertEquals(1, relation.getNumberOfMembers());
+		assertEquals(EntityType.Way, relation.getMember(0).getType());
+		assertEquals(10, relation.getMember(0).getId());
+		assertEquals("outer", relation.getMember(0).getRole());
+
+		assertTrue(change.isNodeDeleted(5));
+		assertTrue(change.isWayDeleted(11));
+		assertFalse(change.isWayDeleted(10));
+
+	}
+
+	@Test(expected = IOException.class)
+	public void testMissingCoordinates() throws IOException {
+		String xml = "<osmChange><create><node id=\"1\"/></create></osmChange>";
+		new OSMChangeReader(new ByteArrayInputStream(xml.getBytes(UTF_8)), CompressionMethod.None).getChange();
+	}
+
+}
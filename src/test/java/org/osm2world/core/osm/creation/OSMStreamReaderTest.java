@@ -0,0 +1,124 @@
+package org.osm2world.core.osm.creation;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.junit.Test;
+import org.osm2world.core.map_data.creation.LatLonBounds;
+import org.osm2world.core.osm.creation.OSMStreamReader.CompressionMethod;
+import org.osm2world.core.osm.data.OSMData;
+
+public class OSMStreamReaderTest {
+
+	@Test
+	public void testCompressedXml() throws IOException {
+
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		File testFile = new File(classLoader.getResource("simpleTest01.osm").getFile());
+		byte[] xml = Files.readAllBytes(testFile.toPath());
+
+		OSMData expected = new OSMStreamReader(new ByteArrayInputStream(xml), CompressionMethod.None, false).getData();
+
+		ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+		try (OutputStream os = new GZIPOutputStream(gzip)) {
+			os.write(xml);
+		}
+
+		ByteArrayOutputStream bzip2 = new ByteArrayOutputStream();
+		try (OutputStream os = new BZip2CompressorOutputStream(bzip2)) {
+			os.write(xml);
+		}
+
+		for (CompressionMethod method : new CompressionMethod[] {CompressionMethod.GZip, CompressionMethod.BZip2}) {
+
+			byte[] data = (method == CompressionMethod.GZip ? gzip : bzip2).toByteArray();
+
+			/* compare the decompressed bytes with those from the single-threaded decompressors */
+
+			InputStream referenceStream = (method == CompressionMethod.GZip)
+					? new GZIPInputStream(new ByteArrayInputStream(data))
+					: new BZip2CompressorInputStream(new ByteArrayInputStream(data), true);
+
+			try (InputStream is = OSMStreamReader.decompress(new ByteArrayInputStream(data), method)) {
+				assertArrayEquals(referenceStream.readAllBytes(), is.readAllBytes());
+			}
+
+			/* compare the parsed data */
+
+			OSMData osmData = new OSMStreamReader(new ByteArrayInputStream(data), method, false).getData();
+
+			assertEquals(expected.getNodes().size(), osmData.getNodes().size());
+			assertEquals(expected.getWays().size(), osmData.getWays().size());
+			assertEquals(expected.getRelations().size(), osmData.getRelations().size());
+
+		}
+
+	}
+
+	@Test
+	public void testJosmMultipleBounds() throws IOException {
+
+		String xml = """
+				<?xml version='1.0' encoding='UTF-8'?>
+				<osm version='0.6' generator='JOSM'>
+				  <bounds minlat='0' minlon='0' maxlat='1' maxlon='1' />
+				  <bounds minlat='2' minlon='-1' maxlat='3' maxlon='0.5' />
+				  <node id='-1' lat='0.5' lon='0.5' />
+				</osm>
+				""";
+
+		OSMData osmData = readWithJosmWorkaround(xml);
+
+		assertEquals(1, osmData.getExplicitBounds().size());
+		assertBoundsEqual(new LatLonBounds(0, -1, 3, 1), osmData.getUnionOfExplicitBounds());
+		assertEquals(1, osmData.getNodes().size());
+
+	}
+
+	@Test
+	public void testJosmLateBounds() throws IOException {
+
+		String xml = """
+				<?xml version='1.0' encoding='UTF-8'?>
+				<osm version='0.6' generator='JOSM'>
+				  <bounds minlat='0' minlon='0' maxlat='1' maxlon='1' />
+				  <node id='-1' lat='0.5' lon='0.5' />
+				  <bounds minlat='2' minlon='-1' maxlat='3' maxlon='0.5' />
+				  <node id='-2' lat='2.5' lon='0' />
+				  <bounds minlat='-1' minlon='0' maxlat='0' maxlon='2' />
+				</osm>
+				""";
+
+		OSMData osmData = readWithJosmWorkaround(xml);
+
+		assertEquals(1, osmData.getExplicitBounds().size());
+		assertBoundsEqual(new LatLonBounds(-1, -1, 3, 2), osmData.getUnionOfExplicitBounds());
+		assertEquals(2, osmData.getNodes().size());
+
+	}
+
+	private static void assertBoundsEqual(LatLonBounds expected, LatLonBounds actual) {
+		assertEquals(expected.minlat, actual.minlat, 1e-9);
+		assertEquals(expected.minlon, actual.minlon, 1e-9);
+		assertEquals(expected.maxlat, actual.maxlat, 1e-9);
+		assertEquals(expected.maxlon, actual.maxlon, 1e-9);
+	}
+
+	private static OSMData readWithJosmWorkaround(String xml) throws IOException {
+		byte[] data = xml.getBytes(StandardCharsets.UTF_8);
+		return new OSMStreamReader(new ByteArrayInputStream(data), CompressionMethod.None, true).getData();
+	}
+
+}
@@ -0,0 +1,231 @@
+package org.osm2world.core.osm.creation;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osm2world.core.osm.data.OSMData;
+
+import com.sun.net.httpserver.HttpServer;
+
+public class OverpassCacheTest {
+
+	private HttpServer server;
+	private String apiURL;
+	private final AtomicInteger requestCount = new AtomicInteger();
+
+	private volatile byte[] response;
+	private volatile int responseStatus = 200;
+
+	private File cacheDir;
+
+	/** starts a local stand-in for Overpass API which responds with simpleTest01.osm unless told otherwise */
+	@Before
+	public void setUp() throws IOException {
+
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		File testFile = new File(classLoader.getResource("simpleTest01.osm").getFile());
+		response = Files.readAllBytes(testFile.toPath());
+
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/api/interpreter", exchange -> {
+			requestCount.incrementAndGet();
+			exchange.getRequestBody().readAllBytes();
+			byte[] response = this.response;
+			exchange.sendResponseHeaders(responseStatus, response.length);
+			try (OutputStream os = exchange.getResponseBody()) {
+				os.write(response);
+			}
+		});
+		server.start();
+
+		apiURL = "http://localhost:" + server.getAddress().getPort() + "/api/interpreter";
+
+		cacheDir = Files.createTempDirectory("o2w-test-").toFile();
+
+	}
+
+	@After
+	public void tearDown() {
+		server.stop(0);
+		File[] files = cacheDir.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+		cacheDir.delete();
+	}
+
+	@Test
+	public void testCacheHit() throws IOException {
+
+		OverpassCache cache = new OverpassCache(cacheDir, Duration.ofHours(1), 1 << 20);
+
+		OSMData data1 = new OverpassReader(apiURL, "node(1);\nout;").withCache(cache).getData();
+		OSMData data2 = new OverpassReader(apiURL, "  node(1);  out; ").withCache(cache).getData();
+
+		assertEquals(1, requestCount.get());
+		assertFalse(data1.getNodes().isEmpty());
+		assertEquals(data1.getNodes().size(), data2.getNodes().size());
+		assertEquals(data1.getWays().size(), data2.getWays().size());
+
+		new OverpassReader(apiURL, "node(2);out;").withCache(cache).getData();
+		assertEquals(2, requestCount.get());
+
+	}
+
+	@Test
+	public void testExpiredEntry() throws IOException {
+
+		OverpassCache cache = new OverpassCache(cacheDir, Duration.ofHours(1), 1 << 20);
+		new OverpassReader(apiURL, "node(1);out;").withCache(cache).getData();
+
+		File entry = cache.cacheFile(apiURL, "node(1);out;");
+		assertTrue(entry.setLastModified(System.currentTimeMillis() - Duration.ofHours(2).toMillis()));
+
+		new OverpassReader(apiURL, "node(1);out;").withCache(cache).getData();
+		assertEquals(2, requestCount.get());
+
+	}
+
+	@Test
+	public void testRemarkIsNotCached() throws IOException {
+
+		String xml = new String(response, StandardCharsets.UTF_8);
+		response = xml.replace("</osm>", "<remark> runtime error: Query timed out </remark>\n</osm>")
+				.getBytes(StandardCharsets.UTF_8);
+
+		OverpassCache cache = new OverpassCache(cacheDir, Duration.ofHours(1), 1 << 20);
+
+		OSMData data = new OverpassReader(apiURL, "node(1);out;").withCache(cache).getData();
+		assertFalse(data.getNodes().isEmpty());
+
+		new OverpassReader(apiURL, "node(1);out;").withCache(cache).getData();
+		assertEquals(2, requestCount.get());
+		assertFalse(cache.cacheFile(apiURL, "node(1);out;").exists());
+
+	}
+
+	@Test
+	public void testTruncatedResponseIsNotCached() throws IOException {
+
+		String xml = new String(response, StandardCharsets.UTF_8);
+		response = xml.substring(0, xml.lastIndexOf("</osm>")).getBytes(StandardCharsets.UTF_8);
+
+		OverpassCache cache = new OverpassCache(cacheDir, Duration.ofHours(1), 1 << 20);
+
+		try (InputStream is = cache.store(apiURL, "node(1);out;", new ByteArrayInputStream(response))) {
+			assertArrayEquals(response, is.readAllBytes());
+		}
+
+		assertNull(cache.open(apiURL, "node(1);out;"));
+		assertEquals(0, cacheDir.listFiles().length);
+
+	}
+
+	@Test
+	public void testErrorStatusIsNotCached() throws IOException {
+
+		responseStatus = 429;
+
+		OverpassCache cache = new OverpassCache(cacheDir, Duration.ofHours(1), 1 << 20);
+
+		OSMData data = new OverpassReader(apiURL, "node(1);out;").withCache(cache).getData();
+		assertTrue(data.getNodes().isEmpty());
+		assertNull(cache.open(apiURL, "node(1);out;"));
+
+		responseStatus = 200;
+
+		data = new OverpassReader(apiURL, "node(1);out;").withCache(cache).getData();
+		assertFalse(data.getNodes().isEmpty());
+		assertEquals(2, requestCount.get());
+
+	}
+
+	@Test
+	public void testEviction() throws IOException {
+
+		OverpassCache cache = new OverpassCache(cacheDir, Duration.ofHours(1), 1000);
+
+		byte[] content = randomResponse();
+
+		cache.store(apiURL, "a", new ByteArrayInputStream(content)).close();
+		setLastAccessTime(cache.cacheFile(apiURL, "a"), System.currentTimeMillis() - 10_000);
+		cache.store(apiURL, "b", new ByteArrayInputStream(content)).close();
+
+		assertNull(cache.open(apiURL, "a"));
+
+		try (InputStream is = cache.open(apiURL, "b")) {
+			assertNotNull(is);
+			assertArrayEquals(content, is.readAllBytes());
+		}
+
+	}
+
+	@Test
+	public void testEvictionLeastRecentlyUsed() throws IOException {
+
+		OverpassCache cache = new OverpassCache(cacheDir, Duration.ofHours(1), 1500);
+
+		byte[] content = randomResponse();
+
+		cache.store(apiURL, "a", new ByteArrayInputStream(content)).close();
+		cache.store(apiURL, "b", new ByteArrayInputStream(content)).close();
+		setLastAccessTime(cache.cacheFile(apiURL, "a"), System.currentTimeMillis() - 20_000);
+		setLastAccessTime(cache.cacheFile(apiURL, "b"), System.currentTimeMillis() - 10_000);
+
+		/* a has been downloaded first, but is used more recently than b */
+		cache.open(apiURL, "a").close();
+
+		cache.store(apiURL, "c", new ByteArrayInputStream(content)).close();
+
+		assertTrue(cache.cacheFile(apiURL, "a").isFile());
+		assertFalse(cache.cacheFile(apiURL, "b").isFile());
+		assertTrue(cache.cacheFile(apiURL, "c").isFile());
+
+	}
+
+	/**
+	 * returns a complete response padded with random content.
+	 * Random content can't be compressed, so each entry takes up more than 600 bytes.
+	 */
+	private static byte[] randomResponse() {
+		byte[] content = new byte[600];
+		new Random(42).nextBytes(content);
+		byte[] end = "</osm>".getBytes(StandardCharsets.US_ASCII);
+		System.arraycopy(end, 0, content, content.length - end.length, end.length);
+		return content;
+	}
+
+	private static void setLastAccessTime(File file, long millis) throws IOException {
+		Files.getFileAttributeView(file.toPath(), BasicFileAttributeView.class)
+				.setTimes(null, FileTime.fromMillis(millis), null);
+	}
+
+	@Test
+	public void testNormalizeQuery() {
+		assertEquals("node(1); out;", OverpassCache.normalizeQuery(" node(1);\n\tout; "));
+		assertEquals("node[name=\"a  b\"]; out;", OverpassCache.normalizeQuery("node[name=\"a  b\"];  out;"));
+		assertEquals("node['a \\'  b']; out;", OverpassCache.normalizeQuery("node['a \\'  b'];\nout;"));
+		assertNotEquals(OverpassCache.normalizeQuery("node[name=\"a b\"];"),
+				OverpassCache.normalizeQuery("node[name=\"a  b\"];"));
+		assertEquals("", OverpassCache.normalizeQuery("  "));
+	}
+
+}
@@ -0,0 +1,143 @@
+package org.osm2world.core.osm.creation;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.junit.Test;
+
+public class ParallelBZip2InputStreamTest {
+
+	/** creates text which is large enough to be split into several blocks with the smallest block size */
+	private static byte[] createTestData(long seed) {
+		Random random = new Random(seed);
+		StringBuilder result = new StringBuilder();
+		while (result.length() < 500_000) {
+			result.append("<node id='").append(random.nextInt()).append("' lat='").append(random.nextDouble())
+					.append("' lon='").append(random.nextDouble()).append("'/>\n");
+		}
+		return result.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static byte[] compress(byte[] data) throws IOException {
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		try (OutputStream os = new BZip2CompressorOutputStream(result, 1)) {
+			os.write(data);
+		}
+		return result.toByteArray();
+	}
+
+	private static byte[] decompress(byte[] compressedData) throws IOException {
+		try (InputStream is = new ParallelBZip2InputStream(new ByteArrayInputStream(compressedData))) {
+			return is.readAllBytes();
+		}
+	}
+
+	@Test
+	public void testMultipleBlocks() throws IOException {
+		byte[] data = createTestData(1);
+		assertArrayEquals(data, decompress(compress(data)));
+	}
+
+	@Test
+	public void testConcatenatedStreams() throws IOException {
+
+		byte[] data1 = createTestData(1);
+		byte[] data2 = createTestData(2);
+
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		compressed.write(compress(data1));
+		compressed.write(compress(new byte[0]));
+		compressed.write(compress(data2));
+
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		expected.write(data1);
+		expected.write(data2);
+
+		assertArrayEquals(expected.toByteArray(), decompress(compressed.toByteArray()));
+
+	}
+
+	/**
+	 * uses data whose symbol map, which is stored near the start of each block, consists of
+	 * exactly the bits of the block header's magic number (0x314159265359).
+	 * The map starts with 16 bits for the used groups of 16 byte values (here 0x3141: groups 2, 3, 7, 9 and 15),
+	 * followed by 16 bits for each used group (0x5926 for group 2, 0x5359 for group 3).
+	 * So every block contains a false match of the block header in its compressed data.
+	 */
+	@Test
+	public void testFalseBlockMagic() throws IOException {
+
+		byte[] symbols = {0x21, 0x23, 0x24, 0x27, 0x2A, 0x2D, 0x2E,
+				0x31, 0x33, 0x36, 0x37, 0x39, 0x3B, 0x3C, 0x3F,
+				0x70, (byte) 0x90, (byte) 0xF0};
+
+		// runs of 4 equal bytes are avoided because their run length encoding would add symbols
+		Random random = new Random(42);
+		byte[] data = new byte[250_000];
+		for (int i = 0; i < data.length; i++) {
+			do {
+				data[i] = symbols[random.nextInt(symbols.length)];
+			} while (i > 0 && data[i] == data[i - 1]);
+		}
+
+		byte[] compressedData = compress(data);
+
+		int blockCount = (data.length + 99_999) / 100_000;
+		assertEquals(2 * blockCount, countBlockMagic(compressedData));
+
+		byte[] expected;
+		try (InputStream is = new BZip2CompressorInputStream(new ByteArrayInputStream(compressedData))) {
+			expected = is.readAllBytes();
+		}
+
+		assertArrayEquals(data, expected);
+		assertArrayEquals(expected, decompress(compressedData));
+
+	}
+
+	@Test(expected = IOException.class)
+	public void testStreamCrcMismatch() throws IOException {
+
+		byte[] compressedData = compress(createTestData(1));
+
+		// the stream ends with the combined CRC and at most 7 bits of padding, so this byte is part of the CRC
+		compressedData[compressedData.length - 2] ^= 0x01;
+
+		decompress(compressedData);
+
+	}
+
+	@Test
+	public void testEmpty() throws IOException {
+		assertEquals(0, decompress(compress(new byte[0])).length);
+	}
+
+	@Test(expected = IOException.class)
+	public void testInvalidData() throws IOException {
+		decompress("not bzip2".getBytes(StandardCharsets.UTF_8));
+	}
+
+	/** counts the occurrences of the block header's bit pattern at any bit offset */
+	private static int countBlockMagic(byte[] data) {
+		int count = 0;
+		long lastBits = 0;
+		for (long i = 0; i < 8L * data.length; i++) {
+			int bit = (data[(int) (i >>> 3)] >>> (7 - (i & 7))) & 1;
+			lastBits = ((lastBits << 1) | bit) & 0xFFFFFFFFFFFFL;
+			if (lastBits == 0x314159265359L) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+}
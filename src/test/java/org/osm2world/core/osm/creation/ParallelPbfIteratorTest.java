@@ -0,0 +1,84 @@
+package org.osm2world.core.osm.creation;
+
+import static de.topobyte.osm4j.core.model.util.OsmModelUtil.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.topobyte.osm4j.core.model.iface.EntityContainer;
+import de.topobyte.osm4j.core.model.iface.OsmEntity;
+import de.topobyte.osm4j.core.model.iface.OsmNode;
+import de.topobyte.osm4j.core.model.iface.OsmRelation;
+import de.topobyte.osm4j.core.model.iface.OsmWay;
+import de.topobyte.osm4j.pbf.seq.PbfIterator;
+
+public class ParallelPbfIteratorTest {
+
+	/** checks that the results are identical to osm4j's sequential implementation */
+	@Test
+	public void testSameAsPbfIterator() throws IOException {
+
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		File testFile = new File(classLoader.getResource("simpleTest01.osm.pbf").getFile());
+
+		List<EntityContainer> expected = new ArrayList<>();
+		List<EntityContainer> actual = new ArrayList<>();
+
+		PbfIterator pbfIterator;
+		ParallelPbfIterator parallelIterator;
+
+		try (InputStream is = new FileInputStream(testFile)) {
+			pbfIterator = new PbfIterator(is, false);
+			pbfIterator.forEachRemaining(expected::add);
+		}
+
+		try (InputStream is = new FileInputStream(testFile)) {
+			parallelIterator = new ParallelPbfIterator(is);
+			parallelIterator.forEachRemaining(actual::add);
+		}
+
+		assertFalse(expected.isEmpty());
+		assertEquals(expected.size(), actual.size());
+
+		assertEquals(pbfIterator.hasBounds(), parallelIterator.hasBounds());
+		if (pbfIterator.hasBounds()) {
+			assertEquals(pbfIterator.getBounds().getLeft(), parallelIterator.getBounds().getLeft(), 1e-9);
+			assertEquals(pbfIterator.getBounds().getTop(), parallelIterator.getBounds().getTop(), 1e-9);
+		}
+
+		for (int i = 0; i < expected.size(); i++) {
+
+			assertEquals(expected.get(i).getType(), actual.get(i).getType());
+
+			OsmEntity e = expected.get(i).getEntity();
+			OsmEntity a = actual.get(i).getEntity();
+
+			assertEquals(e.getId(), a.getId());
+			assertEquals(getTagsAsMap(e), getTagsAsMap(a));
+
+			if (e instanceof OsmNode) {
+				assertEquals(((OsmNode) e).getLatitude(), ((OsmNode) a).getLatitude(), 1e-9);
+				assertEquals(((OsmNode) e).getLongitude(), ((OsmNode) a).getLongitude(), 1e-9);
+			} else if (e instanceof OsmWay) {
+				assertEquals(nodesAsList((OsmWay) e), nodesAsList((OsmWay) a));
+			} else if (e instanceof OsmRelation) {
+				assertEquals(((OsmRelation) e).getNumberOfMembers(), ((OsmRelation) a).getNumberOfMembers());
+				for (int m = 0; m < ((OsmRelation) e).getNumberOfMembers(); m++) {
+					assertEquals(((OsmRelation) e).getMember(m).getId(), ((OsmRelation) a).getMember(m).getId());
+					assertEquals(((OsmRelation) e).getMember(m).getType(), ((OsmRelation) a).getMember(m).getType());
+					assertEquals(((OsmRelation) e).getMember(m).getRole(), ((OsmRelation) a).getMember(m).getRole());
+				}
+			}
+
+		}
+
+	}
+
+}
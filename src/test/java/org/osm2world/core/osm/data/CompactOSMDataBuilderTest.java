@@ -0,0 +1,121 @@
+package org.osm2world.core.osm.data;
+
+import static de.topobyte.osm4j.core.model.util.OsmModelUtil.*;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.Test;
+
+import com.slimjars.dist.gnu.trove.list.array.TLongArrayList;
+
+import de.topobyte.osm4j.core.dataset.MapDataSetLoader;
+import de.topobyte.osm4j.core.model.iface.EntityType;
+import de.topobyte.osm4j.core.model.iface.OsmNode;
+import de.topobyte.osm4j.core.model.iface.OsmRelation;
+import de.topobyte.osm4j.core.model.iface.OsmWay;
+import de.topobyte.osm4j.core.model.impl.Node;
+import de.topobyte.osm4j.core.model.impl.Relation;
+import de.topobyte.osm4j.core.model.impl.RelationMember;
+import de.topobyte.osm4j.core.model.impl.Tag;
+import de.topobyte.osm4j.core.model.impl.Way;
+import de.topobyte.osm4j.core.resolve.EntityNotFoundException;
+import de.topobyte.osm4j.pbf.seq.PbfIterator;
+
+public class CompactOSMDataBuilderTest {
+
+	@Test
+	public void testSameAsInMemoryData() throws IOException, EntityNotFoundException {
+
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		File testFile = new File(classLoader.getResource("simpleTest01.osm.pbf").getFile());
+
+		OSMData expected;
+		try (InputStream is = new FileInputStream(testFile)) {
+			expected = new OSMData(MapDataSetLoader.read(new PbfIterator(is, false), true, true, true));
+		}
+
+		CompactOSMDataBuilder builder = new CompactOSMDataBuilder();
+		expected.getNodes().forEach(builder::add);
+		expected.getWays().forEach(builder::add);
+		expected.getRelations().forEach(builder::add);
+		OSMData actual = builder.build();
+
+		assertEquals(expected.getNodes().size(), actual.getNodes().size());
+		assertEquals(expected.getWays().size(), actual.getWays().size());
+		assertEquals(expected.getRelations().size(), actual.getRelations().size());
+
+		for (OsmNode n : expected.getNodes()) {
+			OsmNode node = actual.getNode(n.getId());
+			assertEquals(n.getLatitude(), node.getLatitude(), 1e-7);
+			assertEquals(n.getLongitude(), node.getLongitude(), 1e-7);
+			assertEquals(getTagsAsMap(n), getTagsAsMap(node));
+		}
+
+		for (OsmWay w : expected.getWays()) {
+			OsmWay way = actual.getWay(w.getId());
+			assertEquals(nodesAsList(w), nodesAsList(way));
+			assertEquals(getTagsAsMap(w), getTagsAsMap(way));
+		}
+
+		for (OsmRelation r : expected.getRelations()) {
+			OsmRelation relation = actual.getRelation(r.getId());
+			assertEquals(r.getNumberOfMembers(), relation.getNumberOfMembers());
+			for (int i = 0; i < r.getNumberOfMembers(); i++) {
+				assertEquals(r.getMember(i).getId(), relation.getMember(i).getId());
+				assertEquals(r.getMember(i).getType(), relation.getMember(i).getType());
+				assertEquals(r.getMember(i).getRole(), relation.getMember(i).getRole());
+			}
+			assertEquals(getTagsAsMap(r), getTagsAsMap(relation));
+		}
+
+	}
+
+	@Test
+	public void testUnsortedInput() throws EntityNotFoundException {
+
+		CompactOSMDataBuilder builder = new CompactOSMDataBuilder();
+		builder.add(new Node(3, 1.0, 50.0, asList(new Tag("name", "c"))));
+		builder.add(new Node(1, 2.0, 51.0, asList(new Tag("name", "a"), new Tag("foo", "bar"))));
+		builder.add(new Node(2, 3.0, 52.0, emptyList()));
+		builder.add(new Node(1, 4.0, 53.0, emptyList()));
+		builder.add(new Way(20, new TLongArrayList(new long[] {3, 2}), asList(new Tag("highway", "path"))));
+		builder.add(new Way(10, new TLongArrayList(new long[] {1, 2, 3}), emptyList()));
+		builder.add(new Relation(100, asList(
+				new RelationMember(10, EntityType.Way, "outer"),
+				new RelationMember(2, EntityType.Node, "")), asList(new Tag("type", "multipolygon"))));
+		OSMData data = builder.build();
+
+		assertEquals(3, data.getNodes().size());
+		assertEquals(asList(1L, 2L, 3L), data.getNodes().stream().map(OsmNode::getId).toList());
+
+		OsmNode node1 = data.getNode(1);
+		assertEquals(53.0, node1.getLatitude(), 0);
+		assertEquals(4.0, node1.getLongitude(), 0);
+		assertEquals(0, node1.getNumberOfTags());
+		assertEquals("c", getTagsAsMap(data.getNode(3)).get("name"));
+
+		assertEquals(new TLongArrayList(new long[] {1, 2, 3}), nodesAsList(data.getWay(10)));
+		assertEquals(new TLongArrayList(new long[] {3, 2}), nodesAsList(data.getWay(20)));
+		assertEquals("path", getTagsAsMap(data.getWay(20)).get("highway"));
+
+		OsmRelation relation = data.getRelation(100);
+		assertEquals(2, relation.getNumberOfMembers());
+		assertEquals(EntityType.Way, relation.getMember(0).getType());
+		assertEquals("outer", relation.getMember(0).getRole());
+		assertEquals(2, relation.getMember(1).getId());
+
+		assertEquals(data.getNode(2), data.getNodes().stream().filter(n -> n.getId() == 2).findAny().get());
+
+		assertThrows(EntityNotFoundException.class, () -> data.getNode(4));
+		assertThrows(EntityNotFoundException.class, () -> data.getWay(1));
+		assertThrows(EntityNotFoundException.class, () -> data.getRelation(10));
+
+	}
+
+}
@@ -0,0 +1,107 @@
+package org.osm2world.core.osm.data;
+
+import static de.topobyte.osm4j.core.model.util.OsmModelUtil.nodesAsList;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.slimjars.dist.gnu.trove.list.array.TLongArrayList;
+
+import de.topobyte.osm4j.core.model.iface.OsmNode;
+import de.topobyte.osm4j.core.model.impl.Node;
+import de.topobyte.osm4j.core.model.impl.Tag;
+import de.topobyte.osm4j.core.model.impl.Way;
+import de.topobyte.osm4j.core.resolve.EntityNotFoundException;
+
+public class OSMChangeTest {
+
+	private static final OSMData BEFORE = new OSMData(emptyList(),
+			asList(new Node(1, 0, 0, emptyList()), new Node(2, 1, 0, emptyList()), new Node(3, 2, 0, emptyList())),
+			asList(new Way(1, new TLongArrayList(new long[] {1, 2}), asList(new Tag("highway", "path"))),
+					new Way(2, new TLongArrayList(new long[] {2, 3}), asList(new Tag("highway", "path")))),
+			emptyList());
+
+	@Test
+	public void testBetween() {
+
+		OSMData after = new OSMData(emptyList(),
+				asList(new Node(1, 0, 0, emptyList()), new Node(2, 1, 0.5, emptyList()), new Node(4, 3, 0, emptyList())),
+				asList(new Way(1, new TLongArrayList(new long[] {1, 2}), asList(new Tag("highway", "track"))),
+						new Way(3, new TLongArrayList(new long[] {2, 4}), asList(new Tag("highway", "path")))),
+				emptyList());
+
+		OSMChange change = OSMChange.between(BEFORE, after);
+
+		assertEquals(2, change.getNodes().size());
+		assertNotNull(change.getNode(2));
+		assertNotNull(change.getNode(4));
+		assertArrayEquals(new long[] {3}, change.getDeletedNodeIds());
+
+		assertEquals(2, change.getWays().size());
+		assertNotNull(change.getWay(1));
+		assertNotNull(change.getWay(3));
+		assertArrayEquals(new long[] {2}, change.getDeletedWayIds());
+
+		assertTrue(change.getRelations().isEmpty());
+		assertTrue(OSMChange.between(BEFORE, BEFORE).isEmpty());
+
+	}
+
+	@Test
+	public void testApplyChange() throws EntityNotFoundException {
+
+		OSMChange change = new OSMChange();
+		change.addNode(new Node(2, 5, 5, emptyList()));
+		change.addNode(new Node(4, 3, 0, emptyList()));
+		change.deleteWay(2);
+		change.deleteNode(3);
+
+		OSMData after = BEFORE.applyChange(change);
+
+		assertEquals(5, after.getNode(2).getLongitude(), 0);
+		assertEquals(0, after.getNode(1).getLongitude(), 0);
+		assertEquals(3, after.getNodes().size());
+		assertEquals(1, after.getWays().size());
+		assertArrayEquals(new long[] {1, 2}, nodesAsList(after.getWay(1)).toArray());
+
+		// the original data is not modified
+		assertEquals(3, BEFORE.getNodes().size());
+		assertEquals(2, BEFORE.getWays().size());
+		assertEquals(1, BEFORE.getNode(2).getLongitude(), 0);
+
+		try {
+			after.getWay(2);
+			fail("deleted way should not be found");
+		} catch (EntityNotFoundException e) {
+			// expected
+		}
+
+	}
+
+	@Test
+	public void testFollowedBy() throws EntityNotFoundException {
+
+		OSMChange change1 = new OSMChange();
+		change1.addNode(new Node(4, 3, 0, emptyList()));
+		change1.deleteNode(3);
+
+		OSMChange change2 = new OSMChange();
+		change2.deleteNode(4);
+		change2.addNode(new Node(3, 7, 0, emptyList()));
+
+		OSMChange combined = change1.followedBy(change2);
+
+		assertTrue(combined.isNodeDeleted(4));
+		assertFalse(combined.isNodeDeleted(3));
+
+		OSMData after = BEFORE.applyChange(change1).applyChange(change2);
+
+		OsmNode node3 = after.getNode(3);
+		assertEquals(7, node3.getLongitude(), 0);
+		assertEquals(3, after.getNodes().size());
+
+	}
+
+}
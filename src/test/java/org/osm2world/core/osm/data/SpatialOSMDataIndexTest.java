@@ -0,0 +1,90 @@
+package org.osm2world.core.osm.data;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toSet;
+import static org.junit.Assert.*;
+
+import java.util.Collection;
+import java.util.Set;
+
+import org.junit.Test;
+import org.osm2world.core.map_data.creation.LatLonBounds;
+
+import com.slimjars.dist.gnu.trove.list.array.TLongArrayList;
+
+import de.topobyte.osm4j.core.model.iface.EntityType;
+import de.topobyte.osm4j.core.model.iface.OsmEntity;
+import de.topobyte.osm4j.core.model.impl.Node;
+import de.topobyte.osm4j.core.model.impl.Relation;
+import de.topobyte.osm4j.core.model.impl.RelationMember;
+import de.topobyte.osm4j.core.model.impl.Tag;
+import de.topobyte.osm4j.core.model.impl.Way;
+
+public class SpatialOSMDataIndexTest {
+
+	/** the same data as in BoundedOSMFileReaderTest, plus a relation with a relation as its member */
+	private static OSMData createTestData() {
+
+		CompactOSMDataBuilder builder = new CompactOSMDataBuilder();
+
+		builder.add(new Node(1, 0.5, 0.5, emptyList()));
+		builder.add(new Node(2, 1.5, 0.5, emptyList()));
+		builder.add(new Node(3, 2.5, 2.5, emptyList()));
+		builder.add(new Node(4, 3.5, 2.5, emptyList()));
+		builder.add(new Node(5, 5, 5, emptyList()));
+		builder.add(new Node(6, 6, 5, emptyList()));
+		builder.add(new Node(7, 6, 6, emptyList()));
+
+		builder.add(new Way(10, new TLongArrayList(new long[] {1, 2}), emptyList()));
+		builder.add(new Way(11, new TLongArrayList(new long[] {3, 4}), emptyList()));
+		builder.add(new Way(12, new TLongArrayList(new long[] {5, 6, 7, 5}), emptyList()));
+
+		builder.add(new Relation(20, asList(
+				new RelationMember(10, EntityType.Way, "outer"),
+				new RelationMember(12, EntityType.Way, "outer")), asList(new Tag("type", "multipolygon"))));
+		builder.add(new Relation(21, asList(
+				new RelationMember(11, EntityType.Way, "")), asList(new Tag("type", "route"))));
+		builder.add(new Relation(22, asList(
+				new RelationMember(20, EntityType.Relation, "")), asList(new Tag("type", "site"))));
+
+		return builder.build();
+
+	}
+
+	@Test
+	public void testExtract() {
+
+		for (double cellSize : new double[] {0.3, 1, 10}) {
+
+			SpatialOSMDataIndex index = new SpatialOSMDataIndex(createTestData(), cellSize);
+
+			OSMData osmData = index.extract(new LatLonBounds(0, 0, 1, 1));
+
+			assertEquals(Set.of(1L, 2L, 5L, 6L, 7L), ids(osmData.getNodes()));
+			assertEquals(Set.of(10L, 12L), ids(osmData.getWays()));
+			assertEquals(Set.of(20L, 22L), ids(osmData.getRelations()));
+
+			LatLonBounds explicitBounds = osmData.getUnionOfExplicitBounds();
+			assertEquals(0, explicitBounds.minlat, 0);
+			assertEquals(1, explicitBounds.maxlon, 0);
+
+			osmData = index.extract(new LatLonBounds(2, 3, 3, 4));
+
+			assertEquals(Set.of(3L, 4L), ids(osmData.getNodes()));
+			assertEquals(Set.of(11L), ids(osmData.getWays()));
+			assertEquals(Set.of(21L), ids(osmData.getRelations()));
+
+			osmData = index.extract(new LatLonBounds(-2, -2, -1, -1));
+
+			assertEquals(Set.of(), ids(osmData.getNodes()));
+
+		}
+
+	}
+
+	private static Set<Long> ids(Collection<? extends OsmEntity> entities) {
+		return entities.stream().map(OsmEntity::getId).collect(toSet());
+	}
+
+}
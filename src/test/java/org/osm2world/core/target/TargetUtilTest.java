@@ -0,0 +1,124 @@
+package org.osm2world.core.target;
+
+import static org.junit.Assert.*;
+import static org.osm2world.core.target.statistics.StatisticsTarget.Stat.TOTAL_TRIANGLE_COUNT;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.osm2world.core.ConversionMetrics;
+import org.osm2world.core.map_data.data.MapData;
+import org.osm2world.core.map_data.data.MapElement;
+import org.osm2world.core.map_data.data.MapNode;
+import org.osm2world.core.target.common.MeshTarget;
+import org.osm2world.core.target.common.mesh.Mesh;
+import org.osm2world.core.target.statistics.StatisticsTarget;
+import org.osm2world.core.test.TestMapDataGenerator;
+import org.osm2world.core.test.TestWorldModule;
+import org.osm2world.core.test.TestWorldModule.TestNodeWorldObject;
+import org.osm2world.core.world.creation.WorldCreator;
+import org.osm2world.core.world.data.WorldObject;
+
+public class TargetUtilTest {
+
+	/** a {@link MeshTarget} which also records the order of {@link #beginObject(WorldObject)} calls */
+	private static class OrderRecordingTarget extends MeshTarget {
+
+		final List<WorldObject> objects = new ArrayList<>();
+
+		@Override
+		public void beginObject(WorldObject object) {
+			super.beginObject(object);
+			objects.add(object);
+		}
+
+	}
+
+	/** creates enough objects to be split into several batches */
+	private static MapData createTestData() {
+
+		TestMapDataGenerator generator = new TestMapDataGenerator();
+		for (int i = 0; i < 2500; i++) {
+			generator.createNode(i % 50, i / 50);
+		}
+		MapData mapData = generator.createMapData();
+
+		new WorldCreator(null, new TestWorldModule()).addRepresentationsTo(mapData);
+
+		return mapData;
+
+	}
+
+	@Test
+	public void testRenderWorldObjectsOrder() {
+
+		MapData mapData = createTestData();
+
+		List<WorldObject> expectedObjects = new ArrayList<>();
+		MeshTarget serialTarget = new MeshTarget();
+		for (MapElement element : mapData.getMapElements()) {
+			for (WorldObject object : element.getRepresentations()) {
+				expectedObjects.add(object);
+				TargetUtil.renderObject(serialTarget, object);
+			}
+		}
+
+		OrderRecordingTarget target = new OrderRecordingTarget();
+		TargetUtil.renderWorldObjects(target, mapData, true, true);
+
+		assertEquals(expectedObjects, target.objects);
+
+		List<Mesh> expectedMeshes = serialTarget.getMeshes();
+		List<Mesh> meshes = target.getMeshes();
+
+		assertEquals(expectedMeshes.size(), meshes.size());
+
+		for (int m = 0; m < meshes.size(); m++) {
+			assertEquals(expectedMeshes.get(m).geometry.asTriangles().vertices(),
+					meshes.get(m).geometry.asTriangles().vertices());
+		}
+
+	}
+
+	@Test
+	public void testRenderWorldObjectsMetrics() {
+
+		MapData mapData = createTestData();
+
+		ConversionMetrics metrics = new ConversionMetrics();
+		TargetUtil.renderWorldObjects(new StatisticsTarget(), mapData, true, true, metrics);
+
+		String name = "TestWorldModule$TestNodeWorldObject";
+		assertEquals(Long.valueOf(2500), metrics.getWorldObjectCounts().get(name));
+		assertTrue(metrics.getWorldObjectTimesNanos().get(name) > 0);
+
+	}
+
+	@Test
+	public void testRenderWorldObjectsFaultTolerance() {
+
+		MapData mapData = createTestData();
+
+		for (MapNode node : mapData.getMapNodes()) {
+			if (node.getPos().x == 10) {
+				node.addRepresentation(new TestNodeWorldObject(node) {
+					@Override
+					public void renderTo(Target target) {
+						throw new IllegalStateException("test exception");
+					}
+				});
+			}
+		}
+
+		MeshTarget meshTarget = new MeshTarget();
+		TargetUtil.renderWorldObjects(meshTarget, mapData, true, true);
+		assertEquals(2500, meshTarget.getMeshes().size());
+
+		StatisticsTarget statisticsTarget = new StatisticsTarget();
+		TargetUtil.renderWorldObjects(statisticsTarget, mapData, true, true);
+		assertEquals(2500, statisticsTarget.getGlobalCount(TOTAL_TRIANGLE_COUNT));
+
+	}
+
+}
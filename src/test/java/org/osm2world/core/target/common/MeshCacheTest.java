@@ -0,0 +1,82 @@
+package org.osm2world.core.target.common;
+
+import static org.junit.Assert.*;
+import static org.osm2world.core.target.statistics.StatisticsTarget.Stat.*;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.osm2world.core.map_data.data.MapData;
+import org.osm2world.core.target.TargetUtil;
+import org.osm2world.core.target.common.mesh.Mesh;
+import org.osm2world.core.target.statistics.StatisticsTarget;
+import org.osm2world.core.test.TestMapDataGenerator;
+import org.osm2world.core.test.TestWorldModule;
+import org.osm2world.core.world.creation.WorldCreator;
+
+public class MeshCacheTest {
+
+	@Test
+	public void testRenderToMultipleTargets() {
+
+		TestMapDataGenerator generator = new TestMapDataGenerator();
+		generator.createNode(0, 0);
+		generator.createNode(10, 0);
+		generator.createNode(0, 20);
+		MapData mapData = generator.createMapData();
+
+		new WorldCreator(null, new TestWorldModule()).addRepresentationsTo(mapData);
+
+		MeshTarget directTarget = new MeshTarget();
+		TargetUtil.renderWorldObjects(directTarget, mapData, true);
+		List<Mesh> expectedMeshes = directTarget.getMeshes();
+
+		for (boolean parallel : new boolean[] {false, true}) {
+
+			MeshCache meshCache = new MeshCache(mapData, parallel);
+
+			for (int i = 0; i < 2; i++) {
+
+				MeshTarget target = new MeshTarget();
+				meshCache.renderTo(target, true);
+				List<Mesh> meshes = target.getMeshes();
+
+				assertEquals(expectedMeshes.size(), meshes.size());
+
+				for (int m = 0; m < meshes.size(); m++) {
+					assertEquals(expectedMeshes.get(m).material, meshes.get(m).material);
+					assertEquals(expectedMeshes.get(m).geometry.asTriangles().vertices(),
+							meshes.get(m).geometry.asTriangles().vertices());
+				}
+
+			}
+
+			assertEquals(expectedMeshes.size(), meshCache.getMeshStore().meshes().size());
+
+		}
+
+	}
+
+	@Test
+	public void testRenderToNonMeshTarget() {
+
+		TestMapDataGenerator generator = new TestMapDataGenerator();
+		generator.createNode(0, 0);
+		generator.createNode(10, 0);
+		MapData mapData = generator.createMapData();
+
+		new WorldCreator(null, new TestWorldModule()).addRepresentationsTo(mapData);
+
+		StatisticsTarget directTarget = new StatisticsTarget();
+		TargetUtil.renderWorldObjects(directTarget, mapData, true);
+
+		StatisticsTarget target = new StatisticsTarget();
+		new MeshCache(mapData, false).renderTo(target, true);
+
+		assertEquals(2, target.getGlobalCount(OBJECT_COUNT));
+		assertEquals(directTarget.getGlobalCount(OBJECT_COUNT), target.getGlobalCount(OBJECT_COUNT));
+		assertEquals(directTarget.getGlobalCount(TOTAL_TRIANGLE_COUNT), target.getGlobalCount(TOTAL_TRIANGLE_COUNT));
+
+	}
+
+}
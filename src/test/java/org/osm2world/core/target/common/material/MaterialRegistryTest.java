@@ -0,0 +1,63 @@
+package org.osm2world.core.target.common.material;
+
+import static org.junit.Assert.*;
+
+import java.awt.Color;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.configuration.MapConfiguration;
+import org.junit.Test;
+import org.osm2world.core.target.common.material.Material.Interpolation;
+
+public class MaterialRegistryTest {
+
+	@Test
+	public void testConfiguredAttributes() {
+
+		Color defaultColor = Materials.ASPHALT.getColor();
+
+		MaterialRegistry registry = createRegistry("material_ASPHALT_color", "#ff0000");
+
+		Material asphalt = registry.get(Materials.ASPHALT);
+		assertEquals(Color.RED, asphalt.getColor());
+		assertEquals(Interpolation.FLAT, asphalt.getInterpolation());
+		assertSame(asphalt, registry.get(asphalt));
+		assertSame(asphalt, registry.getMaterial("asphalt"));
+
+		assertEquals(defaultColor, Materials.ASPHALT.getColor());
+		assertSame(Materials.ASPHALT, MaterialRegistry.EMPTY.get(Materials.ASPHALT));
+
+	}
+
+	@Test
+	public void testExternalMaterial() {
+
+		MaterialRegistry registry = createRegistry("material_FOO_color", "#00ff00");
+
+		Material material = registry.getMaterial("FOO");
+		assertNotNull(material);
+		assertEquals(Color.GREEN, material.getColor());
+
+		assertNull(MaterialRegistry.EMPTY.getMaterial("FOO"));
+
+	}
+
+	@Test
+	public void testSeparateRegistries() {
+
+		MaterialRegistry registryA = createRegistry("material_BRICK_color", "#ff0000");
+		MaterialRegistry registryB = createRegistry("material_BRICK_color", "#0000ff");
+
+		assertEquals(Color.RED, registryA.get(Materials.BRICK).getColor());
+		assertEquals(Color.BLUE, registryB.get(Materials.BRICK).getColor());
+
+	}
+
+	private static MaterialRegistry createRegistry(String key, String value) {
+		Map<String, Object> map = new HashMap<>();
+		map.put(key, value);
+		return MaterialRegistry.fromConfiguration(new MapConfiguration(map));
+	}
+
+}
@@ -74,7 +74,7 @@ public class FrontendPbfTargetTest {
 
 		File outputFile = File.createTempFile("unittest", ".o2w.pbf");
 		outputFile.deleteOnExit();
-		FrontendPbfTarget.writePbfFile(outputFile, results.getMapData(), bbox, null);
+		FrontendPbfTarget.writePbfFile(outputFile, results.getMapData(), results.getMaterialRegistry(), bbox, null);
 
 	}
 
@@ -91,7 +91,7 @@ public class FrontendPbfTargetTest {
 
 		File outputFile = File.createTempFile("unittest", ".o2w.pbf");
 		outputFile.deleteOnExit();
-		FrontendPbfTarget.writePbfFile(outputFile, results.getMapData(), bbox, null);
+		FrontendPbfTarget.writePbfFile(outputFile, results.getMapData(), results.getMaterialRegistry(), bbox, null);
 
 		try (FileInputStream is = new FileInputStream(outputFile)) {
 
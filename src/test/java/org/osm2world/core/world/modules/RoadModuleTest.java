@@ -17,13 +17,15 @@ public class RoadModuleTest {
 	@Test
 	public void testFindMatchingLanes() {
 
+		RoadModule module = new RoadModule();
+
 		List<Lane> lanes1 = asList(
-				new Lane(null, RoadModule.VEHICLE_LANE, RoadPart.LEFT, TagSet.of()),
-				new Lane(null, RoadModule.KERB, RoadPart.LEFT, TagSet.of()),
-				new Lane(null, RoadModule.SIDEWALK, RoadPart.LEFT, TagSet.of()));
+				module.new Lane(null, RoadModule.VEHICLE_LANE, RoadPart.LEFT, TagSet.of()),
+				module.new Lane(null, RoadModule.KERB, RoadPart.LEFT, TagSet.of()),
+				module.new Lane(null, RoadModule.SIDEWALK, RoadPart.LEFT, TagSet.of()));
 		List<Lane> lanes2 = asList(
-				new Lane(null, RoadModule.KERB, RoadPart.LEFT, TagSet.of()),
-				new Lane(null, RoadModule.SIDEWALK, RoadPart.LEFT, TagSet.of()));
+				module.new Lane(null, RoadModule.KERB, RoadPart.LEFT, TagSet.of()),
+				module.new Lane(null, RoadModule.SIDEWALK, RoadPart.LEFT, TagSet.of()));
 
 		Map<Integer, Integer> result = findMatchingLanes(lanes1, lanes2, true, false);
 
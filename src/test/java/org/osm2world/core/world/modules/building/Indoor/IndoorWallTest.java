@@ -8,6 +8,7 @@ import org.osm2world.core.map_data.data.MapWay;
 import org.osm2world.core.map_data.data.TagSet;
 import org.osm2world.core.math.LineSegmentXZ;
 import org.osm2world.core.math.VectorXZ;
+import org.osm2world.core.target.common.material.MaterialRegistry;
 import org.osm2world.core.test.TestMapDataGenerator;
 import org.osm2world.core.world.modules.building.Building;
 import org.osm2world.core.world.modules.building.BuildingPart;
@@ -40,7 +41,7 @@ public class IndoorWallTest {
 		buildingNodes.add(buildingNodes.get(0));
 
 		MapArea buildingPartArea = generator.createWayArea(buildingNodes, TagSet.of("building", "yes", "building:levels", "5", "height", "12.5"));
-		Building building = new Building(buildingPartArea, new BaseConfiguration());
+		Building building = new Building(buildingPartArea, new BaseConfiguration(), MaterialRegistry.EMPTY);
 		BuildingPart buildingPart = building.getParts().get(0);
 
 		/* generate wall */
@@ -15,6 +15,7 @@ import org.junit.Test;
 import org.osm2world.core.map_data.data.MapArea;
 import org.osm2world.core.map_data.data.MapNode;
 import org.osm2world.core.map_data.data.TagSet;
+import org.osm2world.core.target.common.material.MaterialRegistry;
 import org.osm2world.core.test.TestMapDataGenerator;
 import org.osm2world.core.world.modules.building.LevelAndHeightData.Level.LevelType;
 
@@ -36,7 +37,7 @@ public class LevelAndHeightDataTest {
 				"building", "yes",
 				"building:levels", "5",
 				"height", "12.5"));
-		Building building = new Building(buildingArea, new BaseConfiguration());
+		Building building = new Building(buildingArea, new BaseConfiguration(), MaterialRegistry.EMPTY);
 		LevelAndHeightData levelStructure = building.getParts().get(0).levelStructure;
 
 		assertEquals(12.5, levelStructure.height(), 0);
@@ -79,7 +80,7 @@ public class LevelAndHeightDataTest {
 				"height", "12.5",
 				"building:min_level", "2"));
 
-		Building building = new Building(buildingArea, new BaseConfiguration());
+		Building building = new Building(buildingArea, new BaseConfiguration(), MaterialRegistry.EMPTY);
 		LevelAndHeightData levelStructure = building.getParts().get(0).levelStructure;
 
 		assertEquals(12.5, levelStructure.height(), 0);
@@ -129,7 +130,7 @@ public class LevelAndHeightDataTest {
 		addOverlapAA(buildingArea, levelB, SHARE_SEGMENT);
 		addOverlapAA(buildingArea, levelC, SHARE_SEGMENT);
 
-		Building building = new Building(buildingArea, new BaseConfiguration());
+		Building building = new Building(buildingArea, new BaseConfiguration(), MaterialRegistry.EMPTY);
 		LevelAndHeightData levelStructure = building.getParts().get(0).levelStructure;
 
 		assertEquals(19, levelStructure.height(), 0);
@@ -174,7 +175,7 @@ public class LevelAndHeightDataTest {
 				"building:levels", "1",
 				"min_level", "42",
 				"max_level", "42"));
-		Building building = new Building(buildingArea, new BaseConfiguration());
+		Building building = new Building(buildingArea, new BaseConfiguration(), MaterialRegistry.EMPTY);
 		LevelAndHeightData levelStructure = building.getParts().get(0).levelStructure;
 
 		assertEquals(1, levelStructure.levels.size());
@@ -201,7 +202,7 @@ public class LevelAndHeightDataTest {
 				"roof:levels", "2",
 				"roof:shape", "gabled",
 				"height", "8 m"));
-		Building building = new Building(buildingArea, new BaseConfiguration());
+		Building building = new Building(buildingArea, new BaseConfiguration(), MaterialRegistry.EMPTY);
 		LevelAndHeightData levelStructure = building.getParts().get(0).levelStructure;
 
 		assertEquals(8, levelStructure.height(), 0);
@@ -224,7 +225,7 @@ public class LevelAndHeightDataTest {
 				"building:levels", "0",
 				"roof:levels", "2",
 				"roof:shape", "gabled"));
-		building = new Building(buildingArea, new BaseConfiguration());
+		building = new Building(buildingArea, new BaseConfiguration(), MaterialRegistry.EMPTY);
 		LevelAndHeightData result2 = building.getParts().get(0).levelStructure;
 
 		assertEquals(0, result2.heightWithoutRoof(), 0);
@@ -258,7 +259,7 @@ public class LevelAndHeightDataTest {
 				"building:levels", "0",
 				"building:levels:underground", "2",
 				"max_level", "-1"));
-		Building building = new Building(buildingArea, new BaseConfiguration());
+		Building building = new Building(buildingArea, new BaseConfiguration(), MaterialRegistry.EMPTY);
 		LevelAndHeightData levelStructure = building.getParts().get(0).levelStructure;
 
 		assertEquals(0, levelStructure.height(), 0);
@@ -292,7 +293,7 @@ public class LevelAndHeightDataTest {
 				"min_level", "7",
 				"non_existent_levels", "8;11"));
 
-		Building building = new Building(buildingPartArea, new BaseConfiguration());
+		Building building = new Building(buildingPartArea, new BaseConfiguration(), MaterialRegistry.EMPTY);
 		LevelAndHeightData levelStructure = building.getParts().get(0).levelStructure;
 
 		assertEquals(1, levelStructure.levels(EnumSet.of(LevelType.UNDERGROUND)).size());
@@ -328,7 +329,7 @@ public class LevelAndHeightDataTest {
 		addOverlapAA(buildingArea, level0, SHARE_SEGMENT);
 		addOverlapAA(buildingArea, level1, SHARE_SEGMENT);
 
-		Building building = new Building(buildingArea, new BaseConfiguration());
+		Building building = new Building(buildingArea, new BaseConfiguration(), MaterialRegistry.EMPTY);
 		LevelAndHeightData levelStructure = building.getParts().get(0).levelStructure;
 
 		assertEquals(5, levelStructure.height(), 0);
@@ -360,7 +361,7 @@ public class LevelAndHeightDataTest {
 				"roof:height", "2",
 				"min_height", "4"));
 
-		Building building = new Building(buildingArea, new BaseConfiguration());
+		Building building = new Building(buildingArea, new BaseConfiguration(), MaterialRegistry.EMPTY);
 		LevelAndHeightData levelStructure = building.getParts().get(0).levelStructure;
 
 		assertEquals(5, levelStructure.height(), 5);
@@ -387,7 +388,7 @@ public class LevelAndHeightDataTest {
 				"building:min_level", "2",
 				"roof:levels", "1",
 				"roof:shape", "round"));
-		Building building = new Building(buildingArea, new BaseConfiguration());
+		Building building = new Building(buildingArea, new BaseConfiguration(), MaterialRegistry.EMPTY);
 		LevelAndHeightData levelStructure = building.getParts().get(0).levelStructure;
 
 		System.out.println(levelStructure);
@@ -11,6 +11,7 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.junit.Test;
 import org.osm2world.core.math.VectorXYZ;
 import org.osm2world.core.math.VectorXZ;
+import org.osm2world.core.target.common.material.MaterialRegistry;
 
 public class WallSurfaceTest {
 
@@ -24,7 +25,7 @@ public class WallSurfaceTest {
 				new VectorXYZ(10, 0, 5));
 		List<VectorXYZ> upperBoundary = addYList(lowerBoundary, 10);
 
-		rectangularWallSurface = new WallSurface(BRICK, lowerBoundary, upperBoundary);
+		rectangularWallSurface = new WallSurface(BRICK, lowerBoundary, upperBoundary, MaterialRegistry.EMPTY);
 	}
 
 	@Test
@@ -9,6 +9,7 @@ import java.util.HashSet;
 
 import org.junit.Test;
 import org.osm2world.core.map_data.data.TagSet;
+import org.osm2world.core.target.common.material.MaterialRegistry;
 import org.osm2world.core.util.enums.LeftRightBoth;
 
 
@@ -24,7 +25,7 @@ public class WindowParametersTest {
 				"window:breast", "0.5 m",
 				"window:shutter", "both");
 
-		WindowParameters result = new WindowParameters(tags, 3);
+		WindowParameters result = new WindowParameters(tags, 3, MaterialRegistry.EMPTY);
 
 		assertEquals(0.5, result.breast, 0);
 		assertEquals(LeftRightBoth.BOTH, result.shutterSide);
@@ -50,7 +51,7 @@ public class WindowParametersTest {
 				"window:height", "3 m",
 				"window:width", "1 m");
 
-		WindowParameters result = new WindowParameters(tags, 5);
+		WindowParameters result = new WindowParameters(tags, 5, MaterialRegistry.EMPTY);
 
 		assertEquals(1.0, result.overallProperties.width, 0);
 		assertEquals(3.0, result.overallProperties.height, 0);
@@ -75,7 +76,7 @@ public class WindowParametersTest {
 				"window:height", "1.5 m",
 				"window:top:height", "0.5 m");
 
-		WindowParameters result = new WindowParameters(tags, 5);
+		WindowParameters result = new WindowParameters(tags, 5, MaterialRegistry.EMPTY);
 
 		assertEquals(1.5, result.overallProperties.height, 0);
 
@@ -103,7 +104,7 @@ public class WindowParametersTest {
 				"window:right:width", "0.5 m",
 				"window:center:width", "1.0 m");
 
-		WindowParameters result = new WindowParameters(tags, 5);
+		WindowParameters result = new WindowParameters(tags, 5, MaterialRegistry.EMPTY);
 
 		assertEquals(2.0, result.overallProperties.width, 0);
 		assertEquals(2.0, result.overallProperties.height, 0);
@@ -139,7 +140,7 @@ public class WindowParametersTest {
 				"window:shape", "rectangle",
 				"window:panes", "0x0");
 
-		WindowParameters result = new WindowParameters(tags, 2.5);
+		WindowParameters result = new WindowParameters(tags, 2.5, MaterialRegistry.EMPTY);
 
 		assertEquals(RECTANGLE, result.overallProperties.shape);
 		assertTrue(result.overallProperties.panes.panesHorizontal > 0);
@@ -0,0 +1,40 @@
+package org.osm2world.core.world.modules.common;
+
+import static org.junit.Assert.*;
+
+import org.apache.commons.configuration.BaseConfiguration;
+import org.junit.Test;
+import org.osm2world.core.map_data.data.MapData;
+import org.osm2world.core.map_data.data.MapNode;
+import org.osm2world.core.test.TestMapDataGenerator;
+import org.osm2world.core.test.TestWorldModule;
+import org.osm2world.core.test.TestWorldModule.TestNodeWorldObject;
+import org.osm2world.core.world.creation.WorldCreator;
+
+public class AbstractModuleTest {
+
+	@Test
+	public void testParallelApplication() {
+
+		TestMapDataGenerator generator = new TestMapDataGenerator();
+
+		for (int i = 0; i < 1000; i++) {
+			generator.createNode(i, i % 7);
+		}
+
+		MapData mapData = generator.createMapData();
+
+		BaseConfiguration config = new BaseConfiguration();
+		config.addProperty("parallelWorldModules", true);
+
+		new WorldCreator(config, new TestWorldModule(), new TestWorldModule()).addRepresentationsTo(mapData);
+
+		for (MapNode node : mapData.getMapNodes()) {
+			assertEquals(2, node.getRepresentations().size());
+			assertTrue(node.getPrimaryRepresentation() instanceof TestNodeWorldObject);
+			assertSame(node, node.getPrimaryRepresentation().getPrimaryMapElement());
+		}
+
+	}
+
+}
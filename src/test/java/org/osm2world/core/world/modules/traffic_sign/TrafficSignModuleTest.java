@@ -13,10 +13,12 @@ import org.osm2world.core.map_data.data.MapNode;
 import org.osm2world.core.map_data.data.MapWay;
 import org.osm2world.core.map_data.data.TagSet;
 import org.osm2world.core.test.TestMapDataGenerator;
-import org.osm2world.core.world.modules.RoadModule.Road;
+import org.osm2world.core.world.modules.RoadModule;
 
 public class TrafficSignModuleTest {
 
+	private final RoadModule roadModule = new RoadModule();
+
 	@Test
 	public void zeroConnectedJunctions() throws Exception {
 
@@ -33,7 +35,7 @@ public class TrafficSignModuleTest {
 
 		List<MapNode> wayNodes = asList(node00, node01, node02, node03);
 		MapWay way = generator.createWay(wayNodes, TagSet.of("highway", "tertiary"));
-		way.getWaySegments().forEach(s -> s.addRepresentation(new Road(s, new MapConfiguration(emptyMap()))));
+		way.getWaySegments().forEach(s -> s.addRepresentation(roadModule.new Road(s, new MapConfiguration(emptyMap()))));
 
 		/* check that no junction is found for any starting node */
 
@@ -68,7 +70,7 @@ public class TrafficSignModuleTest {
 
 		for (List<MapNode> wayNodes : wayNodeLists) {
 			MapWay way = generator.createWay(wayNodes, TagSet.of("highway", "tertiary"));
-			way.getWaySegments().forEach(s -> s.addRepresentation(new Road(s, new MapConfiguration(emptyMap()))));
+			way.getWaySegments().forEach(s -> s.addRepresentation(roadModule.new Road(s, new MapConfiguration(emptyMap()))));
 		}
 
 		/* check that the single junction node is found for each starting node */
@@ -109,7 +111,7 @@ public class TrafficSignModuleTest {
 
 		for (List<MapNode> wayNodes : wayNodeLists) {
 			MapWay way = generator.createWay(wayNodes, TagSet.of("highway", "tertiary"));
-			way.getWaySegments().forEach(s -> s.addRepresentation(new Road(s, new MapConfiguration(emptyMap()))));
+			way.getWaySegments().forEach(s -> s.addRepresentation(roadModule.new Road(s, new MapConfiguration(emptyMap()))));
 		}
 
 		/* check that the correct junction node is found for each starting node */
@@ -140,7 +142,7 @@ public class TrafficSignModuleTest {
 
 		List<MapNode> wayNodes = asList(node00, node01, node02, node03, node00);
 		MapWay way = generator.createWay(wayNodes, TagSet.of("highway", "tertiary"));
-		way.getWaySegments().forEach(s -> s.addRepresentation(new Road(s, new MapConfiguration(emptyMap()))));
+		way.getWaySegments().forEach(s -> s.addRepresentation(roadModule.new Road(s, new MapConfiguration(emptyMap()))));
 
 		/* check that there is no infinite loop and that no junction is reported */
 